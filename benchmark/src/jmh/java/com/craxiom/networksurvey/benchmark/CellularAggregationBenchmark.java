@@ -0,0 +1,71 @@
+package com.craxiom.networksurvey.benchmark;
+
+import com.craxiom.networksurvey.logging.CellularAggregator;
+import com.craxiom.networksurvey.model.CellularAggregateRecord;
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.google.protobuf.GeneratedMessage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the serving and neighbor cell aggregation that the {@code CellularRecordLogger} runs on
+ * every cellular batch before writing the row to the GeoPackage file.
+ * <p>
+ * Each batch starts with a serving cell, the same as the batches built by the
+ * {@code SurveyRecordProcessor}, so that the benchmark stays on the normal (non logging) path.
+ */
+@State(Scope.Thread)
+public class CellularAggregationBenchmark
+{
+    private static final int BATCH_COUNT = 64;
+
+    private List<List<CellularRecordWrapper>> lteBatches;
+    private List<List<CellularRecordWrapper>> nrBatches;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        // The synthetic LTE records have a serving cell every 6 records and NR every 4 records
+        lteBatches = toBatches(CellularProtocol.LTE, SyntheticSurvey.lteRecords(5, BATCH_COUNT * 6), 6);
+        nrBatches = toBatches(CellularProtocol.NR, SyntheticSurvey.nrRecords(6, BATCH_COUNT * 4), 4);
+    }
+
+    @Benchmark
+    public CellularAggregateRecord aggregateLteBatch()
+    {
+        index = (index + 1) % BATCH_COUNT;
+        return CellularAggregator.aggregate(lteBatches.get(index));
+    }
+
+    @Benchmark
+    public CellularAggregateRecord aggregateNrBatch()
+    {
+        index = (index + 1) % BATCH_COUNT;
+        return CellularAggregator.aggregate(nrBatches.get(index));
+    }
+
+    private static List<List<CellularRecordWrapper>> toBatches(CellularProtocol protocol, GeneratedMessage[] records,
+                                                               int batchSize)
+    {
+        final List<List<CellularRecordWrapper>> batches = new ArrayList<>();
+        for (int start = 0; start < records.length; start += batchSize)
+        {
+            final List<CellularRecordWrapper> batch = new ArrayList<>(batchSize);
+            for (int i = start; i < start + batchSize; i++)
+            {
+                batch.add(new CellularRecordWrapper(protocol, records[i]));
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,60 @@
+package com.craxiom.networksurvey.benchmark;
+
+import com.craxiom.networksurvey.util.CellularUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the band and frequency lookups that are run for each cell when aggregating the cellular
+ * records and when displaying the cell details. Each invocation looks up the full set of ARFCNs so
+ * that the cost of the bands near the end of the lookup tables is included.
+ */
+@State(Scope.Thread)
+public class CellularUtilsBenchmark
+{
+    private final int[] earfcns = SyntheticSurvey.EARFCNS.clone();
+    private final int[] narfcns = SyntheticSurvey.NRARFCNS.clone();
+
+    @Benchmark
+    public void lteBandLookup(Blackhole blackhole)
+    {
+        for (int earfcn : earfcns)
+        {
+            final int band = CellularUtils.downlinkEarfcnToBand(earfcn);
+            blackhole.consume(band);
+            blackhole.consume(CellularUtils.getLteBandName(band));
+        }
+    }
+
+    @Benchmark
+    public void lteFrequencyLookup(Blackhole blackhole)
+    {
+        for (int earfcn : earfcns)
+        {
+            blackhole.consume(CellularUtils.earfcnToFrequencyMhz(earfcn));
+        }
+    }
+
+    @Benchmark
+    public void nrBandLookup(Blackhole blackhole)
+    {
+        for (int narfcn : narfcns)
+        {
+            final int band = CellularUtils.narfcnToNrBand(narfcn);
+            blackhole.consume(band);
+            blackhole.consume(CellularUtils.getNrBandName(band));
+        }
+    }
+
+    @Benchmark
+    public void nrFrequencyLookup(Blackhole blackhole)
+    {
+        for (int narfcn : narfcns)
+        {
+            blackhole.consume(CellularUtils.narfcnToFrequencyMhz(narfcn));
+        }
+    }
+}
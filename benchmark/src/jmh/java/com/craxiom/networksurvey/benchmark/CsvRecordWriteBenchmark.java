@@ -0,0 +1,97 @@
+package com.craxiom.networksurvey.benchmark;
+
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.networksurvey.logging.CsvRecordLogger;
+import com.craxiom.networksurvey.logging.CsvValueFormatter;
+import com.craxiom.networksurvey.logging.LteCsvLogger;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Measures writing LTE records as CSV rows, using the same {@link CSVFormat}, row conversion and
+ * flushing as the {@link LteCsvLogger}.
+ * <p>
+ * The logger itself needs the {@code NetworkSurveyService} and a handler thread to be created, so the
+ * benchmark calls the logger's {@link LteCsvLogger#toCsvRow} directly and writes the rows to a
+ * {@link Writer} that discards them. This keeps the benchmark on the formatting and printing cost rather
+ * than the file system.
+ */
+@State(Scope.Thread)
+public class CsvRecordWriteBenchmark
+{
+    /**
+     * True to flush after every row, which is what the loggers do so that a crash loses as little of
+     * the survey as possible.
+     */
+    @Param({"true", "false"})
+    public boolean flush;
+
+    private final CsvValueFormatter valueFormatter = new CsvValueFormatter();
+
+    private LteRecord[] records;
+    private CSVPrinter printer;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        records = SyntheticSurvey.lteRecords(4, 1_024);
+
+        final CSVFormat csvFormat = CsvRecordLogger.createCsvFormat(
+                new String[]{"Created by Network Survey version=benchmark", "CSV Version=0.4.0"}, LteCsvLogger.HEADERS);
+        printer = new CSVPrinter(new DiscardingWriter(), csvFormat);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        printer.close();
+    }
+
+    @Benchmark
+    public void writeLteRecord() throws IOException
+    {
+        final LteRecord record = records[index];
+        index = (index + 1) % records.length;
+
+        printer.printRecord((Object[]) LteCsvLogger.toCsvRow(record, valueFormatter));
+        if (flush) printer.flush();
+    }
+
+    /**
+     * A writer that throws away everything written to it.
+     */
+    private static final class DiscardingWriter extends Writer
+    {
+        @Override
+        public void write(char[] buffer, int offset, int length)
+        {
+        }
+
+        @Override
+        public void write(String string, int offset, int length)
+        {
+        }
+
+        @Override
+        public void flush()
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.craxiom.networksurvey.benchmark;
+
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.networksurvey.model.TimestampedRecord;
+import com.craxiom.networksurvey.util.LegacyRecordConversion;
+import com.craxiom.networksurvey.util.Rfc3339Formatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.function.Function;
+
+/**
+ * Measures converting the survey records to the legacy messages that are still sent to older gRPC
+ * servers.
+ * <p>
+ * The {@code convert*Record} benchmarks build each legacy message with a new builder (the previous
+ * approach, where every record was converted as soon as it was queued), and the
+ * {@code convert*RecordReusingBuilder} benchmarks use the converters that the gRPC streams now use
+ * when sending, which reuse one builder. The device times are all different, the same as for
+ * records that sat in the queue while the connection to the server was down.
+ */
+@State(Scope.Thread)
+@SuppressWarnings("unchecked")
+public class LegacyRecordConversionBenchmark
+{
+    private static final int RECORD_COUNT = 1_024;
+
+    private LteRecord[] lteRecords;
+    private GsmRecord[] gsmRecords;
+    private UmtsRecord[] umtsRecords;
+    private TimestampedRecord<LteRecord>[] timestampedLteRecords;
+    private TimestampedRecord<GsmRecord>[] timestampedGsmRecords;
+    private TimestampedRecord<UmtsRecord>[] timestampedUmtsRecords;
+    private Function<TimestampedRecord<LteRecord>, com.craxiom.networksurvey.messaging.LteRecord> lteConverter;
+    private Function<TimestampedRecord<GsmRecord>, com.craxiom.networksurvey.messaging.GsmRecord> gsmConverter;
+    private Function<TimestampedRecord<UmtsRecord>, com.craxiom.networksurvey.messaging.UmtsRecord> umtsConverter;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        lteRecords = SyntheticSurvey.lteRecords(7, RECORD_COUNT);
+        gsmRecords = SyntheticSurvey.gsmRecords(8, RECORD_COUNT);
+        umtsRecords = SyntheticSurvey.umtsRecords(9, RECORD_COUNT);
+
+        timestampedLteRecords = new TimestampedRecord[RECORD_COUNT];
+        timestampedGsmRecords = new TimestampedRecord[RECORD_COUNT];
+        timestampedUmtsRecords = new TimestampedRecord[RECORD_COUNT];
+        for (int i = 0; i < RECORD_COUNT; i++)
+        {
+            timestampedLteRecords[i] = new TimestampedRecord<>(lteRecords[i],
+                    Rfc3339Formatter.parseEpochMillis(lteRecords[i].getData().getDeviceTime()));
+            timestampedGsmRecords[i] = new TimestampedRecord<>(gsmRecords[i],
+                    Rfc3339Formatter.parseEpochMillis(gsmRecords[i].getData().getDeviceTime()));
+            timestampedUmtsRecords[i] = new TimestampedRecord<>(umtsRecords[i],
+                    Rfc3339Formatter.parseEpochMillis(umtsRecords[i].getData().getDeviceTime()));
+        }
+
+        lteConverter = LegacyRecordConversion.lteRecordConverter();
+        gsmConverter = LegacyRecordConversion.gsmRecordConverter();
+        umtsConverter = LegacyRecordConversion.umtsRecordConverter();
+    }
+
+    @Benchmark
+    public com.craxiom.networksurvey.messaging.LteRecord convertLteRecord()
+    {
+        index = (index + 1) % RECORD_COUNT;
+        return LegacyRecordConversion.convertLteRecord(lteRecords[index]);
+    }
+
+    @Benchmark
+    public com.craxiom.networksurvey.messaging.LteRecord convertLteRecordReusingBuilder()
+    {
+        index = (index + 1) % RECORD_COUNT;
+        return lteConverter.apply(timestampedLteRecords[index]);
+    }
+
+    @Benchmark
+    public com.craxiom.networksurvey.messaging.GsmRecord convertGsmRecord()
+    {
+        index = (index + 1) % RECORD_COUNT;
+        return LegacyRecordConversion.convertGsmRecord(gsmRecords[index]);
+    }
+
+    @Benchmark
+    public com.craxiom.networksurvey.messaging.GsmRecord convertGsmRecordReusingBuilder()
+    {
+        index = (index + 1) % RECORD_COUNT;
+        return gsmConverter.apply(timestampedGsmRecords[index]);
+    }
+
+    @Benchmark
+    public com.craxiom.networksurvey.messaging.UmtsRecord convertUmtsRecord()
+    {
+        index = (index + 1) % RECORD_COUNT;
+        return LegacyRecordConversion.convertUmtsRecord(umtsRecords[index]);
+    }
+
+    @Benchmark
+    public com.craxiom.networksurvey.messaging.UmtsRecord convertUmtsRecordReusingBuilder()
+    {
+        index = (index + 1) % RECORD_COUNT;
+        return umtsConverter.apply(timestampedUmtsRecords[index]);
+    }
+}
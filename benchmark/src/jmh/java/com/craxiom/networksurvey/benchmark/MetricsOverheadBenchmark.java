@@ -0,0 +1,103 @@
+package com.craxiom.networksurvey.benchmark;
+
+import com.craxiom.networksurvey.metrics.LatencyHistogram;
+import com.craxiom.networksurvey.metrics.MetricCounter;
+import com.craxiom.networksurvey.metrics.MetricGauge;
+import com.craxiom.networksurvey.metrics.MetricsRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Measures what the pipeline metrics add to each record on the hot paths, both from a single thread
+ * and with several threads updating the same metrics (as the survey service, the upload database
+ * executor, and the gRPC tasks do). The snapshot benchmark covers the cost of the diagnostics screen
+ * and the periodic metrics message, including the supplier gauges for the gRPC queue depths.
+ */
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark
+{
+    private MetricsRegistry registry;
+    private MetricCounter counter;
+    private MetricGauge gauge;
+    private LatencyHistogram histogram;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        registry = new MetricsRegistry();
+        counter = registry.counter("records");
+        gauge = registry.gauge("backlog");
+        histogram = registry.histogram("write");
+
+        for (int i = 0; i < 15; i++)
+        {
+            final ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+            for (int j = 0; j < 100; j++)
+            {
+                queue.add(j);
+            }
+            registry.registerGauge("queue." + i, queue::size);
+        }
+    }
+
+    @Benchmark
+    public void counterIncrement()
+    {
+        counter.increment();
+    }
+
+    @Benchmark
+    public void gaugeIncrementDecrement()
+    {
+        gauge.increment();
+        gauge.decrement();
+    }
+
+    @Benchmark
+    public void histogramRecordSince()
+    {
+        histogram.recordSince(System.nanoTime());
+    }
+
+    @Benchmark
+    public void baselineNanoTime(Blackhole blackhole)
+    {
+        blackhole.consume(System.nanoTime() - System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void counterIncrementContended()
+    {
+        counter.increment();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void gaugeIncrementDecrementContended()
+    {
+        gauge.increment();
+        gauge.decrement();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void histogramRecordContended()
+    {
+        histogram.recordSince(System.nanoTime());
+    }
+
+    @Benchmark
+    public void snapshot(Blackhole blackhole)
+    {
+        blackhole.consume(registry.snapshot());
+    }
+}
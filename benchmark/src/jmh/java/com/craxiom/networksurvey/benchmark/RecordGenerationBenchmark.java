@@ -0,0 +1,210 @@
+package com.craxiom.networksurvey.benchmark;
+
+import com.craxiom.messaging.CdmaRecord;
+import com.craxiom.messaging.CdmaRecordData;
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.GsmRecordData;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.NrRecordData;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.UmtsRecordData;
+import com.craxiom.messaging.WifiBeaconRecord;
+import com.craxiom.networksurvey.services.SurveyRecordBuilder;
+import com.craxiom.networksurvey.services.WifiStaticFieldsCache;
+import com.craxiom.networksurvey.util.RecordTimestamp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures building the survey records for one scan with the {@link SurveyRecordBuilder} that the
+ * {@code SurveyRecordProcessor.generate*SurveyRecord} methods use: one {@link RecordTimestamp} per scan,
+ * the validity checks on each value, and a wrapper message per optional field.
+ * <p>
+ * The processor reads the values from the Android {@code CellInfo} and {@code ScanResult} objects, which
+ * can't be created on the JVM, so the values come from the equivalent {@link SyntheticSurvey} inputs
+ * instead. The location fields are left out since they come from the framework {@code Location} as well.
+ * The Wi-Fi records use the real {@link WifiStaticFieldsCache}.
+ */
+@State(Scope.Thread)
+public class RecordGenerationBenchmark
+{
+    /**
+     * The number of cells (or APs) seen in a single scan.
+     */
+    @Param({"8", "64"})
+    public int scanSize;
+
+    private SyntheticSurvey.LteCell[] lteCells;
+    private SyntheticSurvey.GsmCell[] gsmCells;
+    private SyntheticSurvey.UmtsCell[] umtsCells;
+    private SyntheticSurvey.CdmaCell[] cdmaCells;
+    private SyntheticSurvey.NrCell[] nrCells;
+    private SyntheticSurvey.WifiScan[] wifiScans;
+    private WifiStaticFieldsCache wifiStaticFieldsCache;
+    private long epochMillis;
+    private int recordNumber;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        lteCells = SyntheticSurvey.lteScan(1, scanSize);
+        gsmCells = SyntheticSurvey.gsmScan(2, scanSize);
+        wifiScans = SyntheticSurvey.wifiScan(3, scanSize);
+        umtsCells = SyntheticSurvey.umtsScan(4, scanSize);
+        cdmaCells = SyntheticSurvey.cdmaScan(5, scanSize);
+        nrCells = SyntheticSurvey.nrScan(6, scanSize);
+        wifiStaticFieldsCache = new WifiStaticFieldsCache();
+        epochMillis = SyntheticSurvey.START_EPOCH_MILLIS;
+    }
+
+    @Benchmark
+    public void generateLteSurveyRecords(Blackhole blackhole)
+    {
+        final RecordTimestamp timestamp = nextTimestamp();
+        for (SyntheticSurvey.LteCell cell : lteCells)
+        {
+            blackhole.consume(generateLteSurveyRecord(cell, timestamp));
+        }
+    }
+
+    @Benchmark
+    public void generateGsmSurveyRecords(Blackhole blackhole)
+    {
+        final RecordTimestamp timestamp = nextTimestamp();
+        for (SyntheticSurvey.GsmCell cell : gsmCells)
+        {
+            blackhole.consume(generateGsmSurveyRecord(cell, timestamp));
+        }
+    }
+
+    @Benchmark
+    public void generateUmtsSurveyRecords(Blackhole blackhole)
+    {
+        final RecordTimestamp timestamp = nextTimestamp();
+        for (SyntheticSurvey.UmtsCell cell : umtsCells)
+        {
+            blackhole.consume(generateUmtsSurveyRecord(cell, timestamp));
+        }
+    }
+
+    @Benchmark
+    public void generateCdmaSurveyRecords(Blackhole blackhole)
+    {
+        final RecordTimestamp timestamp = nextTimestamp();
+        for (SyntheticSurvey.CdmaCell cell : cdmaCells)
+        {
+            blackhole.consume(generateCdmaSurveyRecord(cell, timestamp));
+        }
+    }
+
+    @Benchmark
+    public void generateNrSurveyRecords(Blackhole blackhole)
+    {
+        final RecordTimestamp timestamp = nextTimestamp();
+        for (SyntheticSurvey.NrCell cell : nrCells)
+        {
+            blackhole.consume(generateNrSurveyRecord(cell, timestamp));
+        }
+    }
+
+    /**
+     * Every AP is already in the static fields cache, which is the steady state during a survey.
+     */
+    @Benchmark
+    public void generateWifiBeaconSurveyRecords(Blackhole blackhole)
+    {
+        final RecordTimestamp timestamp = nextTimestamp();
+        for (SyntheticSurvey.WifiScan scan : wifiScans)
+        {
+            blackhole.consume(generateWifiBeaconSurveyRecord(wifiStaticFieldsCache, scan, timestamp));
+        }
+    }
+
+    /**
+     * Every AP is new, so the static fields are built for each record, which is the cost when first
+     * entering a new area.
+     */
+    @Benchmark
+    public void generateWifiBeaconSurveyRecordsColdCache(Blackhole blackhole)
+    {
+        final RecordTimestamp timestamp = nextTimestamp();
+        final WifiStaticFieldsCache coldCache = new WifiStaticFieldsCache();
+        for (SyntheticSurvey.WifiScan scan : wifiScans)
+        {
+            blackhole.consume(generateWifiBeaconSurveyRecord(coldCache, scan, timestamp));
+        }
+    }
+
+    private RecordTimestamp nextTimestamp()
+    {
+        epochMillis += 1_000;
+        return RecordTimestamp.of(epochMillis, epochMillis, SyntheticSurvey.ZONE);
+    }
+
+    private LteRecord generateLteSurveyRecord(SyntheticSurvey.LteCell cell, RecordTimestamp timestamp)
+    {
+        if (!SurveyRecordBuilder.validateLteFields(cell.earfcn, cell.pci, cell.rsrp)) return null;
+
+        return SurveyRecordBuilder.buildLteRecord(LteRecordData.newBuilder(), SyntheticSurvey.DEVICE_ID,
+                SyntheticSurvey.MISSION_ID, timestamp, recordNumber++, (int) (epochMillis / 1_000), cell.registered,
+                "Verizon", cell.mcc, cell.mnc, cell.tac, cell.ci, cell.earfcn, cell.pci, cell.rsrp, cell.rsrq,
+                cell.timingAdvance, cell.rssi, cell.cqi, 1, SurveyRecordBuilder.UNSET_SNR, cell.bandwidthKhz);
+    }
+
+    private GsmRecord generateGsmSurveyRecord(SyntheticSurvey.GsmCell cell, RecordTimestamp timestamp)
+    {
+        if (!SurveyRecordBuilder.validateGsmFields(cell.arfcn, cell.bsic, cell.rssi)) return null;
+
+        return SurveyRecordBuilder.buildGsmRecord(GsmRecordData.newBuilder(), SyntheticSurvey.DEVICE_ID,
+                SyntheticSurvey.MISSION_ID, timestamp, recordNumber++, (int) (epochMillis / 1_000), cell.registered,
+                "T-Mobile", cell.mcc, cell.mnc, cell.lac, cell.cid, cell.arfcn, cell.bsic, cell.rssi,
+                SurveyRecordBuilder.UNSET, 1);
+    }
+
+    private UmtsRecord generateUmtsSurveyRecord(SyntheticSurvey.UmtsCell cell, RecordTimestamp timestamp)
+    {
+        if (!SurveyRecordBuilder.validateUmtsFields(cell.uarfcn, cell.psc)) return null;
+
+        return SurveyRecordBuilder.buildUmtsRecord(UmtsRecordData.newBuilder(), SyntheticSurvey.DEVICE_ID,
+                SyntheticSurvey.MISSION_ID, timestamp, recordNumber++, (int) (epochMillis / 1_000), cell.registered,
+                "T-Mobile", cell.mcc, cell.mnc, cell.lac, cell.cid, cell.uarfcn, cell.psc, cell.rssi, cell.rscp,
+                cell.ecNo, 1);
+    }
+
+    private CdmaRecord generateCdmaSurveyRecord(SyntheticSurvey.CdmaCell cell, RecordTimestamp timestamp)
+    {
+        if (!SurveyRecordBuilder.validateCdmaFields(cell.dbm, cell.ecio)) return null;
+
+        return SurveyRecordBuilder.buildCdmaRecord(CdmaRecordData.newBuilder(), SyntheticSurvey.DEVICE_ID,
+                SyntheticSurvey.MISSION_ID, timestamp, recordNumber++, (int) (epochMillis / 1_000), cell.registered,
+                "Verizon", cell.sid, cell.nid, cell.bsid, cell.dbm, cell.ecio, 1);
+    }
+
+    private NrRecord generateNrSurveyRecord(SyntheticSurvey.NrCell cell, RecordTimestamp timestamp)
+    {
+        if (!SurveyRecordBuilder.validateNrFields(cell.nrarfcn, cell.pci)) return null;
+
+        return SurveyRecordBuilder.buildNrRecord(NrRecordData.newBuilder(), SyntheticSurvey.DEVICE_ID,
+                SyntheticSurvey.MISSION_ID, timestamp, recordNumber++, (int) (epochMillis / 1_000), cell.registered,
+                "Verizon", cell.mcc, cell.mnc, cell.tac, cell.nci, cell.nrarfcn, cell.pci, cell.ssRsrp, cell.ssRsrq,
+                cell.ssSinr, cell.csiRsrp, cell.csiRsrq, cell.csiSinr, cell.timingAdvanceMicros, 1);
+    }
+
+    private WifiBeaconRecord generateWifiBeaconSurveyRecord(WifiStaticFieldsCache cache, SyntheticSurvey.WifiScan scan,
+                                                            RecordTimestamp timestamp)
+    {
+        final WifiStaticFieldsCache.StaticFields staticFields = cache.get(scan.bssid, scan.ssid, scan.capabilities,
+                scan.frequency, scan.channelWidth, scan.wifiStandard, scan.passpoint);
+
+        return SurveyRecordBuilder.buildWifiBeaconRecord(staticFields.template.toBuilder(), SyntheticSurvey.DEVICE_ID,
+                SyntheticSurvey.MISSION_ID, timestamp, recordNumber++, scan.level);
+    }
+}
@@ -0,0 +1,67 @@
+package com.craxiom.networksurvey.benchmark;
+
+import com.craxiom.networksurvey.util.RecordTimestamp;
+import com.craxiom.networksurvey.util.Rfc3339Formatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Measures the cost of the record device times for one scan batch. The old path formats the time
+ * for every record and every sink parses it back. The batch path formats one
+ * {@link RecordTimestamp} per scan, and the sinks use the epoch millis that are carried alongside
+ * the records.
+ */
+@State(Scope.Thread)
+public class Rfc3339FormatterBenchmark
+{
+    private static final int RECORDS_PER_BATCH = 50;
+    private static final int SINKS = 3;
+
+    private long epochMillis = SyntheticSurvey.START_EPOCH_MILLIS;
+
+    @Benchmark
+    public void isoFormatAndParsePerRecord(Blackhole blackhole)
+    {
+        epochMillis += 997;
+        for (int record = 0; record < RECORDS_PER_BATCH; record++)
+        {
+            final String deviceTime = DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(
+                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), SyntheticSurvey.ZONE));
+            for (int sink = 0; sink < SINKS; sink++)
+            {
+                blackhole.consume(ZonedDateTime.parse(deviceTime, DateTimeFormatter.ISO_OFFSET_DATE_TIME)
+                        .toInstant().toEpochMilli());
+            }
+        }
+    }
+
+    @Benchmark
+    public void formatOncePerBatch(Blackhole blackhole)
+    {
+        epochMillis += 997;
+        final RecordTimestamp timestamp = RecordTimestamp.of(epochMillis, epochMillis, SyntheticSurvey.ZONE);
+        for (int record = 0; record < RECORDS_PER_BATCH; record++)
+        {
+            blackhole.consume(timestamp.rfc3339);
+            for (int sink = 0; sink < SINKS; sink++)
+            {
+                blackhole.consume(timestamp.epochMillis);
+            }
+        }
+    }
+
+    @Benchmark
+    public long parseRecordDeviceTime()
+    {
+        // The sinks that don't get the epoch millis with the record (e.g. Bluetooth) still parse it
+        epochMillis += 997;
+        return Rfc3339Formatter.parseEpochMillis(Rfc3339Formatter.format(epochMillis, SyntheticSurvey.ZONE));
+    }
+}
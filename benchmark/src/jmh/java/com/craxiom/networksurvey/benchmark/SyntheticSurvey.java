@@ -0,0 +1,448 @@
+package com.craxiom.networksurvey.benchmark;
+
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.GsmRecordData;
+import com.craxiom.messaging.LteBandwidth;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.NrRecordData;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.UmtsRecordData;
+import com.craxiom.networksurvey.util.Rfc3339Formatter;
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Int64Value;
+
+import java.time.ZoneId;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic survey inputs for the benchmarks.
+ * <p>
+ * The Android {@code CellInfo} and {@code ScanResult} classes can't be created off of a device, so the
+ * cell and scan inputs are plain holders for the values that {@code SurveyRecordProcessor} reads from
+ * them. The protobuf records are built with the same fields the processor sets so that the conversion
+ * and logging benchmarks see realistic record sizes.
+ */
+final class SyntheticSurvey
+{
+    static final long START_EPOCH_MILLIS = 1_700_000_000_000L;
+    static final ZoneId ZONE = ZoneId.of("America/New_York");
+    static final String DEVICE_ID = "benchmark-device";
+    static final String MISSION_ID = "NS benchmark-device 20231114-170000";
+
+    /**
+     * Real EARFCN values spread across the commonly deployed LTE bands.
+     */
+    static final int[] EARFCNS = {300, 850, 1650, 2175, 2450, 3100, 5110, 5230, 5780, 6300, 9410, 38000, 39150, 40620, 66786, 68661};
+    /**
+     * Real NR-ARFCN values for FR1 and FR2 bands.
+     */
+    static final int[] NRARFCNS = {126_270, 173_800, 387_410, 398_410, 520_110, 627_264, 648_672, 2_079_167};
+
+    private SyntheticSurvey()
+    {
+    }
+
+    /**
+     * The values that are read from a {@code CellInfoLte} (identity and signal strength).
+     */
+    static final class LteCell
+    {
+        final int mcc;
+        final int mnc;
+        final int tac;
+        final int ci;
+        final int earfcn;
+        final int pci;
+        final int rsrp;
+        final int rsrq;
+        final int timingAdvance;
+        final int cqi;
+        final int rssi;
+        final int bandwidthKhz;
+        final boolean registered;
+
+        private LteCell(Random random, boolean registered)
+        {
+            mcc = 311;
+            mnc = 480;
+            tac = registered ? 12_345 : Integer.MAX_VALUE;
+            ci = registered ? random.nextInt(268_435_456) : Integer.MAX_VALUE;
+            earfcn = EARFCNS[random.nextInt(EARFCNS.length)];
+            pci = random.nextInt(504);
+            rsrp = -70 - random.nextInt(60);
+            rsrq = -3 - random.nextInt(17);
+            timingAdvance = registered ? random.nextInt(30) : Integer.MAX_VALUE;
+            cqi = registered ? 1 + random.nextInt(15) : 0;
+            rssi = -50 - random.nextInt(50);
+            bandwidthKhz = registered ? 10_000 : Integer.MAX_VALUE;
+            this.registered = registered;
+        }
+    }
+
+    /**
+     * The values that are read from a {@code CellInfoGsm}.
+     */
+    static final class GsmCell
+    {
+        final int mcc;
+        final int mnc;
+        final int lac;
+        final int cid;
+        final int arfcn;
+        final int bsic;
+        final int rssi;
+        final boolean registered;
+
+        private GsmCell(Random random, boolean registered)
+        {
+            mcc = 310;
+            mnc = 260;
+            lac = registered ? 4_321 : Integer.MAX_VALUE;
+            cid = registered ? random.nextInt(65_535) : Integer.MAX_VALUE;
+            arfcn = 128 + random.nextInt(124);
+            bsic = random.nextInt(64);
+            rssi = -60 - random.nextInt(50);
+            this.registered = registered;
+        }
+    }
+
+    /**
+     * The values that are read from a {@code CellInfoWcdma}.
+     */
+    static final class UmtsCell
+    {
+        final int mcc;
+        final int mnc;
+        final int lac;
+        final int cid;
+        final int uarfcn;
+        final int psc;
+        final int rssi;
+        final int rscp;
+        final int ecNo;
+        final boolean registered;
+
+        private UmtsCell(Random random, boolean registered)
+        {
+            mcc = 310;
+            mnc = 260;
+            lac = registered ? 4_321 : Integer.MAX_VALUE;
+            cid = registered ? random.nextInt(268_435_456) : Integer.MAX_VALUE;
+            uarfcn = 10_562 + random.nextInt(276);
+            psc = random.nextInt(512);
+            rssi = -50 - random.nextInt(50);
+            rscp = -60 - random.nextInt(50);
+            ecNo = -random.nextInt(24);
+            this.registered = registered;
+        }
+    }
+
+    /**
+     * The values that are read from a {@code CellInfoCdma}.
+     */
+    static final class CdmaCell
+    {
+        final int sid;
+        final int nid;
+        final int bsid;
+        final int dbm;
+        final int ecio;
+        final boolean registered;
+
+        private CdmaCell(Random random, boolean registered)
+        {
+            sid = registered ? 4_145 : Integer.MAX_VALUE;
+            nid = registered ? 1 + random.nextInt(100) : Integer.MAX_VALUE;
+            bsid = registered ? random.nextInt(65_535) : Integer.MAX_VALUE;
+            dbm = -60 - random.nextInt(50);
+            // Android reports the Ec/Io in dB*10
+            ecio = -10 * random.nextInt(16);
+            this.registered = registered;
+        }
+    }
+
+    /**
+     * The values that are read from a {@code CellInfoNr}.
+     */
+    static final class NrCell
+    {
+        final int mcc;
+        final int mnc;
+        final int tac;
+        final long nci;
+        final int nrarfcn;
+        final int pci;
+        final int ssRsrp;
+        final int ssRsrq;
+        final int ssSinr;
+        final int csiRsrp;
+        final int csiRsrq;
+        final int csiSinr;
+        final int timingAdvanceMicros;
+        final boolean registered;
+
+        private NrCell(Random random, boolean registered)
+        {
+            mcc = 311;
+            mnc = 480;
+            tac = registered ? 12_345 : Integer.MAX_VALUE;
+            nci = registered ? random.nextLong() & 0xF_FFFF_FFFFL : Long.MAX_VALUE;
+            nrarfcn = NRARFCNS[random.nextInt(NRARFCNS.length)];
+            pci = random.nextInt(1008);
+            ssRsrp = -80 - random.nextInt(50);
+            ssRsrq = -5 - random.nextInt(15);
+            ssSinr = random.nextInt(30);
+            // The CSI values and the timing advance are usually only reported for the serving cell
+            csiRsrp = registered ? -80 - random.nextInt(50) : Integer.MAX_VALUE;
+            csiRsrq = registered ? -5 - random.nextInt(15) : Integer.MAX_VALUE;
+            csiSinr = registered ? random.nextInt(30) : Integer.MAX_VALUE;
+            timingAdvanceMicros = registered ? random.nextInt(100) : Integer.MAX_VALUE;
+            this.registered = registered;
+        }
+    }
+
+    /**
+     * The values that are read from a {@code ScanResult}.
+     */
+    static final class WifiScan
+    {
+        final String bssid;
+        final String ssid;
+        final String capabilities;
+        final int frequency;
+        final int channelWidth;
+        final int wifiStandard;
+        final boolean passpoint;
+        final int level;
+
+        private WifiScan(Random random, int index)
+        {
+            bssid = String.format("02:%02x:%02x:%02x:%02x:%02x", index >> 8 & 0xff, index & 0xff,
+                    random.nextInt(256), random.nextInt(256), random.nextInt(256));
+            ssid = "Survey Network " + index % 40;
+            capabilities = switch (index % 4)
+            {
+                case 0 -> "[WPA2-PSK-CCMP][RSN-PSK-CCMP][ESS][WPS]";
+                case 1 -> "[RSN-SAE-CCMP][ESS][MFPR]";
+                case 2 -> "[WPA2-EAP-CCMP][RSN-EAP-CCMP][ESS]";
+                default -> "[ESS]";
+            };
+            frequency = index % 3 == 0 ? 2412 + 5 * random.nextInt(11) : 5180 + 20 * random.nextInt(8);
+            channelWidth = frequency < 3000 ? 0 : 2;
+            wifiStandard = frequency < 3000 ? 4 : 6;
+            passpoint = index % 17 == 0;
+            level = -40 - random.nextInt(55);
+        }
+    }
+
+    /**
+     * @return The cells of one LTE scan; the first cell is the serving cell.
+     */
+    static LteCell[] lteScan(long seed, int cellCount)
+    {
+        final Random random = new Random(seed);
+        final LteCell[] cells = new LteCell[cellCount];
+        for (int i = 0; i < cellCount; i++)
+        {
+            cells[i] = new LteCell(random, i == 0);
+        }
+        return cells;
+    }
+
+    static GsmCell[] gsmScan(long seed, int cellCount)
+    {
+        final Random random = new Random(seed);
+        final GsmCell[] cells = new GsmCell[cellCount];
+        for (int i = 0; i < cellCount; i++)
+        {
+            cells[i] = new GsmCell(random, i == 0);
+        }
+        return cells;
+    }
+
+    static UmtsCell[] umtsScan(long seed, int cellCount)
+    {
+        final Random random = new Random(seed);
+        final UmtsCell[] cells = new UmtsCell[cellCount];
+        for (int i = 0; i < cellCount; i++)
+        {
+            cells[i] = new UmtsCell(random, i == 0);
+        }
+        return cells;
+    }
+
+    static CdmaCell[] cdmaScan(long seed, int cellCount)
+    {
+        final Random random = new Random(seed);
+        final CdmaCell[] cells = new CdmaCell[cellCount];
+        for (int i = 0; i < cellCount; i++)
+        {
+            cells[i] = new CdmaCell(random, i == 0);
+        }
+        return cells;
+    }
+
+    static NrCell[] nrScan(long seed, int cellCount)
+    {
+        final Random random = new Random(seed);
+        final NrCell[] cells = new NrCell[cellCount];
+        for (int i = 0; i < cellCount; i++)
+        {
+            cells[i] = new NrCell(random, i == 0);
+        }
+        return cells;
+    }
+
+    static WifiScan[] wifiScan(long seed, int apCount)
+    {
+        final Random random = new Random(seed);
+        final WifiScan[] scans = new WifiScan[apCount];
+        for (int i = 0; i < apCount; i++)
+        {
+            scans[i] = new WifiScan(random, i);
+        }
+        return scans;
+    }
+
+    static LteRecord[] lteRecords(long seed, int count)
+    {
+        final Random random = new Random(seed);
+        final LteRecord[] records = new LteRecord[count];
+        for (int i = 0; i < count; i++)
+        {
+            final boolean serving = i % 6 == 0;
+            records[i] = LteRecord.newBuilder()
+                    .setMessageType("LteRecord")
+                    .setVersion("1.9.0")
+                    .setData(LteRecordData.newBuilder()
+                            .setDeviceSerialNumber(DEVICE_ID)
+                            .setDeviceTime(Rfc3339Formatter.format(START_EPOCH_MILLIS + i * 1_000L, ZONE))
+                            .setLatitude(38.8977 + random.nextGaussian() * 0.01)
+                            .setLongitude(-77.0365 + random.nextGaussian() * 0.01)
+                            .setAltitude(40f + random.nextFloat() * 10f)
+                            .setAccuracy(3 + random.nextInt(10))
+                            .setMissionId(MISSION_ID)
+                            .setRecordNumber(i)
+                            .setGroupNumber(i / 6)
+                            .setMcc(Int32Value.of(311))
+                            .setMnc(Int32Value.of(480))
+                            .setTac(Int32Value.of(12_345))
+                            .setEci(Int32Value.of(random.nextInt(268_435_456)))
+                            .setEarfcn(Int32Value.of(EARFCNS[random.nextInt(EARFCNS.length)]))
+                            .setPci(Int32Value.of(random.nextInt(504)))
+                            .setRsrp(FloatValue.of(-70 - random.nextInt(60)))
+                            .setRsrq(FloatValue.of(-3 - random.nextInt(17)))
+                            .setTa(Int32Value.of(random.nextInt(30)))
+                            .setServingCell(BoolValue.of(serving))
+                            .setLteBandwidth(LteBandwidth.MHZ_10)
+                            .setProvider("Verizon")
+                            .setSignalStrength(FloatValue.of(-50 - random.nextInt(50)))
+                            .setSlot(Int32Value.of(1))
+                            .build())
+                    .build();
+        }
+        return records;
+    }
+
+    static NrRecord[] nrRecords(long seed, int count)
+    {
+        final Random random = new Random(seed);
+        final NrRecord[] records = new NrRecord[count];
+        for (int i = 0; i < count; i++)
+        {
+            final boolean serving = i % 4 == 0;
+            records[i] = NrRecord.newBuilder()
+                    .setMessageType("NrRecord")
+                    .setVersion("1.9.0")
+                    .setData(NrRecordData.newBuilder()
+                            .setDeviceSerialNumber(DEVICE_ID)
+                            .setDeviceTime(Rfc3339Formatter.format(START_EPOCH_MILLIS + i * 1_000L, ZONE))
+                            .setLatitude(38.8977 + random.nextGaussian() * 0.01)
+                            .setLongitude(-77.0365 + random.nextGaussian() * 0.01)
+                            .setMissionId(MISSION_ID)
+                            .setRecordNumber(i)
+                            .setGroupNumber(i / 4)
+                            .setMcc(Int32Value.of(311))
+                            .setMnc(Int32Value.of(480))
+                            .setTac(Int32Value.of(12_345))
+                            .setNci(Int64Value.of(random.nextLong() & 0xF_FFFF_FFFFL))
+                            .setNarfcn(Int32Value.of(NRARFCNS[random.nextInt(NRARFCNS.length)]))
+                            .setPci(Int32Value.of(random.nextInt(1008)))
+                            .setSsRsrp(FloatValue.of(-80 - random.nextInt(50)))
+                            .setSsRsrq(FloatValue.of(-5 - random.nextInt(15)))
+                            .setSsSinr(FloatValue.of(random.nextInt(30)))
+                            .setServingCell(BoolValue.of(serving))
+                            .setProvider("Verizon")
+                            .build())
+                    .build();
+        }
+        return records;
+    }
+
+    static GsmRecord[] gsmRecords(long seed, int count)
+    {
+        final Random random = new Random(seed);
+        final GsmRecord[] records = new GsmRecord[count];
+        for (int i = 0; i < count; i++)
+        {
+            records[i] = GsmRecord.newBuilder()
+                    .setMessageType("GsmRecord")
+                    .setVersion("1.9.0")
+                    .setData(GsmRecordData.newBuilder()
+                            .setDeviceSerialNumber(DEVICE_ID)
+                            .setDeviceTime(Rfc3339Formatter.format(START_EPOCH_MILLIS + i * 1_000L, ZONE))
+                            .setLatitude(38.8977 + random.nextGaussian() * 0.01)
+                            .setLongitude(-77.0365 + random.nextGaussian() * 0.01)
+                            .setMissionId(MISSION_ID)
+                            .setRecordNumber(i)
+                            .setGroupNumber(i / 4)
+                            .setMcc(Int32Value.of(310))
+                            .setMnc(Int32Value.of(260))
+                            .setLac(Int32Value.of(4_321))
+                            .setCi(Int32Value.of(random.nextInt(65_535)))
+                            .setArfcn(Int32Value.of(128 + random.nextInt(124)))
+                            .setBsic(Int32Value.of(random.nextInt(64)))
+                            .setSignalStrength(FloatValue.of(-60 - random.nextInt(50)))
+                            .setServingCell(BoolValue.of(i % 4 == 0))
+                            .build())
+                    .build();
+        }
+        return records;
+    }
+
+    static UmtsRecord[] umtsRecords(long seed, int count)
+    {
+        final Random random = new Random(seed);
+        final UmtsRecord[] records = new UmtsRecord[count];
+        for (int i = 0; i < count; i++)
+        {
+            records[i] = UmtsRecord.newBuilder()
+                    .setMessageType("UmtsRecord")
+                    .setVersion("1.9.0")
+                    .setData(UmtsRecordData.newBuilder()
+                            .setDeviceSerialNumber(DEVICE_ID)
+                            .setDeviceTime(Rfc3339Formatter.format(START_EPOCH_MILLIS + i * 1_000L, ZONE))
+                            .setLatitude(38.8977 + random.nextGaussian() * 0.01)
+                            .setLongitude(-77.0365 + random.nextGaussian() * 0.01)
+                            .setMissionId(MISSION_ID)
+                            .setRecordNumber(i)
+                            .setGroupNumber(i / 4)
+                            .setMcc(Int32Value.of(310))
+                            .setMnc(Int32Value.of(260))
+                            .setLac(Int32Value.of(4_321))
+                            .setCid(Int32Value.of(random.nextInt(268_435_456)))
+                            .setUarfcn(Int32Value.of(10_562 + random.nextInt(276)))
+                            .setPsc(Int32Value.of(random.nextInt(512)))
+                            .setRscp(FloatValue.of(-60 - random.nextInt(50)))
+                            .setEcno(FloatValue.of(-random.nextInt(24)))
+                            .setServingCell(BoolValue.of(i % 4 == 0))
+                            .build())
+                    .build();
+        }
+        return records;
+    }
+}
@@ -0,0 +1,89 @@
+package com.craxiom.networksurvey.benchmark;
+
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.towerlocation.TowerKey;
+import com.craxiom.networksurvey.towerlocation.TowerLocationEstimate;
+import com.craxiom.networksurvey.towerlocation.TowerLocationEstimator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Measures the tower location estimator: adding a measurement, which the upload database store does for every cellular
+ * record it writes, and fitting an estimate after new measurements, which the tower map does for a serving cell that is
+ * not in the tower data.
+ * <p>
+ * The cell is warmed up with a long random drive so that its bins are at their steady state size.
+ */
+@State(Scope.Thread)
+public class TowerLocationEstimatorBenchmark
+{
+    private static final int SAMPLE_COUNT = 20_000;
+    private static final double ORIGIN_LATITUDE = 35.7796;
+    private static final double ORIGIN_LONGITUDE = -78.6382;
+    private static final double METERS_PER_DEGREE_LATITUDE = 111_195;
+    private static final double METERS_PER_DEGREE_LONGITUDE = 90_236;
+
+    private final TowerKey key = new TowerKey(CellularProtocol.LTE, 310, 260, 12_345, 1_234_567);
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private float[] signals;
+    private Integer[] timingAdvances;
+    private TowerLocationEstimator estimator;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        final Random random = new Random(44);
+        latitudes = new double[SAMPLE_COUNT];
+        longitudes = new double[SAMPLE_COUNT];
+        signals = new float[SAMPLE_COUNT];
+        timingAdvances = new Integer[SAMPLE_COUNT];
+
+        // A random walk, one sample every 10 meters, around a tower 400 meters north east of the start
+        double x = 0;
+        double y = 0;
+        double heading = 0;
+        for (int i = 0; i < SAMPLE_COUNT; i++)
+        {
+            heading += random.nextGaussian() * 0.2;
+            x = Math.max(-2_000, Math.min(2_000, x + 10 * Math.cos(heading)));
+            y = Math.max(-2_000, Math.min(2_000, y + 10 * Math.sin(heading)));
+            final double distance = Math.max(1, Math.hypot(x - 400, y - 400));
+
+            latitudes[i] = ORIGIN_LATITUDE + y / METERS_PER_DEGREE_LATITUDE;
+            longitudes[i] = ORIGIN_LONGITUDE + x / METERS_PER_DEGREE_LONGITUDE;
+            signals[i] = (float) (-10 - 32 * Math.log10(distance) + 6 * random.nextGaussian());
+            timingAdvances[i] = (int) (distance / 78.12);
+        }
+
+        estimator = new TowerLocationEstimator();
+        for (int i = 0; i < SAMPLE_COUNT; i++)
+        {
+            estimator.addMeasurement(key, latitudes[i], longitudes[i], signals[i], timingAdvances[i]);
+        }
+        estimator.getEstimate(key);
+    }
+
+    @Benchmark
+    public void addMeasurement()
+    {
+        index = (index + 1) % SAMPLE_COUNT;
+        estimator.addMeasurement(key, latitudes[index], longitudes[index], signals[index], timingAdvances[index]);
+    }
+
+    @Benchmark
+    public TowerLocationEstimate estimateAfterNewMeasurement()
+    {
+        index = (index + 1) % SAMPLE_COUNT;
+        estimator.addMeasurement(key, latitudes[index], longitudes[index], signals[index], timingAdvances[index]);
+        return estimator.getEstimate(key);
+    }
+}
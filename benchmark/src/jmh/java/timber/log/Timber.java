@@ -0,0 +1,77 @@
+package timber.log;
+
+/**
+ * A JVM stand-in for the Timber logging facade, which is only published as an Android library.
+ * The app classes that the benchmarks call log through Timber on their invalid input paths, so
+ * without this those paths fail with a {@link NoClassDefFoundError} instead of being measured.
+ * <p>
+ * The static methods match the ones that the app calls, and like Timber with no trees planted,
+ * they drop every message.
+ */
+@SuppressWarnings("unused")
+public final class Timber
+{
+    private Timber()
+    {
+    }
+
+    public static void v(String message, Object... args)
+    {
+    }
+
+    public static void v(Throwable t, String message, Object... args)
+    {
+    }
+
+    public static void v(Throwable t)
+    {
+    }
+
+    public static void d(String message, Object... args)
+    {
+    }
+
+    public static void d(Throwable t, String message, Object... args)
+    {
+    }
+
+    public static void d(Throwable t)
+    {
+    }
+
+    public static void i(String message, Object... args)
+    {
+    }
+
+    public static void i(Throwable t, String message, Object... args)
+    {
+    }
+
+    public static void i(Throwable t)
+    {
+    }
+
+    public static void w(String message, Object... args)
+    {
+    }
+
+    public static void w(Throwable t, String message, Object... args)
+    {
+    }
+
+    public static void w(Throwable t)
+    {
+    }
+
+    public static void e(String message, Object... args)
+    {
+    }
+
+    public static void e(Throwable t, String message, Object... args)
+    {
+    }
+
+    public static void e(Throwable t)
+    {
+    }
+}
@@ -0,0 +1,226 @@
+package com.craxiom.networksurvey.fragments;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.widget.TableLayout;
+import android.widget.TableRow;
+import android.widget.TextView;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.craxiom.networksurvey.R;
+import com.craxiom.networksurvey.fragments.model.LteNeighbor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+
+/**
+ * Compares the main thread time per frame of the LTE neighbor table when each batch of neighbors clears the table and
+ * inflates every row again (the previous approach) against the {@link NeighborTableAdapter}, which diffs the batch
+ * against the displayed rows and only rebinds the rows that changed.
+ * <p>
+ * Each frame is the update followed by a measure, layout, and software draw of the table, on a busy site with
+ * {@link #NEIGHBOR_COUNT} neighbors where most of the signal values move by a dB or two from one scan to the next and
+ * a neighbor occasionally drops out or shows up.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NeighborTableBenchmarkTest
+{
+    private static final String TAG = "NeighborTableBench";
+    private static final int NEIGHBOR_COUNT = 40;
+    private static final int LTE_COLUMN_COUNT = 5;
+    private static final int WARM_UP_FRAMES = 50;
+    private static final int MEASURED_FRAMES = 500;
+    private static final int WIDTH_PX = 1080;
+
+    private Instrumentation instrumentation;
+    private Context context;
+    private List<SortedSet<LteNeighbor>> batches;
+
+    @Before
+    public void setUp()
+    {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        context = new ContextThemeWrapper(ApplicationProvider.getApplicationContext(), R.style.NetworkSurveyTheme);
+        batches = createBatches(WARM_UP_FRAMES + MEASURED_FRAMES);
+    }
+
+    @Test
+    public void lteNeighborTable() throws InterruptedException
+    {
+        final long[] tableFrameNanos = new long[MEASURED_FRAMES];
+        final TableLayout table = new TableLayout(context);
+        table.setStretchAllColumns(true);
+        for (int i = 0; i < batches.size(); i++)
+        {
+            final SortedSet<LteNeighbor> batch = batches.get(i);
+            final int frame = i;
+            instrumentation.runOnMainSync(() -> {
+                final long start = System.nanoTime();
+                rebuildTable(table, batch);
+                drawFrame(table);
+                if (frame >= WARM_UP_FRAMES) tableFrameNanos[frame - WARM_UP_FRAMES] = System.nanoTime() - start;
+            });
+        }
+
+        final long[] adapterFrameNanos = new long[MEASURED_FRAMES];
+        final NeighborTableAdapter<LteNeighbor> adapter = new NeighborTableAdapter<>(LTE_COLUMN_COUNT,
+                NetworkDetailsFragment::bindLteNeighbor);
+        final RecyclerView[] list = new RecyclerView[1];
+        instrumentation.runOnMainSync(() -> {
+            list[0] = new RecyclerView(context);
+            list[0].setLayoutManager(new LinearLayoutManager(context));
+            list[0].setItemAnimator(null);
+            list[0].setAdapter(adapter);
+        });
+        for (int i = 0; i < batches.size(); i++)
+        {
+            // The diff runs on a background thread in the app as well, and committing it only notifies the adapter of
+            // the changed rows, so the frame is timed once the diff is committed. The rows are rebound during layout.
+            final List<LteNeighbor> batch = new ArrayList<>(batches.get(i));
+            final CountDownLatch committed = new CountDownLatch(1);
+            instrumentation.runOnMainSync(() -> adapter.submitList(batch, committed::countDown));
+            assertThat(committed.await(5, TimeUnit.SECONDS)).isTrue();
+
+            final int frame = i;
+            instrumentation.runOnMainSync(() -> {
+                final long start = System.nanoTime();
+                drawFrame(list[0]);
+                if (frame >= WARM_UP_FRAMES) adapterFrameNanos[frame - WARM_UP_FRAMES] = System.nanoTime() - start;
+            });
+        }
+
+        // Both approaches must display the same rows
+        final SortedSet<LteNeighbor> lastBatch = batches.get(batches.size() - 1);
+        assertThat(table.getChildCount()).isEqualTo(lastBatch.size() + 1);
+        assertThat(list[0].getChildCount()).isEqualTo(lastBatch.size());
+        for (int row = 0; row < lastBatch.size(); row++)
+        {
+            final TableRow tableRow = (TableRow) table.getChildAt(row + 1);
+            final View listRow = list[0].getLayoutManager().findViewByPosition(row);
+            assertThat(listRow).isNotNull();
+            final NeighborTableAdapter.RowViewHolder holder =
+                    (NeighborTableAdapter.RowViewHolder) list[0].getChildViewHolder(listRow);
+            for (int column = 0; column < LTE_COLUMN_COUNT; column++)
+            {
+                assertThat(holder.cells[column].getText().toString())
+                        .isEqualTo(((TextView) tableRow.getChildAt(column)).getText().toString());
+            }
+        }
+
+        Log.i(TAG, String.format("%d LTE neighbors: clear and inflate %s, diffing adapter %s", NEIGHBOR_COUNT,
+                summarize(tableFrameNanos), summarize(adapterFrameNanos)));
+    }
+
+    /**
+     * The previous approach from {@code NetworkDetailsFragment}, which clears the table and creates the header row and
+     * every neighbor row again.
+     */
+    private void rebuildTable(TableLayout table, SortedSet<LteNeighbor> neighbors)
+    {
+        table.removeAllViews();
+
+        final TableRow headerRow = new TableRow(context);
+        for (int header : new int[]{R.string.earfcn_band_label, R.string.pci_label, R.string.rsrp_label,
+                R.string.rsrq_label, R.string.ta_label})
+        {
+            final TextView view = new TextView(context, null, 0, R.style.ColumnTitleText);
+            view.setText(header);
+            headerRow.addView(view);
+        }
+        table.addView(headerRow);
+
+        final String[] cells = new String[LTE_COLUMN_COUNT];
+        for (LteNeighbor neighbor : neighbors)
+        {
+            final TableRow row = new TableRow(context);
+            NetworkDetailsFragment.bindLteNeighbor(neighbor, cells);
+            for (String cell : cells)
+            {
+                final TextView view = new TextView(context, null, 0, R.style.TableText);
+                view.setText(cell);
+                row.addView(view);
+            }
+            table.addView(row);
+        }
+    }
+
+    private static void drawFrame(View view)
+    {
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH_PX, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+
+        final Bitmap bitmap = Bitmap.createBitmap(view.getMeasuredWidth(), Math.max(1, view.getMeasuredHeight()),
+                Bitmap.Config.ARGB_8888);
+        view.draw(new Canvas(bitmap));
+        bitmap.recycle();
+    }
+
+    /**
+     * Creates the neighbor batches for a busy LTE site, where each batch is the previous one with most of the signal
+     * values changed by a dB or two, and now and then a neighbor that is dropped or added.
+     */
+    private static List<SortedSet<LteNeighbor>> createBatches(int count)
+    {
+        final Random random = new Random(47);
+        final int[][] cells = new int[NEIGHBOR_COUNT][];
+        for (int i = 0; i < NEIGHBOR_COUNT; i++)
+        {
+            final int earfcn = new int[]{850, 2175, 5230, 66486}[i % 4];
+            cells[i] = new int[]{earfcn, i * 7 % 504, -80 - random.nextInt(40), -8 - random.nextInt(12)};
+        }
+
+        final List<SortedSet<LteNeighbor>> batches = new ArrayList<>(count);
+        for (int batch = 0; batch < count; batch++)
+        {
+            final SortedSet<LteNeighbor> neighbors = new TreeSet<>();
+            final int missing = random.nextInt(8) == 0 ? random.nextInt(NEIGHBOR_COUNT) : -1;
+            for (int i = 0; i < NEIGHBOR_COUNT; i++)
+            {
+                final int[] cell = cells[i];
+                if (random.nextInt(4) != 0) cell[2] = Math.max(-140, Math.min(-44, cell[2] + random.nextInt(5) - 2));
+                if (random.nextInt(4) == 0) cell[3] = Math.max(-20, Math.min(-3, cell[3] + random.nextInt(3) - 1));
+                if (i == missing) continue;
+
+                neighbors.add(new LteNeighbor.Builder()
+                        .earfcn(cell[0])
+                        .pci(cell[1])
+                        .rsrp(cell[2])
+                        .rsrq(cell[3])
+                        .build());
+            }
+            batches.add(neighbors);
+        }
+        return batches;
+    }
+
+    private static String summarize(long[] frameNanos)
+    {
+        final long[] sorted = frameNanos.clone();
+        Arrays.sort(sorted);
+        return String.format("median %.2f ms, p90 %.2f ms, max %.2f ms", sorted[sorted.length / 2] / 1e6,
+                sorted[sorted.length * 9 / 10] / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+}
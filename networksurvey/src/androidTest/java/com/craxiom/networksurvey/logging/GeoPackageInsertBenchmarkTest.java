@@ -0,0 +1,199 @@
+package com.craxiom.networksurvey.logging;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.craxiom.networksurvey.constants.GnssMessageConstants;
+import com.craxiom.networksurvey.constants.LteMessageConstants;
+import com.craxiom.networksurvey.constants.MessageConstants;
+import com.craxiom.networksurvey.constants.WifiBeaconMessageConstants;
+import com.craxiom.networksurvey.constants.csv.CsvConstants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import mil.nga.geopackage.GeoPackage;
+import mil.nga.geopackage.GeoPackageFactory;
+import mil.nga.geopackage.GeoPackageManager;
+import mil.nga.geopackage.features.user.FeatureDao;
+import mil.nga.geopackage.features.user.FeatureRow;
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+import mil.nga.geopackage.srs.SpatialReferenceSystem;
+import mil.nga.proj.ProjectionConstants;
+import mil.nga.sf.Point;
+
+import static com.google.common.truth.Truth.assertThat;
+
+/**
+ * Compares the per row cost of writing survey records through {@link GeoPackageRowInserter} against
+ * the previous path of {@code getFeatureDao} + {@code newRow} + {@code insert} for every record, using
+ * the real LTE, Wi-Fi, and GNSS table schemas.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GeoPackageInsertBenchmarkTest
+{
+    private static final String TAG = "GeoPackageInsertBench";
+    private static final String DATABASE_NAME = "insert_benchmark";
+    private static final int WARM_UP_ROWS = 200;
+    private static final int MEASURED_ROWS = 2_000;
+
+    private GeoPackageManager geoPackageManager;
+    private GeoPackage geoPackage;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        final Context context = ApplicationProvider.getApplicationContext();
+        geoPackageManager = GeoPackageFactory.getManager(context);
+        geoPackageManager.delete(DATABASE_NAME);
+        geoPackageManager.create(DATABASE_NAME);
+        geoPackage = geoPackageManager.open(DATABASE_NAME);
+        SurveyRecordLogger.configureDatabase(geoPackage);
+
+        final SpatialReferenceSystem srs = geoPackage.getSpatialReferenceSystemDao()
+                .getOrCreateCode(ProjectionConstants.AUTHORITY_EPSG, ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM);
+        geoPackage.createGeometryColumnsTable();
+        CellularSurveyRecordLogger.createLteRecordTable(geoPackage, srs);
+        WifiSurveyRecordLogger.createWifiBeaconRecordTable(geoPackage, srs);
+        GnssRecordLogger.createGnssRecordTable(geoPackage, srs);
+    }
+
+    @After
+    public void tearDown()
+    {
+        if (geoPackage != null) geoPackage.close();
+        geoPackageManager.delete(DATABASE_NAME);
+    }
+
+    @Test
+    public void lteRecords()
+    {
+        benchmark(LteMessageConstants.LTE_RECORDS_TABLE_NAME,
+                new String[]{LteMessageConstants.MCC_COLUMN, LteMessageConstants.MNC_COLUMN, LteMessageConstants.TAC_COLUMN,
+                        LteMessageConstants.CI_COLUMN, LteMessageConstants.EARFCN_COLUMN, LteMessageConstants.PCI_COLUMN,
+                        LteMessageConstants.RSRP_COLUMN, LteMessageConstants.RSRQ_COLUMN, LteMessageConstants.TA_COLUMN,
+                        LteMessageConstants.BANDWIDTH_COLUMN, LteMessageConstants.GROUP_NUMBER_COLUMN,
+                        LteMessageConstants.SERVING_CELL_COLUMN, LteMessageConstants.PROVIDER_COLUMN},
+                new Object[]{(short) 311, (short) 480, 1000, 123456, 5230, (short) 17, -95.0f, -11.5f, (short) 3,
+                        "10", 42, true, "Verizon"});
+    }
+
+    @Test
+    public void wifiBeaconRecords()
+    {
+        benchmark(WifiBeaconMessageConstants.WIFI_BEACON_RECORDS_TABLE_NAME,
+                new String[]{WifiBeaconMessageConstants.BSSID_COLUMN, WifiBeaconMessageConstants.SSID_COLUMN,
+                        WifiBeaconMessageConstants.CHANNEL_COLUMN, WifiBeaconMessageConstants.FREQUENCY_MHZ_COLUMN,
+                        WifiBeaconMessageConstants.ENCRYPTION_TYPE_COLUMN, WifiBeaconMessageConstants.WPS_COLUMN,
+                        WifiBeaconMessageConstants.SIGNAL_STRENGTH_COLUMN, WifiBeaconMessageConstants.CIPHER_SUITES_COLUMN},
+                new Object[]{"00:11:22:33:44:55", "Survey Network", (short) 36, 5180, "WPA2", false, -67.0f, "CCMP"});
+    }
+
+    @Test
+    public void gnssRecords()
+    {
+        benchmark(GnssMessageConstants.GNSS_RECORDS_TABLE_NAME,
+                new String[]{GnssMessageConstants.GROUP_NUMBER_COLUMN, GnssMessageConstants.CONSTELLATION,
+                        GnssMessageConstants.SPACE_VEHICLE_ID, GnssMessageConstants.CARRIER_FREQUENCY_HZ,
+                        GnssMessageConstants.AGC_DB, GnssMessageConstants.CARRIER_TO_NOISE_DENSITY_DB_HZ},
+                new Object[]{7, "GPS", 12, 1575420030L, 3.5f, 38.2f});
+    }
+
+    /**
+     * Writes the same record through both paths (interleaved so that both see the same database growth)
+     * and logs the average cost per row.
+     */
+    private void benchmark(String tableName, String[] columns, Object[] values)
+    {
+        final GeoPackageRowInserter rowInserter = new GeoPackageRowInserter(geoPackage, tableName);
+        try
+        {
+            long featureDaoNanos = 0;
+            long inserterNanos = 0;
+            for (int i = 0; i < WARM_UP_ROWS + MEASURED_ROWS; i++)
+            {
+                final long start = System.nanoTime();
+                insertWithFeatureDao(tableName, columns, values, i);
+                final long middle = System.nanoTime();
+                insertWithRowInserter(rowInserter, columns, values, i);
+                final long end = System.nanoTime();
+
+                if (i >= WARM_UP_ROWS)
+                {
+                    featureDaoNanos += middle - start;
+                    inserterNanos += end - middle;
+                }
+            }
+
+            final double featureDaoMicrosPerRow = featureDaoNanos / 1_000.0 / MEASURED_ROWS;
+            final double inserterMicrosPerRow = inserterNanos / 1_000.0 / MEASURED_ROWS;
+            Log.i(TAG, String.format("%s: FeatureDao %.1f us/row, row inserter %.1f us/row (%.1fx)", tableName,
+                    featureDaoMicrosPerRow, inserterMicrosPerRow, featureDaoMicrosPerRow / inserterMicrosPerRow));
+        } finally
+        {
+            rowInserter.close();
+        }
+
+        // Both paths must write the same rows
+        final FeatureDao featureDao = geoPackage.getFeatureDao(tableName);
+        assertThat(featureDao.count()).isEqualTo(2 * (WARM_UP_ROWS + MEASURED_ROWS));
+
+        final long lastId = 2L * (WARM_UP_ROWS + MEASURED_ROWS);
+        final FeatureRow featureDaoRow = featureDao.queryForIdRow(lastId - 1);
+        final FeatureRow inserterRow = featureDao.queryForIdRow(lastId);
+        for (String column : columns)
+        {
+            assertThat(String.valueOf(inserterRow.getValue(column))).isEqualTo(String.valueOf(featureDaoRow.getValue(column)));
+        }
+        assertThat(inserterRow.getValue(MessageConstants.RECORD_NUMBER_COLUMN)).isEqualTo(featureDaoRow.getValue(MessageConstants.RECORD_NUMBER_COLUMN));
+        assertThat(inserterRow.getGeometry().getGeometry()).isEqualTo(featureDaoRow.getGeometry().getGeometry());
+    }
+
+    private void insertWithFeatureDao(String tableName, String[] columns, Object[] values, int recordNumber)
+    {
+        final FeatureDao featureDao = geoPackage.getFeatureDao(tableName);
+        final FeatureRow row = featureDao.newRow();
+        row.setGeometry(createGeometry(recordNumber));
+        row.setValue(CsvConstants.DEVICE_SERIAL_NUMBER, "benchmark");
+        row.setValue(MessageConstants.TIME_COLUMN, 1_700_000_000_000L + recordNumber);
+        row.setValue(MessageConstants.RECORD_NUMBER_COLUMN, recordNumber);
+        for (int i = 0; i < columns.length; i++)
+        {
+            row.setValue(columns[i], values[i]);
+        }
+        featureDao.insert(row);
+    }
+
+    private void insertWithRowInserter(GeoPackageRowInserter row, String[] columns, Object[] values, int recordNumber)
+    {
+        try
+        {
+            row.setGeometry(createGeometry(recordNumber));
+        } catch (IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+        row.setValue(CsvConstants.DEVICE_SERIAL_NUMBER, "benchmark");
+        row.setValue(MessageConstants.TIME_COLUMN, 1_700_000_000_000L + recordNumber);
+        row.setValue(MessageConstants.RECORD_NUMBER_COLUMN, recordNumber);
+        for (int i = 0; i < columns.length; i++)
+        {
+            row.setValue(columns[i], values[i]);
+        }
+        row.insert();
+    }
+
+    private static GeoPackageGeometryData createGeometry(int recordNumber)
+    {
+        final GeoPackageGeometryData geometryData = new GeoPackageGeometryData(SurveyRecordLogger.WGS84_SRS);
+        geometryData.setGeometry(new Point(-77.0 + recordNumber * 1e-6, 38.9, 12.0));
+        return geometryData;
+    }
+}
@@ -0,0 +1,186 @@
+package com.craxiom.networksurvey.logging.db;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.craxiom.networksurvey.logging.db.dao.SurveyRecordDao;
+import com.craxiom.networksurvey.logging.db.model.BaseRecordEntity;
+import com.craxiom.networksurvey.logging.db.model.CdmaRecordEntity;
+import com.craxiom.networksurvey.logging.db.model.GsmRecordEntity;
+import com.craxiom.networksurvey.logging.db.model.LteRecordEntity;
+import com.craxiom.networksurvey.logging.db.model.NrRecordEntity;
+import com.craxiom.networksurvey.logging.db.model.UmtsRecordEntity;
+import com.craxiom.networksurvey.logging.db.model.WifiBeaconRecordEntity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.BuildersKt;
+import kotlinx.coroutines.flow.FlowKt;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+/**
+ * Checks that the upload counters, which are only updated with the change from each insert and upload mark, match a
+ * full count of the records that still need to be uploaded after random sequences of inserts, partial uploads, and
+ * deletes.
+ */
+@RunWith(AndroidJUnit4.class)
+public class UploadCounterTest
+{
+    private static final int STEPS = 400;
+
+    private SurveyDatabase database;
+    private SurveyRecordDao dao;
+
+    @Before
+    public void setUp()
+    {
+        final Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, SurveyDatabase.class).allowMainThreadQueries().build();
+        dao = database.surveyRecordDao();
+    }
+
+    @After
+    public void tearDown()
+    {
+        database.close();
+    }
+
+    @Test
+    public void countersMatchTableCounts() throws InterruptedException
+    {
+        for (long seed = 1; seed <= 5; seed++)
+        {
+            dao.deleteAllRecords();
+            assertThat(currentCounts()).isEqualTo(new UploadRecordCounts());
+
+            final Random random = new Random(seed);
+            for (int step = 0; step < STEPS; step++)
+            {
+                final int operation = random.nextInt(100);
+                if (operation < 40)
+                {
+                    dao.insertCellularRecordsForUpload(
+                            create(random.nextInt(4), GsmRecordEntity::new),
+                            create(random.nextInt(2), CdmaRecordEntity::new),
+                            create(random.nextInt(4), UmtsRecordEntity::new),
+                            create(random.nextInt(12), LteRecordEntity::new),
+                            create(random.nextInt(6), NrRecordEntity::new));
+                } else if (operation < 55)
+                {
+                    dao.insertWifiRecordsForUpload(create(random.nextInt(30), WifiBeaconRecordEntity::new));
+                } else if (operation < 95)
+                {
+                    markRandomBatch(random);
+                } else
+                {
+                    dao.deleteAllUploadedRecords();
+                }
+
+                assertWithMessage("Seed %s, step %s", seed, step).that(currentCounts()).isEqualTo(trueCounts());
+            }
+        }
+
+        // The Flow that the dashboard collects starts with the latest counts
+        final UploadRecordCounts observed = BuildersKt.runBlocking(EmptyCoroutineContext.INSTANCE,
+                (scope, continuation) -> FlowKt.first(UploadRecordCounts.observe(database), continuation));
+        assertThat(observed).isEqualTo(trueCounts());
+    }
+
+    /**
+     * Marks some of the records of a random table as uploaded to one or both targets, the same way the uploader does.
+     * Marking records that were already marked must not change the counters, and neither must a record that is only
+     * uploaded to one of the two targets.
+     */
+    private void markRandomBatch(Random random)
+    {
+        final int limit = 1 + random.nextInt(15);
+        final boolean ocid = random.nextBoolean();
+        final boolean beaconDb = !ocid || random.nextBoolean();
+        switch (random.nextInt(6))
+        {
+            case 0:
+            {
+                final List<Long> ids = dao.getGsmRecordsForUpload(limit).stream().map(r -> r.id).collect(Collectors.toList());
+                if (ocid) dao.markGsmRecordsAsUploadedToOcid(ids);
+                if (beaconDb) dao.markGsmRecordsAsUploadedToBeaconDb(ids);
+                break;
+            }
+            case 1:
+            {
+                final List<Long> ids = dao.getCdmaRecordsForUpload(limit).stream().map(r -> r.id).collect(Collectors.toList());
+                if (ocid) dao.markCdmaRecordsAsUploadedToOcid(ids);
+                if (beaconDb) dao.markCdmaRecordsAsUploadedToBeaconDb(ids);
+                break;
+            }
+            case 2:
+            {
+                final List<Long> ids = dao.getUmtsRecordsForUpload(limit).stream().map(r -> r.id).collect(Collectors.toList());
+                if (ocid) dao.markUmtsRecordsAsUploadedToOcid(ids);
+                if (beaconDb) dao.markUmtsRecordsAsUploadedToBeaconDb(ids);
+                break;
+            }
+            case 3:
+            {
+                final List<Long> ids = dao.getLteRecordsForUpload(limit).stream().map(r -> r.id).collect(Collectors.toList());
+                if (ocid) dao.markLteRecordsAsUploadedToOcid(ids);
+                if (beaconDb) dao.markLteRecordsAsUploadedToBeaconDb(ids);
+                break;
+            }
+            case 4:
+            {
+                final List<Long> ids = dao.getNrRecordsForUpload(limit).stream().map(r -> r.id).collect(Collectors.toList());
+                if (ocid) dao.markNrRecordsAsUploadedToOcid(ids);
+                if (beaconDb) dao.markNrRecordsAsUploadedToBeaconDb(ids);
+                break;
+            }
+            default:
+            {
+                final List<Long> ids = dao.getWifiRecordsForUpload(limit).stream().map(r -> r.id).collect(Collectors.toList());
+                dao.markWifiRecordsAsUploadedToBeaconDb(ids);
+            }
+        }
+    }
+
+    private UploadRecordCounts currentCounts()
+    {
+        return UploadRecordCounts.fromCounters(dao.getUploadCounters());
+    }
+
+    private UploadRecordCounts trueCounts()
+    {
+        return new UploadRecordCounts(dao.getGsmRecordCountForUpload(), dao.getCdmaRecordCountForUpload(),
+                dao.getUmtsRecordCountForUpload(), dao.getLteRecordCountForUpload(), dao.getNrRecordCountForUpload(),
+                dao.getWifiRecordCountForUpload());
+    }
+
+    private static <T extends BaseRecordEntity> List<T> create(int count, Supplier<T> constructor)
+    {
+        final List<T> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            final T record = constructor.get();
+            record.deviceSerialNumber = "counter-test";
+            record.deviceName = "Counter Test";
+            record.deviceTime = "2024-01-01T00:00:00Z";
+            record.latitude = 38.9;
+            record.longitude = -77.0;
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,416 @@
+package com.craxiom.networksurvey.cellconflict;
+
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.towerlocation.TowerKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Looks for physical cell ID collisions, confusion, and mod 3 and mod 30 clashes in the stream of cellular batches.
+ * <p>
+ * Each batch is checked against its serving cell:
+ * <ul>
+ *     <li>A neighbor on the serving channel with the serving cell's own physical cell ID is a collision.</li>
+ *     <li>For LTE and NR, a neighbor on the serving channel that is within {@link #CLASH_MARGIN_DB} of the serving
+ *     cell and has the same PCI mod 3 or mod 30 is a clash. A much weaker neighbor does not interfere enough to
+ *     matter. A mod 30 clash is also a mod 3 clash, so it is only reported as mod 30.</li>
+ * </ul>
+ * The neighbors are also added to a sliding neighbor graph for the serving cell, which keeps each channel and physical
+ * cell ID that was seen in the last {@link #NEIGHBOR_WINDOW_MS}. Neighbor records rarely have a global cell identity,
+ * so the graph learns them from handovers: when the device moves from one serving cell to another that was in the
+ * first cell's neighbor list, that neighbor is the new serving cell. A later handover that lands on a different cell
+ * for the same channel and physical cell ID is confusion. Two different cells with the same channel and physical cell
+ * ID that both serve the device within {@link #COLLISION_DISTANCE_METERS} of each other are also a collision.
+ * <p>
+ * A batch is only a few lookups per record, so the analyzer keeps up with the full record rate. Each finding is only
+ * reported once per {@link #REPORT_INTERVAL_MS}, and all the state is bounded. The methods are synchronized since the
+ * batches for each SIM can come from different threads.
+ *
+ * @since 1.43
+ */
+final class CellConflictAnalyzer
+{
+    static final float CLASH_MARGIN_DB = 6f;
+    static final long NEIGHBOR_WINDOW_MS = 10 * 60_000L;
+    static final long HANDOVER_WINDOW_MS = 30_000L;
+    static final double COLLISION_DISTANCE_METERS = 500;
+    static final long SIGHTING_WINDOW_MS = 24 * 60 * 60_000L;
+    static final long REPORT_INTERVAL_MS = 60 * 60_000L;
+
+    static final int MAX_SERVING_CELLS = 1_000;
+    static final int MAX_PHYSICAL_CELL_IDS = 4_096;
+    static final int MAX_SIGHTINGS_PER_ID = 4;
+    static final int MAX_REPORTED = 4_096;
+
+    private static final long PRUNE_INTERVAL_MS = 60_000L;
+    private static final double EARTH_RADIUS_METERS = 6_371_000d;
+
+    /**
+     * A neighbor of a serving cell, keyed in the graph by its channel and physical cell ID.
+     */
+    private static final class Neighbor
+    {
+        long lastSeenMs;
+        /**
+         * The global identity of the neighbor once it is known, from the neighbor record or from a handover.
+         */
+        TowerKey cell;
+    }
+
+    private static final class NeighborGraph
+    {
+        final Map<Long, Neighbor> neighbors = new HashMap<>();
+        long lastPruneMs;
+
+        void prune(long nowMs)
+        {
+            if (nowMs - lastPruneMs < PRUNE_INTERVAL_MS) return;
+            lastPruneMs = nowMs;
+            neighbors.values().removeIf(neighbor -> nowMs - neighbor.lastSeenMs > NEIGHBOR_WINDOW_MS);
+        }
+    }
+
+    private static final class LastServing
+    {
+        TowerKey cell;
+        long timeMs;
+    }
+
+    /**
+     * Where a serving cell was last seen, for the collision check between serving cells.
+     */
+    private static final class Sighting
+    {
+        final TowerKey cell;
+        double latitude;
+        double longitude;
+        long timeMs;
+
+        Sighting(TowerKey cell)
+        {
+            this.cell = cell;
+        }
+    }
+
+    private final Map<TowerKey, NeighborGraph> graphs = new LinkedHashMap<>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TowerKey, NeighborGraph> eldest)
+        {
+            return size() > MAX_SERVING_CELLS;
+        }
+    };
+
+    private final Map<Long, List<Sighting>> sightings = new LinkedHashMap<>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, List<Sighting>> eldest)
+        {
+            return size() > MAX_PHYSICAL_CELL_IDS;
+        }
+    };
+
+    private final Map<Long, Long> reported = new LinkedHashMap<>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest)
+        {
+            return size() > MAX_REPORTED;
+        }
+    };
+
+    private final Map<Integer, LastServing> lastServing = new HashMap<>();
+
+    /**
+     * Analyzes one batch of cellular records.
+     *
+     * @param subscriptionId The subscription ID (aka SIM ID) that the batch is for.
+     * @param batch          The records in the batch.
+     * @param latitude       Where the device was, or 0 if the location is not known.
+     * @param longitude      Where the device was, or 0 if the location is not known.
+     * @param nowMs          The time of the batch in milliseconds.
+     * @return The problems that were found in the batch and have not been reported recently, or an empty list.
+     */
+    synchronized List<CellConflictFinding> analyze(int subscriptionId, List<CellObservation> batch, double latitude,
+                                                   double longitude, long nowMs)
+    {
+        CellObservation serving = null;
+        for (CellObservation observation : batch)
+        {
+            if (observation.serving)
+            {
+                serving = observation;
+                break;
+            }
+        }
+        if (serving == null) return Collections.emptyList();
+
+        List<CellConflictFinding> findings = null;
+        final boolean checkClashes = serving.protocol == CellularProtocol.LTE || serving.protocol == CellularProtocol.NR;
+
+        NeighborGraph graph = null;
+        if (serving.cell != null)
+        {
+            graph = graphs.get(serving.cell);
+            if (graph == null)
+            {
+                graph = new NeighborGraph();
+                graph.lastPruneMs = nowMs;
+                graphs.put(serving.cell, graph);
+            }
+            graph.prune(nowMs);
+        }
+
+        for (CellObservation neighbor : batch)
+        {
+            if (neighbor.serving || neighbor.protocol != serving.protocol) continue;
+
+            if (graph != null)
+            {
+                final TowerKey previousCell = addNeighbor(graph, neighbor, nowMs);
+                if (previousCell != null)
+                {
+                    findings = report(findings, CellConflictType.CONFUSION, serving.protocol, neighbor.channel,
+                            neighbor.physicalCellId, neighbor.physicalCellId, serving.cell, neighbor.cell,
+                            previousCell, latitude, longitude, nowMs, serving.signal, neighbor.signal);
+                }
+            }
+
+            if (neighbor.channel != serving.channel) continue;
+
+            if (neighbor.physicalCellId == serving.physicalCellId)
+            {
+                if (neighbor.cell == null || !neighbor.cell.equals(serving.cell))
+                {
+                    findings = report(findings, CellConflictType.COLLISION, serving.protocol, serving.channel,
+                            serving.physicalCellId, neighbor.physicalCellId, serving.cell, neighbor.cell, null,
+                            latitude, longitude, nowMs, serving.signal, neighbor.signal);
+                }
+            } else if (checkClashes && neighbor.signal >= serving.signal - CLASH_MARGIN_DB)
+            {
+                // Comparisons with NaN are false, so a clash is only reported when both signals are known
+                if (neighbor.physicalCellId % 30 == serving.physicalCellId % 30)
+                {
+                    findings = report(findings, CellConflictType.MOD30, serving.protocol, serving.channel,
+                            serving.physicalCellId, neighbor.physicalCellId, serving.cell, neighbor.cell, null,
+                            latitude, longitude, nowMs, serving.signal, neighbor.signal);
+                } else if (neighbor.physicalCellId % 3 == serving.physicalCellId % 3)
+                {
+                    // Only when it is not also a mod 30 clash, which always has the same PCI mod 3 as well
+                    findings = report(findings, CellConflictType.MOD3, serving.protocol, serving.channel,
+                            serving.physicalCellId, neighbor.physicalCellId, serving.cell, neighbor.cell, null,
+                            latitude, longitude, nowMs, serving.signal, neighbor.signal);
+                }
+            }
+        }
+
+        if (serving.cell != null)
+        {
+            findings = checkHandover(findings, subscriptionId, serving, latitude, longitude, nowMs);
+            findings = checkServingCollision(findings, serving, latitude, longitude, nowMs);
+        }
+
+        return findings == null ? Collections.emptyList() : findings;
+    }
+
+    /**
+     * @return The number of serving cells that have a neighbor graph.
+     */
+    synchronized int getServingCellCount()
+    {
+        return graphs.size();
+    }
+
+    /**
+     * @return The number of neighbors in the serving cell's graph, or 0 if it does not have one.
+     */
+    synchronized int getNeighborCount(TowerKey servingCell)
+    {
+        final NeighborGraph graph = graphs.get(servingCell);
+        return graph == null ? 0 : graph.neighbors.size();
+    }
+
+    synchronized void clear()
+    {
+        graphs.clear();
+        sightings.clear();
+        reported.clear();
+        lastServing.clear();
+    }
+
+    /**
+     * Adds a neighbor to the serving cell's graph.
+     *
+     * @return The global identity that the graph already had for the neighbor's channel and physical cell ID if it is
+     * different from the neighbor's own, otherwise null.
+     */
+    private static TowerKey addNeighbor(NeighborGraph graph, CellObservation neighbor, long nowMs)
+    {
+        final Long key = channelKey(neighbor.channel, neighbor.physicalCellId);
+        Neighbor entry = graph.neighbors.get(key);
+        if (entry == null)
+        {
+            entry = new Neighbor();
+            graph.neighbors.put(key, entry);
+        }
+        entry.lastSeenMs = nowMs;
+
+        if (neighbor.cell == null) return null;
+        if (entry.cell == null)
+        {
+            entry.cell = neighbor.cell;
+            return null;
+        }
+        return entry.cell.equals(neighbor.cell) ? null : entry.cell;
+    }
+
+    /**
+     * When the serving cell just changed, the new serving cell was most likely the neighbor of the previous serving
+     * cell with the same channel and physical cell ID. If that neighbor was already known to be a different cell then
+     * the previous serving cell has two neighbors with that channel and physical cell ID.
+     */
+    private List<CellConflictFinding> checkHandover(List<CellConflictFinding> findings, int subscriptionId,
+                                                    CellObservation serving, double latitude, double longitude,
+                                                    long nowMs)
+    {
+        LastServing last = lastServing.get(subscriptionId);
+        if (last == null)
+        {
+            last = new LastServing();
+            lastServing.put(subscriptionId, last);
+        } else if (!serving.cell.equals(last.cell) && nowMs - last.timeMs <= HANDOVER_WINDOW_MS)
+        {
+            final NeighborGraph previousGraph = graphs.get(last.cell);
+            final Neighbor neighbor = previousGraph == null ? null
+                    : previousGraph.neighbors.get(channelKey(serving.channel, serving.physicalCellId));
+            if (neighbor != null && nowMs - neighbor.lastSeenMs <= NEIGHBOR_WINDOW_MS)
+            {
+                if (neighbor.cell == null)
+                {
+                    neighbor.cell = serving.cell;
+                } else if (!neighbor.cell.equals(serving.cell))
+                {
+                    findings = report(findings, CellConflictType.CONFUSION, serving.protocol, serving.channel,
+                            serving.physicalCellId, serving.physicalCellId, last.cell, serving.cell, neighbor.cell,
+                            latitude, longitude, nowMs, Float.NaN, serving.signal);
+                }
+            }
+        }
+
+        last.cell = serving.cell;
+        last.timeMs = nowMs;
+        return findings;
+    }
+
+    /**
+     * Checks if a different cell with the serving cell's channel and physical cell ID has served the device nearby.
+     */
+    private List<CellConflictFinding> checkServingCollision(List<CellConflictFinding> findings,
+                                                            CellObservation serving, double latitude,
+                                                            double longitude, long nowMs)
+    {
+        if (latitude == 0d && longitude == 0d) return findings;
+
+        final long key = protocolKey(serving.protocol, serving.channel, serving.physicalCellId);
+        List<Sighting> cells = sightings.get(key);
+        if (cells == null)
+        {
+            cells = new ArrayList<>(2);
+            sightings.put(key, cells);
+        }
+
+        Sighting own = null;
+        for (Iterator<Sighting> iterator = cells.iterator(); iterator.hasNext(); )
+        {
+            final Sighting sighting = iterator.next();
+            if (sighting.cell.equals(serving.cell))
+            {
+                own = sighting;
+            } else if (nowMs - sighting.timeMs > SIGHTING_WINDOW_MS)
+            {
+                iterator.remove();
+            } else if (distanceMeters(latitude, longitude, sighting.latitude, sighting.longitude)
+                    <= COLLISION_DISTANCE_METERS)
+            {
+                findings = report(findings, CellConflictType.COLLISION, serving.protocol, serving.channel,
+                        serving.physicalCellId, serving.physicalCellId, serving.cell, sighting.cell, null, latitude,
+                        longitude, nowMs, serving.signal, Float.NaN);
+            }
+        }
+
+        if (own == null)
+        {
+            // Replace the oldest sighting when the list is full
+            if (cells.size() >= MAX_SIGHTINGS_PER_ID)
+            {
+                Sighting oldest = cells.get(0);
+                for (Sighting sighting : cells)
+                {
+                    if (sighting.timeMs < oldest.timeMs) oldest = sighting;
+                }
+                cells.remove(oldest);
+            }
+            own = new Sighting(serving.cell);
+            cells.add(own);
+        }
+        own.latitude = latitude;
+        own.longitude = longitude;
+        own.timeMs = nowMs;
+        return findings;
+    }
+
+    /**
+     * Adds the finding to the list unless the same finding was reported within the last {@link #REPORT_INTERVAL_MS}.
+     *
+     * @return The list, which is created if it was null and a finding is added.
+     */
+    private List<CellConflictFinding> report(List<CellConflictFinding> findings, CellConflictType type,
+                                             CellularProtocol protocol, int channel, int physicalCellId,
+                                             int otherPhysicalCellId, TowerKey servingCell, TowerKey otherCell,
+                                             TowerKey conflictingCell, double latitude, double longitude, long nowMs,
+                                             float servingSignal, float otherSignal)
+    {
+        // The two other cells are combined in an order independent way so that confusion between the same two
+        // neighbors is the same finding no matter which one was learned first
+        long key = type.ordinal();
+        key = key * 31 + protocol.ordinal();
+        key = key * 1_000_003 + channel;
+        key = key * 1_009 + physicalCellId;
+        key = key * 1_009 + otherPhysicalCellId;
+        key = key * 1_000_003 + Objects.hashCode(servingCell);
+        key = key * 1_000_003 + (Objects.hashCode(otherCell) ^ Objects.hashCode(conflictingCell));
+
+        final Long lastReportedMs = reported.get(key);
+        if (lastReportedMs != null && nowMs - lastReportedMs < REPORT_INTERVAL_MS) return findings;
+        reported.put(key, nowMs);
+
+        if (findings == null) findings = new ArrayList<>(2);
+        findings.add(new CellConflictFinding(type, protocol, channel, physicalCellId, otherPhysicalCellId,
+                servingCell, otherCell, conflictingCell, latitude, longitude, nowMs, servingSignal, otherSignal));
+        return findings;
+    }
+
+    private static long channelKey(int channel, int physicalCellId)
+    {
+        return ((long) channel << 32) | (physicalCellId & 0xFFFFFFFFL);
+    }
+
+    private static long protocolKey(CellularProtocol protocol, int channel, int physicalCellId)
+    {
+        return channelKey(channel, physicalCellId) * 31 + protocol.ordinal();
+    }
+
+    private static double distanceMeters(double latitude1, double longitude1, double latitude2, double longitude2)
+    {
+        final double x = Math.toRadians(longitude2 - longitude1) * Math.cos(Math.toRadians((latitude1 + latitude2) / 2));
+        final double y = Math.toRadians(latitude2 - latitude1);
+        return Math.hypot(x, y) * EARTH_RADIUS_METERS;
+    }
+}
@@ -0,0 +1,95 @@
+package com.craxiom.networksurvey.cellconflict;
+
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.towerlocation.TowerKey;
+
+/**
+ * One physical cell ID problem found by the {@link CellConflictAnalyzer}, with where and when it was found.
+ *
+ * @since 1.43
+ */
+public final class CellConflictFinding
+{
+    public final CellConflictType type;
+    public final CellularProtocol protocol;
+
+    /**
+     * The EARFCN, NR-ARFCN, UARFCN, or ARFCN of the serving cell.
+     */
+    public final int channel;
+
+    /**
+     * The PCI, PSC, or BSIC of the serving cell (or for a {@link CellConflictType#CONFUSION}, of the two neighbors).
+     */
+    public final int physicalCellId;
+
+    /**
+     * The physical cell ID of the other cell, which is the same as {@link #physicalCellId} except for the mod 3 and
+     * mod 30 clashes.
+     */
+    public final int otherPhysicalCellId;
+
+    /**
+     * The serving cell (for a {@link CellConflictType#CONFUSION}, the cell that has the two neighbors), or null if the
+     * serving cell record did not have a global identity.
+     */
+    public final TowerKey servingCell;
+
+    /**
+     * The other cell, or null if its global identity is not known (e.g. a neighbor record).
+     */
+    public final TowerKey otherCell;
+
+    /**
+     * For a {@link CellConflictType#CONFUSION}, the neighbor that was already known for the same channel and physical
+     * cell ID as the {@link #otherCell}; null for the other types.
+     */
+    public final TowerKey conflictingCell;
+
+    public final double latitude;
+    public final double longitude;
+    public final long timeMs;
+
+    /**
+     * The signal strength of the serving cell and the other cell, or NaN if it was not reported.
+     */
+    public final float servingSignal;
+    public final float otherSignal;
+
+    CellConflictFinding(CellConflictType type, CellularProtocol protocol, int channel, int physicalCellId,
+                        int otherPhysicalCellId, TowerKey servingCell, TowerKey otherCell, TowerKey conflictingCell,
+                        double latitude, double longitude, long timeMs, float servingSignal, float otherSignal)
+    {
+        this.type = type;
+        this.protocol = protocol;
+        this.channel = channel;
+        this.physicalCellId = physicalCellId;
+        this.otherPhysicalCellId = otherPhysicalCellId;
+        this.servingCell = servingCell;
+        this.otherCell = otherCell;
+        this.conflictingCell = conflictingCell;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.timeMs = timeMs;
+        this.servingSignal = servingSignal;
+        this.otherSignal = otherSignal;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CellConflictFinding{" +
+                "type=" + type +
+                ", protocol=" + protocol +
+                ", channel=" + channel +
+                ", physicalCellId=" + physicalCellId +
+                ", otherPhysicalCellId=" + otherPhysicalCellId +
+                ", servingCell=" + servingCell +
+                ", otherCell=" + otherCell +
+                ", conflictingCell=" + conflictingCell +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", timeMs=" + timeMs +
+                '}';
+    }
+}
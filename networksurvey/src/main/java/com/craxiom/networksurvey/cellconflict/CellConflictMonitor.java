@@ -0,0 +1,157 @@
+package com.craxiom.networksurvey.cellconflict;
+
+import android.content.Context;
+
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.networksurvey.logging.db.SurveyDatabase;
+import com.craxiom.networksurvey.logging.db.dao.CellConflictDao;
+import com.craxiom.networksurvey.logging.db.model.CellConflictEntity;
+import com.craxiom.networksurvey.metrics.PipelineMetrics;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import timber.log.Timber;
+
+/**
+ * Runs each cellular batch through the {@link CellConflictAnalyzer} and stores the findings, with where they were
+ * found, in the survey database.
+ * <p>
+ * The analysis is cheap enough to run inline on the thread that delivers the batch. The findings are rare, and they
+ * are written on a background thread so that the batch never waits on the database. Only the most recent
+ * {@link #MAX_STORED_CONFLICTS} findings are kept.
+ *
+ * @since 1.43
+ */
+public class CellConflictMonitor
+{
+    static final int MAX_STORED_CONFLICTS = 5_000;
+
+    private final CellConflictAnalyzer analyzer = new CellConflictAnalyzer();
+    private final CellConflictDao dao;
+    private final ExecutorService executorService;
+
+    public CellConflictMonitor(Context context)
+    {
+        this(SurveyDatabase.getInstance(context).cellConflictDao(), Executors.newSingleThreadExecutor());
+    }
+
+    CellConflictMonitor(CellConflictDao dao, ExecutorService executorService)
+    {
+        this.dao = dao;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Analyzes a batch of cellular records.
+     *
+     * @param cellularRecords The batch of cellular records from a single scan.
+     * @param subscriptionId  The subscription ID (aka SIM ID) that the records are associated with.
+     */
+    public void onCellularBatch(List<CellularRecordWrapper> cellularRecords, int subscriptionId)
+    {
+        final long start = System.nanoTime();
+
+        final List<CellObservation> observations = new ArrayList<>(cellularRecords.size());
+        CellularRecordWrapper servingRecord = null;
+        for (CellularRecordWrapper record : cellularRecords)
+        {
+            final CellObservation observation = CellObservation.fromRecord(record);
+            if (observation == null) continue;
+            observations.add(observation);
+            if (observation.serving && servingRecord == null) servingRecord = record;
+        }
+        if (servingRecord == null) return;
+
+        final double[] location = getLocation(servingRecord);
+        final List<CellConflictFinding> findings = analyzer.analyze(subscriptionId, observations, location[0],
+                location[1], System.currentTimeMillis());
+
+        PipelineMetrics.CELL_CONFLICT_ANALYZE.recordSince(start);
+        PipelineMetrics.CELL_CONFLICT_BATCHES.increment();
+        if (findings.isEmpty()) return;
+
+        PipelineMetrics.CELL_CONFLICT_FINDINGS.add(findings.size());
+        executorService.execute(() -> {
+            try
+            {
+                final List<CellConflictEntity> entities = new ArrayList<>(findings.size());
+                for (CellConflictFinding finding : findings)
+                {
+                    Timber.d("Found a physical cell ID problem: %s", finding);
+                    entities.add(toEntity(finding));
+                }
+                dao.insertConflicts(entities);
+                dao.deleteAllButMostRecent(MAX_STORED_CONFLICTS);
+            } catch (Exception e)
+            {
+                Timber.e(e, "Could not store the physical cell ID problems");
+            }
+        });
+    }
+
+    /**
+     * Forgets the neighbor graphs and the findings that were already reported, but leaves the stored findings.
+     */
+    public void reset()
+    {
+        analyzer.clear();
+    }
+
+    /**
+     * Stops the background thread once the findings that are waiting to be stored have been written.
+     */
+    public void shutdown()
+    {
+        executorService.shutdown();
+    }
+
+    static CellConflictEntity toEntity(CellConflictFinding finding)
+    {
+        final CellConflictEntity entity = new CellConflictEntity();
+        entity.type = finding.type.name();
+        entity.protocol = finding.protocol.name();
+        entity.channel = finding.channel;
+        entity.physicalCellId = finding.physicalCellId;
+        entity.otherPhysicalCellId = finding.otherPhysicalCellId;
+        entity.servingCell = finding.servingCell == null ? null : finding.servingCell.toString();
+        entity.otherCell = finding.otherCell == null ? null : finding.otherCell.toString();
+        entity.conflictingCell = finding.conflictingCell == null ? null : finding.conflictingCell.toString();
+        entity.latitude = finding.latitude;
+        entity.longitude = finding.longitude;
+        entity.time = finding.timeMs;
+        entity.servingSignal = Float.isNaN(finding.servingSignal) ? null : finding.servingSignal;
+        entity.otherSignal = Float.isNaN(finding.otherSignal) ? null : finding.otherSignal;
+        return entity;
+    }
+
+    /**
+     * @return The {latitude, longitude} of the record, which is {0, 0} if the location was not known.
+     */
+    private static double[] getLocation(CellularRecordWrapper record)
+    {
+        switch (record.cellularProtocol)
+        {
+            case GSM:
+                final GsmRecord gsmRecord = (GsmRecord) record.cellularRecord;
+                return new double[]{gsmRecord.getData().getLatitude(), gsmRecord.getData().getLongitude()};
+            case UMTS:
+                final UmtsRecord umtsRecord = (UmtsRecord) record.cellularRecord;
+                return new double[]{umtsRecord.getData().getLatitude(), umtsRecord.getData().getLongitude()};
+            case LTE:
+                final LteRecord lteRecord = (LteRecord) record.cellularRecord;
+                return new double[]{lteRecord.getData().getLatitude(), lteRecord.getData().getLongitude()};
+            case NR:
+                final NrRecord nrRecord = (NrRecord) record.cellularRecord;
+                return new double[]{nrRecord.getData().getLatitude(), nrRecord.getData().getLongitude()};
+            default:
+                return new double[]{0d, 0d};
+        }
+    }
+}
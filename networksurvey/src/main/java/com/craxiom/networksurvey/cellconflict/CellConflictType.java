@@ -0,0 +1,37 @@
+package com.craxiom.networksurvey.cellconflict;
+
+/**
+ * The kinds of physical cell ID problems that the {@link CellConflictAnalyzer} looks for. The physical cell ID is the
+ * PCI for LTE and NR, the PSC for UMTS, and the BSIC for GSM.
+ *
+ * @since 1.43
+ */
+public enum CellConflictType
+{
+    /**
+     * Two different cells on the same channel with the same physical cell ID cover the same area, so the device can't
+     * tell them apart. This is found when the serving cell shows up in its own neighbor list, or when two different
+     * cells on the same channel and physical cell ID both serve the device close to each other.
+     */
+    COLLISION,
+
+    /**
+     * A serving cell has two different neighbors on the same channel with the same physical cell ID, so a handover to
+     * that physical cell ID can go to the wrong one. This is found when handovers out of the serving cell land on
+     * different cells for the same channel and physical cell ID.
+     */
+    CONFUSION,
+
+    /**
+     * An LTE or NR neighbor on the serving cell's channel, about as strong as the serving cell, has the same PCI mod 3,
+     * so the primary synchronization signals (and for LTE the reference signal positions) overlap.
+     */
+    MOD3,
+
+    /**
+     * An LTE or NR neighbor on the serving cell's channel, about as strong as the serving cell, has the same PCI mod
+     * 30, so the uplink reference signals use the same sequence group. The PCIs then also have the same value mod 3,
+     * but the clash is only reported as this type.
+     */
+    MOD30
+}
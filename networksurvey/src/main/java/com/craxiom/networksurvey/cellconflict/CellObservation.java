@@ -0,0 +1,89 @@
+package com.craxiom.networksurvey.cellconflict;
+
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.GsmRecordData;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.NrRecordData;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.UmtsRecordData;
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.craxiom.networksurvey.towerlocation.TowerKey;
+
+/**
+ * The parts of one cellular record that the {@link CellConflictAnalyzer} needs, so that the analyzer does not depend
+ * on the protobuf messages.
+ */
+final class CellObservation
+{
+    final CellularProtocol protocol;
+    final int channel;
+    final int physicalCellId;
+    /**
+     * The global identity of the cell, or null if the record does not have one (most neighbor records).
+     */
+    final TowerKey cell;
+    /**
+     * RSRP for LTE and NR, RSCP for UMTS, RSSI for GSM, or NaN if the record does not have it.
+     */
+    final float signal;
+    final boolean serving;
+
+    CellObservation(CellularProtocol protocol, int channel, int physicalCellId, TowerKey cell, float signal,
+                    boolean serving)
+    {
+        this.protocol = protocol;
+        this.channel = channel;
+        this.physicalCellId = physicalCellId;
+        this.cell = cell;
+        this.signal = signal;
+        this.serving = serving;
+    }
+
+    /**
+     * @return The observation, or null if the record is missing the channel or physical cell ID, or if the technology
+     * does not have a physical cell ID (CDMA).
+     */
+    static CellObservation fromRecord(CellularRecordWrapper record)
+    {
+        switch (record.cellularProtocol)
+        {
+            case GSM:
+                final GsmRecordData gsmData = ((GsmRecord) record.cellularRecord).getData();
+                if (!gsmData.hasArfcn() || !gsmData.hasBsic()) return null;
+                return new CellObservation(CellularProtocol.GSM, gsmData.getArfcn().getValue(),
+                        gsmData.getBsic().getValue(), TowerKey.fromRecord(record),
+                        gsmData.hasSignalStrength() ? gsmData.getSignalStrength().getValue() : Float.NaN,
+                        gsmData.hasServingCell() && gsmData.getServingCell().getValue());
+
+            case UMTS:
+                final UmtsRecordData umtsData = ((UmtsRecord) record.cellularRecord).getData();
+                if (!umtsData.hasUarfcn() || !umtsData.hasPsc()) return null;
+                return new CellObservation(CellularProtocol.UMTS, umtsData.getUarfcn().getValue(),
+                        umtsData.getPsc().getValue(), TowerKey.fromRecord(record),
+                        umtsData.hasRscp() ? umtsData.getRscp().getValue() : Float.NaN,
+                        umtsData.hasServingCell() && umtsData.getServingCell().getValue());
+
+            case LTE:
+                final LteRecordData lteData = ((LteRecord) record.cellularRecord).getData();
+                if (!lteData.hasEarfcn() || !lteData.hasPci()) return null;
+                return new CellObservation(CellularProtocol.LTE, lteData.getEarfcn().getValue(),
+                        lteData.getPci().getValue(), TowerKey.fromRecord(record),
+                        lteData.hasRsrp() ? lteData.getRsrp().getValue() : Float.NaN,
+                        lteData.hasServingCell() && lteData.getServingCell().getValue());
+
+            case NR:
+                final NrRecordData nrData = ((NrRecord) record.cellularRecord).getData();
+                if (!nrData.hasNarfcn() || !nrData.hasPci()) return null;
+                return new CellObservation(CellularProtocol.NR, nrData.getNarfcn().getValue(),
+                        nrData.getPci().getValue(), TowerKey.fromRecord(record),
+                        nrData.hasSsRsrp() ? nrData.getSsRsrp().getValue() : Float.NaN,
+                        nrData.hasServingCell() && nrData.getServingCell().getValue());
+
+            default:
+                return null;
+        }
+    }
+}
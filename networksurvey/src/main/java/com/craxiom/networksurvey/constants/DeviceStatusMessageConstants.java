@@ -25,6 +25,14 @@ public class DeviceStatusMessageConstants extends MessageConstants
      */
     public static final String PHONE_STATE_MESSAGE_TYPE = "PhoneState";
 
+    /**
+     * The message type for the pipeline metrics message. This message is not part of the Network Survey Messaging
+     * API, so it is sent as a generic JSON object with the same top level layout as the Device Status message.
+     *
+     * @since 1.43
+     */
+    public static final String PIPELINE_METRICS_MESSAGE_TYPE = "PipelineMetrics";
+
     public static final String PHONE_STATE_TABLE_NAME = "PHONE_STATE_MESSAGE";
     public static final String LATITUDE_COLUMN = "latitude";
     public static final String LONGITUDE_COLUMN = "longitude";
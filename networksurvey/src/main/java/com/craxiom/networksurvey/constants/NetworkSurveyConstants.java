@@ -45,6 +45,7 @@ public class NetworkSurveyConstants
     public static final String CDR_FILE_NAME_PREFIX = "craxiom-cdr-";
     public static final String PHONESTATE_FILE_NAME_PREFIX = "craxiom-phonestate-";
     public static final String DEVICESTATUS_FILE_NAME_PREFIX = "craxiom-devicestatus-";
+    public static final String THROUGHPUT_FILE_NAME_PREFIX = "craxiom-throughput-";
 
     public static final String GPRS = "GPRS";
     public static final String EDGE = "EDGE";
@@ -108,6 +109,11 @@ public class NetworkSurveyConstants
     public static final int MINIMUM_BLUETOOTH_SCAN_INTERVAL_SECONDS = 23;
 
     public static final String DEFAULT_ROLLOVER_SIZE_MB = "10";
+    public static final boolean DEFAULT_SUPPRESS_UNCHANGED_CELLS = false;
+    public static final int DEFAULT_UNCHANGED_CELL_HEARTBEAT_SCANS = 12;
+    public static final boolean DEFAULT_ADAPTIVE_SCAN_INTERVAL = false;
+    public static final boolean DEFAULT_PIPELINE_METRICS_MESSAGE = false;
+    public static final boolean DEFAULT_CELL_CONFLICT_DETECTION = false;
 
     public static final boolean DEFAULT_UPLOAD_TO_OPENCELLID = true;
     public static final boolean DEFAULT_UPLOAD_TO_BEACONDB = true;
@@ -138,8 +144,15 @@ public class NetworkSurveyConstants
     public static final String PROPERTY_BLUETOOTH_SCAN_INTERVAL_SECONDS = "bluetooth_scan_interval_seconds";
     public static final String PROPERTY_GNSS_SCAN_INTERVAL_SECONDS = "gnss_scan_interval_seconds";
     public static final String PROPERTY_DEVICE_STATUS_SCAN_INTERVAL_SECONDS = "device_status_scan_interval_seconds";
+    public static final String PROPERTY_ADAPTIVE_SCAN_INTERVAL = "adaptive_scan_interval";
+    public static final String PROPERTY_PIPELINE_METRICS_MESSAGE = "pipeline_metrics_message";
+    public static final String PROPERTY_PIPELINE_DIAGNOSTICS = "pipeline_diagnostics";
+    public static final String PROPERTY_CELL_CONFLICT_DETECTION = "cell_conflict_detection";
+    public static final String PROPERTY_CELL_CONFLICT_FINDINGS = "cell_conflict_findings";
     public static final String PROPERTY_LOG_ROLLOVER_SIZE_MB = "log_rollover_size_mb";
     public static final String PROPERTY_LOG_FILE_TYPE = "log_file_type";
+    public static final String PROPERTY_SUPPRESS_UNCHANGED_CELLS = "suppress_unchanged_cells";
+    public static final String PROPERTY_UNCHANGED_CELL_HEARTBEAT_SCANS = "unchanged_cell_heartbeat_scans";
     public static final String PROPERTY_LOCATION_PROVIDER = "location_provider";
     public static final String PROPERTY_ALLOW_INTENT_CONTROL = "allow_intent_control";
     public static final String PROPERTY_IGNORE_WIFI_SCAN_THROTTLING_WARNING = "ignore_wifi_scan_throttling_warning";
@@ -196,12 +209,14 @@ public class NetworkSurveyConstants
     public static final String PROPERTY_LAST_SELECTED_TOWER_SOURCE = "last_selected_tower_source";
     public static final String PROPERTY_SELECTED_MAP_TILE_SOURCE = "selected_map_tile_source";
     public static final String PROPERTY_SHOW_BEACONDB_COVERAGE = "show_beacondb_coverage";
+    public static final String PROPERTY_SHOW_MEASURED_COVERAGE = "show_measured_coverage";
     public static final String PROPERTY_SHOW_TOWERS_LAYER = "show_towers_layer";
     public static final String PROPERTY_NEW_TOWER_ALERTS_ENABLED = "new_tower_alerts_enabled";
 
     // Survey Monitor specific map preferences
     public static final String PROPERTY_SURVEY_MAP_TILE_SOURCE = "survey_map_tile_source";
     public static final String PROPERTY_SURVEY_SHOW_BEACONDB_COVERAGE = "survey_show_beacondb_coverage";
+    public static final String PROPERTY_SURVEY_SHOW_MEASURED_COVERAGE = "survey_show_measured_coverage";
     public static final String PROPERTY_SURVEY_SHOW_TOWERS_LAYER = "survey_show_towers_layer";
     public static final String PROPERTY_SURVEY_MAP_KEEP_SCREEN_ON = "survey_map_keep_screen_on";
 
@@ -0,0 +1,34 @@
+package com.craxiom.networksurvey.constants.csv;
+
+/**
+ * The constants associated with the drive test throughput CSV file headers.
+ * <p>
+ * The serving cell columns are named after the LTE fields where possible so that the file lines up
+ * with the cellular CSV files when they are joined on time and location.
+ */
+public class ThroughputCsvConstants extends SurveyCsvConstants
+{
+    private ThroughputCsvConstants()
+    {
+    }
+
+    public static final String TEST_NUMBER = "testNumber";
+    public static final String PHASE = "phase";
+    public static final String THROUGHPUT_MBPS = "throughputMbps";
+    public static final String LATENCY_MS = "latencyMs";
+    public static final String NETWORK_TYPE = "networkType";
+
+    public static final String SERVING_PROTOCOL = "servingProtocol";
+    public static final String MCC = "mcc";
+    public static final String MNC = "mnc";
+    public static final String AREA_CODE = "areaCode";
+    public static final String CELL_ID = "cellId";
+    public static final String PCI = "pci";
+    public static final String ARFCN = "arfcn";
+    public static final String RSRP = "rsrp";
+    public static final String RSRQ = "rsrq";
+    public static final String SINR = "sinr";
+    public static final String ECNO = "ecno";
+    public static final String SLOT = "slot";
+    public static final String SERVING_CELL_AGE = "servingCellAge";
+}
@@ -0,0 +1,283 @@
+package com.craxiom.networksurvey.coverage;
+
+import android.content.Context;
+
+import com.craxiom.networksurvey.listeners.ICoverageGridListener;
+import com.craxiom.networksurvey.logging.db.SurveyDatabase;
+import com.craxiom.networksurvey.logging.db.dao.CoverageCellDao;
+import com.craxiom.networksurvey.logging.db.model.CoverageCellEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import timber.log.Timber;
+
+/**
+ * Builds a personal coverage map from the signal measurements as they are recorded.
+ * <p>
+ * Each measurement is added to one cell on every level of the {@link CoverageGrid}, keeping the count, sum, min, and
+ * max per technology and PLMN. The updates are collected in memory and then merged into the stored grid in one
+ * transaction, so the grid never has to be rebuilt from the survey records (which are deleted once they are
+ * uploaded anyway). A query returns the stored cells plus any updates that have not been flushed yet.
+ * <p>
+ * Adding measurements is thread safe and never waits on the database. A flush and a query can't run at the same time so
+ * that a query never sees the same updates both in memory and in the database.
+ * <p>
+ * There is one aggregator for the app (see {@link #getInstance(Context)}) so that the map sees the same pending updates
+ * that the survey service adds, and so the {@link CoverageTileCache} hears about every change.
+ *
+ * @since 1.43
+ */
+public class CoverageAggregator
+{
+    /**
+     * Flush once this many series have pending updates, which bounds the memory used between flushes.
+     */
+    static final int FLUSH_THRESHOLD_SERIES = 2_000;
+    private static final long FLUSH_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final CoverageCellDao dao;
+    private final Object pendingLock = new Object();
+    private final Object flushLock = new Object();
+    private final List<ICoverageGridListener> listeners = new CopyOnWriteArrayList<>();
+
+    private static volatile CoverageAggregator INSTANCE;
+
+    private Map<CoverageCellKey, CoverageStats> pending = new HashMap<>();
+    private long lastFlushNanos = System.nanoTime();
+
+    public CoverageAggregator(CoverageCellDao dao)
+    {
+        this.dao = dao;
+    }
+
+    public static CoverageAggregator getInstance(Context context)
+    {
+        if (INSTANCE == null)
+        {
+            synchronized (CoverageAggregator.class)
+            {
+                if (INSTANCE == null)
+                {
+                    final CoverageAggregator aggregator = new CoverageAggregator(
+                            SurveyDatabase.getInstance(context).coverageCellDao());
+                    // The tile cache is registered first so the stale tiles are gone before any map asks for them again
+                    aggregator.addListener(CoverageTileCache.getInstance(context));
+                    INSTANCE = aggregator;
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Adds a listener that is notified each time updates are written to the stored grid.
+     */
+    public void addListener(ICoverageGridListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ICoverageGridListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Adds a signal measurement to the grid.
+     *
+     * @param technology The technology of the measurement.
+     * @param mcc        The MCC of the serving cell, or 0 for Wi-Fi.
+     * @param mnc        The MNC of the serving cell, or 0 for Wi-Fi.
+     * @param latitude   The latitude where the measurement was taken.
+     * @param longitude  The longitude where the measurement was taken.
+     * @param signal     The signal strength in dBm (RSRP for LTE and NR, RSCP for UMTS, and RSSI for GSM and Wi-Fi).
+     */
+    public void add(CoverageTechnology technology, int mcc, int mnc, double latitude, double longitude, float signal)
+    {
+        if (Float.isNaN(signal)) return;
+
+        synchronized (pendingLock)
+        {
+            for (int level : CoverageGrid.LEVELS)
+            {
+                final CoverageCellKey key = new CoverageCellKey(level, CoverageGrid.cellX(longitude, level),
+                        CoverageGrid.cellY(latitude, level), technology, mcc, mnc);
+                CoverageStats stats = pending.get(key);
+                if (stats == null)
+                {
+                    stats = new CoverageStats();
+                    pending.put(key, stats);
+                }
+                stats.add(signal);
+            }
+        }
+    }
+
+    /**
+     * @return True if enough updates have been collected, or enough time has passed since the last flush, that the
+     * updates should be written to the database.
+     */
+    public boolean isFlushDue()
+    {
+        synchronized (pendingLock)
+        {
+            if (pending.isEmpty()) return false;
+            return pending.size() >= FLUSH_THRESHOLD_SERIES || System.nanoTime() - lastFlushNanos >= FLUSH_INTERVAL_NANOS;
+        }
+    }
+
+    /**
+     * Merges all the pending updates into the stored grid. This is a blocking database call so it must be made off the
+     * main thread. If the write fails, the updates are kept so that they are written with the next flush. Once the
+     * updates are written, the listeners are told which cells changed.
+     *
+     * @return The number of series that were written.
+     */
+    public int flush()
+    {
+        synchronized (flushLock)
+        {
+            final Map<CoverageCellKey, CoverageStats> toWrite;
+            synchronized (pendingLock)
+            {
+                lastFlushNanos = System.nanoTime();
+                if (pending.isEmpty()) return 0;
+                toWrite = pending;
+                pending = new HashMap<>();
+            }
+
+            final List<CoverageCellEntity> entities = new ArrayList<>(toWrite.size());
+            toWrite.forEach((key, stats) -> entities.add(toEntity(key, stats)));
+
+            try
+            {
+                dao.mergeCells(entities);
+            } catch (Exception e)
+            {
+                Timber.e(e, "Could not write the coverage grid updates, keeping them for the next flush");
+                synchronized (pendingLock)
+                {
+                    toWrite.forEach((key, stats) -> {
+                        final CoverageStats newer = pending.get(key);
+                        if (newer != null) stats.merge(newer);
+                        pending.put(key, stats);
+                    });
+                }
+                return 0;
+            }
+
+            // Notified outside of the try block so a failing listener can't cause the written updates to be kept
+            final Set<CoverageCellKey> updatedCells = Collections.unmodifiableSet(toWrite.keySet());
+            for (ICoverageGridListener listener : listeners)
+            {
+                listener.onCoverageCellsUpdated(updatedCells);
+            }
+            return entities.size();
+        }
+    }
+
+    /**
+     * Gets the coverage for an area. This is a blocking database call so it must be made off the main thread.
+     *
+     * @param level      The grid level to query, which should be one of the {@link CoverageGrid#LEVELS}.
+     * @param south      The south edge of the area.
+     * @param west       The west edge of the area.
+     * @param north      The north edge of the area.
+     * @param east       The east edge of the area.
+     * @param technology Only return this technology, or null for all of them.
+     * @return The stats for each series in the cells that overlap the area.
+     */
+    public List<CoverageCell> query(int level, double south, double west, double north, double east,
+                                    CoverageTechnology technology)
+    {
+        final int minX = CoverageGrid.cellX(west, level);
+        final int maxX = CoverageGrid.cellX(east, level);
+        final int minY = CoverageGrid.cellY(south, level);
+        final int maxY = CoverageGrid.cellY(north, level);
+
+        synchronized (flushLock)
+        {
+            final Map<CoverageCellKey, CoverageStats> cells = new HashMap<>();
+            for (CoverageCellEntity entity : dao.getCells(level, minX, maxX, minY, maxY))
+            {
+                final CoverageCellKey key = toKey(entity);
+                if (technology == null || key.technology == technology)
+                {
+                    cells.put(key, new CoverageStats(entity.sampleCount, entity.signalSum, entity.minSignal, entity.maxSignal));
+                }
+            }
+
+            synchronized (pendingLock)
+            {
+                pending.forEach((key, stats) -> {
+                    if (key.level != level || key.cellX < minX || key.cellX > maxX || key.cellY < minY || key.cellY > maxY)
+                    {
+                        return;
+                    }
+                    if (technology != null && key.technology != technology) return;
+
+                    final CoverageStats stored = cells.get(key);
+                    if (stored == null)
+                    {
+                        cells.put(key, stats.copy());
+                    } else
+                    {
+                        stored.merge(stats);
+                    }
+                });
+            }
+
+            final List<CoverageCell> result = new ArrayList<>(cells.size());
+            cells.forEach((key, stats) -> result.add(new CoverageCell(key, stats)));
+            return result;
+        }
+    }
+
+    /**
+     * Removes all the coverage data, both stored and pending.
+     */
+    public void clear()
+    {
+        synchronized (flushLock)
+        {
+            synchronized (pendingLock)
+            {
+                pending = new HashMap<>();
+            }
+            dao.deleteAll();
+        }
+
+        for (ICoverageGridListener listener : listeners)
+        {
+            listener.onCoverageCleared();
+        }
+    }
+
+    static CoverageCellEntity toEntity(CoverageCellKey key, CoverageStats stats)
+    {
+        final CoverageCellEntity entity = new CoverageCellEntity();
+        entity.level = key.level;
+        entity.cellX = key.cellX;
+        entity.cellY = key.cellY;
+        entity.technology = key.technology.name();
+        entity.mcc = key.mcc;
+        entity.mnc = key.mnc;
+        entity.sampleCount = stats.getCount();
+        entity.signalSum = stats.getSum();
+        entity.minSignal = stats.getMin();
+        entity.maxSignal = stats.getMax();
+        return entity;
+    }
+
+    private static CoverageCellKey toKey(CoverageCellEntity entity)
+    {
+        return new CoverageCellKey(entity.level, entity.cellX, entity.cellY,
+                CoverageTechnology.valueOf(entity.technology), entity.mcc, entity.mnc);
+    }
+}
@@ -0,0 +1,18 @@
+package com.craxiom.networksurvey.coverage;
+
+/**
+ * The stats for one series in the coverage grid, as returned from a query.
+ *
+ * @since 1.43
+ */
+public final class CoverageCell
+{
+    public final CoverageCellKey key;
+    public final CoverageStats stats;
+
+    public CoverageCell(CoverageCellKey key, CoverageStats stats)
+    {
+        this.key = key;
+        this.stats = stats;
+    }
+}
@@ -0,0 +1,55 @@
+package com.craxiom.networksurvey.coverage;
+
+/**
+ * Identifies one series of measurements in the coverage grid: a cell at one of the grid levels, for one technology and
+ * PLMN. The PLMN is 0/0 for Wi-Fi.
+ *
+ * @since 1.43
+ */
+public final class CoverageCellKey
+{
+    public final int level;
+    public final int cellX;
+    public final int cellY;
+    public final CoverageTechnology technology;
+    public final int mcc;
+    public final int mnc;
+
+    public CoverageCellKey(int level, int cellX, int cellY, CoverageTechnology technology, int mcc, int mnc)
+    {
+        this.level = level;
+        this.cellX = cellX;
+        this.cellY = cellY;
+        this.technology = technology;
+        this.mcc = mcc;
+        this.mnc = mnc;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final CoverageCellKey that = (CoverageCellKey) o;
+        return level == that.level && cellX == that.cellX && cellY == that.cellY && mcc == that.mcc
+                && mnc == that.mnc && technology == that.technology;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = level;
+        result = 31 * result + cellX;
+        result = 31 * result + cellY;
+        result = 31 * result + technology.hashCode();
+        result = 31 * result + mcc;
+        result = 31 * result + mnc;
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CoverageCellKey{" + level + "/" + cellX + "/" + cellY + " " + technology + " " + mcc + "-" + mnc + "}";
+    }
+}
@@ -0,0 +1,102 @@
+package com.craxiom.networksurvey.coverage;
+
+/**
+ * The multi-resolution grid that the coverage measurements are binned into.
+ * <p>
+ * Like a geohash, each level splits the cells of the previous level into four, by halving the longitude and latitude
+ * ranges. A cell is identified by its level and its column (x) and row (y) at that level, where column 0 is at -180
+ * longitude and row 0 is at -90 latitude. Every measurement is added to one cell on each of the {@link #LEVELS}, so the
+ * map can query whichever level suits the zoom without having to combine cells.
+ * <p>
+ * At the equator the cells are roughly 39 km, 9.8 km, 2.4 km, 610 m, and 150 m across (east to west) for the five
+ * levels, and half that from north to south.
+ *
+ * @since 1.43
+ */
+public final class CoverageGrid
+{
+    /**
+     * The levels that every measurement is binned into, from the coarsest to the finest.
+     */
+    public static final int[] LEVELS = {10, 12, 14, 16, 18};
+
+    public static final int MIN_LEVEL = LEVELS[0];
+    public static final int MAX_LEVEL = LEVELS[LEVELS.length - 1];
+
+    private CoverageGrid()
+    {
+    }
+
+    /**
+     * @return The column of the cell that contains the provided longitude at the provided level.
+     */
+    public static int cellX(double longitude, int level)
+    {
+        return toCell((longitude + 180d) / 360d, level);
+    }
+
+    /**
+     * @return The row of the cell that contains the provided latitude at the provided level.
+     */
+    public static int cellY(double latitude, int level)
+    {
+        return toCell((latitude + 90d) / 180d, level);
+    }
+
+    /**
+     * @return The longitude of the west edge of the provided column.
+     */
+    public static double cellWest(int cellX, int level)
+    {
+        return cellX * cellWidthDegrees(level) - 180d;
+    }
+
+    /**
+     * @return The latitude of the south edge of the provided row.
+     */
+    public static double cellSouth(int cellY, int level)
+    {
+        return cellY * cellHeightDegrees(level) - 90d;
+    }
+
+    /**
+     * @return The width of a cell at the provided level, in degrees of longitude.
+     */
+    public static double cellWidthDegrees(int level)
+    {
+        return 360d / (1L << level);
+    }
+
+    /**
+     * @return The height of a cell at the provided level, in degrees of latitude.
+     */
+    public static double cellHeightDegrees(int level)
+    {
+        return 180d / (1L << level);
+    }
+
+    /**
+     * Picks the finest level where a span of longitude is covered by no more than the provided number of cells. This
+     * keeps the number of cells that are queried for a map viewport bounded regardless of the zoom.
+     *
+     * @param longitudeSpanDegrees The width of the area, in degrees of longitude.
+     * @param maxCellsAcross       The most cells that should be needed to cover the width.
+     * @return One of the {@link #LEVELS}.
+     */
+    public static int levelForSpan(double longitudeSpanDegrees, int maxCellsAcross)
+    {
+        for (int i = LEVELS.length - 1; i > 0; i--)
+        {
+            if (longitudeSpanDegrees / cellWidthDegrees(LEVELS[i]) <= maxCellsAcross) return LEVELS[i];
+        }
+        return MIN_LEVEL;
+    }
+
+    private static int toCell(double fraction, int level)
+    {
+        final int cellCount = 1 << level;
+        final int cell = (int) Math.floor(fraction * cellCount);
+        if (cell < 0) return 0;
+        return Math.min(cell, cellCount - 1);
+    }
+}
@@ -0,0 +1,303 @@
+package com.craxiom.networksurvey.coverage;
+
+import android.content.Context;
+
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.GsmRecordData;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.NrRecordData;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.UmtsRecordData;
+import com.craxiom.messaging.WifiBeaconRecordData;
+import com.craxiom.networksurvey.logging.db.DbUploadStore;
+import com.craxiom.networksurvey.logging.db.SurveyDatabase;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.craxiom.networksurvey.model.WifiRecordWrapper;
+import com.craxiom.networksurvey.towerlocation.TowerKey;
+import com.craxiom.networksurvey.towerlocation.TowerLocationEstimator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import timber.log.Timber;
+
+/**
+ * Adds the cellular and Wi-Fi scans to the {@link CoverageAggregator} and the {@link TowerLocationEstimator} as they
+ * come out of the survey record processor, whether or not the records are also being saved for upload.
+ * <p>
+ * A scan is only added if its location is accurate enough and the device has moved far enough since the last scan
+ * that was added (the same thresholds as the upload database), which keeps a stationary device from piling samples
+ * into a single grid cell. The serving cell of each technology is added to the coverage grid, and every record with a
+ * full cell identity is added to the tower location estimator.
+ * <p>
+ * The work is done on a background thread so that the scan never waits on the database when the pending coverage
+ * updates are flushed.
+ *
+ * @since 1.43
+ */
+public class CoverageRecorder
+{
+    private final CoverageAggregator coverageAggregator;
+    private final TowerLocationEstimator towerLocationEstimator;
+    private final BooleanSupplier databaseOpen;
+    private final ExecutorService executorService;
+
+    // Only used on the executor thread
+    private final Map<Integer, double[]> lastCellularLocations = new HashMap<>();
+    private double[] lastWifiLocation;
+
+    public CoverageRecorder(Context context)
+    {
+        this(CoverageAggregator.getInstance(context), TowerLocationEstimator.getInstance(),
+                SurveyDatabase.getInstance(context)::isOpen, Executors.newSingleThreadExecutor());
+    }
+
+    CoverageRecorder(CoverageAggregator coverageAggregator, TowerLocationEstimator towerLocationEstimator,
+                     BooleanSupplier databaseOpen, ExecutorService executorService)
+    {
+        this.coverageAggregator = coverageAggregator;
+        this.towerLocationEstimator = towerLocationEstimator;
+        this.databaseOpen = databaseOpen;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Adds a batch of cellular records from a single scan.
+     *
+     * @param cellularRecords The batch of cellular records from a single scan.
+     * @param subscriptionId  The subscription ID (aka SIM ID) that the records are associated with.
+     */
+    public void onCellularBatch(List<CellularRecordWrapper> cellularRecords, int subscriptionId)
+    {
+        executorService.execute(() -> {
+            try
+            {
+                addCellularBatch(cellularRecords, subscriptionId);
+                flushIfDue();
+            } catch (Exception e)
+            {
+                Timber.e(e, "Could not add the cellular batch to the coverage map");
+            }
+        });
+    }
+
+    /**
+     * Adds the strongest access point of a Wi-Fi scan, since that is the Wi-Fi coverage that is available at the
+     * location.
+     *
+     * @param wifiRecords The records from a single scan, without the excluded SSIDs.
+     */
+    public void onWifiBeaconRecords(List<WifiRecordWrapper> wifiRecords)
+    {
+        executorService.execute(() -> {
+            try
+            {
+                addWifiScan(wifiRecords);
+                flushIfDue();
+            } catch (Exception e)
+            {
+                Timber.e(e, "Could not add the Wi-Fi scan to the coverage map");
+            }
+        });
+    }
+
+    /**
+     * Writes any pending coverage grid updates to the database. Call this when the records stop flowing so the
+     * updates are not held in memory until the next scan.
+     */
+    public void flush()
+    {
+        executorService.execute(() -> {
+            if (databaseOpen.getAsBoolean()) coverageAggregator.flush();
+        });
+    }
+
+    /**
+     * Flushes the pending coverage updates and then stops the background thread once it is done.
+     */
+    public void shutdown()
+    {
+        flush();
+        executorService.shutdown();
+    }
+
+    /**
+     * Forgets the last locations so the next scan is added no matter where it was taken.
+     */
+    public void resetLastLocations()
+    {
+        executorService.execute(() -> {
+            lastCellularLocations.clear();
+            lastWifiLocation = null;
+        });
+    }
+
+    private void addCellularBatch(List<CellularRecordWrapper> cellularRecords, int subscriptionId)
+    {
+        if (cellularRecords == null || cellularRecords.isEmpty()) return;
+
+        // All the records in a scan share the same location, so it is taken from the first record that has a
+        // measurement (a CDMA record for example does not)
+        final CellMeasurement[] measurements = new CellMeasurement[cellularRecords.size()];
+        CellMeasurement first = null;
+        for (int i = 0; i < measurements.length; i++)
+        {
+            measurements[i] = CellMeasurement.fromRecord(cellularRecords.get(i));
+            if (first == null) first = measurements[i];
+        }
+        if (first == null || !isLocationUsable(first.accuracy, first.latitude, first.longitude)) return;
+        if (!hasMovedEnough(first.latitude, first.longitude, lastCellularLocations.get(subscriptionId))) return;
+        lastCellularLocations.put(subscriptionId, new double[]{first.latitude, first.longitude});
+
+        for (int i = 0; i < measurements.length; i++)
+        {
+            final CellMeasurement measurement = measurements[i];
+            if (measurement == null || Float.isNaN(measurement.signal)) continue;
+            final CellularRecordWrapper record = cellularRecords.get(i);
+
+            // A record without the serving cell flag is treated as the serving cell
+            final boolean neighbor = Boolean.FALSE.equals(measurement.servingCell);
+            if (!neighbor && measurement.mcc != null && measurement.mnc != null)
+            {
+                coverageAggregator.add(measurement.technology, measurement.mcc, measurement.mnc,
+                        measurement.latitude, measurement.longitude, measurement.signal);
+            }
+
+            // Neighbor records rarely have the identity, and their timing advance is never valid
+            final TowerKey towerKey = TowerKey.fromRecord(record);
+            if (towerKey != null)
+            {
+                towerLocationEstimator.addMeasurement(towerKey, measurement.latitude, measurement.longitude,
+                        measurement.signal, neighbor ? null : measurement.timingAdvance);
+            }
+        }
+    }
+
+    private void addWifiScan(List<WifiRecordWrapper> wifiRecords)
+    {
+        if (wifiRecords == null || wifiRecords.isEmpty()) return;
+
+        final WifiBeaconRecordData first = wifiRecords.get(0).getWifiBeaconRecord().getData();
+        if (!isLocationUsable(first.getAccuracy(), first.getLatitude(), first.getLongitude())) return;
+        if (!hasMovedEnough(first.getLatitude(), first.getLongitude(), lastWifiLocation)) return;
+        lastWifiLocation = new double[]{first.getLatitude(), first.getLongitude()};
+
+        WifiBeaconRecordData strongest = null;
+        for (WifiRecordWrapper wrapper : wifiRecords)
+        {
+            final WifiBeaconRecordData data = wrapper.getWifiBeaconRecord().getData();
+            if (!data.hasSignalStrength()) continue;
+            if (strongest == null || data.getSignalStrength().getValue() > strongest.getSignalStrength().getValue())
+            {
+                strongest = data;
+            }
+        }
+
+        if (strongest != null)
+        {
+            coverageAggregator.add(CoverageTechnology.WIFI, 0, 0, strongest.getLatitude(), strongest.getLongitude(),
+                    strongest.getSignalStrength().getValue());
+        }
+    }
+
+    private void flushIfDue()
+    {
+        if (coverageAggregator.isFlushDue() && databaseOpen.getAsBoolean()) coverageAggregator.flush();
+    }
+
+    private static boolean isLocationUsable(int accuracy, double latitude, double longitude)
+    {
+        // Yes, I know that 0.0 is a valid location, but it is what the records have when the location is not known
+        return accuracy > 0 && accuracy <= DbUploadStore.ACCURACY_THRESHOLD_METERS
+                && latitude != 0d && longitude != 0d;
+    }
+
+    private static boolean hasMovedEnough(double latitude, double longitude, double[] lastLocation)
+    {
+        return DbUploadStore.hasMovedEnough(latitude, longitude,
+                lastLocation == null ? null : new kotlin.Pair<>(lastLocation[0], lastLocation[1]));
+    }
+
+    /**
+     * The values of a cellular record that are added to the coverage grid and the tower location estimator.
+     */
+    private static final class CellMeasurement
+    {
+        final CoverageTechnology technology;
+        final double latitude;
+        final double longitude;
+        final int accuracy;
+        final Integer mcc;
+        final Integer mnc;
+        final Boolean servingCell;
+        final float signal;
+        final Integer timingAdvance;
+
+        private CellMeasurement(CoverageTechnology technology, double latitude, double longitude, int accuracy,
+                                Integer mcc, Integer mnc, Boolean servingCell, float signal, Integer timingAdvance)
+        {
+            this.technology = technology;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.accuracy = accuracy;
+            this.mcc = mcc;
+            this.mnc = mnc;
+            this.servingCell = servingCell;
+            this.signal = signal;
+            this.timingAdvance = timingAdvance;
+        }
+
+        /**
+         * @return The measurement, or null for a technology that is not part of the coverage map (e.g. CDMA). The
+         * signal is NaN if the record does not have one (RSCP for UMTS and SS-RSRP for NR are preferred).
+         */
+        static CellMeasurement fromRecord(CellularRecordWrapper record)
+        {
+            switch (record.cellularProtocol)
+            {
+                case GSM:
+                    final GsmRecordData gsm = ((GsmRecord) record.cellularRecord).getData();
+                    return new CellMeasurement(CoverageTechnology.GSM, gsm.getLatitude(), gsm.getLongitude(),
+                            gsm.getAccuracy(), gsm.hasMcc() ? gsm.getMcc().getValue() : null,
+                            gsm.hasMnc() ? gsm.getMnc().getValue() : null,
+                            gsm.hasServingCell() ? gsm.getServingCell().getValue() : null,
+                            gsm.hasSignalStrength() ? gsm.getSignalStrength().getValue() : Float.NaN,
+                            gsm.hasTa() ? gsm.getTa().getValue() : null);
+                case UMTS:
+                    final UmtsRecordData umts = ((UmtsRecord) record.cellularRecord).getData();
+                    final float umtsSignal = umts.hasRscp() ? umts.getRscp().getValue()
+                            : umts.hasSignalStrength() ? umts.getSignalStrength().getValue() : Float.NaN;
+                    // UMTS has no timing advance
+                    return new CellMeasurement(CoverageTechnology.UMTS, umts.getLatitude(), umts.getLongitude(),
+                            umts.getAccuracy(), umts.hasMcc() ? umts.getMcc().getValue() : null,
+                            umts.hasMnc() ? umts.getMnc().getValue() : null,
+                            umts.hasServingCell() ? umts.getServingCell().getValue() : null, umtsSignal, null);
+                case LTE:
+                    final LteRecordData lte = ((LteRecord) record.cellularRecord).getData();
+                    return new CellMeasurement(CoverageTechnology.LTE, lte.getLatitude(), lte.getLongitude(),
+                            lte.getAccuracy(), lte.hasMcc() ? lte.getMcc().getValue() : null,
+                            lte.hasMnc() ? lte.getMnc().getValue() : null,
+                            lte.hasServingCell() ? lte.getServingCell().getValue() : null,
+                            lte.hasRsrp() ? lte.getRsrp().getValue() : Float.NaN,
+                            lte.hasTa() ? lte.getTa().getValue() : null);
+                case NR:
+                    final NrRecordData nr = ((NrRecord) record.cellularRecord).getData();
+                    final float nrSignal = nr.hasSsRsrp() ? nr.getSsRsrp().getValue()
+                            : nr.hasCsiRsrp() ? nr.getCsiRsrp().getValue() : Float.NaN;
+                    return new CellMeasurement(CoverageTechnology.NR, nr.getLatitude(), nr.getLongitude(),
+                            nr.getAccuracy(), nr.hasMcc() ? nr.getMcc().getValue() : null,
+                            nr.hasMnc() ? nr.getMnc().getValue() : null,
+                            nr.hasServingCell() ? nr.getServingCell().getValue() : null, nrSignal,
+                            nr.hasTa() ? nr.getTa().getValue() : null);
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.craxiom.networksurvey.coverage;
+
+/**
+ * The running count, sum, min, and max of the signal measurements in one coverage cell. Two sets of stats for the same
+ * cell can be merged, which is what allows the grid to be updated incrementally.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @since 1.43
+ */
+public final class CoverageStats
+{
+    private long count;
+    private double sum;
+    private float min = Float.POSITIVE_INFINITY;
+    private float max = Float.NEGATIVE_INFINITY;
+
+    public CoverageStats()
+    {
+    }
+
+    public CoverageStats(long count, double sum, float min, float max)
+    {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Adds a single measurement.
+     *
+     * @param signal The signal strength in dBm.
+     */
+    public void add(float signal)
+    {
+        count++;
+        sum += signal;
+        if (signal < min) min = signal;
+        if (signal > max) max = signal;
+    }
+
+    /**
+     * Adds all the measurements from the other stats to these stats.
+     */
+    public void merge(CoverageStats other)
+    {
+        if (other.count == 0) return;
+
+        count += other.count;
+        sum += other.sum;
+        if (other.min < min) min = other.min;
+        if (other.max > max) max = other.max;
+    }
+
+    public CoverageStats copy()
+    {
+        return new CoverageStats(count, sum, min, max);
+    }
+
+    public long getCount()
+    {
+        return count;
+    }
+
+    public double getSum()
+    {
+        return sum;
+    }
+
+    /**
+     * @return The mean signal strength in dBm, or NaN if there are no measurements.
+     */
+    public float getMean()
+    {
+        return count == 0 ? Float.NaN : (float) (sum / count);
+    }
+
+    public float getMin()
+    {
+        return min;
+    }
+
+    public float getMax()
+    {
+        return max;
+    }
+}
@@ -0,0 +1,15 @@
+package com.craxiom.networksurvey.coverage;
+
+/**
+ * The technologies that signal measurements are aggregated for in the coverage grid.
+ *
+ * @since 1.43
+ */
+public enum CoverageTechnology
+{
+    GSM,
+    UMTS,
+    LTE,
+    NR,
+    WIFI
+}
@@ -0,0 +1,172 @@
+package com.craxiom.networksurvey.coverage;
+
+import android.content.Context;
+
+import com.craxiom.networksurvey.listeners.ICoverageGridListener;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import timber.log.Timber;
+
+/**
+ * A disk cache of the rendered coverage map tiles, stored as {@code <technology>/<z>/<x>/<y>.geojson} under the app's
+ * cache directory.
+ * <p>
+ * The cache listens to the {@link CoverageAggregator} and deletes only the tiles that show a cell that changed, so
+ * panning over an area that was surveyed days ago reads the tiles straight from disk. Every invalidation bumps a
+ * generation number, and a tile that was rendered before an invalidation is not written, so a tile rendered from data
+ * that was replaced mid-render can't get stuck in the cache.
+ *
+ * @since 1.43
+ */
+public class CoverageTileCache implements ICoverageGridListener
+{
+    private static final String DIRECTORY_NAME = "coverage_tiles";
+    private static final String TILE_EXTENSION = ".geojson";
+
+    private static volatile CoverageTileCache INSTANCE;
+
+    private final File directory;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CoverageTileCache(File directory)
+    {
+        this.directory = directory;
+    }
+
+    public static CoverageTileCache getInstance(Context context)
+    {
+        if (INSTANCE == null)
+        {
+            synchronized (CoverageTileCache.class)
+            {
+                if (INSTANCE == null)
+                {
+                    INSTANCE = new CoverageTileCache(new File(context.getApplicationContext().getCacheDir(), DIRECTORY_NAME));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * @return The current generation, which must be read before rendering a tile and passed to
+     * {@link #write(CoverageTechnology, int, int, int, String, long)}.
+     */
+    public long getGeneration()
+    {
+        return generation.get();
+    }
+
+    /**
+     * @return The cached tile, or null if it is not cached (or can't be read).
+     */
+    public String read(CoverageTechnology technology, int zoom, int x, int y)
+    {
+        final File file = tileFile(technology, zoom, x, y);
+        if (!file.isFile()) return null;
+
+        try
+        {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e)
+        {
+            Timber.w(e, "Could not read the cached coverage tile %s", file);
+            return null;
+        }
+    }
+
+    /**
+     * Caches a rendered tile, unless any cells have changed since the tile was rendered.
+     *
+     * @param generation The {@link #getGeneration()} from before the tile was rendered.
+     * @return True if the tile was written.
+     */
+    public boolean write(CoverageTechnology technology, int zoom, int x, int y, String tile, long generation)
+    {
+        final File file = tileFile(technology, zoom, x, y);
+        final File parent = file.getParentFile();
+        if (parent == null || (!parent.isDirectory() && !parent.mkdirs())) return false;
+
+        // Write to a temp file and rename it so a reader never sees a partial tile
+        final File tempFile = new File(parent, file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        try (FileOutputStream outputStream = new FileOutputStream(tempFile))
+        {
+            outputStream.write(tile.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e)
+        {
+            Timber.w(e, "Could not cache the coverage tile %s", file);
+            //noinspection ResultOfMethodCallIgnored
+            tempFile.delete();
+            return false;
+        }
+
+        synchronized (this.generation)
+        {
+            if (this.generation.get() != generation || !tempFile.renameTo(file))
+            {
+                //noinspection ResultOfMethodCallIgnored
+                tempFile.delete();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void onCoverageCellsUpdated(Set<CoverageCellKey> updatedCells)
+    {
+        final Set<File> staleTiles = new HashSet<>();
+        for (CoverageCellKey key : updatedCells)
+        {
+            CoverageTiles.forEachTile(key, (zoom, x, y) -> staleTiles.add(tileFile(key.technology, zoom, x, y)));
+        }
+
+        synchronized (generation)
+        {
+            generation.incrementAndGet();
+            for (File tile : staleTiles)
+            {
+                //noinspection ResultOfMethodCallIgnored
+                tile.delete();
+            }
+        }
+    }
+
+    @Override
+    public void onCoverageCleared()
+    {
+        synchronized (generation)
+        {
+            generation.incrementAndGet();
+            deleteRecursively(directory);
+        }
+    }
+
+    private File tileFile(CoverageTechnology technology, int zoom, int x, int y)
+    {
+        return new File(directory, technology.name() + File.separator + zoom + File.separator + x
+                + File.separator + y + TILE_EXTENSION);
+    }
+
+    private static void deleteRecursively(File file)
+    {
+        final File[] children = file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                deleteRecursively(child);
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+}
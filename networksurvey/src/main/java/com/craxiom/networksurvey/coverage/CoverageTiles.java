@@ -0,0 +1,111 @@
+package com.craxiom.networksurvey.coverage;
+
+/**
+ * Maps the coverage grid onto the Web Mercator (slippy map) tiles that the map draws, where tile x=0, y=0 is the north
+ * west corner of the world at each zoom.
+ * <p>
+ * Each zoom is drawn from the finest grid level that keeps a tile to at most {@link #CELLS_ACROSS_TILE} cells across,
+ * so the work to render a tile is bounded no matter how many measurements are in it.
+ *
+ * @since 1.43
+ */
+public final class CoverageTiles
+{
+    public static final int MIN_ZOOM = 4;
+    public static final int MAX_ZOOM = 18;
+
+    static final int CELLS_ACROSS_TILE = 64;
+
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private CoverageTiles()
+    {
+    }
+
+    /**
+     * Receives the tiles from {@link #forEachTile(CoverageCellKey, TileConsumer)}.
+     */
+    public interface TileConsumer
+    {
+        void accept(int zoom, int x, int y);
+    }
+
+    /**
+     * @return The grid level that the tiles at the provided zoom are drawn from.
+     */
+    public static int levelForZoom(int zoom)
+    {
+        return CoverageGrid.levelForSpan(360d / (1L << zoom), CELLS_ACROSS_TILE);
+    }
+
+    /**
+     * @return The column of the tile that contains the provided longitude at the provided zoom.
+     */
+    public static int tileX(double longitude, int zoom)
+    {
+        return clamp((longitude + 180d) / 360d, zoom);
+    }
+
+    /**
+     * @return The row of the tile that contains the provided latitude at the provided zoom.
+     */
+    public static int tileY(double latitude, int zoom)
+    {
+        final double radians = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        return clamp((1d - Math.log(Math.tan(radians) + 1d / Math.cos(radians)) / Math.PI) / 2d, zoom);
+    }
+
+    /**
+     * @return The longitude of the west edge of the provided tile column.
+     */
+    public static double tileWest(int x, int zoom)
+    {
+        return x * 360d / (1L << zoom) - 180d;
+    }
+
+    /**
+     * @return The latitude of the north edge of the provided tile row.
+     */
+    public static double tileNorth(int y, int zoom)
+    {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1d - 2d * y / (1L << zoom)))));
+    }
+
+    /**
+     * Finds the tiles that show the provided grid cell, which are the tiles that have to be drawn again when the
+     * cell changes.
+     *
+     * @param key      The cell, only the level, x, and y are used.
+     * @param consumer Called for each tile, on every zoom that is drawn from the cell's level.
+     */
+    public static void forEachTile(CoverageCellKey key, TileConsumer consumer)
+    {
+        final double west = CoverageGrid.cellWest(key.cellX, key.level);
+        final double east = CoverageGrid.cellWest(key.cellX + 1, key.level);
+        final double south = CoverageGrid.cellSouth(key.cellY, key.level);
+        final double north = CoverageGrid.cellSouth(key.cellY + 1, key.level);
+
+        for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++)
+        {
+            if (levelForZoom(zoom) != key.level) continue;
+
+            final int maxX = tileX(east, zoom);
+            final int maxY = tileY(south, zoom);
+            for (int x = tileX(west, zoom); x <= maxX; x++)
+            {
+                for (int y = tileY(north, zoom); y <= maxY; y++)
+                {
+                    consumer.accept(zoom, x, y);
+                }
+            }
+        }
+    }
+
+    private static int clamp(double fraction, int zoom)
+    {
+        final int tileCount = 1 << zoom;
+        final int tile = (int) Math.floor(fraction * tileCount);
+        if (tile < 0) return 0;
+        return Math.min(tile, tileCount - 1);
+    }
+}
@@ -207,17 +207,6 @@ class AcknowledgmentsRepository {
                     category = LibraryCategory.UTILITY_LIBRARIES
                 )
             )
-            add(
-                LibraryAcknowledgment(
-                    name = "SnakeYAML",
-                    author = "SnakeYAML Contributors",
-                    description = "YAML processor for Java",
-                    sourceUrl = "https://bitbucket.org/snakeyaml/snakeyaml",
-                    licenseName = "Apache License 2.0",
-                    licenseUrl = "https://www.apache.org/licenses/LICENSE-2.0",
-                    category = LibraryCategory.UTILITY_LIBRARIES
-                )
-            )
             add(
                 LibraryAcknowledgment(
                     name = "ZXing",
@@ -0,0 +1,124 @@
+package com.craxiom.networksurvey.data
+
+import android.content.Context
+import timber.log.Timber
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets
+
+/**
+ * A read-only lookup table from a Bluetooth SIG assigned number (company ID or member UUID) to its
+ * name. The table is backed by a compact binary file that is generated from the SIG YAML files at
+ * build time (see `writeBluetoothLookupTable` in the networksurvey build script, which is the only
+ * encoder for this format), so no YAML parsing or boxed map is needed at runtime.
+ *
+ * The binary layout (big-endian) is:
+ * ```
+ * int    magic   (0x4E534254, "NSBT")
+ * int    version
+ * int    count
+ * int[count]     sorted keys
+ * int[count + 1] byte offsets of each name into the string pool
+ * byte[]         UTF-8 string pool
+ * ```
+ * Lookups are a binary search over the keys, and only the matched name is decoded.
+ */
+class BluetoothAssignedNumbersTable private constructor(private val buffer: ByteBuffer) {
+
+    private val count: Int
+    private val keysStart: Int
+    private val offsetsStart: Int
+    private val poolStart: Int
+
+    init {
+        require(buffer.limit() >= HEADER_SIZE && buffer.getInt(0) == MAGIC) {
+            "Not a Bluetooth assigned numbers table"
+        }
+        require(buffer.getInt(4) == VERSION) { "Unsupported table version ${buffer.getInt(4)}" }
+
+        count = buffer.getInt(8)
+        keysStart = HEADER_SIZE
+        offsetsStart = keysStart + count * Int.SIZE_BYTES
+        poolStart = offsetsStart + (count + 1) * Int.SIZE_BYTES
+    }
+
+    fun size(): Int = count
+
+    /**
+     * @return The name associated with the provided key, or null if the key is not in the table.
+     */
+    operator fun get(key: Int): String? {
+        var low = 0
+        var high = count - 1
+        while (low <= high) {
+            val mid = (low + high) ushr 1
+            val midKey = buffer.getInt(keysStart + mid * Int.SIZE_BYTES)
+            when {
+                midKey < key -> low = mid + 1
+                midKey > key -> high = mid - 1
+                else -> return decodeName(mid)
+            }
+        }
+        return null
+    }
+
+    private fun decodeName(index: Int): String {
+        val start = buffer.getInt(offsetsStart + index * Int.SIZE_BYTES)
+        val end = buffer.getInt(offsetsStart + (index + 1) * Int.SIZE_BYTES)
+        val bytes = ByteArray(end - start)
+        for (i in bytes.indices) {
+            bytes[i] = buffer.get(poolStart + start + i)
+        }
+        return String(bytes, StandardCharsets.UTF_8)
+    }
+
+    companion object {
+        const val MAGIC = 0x4E534254
+        const val VERSION = 1
+        private const val HEADER_SIZE = 3 * Int.SIZE_BYTES
+
+        /**
+         * A table with no entries: the header with a count of 0, followed by the single end offset.
+         */
+        private val EMPTY = BluetoothAssignedNumbersTable(
+            ByteBuffer.allocate(HEADER_SIZE + Int.SIZE_BYTES).putInt(MAGIC).putInt(VERSION).putInt(0).putInt(0)
+        )
+
+        /**
+         * Wraps an already encoded table. The buffer is not copied.
+         */
+        @JvmStatic
+        fun wrap(bytes: ByteArray): BluetoothAssignedNumbersTable =
+            BluetoothAssignedNumbersTable(ByteBuffer.wrap(bytes))
+
+        /**
+         * Loads the table from the assets folder. The asset is stored uncompressed in the APK so it
+         * can be memory mapped instead of copied onto the heap; if that is not possible it falls back
+         * to reading the asset into memory. An empty table is returned if the asset can't be read.
+         */
+        @JvmStatic
+        fun fromAsset(context: Context, assetName: String): BluetoothAssignedNumbersTable {
+            return try {
+                BluetoothAssignedNumbersTable(mapAsset(context, assetName))
+            } catch (e: Exception) {
+                Timber.e(e, "Unable to load the Bluetooth lookup table %s", assetName)
+                EMPTY
+            }
+        }
+
+        private fun mapAsset(context: Context, assetName: String): ByteBuffer {
+            return try {
+                context.assets.openFd(assetName).use { afd ->
+                    afd.createInputStream().channel.use { channel ->
+                        channel.map(FileChannel.MapMode.READ_ONLY, afd.startOffset, afd.length)
+                    }
+                }
+            } catch (e: IOException) {
+                // The asset is compressed, so it has to be read into memory
+                Timber.d("Could not memory map %s, reading it instead", assetName)
+                ByteBuffer.wrap(context.assets.open(assetName).use { it.readBytes() })
+            }
+        }
+    }
+}
@@ -1,36 +1,31 @@
 package com.craxiom.networksurvey.data
 
 import android.content.Context
-import org.yaml.snakeyaml.LoaderOptions
-import org.yaml.snakeyaml.Yaml
 
 /**
- * Handles mapping the UUIDs to their human-readable names. The file is loaded from the assets
- * folder, which is pulled from here: https://bitbucket.org/bluetooth-SIG/public/src/main/assigned_numbers/company_identifiers/company_identifiers.yaml
+ * Handles mapping the company identifiers to their human-readable names. The names come from
+ * company_identifiers.yaml, which is pulled from here: https://bitbucket.org/bluetooth-SIG/public/src/main/assigned_numbers/company_identifiers/company_identifiers.yaml
+ * and converted to a binary lookup table at build time.
  *
  * run `.gradlew downloadBluetoothCompanyIdentifiers to update the file.
+ *
+ * The table is not loaded until the first lookup so that surveys that don't use Bluetooth don't
+ * pay for it.
  */
 class BluetoothCompanyResolver(context: Context) {
 
-    private val companyMap: Map<Int, String>
-
-    init {
-        val options = LoaderOptions()
-        val yaml = Yaml(options)
-        val inputStream = context.assets.open("company_identifiers.yaml")
-        val parsedRoot = yaml.load<Map<String, List<Map<String, Any>>>>(inputStream)
-
-        val list = parsedRoot["company_identifiers"] ?: emptyList()
+    private val appContext = context.applicationContext
 
-        companyMap = list.mapNotNull { entry ->
-            val intId = entry["value"] as? Int
-            val name = entry["name"] as? String
-            if (intId != null && name != null) intId to name else null
-        }.toMap()
+    private val companyTable by lazy {
+        BluetoothAssignedNumbersTable.fromAsset(appContext, ASSET_NAME)
     }
 
-    fun getCompanyName(companyId: Int): String? = companyMap[companyId]
+    fun getCompanyName(companyId: Int): String? = companyTable[companyId]
 
     fun getCompanyName(companyIdString: String) =
         companyIdString.toIntOrNull(16)?.let { getCompanyName(it) }
+
+    companion object {
+        const val ASSET_NAME = "company_identifiers.bin"
+    }
 }
@@ -1,35 +1,30 @@
 package com.craxiom.networksurvey.data
 
 import android.content.Context
-import org.yaml.snakeyaml.LoaderOptions
-import org.yaml.snakeyaml.Yaml
 
 /**
- * Handles mapping the UUIDs to their human-readable names. The file is loaded from the assets
- * folder, which is pulled from here: https://bitbucket.org/bluetooth-SIG/public/src/main/assigned_numbers/uuids/member_uuids.yaml
+ * Handles mapping the UUIDs to their human-readable names. The names come from member_uuids.yaml,
+ * which is pulled from here: https://bitbucket.org/bluetooth-SIG/public/src/main/assigned_numbers/uuids/member_uuids.yaml
+ * and converted to a binary lookup table at build time.
  *
  * run `.gradlew downloadBluetoothMemberUuid to update the file.
+ *
+ * The table is not loaded until the first lookup so that surveys that don't use Bluetooth don't
+ * pay for it.
  */
 class BluetoothUuidResolver(context: Context) {
 
-    private val uuidMap: Map<Int, String>
-
-    init {
-        val options = LoaderOptions()
-        val yaml = Yaml(options)
-        val inputStream = context.assets.open("member_uuids.yaml")
-        val parsedRoot = yaml.load<Map<String, List<Map<String, Any>>>>(inputStream)
-
-        val list = parsedRoot["uuids"] ?: emptyList()
+    private val appContext = context.applicationContext
 
-        uuidMap = list.mapNotNull { entry ->
-            val uuid = entry["uuid"] as? Int
-            val name = entry["name"] as? String
-            if (uuid != null && name != null) uuid to name else null
-        }.toMap()
+    private val uuidTable by lazy {
+        BluetoothAssignedNumbersTable.fromAsset(appContext, ASSET_NAME)
     }
 
-    fun getNameForUuid(uuid: Int): String? = uuidMap[uuid]
+    fun getNameForUuid(uuid: Int): String? = uuidTable[uuid]
 
     fun getNameForUuid(uuidString: String) = uuidString.toIntOrNull(16)?.let { getNameForUuid(it) }
+
+    companion object {
+        const val ASSET_NAME = "member_uuids.bin"
+    }
 }
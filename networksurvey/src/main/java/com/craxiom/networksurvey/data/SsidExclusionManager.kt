@@ -14,6 +14,11 @@ import javax.inject.Singleton
  * This class handles adding, removing, and checking SSIDs that should be excluded
  * from WiFi survey data. The exclusion list is persisted using SharedPreferences
  * and has a maximum size limit to prevent performance issues.
+ *
+ * An entry is matched exactly unless it starts with [SsidMatcher.GLOB_PREFIX], in which case the
+ * rest of it is a wildcard pattern (e.g. "glob:Guest*" or "glob:AP-??"), see [SsidMatcher]. The entries
+ * are compiled into a [SsidMatcher] the first time they are needed and again only after the list
+ * changes, so checking a scanned SSID does not read or copy the preference string set.
  */
 @Singleton
 class SsidExclusionManager @Inject constructor(
@@ -28,6 +33,30 @@ class SsidExclusionManager @Inject constructor(
     private val sharedPreferences: SharedPreferences =
         context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE)
 
+    @Volatile
+    private var matcher: SsidMatcher? = null
+
+    @Volatile
+    private var exclusionsChangedListener: Runnable? = null
+
+    // Held as a field because SharedPreferences only keeps a weak reference to its listeners. This
+    // also picks up changes made through other instances of this class (e.g. from the UI).
+    private val preferenceChangeListener =
+        SharedPreferences.OnSharedPreferenceChangeListener { _, key ->
+            if (key == null || key == KEY_EXCLUDED_SSIDS) onExclusionsChanged()
+        }
+
+    init {
+        sharedPreferences.registerOnSharedPreferenceChangeListener(preferenceChangeListener)
+    }
+
+    /**
+     * Sets a listener that is notified any time the exclusion list changes.
+     */
+    fun setOnExclusionsChangedListener(listener: Runnable?) {
+        exclusionsChangedListener = listener
+    }
+
     /**
      * Adds an SSID to the exclusion list.
      *
@@ -79,7 +108,20 @@ class SsidExclusionManager @Inject constructor(
      */
     fun isExcluded(ssid: String?): Boolean {
         if (ssid == null) return false
-        return getExcludedSsids().contains(ssid)
+        return getMatcher().matches(ssid)
+    }
+
+    /**
+     * Gets the compiled matcher for the current exclusion list, building it if the list changed
+     * since it was last built.
+     *
+     * @return The matcher for the current exclusion list
+     */
+    fun getMatcher(): SsidMatcher {
+        matcher?.let { return it }
+        synchronized(this) {
+            return matcher ?: SsidMatcher.build(getExcludedSsids()).also { matcher = it }
+        }
     }
 
     /**
@@ -130,5 +172,14 @@ class SsidExclusionManager @Inject constructor(
         sharedPreferences.edit {
             putStringSet(KEY_EXCLUDED_SSIDS, ssids)
         }
+        // The preference listener is called asynchronously, so invalidate right away as well
+        onExclusionsChanged()
+    }
+
+    private fun onExclusionsChanged() {
+        synchronized(this) {
+            matcher = null
+        }
+        exclusionsChangedListener?.run()
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.craxiom.networksurvey.data
+
+/**
+ * An immutable, prebuilt matcher for a set of SSID exclusion patterns.
+ *
+ * Entries are matched exactly with a single hash set lookup, even when they contain a `*` or a `?`
+ * (both are valid SSID characters, and entries saved before wildcards were supported must keep
+ * excluding only that one network). Wildcard matching is opt-in: an entry that starts with
+ * [GLOB_PREFIX] (e.g. `glob:Guest*`) is a glob where `*` matches any run of characters, including
+ * none, and `?` matches exactly one character. Globs are checked with a match that does not
+ * allocate. SSIDs are case sensitive, so the matching is as well.
+ */
+class SsidMatcher private constructor(
+    private val exactSsids: Set<String>,
+    private val wildcardPatterns: Array<String>
+) {
+    companion object {
+        @JvmField
+        val EMPTY = SsidMatcher(emptySet(), emptyArray())
+
+        /**
+         * The prefix that marks an exclusion entry as a wildcard pattern.
+         */
+        const val GLOB_PREFIX = "glob:"
+
+        /**
+         * Builds a matcher from the provided patterns.
+         */
+        @JvmStatic
+        fun build(patterns: Collection<String>): SsidMatcher {
+            if (patterns.isEmpty()) return EMPTY
+
+            val (wildcards, exact) = patterns.partition { isWildcardPattern(it) }
+            return SsidMatcher(
+                HashSet(exact),
+                wildcards.map { it.substring(GLOB_PREFIX.length) }.toTypedArray()
+            )
+        }
+
+        @JvmStatic
+        fun isWildcardPattern(pattern: String): Boolean = pattern.startsWith(GLOB_PREFIX)
+
+        /**
+         * Matches the SSID against a glob pattern using the standard greedy algorithm that
+         * backtracks to the last `*`.
+         */
+        @JvmStatic
+        fun globMatches(pattern: String, ssid: String): Boolean {
+            var p = 0
+            var s = 0
+            var starIndex = -1
+            var starMatch = 0
+            while (s < ssid.length) {
+                if (p < pattern.length && (pattern[p] == '?' || pattern[p] == ssid[s])) {
+                    p++
+                    s++
+                } else if (p < pattern.length && pattern[p] == '*') {
+                    starIndex = p++
+                    starMatch = s
+                } else if (starIndex >= 0) {
+                    p = starIndex + 1
+                    s = ++starMatch
+                } else {
+                    return false
+                }
+            }
+            while (p < pattern.length && pattern[p] == '*') p++
+            return p == pattern.length
+        }
+    }
+
+    fun isEmpty(): Boolean = exactSsids.isEmpty() && wildcardPatterns.isEmpty()
+
+    /**
+     * @return true if the SSID matches one of the exclusion patterns.
+     */
+    fun matches(ssid: String?): Boolean {
+        if (ssid == null) return false
+        if (exactSsids.contains(ssid)) return true
+        for (pattern in wildcardPatterns) {
+            if (globMatches(pattern, ssid)) return true
+        }
+        return false
+    }
+}
@@ -20,8 +20,6 @@ import android.net.Uri;
 import android.os.AsyncTask;
 import android.os.Build;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.text.Html;
 import android.text.method.LinkMovementMethod;
 import android.view.LayoutInflater;
@@ -60,7 +58,7 @@ import com.craxiom.networksurvey.databinding.MqttStreamItemBinding;
 import com.craxiom.networksurvey.fragments.model.DashboardViewModel;
 import com.craxiom.networksurvey.listeners.ILoggingChangeListener;
 import com.craxiom.networksurvey.logging.db.SurveyDatabase;
-import com.craxiom.networksurvey.logging.db.dao.SurveyRecordDao;
+import com.craxiom.networksurvey.logging.db.UploadRecordCounts;
 import com.craxiom.networksurvey.logging.db.uploader.NsUploaderWorker;
 import com.craxiom.networksurvey.model.SurveyTypes;
 import com.craxiom.networksurvey.model.UploadScanningResult;
@@ -81,8 +79,6 @@ import java.text.DecimalFormat;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.function.BiConsumer;
 
 import timber.log.Timber;
@@ -99,26 +95,12 @@ public class DashboardFragment extends AServiceDataFragment implements LocationL
     private static final int ACCESS_BLUETOOTH_PERMISSION_REQUEST_ID = 22;
 
     private final DecimalFormat locationFormat = new DecimalFormat("###.#####");
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
 
     private FragmentDashboardBinding binding;
     private DashboardViewModel viewModel;
     private boolean scrolledToBottom;
     private Set<SurveyTypes> currentActiveSurveys = new LinkedHashSet<>();
 
-    private final Handler handler = new Handler(Looper.getMainLooper());
-    private final Runnable updateUploadCountsRunnable = new Runnable()
-    {
-        @Override
-        public void run()
-        {
-            queryUploadQueueCount();
-
-            // Re-run every 6 seconds as long as the UI is visible
-            handler.postDelayed(this, 6_000);
-        }
-    };
-
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState)
@@ -131,7 +113,6 @@ public class DashboardFragment extends AServiceDataFragment implements LocationL
         initializeUiListeners();
         initializeObservers();
 //        initializeUploadUiState();
-        queryUploadQueueCount();
 
         binding.dashboardScrollView.getViewTreeObserver().addOnPreDrawListener(() -> {
             scrolledToBottom = isScrolledToBottom();
@@ -161,15 +142,6 @@ public class DashboardFragment extends AServiceDataFragment implements LocationL
 //        observeUploadWork();
 
         startAndBindToService();
-
-        handler.post(updateUploadCountsRunnable);
-    }
-
-    @Override
-    public void onPause()
-    {
-        handler.removeCallbacks(updateUploadCountsRunnable);
-        super.onPause();
     }
 
     @Override
@@ -322,11 +294,6 @@ public class DashboardFragment extends AServiceDataFragment implements LocationL
             case NetworkSurveyConstants.PROPERTY_MQTT_DEVICE_STATUS_STREAM_ENABLED:
                 readMqttStreamEnabledProperties();
                 break;
-            case NetworkSurveyConstants.PROPERTY_UPLOAD_TO_OPENCELLID:
-            case NetworkSurveyConstants.PROPERTY_UPLOAD_TO_BEACONDB:
-                // Update upload counts when upload targets change
-                queryUploadQueueCount();
-                break;
             case NetworkSurveyConstants.PROPERTY_BATTERY_THRESHOLD_PERCENT:
                 // Update battery management status when settings change
                 if (service != null)
@@ -682,6 +649,13 @@ public class DashboardFragment extends AServiceDataFragment implements LocationL
     {
         final LifecycleOwner viewLifecycleOwner = getViewLifecycleOwner();
 
+        // The counts are pushed whenever records are written to the upload database or uploaded, instead of polling
+        // a count of every table
+        UploadRecordCounts.observe(viewLifecycleOwner, SurveyDatabase.getInstance(requireContext()), counts -> {
+            viewModel.setCellularUploadQueueCount(counts.getCellular());
+            viewModel.setWifiUploadQueueCount(counts.getWifi());
+        });
+
 //        viewModel.getCellularUploadQueueCount().observe(viewLifecycleOwner, this::updateCellularUploadQueueCountUI);
 //        viewModel.getWifiUploadQueueCount().observe(viewLifecycleOwner, this::updateWifiUploadQueueCountUI);
 
@@ -1252,18 +1226,6 @@ public class DashboardFragment extends AServiceDataFragment implements LocationL
         locationTextView.setText(enabled ? R.string.searching_for_location : R.string.turn_on_gps);
     }
 
-    private void queryUploadQueueCount()
-    {
-        executorService.execute(() -> {
-            SurveyRecordDao surveyRecordDao = SurveyDatabase.getInstance(getContext()).surveyRecordDao();
-            int totalCellularRecordsForUpload = NsUploaderWorker.getTotalCellularRecordsForUpload(surveyRecordDao);
-            viewModel.setCellularUploadQueueCount(totalCellularRecordsForUpload);
-
-            int wifiRecordCountForUpload = surveyRecordDao.getWifiRecordCountForUpload();
-            viewModel.setWifiUploadQueueCount(wifiRecordCountForUpload);
-        });
-    }
-
 //    private void updateCellularUploadQueueCountUI(int count)
 //    {
 //        Context context = getContext();
@@ -119,7 +119,7 @@ public class MyWifiNetworkRecyclerViewAdapter extends RecyclerView.Adapter<MyWif
         holder.encryptionType.setText(WifiBeaconMessageConstants.getEncryptionTypeString(data.getEncryptionType()));
         holder.frequency.setText(data.hasFrequencyMhz() ? context.getString(R.string.wifi_frequency_value, data.getFrequencyMhz().getValue()) : "");
 
-        setChannelText(holder, data);
+        setChannelText(holder, data, wifiRecordWrapper.getCenterChannel());
 
         holder.bandwidth.setText(data.getBandwidth() != WifiBandwidth.UNKNOWN ? context.getString(R.string.wifi_bandwidth_value, WifiUtils.formatBandwidth(data.getBandwidth())) : "");
         holder.standard.setText(WifiUtils.formatStandard(data.getStandard()));
@@ -132,13 +132,16 @@ public class MyWifiNetworkRecyclerViewAdapter extends RecyclerView.Adapter<MyWif
      * Sets the channel text view with the channel number and also the center channel number if
      * applicable.
      */
-    private void setChannelText(ViewHolder holder, WifiBeaconRecordData data)
+    private void setChannelText(ViewHolder holder, WifiBeaconRecordData data, int precomputedCenterChannel)
     {
         if (data.hasChannel())
         {
             int channel = data.getChannel().getValue();
             int centerChannel = channel;
-            if (data.hasFrequencyMhz())
+            if (precomputedCenterChannel != -1)
+            {
+                centerChannel = precomputedCenterChannel;
+            } else if (data.hasFrequencyMhz())
             {
                 centerChannel = WifiUtils.getCenterChannel(channel, data.getBandwidth(), data.getFrequencyMhz().getValue());
             }
@@ -0,0 +1,116 @@
+package com.craxiom.networksurvey.fragments;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.craxiom.networksurvey.R;
+import com.craxiom.networksurvey.fragments.model.NeighborCell;
+
+/**
+ * The adapter for one of the neighbor tables on the Cellular UI (GSM, UMTS, LTE, or NR).
+ * <p>
+ * Rather than clearing the table and creating every row again for each batch of cellular records, each new list of
+ * neighbors is diffed against the displayed list on a background thread, keyed by {@link NeighborCell#getCellKey()}.
+ * A neighbor that is still present keeps its row, and only the cells whose text changed are set again.
+ *
+ * @param <T> The type of neighbor in the table.
+ * @since 1.43
+ */
+public class NeighborTableAdapter<T extends NeighborCell> extends ListAdapter<T, NeighborTableAdapter.RowViewHolder>
+{
+    /**
+     * Converts a neighbor into the text for each column of its row.
+     */
+    @FunctionalInterface
+    public interface RowBinder<T>
+    {
+        /**
+         * @param neighbor The neighbor to display.
+         * @param cells    The text for each column, which is the length of the column count for the table.
+         */
+        void bind(T neighbor, String[] cells);
+    }
+
+    private final int columnCount;
+    private final RowBinder<T> rowBinder;
+
+    public NeighborTableAdapter(int columnCount, RowBinder<T> rowBinder)
+    {
+        super(new DiffUtil.ItemCallback<>()
+        {
+            @Override
+            public boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem)
+            {
+                return oldItem.getCellKey() == newItem.getCellKey();
+            }
+
+            @Override
+            public boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem)
+            {
+                return oldItem.equals(newItem);
+            }
+        });
+        this.columnCount = columnCount;
+        this.rowBinder = rowBinder;
+    }
+
+    @NonNull
+    @Override
+    public RowViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType)
+    {
+        return new RowViewHolder(parent.getContext(), columnCount);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RowViewHolder holder, int position)
+    {
+        rowBinder.bind(getItem(position), holder.cellText);
+        holder.updateCells();
+    }
+
+    /**
+     * A single row in the table, which is a TextView per column that are laid out the same as the header row.
+     */
+    static class RowViewHolder extends RecyclerView.ViewHolder
+    {
+        final TextView[] cells;
+        final String[] cellText;
+
+        RowViewHolder(Context context, int columnCount)
+        {
+            super(new LinearLayout(context));
+            final LinearLayout row = (LinearLayout) itemView;
+            row.setOrientation(LinearLayout.HORIZONTAL);
+            row.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                    ViewGroup.LayoutParams.WRAP_CONTENT));
+
+            cells = new TextView[columnCount];
+            cellText = new String[columnCount];
+            for (int i = 0; i < columnCount; i++)
+            {
+                final TextView cell = new TextView(context, null, 0, R.style.TableText);
+                row.addView(cell, new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.WRAP_CONTENT, 1f));
+                cells[i] = cell;
+            }
+        }
+
+        /**
+         * Sets the text of each cell that changed, since setting the same text still requests a layout pass.
+         */
+        void updateCells()
+        {
+            for (int i = 0; i < cells.length; i++)
+            {
+                if (!TextUtils.equals(cells[i].getText(), cellText[i])) cells[i].setText(cellText[i]);
+            }
+        }
+    }
+}
@@ -18,8 +18,6 @@ import android.provider.Settings;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.TableLayout;
-import android.widget.TableRow;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
@@ -28,6 +26,7 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.core.app.ActivityCompat;
 import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.craxiom.messaging.GsmRecord;
 import com.craxiom.messaging.GsmRecordData;
@@ -44,6 +43,7 @@ import com.craxiom.networksurvey.databinding.FragmentNetworkDetailsBinding;
 import com.craxiom.networksurvey.fragments.model.CellularViewModel;
 import com.craxiom.networksurvey.fragments.model.GsmNeighbor;
 import com.craxiom.networksurvey.fragments.model.LteNeighbor;
+import com.craxiom.networksurvey.fragments.model.NeighborCell;
 import com.craxiom.networksurvey.fragments.model.NrNeighbor;
 import com.craxiom.networksurvey.fragments.model.UmtsNeighbor;
 import com.craxiom.networksurvey.listeners.ICellularSurveyRecordListener;
@@ -99,6 +99,11 @@ public class NetworkDetailsFragment extends AServiceDataFragment implements ICel
     private SharedViewModel sharedViewModel;
     private AirplaneModeReceiver airplaneModeReceiver;
 
+    private NeighborTableAdapter<NrNeighbor> nrNeighborsAdapter;
+    private NeighborTableAdapter<LteNeighbor> lteNeighborsAdapter;
+    private NeighborTableAdapter<UmtsNeighbor> umtsNeighborsAdapter;
+    private NeighborTableAdapter<GsmNeighbor> gsmNeighborsAdapter;
+
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState)
@@ -125,6 +130,8 @@ public class NetworkDetailsFragment extends AServiceDataFragment implements ICel
 
         initializeUiListeners();
 
+        initializeNeighborTables();
+
         initializeObservers();
 
         chartViewModel.addInitialRssi(UNKNOWN_RSSI);
@@ -1144,45 +1151,13 @@ public class NetworkDetailsFragment extends AServiceDataFragment implements ICel
     }
 
     /**
-     * Given the newest set of  r neighbors, update the neighbors table view.
+     * Given the newest set of NR neighbors, update the neighbors table view.
      *
      * @param neighbors The latest batch of NR neighbors.
      */
     private void updateNrNeighborsView(SortedSet<NrNeighbor> neighbors)
     {
-        final Context context = getContext();
-        if (context == null) return;
-
-        if (neighbors.isEmpty())
-        {
-            binding.nrNeighborsGroup.setVisibility(View.GONE);
-            return;
-        }
-
-        binding.nrNeighborsGroup.setVisibility(View.VISIBLE);
-
-        final TableLayout neighborsTable = binding.nrNeighborsTable;
-
-        neighborsTable.removeAllViews();
-
-        final TableRow headerRow = new TableRow(context);
-        addHeaderToRow(context, headerRow, getString(R.string.narfcn_label));
-        addHeaderToRow(context, headerRow, getString(R.string.pci_label));
-        addHeaderToRow(context, headerRow, getString(R.string.ss_rsrp_label));
-        addHeaderToRow(context, headerRow, getString(R.string.ss_rsrq_label));
-        neighborsTable.addView(headerRow);
-
-        for (NrNeighbor neighbor : neighbors)
-        {
-            final TableRow row = new TableRow(context);
-
-            addValueToRow(context, row, neighbor.narfcn);
-            addValueToRow(context, row, neighbor.pci);
-            addValueToRow(context, row, neighbor.ssRsrp);
-            addValueToRow(context, row, neighbor.ssRsrq);
-
-            neighborsTable.addView(row);
-        }
+        updateNeighborsView(binding.nrNeighborsGroup, nrNeighborsAdapter, neighbors);
     }
 
     /**
@@ -1192,41 +1167,7 @@ public class NetworkDetailsFragment extends AServiceDataFragment implements ICel
      */
     private void updateLteNeighborsView(SortedSet<LteNeighbor> neighbors)
     {
-        final Context context = getContext();
-        if (context == null) return;
-
-        if (neighbors.isEmpty())
-        {
-            binding.lteNeighborsGroup.setVisibility(View.GONE);
-            return;
-        }
-
-        binding.lteNeighborsGroup.setVisibility(View.VISIBLE);
-
-        final TableLayout lteNeighborsTable = binding.lteNeighborsTable;
-
-        lteNeighborsTable.removeAllViews();
-
-        final TableRow headerRow = new TableRow(context);
-        addHeaderToRow(context, headerRow, getString(R.string.earfcn_band_label));
-        addHeaderToRow(context, headerRow, getString(R.string.pci_label));
-        addHeaderToRow(context, headerRow, getString(R.string.rsrp_label));
-        addHeaderToRow(context, headerRow, getString(R.string.rsrq_label));
-        addHeaderToRow(context, headerRow, getString(R.string.ta_label));
-        lteNeighborsTable.addView(headerRow);
-
-        for (LteNeighbor neighbor : neighbors)
-        {
-            final TableRow row = new TableRow(context);
-
-            addEarfcnValueToRow(context, row, neighbor.earfcn);
-            addValueToRow(context, row, neighbor.pci);
-            addValueToRow(context, row, neighbor.rsrp);
-            addValueToRow(context, row, neighbor.rsrq);
-            addValueToRow(context, row, neighbor.ta);
-
-            lteNeighborsTable.addView(row);
-        }
+        updateNeighborsView(binding.lteNeighborsGroup, lteNeighborsAdapter, neighbors);
     }
 
     /**
@@ -1236,37 +1177,7 @@ public class NetworkDetailsFragment extends AServiceDataFragment implements ICel
      */
     private void updateUmtsNeighborsView(SortedSet<UmtsNeighbor> neighbors)
     {
-        final Context context = getContext();
-        if (context == null) return;
-
-        final TableLayout umtsNeighborsTable = binding.umtsNeighborsTable;
-
-        if (neighbors.isEmpty())
-        {
-            binding.umtsNeighborsGroup.setVisibility(View.GONE);
-            return;
-        }
-
-        binding.umtsNeighborsGroup.setVisibility(View.VISIBLE);
-
-        umtsNeighborsTable.removeAllViews();
-
-        final TableRow headerRow = new TableRow(context);
-        addHeaderToRow(context, headerRow, getString(R.string.uarfcn_label));
-        addHeaderToRow(context, headerRow, getString(R.string.psc_label));
-        addHeaderToRow(context, headerRow, getString(R.string.rscp_label));
-        umtsNeighborsTable.addView(headerRow);
-
-        for (UmtsNeighbor neighbor : neighbors)
-        {
-            final TableRow row = new TableRow(context);
-
-            addValueToRow(context, row, neighbor.uarfcn);
-            addValueToRow(context, row, neighbor.psc);
-            addValueToRow(context, row, neighbor.rscp);
-
-            umtsNeighborsTable.addView(row);
-        }
+        updateNeighborsView(binding.umtsNeighborsGroup, umtsNeighborsAdapter, neighbors);
     }
 
     /**
@@ -1276,104 +1187,110 @@ public class NetworkDetailsFragment extends AServiceDataFragment implements ICel
      */
     private void updateGsmNeighborsView(SortedSet<GsmNeighbor> neighbors)
     {
-        final Context context = getContext();
-        if (context == null) return;
+        updateNeighborsView(binding.gsmNeighborsGroup, gsmNeighborsAdapter, neighbors);
+    }
 
-        final TableLayout gsmNeighborsTable = binding.gsmNeighborsTable;
+    /**
+     * Hands the latest neighbors to the table's adapter, which diffs them against the rows that are displayed and only
+     * rebinds the rows that changed. The group is hidden when there are no neighbors.
+     *
+     * @param group     The group that holds the title, header row, and list for the table.
+     * @param adapter   The adapter for the table.
+     * @param neighbors The latest batch of neighbors, in display order.
+     */
+    private <T extends NeighborCell> void updateNeighborsView(View group, NeighborTableAdapter<T> adapter,
+                                                              SortedSet<T> neighbors)
+    {
+        if (getContext() == null || adapter == null) return;
 
         if (neighbors.isEmpty())
         {
-            binding.gsmNeighborsGroup.setVisibility(View.GONE);
+            group.setVisibility(View.GONE);
+            adapter.submitList(Collections.emptyList());
             return;
         }
 
-        binding.gsmNeighborsGroup.setVisibility(View.VISIBLE);
+        group.setVisibility(View.VISIBLE);
 
-        gsmNeighborsTable.removeAllViews();
+        // A copy is needed because the adapter diffs the list on a background thread
+        adapter.submitList(new ArrayList<>(neighbors));
+    }
 
-        final TableRow headerRow = new TableRow(context);
-        addHeaderToRow(context, headerRow, getString(R.string.arfcn_label));
-        addHeaderToRow(context, headerRow, getString(R.string.bsic_label));
-        addHeaderToRow(context, headerRow, getString(R.string.rssi_label));
-        gsmNeighborsTable.addView(headerRow);
+    /**
+     * Creates the adapters for the GSM, UMTS, LTE, and NR neighbor tables.
+     */
+    private void initializeNeighborTables()
+    {
+        nrNeighborsAdapter = new NeighborTableAdapter<>(4, NetworkDetailsFragment::bindNrNeighbor);
+        lteNeighborsAdapter = new NeighborTableAdapter<>(5, NetworkDetailsFragment::bindLteNeighbor);
+        umtsNeighborsAdapter = new NeighborTableAdapter<>(3, NetworkDetailsFragment::bindUmtsNeighbor);
+        gsmNeighborsAdapter = new NeighborTableAdapter<>(3, NetworkDetailsFragment::bindGsmNeighbor);
+
+        initializeNeighborList(binding.nrNeighborsList, nrNeighborsAdapter);
+        initializeNeighborList(binding.lteNeighborsList, lteNeighborsAdapter);
+        initializeNeighborList(binding.umtsNeighborsList, umtsNeighborsAdapter);
+        initializeNeighborList(binding.gsmNeighborsList, gsmNeighborsAdapter);
+    }
 
-        for (GsmNeighbor neighbor : neighbors)
-        {
-            final TableRow row = new TableRow(context);
+    private static void initializeNeighborList(RecyclerView list, NeighborTableAdapter<?> adapter)
+    {
+        // The rows are updated in place every scan, so the change animations would only add work and flicker
+        list.setItemAnimator(null);
+        list.setAdapter(adapter);
+    }
 
-            addValueToRow(context, row, neighbor.arfcn);
-            addValueToRow(context, row, neighbor.bsic);
-            addValueToRow(context, row, neighbor.rssi);
+    static void bindNrNeighbor(NrNeighbor neighbor, String[] cells)
+    {
+        cells[0] = formatNeighborValue(neighbor.narfcn);
+        cells[1] = formatNeighborValue(neighbor.pci);
+        cells[2] = formatNeighborValue(neighbor.ssRsrp);
+        cells[3] = formatNeighborValue(neighbor.ssRsrq);
+    }
 
-            gsmNeighborsTable.addView(row);
-        }
+    static void bindLteNeighbor(LteNeighbor neighbor, String[] cells)
+    {
+        cells[0] = formatEarfcnAndBand(neighbor.earfcn);
+        cells[1] = formatNeighborValue(neighbor.pci);
+        cells[2] = formatNeighborValue(neighbor.rsrp);
+        cells[3] = formatNeighborValue(neighbor.rsrq);
+        cells[4] = formatNeighborValue(neighbor.ta);
     }
 
-    /**
-     * Set the provided EARFCN in a TextView and then adds it to the row. Also adds the band number.
-     *
-     * @param context The context to use for creating the TextView.
-     * @param row     The row to add the cell to.
-     * @param earfcn  The earfcn value to place in the cell. If the value is
-     *                {@link com.craxiom.networksurvey.constants.NetworkSurveyConstants#UNSET_VALUE},
-     *                then an empty string is placed in the cell.
-     */
-    private void addEarfcnValueToRow(Context context, TableRow row, int earfcn)
+    static void bindUmtsNeighbor(UmtsNeighbor neighbor, String[] cells)
     {
-        final String cellText;
-        if (earfcn == NetworkSurveyConstants.UNSET_VALUE)
-        {
-            // We need to add an empty text view to make sure the columns align correctly
-            cellText = "";
-        } else
-        {
-            int band = CellularUtils.downlinkEarfcnToBand(earfcn);
-            cellText = earfcn + " / " + (band == -1 ? "?" : band);
-        }
+        cells[0] = formatNeighborValue(neighbor.uarfcn);
+        cells[1] = formatNeighborValue(neighbor.psc);
+        cells[2] = formatNeighborValue(neighbor.rscp);
+    }
 
-        final TextView view = new TextView(context, null, 0, R.style.TableText);
-        view.setText(cellText);
-        row.addView(view);
+    static void bindGsmNeighbor(GsmNeighbor neighbor, String[] cells)
+    {
+        cells[0] = formatNeighborValue(neighbor.arfcn);
+        cells[1] = formatNeighborValue(neighbor.bsic);
+        cells[2] = formatNeighborValue(neighbor.rssi);
     }
 
     /**
-     * Set the provided column header in a TextView and then adds it to the row.
-     *
-     * @param context The context to use for creating the TextView.
-     * @param row     The header row to add the cell to.
-     * @param header  The value to place in the header column.
+     * @param earfcn The EARFCN to display.
+     * @return The EARFCN and its band, or an empty string if the EARFCN is
+     * {@link com.craxiom.networksurvey.constants.NetworkSurveyConstants#UNSET_VALUE}.
      */
-    private void addHeaderToRow(Context context, TableRow row, String header)
+    static String formatEarfcnAndBand(int earfcn)
     {
-        final TextView view = new TextView(context, null, 0, R.style.ColumnTitleText);
-        view.setText(header);
-        row.addView(view);
+        if (earfcn == NetworkSurveyConstants.UNSET_VALUE) return "";
+
+        int band = CellularUtils.downlinkEarfcnToBand(earfcn);
+        return earfcn + " / " + (band == -1 ? "?" : band);
     }
 
     /**
-     * Set the provided value in a TextView and then adds it to the row.
-     *
-     * @param context The context to use for creating the TextView.
-     * @param row     The row to add the cell to.
-     * @param value   The value to place in the cell. If the value is
-     *                {@link com.craxiom.networksurvey.constants.NetworkSurveyConstants#UNSET_VALUE},
-     *                then an empty string is placed in the cell.
+     * @param value The value to display.
+     * @return The value, or an empty string if the value is
+     * {@link com.craxiom.networksurvey.constants.NetworkSurveyConstants#UNSET_VALUE}.
      */
-    private void addValueToRow(Context context, TableRow row, int value)
+    static String formatNeighborValue(int value)
     {
-        final String cellText;
-        if (value == NetworkSurveyConstants.UNSET_VALUE)
-        {
-            // We need to add an empty text view to make sure the columns align correctly
-            cellText = "";
-        } else
-        {
-            cellText = String.valueOf(value);
-        }
-
-        final TextView view = new TextView(context, null, 0, R.style.TableText);
-        view.setText(cellText);
-        row.addView(view);
+        return value == NetworkSurveyConstants.UNSET_VALUE ? "" : String.valueOf(value);
     }
 
     /**
@@ -32,11 +32,19 @@ import androidx.preference.SwitchPreferenceCompat;
 
 import com.craxiom.networksurvey.R;
 import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
+import com.craxiom.networksurvey.logging.db.SurveyDatabase;
+import com.craxiom.networksurvey.logging.db.dao.CellConflictDao;
+import com.craxiom.networksurvey.logging.db.model.CellConflictEntity;
 import com.craxiom.networksurvey.ui.main.SharedViewModel;
 import com.craxiom.networksurvey.util.BatteryOptimizationHelper;
 import com.craxiom.networksurvey.util.MdmUtils;
 import com.craxiom.networksurvey.util.SettingsUtils;
 
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
 import timber.log.Timber;
 
 /**
@@ -47,6 +55,7 @@ import timber.log.Timber;
 public class SettingsFragment extends PreferenceFragmentCompat implements SharedPreferences.OnSharedPreferenceChangeListener
 {
     private static final String PASSWORD_NOT_SET_DISPLAY_TEXT = "not set";
+    private static final int CELL_CONFLICTS_TO_SHOW = 50;
 
     /**
      * The list of preferences that can be set in both the MDM app restrictions, and this settings UI.
@@ -128,6 +137,16 @@ public class SettingsFragment extends PreferenceFragmentCompat implements Shared
             });
         }
 
+        final Preference pipelineDiagnostics = findPreference(NetworkSurveyConstants.PROPERTY_PIPELINE_DIAGNOSTICS);
+        if (pipelineDiagnostics != null)
+        {
+            pipelineDiagnostics.setOnPreferenceClickListener(preference -> {
+                SharedViewModel viewModel = new ViewModelProvider(requireActivity()).get(SharedViewModel.class);
+                viewModel.triggerNavigationToPipelineDiagnostics();
+                return true;
+            });
+        }
+
         // Battery optimization preference
         final Preference batteryOptimization = findPreference("battery_optimization");
         if (batteryOptimization != null && getContext() != null)
@@ -141,6 +160,15 @@ public class SettingsFragment extends PreferenceFragmentCompat implements Shared
             });
         }
 
+        final Preference cellConflictFindings = findPreference(NetworkSurveyConstants.PROPERTY_CELL_CONFLICT_FINDINGS);
+        if (cellConflictFindings != null)
+        {
+            cellConflictFindings.setOnPreferenceClickListener(preference -> {
+                showCellConflictFindings(requireContext());
+                return true;
+            });
+        }
+
         // SSID Exclusion List preference
         final Preference ssidExclusionList = findPreference("ssid_exclusion_list");
         if (ssidExclusionList != null)
@@ -619,6 +647,87 @@ public class SettingsFragment extends PreferenceFragmentCompat implements Shared
         }
     }
 
+    /**
+     * Reads the most recent physical cell ID problems off of the main thread and shows them in a dialog, from which
+     * they can all be deleted.
+     */
+    private void showCellConflictFindings(Context context)
+    {
+        new Thread(() -> {
+            try
+            {
+                final CellConflictDao dao = SurveyDatabase.getInstance(context).cellConflictDao();
+                final int count = dao.getConflictCount();
+                final String message = formatCellConflicts(context, count,
+                        dao.getRecentConflicts(CELL_CONFLICTS_TO_SHOW));
+
+                final FragmentActivity activity = getActivity();
+                if (activity == null) return;
+                activity.runOnUiThread(() -> {
+                    if (!isAdded()) return;
+                    final AlertDialog.Builder builder = new AlertDialog.Builder(activity)
+                            .setTitle(R.string.cell_conflict_findings_title)
+                            .setMessage(message)
+                            .setPositiveButton(android.R.string.ok, null);
+                    if (count > 0)
+                    {
+                        builder.setNegativeButton(R.string.cell_conflict_findings_delete,
+                                (dialog, which) -> deleteCellConflictFindings(context));
+                    }
+                    builder.show();
+                });
+            } catch (Exception e)
+            {
+                Timber.e(e, "Could not read the physical cell ID problems");
+                showToastOnUiThread(R.string.cell_conflict_findings_failed);
+            }
+        }).start();
+    }
+
+    private static String formatCellConflicts(Context context, int count, List<CellConflictEntity> conflicts)
+    {
+        if (count == 0) return context.getString(R.string.cell_conflict_findings_empty);
+
+        final DateFormat dateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.MEDIUM);
+        final StringBuilder message = new StringBuilder(
+                context.getString(R.string.cell_conflict_findings_count, count, conflicts.size()));
+        for (CellConflictEntity conflict : conflicts)
+        {
+            message.append("\n\n").append(dateFormat.format(new Date(conflict.time)))
+                    .append('\n').append(conflict.type).append(' ').append(conflict.protocol)
+                    .append(" ch ").append(conflict.channel)
+                    .append(" PCI ").append(conflict.physicalCellId);
+            if (conflict.otherPhysicalCellId != conflict.physicalCellId)
+            {
+                message.append('/').append(conflict.otherPhysicalCellId);
+            }
+            message.append(String.format(Locale.US, "\n%.5f, %.5f", conflict.latitude, conflict.longitude));
+        }
+        return message.toString();
+    }
+
+    private void deleteCellConflictFindings(Context context)
+    {
+        new Thread(() -> {
+            try
+            {
+                SurveyDatabase.getInstance(context).cellConflictDao().deleteAll();
+                showToastOnUiThread(R.string.cell_conflict_findings_deleted);
+            } catch (Exception e)
+            {
+                Timber.e(e, "Could not delete the physical cell ID problems");
+                showToastOnUiThread(R.string.cell_conflict_findings_failed);
+            }
+        }).start();
+    }
+
+    private void showToastOnUiThread(int messageId)
+    {
+        final FragmentActivity activity = getActivity();
+        if (activity == null) return;
+        activity.runOnUiThread(() -> Toast.makeText(activity, messageId, Toast.LENGTH_SHORT).show());
+    }
+
     /**
      * Sets the App Instance ID in the preferences UI if it is available.
      */
@@ -99,6 +99,15 @@ class SpeedTestFragment : Fragment() {
                 startSpeedTest()
             }
         }
+
+        binding.driveTestButton.setOnClickListener {
+            if (speedTestService?.isDriveTestActive() == true) {
+                speedTestService?.stopDriveTest()
+                updateTestState()
+            } else {
+                startDriveTest()
+            }
+        }
     }
 
     private fun startSpeedTest() {
@@ -114,6 +123,19 @@ class SpeedTestFragment : Fragment() {
         updateTestButtonState()
     }
 
+    private fun startDriveTest() {
+        if (!networkSpeedTester.isNetworkAvailable()) {
+            showToast(getString(R.string.error_no_network))
+            return
+        }
+
+        val networkType = networkSpeedTester.getNetworkType()
+        binding.networkTypeText.text = getString(R.string.network_type_format, networkType)
+        speedTestService?.startDriveTest(networkType)
+        if (speedTestService?.isDriveTestActive() == true) showToast(getString(R.string.drive_test_started))
+        updateTestButtonState()
+    }
+
     private fun updateNetworkType() {
         val networkType = networkSpeedTester.getNetworkType()
         binding.networkTypeText.text = getString(R.string.network_type_format, networkType)
@@ -154,7 +176,12 @@ class SpeedTestFragment : Fragment() {
 
     private fun updateTestState() {
         val isTesting = speedTestService?.isTesting() == true
+        val isDriveTestActive = speedTestService?.isDriveTestActive() == true
         binding.startTestButton.text = if (isTesting) getString(R.string.stop_test) else getString(R.string.start_test)
+        // 单次测速进行中时不能开始路测
+        binding.driveTestButton.isEnabled = isDriveTestActive || !isTesting
+        binding.driveTestButton.text =
+            if (isDriveTestActive) getString(R.string.stop_drive_test) else getString(R.string.start_drive_test)
     }
 
     private fun updateTestButtonState() = lifecycleScope.launchWhenResumed { updateTestState() }
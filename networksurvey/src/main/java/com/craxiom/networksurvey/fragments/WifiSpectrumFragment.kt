@@ -27,6 +27,7 @@ import com.craxiom.networksurvey.ui.wifi.model.WifiSpectrum6ViewModel
 import com.craxiom.networksurvey.ui.wifi.model.WifiSpectrumScreenViewModel
 import com.craxiom.networksurvey.util.PreferenceUtils
 import com.craxiom.networksurvey.util.WifiUtils
+import com.craxiom.networksurvey.wifichannel.WifiChannelReport
 
 /**
  * The fragment that enables visualizing the the latest scan results on a simple spectrum view.
@@ -161,6 +162,10 @@ class WifiSpectrumFragment : AServiceDataFragment(), IWifiSurveyRecordListener {
         viewModel6Ghz.onWifiScanResults(wifiNetworkInfoList)
     }
 
+    override fun onWifiChannelReport(report: WifiChannelReport) {
+        if (::screenViewModel.isInitialized) screenViewModel.setChannelReport(report)
+    }
+
     /**
      * Sets the list of WiFi networks to display on the spectrum view. This is only used for the
      * initial display of the WiFi networks when the fragment is first created.
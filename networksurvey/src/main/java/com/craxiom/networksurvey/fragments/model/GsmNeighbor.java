@@ -7,7 +7,7 @@ import static com.craxiom.networksurvey.constants.NetworkSurveyConstants.UNSET_V
  *
  * @since 1.6.0
  */
-public class GsmNeighbor implements Comparable<GsmNeighbor>
+public class GsmNeighbor implements Comparable<GsmNeighbor>, NeighborCell
 {
     public final int arfcn;
     public final int bsic;
@@ -58,7 +58,19 @@ public class GsmNeighbor implements Comparable<GsmNeighbor>
         int otherComparisonRssi = neighbor.rssi == UNSET_VALUE ? Integer.MIN_VALUE : neighbor.rssi;
 
         // Invert the sorting so the strongest show up at the top
-        return -1 * Integer.compare(thisComparisonRssi, otherComparisonRssi);
+        int result = -1 * Integer.compare(thisComparisonRssi, otherComparisonRssi);
+        if (result != 0) return result;
+
+        // Break ties on the channel and BSIC, or a TreeSet would drop one of the two
+        result = Integer.compare(arfcn, neighbor.arfcn);
+        if (result != 0) return result;
+        return Integer.compare(bsic, neighbor.bsic);
+    }
+
+    @Override
+    public long getCellKey()
+    {
+        return NeighborCell.cellKey(arfcn, bsic);
     }
 
     @Override
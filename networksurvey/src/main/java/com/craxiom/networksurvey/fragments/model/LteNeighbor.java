@@ -7,7 +7,7 @@ import static com.craxiom.networksurvey.constants.NetworkSurveyConstants.UNSET_V
  *
  * @since 1.6.0
  */
-public class LteNeighbor implements Comparable<LteNeighbor>
+public class LteNeighbor implements Comparable<LteNeighbor>, NeighborCell
 {
     public final int earfcn;
     public final int pci;
@@ -68,7 +68,24 @@ public class LteNeighbor implements Comparable<LteNeighbor>
         int otherComparisonRsrp = neighbor.rsrp == UNSET_VALUE ? Integer.MIN_VALUE : neighbor.rsrp;
 
         // Invert the sorting so the strongest show up at the top
-        return -1 * Integer.compare(thisComparisonRsrp, otherComparisonRsrp);
+        int result = -1 * Integer.compare(thisComparisonRsrp, otherComparisonRsrp);
+        if (result != 0) return result;
+
+        // Break ties on the rest of the values so that neighbors with the same signal are not dropped from the
+        // sorted set, and so that they keep the same order from one scan to the next
+        result = Integer.compare(earfcn, neighbor.earfcn);
+        if (result != 0) return result;
+        result = Integer.compare(pci, neighbor.pci);
+        if (result != 0) return result;
+        result = Integer.compare(rsrq, neighbor.rsrq);
+        if (result != 0) return result;
+        return Integer.compare(ta, neighbor.ta);
+    }
+
+    @Override
+    public long getCellKey()
+    {
+        return NeighborCell.cellKey(earfcn, pci);
     }
 
     @Override
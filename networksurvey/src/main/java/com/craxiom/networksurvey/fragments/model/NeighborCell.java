@@ -0,0 +1,23 @@
+package com.craxiom.networksurvey.fragments.model;
+
+/**
+ * A neighbor cell that is displayed in one of the neighbor tables on the Cellular UI.
+ *
+ * @since 1.43
+ */
+public interface NeighborCell
+{
+    /**
+     * @return A key that identifies the same neighbor cell from one scan to the next, made from its channel and its
+     * physical cell ID (PCI, PSC, or BSIC), so that the neighbor tables only rebind the rows whose values changed.
+     */
+    long getCellKey();
+
+    /**
+     * @return The key for the given channel and physical cell ID.
+     */
+    static long cellKey(int channel, int physicalCellId)
+    {
+        return ((long) channel << 32) | (physicalCellId & 0xFFFFFFFFL);
+    }
+}
@@ -7,7 +7,7 @@ import static com.craxiom.networksurvey.constants.NetworkSurveyConstants.UNSET_V
  *
  * @since 1.6.0
  */
-public class NrNeighbor implements Comparable<NrNeighbor>
+public class NrNeighbor implements Comparable<NrNeighbor>, NeighborCell
 {
     public final int narfcn;
     public final int pci;
@@ -67,7 +67,21 @@ public class NrNeighbor implements Comparable<NrNeighbor>
         int otherComparisonRsrp = neighbor.ssRsrp == UNSET_VALUE ? Integer.MIN_VALUE : neighbor.ssRsrp;
 
         // Invert the sorting so the strongest show up at the top
-        return -1 * Integer.compare(thisComparisonRsrp, otherComparisonRsrp);
+        int result = -1 * Integer.compare(thisComparisonRsrp, otherComparisonRsrp);
+        if (result != 0) return result;
+
+        // Break ties so that two cells with the same SS-RSRP are both kept and keep their order
+        result = Integer.compare(narfcn, neighbor.narfcn);
+        if (result != 0) return result;
+        result = Integer.compare(pci, neighbor.pci);
+        if (result != 0) return result;
+        return Integer.compare(ssRsrq, neighbor.ssRsrq);
+    }
+
+    @Override
+    public long getCellKey()
+    {
+        return NeighborCell.cellKey(narfcn, pci);
     }
 
     @Override
@@ -7,7 +7,7 @@ import static com.craxiom.networksurvey.constants.NetworkSurveyConstants.UNSET_V
  *
  * @since 1.6.0
  */
-public class UmtsNeighbor implements Comparable<UmtsNeighbor>
+public class UmtsNeighbor implements Comparable<UmtsNeighbor>, NeighborCell
 {
     public final int uarfcn;
     public final int psc;
@@ -52,7 +52,19 @@ public class UmtsNeighbor implements Comparable<UmtsNeighbor>
         int otherComparisonRscp = neighbor.rscp == UNSET_VALUE ? Integer.MIN_VALUE : neighbor.rscp;
 
         // Invert the sorting so the strongest show up at the top
-        return -1 * Integer.compare(thisComparisonRscp, otherComparisonRscp);
+        int result = -1 * Integer.compare(thisComparisonRscp, otherComparisonRscp);
+        if (result != 0) return result;
+
+        // Break ties on the channel and PSC, or a TreeSet would drop one of the two
+        result = Integer.compare(uarfcn, neighbor.uarfcn);
+        if (result != 0) return result;
+        return Integer.compare(psc, neighbor.psc);
+    }
+
+    @Override
+    public long getCellKey()
+    {
+        return NeighborCell.cellKey(uarfcn, psc);
     }
 
     @Override
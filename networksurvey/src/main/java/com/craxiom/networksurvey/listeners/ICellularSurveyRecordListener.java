@@ -27,6 +27,19 @@ public interface ICellularSurveyRecordListener
     {
     }
 
+    /**
+     * Called when a new GSM Survey Record is ready, along with its device time as Unix Epoch millis so that it
+     * doesn't have to be parsed back from the record. By default, this calls {@link #onGsmSurveyRecord(GsmRecord)}.
+     *
+     * @param gsmRecord   the GSM Record.
+     * @param epochMillis the device time of the record as Unix Epoch millis.
+     * @since 1.43
+     */
+    default void onGsmSurveyRecord(GsmRecord gsmRecord, long epochMillis)
+    {
+        onGsmSurveyRecord(gsmRecord);
+    }
+
     /**
      * Called when a new CDMA Survey Record is ready.
      *
@@ -37,6 +50,19 @@ public interface ICellularSurveyRecordListener
     {
     }
 
+    /**
+     * Called when a new CDMA Survey Record is ready, along with its device time as Unix Epoch millis so that it
+     * doesn't have to be parsed back from the record. By default, this calls {@link #onCdmaSurveyRecord(CdmaRecord)}.
+     *
+     * @param cdmaRecord  the CDMA Record.
+     * @param epochMillis the device time of the record as Unix Epoch millis.
+     * @since 1.43
+     */
+    default void onCdmaSurveyRecord(CdmaRecord cdmaRecord, long epochMillis)
+    {
+        onCdmaSurveyRecord(cdmaRecord);
+    }
+
     /**
      * Called when a new UMTS Survey Record is ready.
      *
@@ -47,6 +73,19 @@ public interface ICellularSurveyRecordListener
     {
     }
 
+    /**
+     * Called when a new UMTS Survey Record is ready, along with its device time as Unix Epoch millis so that it
+     * doesn't have to be parsed back from the record. By default, this calls {@link #onUmtsSurveyRecord(UmtsRecord)}.
+     *
+     * @param umtsRecord  the UMTS Record.
+     * @param epochMillis the device time of the record as Unix Epoch millis.
+     * @since 1.43
+     */
+    default void onUmtsSurveyRecord(UmtsRecord umtsRecord, long epochMillis)
+    {
+        onUmtsSurveyRecord(umtsRecord);
+    }
+
     /**
      * Called when a new LTE Survey Record is ready.
      *
@@ -56,6 +95,19 @@ public interface ICellularSurveyRecordListener
     {
     }
 
+    /**
+     * Called when a new LTE Survey Record is ready, along with its device time as Unix Epoch millis so that it
+     * doesn't have to be parsed back from the record. By default, this calls {@link #onLteSurveyRecord(LteRecord)}.
+     *
+     * @param lteRecord   the LTE Record.
+     * @param epochMillis the device time of the record as Unix Epoch millis.
+     * @since 1.43
+     */
+    default void onLteSurveyRecord(LteRecord lteRecord, long epochMillis)
+    {
+        onLteSurveyRecord(lteRecord);
+    }
+
     /**
      * Called when a new NR Survey Record is ready.
      *
@@ -66,6 +118,19 @@ public interface ICellularSurveyRecordListener
     {
     }
 
+    /**
+     * Called when a new NR Survey Record is ready, along with its device time as Unix Epoch millis so that it
+     * doesn't have to be parsed back from the record. By default, this calls {@link #onNrSurveyRecord(NrRecord)}.
+     *
+     * @param nrRecord    the NR Record.
+     * @param epochMillis the device time of the record as Unix Epoch millis.
+     * @since 1.43
+     */
+    default void onNrSurveyRecord(NrRecord nrRecord, long epochMillis)
+    {
+        onNrSurveyRecord(nrRecord);
+    }
+
     /**
      * Called when a new batch of cellular survey records are ready.
      * <p>
@@ -0,0 +1,27 @@
+package com.craxiom.networksurvey.listeners;
+
+import com.craxiom.networksurvey.coverage.CoverageCellKey;
+
+import java.util.Set;
+
+/**
+ * Listener interface for changes to the coverage grid, so that anything drawn from the grid (e.g. the coverage map
+ * tiles) can be refreshed where new measurements landed.
+ *
+ * @since 1.43
+ */
+public interface ICoverageGridListener
+{
+    /**
+     * Called after a set of grid updates has been written to the database. This is called on the thread that flushed
+     * the updates, which is never the main thread.
+     *
+     * @param updatedCells The series that changed, on every level of the grid.
+     */
+    void onCoverageCellsUpdated(Set<CoverageCellKey> updatedCells);
+
+    /**
+     * Called after all the coverage data has been removed.
+     */
+    void onCoverageCleared();
+}
@@ -2,6 +2,7 @@ package com.craxiom.networksurvey.listeners;
 
 import com.craxiom.messaging.DeviceStatus;
 import com.craxiom.messaging.PhoneState;
+import com.google.protobuf.Struct;
 
 /**
  * Listener interface for those interested in being notified whenever a new Device Status message is ready.
@@ -27,4 +28,16 @@ public interface IDeviceStatusListener
     default void onPhoneState(PhoneState phoneState)
     {
     }
+
+    /**
+     * Notification that a new pipeline metrics message is ready. This message is only generated if the user (or
+     * the MDM administrator) turned it on, and it is sent at the same rate as the Device Status message.
+     *
+     * @param pipelineMetrics The pipeline metrics message, see
+     *                        {@link com.craxiom.networksurvey.metrics.PipelineMetrics#toMessage} for the layout.
+     * @since 1.43
+     */
+    default void onPipelineMetrics(Struct pipelineMetrics)
+    {
+    }
 }
@@ -1,6 +1,7 @@
 package com.craxiom.networksurvey.listeners;
 
 import com.craxiom.networksurvey.model.WifiRecordWrapper;
+import com.craxiom.networksurvey.wifichannel.WifiChannelReport;
 
 import java.util.List;
 
@@ -17,4 +18,14 @@ public interface IWifiSurveyRecordListener
      * @param wifiBeaconRecords the list of 802.11 Beacon Records.
      */
     void onWifiBeaconSurveyRecords(List<WifiRecordWrapper> wifiBeaconRecords);
+
+    /**
+     * Called after each Wi-Fi scan with the updated channel congestion.
+     *
+     * @param report The congestion of each channel and the least congested channel in each band.
+     * @since 1.43
+     */
+    default void onWifiChannelReport(WifiChannelReport report)
+    {
+    }
 }
@@ -22,8 +22,6 @@ import java.util.List;
 import mil.nga.geopackage.GeoPackage;
 import mil.nga.geopackage.db.GeoPackageDataType;
 import mil.nga.geopackage.features.user.FeatureColumn;
-import mil.nga.geopackage.features.user.FeatureDao;
-import mil.nga.geopackage.features.user.FeatureRow;
 import mil.nga.geopackage.geom.GeoPackageGeometryData;
 import mil.nga.geopackage.srs.SpatialReferenceSystem;
 import mil.nga.sf.Point;
@@ -108,8 +106,7 @@ public class BluetoothSurveyRecordLogger extends SurveyRecordLogger implements I
                     if (geoPackage != null)
                     {
                         final BluetoothRecordData data = bluetoothRecord.getData();
-                        FeatureDao featureDao = geoPackage.getFeatureDao(BluetoothMessageConstants.BLUETOOTH_RECORDS_TABLE_NAME);
-                        FeatureRow row = featureDao.newRow();
+                        final GeoPackageRowInserter row = getRowInserter(BluetoothMessageConstants.BLUETOOTH_RECORDS_TABLE_NAME);
 
                         Point fix = new Point(data.getLongitude(), data.getLatitude(), (double) data.getAltitude());
 
@@ -195,7 +192,7 @@ public class BluetoothSurveyRecordLogger extends SurveyRecordLogger implements I
                             row.setValue(BluetoothCsvConstants.MANUFACTURER_SPECIFIC_DATA, mfgData);
                         }
 
-                        featureDao.insert(row);
+                        row.insert();
 
                         checkIfRolloverNeeded();
                     }
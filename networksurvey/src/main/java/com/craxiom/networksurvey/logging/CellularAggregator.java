@@ -0,0 +1,275 @@
+package com.craxiom.networksurvey.logging;
+
+import com.craxiom.messaging.CdmaRecord;
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.LteBandwidth;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.networksurvey.model.CellularAggregateRecord;
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.craxiom.networksurvey.util.CellularUtils;
+import com.google.protobuf.Int32Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import timber.log.Timber;
+
+/**
+ * 蜂窝数据批次的主邻区聚合逻辑（从 CellularRecordLogger 中提取）。
+ * <p>
+ * 只依赖 protobuf 记录，不依赖 GeoPackage 或 Android 框架，因此可以在 JVM 基准测试中直接运行。
+ *
+ * @since 1.43
+ */
+public final class CellularAggregator {
+
+    private CellularAggregator() {
+    }
+
+    /**
+     * 分离主小区和邻区，并构建聚合记录
+     *
+     * @param cellularGroup 同一次扫描的蜂窝记录批次
+     * @return 聚合记录；未找到主小区或构建失败时返回 null
+     */
+    public static CellularAggregateRecord aggregate(List<CellularRecordWrapper> cellularGroup) {
+        // 分离主小区和邻区（保持原聚合逻辑）
+        CellularRecordWrapper servingWrapper = null;
+        List<CellularRecordWrapper> neighborWrappers = new ArrayList<>();
+        for (CellularRecordWrapper wrapper : cellularGroup) {
+            if (isServingCell(wrapper)) {
+                servingWrapper = wrapper;
+            } else {
+                neighborWrappers.add(wrapper);
+            }
+        }
+        if (servingWrapper == null) {
+            Timber.w("未找到主小区数据，跳过聚合");
+            return null;
+        }
+
+        // 构建聚合记录（复用原聚合逻辑）
+        CellularAggregateRecord aggregateRecord = buildAggregateRecord(servingWrapper, neighborWrappers);
+        if (aggregateRecord == null) {
+            Timber.w("聚合记录构建失败，跳过写入");
+        }
+        return aggregateRecord;
+    }
+
+    /**
+     * 判断是否为主小区（复用原逻辑）
+     */
+    public static boolean isServingCell(CellularRecordWrapper wrapper) {
+        try {
+            switch (wrapper.cellularProtocol) {
+                case LTE:
+                    return ((LteRecord) wrapper.cellularRecord).getData().getServingCell() != null
+                            && ((LteRecord) wrapper.cellularRecord).getData().getServingCell().getValue();
+                case NR:
+                    return ((NrRecord) wrapper.cellularRecord).getData().getServingCell() != null
+                            && ((NrRecord) wrapper.cellularRecord).getData().getServingCell().getValue();
+                case GSM:
+                    return ((GsmRecord) wrapper.cellularRecord).getData().getServingCell() != null
+                            && ((GsmRecord) wrapper.cellularRecord).getData().getServingCell().getValue();
+                case UMTS:
+                    return ((UmtsRecord) wrapper.cellularRecord).getData().getServingCell() != null
+                            && ((UmtsRecord) wrapper.cellularRecord).getData().getServingCell().getValue();
+                case CDMA:
+                    return ((CdmaRecord) wrapper.cellularRecord).getData().getServingCell() != null
+                            && ((CdmaRecord) wrapper.cellularRecord).getData().getServingCell().getValue();
+                default:
+                    Timber.w("不支持的协议类型：%s", wrapper.cellularProtocol);
+                    return false;
+            }
+        } catch (Exception e) {
+            Timber.e(e, "判断主小区状态失败");
+            return false;
+        }
+    }
+
+    /**
+     * 构建聚合记录（主小区+邻区，复用原逻辑）
+     */
+    static CellularAggregateRecord buildAggregateRecord(CellularRecordWrapper serving, List<CellularRecordWrapper> neighbors) {
+        CellularAggregateRecord record = new CellularAggregateRecord();
+        // 提取主小区数据
+        try {
+            switch (serving.cellularProtocol) {
+                case LTE:
+                    fillLteData(record, (LteRecord) serving.cellularRecord);
+                    break;
+                case NR:
+                    fillNrData(record, (NrRecord) serving.cellularRecord);
+                    break;
+                case GSM:
+                    fillGsmData(record, (GsmRecord) serving.cellularRecord);
+                    break;
+                case UMTS:
+                    fillUmtsData(record, (UmtsRecord) serving.cellularRecord);
+                    break;
+                case CDMA:
+                    Timber.w("CDMA协议暂未实现聚合处理");
+                    return null;
+                default:
+                    Timber.w("不支持的聚合协议：%s", serving.cellularProtocol);
+                    return null;
+            }
+        } catch (Exception e) {
+            Timber.e(e, "处理主小区数据失败");
+            return null;
+        }
+
+        // 设备时间直接取自包装类，无需再解析 RFC3339 字符串
+        record.timestamp = serving.epochMillis;
+
+        // 处理邻区数据
+        processNeighbors(record, neighbors);
+
+        return record;
+    }
+
+    /**
+     * 处理邻区数据并聚合（复用原逻辑）
+     */
+    private static void processNeighbors(CellularAggregateRecord record, List<CellularRecordWrapper> neighbors) {
+        List<String> nArfcnList = new ArrayList<>();
+        List<String> nPciList = new ArrayList<>();
+        List<String> nRsrpList = new ArrayList<>();
+        List<String> nRsrqList = new ArrayList<>();
+
+        // 主小区作为第一个元素（便于后续识别）
+        if (Objects.equals(record.servingProtocol, "NR")){
+            nArfcnList.add(String.valueOf(record.channelNumber));
+            nPciList.add(String.valueOf(record.pci));
+            nRsrpList.add(String.valueOf(record.signalOne));
+            nRsrqList.add(String.valueOf(record.signalTwo));
+            record.servingIndex = 0;}
+
+        // 追加邻区数据
+        for (CellularRecordWrapper neighbor : neighbors) {
+            try {
+                if (Objects.equals(record.servingProtocol, "LTE") && neighbor.cellularProtocol == CellularProtocol.LTE) {
+                    LteRecord lte = (LteRecord) neighbor.cellularRecord;
+                    nArfcnList.add(getValueOrEmpty(lte.getData().getEarfcn()));
+                    nPciList.add(getValueOrEmpty(lte.getData().getPci()));
+                    nRsrpList.add(getValueOrEmpty(lte.getData().getRsrp()));
+                    nRsrqList.add(getValueOrEmpty(lte.getData().getRsrq()));
+                } else if (Objects.equals(record.servingProtocol, "NR") && neighbor.cellularProtocol == CellularProtocol.NR) {
+                    NrRecord nr = (NrRecord) neighbor.cellularRecord;
+                    nArfcnList.add(getValueOrEmpty(nr.getData().getNarfcn()));
+                    nPciList.add(getValueOrEmpty(nr.getData().getPci()));
+                    nRsrpList.add(getValueOrEmpty(nr.getData().getSsRsrp()));
+                    nRsrqList.add(getValueOrEmpty(nr.getData().getSsRsrq()));
+                }
+            } catch (Exception e) {
+                Timber.e(e, "处理邻区数据失败，跳过该邻区");
+            }
+        }
+
+        record.num = nPciList.size();
+        // 聚合为 | 分隔的字符串
+        record.Narfcn = String.join("|", nArfcnList);
+        record.NPci = String.join("|", nPciList);
+        record.NRsrp = String.join("|", nRsrpList);
+        record.NRsrq = String.join("|", nRsrqList);
+    }
+
+    // -------------------------- 主小区数据填充（复用原逻辑）--------------------------
+
+    private static void fillLteData(CellularAggregateRecord record, LteRecord lteRecord) {
+        var data = lteRecord.getData();
+        LteBandwidth lteBandwidth = data.getLteBandwidth();
+
+        record.servingProtocol = "LTE";
+        record.latitude = data.getLatitude();
+        record.longitude = data.getLongitude();
+        record.altitude = data.getAltitude();
+        record.mcc = convertProtoInt32ToInteger(data.getMcc());
+        record.mnc = convertProtoInt32ToInteger(data.getMnc());
+        record.areaCode = convertProtoInt32ToInteger(data.getTac());
+        record.cellId = data.hasEci() ? data.getEci().getValue() : 0;
+        record.channelNumber = convertProtoInt32ToInteger(data.getEarfcn());
+        record.frequency = data.hasEarfcn() ? String.valueOf(CellularUtils.earfcnToFrequencyMhz(data.getEarfcn().getValue())) : "null";
+        record.band = data.hasEarfcn() ? CellularUtils.downlinkEarfcnToBand(data.getEarfcn().getValue()) : null;
+        record.bandwidth = lteBandwidth == LteBandwidth.UNRECOGNIZED ? null : lteBandwidth.getNumber();
+        record.pci = convertProtoInt32ToInteger(data.getPci());
+        record.signalOne = data.hasRsrp() ? (int) data.getRsrp().getValue() : null;
+        record.signalTwo = data.hasRsrq() ? (int) data.getRsrq().getValue() : null;
+        record.signalThree = data.hasSnr() ? (int) data.getSnr().getValue() : null;
+    }
+
+    private static void fillNrData(CellularAggregateRecord record, NrRecord nrRecord) {
+        var data = nrRecord.getData();
+        record.servingProtocol = "NR";
+        record.latitude = data.getLatitude();
+        record.longitude = data.getLongitude();
+        record.altitude = data.getAltitude();
+        record.mcc = convertProtoInt32ToInteger(data.getMcc());
+        record.mnc = convertProtoInt32ToInteger(data.getMnc());
+        record.areaCode = convertProtoInt32ToInteger(data.getTac());
+        record.cellId = data.hasNci() ? data.getNci().getValue() : 0;
+        record.channelNumber = convertProtoInt32ToInteger(data.getNarfcn());
+        record.pci = convertProtoInt32ToInteger(data.getPci());
+        record.signalOne = data.hasSsRsrp() ? (int) data.getSsRsrp().getValue() : null;
+        record.signalTwo = data.hasSsRsrq() ? (int) data.getSsRsrq().getValue() : null;
+        record.signalThree = data.hasSsSinr() ? (int) data.getSsSinr().getValue() : null;
+        record.frequency = data.hasNarfcn() ? String.valueOf(CellularUtils.narfcnToFrequencyMhz(data.getNarfcn().getValue())) : null;
+        record.band = data.hasNarfcn() ? CellularUtils.narfcnToNrBand(data.getNarfcn().getValue()) : null;
+    }
+
+    private static void fillGsmData(CellularAggregateRecord record, GsmRecord gsmRecord) {
+        var data = gsmRecord.getData();
+        record.servingProtocol = "GSM";
+        record.latitude = data.getLatitude();
+        record.longitude = data.getLongitude();
+        record.altitude = data.getAltitude();
+        record.mcc = convertProtoInt32ToInteger(data.getMcc());
+        record.mnc = convertProtoInt32ToInteger(data.getMnc());
+        record.areaCode = convertProtoInt32ToInteger(data.getLac());
+        record.cellId = data.hasCi() ? data.getCi().getValue() : 0;
+        record.channelNumber = convertProtoInt32ToInteger(data.getArfcn());
+        record.signalOne = data.hasSignalStrength() ? (int) data.getSignalStrength().getValue() : null;
+    }
+
+    private static void fillUmtsData(CellularAggregateRecord record, UmtsRecord umtsRecord) {
+        var data = umtsRecord.getData();
+        record.servingProtocol = "UMTS";
+        record.latitude = data.getLatitude();
+        record.longitude = data.getLongitude();
+        record.altitude = data.getAltitude();
+        record.mcc = convertProtoInt32ToInteger(data.getMcc());
+        record.mnc = convertProtoInt32ToInteger(data.getMnc());
+        record.areaCode = convertProtoInt32ToInteger(data.getLac());
+        record.cellId = data.hasCid() ? data.getCid().getValue() : 0;
+        record.channelNumber = convertProtoInt32ToInteger(data.getUarfcn());
+        record.signalOne = data.hasRscp() ? (int) data.getRscp().getValue() : null;
+        record.signalTwo = data.hasEcno() ? (int) data.getEcno().getValue() : null;
+    }
+
+    /**
+     * 获取 protobuf 字段值（处理 null）
+     */
+    private static String getValueOrEmpty(Object protobufValue) {
+        if (protobufValue == null) return "";
+        try {
+            Object value = protobufValue.getClass().getMethod("getValue").invoke(protobufValue);
+            return value != null ? value.toString() : "";
+        } catch (Exception e) {
+            Timber.w(e, "获取protobuf字段值失败");
+            return "";
+        }
+    }
+
+    public static Integer convertProtoInt32ToInteger(Int32Value protoInt32) {
+        // 处理 null 情况：如果输入为 null，直接返回 null
+        if (protoInt32 == null) {
+            return null;
+        }
+        // 从 Int32Value 中获取 int 值，自动装箱为 Integer
+        return protoInt32.getValue();
+    }
+}
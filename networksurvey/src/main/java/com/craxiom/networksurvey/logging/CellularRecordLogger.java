@@ -4,13 +4,7 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.os.Looper;
 
-import com.craxiom.messaging.CdmaRecord;
-import com.craxiom.messaging.GsmRecord;
 import com.craxiom.messaging.GsmRecordData;
-import com.craxiom.messaging.LteBandwidth;
-import com.craxiom.messaging.LteRecord;
-import com.craxiom.messaging.NrRecord;
-import com.craxiom.messaging.UmtsRecord;
 import com.craxiom.networksurvey.constants.GsmMessageConstants;
 import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
 import com.craxiom.networksurvey.constants.csv.CellularCsvConstants;
@@ -18,18 +12,13 @@ import com.craxiom.networksurvey.constants.csv.CsvConstants;
 import com.craxiom.networksurvey.constants.csv.GsmCsvConstants;
 import com.craxiom.networksurvey.listeners.ICellularSurveyRecordListener;
 import com.craxiom.networksurvey.model.CellularAggregateRecord;
-import com.craxiom.networksurvey.model.CellularProtocol;
 import com.craxiom.networksurvey.model.CellularRecordWrapper;
 import com.craxiom.networksurvey.services.NetworkSurveyService;
-import com.craxiom.networksurvey.util.CellularUtils;
 import com.craxiom.networksurvey.util.MathUtils;
-import com.craxiom.networksurvey.util.NsUtils;
 
 import com.google.common.base.Strings;
-import com.google.protobuf.Int32Value;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
@@ -66,7 +55,6 @@ public class CellularRecordLogger extends SurveyRecordLogger implements ICellula
     // WGS84 空间坐标系（GeoPackage 标准空间参考）
     private static final int WGS84_SRS_ID = 4326;
 
-    private final CellularUtils cellularUtils;
     private int currentMaxIndexId = 0;
     private boolean isMaxIndexInitialized = false;
 
@@ -78,8 +66,6 @@ public class CellularRecordLogger extends SurveyRecordLogger implements ICellula
         super(service, looper,
                 NetworkSurveyConstants.LOG_DIRECTORY_NAME,  // 复用默认日志目录
                 AGGREGATE_TABLE_NAME);  // 非延迟创建文件（与 CellularSurveyRecordLogger 一致）
-
-        this.cellularUtils = new CellularUtils();
     }
 
     /**
@@ -211,29 +197,13 @@ public class CellularRecordLogger extends SurveyRecordLogger implements ICellula
             return;
         }
 
-        // 1. 分离主小区和邻区（保持原聚合逻辑）
-        CellularRecordWrapper servingWrapper = null;
-        List<CellularRecordWrapper> neighborWrappers = new ArrayList<>();
-        for (CellularRecordWrapper wrapper : cellularGroup) {
-            if (isServingCell(wrapper)) {
-                servingWrapper = wrapper;
-            } else {
-                neighborWrappers.add(wrapper);
-            }
-        }
-        if (servingWrapper == null) {
-            Timber.w("未找到主小区数据，跳过聚合");
-            return;
-        }
-
-        // 2. 构建聚合记录（复用原聚合逻辑）
-        CellularAggregateRecord aggregateRecord = buildAggregateRecord(servingWrapper, neighborWrappers);
+        // 1. 分离主小区和邻区，构建聚合记录（见 CellularAggregator）
+        CellularAggregateRecord aggregateRecord = CellularAggregator.aggregate(cellularGroup);
         if (aggregateRecord == null) {
-            Timber.w("聚合记录构建失败，跳过写入");
             return;
         }
 
-        // 3. 写入 GeoPackage（与 CellularSurveyRecordLogger 一致：后台线程 + 数据库锁）
+        // 2. 写入 GeoPackage（与 CellularSurveyRecordLogger 一致：后台线程 + 数据库锁）
         handler.post(() -> {
             synchronized (geoPackageLock) {
                 try {
@@ -462,215 +432,8 @@ public class CellularRecordLogger extends SurveyRecordLogger implements ICellula
         return Integer.parseInt(bandStr.replaceAll("[^0-9]", "")); // 移除非数字字符
     }
 
-    // -------------------------- 复用原聚合逻辑（仅适配 GeoPackage 数据类型）--------------------------
-
-    /**
-     * 判断是否为主小区（复用原逻辑）
-     */
-    private boolean isServingCell(CellularRecordWrapper wrapper) {
-        try {
-            switch (wrapper.cellularProtocol) {
-                case LTE:
-                    return ((LteRecord) wrapper.cellularRecord).getData().getServingCell() != null
-                            && ((LteRecord) wrapper.cellularRecord).getData().getServingCell().getValue();
-                case NR:
-                    return ((NrRecord) wrapper.cellularRecord).getData().getServingCell() != null
-                            && ((NrRecord) wrapper.cellularRecord).getData().getServingCell().getValue();
-                case GSM:
-                    return ((GsmRecord) wrapper.cellularRecord).getData().getServingCell() != null
-                            && ((GsmRecord) wrapper.cellularRecord).getData().getServingCell().getValue();
-                case UMTS:
-                    return ((UmtsRecord) wrapper.cellularRecord).getData().getServingCell() != null
-                            && ((UmtsRecord) wrapper.cellularRecord).getData().getServingCell().getValue();
-                case CDMA:
-                    return ((CdmaRecord) wrapper.cellularRecord).getData().getServingCell() != null
-                            && ((CdmaRecord) wrapper.cellularRecord).getData().getServingCell().getValue();
-                default:
-                    Timber.w("不支持的协议类型：%s", wrapper.cellularProtocol);
-                    return false;
-            }
-        } catch (Exception e) {
-            Timber.e(e, "判断主小区状态失败");
-            return false;
-        }
-    }
-
-    /**
-     * 构建聚合记录（主小区+邻区，复用原逻辑）
-     */
-    private CellularAggregateRecord buildAggregateRecord(CellularRecordWrapper serving, List<CellularRecordWrapper> neighbors) {
-        CellularAggregateRecord record = new CellularAggregateRecord();
-        // 提取主小区数据
-        try {
-            switch (serving.cellularProtocol) {
-                case LTE:
-                    fillLteData(record, (LteRecord) serving.cellularRecord);
-                    break;
-                case NR:
-                    fillNrData(record, (NrRecord) serving.cellularRecord);
-                    break;
-                case GSM:
-                    fillGsmData(record, (GsmRecord) serving.cellularRecord);
-                    break;
-                case UMTS:
-                    fillUmtsData(record, (UmtsRecord) serving.cellularRecord);
-                    break;
-                case CDMA:
-                    Timber.w("CDMA协议暂未实现聚合处理");
-                    return null;
-                default:
-                    Timber.w("不支持的聚合协议：%s", serving.cellularProtocol);
-                    return null;
-            }
-        } catch (Exception e) {
-            Timber.e(e, "处理主小区数据失败");
-            return null;
-        }
-
-        // 处理邻区数据
-        processNeighbors(record, neighbors);
-
-        return record;
-    }
-
-    /**
-     * 处理邻区数据并聚合（复用原逻辑）
-     */
-    private void processNeighbors(CellularAggregateRecord record, List<CellularRecordWrapper> neighbors) {
-        List<String> nArfcnList = new ArrayList<>();
-        List<String> nPciList = new ArrayList<>();
-        List<String> nRsrpList = new ArrayList<>();
-        List<String> nRsrqList = new ArrayList<>();
-
-        // 主小区作为第一个元素（便于后续识别）
-        if (Objects.equals(record.servingProtocol, "NR")){
-            nArfcnList.add(String.valueOf(record.channelNumber));
-            nPciList.add(String.valueOf(record.pci));
-            nRsrpList.add(String.valueOf(record.signalOne));
-            nRsrqList.add(String.valueOf(record.signalTwo));
-            record.servingIndex = 0;}
-
-        // 追加邻区数据
-        for (CellularRecordWrapper neighbor : neighbors) {
-            try {
-                if (Objects.equals(record.servingProtocol, "LTE") && neighbor.cellularProtocol == CellularProtocol.LTE) {
-                    LteRecord lte = (LteRecord) neighbor.cellularRecord;
-                    nArfcnList.add(getValueOrEmpty(lte.getData().getEarfcn()));
-                    nPciList.add(getValueOrEmpty(lte.getData().getPci()));
-                    nRsrpList.add(getValueOrEmpty(lte.getData().getRsrp()));
-                    nRsrqList.add(getValueOrEmpty(lte.getData().getRsrq()));
-                } else if (Objects.equals(record.servingProtocol, "NR") && neighbor.cellularProtocol == CellularProtocol.NR) {
-                    NrRecord nr = (NrRecord) neighbor.cellularRecord;
-                    nArfcnList.add(getValueOrEmpty(nr.getData().getNarfcn()));
-                    nPciList.add(getValueOrEmpty(nr.getData().getPci()));
-                    nRsrpList.add(getValueOrEmpty(nr.getData().getSsRsrp()));
-                    nRsrqList.add(getValueOrEmpty(nr.getData().getSsRsrq()));
-                }
-            } catch (Exception e) {
-                Timber.e(e, "处理邻区数据失败，跳过该邻区");
-            }
-        }
-
-        record.num = nPciList.size();
-        // 聚合为 | 分隔的字符串
-        record.Narfcn = String.join("|", nArfcnList);
-        record.NPci = String.join("|", nPciList);
-        record.NRsrp = String.join("|", nRsrpList);
-        record.NRsrq = String.join("|", nRsrqList);
-    }
-
-    // -------------------------- 主小区数据填充（复用原逻辑）--------------------------
-
-    private void fillLteData(CellularAggregateRecord record, LteRecord lteRecord) {
-        var data = lteRecord.getData();
-        LteBandwidth lteBandwidth = data.getLteBandwidth();
-
-        record.servingProtocol = "LTE";
-        record.timestamp = NsUtils.getEpochFromRfc3339(data.getDeviceTime());
-        record.latitude = data.getLatitude();
-        record.longitude = data.getLongitude();
-        record.altitude = data.getAltitude();
-        record.mcc = convertProtoInt32ToInteger(data.getMcc());
-        record.mnc = convertProtoInt32ToInteger(data.getMnc());
-        record.areaCode = convertProtoInt32ToInteger(data.getTac());
-        record.cellId = data.hasEci() ? data.getEci().getValue() : 0;
-        record.channelNumber = convertProtoInt32ToInteger(data.getEarfcn());
-        record.frequency = data.hasEarfcn() ? String.valueOf(cellularUtils.earfcnToFrequencyMhz(data.getEarfcn().getValue())) : "null";
-        record.band = data.hasEarfcn() ? cellularUtils.downlinkEarfcnToBand(data.getEarfcn().getValue()) : null;
-        record.bandwidth = lteBandwidth == LteBandwidth.UNRECOGNIZED ? null : lteBandwidth.getNumber();
-        record.pci = convertProtoInt32ToInteger(data.getPci());
-        record.signalOne = data.hasRsrp() ? (int) data.getRsrp().getValue() : null;
-        record.signalTwo = data.hasRsrq() ? (int) data.getRsrq().getValue() : null;
-        record.signalThree = data.hasSnr() ? (int) data.getSnr().getValue() : null;
-    }
-
-    private void fillNrData(CellularAggregateRecord record, NrRecord nrRecord) {
-        var data = nrRecord.getData();
-        record.servingProtocol = "NR";
-        record.timestamp = NsUtils.getEpochFromRfc3339(data.getDeviceTime());
-        record.latitude = data.getLatitude();
-        record.longitude = data.getLongitude();
-        record.altitude = data.getAltitude();
-        record.mcc = convertProtoInt32ToInteger(data.getMcc());
-        record.mnc = convertProtoInt32ToInteger(data.getMnc());
-        record.areaCode = convertProtoInt32ToInteger(data.getTac());
-        record.cellId = data.hasNci() ? data.getNci().getValue() : 0;
-        record.channelNumber = convertProtoInt32ToInteger(data.getNarfcn());
-        record.pci = convertProtoInt32ToInteger(data.getPci());
-        record.signalOne = data.hasSsRsrp() ? (int) data.getSsRsrp().getValue() : null;
-        record.signalTwo = data.hasSsRsrq() ? (int) data.getSsRsrq().getValue() : null;
-        record.signalThree = data.hasSsSinr() ? (int) data.getSsSinr().getValue() : null;
-        record.frequency = data.hasNarfcn() ? String.valueOf(cellularUtils.narfcnToFrequencyMhz(data.getNarfcn().getValue())) : null;
-        record.band = data.hasNarfcn() ? cellularUtils.narfcnToNrBand(data.getNarfcn().getValue()) : null;
-    }
-
-    private void fillGsmData(CellularAggregateRecord record, GsmRecord gsmRecord) {
-        var data = gsmRecord.getData();
-        record.servingProtocol = "GSM";
-        record.timestamp = NsUtils.getEpochFromRfc3339(data.getDeviceTime());
-        record.latitude = data.getLatitude();
-        record.longitude = data.getLongitude();
-        record.altitude = data.getAltitude();
-        record.mcc = convertProtoInt32ToInteger(data.getMcc());
-        record.mnc = convertProtoInt32ToInteger(data.getMnc());
-        record.areaCode = convertProtoInt32ToInteger(data.getLac());
-        record.cellId = data.hasCi() ? data.getCi().getValue() : 0;
-        record.channelNumber = convertProtoInt32ToInteger(data.getArfcn());
-        record.signalOne = data.hasSignalStrength() ? (int) data.getSignalStrength().getValue() : null;
-    }
-
-    private void fillUmtsData(CellularAggregateRecord record, UmtsRecord umtsRecord) {
-        var data = umtsRecord.getData();
-        record.servingProtocol = "UMTS";
-        record.timestamp = NsUtils.getEpochFromRfc3339(data.getDeviceTime());
-        record.latitude = data.getLatitude();
-        record.longitude = data.getLongitude();
-        record.altitude = data.getAltitude();
-        record.mcc = convertProtoInt32ToInteger(data.getMcc());
-        record.mnc = convertProtoInt32ToInteger(data.getMnc());
-        record.areaCode = convertProtoInt32ToInteger(data.getLac());
-        record.cellId = data.hasCid() ? data.getCid().getValue() : 0;
-        record.channelNumber = convertProtoInt32ToInteger(data.getUarfcn());
-        record.signalOne = data.hasRscp() ? (int) data.getRscp().getValue() : null;
-        record.signalTwo = data.hasEcno() ? (int) data.getEcno().getValue() : null;
-    }
-
     // -------------------------- 工具方法（适配 GeoPackage 数据类型）--------------------------
 
-    /**
-     * 获取 protobuf 字段值（处理 null）
-     */
-    private String getValueOrEmpty(Object protobufValue) {
-        if (protobufValue == null) return "";
-        try {
-            Object value = protobufValue.getClass().getMethod("getValue").invoke(protobufValue);
-            return value != null ? value.toString() : "";
-        } catch (Exception e) {
-            Timber.w(e, "获取protobuf字段值失败");
-            return "";
-        }
-    }
-
     /**
      * 安全处理字符串值（GeoPackage 空值兼容）
      */
@@ -718,15 +481,4 @@ public class CellularRecordLogger extends SurveyRecordLogger implements ICellula
             return null;
         }
     }
-
-    public static Integer convertProtoInt32ToInteger(Int32Value protoInt32) {
-        // 处理 null 情况：如果输入为 null，直接返回 null
-        if (protoInt32 == null) {
-            return null;
-        }
-        // 从 Int32Value 中获取 int 值，自动装箱为 Integer
-        return protoInt32.getValue();
-    }
-
-
 }
\ No newline at end of file
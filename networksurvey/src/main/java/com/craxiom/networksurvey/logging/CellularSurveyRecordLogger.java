@@ -29,7 +29,6 @@ import com.craxiom.networksurvey.constants.csv.UmtsCsvConstants;
 import com.craxiom.networksurvey.listeners.ICellularSurveyRecordListener;
 import com.craxiom.networksurvey.services.NetworkSurveyService;
 import com.craxiom.networksurvey.util.MathUtils;
-import com.craxiom.networksurvey.util.NsUtils;
 import com.google.common.base.Strings;
 
 import java.sql.SQLException;
@@ -44,8 +43,6 @@ import mil.nga.geopackage.db.GeoPackageDataType;
 import mil.nga.geopackage.features.columns.GeometryColumns;
 import mil.nga.geopackage.features.columns.GeometryColumnsDao;
 import mil.nga.geopackage.features.user.FeatureColumn;
-import mil.nga.geopackage.features.user.FeatureDao;
-import mil.nga.geopackage.features.user.FeatureRow;
 import mil.nga.geopackage.features.user.FeatureTable;
 import mil.nga.geopackage.geom.GeoPackageGeometryData;
 import mil.nga.geopackage.srs.SpatialReferenceSystem;
@@ -72,33 +69,33 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
     }
 
     @Override
-    public void onGsmSurveyRecord(GsmRecord gsmRecord)
+    public void onGsmSurveyRecord(GsmRecord gsmRecord, long epochMillis)
     {
-        writeGsmRecordToLogFile(gsmRecord);
+        writeGsmRecordToLogFile(gsmRecord, epochMillis);
     }
 
     @Override
-    public void onCdmaSurveyRecord(CdmaRecord cdmaRecord)
+    public void onCdmaSurveyRecord(CdmaRecord cdmaRecord, long epochMillis)
     {
-        writeCdmaRecordToLogFile(cdmaRecord);
+        writeCdmaRecordToLogFile(cdmaRecord, epochMillis);
     }
 
     @Override
-    public void onUmtsSurveyRecord(UmtsRecord umtsRecord)
+    public void onUmtsSurveyRecord(UmtsRecord umtsRecord, long epochMillis)
     {
-        writeUmtsRecordToLogFile(umtsRecord);
+        writeUmtsRecordToLogFile(umtsRecord, epochMillis);
     }
 
     @Override
-    public void onLteSurveyRecord(LteRecord lteRecord)
+    public void onLteSurveyRecord(LteRecord lteRecord, long epochMillis)
     {
-        writeLteRecordToLogFile(lteRecord);
+        writeLteRecordToLogFile(lteRecord, epochMillis);
     }
 
     @Override
-    public void onNrSurveyRecord(NrRecord nrRecord)
+    public void onNrSurveyRecord(NrRecord nrRecord, long epochMillis)
     {
-        writeNrRecordToLogFile(nrRecord);
+        writeNrRecordToLogFile(nrRecord, epochMillis);
     }
 
     @Override
@@ -185,7 +182,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
      * @param srs        The SRS to use for the table coordinates.
      * @throws SQLException If there is a problem working with the GeoPackage SQLite DB.
      */
-    private void createLteRecordTable(GeoPackage geoPackage, SpatialReferenceSystem srs) throws SQLException
+    static void createLteRecordTable(GeoPackage geoPackage, SpatialReferenceSystem srs) throws SQLException
     {
         createTable(LteMessageConstants.LTE_RECORDS_TABLE_NAME, geoPackage, srs, true, (tableColumns, columnNumber) -> {
             tableColumns.add(FeatureColumn.createColumn(columnNumber++, LteMessageConstants.MCC_COLUMN, GeoPackageDataType.SMALLINT, false, null));
@@ -284,9 +281,10 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
     /**
      * Given a GSM Record, write it to the GeoPackage log file.
      *
-     * @param gsmRecord The GSM Record to write to the log file.
+     * @param gsmRecord   The GSM Record to write to the log file.
+     * @param epochMillis The device time of the record as Unix Epoch millis.
      */
-    private void writeGsmRecordToLogFile(final GsmRecord gsmRecord)
+    private void writeGsmRecordToLogFile(final GsmRecord gsmRecord, final long epochMillis)
     {
         if (!loggingEnabled) return;
 
@@ -297,8 +295,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                 {
                     if (geoPackage != null)
                     {
-                        FeatureDao featureDao = geoPackage.getFeatureDao(GsmMessageConstants.GSM_RECORDS_TABLE_NAME);
-                        FeatureRow row = featureDao.newRow();
+                        final GeoPackageRowInserter row = getRowInserter(GsmMessageConstants.GSM_RECORDS_TABLE_NAME);
 
                         final GsmRecordData data = gsmRecord.getData();
 
@@ -310,7 +307,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                         row.setGeometry(geomData);
 
                         row.setValue(GsmCsvConstants.DEVICE_SERIAL_NUMBER, data.getDeviceSerialNumber());
-                        row.setValue(GsmMessageConstants.TIME_COLUMN, NsUtils.getEpochFromRfc3339(data.getDeviceTime()));
+                        row.setValue(GsmMessageConstants.TIME_COLUMN, epochMillis);
                         row.setValue(GsmMessageConstants.MISSION_ID_COLUMN, data.getMissionId());
                         row.setValue(GsmMessageConstants.RECORD_NUMBER_COLUMN, data.getRecordNumber());
                         row.setValue(GsmMessageConstants.GROUP_NUMBER_COLUMN, data.getGroupNumber());
@@ -365,7 +362,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                             setShortValue(row, CellularCsvConstants.SLOT, data.getSlot().getValue());
                         }
 
-                        featureDao.insert(row);
+                        row.insert();
 
                         checkIfRolloverNeeded();
                     }
@@ -380,9 +377,10 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
     /**
      * Given a CDMA Record, write it to the GeoPackage log file.
      *
-     * @param cdmaRecord The CDMA Record to write to the log file.
+     * @param cdmaRecord  The CDMA Record to write to the log file.
+     * @param epochMillis The device time of the record as Unix Epoch millis.
      */
-    private void writeCdmaRecordToLogFile(final CdmaRecord cdmaRecord)
+    private void writeCdmaRecordToLogFile(final CdmaRecord cdmaRecord, final long epochMillis)
     {
         if (!loggingEnabled) return;
 
@@ -393,8 +391,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                 {
                     if (geoPackage != null)
                     {
-                        FeatureDao featureDao = geoPackage.getFeatureDao(CdmaMessageConstants.CDMA_RECORDS_TABLE_NAME);
-                        FeatureRow row = featureDao.newRow();
+                        final GeoPackageRowInserter row = getRowInserter(CdmaMessageConstants.CDMA_RECORDS_TABLE_NAME);
 
                         final CdmaRecordData data = cdmaRecord.getData();
 
@@ -406,7 +403,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                         row.setGeometry(geomData);
 
                         row.setValue(CdmaCsvConstants.DEVICE_SERIAL_NUMBER, data.getDeviceSerialNumber());
-                        row.setValue(CdmaMessageConstants.TIME_COLUMN, NsUtils.getEpochFromRfc3339(data.getDeviceTime()));
+                        row.setValue(CdmaMessageConstants.TIME_COLUMN, epochMillis);
                         row.setValue(CdmaMessageConstants.MISSION_ID_COLUMN, data.getMissionId());
                         row.setValue(CdmaMessageConstants.RECORD_NUMBER_COLUMN, data.getRecordNumber());
                         row.setValue(CdmaMessageConstants.GROUP_NUMBER_COLUMN, data.getGroupNumber());
@@ -453,7 +450,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                             setShortValue(row, CellularCsvConstants.SLOT, data.getSlot().getValue());
                         }
 
-                        featureDao.insert(row);
+                        row.insert();
 
                         checkIfRolloverNeeded();
                     }
@@ -468,9 +465,10 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
     /**
      * Given a UMTS Record, write it to the GeoPackage log file.
      *
-     * @param umtsRecord The UMTS Record to write to the log file.
+     * @param umtsRecord  The UMTS Record to write to the log file.
+     * @param epochMillis The device time of the record as Unix Epoch millis.
      */
-    private void writeUmtsRecordToLogFile(final UmtsRecord umtsRecord)
+    private void writeUmtsRecordToLogFile(final UmtsRecord umtsRecord, final long epochMillis)
     {
         if (!loggingEnabled) return;
 
@@ -481,8 +479,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                 {
                     if (geoPackage != null)
                     {
-                        FeatureDao featureDao = geoPackage.getFeatureDao(UmtsMessageConstants.UMTS_RECORDS_TABLE_NAME);
-                        FeatureRow row = featureDao.newRow();
+                        final GeoPackageRowInserter row = getRowInserter(UmtsMessageConstants.UMTS_RECORDS_TABLE_NAME);
 
                         final UmtsRecordData data = umtsRecord.getData();
 
@@ -494,7 +491,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                         row.setGeometry(geomData);
 
                         row.setValue(UmtsCsvConstants.DEVICE_SERIAL_NUMBER, data.getDeviceSerialNumber());
-                        row.setValue(UmtsMessageConstants.TIME_COLUMN, NsUtils.getEpochFromRfc3339(data.getDeviceTime()));
+                        row.setValue(UmtsMessageConstants.TIME_COLUMN, epochMillis);
                         row.setValue(UmtsMessageConstants.MISSION_ID_COLUMN, data.getMissionId());
                         row.setValue(UmtsMessageConstants.RECORD_NUMBER_COLUMN, data.getRecordNumber());
                         row.setValue(UmtsMessageConstants.GROUP_NUMBER_COLUMN, data.getGroupNumber());
@@ -549,7 +546,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                             setShortValue(row, CellularCsvConstants.SLOT, data.getSlot().getValue());
                         }
 
-                        featureDao.insert(row);
+                        row.insert();
 
                         checkIfRolloverNeeded();
                     }
@@ -564,9 +561,10 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
     /**
      * Given an LTE Record, write it to the GeoPackage log file.
      *
-     * @param lteRecord The LTE Record to write to the log file.
+     * @param lteRecord   The LTE Record to write to the log file.
+     * @param epochMillis The device time of the record as Unix Epoch millis.
      */
-    private void writeLteRecordToLogFile(final LteRecord lteRecord)
+    private void writeLteRecordToLogFile(final LteRecord lteRecord, final long epochMillis)
     {
         if (!loggingEnabled) return;
 
@@ -577,8 +575,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                 {
                     if (geoPackage != null)
                     {
-                        FeatureDao featureDao = geoPackage.getFeatureDao(LteMessageConstants.LTE_RECORDS_TABLE_NAME);
-                        FeatureRow row = featureDao.newRow();
+                        final GeoPackageRowInserter row = getRowInserter(LteMessageConstants.LTE_RECORDS_TABLE_NAME);
 
                         final LteRecordData data = lteRecord.getData();
 
@@ -590,7 +587,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                         row.setGeometry(geomData);
 
                         row.setValue(LteCsvConstants.DEVICE_SERIAL_NUMBER, data.getDeviceSerialNumber());
-                        row.setValue(LteMessageConstants.TIME_COLUMN, NsUtils.getEpochFromRfc3339(data.getDeviceTime()));
+                        row.setValue(LteMessageConstants.TIME_COLUMN, epochMillis);
                         row.setValue(LteMessageConstants.MISSION_ID_COLUMN, data.getMissionId());
                         row.setValue(LteMessageConstants.RECORD_NUMBER_COLUMN, data.getRecordNumber());
                         row.setValue(LteMessageConstants.GROUP_NUMBER_COLUMN, data.getGroupNumber());
@@ -664,7 +661,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
 
                         setLteBandwidth(row, data.getLteBandwidth());
 
-                        featureDao.insert(row);
+                        row.insert();
 
                         checkIfRolloverNeeded();
                     }
@@ -679,10 +676,11 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
     /**
      * Given an NR Record, write it to the GeoPackage log file.
      *
-     * @param nrRecord The NR Record to write to the log file.
+     * @param nrRecord    The NR Record to write to the log file.
+     * @param epochMillis The device time of the record as Unix Epoch millis.
      * @since 1.5.0
      */
-    private void writeNrRecordToLogFile(final NrRecord nrRecord)
+    private void writeNrRecordToLogFile(final NrRecord nrRecord, final long epochMillis)
     {
         if (!loggingEnabled) return;
 
@@ -693,8 +691,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                 {
                     if (geoPackage != null)
                     {
-                        FeatureDao featureDao = geoPackage.getFeatureDao(NrMessageConstants.NR_RECORDS_TABLE_NAME);
-                        FeatureRow row = featureDao.newRow();
+                        final GeoPackageRowInserter row = getRowInserter(NrMessageConstants.NR_RECORDS_TABLE_NAME);
 
                         final NrRecordData data = nrRecord.getData();
 
@@ -706,7 +703,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                         row.setGeometry(geomData);
 
                         row.setValue(NrCsvConstants.DEVICE_SERIAL_NUMBER, data.getDeviceSerialNumber());
-                        row.setValue(NrMessageConstants.DEVICE_TIME_COLUMN, NsUtils.getEpochFromRfc3339(data.getDeviceTime()));
+                        row.setValue(NrMessageConstants.DEVICE_TIME_COLUMN, epochMillis);
                         row.setValue(NrMessageConstants.MISSION_ID_COLUMN, data.getMissionId());
                         row.setValue(NrMessageConstants.RECORD_NUMBER_COLUMN, data.getRecordNumber());
                         row.setValue(NrMessageConstants.GROUP_NUMBER_COLUMN, data.getGroupNumber());
@@ -779,7 +776,7 @@ public class CellularSurveyRecordLogger extends SurveyRecordLogger implements IC
                             setShortValue(row, CellularCsvConstants.SLOT, data.getSlot().getValue());
                         }
 
-                        featureDao.insert(row);
+                        row.insert();
 
                         checkIfRolloverNeeded();
                     }
@@ -7,6 +7,8 @@ import android.os.Looper;
 import android.widget.Toast;
 
 import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
+import com.craxiom.networksurvey.metrics.MeteredHandler;
+import com.craxiom.networksurvey.metrics.PipelineMetrics;
 import com.craxiom.networksurvey.services.NetworkSurveyService;
 import com.craxiom.networksurvey.services.SurveyRecordProcessor;
 import com.craxiom.networksurvey.util.NsUtils;
@@ -18,15 +20,12 @@ import org.apache.commons.csv.CSVPrinter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.math.RoundingMode;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.text.DecimalFormat;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import timber.log.Timber;
@@ -48,7 +47,7 @@ public abstract class CsvRecordLogger
      */
     protected final Object csvFileLock = new Object();
 
-    private final DecimalFormat twoDecimalFormat = new DecimalFormat("#.##");
+    private final CsvValueFormatter valueFormatter = new CsvValueFormatter();
 
     private Context applicationContext;
     final Handler handler;
@@ -75,12 +74,11 @@ public abstract class CsvRecordLogger
                     String logDirectoryName, String fileNamePrefix, boolean lazyFileCreation)
     {
         applicationContext = networkSurveyService.getApplicationContext();
-        handler = new Handler(serviceLooper);
+        handler = new MeteredHandler(serviceLooper, PipelineMetrics.LOGGER_HANDLER_BACKLOG,
+                PipelineMetrics.LOGGER_HANDLER_WAIT, PipelineMetrics.LOGGER_HANDLER_RUN);
         this.logDirectoryName = logDirectoryName;
         this.fileNamePrefix = fileNamePrefix;
         this.lazyFileCreation = lazyFileCreation;
-
-        twoDecimalFormat.setRoundingMode(RoundingMode.CEILING);
     }
 
     public void onDestroy()
@@ -199,11 +197,7 @@ public abstract class CsvRecordLogger
         String[] additionalComments = getHeaderComments();
         Collections.addAll(headerComments, additionalComments);
 
-        CSVFormat csvFormat = CSVFormat.Builder.create()
-                .setCommentMarker('#')
-                .setHeaderComments(headerComments.toArray(new String[0]))
-                .setHeader(getHeaders())
-                .build();
+        CSVFormat csvFormat = createCsvFormat(headerComments.toArray(new String[0]), getHeaders());
         try
         {
             final FileWriter out = new FileWriter(loggingFileName);
@@ -235,6 +229,23 @@ public abstract class CsvRecordLogger
         return true;
     }
 
+    /**
+     * Creates the format that all the CSV log files are written with.
+     *
+     * @param headerComments The comments to write at the top of the file.
+     * @param headers        The column names.
+     * @return The CSV format.
+     * @since 1.43
+     */
+    public static CSVFormat createCsvFormat(String[] headerComments, String[] headers)
+    {
+        return CSVFormat.Builder.create()
+                .setCommentMarker('#')
+                .setHeaderComments(headerComments)
+                .setHeader(headers)
+                .build();
+    }
+
     /**
      * Updates the rollover size from the SharedPreferences, or the MDM properties if enabled.
      *
@@ -433,6 +444,14 @@ public abstract class CsvRecordLogger
         }
     }
 
+    /**
+     * @return The formatter for the location and measurement values of this logger's rows.
+     */
+    CsvValueFormatter getValueFormatter()
+    {
+        return valueFormatter;
+    }
+
     /**
      * Trims a double (location) to six decimal places, not removing extra zeros.
      *
@@ -441,7 +460,7 @@ public abstract class CsvRecordLogger
      */
     String trimToSixDecimalPlaces(double value)
     {
-        return String.format(Locale.getDefault(), "%.6f", value);
+        return valueFormatter.trimToSixDecimalPlaces(value);
     }
 
     /**
@@ -452,6 +471,6 @@ public abstract class CsvRecordLogger
      */
     String roundToTwoDecimalPlaces(double value)
     {
-        return twoDecimalFormat.format(value);
+        return valueFormatter.roundToTwoDecimalPlaces(value);
     }
 }
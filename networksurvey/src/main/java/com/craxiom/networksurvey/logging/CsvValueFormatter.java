@@ -0,0 +1,45 @@
+package com.craxiom.networksurvey.logging;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.util.Locale;
+
+/**
+ * Formats the location and measurement values for the CSV survey record loggers.
+ * <p>
+ * This only depends on the JDK, so the same formatting that the loggers use can be measured in the JVM
+ * benchmarks. An instance is not thread safe since the {@link DecimalFormat} is not; each logger has its own.
+ *
+ * @since 1.43
+ */
+public final class CsvValueFormatter
+{
+    private final DecimalFormat twoDecimalFormat = new DecimalFormat("#.##");
+
+    public CsvValueFormatter()
+    {
+        twoDecimalFormat.setRoundingMode(RoundingMode.CEILING);
+    }
+
+    /**
+     * Trims a double (location) to six decimal places, not removing extra zeros.
+     *
+     * @param value The double to trim.
+     * @return The trimmed double as a string.
+     */
+    public String trimToSixDecimalPlaces(double value)
+    {
+        return String.format(Locale.getDefault(), "%.6f", value);
+    }
+
+    /**
+     * Rounds a double to 2 decimal places, removing extra zeros.
+     *
+     * @param value The double to round.
+     * @return The rounded double as a string.
+     */
+    public String roundToTwoDecimalPlaces(double value)
+    {
+        return twoDecimalFormat.format(value);
+    }
+}
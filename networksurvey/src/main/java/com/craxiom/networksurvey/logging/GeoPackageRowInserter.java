@@ -0,0 +1,196 @@
+package com.craxiom.networksurvey.logging;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import mil.nga.geopackage.GeoPackage;
+import mil.nga.geopackage.features.user.FeatureColumn;
+import mil.nga.geopackage.features.user.FeatureDao;
+import mil.nga.geopackage.features.user.FeatureTable;
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+
+/**
+ * Inserts rows in to a single GeoPackage feature table through one compiled INSERT statement.
+ * <p>
+ * Going through {@link GeoPackage#getFeatureDao(String)}, {@link FeatureDao#newRow()} and
+ * {@link FeatureDao#insert(mil.nga.geopackage.features.user.FeatureRow)} for every record reads the table
+ * definition from the database, looks up each column with a case insensitive name match, and builds a new
+ * {@code ContentValues} and INSERT statement for each row. Survey logging writes tens of rows a second to
+ * the same few tables for the whole life of the file, so instead the table definition is read once when
+ * this inserter is created, the column name to bind index map is built once, and each row is bound
+ * positionally to the same compiled statement.
+ * <p>
+ * An inserter is tied to the GeoPackage it was created for, and must be closed before that GeoPackage is
+ * closed. It is not thread safe; it is only used while holding the logger's GeoPackage lock.
+ *
+ * @since 1.43
+ */
+class GeoPackageRowInserter
+{
+    private final String tableName;
+    private final SQLiteStatement insertStatement;
+    private final Map<String, Integer> bindIndexes;
+    private final int geometryBindIndex;
+    /**
+     * The value to bind for each column of the next row. Index 0 is not used so that the bind indexes,
+     * which start at 1, can be used directly.
+     */
+    private final Object[] values;
+    private final Object[] defaultValues;
+
+    /**
+     * Resolves the feature table and compiles the INSERT statement for it.
+     *
+     * @param geoPackage The GeoPackage that the rows will be written to.
+     * @param tableName  The name of the feature table.
+     */
+    GeoPackageRowInserter(GeoPackage geoPackage, String tableName)
+    {
+        this.tableName = tableName;
+
+        final FeatureDao featureDao = geoPackage.getFeatureDao(tableName);
+        final FeatureTable table = featureDao.getTable();
+        final String geometryColumnName = table.getGeometryColumnName();
+
+        final List<FeatureColumn> columns = table.getColumns();
+        bindIndexes = new HashMap<>(columns.size() * 2);
+        values = new Object[columns.size() + 1];
+        defaultValues = new Object[columns.size() + 1];
+
+        final StringBuilder columnList = new StringBuilder();
+        final StringBuilder placeholders = new StringBuilder();
+        int bindIndex = 0;
+        int geometryIndex = -1;
+        for (FeatureColumn column : columns)
+        {
+            // The primary key is assigned by SQLite
+            if (column.isPrimaryKey()) continue;
+
+            bindIndex++;
+            final String columnName = column.getName();
+            bindIndexes.put(columnName, bindIndex);
+            if (columnName.equals(geometryColumnName)) geometryIndex = bindIndex;
+
+            // Columns like the record number are NOT NULL with a default, so the default has to be bound
+            // when no value is set since every column is part of the statement
+            if (column.isNotNull()) defaultValues[bindIndex] = column.getDefaultValue();
+
+            if (bindIndex > 1)
+            {
+                columnList.append(", ");
+                placeholders.append(", ");
+            }
+            columnList.append('"').append(columnName).append('"');
+            placeholders.append('?');
+        }
+        geometryBindIndex = geometryIndex;
+
+        final String sql = "INSERT INTO \"" + tableName + "\" (" + columnList + ") VALUES (" + placeholders + ")";
+        final SQLiteDatabase database = geoPackage.getConnection().getDb().getAndroidSQLiteDatabase();
+        insertStatement = database.compileStatement(sql);
+
+        clearValues();
+    }
+
+    String getTableName()
+    {
+        return tableName;
+    }
+
+    /**
+     * Sets the geometry of the next row.
+     *
+     * @throws IOException If the geometry could not be encoded.
+     */
+    void setGeometry(GeoPackageGeometryData geometryData) throws IOException
+    {
+        values[geometryBindIndex] = geometryData.toBytes();
+    }
+
+    /**
+     * Sets a value of the next row.
+     * <p>
+     * The column names passed in are string constants, so their hash codes are cached and this is a single
+     * probe of the small bind index map, which is nothing next to executing the insert.
+     *
+     * @param columnName The name of the column, exactly as it was defined when the table was created.
+     * @param value      The value, which can be a String, Number, Boolean, byte[], or null.
+     * @throws IllegalArgumentException If the table does not have the column.
+     */
+    void setValue(String columnName, Object value)
+    {
+        final Integer bindIndex = bindIndexes.get(columnName);
+        if (bindIndex == null)
+        {
+            throw new IllegalArgumentException("The " + tableName + " table does not have a column named " + columnName);
+        }
+        values[bindIndex] = value;
+    }
+
+    /**
+     * Inserts the row with all the values that were set since the last insert, and then clears the values
+     * for the next row.
+     *
+     * @return The row ID of the new row.
+     */
+    long insert()
+    {
+        try
+        {
+            for (int i = 1; i < values.length; i++)
+            {
+                bind(i, values[i]);
+            }
+            return insertStatement.executeInsert();
+        } finally
+        {
+            insertStatement.clearBindings();
+            clearValues();
+        }
+    }
+
+    /**
+     * Releases the compiled statement. Must be called before the GeoPackage is closed.
+     */
+    void close()
+    {
+        insertStatement.close();
+    }
+
+    private void bind(int bindIndex, Object value)
+    {
+        if (value == null)
+        {
+            insertStatement.bindNull(bindIndex);
+        } else if (value instanceof String)
+        {
+            insertStatement.bindString(bindIndex, (String) value);
+        } else if (value instanceof Float || value instanceof Double)
+        {
+            insertStatement.bindDouble(bindIndex, ((Number) value).doubleValue());
+        } else if (value instanceof Number)
+        {
+            insertStatement.bindLong(bindIndex, ((Number) value).longValue());
+        } else if (value instanceof Boolean)
+        {
+            // GeoPackage stores booleans as 0 or 1
+            insertStatement.bindLong(bindIndex, (Boolean) value ? 1 : 0);
+        } else if (value instanceof byte[])
+        {
+            insertStatement.bindBlob(bindIndex, (byte[]) value);
+        } else
+        {
+            insertStatement.bindString(bindIndex, value.toString());
+        }
+    }
+
+    private void clearValues()
+    {
+        System.arraycopy(defaultValues, 0, values, 0, values.length);
+    }
+}
@@ -20,8 +20,6 @@ import java.sql.SQLException;
 import mil.nga.geopackage.GeoPackage;
 import mil.nga.geopackage.db.GeoPackageDataType;
 import mil.nga.geopackage.features.user.FeatureColumn;
-import mil.nga.geopackage.features.user.FeatureDao;
-import mil.nga.geopackage.features.user.FeatureRow;
 import mil.nga.geopackage.geom.GeoPackageGeometryData;
 import mil.nga.geopackage.srs.SpatialReferenceSystem;
 import mil.nga.sf.Point;
@@ -64,7 +62,7 @@ public class GnssRecordLogger extends SurveyRecordLogger implements IGnssSurveyR
      * @param srs        The SRS to use for the table coordinates.
      * @throws SQLException If there is a problem working with the GeoPackage SQLite DB.
      */
-    private void createGnssRecordTable(GeoPackage geoPackage, SpatialReferenceSystem srs) throws SQLException
+    static void createGnssRecordTable(GeoPackage geoPackage, SpatialReferenceSystem srs) throws SQLException
     {
         createTable(GnssMessageConstants.GNSS_RECORDS_TABLE_NAME, geoPackage, srs, false, (tableColumns, columnNumber) -> {
             tableColumns.add(FeatureColumn.createColumn(columnNumber++, GnssMessageConstants.GROUP_NUMBER_COLUMN, GeoPackageDataType.MEDIUMINT, true, -1));
@@ -99,8 +97,7 @@ public class GnssRecordLogger extends SurveyRecordLogger implements IGnssSurveyR
                     if (geoPackage != null)
                     {
                         final GnssRecordData data = gnssRecord.getData();
-                        FeatureDao featureDao = geoPackage.getFeatureDao(GnssMessageConstants.GNSS_RECORDS_TABLE_NAME);
-                        FeatureRow row = featureDao.newRow();
+                        final GeoPackageRowInserter row = getRowInserter(GnssMessageConstants.GNSS_RECORDS_TABLE_NAME);
 
                         Point fix = new Point(data.getLongitude(), data.getLatitude(), (double) data.getAltitude());
 
@@ -160,7 +157,7 @@ public class GnssRecordLogger extends SurveyRecordLogger implements IGnssSurveyR
                             row.setValue(GnssMessageConstants.CARRIER_TO_NOISE_DENSITY_DB_HZ, data.getCn0DbHz().getValue());
                         }
 
-                        featureDao.insert(row);
+                        row.insert();
 
                         checkIfRolloverNeeded();
                     }
@@ -46,6 +46,11 @@ import timber.log.Timber;
  */
 public class LteCsvLogger extends CsvRecordLogger implements ICellularSurveyRecordListener
 {
+    public static final String[] HEADERS = {DEVICE_TIME, LATITUDE, LONGITUDE, ALTITUDE, SPEED, ACCURACY,
+            MISSION_ID, RECORD_NUMBER, GROUP_NUMBER,
+            MCC, MNC, TAC, ECI, EARFCN, PCI, RSRP, RSRQ, TA, SERVING_CELL, LTE_BANDWIDTH, PROVIDER, SIGNAL_STRENGTH, CQI, SLOT, SNR,
+            DEVICE_SERIAL_NUMBER, LOCATION_AGE};
+
     public LteCsvLogger(NetworkSurveyService networkSurveyService, Looper serviceLooper)
     {
         super(networkSurveyService, serviceLooper, NetworkSurveyConstants.CSV_LOG_DIRECTORY_NAME,
@@ -55,10 +60,7 @@ public class LteCsvLogger extends CsvRecordLogger implements ICellularSurveyReco
     @Override
     String[] getHeaders()
     {
-        return new String[]{DEVICE_TIME, LATITUDE, LONGITUDE, ALTITUDE, SPEED, ACCURACY,
-                MISSION_ID, RECORD_NUMBER, GROUP_NUMBER,
-                MCC, MNC, TAC, ECI, EARFCN, PCI, RSRP, RSRQ, TA, SERVING_CELL, LTE_BANDWIDTH, PROVIDER, SIGNAL_STRENGTH, CQI, SLOT, SNR,
-                DEVICE_SERIAL_NUMBER, LOCATION_AGE};
+        return HEADERS;
     }
 
     @Override
@@ -72,7 +74,7 @@ public class LteCsvLogger extends CsvRecordLogger implements ICellularSurveyReco
     {
         try
         {
-            writeCsvRecord(convertToObjectArray(record), true);
+            writeCsvRecord(toCsvRow(record, getValueFormatter()), true);
         } catch (IOException e)
         {
             Timber.e(e, "Could not log the LTE record to the CSV file");
@@ -80,10 +82,12 @@ public class LteCsvLogger extends CsvRecordLogger implements ICellularSurveyReco
     }
 
     /**
+     * @param formatter The formatter for the location values, which must not be used by another thread at
+     *                  the same time.
      * @return A String array that contains the LTE record values that can be written out as a CSV
-     * row.
+     * row, in the order of {@link #HEADERS}.
      */
-    private String[] convertToObjectArray(LteRecord record)
+    public static String[] toCsvRow(LteRecord record, CsvValueFormatter formatter)
     {
         LteRecordData data = record.getData();
 
@@ -91,11 +95,11 @@ public class LteCsvLogger extends CsvRecordLogger implements ICellularSurveyReco
 
         return new String[]{
                 data.getDeviceTime(),
-                trimToSixDecimalPlaces(data.getLatitude()),
-                trimToSixDecimalPlaces(data.getLongitude()),
-                roundToTwoDecimalPlaces(data.getAltitude()),
-                roundToTwoDecimalPlaces(data.getSpeed()),
-                roundToTwoDecimalPlaces(data.getAccuracy()),
+                formatter.trimToSixDecimalPlaces(data.getLatitude()),
+                formatter.trimToSixDecimalPlaces(data.getLongitude()),
+                formatter.roundToTwoDecimalPlaces(data.getAltitude()),
+                formatter.roundToTwoDecimalPlaces(data.getSpeed()),
+                formatter.roundToTwoDecimalPlaces(data.getAccuracy()),
                 data.getMissionId(),
                 String.valueOf(data.getRecordNumber()),
                 String.valueOf(data.getGroupNumber()),
@@ -43,8 +43,6 @@ import java.util.List;
 import mil.nga.geopackage.GeoPackage;
 import mil.nga.geopackage.db.GeoPackageDataType;
 import mil.nga.geopackage.features.user.FeatureColumn;
-import mil.nga.geopackage.features.user.FeatureDao;
-import mil.nga.geopackage.features.user.FeatureRow;
 import mil.nga.geopackage.geom.GeoPackageGeometryData;
 import mil.nga.geopackage.srs.SpatialReferenceSystem;
 import mil.nga.sf.Point;
@@ -103,8 +101,7 @@ public class PhoneStateRecordLogger extends SurveyRecordLogger implements IDevic
                     if (geoPackage != null)
                     {
                         final PhoneStateData data = phoneState.getData();
-                        FeatureDao featureDao = geoPackage.getFeatureDao(PHONE_STATE_TABLE_NAME);
-                        FeatureRow row = featureDao.newRow();
+                        final GeoPackageRowInserter row = getRowInserter(PHONE_STATE_TABLE_NAME);
 
                         row.setGeometry(buildGeometry(data));
                         row.setValue(LATITUDE_COLUMN, data.getLatitude());
@@ -147,7 +144,7 @@ public class PhoneStateRecordLogger extends SurveyRecordLogger implements IDevic
                         String networkRegistrationJson = jsonList.toString();
                         row.setValue(NETWORK_REGISTRATION_COLUMN, networkRegistrationJson);
 
-                        featureDao.insert(row);
+                        row.insert();
 
                         checkIfRolloverNeeded();
                     }
@@ -0,0 +1,178 @@
+package com.craxiom.networksurvey.logging;
+
+/**
+ * Predicts when a log file will reach its rollover size so that the size only has to be measured
+ * occasionally, but the rollover still happens right at the size threshold.
+ * <p>
+ * The size is measured by the caller (for a GeoPackage that is the SQLite page count multiplied by the
+ * page size). From the measurements the tracker learns the average number of bytes each row adds, and
+ * uses that to schedule the next measurement for half of the rows that are predicted to be left before
+ * the threshold. Far from the threshold the measurements are rare, and close to it they happen every
+ * few rows, so the file is rolled over within a row or two of the threshold.
+ * <p>
+ * Once the size passes {@link #PREPARE_FRACTION} of the threshold the tracker asks the caller to prepare
+ * the next file, so that the new file can be created in the background before it is needed.
+ * <p>
+ * This class is not thread safe. It is only used from the thread that writes the rows.
+ *
+ * @since 1.43
+ */
+class RolloverSizeTracker
+{
+    /**
+     * The number of rows to write to a new file before the first measurement, which is used to learn
+     * the average row size.
+     */
+    static final int CALIBRATION_ROWS = 100;
+    /**
+     * The most rows that are written between two measurements, no matter how far away the threshold is.
+     */
+    static final int MAX_ROWS_BETWEEN_MEASUREMENTS = 5000;
+    static final double PREPARE_FRACTION = 0.9;
+
+    enum Decision
+    {
+        /**
+         * Keep writing to the current file.
+         */
+        CONTINUE,
+        /**
+         * The file is getting close to the threshold, so the next file should be prepared.
+         */
+        PREPARE_NEXT,
+        /**
+         * The file has reached the threshold and should be rolled over.
+         */
+        ROLLOVER
+    }
+
+    private long rolloverSizeBytes;
+    private long initialSizeBytes;
+    private long lastMeasuredSizeBytes;
+    private long rowsInFile;
+    private int rowsSinceMeasurement;
+    private int rowsUntilMeasurement = CALIBRATION_ROWS;
+    private double bytesPerRow;
+    private boolean prepareRequested;
+    private long measurementCount;
+
+    /**
+     * @param rolloverSizeBytes The size at which to roll over the file, or 0 to never roll over.
+     */
+    RolloverSizeTracker(long rolloverSizeBytes)
+    {
+        this.rolloverSizeBytes = rolloverSizeBytes;
+    }
+
+    /**
+     * Updates the rollover threshold. The next row triggers a measurement so that a smaller threshold
+     * takes effect right away.
+     *
+     * @param rolloverSizeBytes The size at which to roll over the file, or 0 to never roll over.
+     */
+    void setRolloverSizeBytes(long rolloverSizeBytes)
+    {
+        this.rolloverSizeBytes = rolloverSizeBytes;
+        rowsUntilMeasurement = 1;
+        prepareRequested = false;
+    }
+
+    long getRolloverSizeBytes()
+    {
+        return rolloverSizeBytes;
+    }
+
+    /**
+     * Starts tracking a new file.
+     *
+     * @param initialSizeBytes The size of the new file before any rows are written (e.g. the table definitions).
+     */
+    void reset(long initialSizeBytes)
+    {
+        this.initialSizeBytes = initialSizeBytes;
+        lastMeasuredSizeBytes = initialSizeBytes;
+        rowsInFile = 0;
+        rowsSinceMeasurement = 0;
+        // The row size learned from the last file is a good starting point for the new one
+        rowsUntilMeasurement = bytesPerRow > 0 ? computeRowsUntilMeasurement() : CALIBRATION_ROWS;
+        prepareRequested = false;
+    }
+
+    /**
+     * Must be called after each row is written.
+     *
+     * @return True if the file size should be measured and passed to {@link #onMeasured(long)}.
+     */
+    boolean onRowWritten()
+    {
+        rowsInFile++;
+        if (rolloverSizeBytes <= 0) return false;
+
+        return ++rowsSinceMeasurement >= rowsUntilMeasurement;
+    }
+
+    /**
+     * Updates the tracker with the measured size of the current file.
+     *
+     * @param sizeBytes The current size of the file.
+     * @return What the caller should do next.
+     */
+    Decision onMeasured(long sizeBytes)
+    {
+        measurementCount++;
+        lastMeasuredSizeBytes = sizeBytes;
+        rowsSinceMeasurement = 0;
+
+        // Use all the rows in the file rather than since the last measurement since the size grows a
+        // page at a time, which makes the growth between two close measurements very noisy
+        if (rowsInFile > 0 && sizeBytes > initialSizeBytes)
+        {
+            bytesPerRow = (double) (sizeBytes - initialSizeBytes) / rowsInFile;
+        }
+
+        if (rolloverSizeBytes <= 0) return Decision.CONTINUE;
+
+        rowsUntilMeasurement = computeRowsUntilMeasurement();
+
+        if (sizeBytes >= rolloverSizeBytes) return Decision.ROLLOVER;
+
+        if (!prepareRequested && sizeBytes >= rolloverSizeBytes * PREPARE_FRACTION)
+        {
+            prepareRequested = true;
+            return Decision.PREPARE_NEXT;
+        }
+
+        return Decision.CONTINUE;
+    }
+
+    /**
+     * @return The estimated size of the file, based on the last measurement and the rows written since.
+     */
+    long getEstimatedSizeBytes()
+    {
+        return lastMeasuredSizeBytes + Math.round(rowsSinceMeasurement * bytesPerRow);
+    }
+
+    long getRowsInFile()
+    {
+        return rowsInFile;
+    }
+
+    /**
+     * @return The number of times the size was measured, which is useful to see how well the prediction is working.
+     */
+    long getMeasurementCount()
+    {
+        return measurementCount;
+    }
+
+    private int computeRowsUntilMeasurement()
+    {
+        if (bytesPerRow <= 0) return CALIBRATION_ROWS;
+
+        final double rowsLeft = (rolloverSizeBytes - lastMeasuredSizeBytes) / bytesPerRow;
+        if (rowsLeft <= 2) return 1;
+
+        return (int) Math.min(MAX_ROWS_BETWEEN_MEASUREMENTS, rowsLeft / 2);
+    }
+}
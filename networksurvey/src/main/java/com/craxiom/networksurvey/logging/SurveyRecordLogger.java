@@ -4,6 +4,7 @@ import android.content.Context;
 import android.os.Environment;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.widget.Toast;
 
 import com.craxiom.messaging.LteBandwidth;
@@ -13,6 +14,8 @@ import com.craxiom.networksurvey.constants.MessageConstants;
 import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
 import com.craxiom.networksurvey.constants.csv.CellularCsvConstants;
 import com.craxiom.networksurvey.constants.csv.CsvConstants;
+import com.craxiom.networksurvey.metrics.MeteredHandler;
+import com.craxiom.networksurvey.metrics.PipelineMetrics;
 import com.craxiom.networksurvey.services.NetworkSurveyService;
 import com.craxiom.networksurvey.services.SurveyRecordProcessor;
 import com.craxiom.networksurvey.util.PreferenceUtils;
@@ -20,10 +23,13 @@ import com.craxiom.networksurvey.util.PreferenceUtils;
 import java.io.File;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.BiConsumer;
 
 import mil.nga.geopackage.GeoPackage;
@@ -36,7 +42,6 @@ import mil.nga.geopackage.db.GeoPackageDataType;
 import mil.nga.geopackage.features.columns.GeometryColumns;
 import mil.nga.geopackage.features.columns.GeometryColumnsDao;
 import mil.nga.geopackage.features.user.FeatureColumn;
-import mil.nga.geopackage.features.user.FeatureRow;
 import mil.nga.geopackage.features.user.FeatureTable;
 import mil.nga.geopackage.srs.SpatialReferenceSystem;
 import mil.nga.proj.ProjectionConstants;
@@ -53,9 +58,24 @@ import timber.log.Timber;
 public abstract class SurveyRecordLogger
 {
     private static final String JOURNAL_FILE_SUFFIX = "-journal";
-    private static final int RECORD_COUNT_INTERVAL = 5000;
     static final long WGS84_SRS = 4326;
 
+    /**
+     * The SQLite page cache for each open GeoPackage, in KiB (a negative cache_size is in KiB).
+     */
+    private static final int SQLITE_CACHE_SIZE_KIB = 4096;
+
+    /**
+     * Creates the next GeoPackage file ahead of a rollover, and closes the previous one after it, so that
+     * neither of those slow operations runs on the logging handler. Shared by all the loggers since
+     * rollovers are rare.
+     */
+    private static final ExecutorService ROLLOVER_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "GeoPackageRollover");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private NetworkSurveyService networkSurveyService;
     private Context applicationContext;
     Handler handler;
@@ -68,6 +88,13 @@ public abstract class SurveyRecordLogger
     volatile boolean loggingEnabled;
     private String logFileDirectoryPath;
 
+    /**
+     * The row inserters for the tables of {@link #rowInsertersGeoPackage}, keyed by table name. Only
+     * accessed while holding the {@link #geoPackageLock}.
+     */
+    private final Map<String, GeoPackageRowInserter> rowInserters = new HashMap<>();
+    private GeoPackage rowInsertersGeoPackage;
+
     /**
      * A lock to synchronize the writing of single records and the creation of a new GeoPackage file
      * during rollover.
@@ -86,7 +113,9 @@ public abstract class SurveyRecordLogger
     {
         this.networkSurveyService = networkSurveyService;
         applicationContext = networkSurveyService.getApplicationContext();
-        handler = new Handler(serviceLooper);
+        // All the loggers share the service looper, so they report to the same backlog metrics
+        handler = new MeteredHandler(serviceLooper, PipelineMetrics.LOGGER_HANDLER_BACKLOG,
+                PipelineMetrics.LOGGER_HANDLER_WAIT, PipelineMetrics.LOGGER_HANDLER_RUN);
         this.logDirectoryName = logDirectoryName;
         this.fileNamePrefix = fileNamePrefix;
 
@@ -129,10 +158,11 @@ public abstract class SurveyRecordLogger
                     if (loggingEnabled)
                     {
                         loggingEnabled = false;
+                        closeRowInserters();
                         geoPackage.close();
                         geoPackage = null;
+                        rolloverWorker.discardPreparedGeoPackage();
                         removeTempFiles();
-                        rolloverWorker.reset();
                         return true;
                     }
 
@@ -141,16 +171,22 @@ public abstract class SurveyRecordLogger
 
                 if (!isExternalStorageWritable()) return false;
 
-                boolean fileCreated = prepareGeoPackageForLogging();
+                geoPackage = createGeoPackage();
+                if (geoPackage == null)
+                {
+                    showErrorToast("Error: Unable to create the GeoPackage file.  No logging will be recorded.");
+                }
 
                 updateRolloverWorker();
+                if (geoPackage != null) rolloverWorker.onNewGeoPackage(geoPackage);
 
-                return loggingEnabled = fileCreated;
+                return loggingEnabled = geoPackage != null;
             } catch (Exception e)
             {
                 Timber.e(e, "Caught an exception when trying prepare GeoPackage file for logging");
                 if (geoPackage != null)
                 {
+                    closeRowInserters();
                     geoPackage.close();
                     geoPackage = null;
                 }
@@ -162,45 +198,104 @@ public abstract class SurveyRecordLogger
     /**
      * Creates and sets up a GeoPackage file to be ready for survey logging.
      * <p>
-     * This method is NOT thread safe and it is assumed the caller has already gotten a lock on the
-     * {@link #geoPackageLock} before making a call to this method.
+     * This method does not touch the {@link #geoPackage} that is currently being logged to, so it can be
+     * called from the rollover thread while the logging handler keeps writing to the current file.
      *
-     * @return True, if the operations were successful.
+     * @return The new GeoPackage, or null if it could not be created. The caller is responsible for letting the user know.
      * @throws SQLException Thrown if database manipulations resulted in failure.
      */
-    private boolean prepareGeoPackageForLogging() throws SQLException
+    private GeoPackage createGeoPackage() throws SQLException
     {
         final String loggingFile = createPublicStorageFilePath();
 
         Timber.i("Creating the log file: %s", loggingFile);
 
         final boolean created = geoPackageManager.create(loggingFile);
-        final Context applicationContext = networkSurveyService.getApplicationContext();
 
         if (!created)
         {
-            final String errorMessage = "Error: Unable to create the GeoPackage file.  No logging will be recorded.";
-            Timber.e(errorMessage);
-            Toast.makeText(applicationContext, errorMessage, Toast.LENGTH_SHORT).show();
-            return false;
+            Timber.e("Unable to create the GeoPackage file %s", loggingFile);
+            return null;
         }
 
-        geoPackage = geoPackageManager.open(loggingFile);
-        if (geoPackage == null)
+        final GeoPackage newGeoPackage = geoPackageManager.open(loggingFile);
+        if (newGeoPackage == null)
         {
-            final String errorMessage = "Error: Unable to open the GeoPackage file.  No logging will be recorded.";
-            Timber.e(errorMessage);
-            Toast.makeText(applicationContext, errorMessage, Toast.LENGTH_SHORT).show();
-            return false;
+            Timber.e("Unable to open the GeoPackage file %s", loggingFile);
+            return null;
         }
 
-        final SpatialReferenceSystem spatialReferenceSystem = geoPackage.getSpatialReferenceSystemDao()
+        configureDatabase(newGeoPackage);
+
+        final SpatialReferenceSystem spatialReferenceSystem = newGeoPackage.getSpatialReferenceSystemDao()
                 .getOrCreateCode(ProjectionConstants.AUTHORITY_EPSG, ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM);
 
-        geoPackage.createGeometryColumnsTable();
-        createTables(geoPackage, spatialReferenceSystem);
+        newGeoPackage.createGeometryColumnsTable();
+        createTables(newGeoPackage, spatialReferenceSystem);
 
-        return true;
+        return newGeoPackage;
+    }
+
+    /**
+     * Tunes the SQLite settings for a survey log, which is a long stream of small inserts.
+     * <ul>
+     *     <li>WAL journaling appends each commit to the write ahead log instead of rewriting the
+     *     rollback journal, which cuts the number of fsync calls per insert.</li>
+     *     <li>synchronous=NORMAL only syncs the WAL at checkpoints. A power loss could lose the last
+     *     few records, but the file can't be corrupted.</li>
+     *     <li>A larger page cache keeps the index pages of the growing tables in memory.</li>
+     * </ul>
+     * The page size is left at the SQLite default (4096 bytes on Android) because the file already
+     * has its GeoPackage tables by the time it is opened, and changing it would require a VACUUM.
+     * When the GeoPackage is closed the WAL is checkpointed back in to the main file, so the closed
+     * file is a normal self-contained GeoPackage.
+     */
+    static void configureDatabase(GeoPackage geoPackage)
+    {
+        try
+        {
+            final Object journalMode = geoPackage.getConnection().querySingleResult("PRAGMA journal_mode=WAL", null);
+            geoPackage.execSQL("PRAGMA synchronous=NORMAL");
+            geoPackage.execSQL("PRAGMA cache_size=-" + SQLITE_CACHE_SIZE_KIB);
+            Timber.d("Configured the GeoPackage %s with journal_mode=%s", geoPackage.getName(), journalMode);
+        } catch (Exception e)
+        {
+            // Not a reason to stop logging, the defaults still work
+            Timber.w(e, "Could not configure the SQLite settings for the GeoPackage");
+        }
+    }
+
+    /**
+     * Returns the size of the GeoPackage database from the page count, which (unlike the length of the
+     * file) includes the pages that are still in the write ahead log.
+     */
+    private long measureSizeBytes(GeoPackage geoPackage)
+    {
+        try
+        {
+            final Object pageCount = geoPackage.getConnection().querySingleResult("PRAGMA page_count", null);
+            final Object pageSize = geoPackage.getConnection().querySingleResult("PRAGMA page_size", null);
+            if (pageCount instanceof Number && pageSize instanceof Number)
+            {
+                return ((Number) pageCount).longValue() * ((Number) pageSize).longValue();
+            }
+        } catch (Exception e)
+        {
+            Timber.w(e, "Could not get the page count of the GeoPackage, falling back to the file length");
+        }
+
+        return geoPackageManager.getFile(geoPackage.getName()).length();
+    }
+
+    private void showErrorToast(String errorMessage)
+    {
+        Timber.e(errorMessage);
+        final Context context = applicationContext;
+        if (context != null)
+        {
+            // This can be called from the rollover thread, which does not have a looper for the toast
+            new Handler(Looper.getMainLooper()).post(() -> Toast.makeText(context, errorMessage, Toast.LENGTH_SHORT).show());
+        }
     }
 
     /**
@@ -215,6 +310,52 @@ public abstract class SurveyRecordLogger
         rolloverWorker.update(logRolloverSize);
     }
 
+    /**
+     * Returns the row inserter for a table in the current GeoPackage. The inserter is created the first
+     * time it is needed for each file, so a new one is created after a rollover.
+     * <p>
+     * Must be called while holding the {@link #geoPackageLock}, and only when {@link #geoPackage} is not null.
+     *
+     * @param tableName The name of the feature table to insert rows in to.
+     * @return The inserter, ready for the values of the next row.
+     */
+    GeoPackageRowInserter getRowInserter(String tableName)
+    {
+        if (rowInsertersGeoPackage != geoPackage)
+        {
+            closeRowInserters();
+            rowInsertersGeoPackage = geoPackage;
+        }
+
+        GeoPackageRowInserter rowInserter = rowInserters.get(tableName);
+        if (rowInserter == null)
+        {
+            rowInserter = new GeoPackageRowInserter(geoPackage, tableName);
+            rowInserters.put(tableName, rowInserter);
+        }
+        return rowInserter;
+    }
+
+    /**
+     * Closes the compiled statements of the current row inserters, which has to happen before the
+     * GeoPackage they were created for is closed.
+     */
+    private void closeRowInserters()
+    {
+        for (GeoPackageRowInserter rowInserter : rowInserters.values())
+        {
+            try
+            {
+                rowInserter.close();
+            } catch (Exception e)
+            {
+                Timber.w(e, "Could not close the row inserter for the %s table", rowInserter.getTableName());
+            }
+        }
+        rowInserters.clear();
+        rowInsertersGeoPackage = null;
+    }
+
     /**
      * Checks to see if the rollover worker needs to initiate the creation of a new log file.
      *
@@ -222,7 +363,10 @@ public abstract class SurveyRecordLogger
      */
     protected void checkIfRolloverNeeded()
     {
-        rolloverWorker.incrementRolloverCounter();
+        synchronized (geoPackageLock)
+        {
+            rolloverWorker.onRecordWritten();
+        }
     }
 
     /**
@@ -256,8 +400,8 @@ public abstract class SurveyRecordLogger
      * @param customColumnAddition The consumer responsible for adding the custom columns associated with the protocol.
      * @throws SQLException If there is a problem working with the GeoPackage SQLite DB.
      */
-    void createTable(String tableName, GeoPackage geoPackage, SpatialReferenceSystem srs, boolean addCellularColumns,
-                     BiConsumer<List<FeatureColumn>, Integer> customColumnAddition) throws SQLException
+    static void createTable(String tableName, GeoPackage geoPackage, SpatialReferenceSystem srs, boolean addCellularColumns,
+                            BiConsumer<List<FeatureColumn>, Integer> customColumnAddition) throws SQLException
     {
         ContentsDao contentsDao = geoPackage.getContentsDao();
 
@@ -313,7 +457,7 @@ public abstract class SurveyRecordLogger
      * @param featureRow   The row of the GeoPackage file to set the LTE Bandwidth on.
      * @param lteBandwidth The LTE Bandwidth enum to convert to a float.
      */
-    void setLteBandwidth(FeatureRow featureRow, LteBandwidth lteBandwidth)
+    void setLteBandwidth(GeoPackageRowInserter featureRow, LteBandwidth lteBandwidth)
     {
         final String lteBandwidthString = LteMessageConstants.getLteBandwidth(lteBandwidth);
         if (!lteBandwidthString.isEmpty())
@@ -329,7 +473,7 @@ public abstract class SurveyRecordLogger
      * @param columnName The column to set the value in.
      * @param value      The value to set as an int.
      */
-    void setIntValue(FeatureRow featureRow, String columnName, int value)
+    void setIntValue(GeoPackageRowInserter featureRow, String columnName, int value)
     {
         featureRow.setValue(columnName, value);
     }
@@ -341,7 +485,7 @@ public abstract class SurveyRecordLogger
      * @param columnName The column to set the value in.
      * @param value      The value to set as a short.
      */
-    void setShortValue(FeatureRow featureRow, String columnName, int value)
+    void setShortValue(GeoPackageRowInserter featureRow, String columnName, int value)
     {
         featureRow.setValue(columnName, (short) value);
     }
@@ -433,31 +577,63 @@ public abstract class SurveyRecordLogger
 
     /**
      * Private class that kicks off a rollover task when the max file size has been reached.
+     * <p>
+     * The size of the file is tracked by a {@link RolloverSizeTracker}, which predicts when the file will
+     * reach the rollover size so that the page count only has to be checked occasionally. When the file
+     * gets close to the rollover size the next GeoPackage is created on the rollover thread, and once the
+     * rollover size is reached the logging simply switches over to the prepared file. The old file is then
+     * closed on the rollover thread, so the logging handler never waits on a file being created or closed.
+     * <p>
+     * Since the next file is created when the current one is close to the rollover size, the timestamp in its
+     * name is when it was prepared, which can be a while before its first record when the records come in
+     * slowly. The file is not renamed when it is switched in, because it is already open in WAL mode and the
+     * write ahead log would be left behind under the old name. The device time of each record is the one to
+     * rely on.
+     * <p>
+     * All the methods, other than {@link #update(int)}, must be called while holding the {@link #geoPackageLock}.
      *
      * @since 0.4.0
      */
     private class RolloverWorker
     {
         private static final int BYTES_TO_MEGABYTES = 1_048_576;
-
         /**
-         * A lock that synchronizes read and write operations on {@link #rolloverSizeBytes}. For
-         * instance, this lock protects against an update of 0 to the rollover size occurring after
-         * we check if the rollover indeed equals 0. That could potentially roll over the file when
-         * the user sets the rollover option to 'Never'.
+         * How long to wait before trying to create the next file again after a failure. The wait doubles
+         * with each failure in a row, up to the max.
          */
-        private final Object rolloverSizeLock = new Object();
+        private static final long PREPARE_RETRY_INITIAL_MS = 5_000;
+        private static final long PREPARE_RETRY_MAX_MS = 300_000;
 
         /**
-         * The record count since last reset, or last rollover.
+         * The size tracker for the current file. Only accessed while holding the {@link #geoPackageLock}.
          */
-        private final AtomicInteger recordCount = new AtomicInteger();
+        private final RolloverSizeTracker sizeTracker = new RolloverSizeTracker(
+                (long) Integer.parseInt(NetworkSurveyConstants.DEFAULT_ROLLOVER_SIZE_MB) * BYTES_TO_MEGABYTES);
 
         /**
          * The max log size for a GeoPackage file before a new one is created, in bytes. When this
-         * value is set to 0, rollover is de-activated.
+         * value is set to 0, rollover is de-activated. Applied to the size tracker on the next record.
          */
-        private int rolloverSizeBytes = Integer.parseInt(NetworkSurveyConstants.DEFAULT_ROLLOVER_SIZE_MB) * BYTES_TO_MEGABYTES;
+        private volatile long pendingRolloverSizeBytes = -1;
+
+        /**
+         * Guards the hand off of the prepared GeoPackage from the rollover thread.
+         */
+        private final Object preparedLock = new Object();
+        private GeoPackage preparedGeoPackage;
+        private boolean preparing;
+        /**
+         * Incremented any time logging is stopped so that a GeoPackage that finishes being prepared after
+         * that is thrown away instead of being used.
+         */
+        private int generation;
+        private boolean rolloverPending;
+        /**
+         * The number of times in a row that the next file could not be created, and the elapsed realtime
+         * before which it is not tried again. Guarded by the {@link #preparedLock}.
+         */
+        private int prepareFailures;
+        private long prepareRetryAtMs;
 
         /**
          * Update the rollover worker with perhaps new values.
@@ -466,73 +642,204 @@ public abstract class SurveyRecordLogger
          */
         public void update(int logRolloverSizeMb)
         {
-            synchronized (rolloverSizeLock)
+            Timber.i("Log Rollover Size updated to %s MB", logRolloverSizeMb);
+            pendingRolloverSizeBytes = (long) logRolloverSizeMb * BYTES_TO_MEGABYTES;
+        }
+
+        /**
+         * Starts tracking a GeoPackage that was just created and is now being logged to.
+         */
+        void onNewGeoPackage(GeoPackage newGeoPackage)
+        {
+            rolloverPending = false;
+            applyPendingRolloverSize();
+            sizeTracker.reset(measureSizeBytes(newGeoPackage));
+        }
+
+        /**
+         * Called after each record is written. Most of the time this only increments a counter. When the
+         * size tracker asks for it, the size of the file is measured to decide if the next file should be
+         * prepared, or if the logging should switch over to the prepared file.
+         */
+        public void onRecordWritten()
+        {
+            if (geoPackage == null) return;
+
+            applyPendingRolloverSize();
+
+            if (rolloverPending)
+            {
+                switchToPreparedGeoPackage();
+                return;
+            }
+
+            if (!sizeTracker.onRowWritten()) return;
+
+            final RolloverSizeTracker.Decision decision = sizeTracker.onMeasured(measureSizeBytes(geoPackage));
+            Timber.v("Checked the GeoPackage size, currently at: %s bytes", sizeTracker.getEstimatedSizeBytes());
+            switch (decision)
+            {
+                case PREPARE_NEXT:
+                    prepareNextGeoPackage();
+                    break;
+
+                case ROLLOVER:
+                    rolloverPending = true;
+                    prepareNextGeoPackage();
+                    switchToPreparedGeoPackage();
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Closes and deletes a GeoPackage that was prepared but never used, and stops any preparation
+         * that is in progress from being used. Called when logging is turned off.
+         */
+        void discardPreparedGeoPackage()
+        {
+            final GeoPackage unused;
+            synchronized (preparedLock)
+            {
+                generation++;
+                unused = preparedGeoPackage;
+                preparedGeoPackage = null;
+                prepareFailures = 0;
+                prepareRetryAtMs = 0;
+            }
+            rolloverPending = false;
+
+            if (unused != null) ROLLOVER_EXECUTOR.execute(() -> closeAndDelete(unused));
+        }
+
+        private void applyPendingRolloverSize()
+        {
+            final long rolloverSizeBytes = pendingRolloverSizeBytes;
+            if (rolloverSizeBytes >= 0 && rolloverSizeBytes != sizeTracker.getRolloverSizeBytes())
             {
-                Timber.i("Log Rollover Size updated to %s MB", logRolloverSizeMb);
-                rolloverSizeBytes = logRolloverSizeMb * BYTES_TO_MEGABYTES;
+                sizeTracker.setRolloverSizeBytes(rolloverSizeBytes);
             }
         }
 
         /**
-         * Increments rollover record count. At the mark of {@link #RECORD_COUNT_INTERVAL} records, we check
-         * the GeoPackage file size. If the file size is equal to or greater than the size
-         * threshold, we roll over. If no rollover is enabled, the method immediately returns.
+         * Starts creating the next GeoPackage on the rollover thread, if it is not already prepared or
+         * being prepared, and a previous attempt did not just fail.
+         * <p>
+         * If the file can't be created the user is told once, and it is retried with a backoff while the
+         * records keep going to the current file. Otherwise every record would retry it (and show the
+         * error again) once the rollover size is reached.
          */
-        public void incrementRolloverCounter()
+        private void prepareNextGeoPackage()
         {
-            synchronized (rolloverSizeLock)
+            final int preparingGeneration;
+            synchronized (preparedLock)
             {
-                if (rolloverSizeBytes == 0)
+                if (preparing || preparedGeoPackage != null) return;
+                if (prepareFailures > 0 && SystemClock.elapsedRealtime() < prepareRetryAtMs) return;
+                preparing = true;
+                preparingGeneration = generation;
+            }
+
+            ROLLOVER_EXECUTOR.execute(() -> {
+                GeoPackage nextGeoPackage = null;
+                try
+                {
+                    nextGeoPackage = createGeoPackage();
+                } catch (Exception e)
                 {
-                    return; // A rollover of size 0 means rollover is not active
+                    Timber.e(e, "Error occurred while trying to create a GeoPackage file");
                 }
 
-                if (recordCount.compareAndSet(RECORD_COUNT_INTERVAL, 0))
+                boolean stale = false;
+                boolean firstFailure = false;
+                long retryDelayMs = 0;
+                synchronized (preparedLock)
                 {
-                    File file;
-                    // Need to synchronize so that we don't try to get the file while a new one is being created.
-                    synchronized (geoPackageLock)
+                    preparing = false;
+                    if (preparingGeneration != generation)
                     {
-                        file = geoPackageManager.getFile(geoPackage.getName());
+                        stale = true;
+                    } else if (nextGeoPackage == null)
+                    {
+                        firstFailure = prepareFailures == 0;
+                        retryDelayMs = Math.min(PREPARE_RETRY_MAX_MS, PREPARE_RETRY_INITIAL_MS << Math.min(prepareFailures, 10));
+                        prepareFailures++;
+                        prepareRetryAtMs = SystemClock.elapsedRealtime() + retryDelayMs;
+                    } else
+                    {
+                        preparedGeoPackage = nextGeoPackage;
+                        prepareFailures = 0;
                     }
-                    final long fileSizeBytes = file.length();
+                }
 
-                    Timber.v("Checking GeoPackage file size, currently at: %s bytes", fileSizeBytes);
-                    if (fileSizeBytes >= rolloverSizeBytes)
+                if (nextGeoPackage == null)
+                {
+                    if (stale) return;
+
+                    Timber.e("Failed to create the next GeoPackage file, trying again in %d ms", retryDelayMs);
+                    if (firstFailure)
                     {
-                        // This task is protected by the {@link #geoPackageLock} to prevent closing a file that is
-                        // currently being logged to.
-                        synchronized (geoPackageLock)
-                        {
-                            try
-                            {
-                                geoPackage.close();
-
-                                boolean fileCreated = prepareGeoPackageForLogging();
-                                if (!fileCreated)
-                                {
-                                    Timber.e("Failed to create a new GeoPackage file");
-                                }
-                            } catch (Exception e)
-                            {
-                                Timber.e(e, "Error occurred while trying to create a GeoPackage file");
-                            }
-                        }
+                        showErrorToast("Error: Unable to create a new GeoPackage file.  Logging will continue in the current file.");
                     }
+                } else if (stale)
+                {
+                    closeAndDelete(nextGeoPackage);
+                }
+            });
+        }
 
+        /**
+         * Switches the logging over to the prepared GeoPackage, if it is ready. If it is not ready yet the
+         * records keep going to the current file, and the switch is attempted again on the next record.
+         */
+        private void switchToPreparedGeoPackage()
+        {
+            final GeoPackage nextGeoPackage;
+            synchronized (preparedLock)
+            {
+                nextGeoPackage = preparedGeoPackage;
+                preparedGeoPackage = null;
+                if (nextGeoPackage == null)
+                {
+                    // The preparation failed, so try again once the backoff is over
+                    if (!preparing) prepareNextGeoPackage();
                     return;
                 }
             }
 
-            recordCount.getAndIncrement();
+            final GeoPackage previousGeoPackage = geoPackage;
+            // Read before onNewGeoPackage resets the size tracker for the new file
+            final long previousRows = sizeTracker.getRowsInFile();
+            closeRowInserters();
+            geoPackage = nextGeoPackage;
+            onNewGeoPackage(nextGeoPackage);
+
+            Timber.i("Rolled over the GeoPackage file %s after %d records", previousGeoPackage.getName(), previousRows);
+            ROLLOVER_EXECUTOR.execute(() -> {
+                try
+                {
+                    previousGeoPackage.close();
+                } catch (Exception e)
+                {
+                    Timber.e(e, "Could not close the previous GeoPackage file");
+                }
+            });
         }
 
-        /**
-         * Resets the record count.
-         */
-        public void reset()
+        private void closeAndDelete(GeoPackage unusedGeoPackage)
         {
-            recordCount.set(0);
+            try
+            {
+                final File file = geoPackageManager.getFile(unusedGeoPackage.getName());
+                unusedGeoPackage.close();
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            } catch (Exception e)
+            {
+                Timber.w(e, "Could not delete the unused GeoPackage file");
+            }
         }
     }
 }
@@ -0,0 +1,167 @@
+package com.craxiom.networksurvey.logging;
+
+import static com.craxiom.networksurvey.constants.csv.CsvConstants.DEVICE_SERIAL_NUMBER;
+import static com.craxiom.networksurvey.constants.csv.CsvConstants.LOCATION_AGE;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.ACCURACY;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.ALTITUDE;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.AREA_CODE;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.ARFCN;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.CELL_ID;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.DEVICE_TIME;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.ECNO;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.LATENCY_MS;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.LATITUDE;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.LONGITUDE;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.MCC;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.MISSION_ID;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.MNC;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.NETWORK_TYPE;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.PCI;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.PHASE;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.RECORD_NUMBER;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.RSRP;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.RSRQ;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.SERVING_CELL_AGE;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.SERVING_PROTOCOL;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.SINR;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.SLOT;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.SPEED;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.TEST_NUMBER;
+import static com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants.THROUGHPUT_MBPS;
+
+import android.location.Location;
+import android.os.Build;
+import android.os.Looper;
+
+import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
+import com.craxiom.networksurvey.model.ServingCellSnapshot;
+import com.craxiom.networksurvey.model.ThroughputSample;
+import com.craxiom.networksurvey.services.NetworkSurveyService;
+import com.craxiom.networksurvey.util.FormatUtils;
+import com.craxiom.networksurvey.util.MathUtils;
+import com.craxiom.networksurvey.util.NsUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import timber.log.Timber;
+
+/**
+ * Responsible for taking in drive test throughput samples and logging them to a CSV file alongside
+ * the other survey CSV files.
+ *
+ * @since 1.43
+ */
+public class ThroughputCsvLogger extends CsvRecordLogger
+{
+    private final String deviceId;
+    private final String missionId;
+    private int recordNumber = 1;
+
+    public ThroughputCsvLogger(NetworkSurveyService networkSurveyService, Looper serviceLooper,
+                               String deviceId, String missionId)
+    {
+        super(networkSurveyService, serviceLooper, NetworkSurveyConstants.CSV_LOG_DIRECTORY_NAME,
+                NetworkSurveyConstants.THROUGHPUT_FILE_NAME_PREFIX, false);
+        this.deviceId = deviceId;
+        this.missionId = missionId;
+    }
+
+    @Override
+    String[] getHeaders()
+    {
+        return new String[]{DEVICE_TIME, LATITUDE, LONGITUDE, ALTITUDE, SPEED, ACCURACY,
+                MISSION_ID, RECORD_NUMBER, TEST_NUMBER, PHASE, THROUGHPUT_MBPS, LATENCY_MS, NETWORK_TYPE,
+                SERVING_PROTOCOL, MCC, MNC, AREA_CODE, CELL_ID, PCI, ARFCN, RSRP, RSRQ, SINR, ECNO, SLOT,
+                SERVING_CELL_AGE, DEVICE_SERIAL_NUMBER, LOCATION_AGE};
+    }
+
+    @Override
+    String[] getHeaderComments()
+    {
+        return new String[]{"CSV Version=0.1.0"};
+    }
+
+    /**
+     * Writes the provided throughput sample to the CSV file. The write is done on the service
+     * looper so that callers on the speed test threads are not blocked by the file I/O.
+     *
+     * @param sample The sample to log.
+     */
+    public void onThroughputSample(ThroughputSample sample)
+    {
+        if (!loggingEnabled || sample.phase == ThroughputSample.Phase.IDLE) return;
+
+        handler.post(() -> {
+            try
+            {
+                writeCsvRecord(toCsvRow(sample, recordNumber++, missionId, deviceId, getValueFormatter()), true);
+            } catch (IOException e)
+            {
+                Timber.e(e, "Could not log the throughput sample to the CSV file");
+            }
+        });
+    }
+
+    /**
+     * @return A String array that contains the throughput sample values that can be written out as
+     * a CSV row, in the order of {@link #getHeaders()}. The formatter is the logger's own, so the rows
+     * must be built on the logger's thread.
+     */
+    static String[] toCsvRow(ThroughputSample sample, int recordNumber, String missionId, String deviceId,
+                             CsvValueFormatter valueFormatter)
+    {
+        final Location location = sample.location;
+        final ServingCellSnapshot cell = sample.servingCell;
+
+        String locationAge = "";
+        if (location != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU)
+        {
+            locationAge = String.valueOf(location.getElapsedRealtimeAgeMillis());
+        }
+
+        String speed = "";
+        if (location != null && location.hasSpeed())
+        {
+            speed = valueFormatter.roundToTwoDecimalPlaces(FormatUtils.formatSpeed(location.getSpeed()));
+        }
+
+        return new String[]{
+                NsUtils.getRfc3339String(ZonedDateTime.ofInstant(Instant.ofEpochMilli(sample.timestampMs), ZoneId.systemDefault())),
+                location != null ? valueFormatter.trimToSixDecimalPlaces(location.getLatitude()) : "",
+                location != null ? valueFormatter.trimToSixDecimalPlaces(location.getLongitude()) : "",
+                location != null ? valueFormatter.roundToTwoDecimalPlaces(location.getAltitude()) : "",
+                speed,
+                location != null ? String.valueOf(MathUtils.roundAccuracy(location.getAccuracy())) : "",
+                missionId,
+                String.valueOf(recordNumber),
+                String.valueOf(sample.testNumber),
+                sample.phase.name(),
+                valueFormatter.roundToTwoDecimalPlaces(sample.throughputMbps),
+                sample.latencyMs < 0 ? "" : String.valueOf(sample.latencyMs),
+                sample.networkType == null ? "" : sample.networkType,
+                cell != null ? cell.protocol.name() : "",
+                cell != null ? valueOrEmpty(cell.mcc) : "",
+                cell != null ? valueOrEmpty(cell.mnc) : "",
+                cell != null ? valueOrEmpty(cell.area) : "",
+                cell != null ? valueOrEmpty(cell.cellId) : "",
+                cell != null ? valueOrEmpty(cell.pci) : "",
+                cell != null ? valueOrEmpty(cell.arfcn) : "",
+                cell != null ? valueOrEmpty(cell.rsrp) : "",
+                cell != null ? valueOrEmpty(cell.rsrq) : "",
+                cell != null ? valueOrEmpty(cell.sinr) : "",
+                cell != null ? valueOrEmpty(cell.ecno) : "",
+                cell != null ? valueOrEmpty(cell.slot) : "",
+                cell != null ? String.valueOf(sample.timestampMs - cell.timestampMs) : "",
+                deviceId,
+                locationAge
+        };
+    }
+
+    private static String valueOrEmpty(Object value)
+    {
+        return value == null ? "" : String.valueOf(value);
+    }
+}
@@ -13,7 +13,6 @@ import com.craxiom.networksurvey.listeners.IWifiSurveyRecordListener;
 import com.craxiom.networksurvey.model.WifiRecordWrapper;
 import com.craxiom.networksurvey.services.NetworkSurveyService;
 import com.craxiom.networksurvey.util.MathUtils;
-import com.craxiom.networksurvey.util.NsUtils;
 
 import java.sql.SQLException;
 import java.util.List;
@@ -22,8 +21,6 @@ import java.util.stream.Collectors;
 import mil.nga.geopackage.GeoPackage;
 import mil.nga.geopackage.db.GeoPackageDataType;
 import mil.nga.geopackage.features.user.FeatureColumn;
-import mil.nga.geopackage.features.user.FeatureDao;
-import mil.nga.geopackage.features.user.FeatureRow;
 import mil.nga.geopackage.geom.GeoPackageGeometryData;
 import mil.nga.geopackage.srs.SpatialReferenceSystem;
 import mil.nga.sf.Point;
@@ -66,7 +63,7 @@ public class WifiSurveyRecordLogger extends SurveyRecordLogger implements IWifiS
      * @param srs        The SRS to use for the table coordinates.
      * @throws SQLException If there is a problem working with the GeoPackage SQLite DB.
      */
-    private void createWifiBeaconRecordTable(GeoPackage geoPackage, SpatialReferenceSystem srs) throws SQLException
+    static void createWifiBeaconRecordTable(GeoPackage geoPackage, SpatialReferenceSystem srs) throws SQLException
     {
         createTable(WifiBeaconMessageConstants.WIFI_BEACON_RECORDS_TABLE_NAME, geoPackage, srs, false, (tableColumns, columnNumber) -> {
             tableColumns.add(FeatureColumn.createColumn(columnNumber++, WifiBeaconMessageConstants.BSSID_COLUMN, GeoPackageDataType.TEXT, false, null));
@@ -102,8 +99,7 @@ public class WifiSurveyRecordLogger extends SurveyRecordLogger implements IWifiS
                     if (geoPackage != null)
                     {
                         final WifiBeaconRecordData data = wifiRecordWrapper.getWifiBeaconRecord().getData();
-                        FeatureDao featureDao = geoPackage.getFeatureDao(WifiBeaconMessageConstants.WIFI_BEACON_RECORDS_TABLE_NAME);
-                        FeatureRow row = featureDao.newRow();
+                        final GeoPackageRowInserter row = getRowInserter(WifiBeaconMessageConstants.WIFI_BEACON_RECORDS_TABLE_NAME);
 
                         Point fix = new Point(data.getLongitude(), data.getLatitude(), (double) data.getAltitude());
 
@@ -113,7 +109,7 @@ public class WifiSurveyRecordLogger extends SurveyRecordLogger implements IWifiS
                         row.setGeometry(geomData);
 
                         row.setValue(WifiCsvConstants.DEVICE_SERIAL_NUMBER, data.getDeviceSerialNumber());
-                        row.setValue(WifiBeaconMessageConstants.TIME_COLUMN, NsUtils.getEpochFromRfc3339(data.getDeviceTime()));
+                        row.setValue(WifiBeaconMessageConstants.TIME_COLUMN, wifiRecordWrapper.getEpochMillis());
                         row.setValue(WifiBeaconMessageConstants.MISSION_ID_COLUMN, data.getMissionId());
                         row.setValue(WifiBeaconMessageConstants.RECORD_NUMBER_COLUMN, data.getRecordNumber());
                         row.setValue(WifiCsvConstants.SPEED, data.getSpeed());
@@ -181,7 +177,7 @@ public class WifiSurveyRecordLogger extends SurveyRecordLogger implements IWifiS
                                             .collect(Collectors.joining(";")));
                         }
 
-                        featureDao.insert(row);
+                        row.insert();
 
                         checkIfRolloverNeeded();
                     }
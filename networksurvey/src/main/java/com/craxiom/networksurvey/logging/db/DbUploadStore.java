@@ -21,6 +21,7 @@ import com.craxiom.networksurvey.logging.db.model.LteRecordEntity;
 import com.craxiom.networksurvey.logging.db.model.NrRecordEntity;
 import com.craxiom.networksurvey.logging.db.model.UmtsRecordEntity;
 import com.craxiom.networksurvey.logging.db.model.WifiBeaconRecordEntity;
+import com.craxiom.networksurvey.metrics.PipelineMetrics;
 import com.craxiom.networksurvey.model.CellularRecordWrapper;
 import com.craxiom.networksurvey.model.WifiRecordWrapper;
 
@@ -66,7 +67,10 @@ public class DbUploadStore implements ICellularSurveyRecordListener, IWifiSurvey
     @Override
     public void onCellularBatch(List<CellularRecordWrapper> cellularGroup, int subscriptionId)
     {
+        PipelineMetrics.UPLOAD_DB_BACKLOG.increment();
         executorService.execute(() -> {
+            PipelineMetrics.UPLOAD_DB_BACKLOG.decrement();
+
             final List<GsmRecordEntity> gsmRecords = new ArrayList<>();
             final List<CdmaRecordEntity> cdmaRecords = new ArrayList<>();
             final List<UmtsRecordEntity> umtsRecords = new ArrayList<>();
@@ -123,32 +127,26 @@ public class DbUploadStore implements ICellularSurveyRecordListener, IWifiSurvey
                 }
             }
 
-            if (!gsmRecords.isEmpty())
-            {
-                if (database.isOpen()) database.gsmRecordDao().insertRecords(gsmRecords);
-            }
-            if (!cdmaRecords.isEmpty())
-            {
-                if (database.isOpen()) database.cdmaRecordDao().insertRecords(cdmaRecords);
-            }
-            if (!umtsRecords.isEmpty())
-            {
-                if (database.isOpen()) database.umtsRecordDao().insertRecords(umtsRecords);
-            }
-            if (!lteRecords.isEmpty())
-            {
-                if (database.isOpen()) database.lteRecordDao().insertRecords(lteRecords);
-            }
-            if (!nrRecords.isEmpty())
+            final int totalCellularRecords = gsmRecords.size() + cdmaRecords.size() +
+                    umtsRecords.size() + lteRecords.size() + nrRecords.size();
+            PipelineMetrics.UPLOAD_DB_RECORDS_FILTERED.add(cellularGroup.size() - totalCellularRecords);
+
+            final long writeStart = System.nanoTime();
+            if (totalCellularRecords > 0)
             {
-                if (database.isOpen()) database.nrRecordDao().insertRecords(nrRecords);
+                // One transaction for all the tables, which also updates the upload counters
+                if (database.isOpen())
+                {
+                    database.surveyRecordDao().insertCellularRecordsForUpload(gsmRecords, cdmaRecords, umtsRecords,
+                            lteRecords, nrRecords);
+                }
+                PipelineMetrics.UPLOAD_DB_WRITE.recordSince(writeStart);
+                PipelineMetrics.UPLOAD_DB_RECORDS_WRITTEN.add(totalCellularRecords);
             }
 
             // Notify listener of total cellular records written
             if (uploadRecordCountListener != null)
             {
-                int totalCellularRecords = gsmRecords.size() + cdmaRecords.size() +
-                        umtsRecords.size() + lteRecords.size() + nrRecords.size();
                 if (totalCellularRecords > 0)
                 {
                     uploadRecordCountListener.onCellularUploadRecordsWritten(totalCellularRecords);
@@ -160,21 +158,32 @@ public class DbUploadStore implements ICellularSurveyRecordListener, IWifiSurvey
     @Override
     public void onWifiBeaconSurveyRecords(List<WifiRecordWrapper> wifiBeaconRecords)
     {
+        PipelineMetrics.UPLOAD_DB_BACKLOG.increment();
         executorService.execute(() -> {
+            PipelineMetrics.UPLOAD_DB_BACKLOG.decrement();
+
             final List<WifiBeaconRecordEntity> wifiRecords = new ArrayList<>();
 
             if (!wifiBeaconRecords.isEmpty())
             {
                 WifiBeaconRecordData data = wifiBeaconRecords.get(0).getWifiBeaconRecord().getData();
 
-                if (isAccuracyBad(data.getAccuracy())) return;
+                if (isAccuracyBad(data.getAccuracy()))
+                {
+                    PipelineMetrics.UPLOAD_DB_RECORDS_FILTERED.add(wifiBeaconRecords.size());
+                    return;
+                }
 
                 double latitude = data.getLatitude();
                 double longitude = data.getLongitude();
                 boolean hasLocation = latitude != 0d && longitude != 0d;
 
                 // First, check for a valid location
-                if (!hasLocation) return;
+                if (!hasLocation)
+                {
+                    PipelineMetrics.UPLOAD_DB_RECORDS_FILTERED.add(wifiBeaconRecords.size());
+                    return;
+                }
 
                 if (hasMovedEnough(latitude, longitude, new kotlin.Pair<>(lastWifiLatitude, lastWifiLongitude)))
                 {
@@ -183,6 +192,7 @@ public class DbUploadStore implements ICellularSurveyRecordListener, IWifiSurvey
                 } else
                 {
                     // Skip all the records because the location should be the same on all of them.
+                    PipelineMetrics.UPLOAD_DB_RECORDS_FILTERED.add(wifiBeaconRecords.size());
                     return;
                 }
             }
@@ -196,7 +206,10 @@ public class DbUploadStore implements ICellularSurveyRecordListener, IWifiSurvey
 
             if (!wifiRecords.isEmpty())
             {
-                if (database.isOpen()) database.wifiRecordDao().insertRecords(wifiRecords);
+                final long writeStart = System.nanoTime();
+                if (database.isOpen()) database.surveyRecordDao().insertWifiRecordsForUpload(wifiRecords);
+                PipelineMetrics.UPLOAD_DB_WRITE.recordSince(writeStart);
+                PipelineMetrics.UPLOAD_DB_RECORDS_WRITTEN.add(wifiRecords.size());
 
                 // Notify listener of Wi-Fi records written
                 if (uploadRecordCountListener != null)
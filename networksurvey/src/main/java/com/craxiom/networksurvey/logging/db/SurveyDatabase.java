@@ -9,23 +9,30 @@ import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.craxiom.networksurvey.logging.db.dao.CdmaRecordDao;
+import com.craxiom.networksurvey.logging.db.dao.CellConflictDao;
+import com.craxiom.networksurvey.logging.db.dao.CoverageCellDao;
 import com.craxiom.networksurvey.logging.db.dao.GsmRecordDao;
 import com.craxiom.networksurvey.logging.db.dao.LteRecordDao;
 import com.craxiom.networksurvey.logging.db.dao.NrRecordDao;
 import com.craxiom.networksurvey.logging.db.dao.SurveyRecordDao;
 import com.craxiom.networksurvey.logging.db.dao.TowerCacheDao;
 import com.craxiom.networksurvey.logging.db.dao.UmtsRecordDao;
+import com.craxiom.networksurvey.logging.db.dao.UploadCounterDao;
 import com.craxiom.networksurvey.logging.db.dao.WifiRecordDao;
 import com.craxiom.networksurvey.logging.db.model.CdmaRecordEntity;
+import com.craxiom.networksurvey.logging.db.model.CellConflictEntity;
+import com.craxiom.networksurvey.logging.db.model.CoverageCellEntity;
 import com.craxiom.networksurvey.logging.db.model.GsmRecordEntity;
 import com.craxiom.networksurvey.logging.db.model.LteRecordEntity;
 import com.craxiom.networksurvey.logging.db.model.NrRecordEntity;
 import com.craxiom.networksurvey.logging.db.model.TowerCacheEntity;
 import com.craxiom.networksurvey.logging.db.model.UmtsRecordEntity;
+import com.craxiom.networksurvey.logging.db.model.UploadCounterEntity;
 import com.craxiom.networksurvey.logging.db.model.WifiBeaconRecordEntity;
 
 @Database(entities = {GsmRecordEntity.class, CdmaRecordEntity.class, UmtsRecordEntity.class,
-        LteRecordEntity.class, NrRecordEntity.class, WifiBeaconRecordEntity.class, TowerCacheEntity.class}, version = 9)
+        LteRecordEntity.class, NrRecordEntity.class, WifiBeaconRecordEntity.class, TowerCacheEntity.class,
+        CoverageCellEntity.class, CellConflictEntity.class, UploadCounterEntity.class}, version = 12)
 public abstract class SurveyDatabase extends RoomDatabase
 {
     public abstract GsmRecordDao gsmRecordDao();
@@ -44,6 +51,12 @@ public abstract class SurveyDatabase extends RoomDatabase
 
     public abstract TowerCacheDao towerCacheDao();
 
+    public abstract CoverageCellDao coverageCellDao();
+
+    public abstract CellConflictDao cellConflictDao();
+
+    public abstract UploadCounterDao uploadCounterDao();
+
     private static volatile SurveyDatabase INSTANCE;
 
     /**
@@ -118,6 +131,85 @@ public abstract class SurveyDatabase extends RoomDatabase
         }
     };
 
+    /**
+     * Migration from version 9 to 10: Add the coverage_cells table for the coverage grid
+     */
+    private static final Migration MIGRATION_9_10 = new Migration(9, 10)
+    {
+        @Override
+        public void migrate(SupportSQLiteDatabase database)
+        {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `coverage_cells` ("
+                    + "`level` INTEGER NOT NULL, "
+                    + "`cellX` INTEGER NOT NULL, "
+                    + "`cellY` INTEGER NOT NULL, "
+                    + "`technology` TEXT NOT NULL, "
+                    + "`mcc` INTEGER NOT NULL, "
+                    + "`mnc` INTEGER NOT NULL, "
+                    + "`sampleCount` INTEGER NOT NULL, "
+                    + "`signalSum` REAL NOT NULL, "
+                    + "`minSignal` REAL NOT NULL, "
+                    + "`maxSignal` REAL NOT NULL, "
+                    + "PRIMARY KEY(`level`, `cellX`, `cellY`, `technology`, `mcc`, `mnc`))");
+        }
+    };
+
+    /**
+     * Migration from version 10 to 11: Add the cell_conflicts table for the physical cell ID problems
+     */
+    private static final Migration MIGRATION_10_11 = new Migration(10, 11)
+    {
+        @Override
+        public void migrate(SupportSQLiteDatabase database)
+        {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `cell_conflicts` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`type` TEXT NOT NULL, "
+                    + "`protocol` TEXT NOT NULL, "
+                    + "`channel` INTEGER NOT NULL, "
+                    + "`physicalCellId` INTEGER NOT NULL, "
+                    + "`otherPhysicalCellId` INTEGER NOT NULL, "
+                    + "`servingCell` TEXT, "
+                    + "`otherCell` TEXT, "
+                    + "`conflictingCell` TEXT, "
+                    + "`latitude` REAL NOT NULL, "
+                    + "`longitude` REAL NOT NULL, "
+                    + "`time` INTEGER NOT NULL, "
+                    + "`servingSignal` REAL, "
+                    + "`otherSignal` REAL)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_cell_conflicts_time` ON `cell_conflicts` (`time`)");
+        }
+    };
+
+    /**
+     * Migration from version 11 to 12: Add the upload_counters table, starting from a count of the records that are
+     * already waiting to be uploaded
+     */
+    private static final Migration MIGRATION_11_12 = new Migration(11, 12)
+    {
+        @Override
+        public void migrate(SupportSQLiteDatabase database)
+        {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `upload_counters` ("
+                    + "`recordTable` TEXT NOT NULL, "
+                    + "`pendingCount` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`recordTable`))");
+
+            final String[][] counters = {
+                    {UploadCounterEntity.GSM, "gsm_survey_records", "ocidUploaded = 0 OR beaconDbUploaded = 0"},
+                    {UploadCounterEntity.CDMA, "cdma_survey_records", "ocidUploaded = 0 OR beaconDbUploaded = 0"},
+                    {UploadCounterEntity.UMTS, "umts_survey_records", "ocidUploaded = 0 OR beaconDbUploaded = 0"},
+                    {UploadCounterEntity.LTE, "lte_survey_records", "ocidUploaded = 0 OR beaconDbUploaded = 0"},
+                    {UploadCounterEntity.NR, "nr_survey_records", "ocidUploaded = 0 OR beaconDbUploaded = 0"},
+                    {UploadCounterEntity.WIFI, "wifi_survey_records", "beaconDbUploaded = 0"}};
+            for (String[] counter : counters)
+            {
+                database.execSQL("INSERT INTO upload_counters (recordTable, pendingCount) SELECT '" + counter[0]
+                        + "', COUNT(*) FROM " + counter[1] + " WHERE " + counter[2]);
+            }
+        }
+    };
+
     public static SurveyDatabase getInstance(Context context)
     {
         if (INSTANCE == null)
@@ -128,7 +220,7 @@ public abstract class SurveyDatabase extends RoomDatabase
                 {
                     INSTANCE = Room.databaseBuilder(context.getApplicationContext(),
                                     SurveyDatabase.class, "survey_db")
-                            .addMigrations(MIGRATION_7_9, MIGRATION_8_9)
+                            .addMigrations(MIGRATION_7_9, MIGRATION_8_9, MIGRATION_9_10, MIGRATION_10_11, MIGRATION_11_12)
                             .fallbackToDestructiveMigration()
                             .build();
                 }
@@ -0,0 +1,70 @@
+package com.craxiom.networksurvey.logging.db
+
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.lifecycleScope
+import androidx.lifecycle.repeatOnLifecycle
+import com.craxiom.networksurvey.logging.db.model.UploadCounterEntity
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.launch
+import java.util.function.Consumer
+
+/**
+ * The number of records in the upload database that have not been uploaded yet, per table, read from the
+ * [UploadCounterEntity] counters rather than by counting the rows in each table.
+ *
+ * @since 1.43
+ */
+data class UploadRecordCounts(
+    val gsm: Int = 0,
+    val cdma: Int = 0,
+    val umts: Int = 0,
+    val lte: Int = 0,
+    val nr: Int = 0,
+    val wifi: Int = 0
+) {
+    val cellular: Int
+        get() = gsm + cdma + umts + lte + nr
+
+    val total: Int
+        get() = cellular + wifi
+
+    companion object {
+        @JvmStatic
+        fun fromCounters(counters: List<UploadCounterEntity>): UploadRecordCounts {
+            val pending = counters.associate { it.recordTable to it.pendingCount }
+            return UploadRecordCounts(
+                gsm = pending[UploadCounterEntity.GSM] ?: 0,
+                cdma = pending[UploadCounterEntity.CDMA] ?: 0,
+                umts = pending[UploadCounterEntity.UMTS] ?: 0,
+                lte = pending[UploadCounterEntity.LTE] ?: 0,
+                nr = pending[UploadCounterEntity.NR] ?: 0,
+                wifi = pending[UploadCounterEntity.WIFI] ?: 0
+            )
+        }
+
+        /**
+         * @return The latest counts, followed by the new counts each time records are written to the upload database
+         * or marked as uploaded.
+         */
+        @JvmStatic
+        fun observe(database: SurveyDatabase): Flow<UploadRecordCounts> =
+            database.uploadCounterDao().observeUploadCounters()
+                .map { fromCounters(it) }
+                .distinctUntilChanged()
+
+        /**
+         * Passes the counts from [observe] to the listener on the main thread while the owner is at least started.
+         */
+        @JvmStatic
+        fun observe(owner: LifecycleOwner, database: SurveyDatabase, listener: Consumer<UploadRecordCounts>) {
+            owner.lifecycleScope.launch {
+                owner.repeatOnLifecycle(Lifecycle.State.STARTED) {
+                    observe(database).collect { listener.accept(it) }
+                }
+            }
+        }
+    }
+}
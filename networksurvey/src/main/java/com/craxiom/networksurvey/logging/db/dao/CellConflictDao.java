@@ -0,0 +1,41 @@
+package com.craxiom.networksurvey.logging.db.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import com.craxiom.networksurvey.logging.db.model.CellConflictEntity;
+
+import java.util.List;
+
+/**
+ * Data access for the physical cell ID problems found while surveying.
+ *
+ * @since 1.43
+ */
+@Dao
+public interface CellConflictDao
+{
+    @Insert
+    void insertConflicts(List<CellConflictEntity> conflicts);
+
+    /**
+     * @return The most recent findings first.
+     */
+    @Query("SELECT * FROM cell_conflicts ORDER BY time DESC LIMIT :limit")
+    List<CellConflictEntity> getRecentConflicts(int limit);
+
+    @Query("SELECT COUNT(*) FROM cell_conflicts")
+    int getConflictCount();
+
+    @Query("DELETE FROM cell_conflicts")
+    void deleteAll();
+
+    /**
+     * Deletes all but the most recent findings so that the table can't grow without bound.
+     *
+     * @return The number of findings that were deleted.
+     */
+    @Query("DELETE FROM cell_conflicts WHERE id NOT IN (SELECT id FROM cell_conflicts ORDER BY time DESC LIMIT :maxCount)")
+    int deleteAllButMostRecent(int maxCount);
+}
@@ -0,0 +1,66 @@
+package com.craxiom.networksurvey.logging.db.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.craxiom.networksurvey.logging.db.model.CoverageCellEntity;
+
+import java.util.List;
+
+/**
+ * Data access for the coverage grid.
+ *
+ * @since 1.43
+ */
+@Dao
+public interface CoverageCellDao
+{
+    @Query("SELECT * FROM coverage_cells WHERE level = :level AND cellX = :cellX AND cellY = :cellY " +
+            "AND technology = :technology AND mcc = :mcc AND mnc = :mnc")
+    CoverageCellEntity getCell(int level, int cellX, int cellY, String technology, int mcc, int mnc);
+
+    /**
+     * Gets all the series in the provided range of cells. The range is inclusive, and it uses the primary key index
+     * since the level and column come first in the key.
+     */
+    @Query("SELECT * FROM coverage_cells WHERE level = :level AND cellX BETWEEN :minX AND :maxX " +
+            "AND cellY BETWEEN :minY AND :maxY")
+    List<CoverageCellEntity> getCells(int level, int minX, int maxX, int minY, int maxY);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertCells(List<CoverageCellEntity> cells);
+
+    @Query("SELECT COUNT(*) FROM coverage_cells")
+    int getCellCount();
+
+    @Query("DELETE FROM coverage_cells")
+    void deleteAll();
+
+    /**
+     * Adds the provided deltas to the stats that are already stored for each series, or stores them as-is for series
+     * that are new. The deltas are updated in place with the merged stats.
+     * <p>
+     * The minimum supported Android version ships a SQLite that does not support upserts, so each series is read and
+     * written back in a single transaction instead.
+     */
+    @Transaction
+    default void mergeCells(List<CoverageCellEntity> deltas)
+    {
+        for (CoverageCellEntity delta : deltas)
+        {
+            final CoverageCellEntity existing = getCell(delta.level, delta.cellX, delta.cellY, delta.technology,
+                    delta.mcc, delta.mnc);
+            if (existing != null)
+            {
+                delta.sampleCount += existing.sampleCount;
+                delta.signalSum += existing.signalSum;
+                delta.minSignal = Math.min(delta.minSignal, existing.minSignal);
+                delta.maxSignal = Math.max(delta.maxSignal, existing.maxSignal);
+            }
+        }
+        insertCells(deltas);
+    }
+}
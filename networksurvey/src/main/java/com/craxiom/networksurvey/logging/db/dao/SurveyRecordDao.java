@@ -1,6 +1,8 @@
 package com.craxiom.networksurvey.logging.db.dao;
 
 import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Transaction;
 
@@ -9,6 +11,7 @@ import com.craxiom.networksurvey.logging.db.model.GsmRecordEntity;
 import com.craxiom.networksurvey.logging.db.model.LteRecordEntity;
 import com.craxiom.networksurvey.logging.db.model.NrRecordEntity;
 import com.craxiom.networksurvey.logging.db.model.UmtsRecordEntity;
+import com.craxiom.networksurvey.logging.db.model.UploadCounterEntity;
 import com.craxiom.networksurvey.logging.db.model.WifiBeaconRecordEntity;
 
 import java.util.List;
@@ -23,11 +26,33 @@ public interface SurveyRecordDao
     @Query("SELECT * FROM gsm_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0 LIMIT :limit")
     List<GsmRecordEntity> getGsmRecordsForUpload(int limit);
 
+    @Query("SELECT COUNT(*) FROM gsm_survey_records WHERE id IN (:recordIds) AND (ocidUploaded = 0 OR beaconDbUploaded = 0)")
+    int countGsmRecordsForUpload(List<Long> recordIds);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertGsmRecords(List<GsmRecordEntity> records);
+
     @Query("UPDATE gsm_survey_records SET ocidUploaded = 1 WHERE id IN (:recordIds)")
-    void markGsmRecordsAsUploadedToOcid(List<Long> recordIds);
+    void setGsmRecordsUploadedToOcid(List<Long> recordIds);
+
+    @Transaction
+    default void markGsmRecordsAsUploadedToOcid(List<Long> recordIds)
+    {
+        final int pendingBefore = countGsmRecordsForUpload(recordIds);
+        setGsmRecordsUploadedToOcid(recordIds);
+        addToUploadCounter(UploadCounterEntity.GSM, countGsmRecordsForUpload(recordIds) - pendingBefore);
+    }
 
     @Query("UPDATE gsm_survey_records SET beaconDbUploaded = 1 WHERE id IN (:recordIds)")
-    void markGsmRecordsAsUploadedToBeaconDb(List<Long> recordIds);
+    void setGsmRecordsUploadedToBeaconDb(List<Long> recordIds);
+
+    @Transaction
+    default void markGsmRecordsAsUploadedToBeaconDb(List<Long> recordIds)
+    {
+        final int pendingBefore = countGsmRecordsForUpload(recordIds);
+        setGsmRecordsUploadedToBeaconDb(recordIds);
+        addToUploadCounter(UploadCounterEntity.GSM, countGsmRecordsForUpload(recordIds) - pendingBefore);
+    }
 
     // CDMA
     @Query("SELECT COUNT(*) FROM cdma_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0")
@@ -36,11 +61,33 @@ public interface SurveyRecordDao
     @Query("SELECT * FROM cdma_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0 LIMIT :limit")
     List<CdmaRecordEntity> getCdmaRecordsForUpload(int limit);
 
+    @Query("SELECT COUNT(*) FROM cdma_survey_records WHERE id IN (:recordIds) AND (ocidUploaded = 0 OR beaconDbUploaded = 0)")
+    int countCdmaRecordsForUpload(List<Long> recordIds);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertCdmaRecords(List<CdmaRecordEntity> records);
+
     @Query("UPDATE cdma_survey_records SET ocidUploaded = 1 WHERE id IN (:recordIds)")
-    void markCdmaRecordsAsUploadedToOcid(List<Long> recordIds);
+    void setCdmaRecordsUploadedToOcid(List<Long> recordIds);
+
+    @Transaction
+    default void markCdmaRecordsAsUploadedToOcid(List<Long> recordIds)
+    {
+        final int pendingBefore = countCdmaRecordsForUpload(recordIds);
+        setCdmaRecordsUploadedToOcid(recordIds);
+        addToUploadCounter(UploadCounterEntity.CDMA, countCdmaRecordsForUpload(recordIds) - pendingBefore);
+    }
 
     @Query("UPDATE cdma_survey_records SET beaconDbUploaded = 1 WHERE id IN (:recordIds)")
-    void markCdmaRecordsAsUploadedToBeaconDb(List<Long> recordIds);
+    void setCdmaRecordsUploadedToBeaconDb(List<Long> recordIds);
+
+    @Transaction
+    default void markCdmaRecordsAsUploadedToBeaconDb(List<Long> recordIds)
+    {
+        final int pendingBefore = countCdmaRecordsForUpload(recordIds);
+        setCdmaRecordsUploadedToBeaconDb(recordIds);
+        addToUploadCounter(UploadCounterEntity.CDMA, countCdmaRecordsForUpload(recordIds) - pendingBefore);
+    }
 
     // UMTS
     @Query("SELECT COUNT(*) FROM umts_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0")
@@ -49,11 +96,33 @@ public interface SurveyRecordDao
     @Query("SELECT * FROM umts_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0 LIMIT :limit")
     List<UmtsRecordEntity> getUmtsRecordsForUpload(int limit);
 
+    @Query("SELECT COUNT(*) FROM umts_survey_records WHERE id IN (:recordIds) AND (ocidUploaded = 0 OR beaconDbUploaded = 0)")
+    int countUmtsRecordsForUpload(List<Long> recordIds);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertUmtsRecords(List<UmtsRecordEntity> records);
+
     @Query("UPDATE umts_survey_records SET ocidUploaded = 1 WHERE id IN (:recordIds)")
-    void markUmtsRecordsAsUploadedToOcid(List<Long> recordIds);
+    void setUmtsRecordsUploadedToOcid(List<Long> recordIds);
+
+    @Transaction
+    default void markUmtsRecordsAsUploadedToOcid(List<Long> recordIds)
+    {
+        final int pendingBefore = countUmtsRecordsForUpload(recordIds);
+        setUmtsRecordsUploadedToOcid(recordIds);
+        addToUploadCounter(UploadCounterEntity.UMTS, countUmtsRecordsForUpload(recordIds) - pendingBefore);
+    }
 
     @Query("UPDATE umts_survey_records SET beaconDbUploaded = 1 WHERE id IN (:recordIds)")
-    void markUmtsRecordsAsUploadedToBeaconDb(List<Long> recordIds);
+    void setUmtsRecordsUploadedToBeaconDb(List<Long> recordIds);
+
+    @Transaction
+    default void markUmtsRecordsAsUploadedToBeaconDb(List<Long> recordIds)
+    {
+        final int pendingBefore = countUmtsRecordsForUpload(recordIds);
+        setUmtsRecordsUploadedToBeaconDb(recordIds);
+        addToUploadCounter(UploadCounterEntity.UMTS, countUmtsRecordsForUpload(recordIds) - pendingBefore);
+    }
 
     // LTE
     @Query("SELECT COUNT(*) FROM lte_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0")
@@ -62,11 +131,33 @@ public interface SurveyRecordDao
     @Query("SELECT * FROM lte_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0 LIMIT :limit")
     List<LteRecordEntity> getLteRecordsForUpload(int limit);
 
+    @Query("SELECT COUNT(*) FROM lte_survey_records WHERE id IN (:recordIds) AND (ocidUploaded = 0 OR beaconDbUploaded = 0)")
+    int countLteRecordsForUpload(List<Long> recordIds);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertLteRecords(List<LteRecordEntity> records);
+
     @Query("UPDATE lte_survey_records SET ocidUploaded = 1 WHERE id IN (:recordIds)")
-    void markLteRecordsAsUploadedToOcid(List<Long> recordIds);
+    void setLteRecordsUploadedToOcid(List<Long> recordIds);
+
+    @Transaction
+    default void markLteRecordsAsUploadedToOcid(List<Long> recordIds)
+    {
+        final int pendingBefore = countLteRecordsForUpload(recordIds);
+        setLteRecordsUploadedToOcid(recordIds);
+        addToUploadCounter(UploadCounterEntity.LTE, countLteRecordsForUpload(recordIds) - pendingBefore);
+    }
 
     @Query("UPDATE lte_survey_records SET beaconDbUploaded = 1 WHERE id IN (:recordIds)")
-    void markLteRecordsAsUploadedToBeaconDb(List<Long> recordIds);
+    void setLteRecordsUploadedToBeaconDb(List<Long> recordIds);
+
+    @Transaction
+    default void markLteRecordsAsUploadedToBeaconDb(List<Long> recordIds)
+    {
+        final int pendingBefore = countLteRecordsForUpload(recordIds);
+        setLteRecordsUploadedToBeaconDb(recordIds);
+        addToUploadCounter(UploadCounterEntity.LTE, countLteRecordsForUpload(recordIds) - pendingBefore);
+    }
 
     // NR (5G)
     @Query("SELECT COUNT(*) FROM nr_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0")
@@ -75,11 +166,33 @@ public interface SurveyRecordDao
     @Query("SELECT * FROM nr_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0 LIMIT :limit")
     List<NrRecordEntity> getNrRecordsForUpload(int limit);
 
+    @Query("SELECT COUNT(*) FROM nr_survey_records WHERE id IN (:recordIds) AND (ocidUploaded = 0 OR beaconDbUploaded = 0)")
+    int countNrRecordsForUpload(List<Long> recordIds);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertNrRecords(List<NrRecordEntity> records);
+
     @Query("UPDATE nr_survey_records SET ocidUploaded = 1 WHERE id IN (:recordIds)")
-    void markNrRecordsAsUploadedToOcid(List<Long> recordIds);
+    void setNrRecordsUploadedToOcid(List<Long> recordIds);
+
+    @Transaction
+    default void markNrRecordsAsUploadedToOcid(List<Long> recordIds)
+    {
+        final int pendingBefore = countNrRecordsForUpload(recordIds);
+        setNrRecordsUploadedToOcid(recordIds);
+        addToUploadCounter(UploadCounterEntity.NR, countNrRecordsForUpload(recordIds) - pendingBefore);
+    }
 
     @Query("UPDATE nr_survey_records SET beaconDbUploaded = 1 WHERE id IN (:recordIds)")
-    void markNrRecordsAsUploadedToBeaconDb(List<Long> recordIds);
+    void setNrRecordsUploadedToBeaconDb(List<Long> recordIds);
+
+    @Transaction
+    default void markNrRecordsAsUploadedToBeaconDb(List<Long> recordIds)
+    {
+        final int pendingBefore = countNrRecordsForUpload(recordIds);
+        setNrRecordsUploadedToBeaconDb(recordIds);
+        addToUploadCounter(UploadCounterEntity.NR, countNrRecordsForUpload(recordIds) - pendingBefore);
+    }
 
     // Wifi
     @Query("SELECT COUNT(*) FROM wifi_survey_records WHERE beaconDbUploaded = 0")
@@ -88,8 +201,129 @@ public interface SurveyRecordDao
     @Query("SELECT * FROM wifi_survey_records WHERE beaconDbUploaded = 0 LIMIT :limit")
     List<WifiBeaconRecordEntity> getWifiRecordsForUpload(int limit);
 
+    @Query("SELECT COUNT(*) FROM wifi_survey_records WHERE id IN (:recordIds) AND (beaconDbUploaded = 0)")
+    int countWifiRecordsForUpload(List<Long> recordIds);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertWifiRecords(List<WifiBeaconRecordEntity> records);
+
     @Query("UPDATE wifi_survey_records SET beaconDbUploaded = 1 WHERE id IN (:recordIds)")
-    void markWifiRecordsAsUploadedToBeaconDb(List<Long> recordIds);
+    void setWifiRecordsUploadedToBeaconDb(List<Long> recordIds);
+
+    @Transaction
+    default void markWifiRecordsAsUploadedToBeaconDb(List<Long> recordIds)
+    {
+        final int pendingBefore = countWifiRecordsForUpload(recordIds);
+        setWifiRecordsUploadedToBeaconDb(recordIds);
+        addToUploadCounter(UploadCounterEntity.WIFI, countWifiRecordsForUpload(recordIds) - pendingBefore);
+    }
+
+    /**
+     * Inserts the cellular records that passed the upload filters, and adds them to the upload counters in the same
+     * transaction.
+     */
+    @Transaction
+    default void insertCellularRecordsForUpload(List<GsmRecordEntity> gsmRecords, List<CdmaRecordEntity> cdmaRecords,
+                                                List<UmtsRecordEntity> umtsRecords, List<LteRecordEntity> lteRecords,
+                                                List<NrRecordEntity> nrRecords)
+    {
+        if (!gsmRecords.isEmpty())
+        {
+            insertGsmRecords(gsmRecords);
+            addToUploadCounter(UploadCounterEntity.GSM, gsmRecords.size());
+        }
+        if (!cdmaRecords.isEmpty())
+        {
+            insertCdmaRecords(cdmaRecords);
+            addToUploadCounter(UploadCounterEntity.CDMA, cdmaRecords.size());
+        }
+        if (!umtsRecords.isEmpty())
+        {
+            insertUmtsRecords(umtsRecords);
+            addToUploadCounter(UploadCounterEntity.UMTS, umtsRecords.size());
+        }
+        if (!lteRecords.isEmpty())
+        {
+            insertLteRecords(lteRecords);
+            addToUploadCounter(UploadCounterEntity.LTE, lteRecords.size());
+        }
+        if (!nrRecords.isEmpty())
+        {
+            insertNrRecords(nrRecords);
+            addToUploadCounter(UploadCounterEntity.NR, nrRecords.size());
+        }
+    }
+
+    /**
+     * Inserts the Wi-Fi records that passed the upload filters, and adds them to the upload counters in the same
+     * transaction.
+     */
+    @Transaction
+    default void insertWifiRecordsForUpload(List<WifiBeaconRecordEntity> wifiRecords)
+    {
+        if (wifiRecords.isEmpty()) return;
+
+        insertWifiRecords(wifiRecords);
+        addToUploadCounter(UploadCounterEntity.WIFI, wifiRecords.size());
+    }
+
+    // Upload counters
+    @Query("SELECT * FROM upload_counters")
+    List<UploadCounterEntity> getUploadCounters();
+
+    @Query("INSERT OR IGNORE INTO upload_counters (recordTable, pendingCount) VALUES (:recordTable, 0)")
+    void createUploadCounter(String recordTable);
+
+    @Query("UPDATE upload_counters SET pendingCount = pendingCount + :delta WHERE recordTable = :recordTable")
+    void incrementUploadCounter(String recordTable, int delta);
+
+    /**
+     * Adds the delta to the number of records in the table that need to be uploaded. Call this in the same transaction
+     * as the change to the records so the counter can't drift from the table.
+     */
+    default void addToUploadCounter(String recordTable, int delta)
+    {
+        if (delta == 0) return;
+
+        createUploadCounter(recordTable);
+        incrementUploadCounter(recordTable, delta);
+    }
+
+    @Query("INSERT OR REPLACE INTO upload_counters (recordTable, pendingCount) SELECT '" + UploadCounterEntity.GSM + "', COUNT(*) FROM gsm_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0")
+    void recountGsmUploadCounter();
+
+    @Query("INSERT OR REPLACE INTO upload_counters (recordTable, pendingCount) SELECT '" + UploadCounterEntity.CDMA + "', COUNT(*) FROM cdma_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0")
+    void recountCdmaUploadCounter();
+
+    @Query("INSERT OR REPLACE INTO upload_counters (recordTable, pendingCount) SELECT '" + UploadCounterEntity.UMTS + "', COUNT(*) FROM umts_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0")
+    void recountUmtsUploadCounter();
+
+    @Query("INSERT OR REPLACE INTO upload_counters (recordTable, pendingCount) SELECT '" + UploadCounterEntity.LTE + "', COUNT(*) FROM lte_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0")
+    void recountLteUploadCounter();
+
+    @Query("INSERT OR REPLACE INTO upload_counters (recordTable, pendingCount) SELECT '" + UploadCounterEntity.NR + "', COUNT(*) FROM nr_survey_records WHERE ocidUploaded = 0 OR beaconDbUploaded = 0")
+    void recountNrUploadCounter();
+
+    @Query("INSERT OR REPLACE INTO upload_counters (recordTable, pendingCount) SELECT '" + UploadCounterEntity.WIFI + "', COUNT(*) FROM wifi_survey_records WHERE beaconDbUploaded = 0")
+    void recountWifiUploadCounter();
+
+    /**
+     * Sets each upload counter from a full count of its table. This is only needed after a bulk delete, since the
+     * inserts and upload marks keep the counters up to date as they go.
+     */
+    @Transaction
+    default void recountUploadCounters()
+    {
+        recountGsmUploadCounter();
+        recountCdmaUploadCounter();
+        recountUmtsUploadCounter();
+        recountLteUploadCounter();
+        recountNrUploadCounter();
+        recountWifiUploadCounter();
+    }
+
+    @Query("DELETE FROM upload_counters")
+    void deleteUploadCounters();
 
     @Query("DELETE FROM gsm_survey_records WHERE ocidUploaded = 1 OR beaconDbUploaded = 1")
     void deleteUploadedGsmRecords();
@@ -118,6 +352,10 @@ public interface SurveyRecordDao
         deleteUploadedLteRecords();
         deleteUploadedNrRecords();
         deleteUploadedWifiRecords();
+
+        // A cellular record that was only uploaded to one of the targets is deleted as well, so count what is left
+        // rather than tracking which of the deleted records were still counted
+        recountUploadCounters();
     }
 
     @Query("DELETE FROM gsm_survey_records")
@@ -147,6 +385,7 @@ public interface SurveyRecordDao
         deleteAllLteRecords();
         deleteAllNrRecords();
         deleteAllWifiRecords();
+        deleteUploadCounters();
     }
 
     @Query("SELECT COUNT(*) FROM gsm_survey_records")
@@ -0,0 +1,21 @@
+package com.craxiom.networksurvey.logging.db.dao
+
+import androidx.room.Dao
+import androidx.room.Query
+import com.craxiom.networksurvey.logging.db.model.UploadCounterEntity
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Reads the upload counters. They are written by [SurveyRecordDao], in the same transactions that insert the records
+ * and mark them as uploaded.
+ *
+ * @since 1.43
+ */
+@Dao
+interface UploadCounterDao {
+    /**
+     * Emits the counters again each time a transaction that changed them is committed.
+     */
+    @Query("SELECT * FROM upload_counters")
+    fun observeUploadCounters(): Flow<List<UploadCounterEntity>>
+}
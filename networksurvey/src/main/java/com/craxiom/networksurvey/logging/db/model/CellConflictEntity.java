@@ -0,0 +1,38 @@
+package com.craxiom.networksurvey.logging.db.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A persisted physical cell ID problem. See {@link com.craxiom.networksurvey.cellconflict.CellConflictFinding}.
+ * <p>
+ * The cells are stored as their {@link com.craxiom.networksurvey.towerlocation.TowerKey} string, or null if the global
+ * identity of the cell was not known.
+ *
+ * @since 1.43
+ */
+@Entity(tableName = "cell_conflicts", indices = {@Index("time")})
+public class CellConflictEntity
+{
+    @PrimaryKey(autoGenerate = true)
+    public long id;
+
+    @NonNull
+    public String type = "";
+    @NonNull
+    public String protocol = "";
+    public int channel;
+    public int physicalCellId;
+    public int otherPhysicalCellId;
+    public String servingCell;
+    public String otherCell;
+    public String conflictingCell;
+
+    public double latitude;
+    public double longitude;
+    public long time;
+    public Float servingSignal;
+    public Float otherSignal;
+}
@@ -0,0 +1,27 @@
+package com.craxiom.networksurvey.logging.db.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * The persisted stats of one series in the coverage grid. See
+ * {@link com.craxiom.networksurvey.coverage.CoverageAggregator}.
+ *
+ * @since 1.43
+ */
+@Entity(tableName = "coverage_cells", primaryKeys = {"level", "cellX", "cellY", "technology", "mcc", "mnc"})
+public class CoverageCellEntity
+{
+    public int level;
+    public int cellX;
+    public int cellY;
+    @NonNull
+    public String technology = "";
+    public int mcc;
+    public int mnc;
+
+    public long sampleCount;
+    public double signalSum;
+    public float minSignal;
+    public float maxSignal;
+}
@@ -0,0 +1,36 @@
+package com.craxiom.networksurvey.logging.db.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * The number of records in one of the survey record tables that still need to be uploaded. The counters are kept up to
+ * date by the {@link com.craxiom.networksurvey.logging.db.dao.SurveyRecordDao} methods that insert records and mark
+ * them as uploaded, in the same transaction, so that the upload queue size can be read without counting the rows of
+ * every table.
+ *
+ * @since 1.43
+ */
+@Entity(tableName = "upload_counters")
+public class UploadCounterEntity
+{
+    public static final String GSM = "gsm";
+    public static final String CDMA = "cdma";
+    public static final String UMTS = "umts";
+    public static final String LTE = "lte";
+    public static final String NR = "nr";
+    public static final String WIFI = "wifi";
+
+    /**
+     * One of the record table names above.
+     */
+    @PrimaryKey
+    @NonNull
+    public String recordTable = "";
+
+    /**
+     * The number of records that have not been uploaded to every target.
+     */
+    public int pendingCount;
+}
@@ -16,6 +16,7 @@ import com.craxiom.networksurvey.BuildConfig;
 import com.craxiom.networksurvey.R;
 import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
 import com.craxiom.networksurvey.logging.db.SurveyDatabase;
+import com.craxiom.networksurvey.logging.db.UploadRecordCounts;
 import com.craxiom.networksurvey.logging.db.dao.SurveyRecordDao;
 import com.craxiom.networksurvey.logging.db.model.CdmaRecordEntity;
 import com.craxiom.networksurvey.logging.db.model.GsmRecordEntity;
@@ -478,29 +479,19 @@ public class NsUploaderWorker extends Worker
     }
 
     /**
-     * Sums up the total number of records to be uploaded for all protocols.
+     * Sums up the total number of records to be uploaded for all protocols, from the upload counters.
      */
     public static int getTotalRecordsForUpload(SurveyRecordDao surveyRecordDao, boolean isBeaconDBUploadEnabled)
     {
-        if (isBeaconDBUploadEnabled)
-        {
-            return getTotalCellularRecordsForUpload(surveyRecordDao)
-                    + surveyRecordDao.getWifiRecordCountForUpload();
-        } else
-        {
-            return getTotalCellularRecordsForUpload(surveyRecordDao);
-        }
+        final UploadRecordCounts counts = UploadRecordCounts.fromCounters(surveyRecordDao.getUploadCounters());
+        return isBeaconDBUploadEnabled ? counts.getTotal() : counts.getCellular();
     }
 
     /**
-     * Sums up the total number of cellular records to be uploaded for all cellular protocols.
+     * Sums up the total number of cellular records to be uploaded for all cellular protocols, from the upload counters.
      */
     public static int getTotalCellularRecordsForUpload(SurveyRecordDao surveyRecordDao)
     {
-        return surveyRecordDao.getGsmRecordCountForUpload()
-                + surveyRecordDao.getCdmaRecordCountForUpload()
-                + surveyRecordDao.getUmtsRecordCountForUpload()
-                + surveyRecordDao.getLteRecordCountForUpload()
-                + surveyRecordDao.getNrRecordCountForUpload();
+        return UploadRecordCounts.fromCounters(surveyRecordDao.getUploadCounters()).getCellular();
     }
 }
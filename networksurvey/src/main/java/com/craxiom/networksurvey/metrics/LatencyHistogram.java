@@ -0,0 +1,158 @@
+package com.craxiom.networksurvey.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free histogram of durations in nanoseconds, using the same log-linear bucket layout as an
+ * HDR histogram.
+ * <p>
+ * Values below 16 get their own bucket. Above that, each power of two is split into 16 equal sub
+ * buckets, so any recorded value is reported with a relative error of at most 1/16 (6.25%) while
+ * still covering the full range of a long in 960 buckets. Recording a value is one bucket increment,
+ * one {@link LongAdder} add, and (rarely) a compare-and-set of the max, so it is cheap enough to call
+ * for every record on the hot paths.
+ *
+ * @since 1.43
+ */
+public final class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram()
+    {
+    }
+
+    /**
+     * Records a single duration.
+     *
+     * @param nanos The duration in nanoseconds. Negative values are recorded as zero.
+     */
+    public void record(long nanos)
+    {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(value));
+        sum.add(value);
+
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value))
+        {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Records the time that has passed since the provided start time.
+     *
+     * @param startNanos The start time, as returned by {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos)
+    {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return A point in time view of this histogram. Values recorded while the snapshot is being taken
+     * might or might not be included.
+     */
+    public Snapshot snapshot()
+    {
+        final long[] bucketCounts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            bucketCounts[i] = counts.get(i);
+            count += bucketCounts[i];
+        }
+
+        final long maxValue = max.get();
+        return new Snapshot(count, sum.sum(), maxValue,
+                percentile(bucketCounts, count, maxValue, 50),
+                percentile(bucketCounts, count, maxValue, 90),
+                percentile(bucketCounts, count, maxValue, 99));
+    }
+
+    void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    static int bucketIndex(long value)
+    {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * @return The largest value that is counted in the provided bucket.
+     */
+    static long highestEquivalentValue(int bucketIndex)
+    {
+        if (bucketIndex < SUB_BUCKET_COUNT) return bucketIndex;
+
+        final int shift = (bucketIndex - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        final long subBucket = (bucketIndex - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+        // For the very last bucket this overflows to Long.MIN_VALUE, and the minus one brings it back to Long.MAX_VALUE
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static long percentile(long[] bucketCounts, long count, long maxValue, double percentile)
+    {
+        if (count == 0) return 0;
+
+        final long target = Math.max(1, (long) Math.ceil(count * percentile / 100d));
+        long cumulative = 0;
+        for (int i = 0; i < bucketCounts.length; i++)
+        {
+            cumulative += bucketCounts[i];
+            if (cumulative >= target) return Math.min(highestEquivalentValue(i), maxValue);
+        }
+        return maxValue;
+    }
+
+    /**
+     * The summary statistics of a {@link LatencyHistogram} at a point in time. All the values are in
+     * nanoseconds.
+     */
+    public static final class Snapshot
+    {
+        public final long count;
+        public final long sumNanos;
+        public final long maxNanos;
+        public final long p50Nanos;
+        public final long p90Nanos;
+        public final long p99Nanos;
+
+        Snapshot(long count, long sumNanos, long maxNanos, long p50Nanos, long p90Nanos, long p99Nanos)
+        {
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+        }
+
+        public long getMeanNanos()
+        {
+            return count == 0 ? 0 : sumNanos / count;
+        }
+    }
+}
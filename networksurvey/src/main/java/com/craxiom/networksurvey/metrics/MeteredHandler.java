@@ -0,0 +1,58 @@
+package com.craxiom.networksurvey.metrics;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.SystemClock;
+
+/**
+ * A {@link Handler} that reports how many of its messages are waiting to run, how long each message
+ * waited past its due time, and how long it took to run.
+ * <p>
+ * Every post goes through {@link #sendMessageAtTime(Message, long)} and every message is run through
+ * {@link #dispatchMessage(Message)}, so overriding those two methods covers all the ways the loggers
+ * use the handler. The wait time comes from {@link Message#getWhen()}, so it only has millisecond
+ * resolution.
+ *
+ * @since 1.43
+ */
+public class MeteredHandler extends Handler
+{
+    private final MetricGauge backlog;
+    private final LatencyHistogram waitTime;
+    private final LatencyHistogram runTime;
+
+    public MeteredHandler(Looper looper, MetricGauge backlog, LatencyHistogram waitTime, LatencyHistogram runTime)
+    {
+        super(looper);
+        this.backlog = backlog;
+        this.waitTime = waitTime;
+        this.runTime = runTime;
+    }
+
+    @Override
+    public boolean sendMessageAtTime(Message msg, long uptimeMillis)
+    {
+        // Counted before the message is queued so the dispatch can never decrement first
+        backlog.increment();
+        final boolean queued = super.sendMessageAtTime(msg, uptimeMillis);
+        if (!queued) backlog.decrement();
+        return queued;
+    }
+
+    @Override
+    public void dispatchMessage(Message msg)
+    {
+        backlog.decrement();
+        waitTime.record((SystemClock.uptimeMillis() - msg.getWhen()) * 1_000_000L);
+
+        final long start = System.nanoTime();
+        try
+        {
+            super.dispatchMessage(msg);
+        } finally
+        {
+            runTime.recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.craxiom.networksurvey.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count (e.g. the number of records sent). Backed by a {@link LongAdder}
+ * so that concurrent increments from different threads don't contend on a single value.
+ *
+ * @since 1.43
+ */
+public final class MetricCounter
+{
+    private final LongAdder count = new LongAdder();
+
+    MetricCounter()
+    {
+    }
+
+    public void increment()
+    {
+        count.increment();
+    }
+
+    public void add(long amount)
+    {
+        count.add(amount);
+    }
+
+    public long get()
+    {
+        return count.sum();
+    }
+
+    void reset()
+    {
+        count.reset();
+    }
+}
@@ -0,0 +1,42 @@
+package com.craxiom.networksurvey.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A value that can go up and down (e.g. the number of tasks waiting on a handler).
+ *
+ * @since 1.43
+ */
+public final class MetricGauge
+{
+    private final AtomicLong value = new AtomicLong();
+
+    MetricGauge()
+    {
+    }
+
+    public void set(long newValue)
+    {
+        value.set(newValue);
+    }
+
+    public void increment()
+    {
+        value.incrementAndGet();
+    }
+
+    public void decrement()
+    {
+        value.decrementAndGet();
+    }
+
+    public long get()
+    {
+        return value.get();
+    }
+
+    void reset()
+    {
+        value.set(0);
+    }
+}
@@ -0,0 +1,106 @@
+package com.craxiom.networksurvey.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds the named counters, gauges, and latency histograms for a set of pipeline stages.
+ * <p>
+ * Looking up a metric by name goes through a concurrent map, so the stages should look up their
+ * metrics once and keep the reference (see {@link PipelineMetrics}). Updating a metric never takes a
+ * lock. Taking a {@link #snapshot()} reads every metric, so it is meant to be done at a human rate
+ * (e.g. once a second for the diagnostics screen), not per record.
+ *
+ * @since 1.43
+ */
+public final class MetricsRegistry
+{
+    private final Map<String, MetricCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, MetricGauge> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gaugeSuppliers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * @return The counter with the provided name, creating it if it does not exist yet.
+     */
+    public MetricCounter counter(String name)
+    {
+        return counters.computeIfAbsent(name, key -> new MetricCounter());
+    }
+
+    /**
+     * @return The gauge with the provided name, creating it if it does not exist yet.
+     */
+    public MetricGauge gauge(String name)
+    {
+        return gauges.computeIfAbsent(name, key -> new MetricGauge());
+    }
+
+    /**
+     * @return The latency histogram with the provided name, creating it if it does not exist yet.
+     */
+    public LatencyHistogram histogram(String name)
+    {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Registers a gauge whose value is pulled from the supplier each time a snapshot is taken. This is
+     * useful for values that the owner already tracks (e.g. the size of a queue), so nothing extra has
+     * to be done on the hot path.
+     *
+     * @param name     The name of the gauge. Replaces any supplier already registered with this name.
+     * @param supplier The supplier of the current value.
+     */
+    public void registerGauge(String name, LongSupplier supplier)
+    {
+        gaugeSuppliers.put(name, supplier);
+    }
+
+    /**
+     * Removes a gauge that was registered with {@link #registerGauge(String, LongSupplier)}. Nothing is
+     * removed if a different supplier has since been registered with the same name.
+     */
+    public void unregisterGauge(String name, LongSupplier supplier)
+    {
+        gaugeSuppliers.remove(name, supplier);
+    }
+
+    /**
+     * @return A point in time view of all the metrics, sorted by name.
+     */
+    public MetricsSnapshot snapshot()
+    {
+        final Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.get()));
+
+        final Map<String, Long> gaugeValues = new TreeMap<>();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.get()));
+        gaugeSuppliers.forEach((name, supplier) -> {
+            try
+            {
+                gaugeValues.put(name, supplier.getAsLong());
+            } catch (RuntimeException ignore)
+            {
+                // The owner of the gauge is shutting down, leave it out of this snapshot
+            }
+        });
+
+        final Map<String, LatencyHistogram.Snapshot> histogramValues = new TreeMap<>();
+        histograms.forEach((name, histogram) -> histogramValues.put(name, histogram.snapshot()));
+
+        return new MetricsSnapshot(System.currentTimeMillis(), counterValues, gaugeValues, histogramValues);
+    }
+
+    /**
+     * Resets all the counters and histograms back to zero. The gauges are left as they are since they
+     * reflect the current state of the pipeline rather than an accumulation.
+     */
+    public void reset()
+    {
+        counters.values().forEach(MetricCounter::reset);
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+}
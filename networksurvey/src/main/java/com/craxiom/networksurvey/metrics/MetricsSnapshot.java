@@ -0,0 +1,27 @@
+package com.craxiom.networksurvey.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * An immutable, point in time view of the metrics in a {@link MetricsRegistry}. Each of the maps is
+ * sorted by metric name.
+ *
+ * @since 1.43
+ */
+public final class MetricsSnapshot
+{
+    public final long timestampMillis;
+    public final Map<String, Long> counters;
+    public final Map<String, Long> gauges;
+    public final Map<String, LatencyHistogram.Snapshot> histograms;
+
+    MetricsSnapshot(long timestampMillis, Map<String, Long> counters, Map<String, Long> gauges,
+                    Map<String, LatencyHistogram.Snapshot> histograms)
+    {
+        this.timestampMillis = timestampMillis;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+}
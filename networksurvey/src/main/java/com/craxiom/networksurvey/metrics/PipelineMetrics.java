@@ -0,0 +1,121 @@
+package com.craxiom.networksurvey.metrics;
+
+import com.craxiom.networksurvey.BuildConfig;
+import com.craxiom.networksurvey.constants.DeviceStatusMessageConstants;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+import java.util.Map;
+
+/**
+ * The metrics that the survey record pipeline stages report to, so it is possible to see where records
+ * pile up or get dropped while a survey is running.
+ * <p>
+ * The metrics are looked up once here and then updated directly by each stage:
+ * <ul>
+ *     <li>The gRPC connection registers a gauge for each of its outgoing queues (named with the
+ *     {@link #GRPC_QUEUE_PREFIX}) and counts the messages it sends.</li>
+ *     <li>The survey record loggers track the number of tasks waiting on their handler, how long the
+ *     tasks wait, and how long they take to run.</li>
+ *     <li>The upload database store tracks its write backlog, how long each batch write takes, and how
+ *     many records are written or filtered out (by the location accuracy and movement filters, or
+ *     because they are incomplete neighbor records).</li>
+ *     <li>The new tower check counts the batches it skips and the serving cells it looks up.</li>
+ *     <li>The survey record processor registers a gauge for each technology with the number of cellular
+ *     records sent to the record listeners and the number suppressed because the cell had not changed
+ *     (named with the {@link #UNCHANGED_CELL_EMITTED_PREFIX} and {@link #UNCHANGED_CELL_SUPPRESSED_PREFIX}).</li>
+ *     <li>The cell conflict monitor counts the batches it analyzes and the problems it finds, and tracks how long
+ *     each analysis takes.</li>
+ * </ul>
+ *
+ * @since 1.43
+ */
+public final class PipelineMetrics
+{
+    public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    public static final String GRPC_QUEUE_PREFIX = "grpc.queue.";
+    public static final MetricCounter GRPC_MESSAGES_SENT = REGISTRY.counter("grpc.messages_sent");
+
+    public static final MetricGauge LOGGER_HANDLER_BACKLOG = REGISTRY.gauge("logger.handler.backlog");
+    public static final LatencyHistogram LOGGER_HANDLER_WAIT = REGISTRY.histogram("logger.handler.wait");
+    public static final LatencyHistogram LOGGER_HANDLER_RUN = REGISTRY.histogram("logger.handler.run");
+
+    public static final MetricGauge UPLOAD_DB_BACKLOG = REGISTRY.gauge("upload_db.backlog");
+    public static final LatencyHistogram UPLOAD_DB_WRITE = REGISTRY.histogram("upload_db.write");
+    public static final MetricCounter UPLOAD_DB_RECORDS_WRITTEN = REGISTRY.counter("upload_db.records_written");
+    public static final MetricCounter UPLOAD_DB_RECORDS_FILTERED = REGISTRY.counter("upload_db.records_filtered");
+
+    public static final MetricCounter TOWER_CHECK_RECORDS_SKIPPED = REGISTRY.counter("tower_check.records_skipped");
+    public static final MetricCounter TOWER_CHECK_NO_SERVING_CELL = REGISTRY.counter("tower_check.no_serving_cell");
+    public static final MetricCounter TOWER_CHECK_UNCHANGED_CELL = REGISTRY.counter("tower_check.unchanged_cell");
+    public static final MetricCounter TOWER_CHECK_LOOKUPS = REGISTRY.counter("tower_check.lookups");
+
+    public static final String UNCHANGED_CELL_EMITTED_PREFIX = "unchanged_cell.emitted.";
+    public static final String UNCHANGED_CELL_SUPPRESSED_PREFIX = "unchanged_cell.suppressed.";
+
+    public static final MetricCounter CELL_CONFLICT_BATCHES = REGISTRY.counter("cell_conflict.batches");
+    public static final MetricCounter CELL_CONFLICT_FINDINGS = REGISTRY.counter("cell_conflict.findings");
+    public static final LatencyHistogram CELL_CONFLICT_ANALYZE = REGISTRY.histogram("cell_conflict.analyze");
+
+    private PipelineMetrics()
+    {
+    }
+
+    /**
+     * Creates the periodic pipeline metrics message from a snapshot.
+     * <p>
+     * There is no pipeline metrics message in the Network Survey Messaging API, so the message is a
+     * generic {@link Struct} with the same top level layout as the Device Status message (a message type,
+     * a version, and a data object with the device serial number and device time). The counters and
+     * gauges are sent as-is, and each histogram is sent as its count, mean, percentiles and max in
+     * nanoseconds.
+     *
+     * @param snapshot           The metrics to put in the message.
+     * @param deviceSerialNumber The device ID, the same one that is used for the Device Status message.
+     * @param deviceTime         The RFC 3339 formatted time the snapshot was taken.
+     * @return The message, which can be published as JSON.
+     */
+    public static Struct toMessage(MetricsSnapshot snapshot, String deviceSerialNumber, String deviceTime)
+    {
+        final Struct.Builder countersBuilder = Struct.newBuilder();
+        snapshot.counters.forEach((name, value) -> countersBuilder.putFields(name, numberValue(value)));
+
+        final Struct.Builder gaugesBuilder = Struct.newBuilder();
+        snapshot.gauges.forEach((name, value) -> gaugesBuilder.putFields(name, numberValue(value)));
+
+        final Struct.Builder histogramsBuilder = Struct.newBuilder();
+        for (Map.Entry<String, LatencyHistogram.Snapshot> entry : snapshot.histograms.entrySet())
+        {
+            final LatencyHistogram.Snapshot histogram = entry.getValue();
+            final Struct histogramStruct = Struct.newBuilder()
+                    .putFields("count", numberValue(histogram.count))
+                    .putFields("meanNanos", numberValue(histogram.getMeanNanos()))
+                    .putFields("p50Nanos", numberValue(histogram.p50Nanos))
+                    .putFields("p90Nanos", numberValue(histogram.p90Nanos))
+                    .putFields("p99Nanos", numberValue(histogram.p99Nanos))
+                    .putFields("maxNanos", numberValue(histogram.maxNanos))
+                    .build();
+            histogramsBuilder.putFields(entry.getKey(), Value.newBuilder().setStructValue(histogramStruct).build());
+        }
+
+        final Struct data = Struct.newBuilder()
+                .putFields("deviceSerialNumber", Value.newBuilder().setStringValue(deviceSerialNumber).build())
+                .putFields("deviceTime", Value.newBuilder().setStringValue(deviceTime).build())
+                .putFields("counters", Value.newBuilder().setStructValue(countersBuilder).build())
+                .putFields("gauges", Value.newBuilder().setStructValue(gaugesBuilder).build())
+                .putFields("histograms", Value.newBuilder().setStructValue(histogramsBuilder).build())
+                .build();
+
+        return Struct.newBuilder()
+                .putFields("messageType", Value.newBuilder().setStringValue(DeviceStatusMessageConstants.PIPELINE_METRICS_MESSAGE_TYPE).build())
+                .putFields("version", Value.newBuilder().setStringValue(BuildConfig.MESSAGING_API_VERSION).build())
+                .putFields("data", Value.newBuilder().setStructValue(data).build())
+                .build();
+    }
+
+    private static Value numberValue(long value)
+    {
+        return Value.newBuilder().setNumberValue(value).build();
+    }
+}
@@ -10,6 +10,7 @@ import com.craxiom.messaging.NrRecord;
 import com.craxiom.messaging.NrRecordData;
 import com.craxiom.messaging.UmtsRecord;
 import com.craxiom.messaging.UmtsRecordData;
+import com.craxiom.networksurvey.util.NsUtils;
 import com.google.protobuf.GeneratedMessage;
 
 import java.util.Objects;
@@ -23,13 +24,36 @@ public class CellularRecordWrapper
 {
     public final CellularProtocol cellularProtocol;
     public final GeneratedMessage cellularRecord;
+    /**
+     * The device time of the record as Unix Epoch millis, so consumers don't have to parse the RFC3339 device time
+     * string back.
+     *
+     * @since 1.43
+     */
+    public final long epochMillis;
     private final int hash;
     private final String comparableString;
 
+    /**
+     * Creates a wrapper where the epoch time is parsed from the record's device time. Prefer
+     * {@link #CellularRecordWrapper(CellularProtocol, GeneratedMessage, long)} when the epoch time is already known.
+     */
     public CellularRecordWrapper(CellularProtocol cellularProtocol, GeneratedMessage cellularRecord)
+    {
+        this(cellularProtocol, cellularRecord, parseEpochMillis(getDeviceTime(cellularProtocol, cellularRecord)));
+    }
+
+    /**
+     * @param cellularProtocol The protocol of the record.
+     * @param cellularRecord   The cellular record.
+     * @param epochMillis      The device time of the record as Unix Epoch millis.
+     * @since 1.43
+     */
+    public CellularRecordWrapper(CellularProtocol cellularProtocol, GeneratedMessage cellularRecord, long epochMillis)
     {
         this.cellularProtocol = cellularProtocol;
         this.cellularRecord = cellularRecord;
+        this.epochMillis = epochMillis;
 
         comparableString = getComparableString(this);
         hash = Objects.hash(cellularProtocol, comparableString);
@@ -89,6 +113,24 @@ public class CellularRecordWrapper
         };
     }
 
+    private static long parseEpochMillis(String deviceTime)
+    {
+        return deviceTime == null || deviceTime.isEmpty() ? 0 : NsUtils.getEpochFromRfc3339(deviceTime);
+    }
+
+    private static String getDeviceTime(CellularProtocol cellularProtocol, GeneratedMessage cellularRecord)
+    {
+        return switch (cellularProtocol)
+        {
+            case GSM -> ((GsmRecord) cellularRecord).getData().getDeviceTime();
+            case CDMA -> ((CdmaRecord) cellularRecord).getData().getDeviceTime();
+            case UMTS -> ((UmtsRecord) cellularRecord).getData().getDeviceTime();
+            case LTE -> ((LteRecord) cellularRecord).getData().getDeviceTime();
+            case NR -> ((NrRecord) cellularRecord).getData().getDeviceTime();
+            default -> null;
+        };
+    }
+
     private static String getComparableString(CellularRecordWrapper wrapper)
     {
         return switch (wrapper.cellularProtocol)
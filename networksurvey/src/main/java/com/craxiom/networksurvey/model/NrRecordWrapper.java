@@ -16,4 +16,17 @@ public class NrRecordWrapper extends CellularRecordWrapper
 
         this.bands = bands;
     }
+
+    /**
+     * @param nrRecord    The NR record.
+     * @param bands       The bands that the cell is using.
+     * @param epochMillis The device time of the record as Unix Epoch millis.
+     * @since 1.43
+     */
+    public NrRecordWrapper(NrRecord nrRecord, int[] bands, long epochMillis)
+    {
+        super(CellularProtocol.NR, nrRecord, epochMillis);
+
+        this.bands = bands;
+    }
 }
@@ -0,0 +1,138 @@
+package com.craxiom.networksurvey.model;
+
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.GsmRecordData;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.NrRecordData;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.UmtsRecordData;
+
+/**
+ * An immutable view of the identity and radio conditions of the most recent serving cell. This is
+ * used to tag data that is not produced by the cellular pipeline (e.g. throughput samples) with the
+ * cell it was collected on.
+ * <p>
+ * Any field that was not present on the source record is represented as {@code null}.
+ *
+ * @since 1.43
+ */
+public class ServingCellSnapshot
+{
+    public final CellularProtocol protocol;
+    public final long timestampMs;
+    public final Integer mcc;
+    public final Integer mnc;
+    public final Integer area;
+    public final Long cellId;
+    public final Integer pci;
+    public final Integer arfcn;
+    public final Float rsrp;
+    public final Float rsrq;
+    public final Float sinr;
+    public final Float ecno;
+    public final Integer slot;
+
+    private ServingCellSnapshot(CellularProtocol protocol, long timestampMs, Integer mcc, Integer mnc,
+                                Integer area, Long cellId, Integer pci, Integer arfcn,
+                                Float rsrp, Float rsrq, Float sinr, Float ecno, Integer slot)
+    {
+        this.protocol = protocol;
+        this.timestampMs = timestampMs;
+        this.mcc = mcc;
+        this.mnc = mnc;
+        this.area = area;
+        this.cellId = cellId;
+        this.pci = pci;
+        this.arfcn = arfcn;
+        this.rsrp = rsrp;
+        this.rsrq = rsrq;
+        this.sinr = sinr;
+        this.ecno = ecno;
+        this.slot = slot;
+    }
+
+    /**
+     * Creates a snapshot from the provided serving cell record. For GSM and UMTS the signal
+     * strength and RSCP are reported in the RSRP column since those technologies don't have RSRP.
+     * The UMTS Ec/No has its own field because it is not comparable to an SINR.
+     *
+     * @param wrapper     The serving cell record.
+     * @param timestampMs The time the record was processed, in milliseconds since the epoch.
+     * @return The snapshot, or null if the protocol is not supported (e.g. CDMA).
+     */
+    public static ServingCellSnapshot fromRecord(CellularRecordWrapper wrapper, long timestampMs)
+    {
+        if (wrapper == null) return null;
+
+        return switch (wrapper.cellularProtocol)
+        {
+            case LTE ->
+            {
+                LteRecordData data = ((LteRecord) wrapper.cellularRecord).getData();
+                yield new ServingCellSnapshot(CellularProtocol.LTE, timestampMs,
+                        data.hasMcc() ? data.getMcc().getValue() : null,
+                        data.hasMnc() ? data.getMnc().getValue() : null,
+                        data.hasTac() ? data.getTac().getValue() : null,
+                        data.hasEci() ? (long) data.getEci().getValue() : null,
+                        data.hasPci() ? data.getPci().getValue() : null,
+                        data.hasEarfcn() ? data.getEarfcn().getValue() : null,
+                        data.hasRsrp() ? data.getRsrp().getValue() : null,
+                        data.hasRsrq() ? data.getRsrq().getValue() : null,
+                        data.hasSnr() ? data.getSnr().getValue() : null,
+                        null,
+                        data.hasSlot() ? data.getSlot().getValue() : null);
+            }
+            case NR ->
+            {
+                NrRecordData data = ((NrRecord) wrapper.cellularRecord).getData();
+                yield new ServingCellSnapshot(CellularProtocol.NR, timestampMs,
+                        data.hasMcc() ? data.getMcc().getValue() : null,
+                        data.hasMnc() ? data.getMnc().getValue() : null,
+                        data.hasTac() ? data.getTac().getValue() : null,
+                        data.hasNci() ? data.getNci().getValue() : null,
+                        data.hasPci() ? data.getPci().getValue() : null,
+                        data.hasNarfcn() ? data.getNarfcn().getValue() : null,
+                        data.hasSsRsrp() ? data.getSsRsrp().getValue() : null,
+                        data.hasSsRsrq() ? data.getSsRsrq().getValue() : null,
+                        data.hasSsSinr() ? data.getSsSinr().getValue() : null,
+                        null,
+                        data.hasSlot() ? data.getSlot().getValue() : null);
+            }
+            case UMTS ->
+            {
+                UmtsRecordData data = ((UmtsRecord) wrapper.cellularRecord).getData();
+                yield new ServingCellSnapshot(CellularProtocol.UMTS, timestampMs,
+                        data.hasMcc() ? data.getMcc().getValue() : null,
+                        data.hasMnc() ? data.getMnc().getValue() : null,
+                        data.hasLac() ? data.getLac().getValue() : null,
+                        data.hasCid() ? (long) data.getCid().getValue() : null,
+                        data.hasPsc() ? data.getPsc().getValue() : null,
+                        data.hasUarfcn() ? data.getUarfcn().getValue() : null,
+                        data.hasRscp() ? data.getRscp().getValue() : null,
+                        null,
+                        null,
+                        data.hasEcno() ? data.getEcno().getValue() : null,
+                        data.hasSlot() ? data.getSlot().getValue() : null);
+            }
+            case GSM ->
+            {
+                GsmRecordData data = ((GsmRecord) wrapper.cellularRecord).getData();
+                yield new ServingCellSnapshot(CellularProtocol.GSM, timestampMs,
+                        data.hasMcc() ? data.getMcc().getValue() : null,
+                        data.hasMnc() ? data.getMnc().getValue() : null,
+                        data.hasLac() ? data.getLac().getValue() : null,
+                        data.hasCi() ? (long) data.getCi().getValue() : null,
+                        data.hasBsic() ? data.getBsic().getValue() : null,
+                        data.hasArfcn() ? data.getArfcn().getValue() : null,
+                        data.hasSignalStrength() ? data.getSignalStrength().getValue() : null,
+                        null,
+                        null,
+                        null,
+                        data.hasSlot() ? data.getSlot().getValue() : null);
+            }
+            default -> null;
+        };
+    }
+}
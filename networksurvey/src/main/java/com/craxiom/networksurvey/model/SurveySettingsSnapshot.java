@@ -0,0 +1,78 @@
+package com.craxiom.networksurvey.model;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.preference.PreferenceManager;
+
+import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
+import com.craxiom.networksurvey.data.SsidMatcher;
+import com.craxiom.networksurvey.util.PreferenceUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An immutable snapshot of the settings that are read on the survey hot paths (e.g. once per scan
+ * or once per record). The values are resolved once, with the MDM restrictions and the MDM override
+ * already applied by {@link PreferenceUtils}, so the hot paths don't have to go back to the
+ * {@link SharedPreferences} or the restrictions manager for every event.
+ * <p>
+ * A new snapshot is built and published any time one of the underlying settings changes. Settings
+ * that are only read when they change (e.g. the scan rates or the log rollover size) are not part
+ * of the snapshot; their consumers already re-read them from the preference change callback.
+ * <p>
+ * Each snapshot has a {@link #version} that increases with every rebuild, so a consumer that caches
+ * something derived from the settings can tell whether it was derived from the current snapshot
+ * without comparing every field.
+ *
+ * @since 1.43
+ */
+public class SurveySettingsSnapshot
+{
+    private static final AtomicLong lastVersion = new AtomicLong();
+
+    /**
+     * Increases by one each time a snapshot is created, starting at 1 for the first snapshot.
+     */
+    public final long version;
+    public final boolean newTowerAlertsEnabled;
+    public final SsidMatcher ssidExclusionMatcher;
+    public final boolean suppressUnchangedCells;
+    public final int unchangedCellHeartbeatScans;
+    public final boolean pipelineMetricsMessageEnabled;
+    public final boolean cellConflictDetectionEnabled;
+
+    private SurveySettingsSnapshot(boolean newTowerAlertsEnabled, SsidMatcher ssidExclusionMatcher,
+                                   boolean suppressUnchangedCells, int unchangedCellHeartbeatScans,
+                                   boolean pipelineMetricsMessageEnabled, boolean cellConflictDetectionEnabled)
+    {
+        this.version = lastVersion.incrementAndGet();
+        this.newTowerAlertsEnabled = newTowerAlertsEnabled;
+        this.ssidExclusionMatcher = ssidExclusionMatcher;
+        this.suppressUnchangedCells = suppressUnchangedCells;
+        this.unchangedCellHeartbeatScans = unchangedCellHeartbeatScans;
+        this.pipelineMetricsMessageEnabled = pipelineMetricsMessageEnabled;
+        this.cellConflictDetectionEnabled = cellConflictDetectionEnabled;
+    }
+
+    /**
+     * Reads all the settings and creates a new snapshot. This does the slow work of going to the
+     * shared preferences and MDM restrictions, so it should only be called when a setting changes.
+     *
+     * @param context              The context used to read the preferences and restrictions.
+     * @param ssidExclusionMatcher The matcher for the current SSID exclusion list.
+     * @return The new snapshot.
+     */
+    public static SurveySettingsSnapshot create(Context context, SsidMatcher ssidExclusionMatcher)
+    {
+        final SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+
+        return new SurveySettingsSnapshot(
+                preferences.getBoolean(NetworkSurveyConstants.PROPERTY_NEW_TOWER_ALERTS_ENABLED, false),
+                ssidExclusionMatcher == null ? SsidMatcher.EMPTY : ssidExclusionMatcher,
+                PreferenceUtils.getSuppressUnchangedCellsPreference(context),
+                PreferenceUtils.getUnchangedCellHeartbeatScansPreference(context),
+                PreferenceUtils.getPipelineMetricsMessagePreference(context),
+                PreferenceUtils.getCellConflictDetectionPreference(context));
+    }
+}
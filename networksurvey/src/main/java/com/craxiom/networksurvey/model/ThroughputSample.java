@@ -0,0 +1,59 @@
+package com.craxiom.networksurvey.model;
+
+import android.location.Location;
+
+/**
+ * A single throughput measurement taken during a drive test, tagged with the device location and the
+ * serving cell at the time the sample was taken.
+ *
+ * @since 1.43
+ */
+public class ThroughputSample
+{
+    /**
+     * The stage of the speed test that a sample was taken during.
+     */
+    public enum Phase
+    {
+        LATENCY,
+        DOWNLOAD,
+        UPLOAD,
+        /**
+         * Between two speed tests of a drive test. No samples are logged for this phase.
+         */
+        IDLE
+    }
+
+    public final long timestampMs;
+    public final int testNumber;
+    public final Phase phase;
+    public final double throughputMbps;
+    public final long latencyMs;
+    public final String networkType;
+    public final Location location;
+    public final ServingCellSnapshot servingCell;
+
+    /**
+     * @param timestampMs    The time the sample was taken, in milliseconds since the epoch.
+     * @param testNumber     The drive test iteration this sample belongs to, starting at 1.
+     * @param phase          The stage of the speed test when the sample was taken.
+     * @param throughputMbps The throughput over the sample window. 0 for the latency phase.
+     * @param latencyMs      The most recent latency measurement, or -1 if it is not known yet.
+     * @param networkType    The type of network the test is running over (e.g. "4G" or "Wi-Fi").
+     * @param location       The device location, or null if a fix is not available.
+     * @param servingCell    The most recent serving cell, or null if one has not been seen yet.
+     */
+    public ThroughputSample(long timestampMs, int testNumber, Phase phase, double throughputMbps,
+                            long latencyMs, String networkType, Location location,
+                            ServingCellSnapshot servingCell)
+    {
+        this.timestampMs = timestampMs;
+        this.testNumber = testNumber;
+        this.phase = phase;
+        this.throughputMbps = throughputMbps;
+        this.latencyMs = latencyMs;
+        this.networkType = networkType;
+        this.location = location;
+        this.servingCell = servingCell;
+    }
+}
@@ -0,0 +1,15 @@
+package com.craxiom.networksurvey.model;
+
+/**
+ * A survey record paired with its device time as Unix Epoch millis. The protobuf records only hold the RFC3339
+ * device time string, so this lets records that are queued (e.g. for a gRPC stream) keep the epoch time that they
+ * were created with instead of parsing the string back when they are sent.
+ *
+ * @param record      The survey record.
+ * @param epochMillis The device time of the record as Unix Epoch millis.
+ * @param <T>         The type of the survey record.
+ * @since 1.43
+ */
+public record TimestampedRecord<T>(T record, long epochMillis)
+{
+}
@@ -1,6 +1,7 @@
 package com.craxiom.networksurvey.model;
 
 import com.craxiom.messaging.WifiBeaconRecord;
+import com.craxiom.networksurvey.util.NsUtils;
 
 import java.io.Serializable;
 
@@ -15,6 +16,8 @@ public class WifiRecordWrapper implements Serializable
     private final WifiBeaconRecord wifiBeaconRecord;
     private final String capabilitiesString;
     private final boolean isExcluded;
+    private final int centerChannel;
+    private final long epochMillis;
 
     /**
      * @param wifiBeaconRecord   The protobuf defined Wi-Fi record object.
@@ -31,10 +34,32 @@ public class WifiRecordWrapper implements Serializable
      * @param isExcluded         True if this SSID is in the exclusion list
      */
     public WifiRecordWrapper(WifiBeaconRecord wifiBeaconRecord, String capabilitiesString, boolean isExcluded)
+    {
+        this(wifiBeaconRecord, capabilitiesString, isExcluded, -1, parseEpochMillis(wifiBeaconRecord));
+    }
+
+    /**
+     * @param wifiBeaconRecord   The protobuf defined Wi-Fi record object.
+     * @param capabilitiesString The capabilities string from {@link android.net.wifi.ScanResult#capabilities}
+     * @param isExcluded         True if this SSID is in the exclusion list
+     * @param centerChannel      The precomputed center channel, or -1 if it is not known.
+     * @param epochMillis        The device time of the record as Unix Epoch millis.
+     * @since 1.43
+     */
+    public WifiRecordWrapper(WifiBeaconRecord wifiBeaconRecord, String capabilitiesString, boolean isExcluded,
+                             int centerChannel, long epochMillis)
     {
         this.wifiBeaconRecord = wifiBeaconRecord;
         this.capabilitiesString = capabilitiesString;
         this.isExcluded = isExcluded;
+        this.centerChannel = centerChannel;
+        this.epochMillis = epochMillis;
+    }
+
+    private static long parseEpochMillis(WifiBeaconRecord wifiBeaconRecord)
+    {
+        final String deviceTime = wifiBeaconRecord.getData().getDeviceTime();
+        return deviceTime.isEmpty() ? 0 : NsUtils.getEpochFromRfc3339(deviceTime);
     }
 
     public WifiBeaconRecord getWifiBeaconRecord()
@@ -51,4 +76,23 @@ public class WifiRecordWrapper implements Serializable
     {
         return isExcluded;
     }
+
+    /**
+     * @return The center channel that was computed when the record was created, or -1 if it is not known.
+     * @since 1.43
+     */
+    public int getCenterChannel()
+    {
+        return centerChannel;
+    }
+
+    /**
+     * @return The device time of the record as Unix Epoch millis, so it doesn't have to be parsed back from the
+     * RFC3339 device time string.
+     * @since 1.43
+     */
+    public long getEpochMillis()
+    {
+        return epochMillis;
+    }
 }
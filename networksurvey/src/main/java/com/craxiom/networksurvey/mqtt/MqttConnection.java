@@ -20,6 +20,8 @@ import com.craxiom.networksurvey.listeners.IDeviceStatusListener;
 import com.craxiom.networksurvey.listeners.IGnssSurveyRecordListener;
 import com.craxiom.networksurvey.listeners.IWifiSurveyRecordListener;
 import com.craxiom.networksurvey.model.WifiRecordWrapper;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
 
 import java.util.List;
 
@@ -41,6 +43,7 @@ public class MqttConnection extends DefaultMqttConnection implements ICellularSu
     private static final String MQTT_BLUETOOTH_MESSAGE_TOPIC = "bluetooth_message";
     private static final String MQTT_GNSS_MESSAGE_TOPIC = "gnss_message";
     private static final String MQTT_DEVICE_STATUS_MESSAGE_TOPIC = "device_status_message";
+    private static final String MQTT_PIPELINE_METRICS_MESSAGE_TOPIC = "pipeline_metrics_message";
 
     @Override
     public void connect(Context context, BrokerConnectionInfo brokerConnectionInfo)
@@ -192,6 +195,21 @@ public class MqttConnection extends DefaultMqttConnection implements ICellularSu
         publishMessage(MQTT_DEVICE_STATUS_MESSAGE_TOPIC, deviceStatus);
     }
 
+    @Override
+    public void onPipelineMetrics(Struct pipelineMetrics)
+    {
+        if (effectiveDeviceName != null)
+        {
+            final Struct.Builder messageBuilder = pipelineMetrics.toBuilder();
+            final Struct.Builder dataBuilder = messageBuilder.getFieldsOrDefault("data", Value.getDefaultInstance())
+                    .getStructValue().toBuilder();
+            dataBuilder.putFields("deviceName", Value.newBuilder().setStringValue(effectiveDeviceName).build());
+            pipelineMetrics = messageBuilder.putFields("data", Value.newBuilder().setStructValue(dataBuilder).build()).build();
+        }
+
+        publishMessage(MQTT_PIPELINE_METRICS_MESSAGE_TOPIC, pipelineMetrics);
+    }
+
     @Override
     public void onPhoneState(PhoneState phoneState)
     {
@@ -0,0 +1,321 @@
+package com.craxiom.networksurvey.services;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Adapts the scan interval of each survey technology to how the device is moving and to the state of
+ * the battery. The user configured scan interval is the baseline, and it is scaled by a factor for the
+ * current motion state and a factor for the current battery state:
+ * <ul>
+ *     <li>When the device is driving the scans are denser so the survey has a similar spacing between
+ *     samples as it does when walking.</li>
+ *     <li>When the device has been still for a while the scans are stretched out since the results would
+ *     mostly be the same.</li>
+ *     <li>When the battery is low and the device is not charging the scans are stretched out to save power.</li>
+ * </ul>
+ * The scaled interval is then clamped to the minimum and maximum bounds for the technology. A user
+ * configured interval that is outside the bounds is still allowed; the bounds only limit how far the
+ * adaptation can move the interval.
+ * <p>
+ * The motion and battery inputs are reduced to a few discrete states (with hysteresis for the motion
+ * state) so that the intervals, and therefore the scanning, only change when the device moves into a
+ * different state rather than on every location update. The registered listeners are notified any time
+ * the state changes.
+ * <p>
+ * This class has no Android dependencies so that it can be driven from a recorded trace in a JVM test.
+ * It is thread safe.
+ *
+ * @since 1.43
+ */
+public class AdaptiveScanScheduler
+{
+    /**
+     * Below this speed the device is considered still.
+     */
+    static final float STILL_SPEED_MPS = 0.5f;
+    /**
+     * Once still, the device must move faster than this to no longer be still.
+     */
+    static final float MOVING_SPEED_MPS = 1.0f;
+    /**
+     * The device must be still for this long before it is considered stationary.
+     */
+    static final long STATIONARY_DWELL_MS = 60_000L;
+    /**
+     * Above this speed the device is considered to be in a vehicle (roughly 11 km/h).
+     */
+    static final float DRIVING_SPEED_MPS = 3.0f;
+    /**
+     * Once driving, the speed must drop below this to be back to walking.
+     */
+    static final float WALKING_SPEED_MPS = 2.0f;
+    /**
+     * If no location is received for this long the motion is unknown and the configured interval is used.
+     */
+    static final long LOCATION_TIMEOUT_MS = 120_000L;
+
+    static final int LOW_BATTERY_PERCENT = 30;
+    static final int CRITICAL_BATTERY_PERCENT = 15;
+
+    /**
+     * The technologies that are scheduled, along with their bounds.
+     */
+    public enum Technology
+    {
+        CELLULAR(1_000, 60_000),
+        WIFI(5_000, 120_000),
+        BLUETOOTH(23_000, 180_000),
+        GNSS(1_000, 120_000);
+
+        final int minimumIntervalMs;
+        final int maximumIntervalMs;
+
+        Technology(int minimumIntervalMs, int maximumIntervalMs)
+        {
+            this.minimumIntervalMs = minimumIntervalMs;
+            this.maximumIntervalMs = maximumIntervalMs;
+        }
+    }
+
+    public enum MotionState
+    {
+        UNKNOWN(1.0),
+        STATIONARY(4.0),
+        WALKING(1.0),
+        DRIVING(0.5);
+
+        final double intervalFactor;
+
+        MotionState(double intervalFactor)
+        {
+            this.intervalFactor = intervalFactor;
+        }
+    }
+
+    public enum BatteryState
+    {
+        NORMAL(1.0),
+        LOW(1.5),
+        CRITICAL(3.0);
+
+        final double intervalFactor;
+
+        BatteryState(double intervalFactor)
+        {
+            this.intervalFactor = intervalFactor;
+        }
+    }
+
+    /**
+     * Listener for changes to the adapted scan intervals.
+     */
+    public interface IScheduleListener
+    {
+        /**
+         * Called when the motion or battery state changes, or when the adaptive scheduling is enabled or
+         * disabled, which means the scan intervals returned from {@link #getIntervalMs} might have changed.
+         */
+        void onScanIntervalsChanged();
+    }
+
+    private final Set<IScheduleListener> listeners = new CopyOnWriteArraySet<>();
+
+    private boolean enabled;
+    private MotionState motionState = MotionState.UNKNOWN;
+    private BatteryState batteryState = BatteryState.NORMAL;
+    private long lastLocationTimeMs = Long.MIN_VALUE;
+    private long stillSinceMs = Long.MIN_VALUE;
+
+    public void registerListener(IScheduleListener listener)
+    {
+        if (listener != null) listeners.add(listener);
+    }
+
+    public void unregisterListener(IScheduleListener listener)
+    {
+        if (listener != null) listeners.remove(listener);
+    }
+
+    /**
+     * Enables or disables the adaptive scheduling. When disabled the configured intervals are used as is.
+     */
+    public void setEnabled(boolean enabled)
+    {
+        synchronized (this)
+        {
+            if (this.enabled == enabled) return;
+            this.enabled = enabled;
+        }
+        notifyListeners();
+    }
+
+    public synchronized boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Updates the motion state with a new speed sample.
+     *
+     * @param elapsedRealtimeMs The monotonic time of the sample.
+     * @param speedMps          The speed of the device in meters per second, or a negative value if the
+     *                          speed is not known (in which case only the location timeout is updated).
+     */
+    public void onSpeedSample(long elapsedRealtimeMs, float speedMps)
+    {
+        final boolean changed;
+        synchronized (this)
+        {
+            if (speedMps < 0)
+            {
+                changed = updateMotionState(elapsedRealtimeMs);
+            } else
+            {
+                lastLocationTimeMs = elapsedRealtimeMs;
+                changed = updateMotionState(elapsedRealtimeMs, speedMps);
+            }
+        }
+        if (changed) notifyListeners();
+    }
+
+    /**
+     * Checks if the last location has timed out, in which case the motion state goes back to unknown.
+     * This should be called periodically since the location updates might simply stop.
+     *
+     * @param elapsedRealtimeMs The current monotonic time.
+     */
+    public void onTick(long elapsedRealtimeMs)
+    {
+        final boolean changed;
+        synchronized (this)
+        {
+            changed = updateMotionState(elapsedRealtimeMs);
+        }
+        if (changed) notifyListeners();
+    }
+
+    /**
+     * Updates the battery state.
+     *
+     * @param levelPercent The battery level (0-100), or a negative value if it is unknown.
+     * @param charging     True if the device is plugged in.
+     */
+    public void onBatteryState(int levelPercent, boolean charging)
+    {
+        final BatteryState newState;
+        if (charging || levelPercent < 0 || levelPercent > LOW_BATTERY_PERCENT)
+        {
+            newState = BatteryState.NORMAL;
+        } else if (levelPercent > CRITICAL_BATTERY_PERCENT)
+        {
+            newState = BatteryState.LOW;
+        } else
+        {
+            newState = BatteryState.CRITICAL;
+        }
+
+        synchronized (this)
+        {
+            if (batteryState == newState) return;
+            batteryState = newState;
+        }
+        notifyListeners();
+    }
+
+    public synchronized MotionState getMotionState()
+    {
+        return motionState;
+    }
+
+    public synchronized BatteryState getBatteryState()
+    {
+        return batteryState;
+    }
+
+    /**
+     * Returns the interval to use for the technology given the current motion and battery states.
+     *
+     * @param technology           The technology that is being scheduled.
+     * @param configuredIntervalMs The scan interval set by the user (or MDM).
+     * @return The interval to use, or the configured interval if the adaptive scheduling is disabled.
+     */
+    public int getIntervalMs(Technology technology, int configuredIntervalMs)
+    {
+        final double factor;
+        synchronized (this)
+        {
+            if (!enabled) return configuredIntervalMs;
+            factor = motionState.intervalFactor * batteryState.intervalFactor;
+        }
+
+        final int minimum = Math.min(technology.minimumIntervalMs, configuredIntervalMs);
+        final int maximum = Math.max(technology.maximumIntervalMs, configuredIntervalMs);
+        final long interval = Math.round(configuredIntervalMs * factor);
+        return (int) Math.max(minimum, Math.min(maximum, interval));
+    }
+
+    /**
+     * Applies the location timeout only.
+     *
+     * @return True if the motion state changed.
+     */
+    private boolean updateMotionState(long nowMs)
+    {
+        if (motionState == MotionState.UNKNOWN || lastLocationTimeMs == Long.MIN_VALUE) return false;
+        if (nowMs - lastLocationTimeMs < LOCATION_TIMEOUT_MS) return false;
+
+        motionState = MotionState.UNKNOWN;
+        stillSinceMs = Long.MIN_VALUE;
+        return true;
+    }
+
+    /**
+     * Moves between the motion states based on the latest speed. Different thresholds are used to enter
+     * and leave a state so that a speed hovering around a threshold does not flip the state back and forth.
+     *
+     * @return True if the motion state changed.
+     */
+    private boolean updateMotionState(long nowMs, float speedMps)
+    {
+        final float stillThreshold = stillSinceMs == Long.MIN_VALUE ? STILL_SPEED_MPS : MOVING_SPEED_MPS;
+        if (speedMps < stillThreshold)
+        {
+            if (stillSinceMs == Long.MIN_VALUE) stillSinceMs = nowMs;
+        } else
+        {
+            stillSinceMs = Long.MIN_VALUE;
+        }
+
+        final MotionState newState;
+        if (stillSinceMs != Long.MIN_VALUE)
+        {
+            if (nowMs - stillSinceMs >= STATIONARY_DWELL_MS)
+            {
+                newState = MotionState.STATIONARY;
+            } else
+            {
+                // Brief stops (e.g. a traffic light) keep the previous moving state
+                newState = motionState == MotionState.DRIVING ? MotionState.DRIVING : MotionState.WALKING;
+            }
+        } else if (motionState == MotionState.DRIVING)
+        {
+            newState = speedMps < WALKING_SPEED_MPS ? MotionState.WALKING : MotionState.DRIVING;
+        } else
+        {
+            newState = speedMps > DRIVING_SPEED_MPS ? MotionState.DRIVING : MotionState.WALKING;
+        }
+
+        if (newState == motionState) return false;
+        motionState = newState;
+        return true;
+    }
+
+    private void notifyListeners()
+    {
+        for (IScheduleListener listener : listeners)
+        {
+            listener.onScanIntervalsChanged();
+        }
+    }
+}
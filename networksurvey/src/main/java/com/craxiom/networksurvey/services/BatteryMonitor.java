@@ -30,7 +30,9 @@ public class BatteryMonitor extends BroadcastReceiver
 
     private final Context context;
     private final Set<IBatteryLevelListener> listeners = new CopyOnWriteArraySet<>();
+    private final Set<IBatteryStateListener> stateListeners = new CopyOnWriteArraySet<>();
     private int currentBatteryLevel = -1;
+    private boolean charging = false;
     private boolean isRegistered = false;
     private boolean isPausedDueToBattery = false;
 
@@ -67,6 +69,23 @@ public class BatteryMonitor extends BroadcastReceiver
         void onBatteryLevelAboveThreshold(int currentLevel, int threshold);
     }
 
+    /**
+     * Interface for receiving every battery level and charging state change. Unlike the
+     * {@link IBatteryLevelListener}, these notifications are not tied to the battery threshold.
+     *
+     * @since 1.43
+     */
+    public interface IBatteryStateListener
+    {
+        /**
+         * Called when the battery level or the charging state changes.
+         *
+         * @param level    The battery level percentage
+         * @param charging True if the device is plugged in to a power source
+         */
+        void onBatteryStateChanged(int level, boolean charging);
+    }
+
     /**
      * Creates a new BatteryMonitor instance.
      *
@@ -134,6 +153,38 @@ public class BatteryMonitor extends BroadcastReceiver
         }
     }
 
+    /**
+     * Registers a listener to receive all the battery level and charging state changes.
+     *
+     * @param listener The listener to add
+     * @since 1.43
+     */
+    public void registerStateListener(IBatteryStateListener listener)
+    {
+        if (listener != null)
+        {
+            stateListeners.add(listener);
+            if (currentBatteryLevel >= 0)
+            {
+                listener.onBatteryStateChanged(currentBatteryLevel, charging);
+            }
+        }
+    }
+
+    /**
+     * Unregisters a battery state listener.
+     *
+     * @param listener The listener to remove
+     * @since 1.43
+     */
+    public void unregisterStateListener(IBatteryStateListener listener)
+    {
+        if (listener != null)
+        {
+            stateListeners.remove(listener);
+        }
+    }
+
     /**
      * Stops the battery monitor and unregisters it from receiving broadcasts.
      * This should be called when the service is destroyed.
@@ -151,6 +202,7 @@ public class BatteryMonitor extends BroadcastReceiver
             context.unregisterReceiver(this);
             isRegistered = false;
             listeners.clear();
+            stateListeners.clear();
 
             // Cancel any pending notifications
             if (pendingNotification != null)
@@ -191,7 +243,15 @@ public class BatteryMonitor extends BroadcastReceiver
             return;
         }
 
-        final int batteryPercent = (int) ((level / (float) scale) * 100);
+        final int batteryPercent = toBatteryPercent(level, scale);
+        final boolean isCharging = batteryStatus.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+
+        if (isCharging != charging)
+        {
+            charging = isCharging;
+            Timber.d("Battery charging state changed to %b", charging);
+            if (batteryPercent == currentBatteryLevel) notifyStateListeners();
+        }
 
         // Only process if battery level actually changed
         if (batteryPercent == currentBatteryLevel)
@@ -216,10 +276,36 @@ public class BatteryMonitor extends BroadcastReceiver
             }
         }
 
+        notifyStateListeners();
+
         // Check if we need to notify about threshold crossing
         checkThresholdCrossing(previousLevel, currentBatteryLevel);
     }
 
+    /**
+     * Converts the battery level and scale from the {@link Intent#ACTION_BATTERY_CHANGED} broadcast to a percentage.
+     *
+     * @since 1.43
+     */
+    static int toBatteryPercent(int level, int scale)
+    {
+        return (int) ((level / (float) scale) * 100);
+    }
+
+    private void notifyStateListeners()
+    {
+        for (IBatteryStateListener listener : stateListeners)
+        {
+            try
+            {
+                listener.onBatteryStateChanged(currentBatteryLevel, charging);
+            } catch (Exception e)
+            {
+                Timber.e(e, "Error notifying listener of battery state change");
+            }
+        }
+    }
+
     /**
      * Checks if the battery level has crossed the threshold and notifies the listener.
      * Includes debouncing to prevent rapid state changes.
@@ -367,6 +453,15 @@ public class BatteryMonitor extends BroadcastReceiver
         return currentBatteryLevel;
     }
 
+    /**
+     * @return True if the device is plugged in to a power source.
+     * @since 1.43
+     */
+    public boolean isCharging()
+    {
+        return charging;
+    }
+
     /**
      * Checks if operations are currently paused due to low battery.
      *
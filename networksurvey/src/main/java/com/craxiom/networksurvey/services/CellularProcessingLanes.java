@@ -0,0 +1,173 @@
+package com.craxiom.networksurvey.services;
+
+import com.craxiom.networksurvey.model.ServingCellSnapshot;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Splits the processing of the cellular scan results into one lane per subscription (aka SIM).
+ * <p>
+ * On a multi-SIM device each subscription delivers its own stream of {@code CellInfo} batches. The
+ * batches for a single subscription still need to be processed one at a time and in order, but there
+ * is no reason for the batches of one SIM to wait on the batches of another SIM. Each lane has its own
+ * lock along with the state that is only meaningful within a single subscription (the current group
+ * number, the last serving cell, the serving cell key used for new tower detection, and the unchanged
+ * cell suppression state).
+ * <p>
+ * The only state that is shared between the lanes are the record and group number sequences, which
+ * are atomic, and the most recent serving cell across all the subscriptions.
+ *
+ * @since 1.43
+ */
+public class CellularProcessingLanes
+{
+    private final ConcurrentHashMap<Integer, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextRecordNumber = new AtomicInteger(1);
+    private final AtomicInteger lastGroupNumber = new AtomicInteger(0);
+    private final UnchangedCellSuppressor.Counters suppressionCounters = new UnchangedCellSuppressor.Counters();
+    private volatile ServingCellSnapshot latestServingCell;
+
+    /**
+     * The processing state for a single subscription. The state is only accessed while the lane is
+     * held by {@link #runInLane(int, Consumer)}.
+     */
+    public final class Lane
+    {
+        private final int subscriptionId;
+        /**
+         * The group number of the batch being processed, or 0 if no record of the batch has asked for one yet.
+         */
+        private int groupNumber;
+        private String lastServingCellKey;
+        private volatile ServingCellSnapshot latestServingCell;
+        private final UnchangedCellSuppressor unchangedCellSuppressor = new UnchangedCellSuppressor(suppressionCounters);
+
+        private Lane(int subscriptionId)
+        {
+            this.subscriptionId = subscriptionId;
+        }
+
+        public int getSubscriptionId()
+        {
+            return subscriptionId;
+        }
+
+        /**
+         * Returns the group number for the batch that is currently being processed in this lane. The number is
+         * assigned the first time this is called for a batch, so a batch that does not produce any records (e.g.
+         * it is empty, none of its cells are valid, or the processing fails first) does not leave a gap in the
+         * group numbers.
+         *
+         * @return The group number for the batch that is currently being processed in this lane.
+         */
+        public int getGroupNumber()
+        {
+            if (groupNumber == 0) groupNumber = lastGroupNumber.incrementAndGet();
+            return groupNumber;
+        }
+
+        /**
+         * @return The next record number. The record numbers are unique across all the lanes.
+         */
+        public int nextRecordNumber()
+        {
+            return nextRecordNumber.getAndIncrement();
+        }
+
+        /**
+         * Checks if the serving cell for this subscription changed since the last call, and if it did
+         * remembers the new key. Tracking the key per subscription keeps the serving cells of two SIMs
+         * from looking like a constant hand off between two cells.
+         *
+         * @param servingCellKey The key that uniquely identifies the serving cell.
+         * @return True if the serving cell is different from the previous serving cell in this lane.
+         */
+        public boolean updateServingCellKey(String servingCellKey)
+        {
+            if (Objects.equals(servingCellKey, lastServingCellKey)) return false;
+
+            lastServingCellKey = servingCellKey;
+            return true;
+        }
+
+        /**
+         * Records the latest serving cell for this subscription, which also becomes the latest serving
+         * cell across all the subscriptions.
+         */
+        public void updateLatestServingCell(ServingCellSnapshot servingCell)
+        {
+            latestServingCell = servingCell;
+            CellularProcessingLanes.this.latestServingCell = servingCell;
+        }
+
+        /**
+         * @return The most recent serving cell for this subscription, or null if one has not been seen.
+         */
+        public ServingCellSnapshot getLatestServingCell()
+        {
+            return latestServingCell;
+        }
+
+        /**
+         * @return The suppressor that tracks the unchanged cells for this subscription.
+         */
+        public UnchangedCellSuppressor getUnchangedCellSuppressor()
+        {
+            return unchangedCellSuppressor;
+        }
+    }
+
+    /**
+     * Processes a batch in the lane for the provided subscription. Batches for the same subscription
+     * are run one at a time, but batches for different subscriptions can run at the same time. A new
+     * group number is assigned to the batch when its first record asks for one.
+     *
+     * @param subscriptionId The subscription ID that the batch is for.
+     * @param task           The processing to run while holding the lane.
+     */
+    public void runInLane(int subscriptionId, Consumer<Lane> task)
+    {
+        final Lane lane = getLane(subscriptionId);
+        synchronized (lane)
+        {
+            lane.groupNumber = 0;
+            task.accept(lane);
+        }
+    }
+
+    /**
+     * @return The lane for the provided subscription ID, created if it does not exist yet.
+     */
+    Lane getLane(int subscriptionId)
+    {
+        return lanes.computeIfAbsent(subscriptionId, Lane::new);
+    }
+
+    /**
+     * @return The unchanged cell suppression counts across all the subscriptions.
+     */
+    public UnchangedCellSuppressor.Counters getSuppressionCounters()
+    {
+        return suppressionCounters;
+    }
+
+    /**
+     * @return The most recent serving cell across all subscriptions, or null if one has not been seen.
+     */
+    public ServingCellSnapshot getLatestServingCell()
+    {
+        return latestServingCell;
+    }
+
+    /**
+     * @return The most recent serving cell for the provided subscription, or null if one has not been seen.
+     */
+    public ServingCellSnapshot getLatestServingCell(int subscriptionId)
+    {
+        final Lane lane = lanes.get(subscriptionId);
+        return lane == null ? null : lane.getLatestServingCell();
+    }
+}
@@ -0,0 +1,66 @@
+package com.craxiom.networksurvey.services;
+
+import com.craxiom.messaging.DeviceStatusData;
+import com.google.protobuf.Int32Value;
+
+/**
+ * Holds the device state that goes into each Device Status message so that generating the message does not have to
+ * query the system for it.
+ * <p>
+ * Previously, each Device Status message fetched the sticky battery broadcast and the package info, which are both
+ * Binder calls, and that adds up when the device status interval is set to one second. Now the battery level is pushed
+ * in by the {@link BatteryMonitor} when it changes, and the values that can't change while the app is running (the
+ * device model and app version) are read once.
+ *
+ * @since 1.43
+ */
+public class DeviceStateCache implements BatteryMonitor.IBatteryStateListener
+{
+    private final String deviceModel;
+    private final String appVersion;
+
+    private volatile int batteryLevelPercent = -1;
+
+    /**
+     * @param deviceModel The device model, which is {@link android.os.Build#MODEL}.
+     * @param appVersion  The app version name, as returned from
+     *                    {@link com.craxiom.networksurvey.util.NsUtils#getAppVersionName(android.content.Context)}.
+     */
+    public DeviceStateCache(String deviceModel, String appVersion)
+    {
+        this.deviceModel = deviceModel;
+        this.appVersion = appVersion;
+    }
+
+    @Override
+    public void onBatteryStateChanged(int level, boolean charging)
+    {
+        batteryLevelPercent = level;
+    }
+
+    /**
+     * @return The last known battery level percentage, or -1 if it is not known yet.
+     */
+    public int getBatteryLevelPercent()
+    {
+        return batteryLevelPercent;
+    }
+
+    /**
+     * Sets the cached device state fields on the provided Device Status data. The battery level is left unset if it is
+     * not known yet, which is the same as when the sticky battery broadcast was not available.
+     *
+     * @param dataBuilder The builder to set the fields on.
+     */
+    public void populate(DeviceStatusData.Builder dataBuilder)
+    {
+        final int batteryLevel = batteryLevelPercent;
+        if (batteryLevel >= 0)
+        {
+            dataBuilder.setBatteryLevelPercent(Int32Value.of(batteryLevel));
+        }
+
+        dataBuilder.setDeviceModel(deviceModel);
+        dataBuilder.setAppVersion(appVersion);
+    }
+}
@@ -1,6 +1,5 @@
 package com.craxiom.networksurvey.services;
 
-import android.annotation.SuppressLint;
 import android.app.IntentService;
 import android.app.Notification;
 import android.app.NotificationManager;
@@ -13,7 +12,6 @@ import android.content.Intent;
 import android.content.ServiceConnection;
 import android.content.pm.ServiceInfo;
 import android.net.Uri;
-import android.os.AsyncTask;
 import android.os.Binder;
 import android.os.Build;
 import android.os.Handler;
@@ -60,21 +58,24 @@ import com.craxiom.networksurvey.listeners.IDeviceStatusListener;
 import com.craxiom.networksurvey.listeners.IGnssSurveyRecordListener;
 import com.craxiom.networksurvey.listeners.IWifiSurveyRecordListener;
 import com.craxiom.networksurvey.messaging.NetworkSurveyStatusGrpc;
+import com.craxiom.networksurvey.metrics.PipelineMetrics;
+import com.craxiom.networksurvey.model.TimestampedRecord;
 import com.craxiom.networksurvey.model.WifiRecordWrapper;
 import com.craxiom.networksurvey.util.LegacyRecordConversion;
 
-import java.lang.ref.WeakReference;
 import java.net.ConnectException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.LongSupplier;
 
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
@@ -90,11 +91,16 @@ import timber.log.Timber;
 public class GrpcConnectionService extends Service implements IDeviceStatusListener, ICellularSurveyRecordListener,
         IWifiSurveyRecordListener, IBluetoothSurveyRecordListener, IGnssSurveyRecordListener
 {
-    public static final long RECONNECTION_ATTEMPT_BACKOFF_TIME = 10_000L;
+    /**
+     * How often the channel pings the server when no data has been received, so that a connection that silently died
+     * (which is common when driving in and out of coverage) is noticed within about a minute instead of waiting on the
+     * TCP timeouts. The server must permit pings this often; if it doesn't, gRPC backs off the ping rate on its own.
+     */
+    private static final long KEEPALIVE_TIME_SECONDS = 45L;
+    private static final long KEEPALIVE_TIMEOUT_SECONDS = 15L;
     private static final int DEVICE_STATUS_REFRESH_RATE_MS = 15_000;
     // number of concurrent linked queues. Does not take into account the old queues
     private static final int NUMBER_OF_QUEUES_TO_PROCESS = 10;
-    private static final int QUEUE_PROCESSING_SLEEP_TIME = 1_000;
 
     private static ConnectionState connectionState = ConnectionState.DISCONNECTED;
 
@@ -113,10 +119,10 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
 
     private final ConcurrentLinkedQueue<DeviceStatus> deviceStatusQueue = new ConcurrentLinkedQueue<>();
     private final ConcurrentLinkedQueue<PhoneState> phoneStateQueue = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<GsmRecord> gsmRecordQueue = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<CdmaRecord> cdmaRecordQueue = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<UmtsRecord> umtsRecordQueue = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<LteRecord> lteRecordQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<TimestampedRecord<GsmRecord>> gsmRecordQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<TimestampedRecord<CdmaRecord>> cdmaRecordQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<TimestampedRecord<UmtsRecord>> umtsRecordQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<TimestampedRecord<LteRecord>> lteRecordQueue = new ConcurrentLinkedQueue<>();
     private final ConcurrentLinkedQueue<NrRecord> nrRecordQueue = new ConcurrentLinkedQueue<>();
     private final ConcurrentLinkedQueue<WifiBeaconRecord> wifiBeaconRecordQueue = new ConcurrentLinkedQueue<>();
     private final ConcurrentLinkedQueue<BluetoothRecord> bluetoothRecordQueue = new ConcurrentLinkedQueue<>();
@@ -124,29 +130,27 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
 
     private final List<IConnectionStateListener> grpcConnectionListeners = new CopyOnWriteArrayList<>();
 
-    // Old connection approach, delete this when we can update all the grpc code
-    private final ConcurrentLinkedQueue<com.craxiom.networksurvey.messaging.DeviceStatus> oldDeviceStatusQueue = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<com.craxiom.networksurvey.messaging.GsmRecord> oldGsmRecordQueue = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<com.craxiom.networksurvey.messaging.CdmaRecord> oldCdmaRecordQueue = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<com.craxiom.networksurvey.messaging.UmtsRecord> oldUmtsRecordQueue = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<com.craxiom.networksurvey.messaging.LteRecord> oldLteRecordQueue = new ConcurrentLinkedQueue<>();
-    private GrpcTask<com.craxiom.networksurvey.messaging.DeviceStatus, com.craxiom.networksurvey.messaging.StatusUpdateReply> oldDeviceStatusGrpcTask;
-    private GrpcTask<com.craxiom.networksurvey.messaging.GsmRecord, com.craxiom.networksurvey.messaging.GsmSurveyResponse> oldGsmRecordGrpcTask;
-    private GrpcTask<com.craxiom.networksurvey.messaging.CdmaRecord, com.craxiom.networksurvey.messaging.CdmaSurveyResponse> oldCdmaRecordGrpcTask;
-    private GrpcTask<com.craxiom.networksurvey.messaging.UmtsRecord, com.craxiom.networksurvey.messaging.UmtsSurveyResponse> oldUmtsRecordGrpcTask;
-    private GrpcTask<com.craxiom.networksurvey.messaging.LteRecord, com.craxiom.networksurvey.messaging.LteSurveyResponse> oldLteRecordGrpcTask;
-
-    // New connection approach
-    private GrpcTask<DeviceStatus, StatusUpdateReply> deviceStatusGrpcTask;
-    private GrpcTask<PhoneState, PhoneStateResponse> phoneStateGrpcTask;
-    private GrpcTask<GsmRecord, GsmSurveyResponse> gsmRecordGrpcTask;
-    private GrpcTask<CdmaRecord, CdmaSurveyResponse> cdmaRecordGrpcTask;
-    private GrpcTask<UmtsRecord, UmtsSurveyResponse> umtsRecordGrpcTask;
-    private GrpcTask<LteRecord, LteSurveyResponse> lteRecordGrpcTask;
-    private GrpcTask<NrRecord, NrSurveyResponse> nrRecordGrpcTask;
-    private GrpcTask<WifiBeaconRecord, WifiBeaconSurveyResponse> wifiBeaconRecordGrpcTask;
-    private GrpcTask<BluetoothRecord, BluetoothSurveyResponse> bluetoothRecordGrpcTask;
-    private GrpcTask<GnssRecord, GnssSurveyResponse> gnssRecordGrpcTask;
+    /**
+     * The queue depth gauges this service registered with the pipeline metrics. They are only read when a metrics
+     * snapshot is taken, so the size of each queue (which is not constant time for a ConcurrentLinkedQueue) is never
+     * computed on the hot path.
+     */
+    private final Map<String, LongSupplier> queueDepthGauges = new LinkedHashMap<>();
+
+    /*
+     * One stream per record type, which sends the records from the matching queue above to either a current server or
+     * an older server. The streams to an older server convert the records to the legacy format as they are sent.
+     */
+    private GrpcRecordStream<DeviceStatus, ?, ?> deviceStatusGrpcStream;
+    private GrpcRecordStream<PhoneState, ?, ?> phoneStateGrpcStream;
+    private GrpcRecordStream<TimestampedRecord<GsmRecord>, ?, ?> gsmRecordGrpcStream;
+    private GrpcRecordStream<TimestampedRecord<CdmaRecord>, ?, ?> cdmaRecordGrpcStream;
+    private GrpcRecordStream<TimestampedRecord<UmtsRecord>, ?, ?> umtsRecordGrpcStream;
+    private GrpcRecordStream<TimestampedRecord<LteRecord>, ?, ?> lteRecordGrpcStream;
+    private GrpcRecordStream<NrRecord, ?, ?> nrRecordGrpcStream;
+    private GrpcRecordStream<WifiBeaconRecord, ?, ?> wifiBeaconRecordGrpcStream;
+    private GrpcRecordStream<BluetoothRecord, ?, ?> bluetoothRecordGrpcStream;
+    private GrpcRecordStream<GnssRecord, ?, ?> gnssRecordGrpcStream;
     private ManagedChannel channel;
 
     /**
@@ -243,6 +247,8 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
     {
         super.onCreate();
 
+        registerQueueDepthGauges();
+
         // Bind to the survey service
         final Context applicationContext = getApplicationContext();
         final Intent serviceIntent = new Intent(applicationContext, NetworkSurveyService.class);
@@ -276,7 +282,7 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
                 } else
                 {
                     userCanceled = false;
-                    connectToGrpcServer(host, port, deviceName, false, cellularStreamEnabled, phoneStateStreamEnabled, wifiStreamEnabled, bluetoothStreamEnabled, gnssStreamEnabled, deviceStatusStreamEnabled);
+                    connectToGrpcServer(host, port, deviceName, cellularStreamEnabled, phoneStateStreamEnabled, wifiStreamEnabled, bluetoothStreamEnabled, gnssStreamEnabled, deviceStatusStreamEnabled);
                 }
             } else if (ACTION_DISCONNECT.equals(action))
             {
@@ -306,136 +312,133 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
 
         disconnectFromGrpcServer(true);
 
+        queueDepthGauges.forEach(PipelineMetrics.REGISTRY::unregisterGauge);
+        queueDepthGauges.clear();
+
         super.onDestroy();
     }
 
+    /**
+     * Registers a gauge with the pipeline metrics for each of the outgoing message queues so that it is possible to
+     * see when records are piling up because the gRPC server can't keep up (or the connection is down).
+     *
+     * @since 1.43
+     */
+    private void registerQueueDepthGauges()
+    {
+        queueDepthGauges.put(PipelineMetrics.GRPC_QUEUE_PREFIX + "device_status", deviceStatusQueue::size);
+        queueDepthGauges.put(PipelineMetrics.GRPC_QUEUE_PREFIX + "phone_state", phoneStateQueue::size);
+        queueDepthGauges.put(PipelineMetrics.GRPC_QUEUE_PREFIX + "gsm", gsmRecordQueue::size);
+        queueDepthGauges.put(PipelineMetrics.GRPC_QUEUE_PREFIX + "cdma", cdmaRecordQueue::size);
+        queueDepthGauges.put(PipelineMetrics.GRPC_QUEUE_PREFIX + "umts", umtsRecordQueue::size);
+        queueDepthGauges.put(PipelineMetrics.GRPC_QUEUE_PREFIX + "lte", lteRecordQueue::size);
+        queueDepthGauges.put(PipelineMetrics.GRPC_QUEUE_PREFIX + "nr", nrRecordQueue::size);
+        queueDepthGauges.put(PipelineMetrics.GRPC_QUEUE_PREFIX + "wifi_beacon", wifiBeaconRecordQueue::size);
+        queueDepthGauges.put(PipelineMetrics.GRPC_QUEUE_PREFIX + "bluetooth", bluetoothRecordQueue::size);
+        queueDepthGauges.put(PipelineMetrics.GRPC_QUEUE_PREFIX + "gnss", gnssRecordQueue::size);
+
+        queueDepthGauges.forEach(PipelineMetrics.REGISTRY::registerGauge);
+    }
+
     @Override
     public void onDeviceStatus(DeviceStatus deviceStatus)
     {
-        if (isConnected() && deviceStatus != null)
+        if (deviceStatus != null && isStreaming(deviceStatusGrpcStream))
         {
-            if (deviceStatusGrpcTask != null && deviceStatusGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
-            {
-                deviceStatusQueue.add(deviceStatus);
-            } else if (oldConnectionApproach && oldDeviceStatusGrpcTask != null && oldDeviceStatusGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
-            {
-                oldDeviceStatusQueue.add(LegacyRecordConversion.convertDeviceStatus(deviceStatus));
-            }
+            deviceStatusGrpcStream.enqueue(deviceStatus);
         }
     }
 
     @Override
     public void onPhoneState(PhoneState phoneState)
     {
-        if (isConnected() && phoneState != null && phoneStateGrpcTask != null && phoneStateGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
+        if (phoneState != null && isStreaming(phoneStateGrpcStream))
         {
-            phoneStateQueue.add(phoneState);
+            phoneStateGrpcStream.enqueue(phoneState);
         }
     }
 
     @Override
-    public void onGsmSurveyRecord(GsmRecord gsmRecord)
+    public void onGsmSurveyRecord(GsmRecord gsmRecord, long epochMillis)
     {
-        if (isConnected() && gsmRecord != null)
+        if (gsmRecord != null && isStreaming(gsmRecordGrpcStream))
         {
-            if (gsmRecordGrpcTask != null && gsmRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
-            {
-                gsmRecordQueue.add(gsmRecord);
-            } else if (oldConnectionApproach && oldGsmRecordGrpcTask != null && oldGsmRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
-            {
-                oldGsmRecordQueue.add(LegacyRecordConversion.convertGsmRecord(gsmRecord));
-            }
+            gsmRecordGrpcStream.enqueue(new TimestampedRecord<>(gsmRecord, epochMillis));
         }
     }
 
     @Override
-    public void onCdmaSurveyRecord(CdmaRecord cdmaRecord)
+    public void onCdmaSurveyRecord(CdmaRecord cdmaRecord, long epochMillis)
     {
-        if (isConnected() && cdmaRecord != null)
+        if (cdmaRecord != null && isStreaming(cdmaRecordGrpcStream))
         {
-            if (cdmaRecordGrpcTask != null && cdmaRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
-            {
-                cdmaRecordQueue.add(cdmaRecord);
-            } else if (oldConnectionApproach && oldCdmaRecordGrpcTask != null && oldCdmaRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
-            {
-                oldCdmaRecordQueue.add(LegacyRecordConversion.convertCdmaRecord(cdmaRecord));
-            }
+            cdmaRecordGrpcStream.enqueue(new TimestampedRecord<>(cdmaRecord, epochMillis));
         }
     }
 
     @Override
-    public void onUmtsSurveyRecord(UmtsRecord umtsRecord)
+    public void onUmtsSurveyRecord(UmtsRecord umtsRecord, long epochMillis)
     {
-        if (isConnected() && umtsRecord != null)
+        if (umtsRecord != null && isStreaming(umtsRecordGrpcStream))
         {
-            if (umtsRecordGrpcTask != null && umtsRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
-            {
-                umtsRecordQueue.add(umtsRecord);
-            } else if (oldConnectionApproach && oldUmtsRecordGrpcTask != null && oldUmtsRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
-            {
-                oldUmtsRecordQueue.add(LegacyRecordConversion.convertUmtsRecord(umtsRecord));
-            }
+            umtsRecordGrpcStream.enqueue(new TimestampedRecord<>(umtsRecord, epochMillis));
         }
     }
 
     @Override
-    public void onLteSurveyRecord(LteRecord lteRecord)
+    public void onLteSurveyRecord(LteRecord lteRecord, long epochMillis)
     {
-        if (isConnected() && lteRecord != null)
+        if (lteRecord != null && isStreaming(lteRecordGrpcStream))
         {
-            if (lteRecordGrpcTask != null && lteRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
-            {
-                lteRecordQueue.add(lteRecord);
-            } else if (oldConnectionApproach && oldLteRecordGrpcTask != null && oldLteRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
-            {
-                oldLteRecordQueue.add(LegacyRecordConversion.convertLteRecord(lteRecord));
-            }
+            lteRecordGrpcStream.enqueue(new TimestampedRecord<>(lteRecord, epochMillis));
         }
     }
 
     @Override
     public void onNrSurveyRecord(NrRecord nrRecord)
     {
-        if (isConnected() && nrRecord != null && nrRecordGrpcTask != null && nrRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
+        if (nrRecord != null && isStreaming(nrRecordGrpcStream))
         {
-            nrRecordQueue.add(nrRecord);
+            nrRecordGrpcStream.enqueue(nrRecord);
         }
     }
 
     @Override
     public void onWifiBeaconSurveyRecords(List<WifiRecordWrapper> wifiBeaconRecords)
     {
-        if (isConnected() && wifiBeaconRecordGrpcTask != null && wifiBeaconRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
+        if (isStreaming(wifiBeaconRecordGrpcStream))
         {
-            wifiBeaconRecordQueue.addAll(
-                    wifiBeaconRecords.stream().map(WifiRecordWrapper::getWifiBeaconRecord).collect(Collectors.toList()));
+            for (WifiRecordWrapper wifiBeaconRecord : wifiBeaconRecords)
+            {
+                wifiBeaconRecordGrpcStream.enqueue(wifiBeaconRecord.getWifiBeaconRecord());
+            }
         }
     }
 
     @Override
     public void onBluetoothSurveyRecord(BluetoothRecord bluetoothRecord)
     {
-        if (isConnected() && bluetoothRecordGrpcTask != null && bluetoothRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
+        if (isStreaming(bluetoothRecordGrpcStream))
         {
-            bluetoothRecordQueue.add(bluetoothRecord);
+            bluetoothRecordGrpcStream.enqueue(bluetoothRecord);
         }
     }
 
     @Override
     public void onBluetoothSurveyRecords(List<BluetoothRecord> bluetoothRecords)
     {
-        if (isConnected() && bluetoothRecordGrpcTask != null && bluetoothRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
+        if (isStreaming(bluetoothRecordGrpcStream))
         {
-            bluetoothRecordQueue.addAll(bluetoothRecords);
+            bluetoothRecords.forEach(bluetoothRecordGrpcStream::enqueue);
         }
     }
 
     @Override
     public void onGnssSurveyRecord(GnssRecord gnssRecord)
     {
-        if (isConnected() && gnssRecord != null && gnssRecordGrpcTask != null && gnssRecordGrpcTask.getStatus() != AsyncTask.Status.FINISHED)
+        if (gnssRecord != null && isStreaming(gnssRecordGrpcStream))
         {
-            gnssRecordQueue.add(gnssRecord);
+            gnssRecordGrpcStream.enqueue(gnssRecord);
         }
     }
 
@@ -470,16 +473,26 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
     }
 
     /**
-     * Connect to a gRPC server by establishing the {@link ManagedChannel}, and then kick off the appropriate tasks so
-     * that streaming is started.
+     * @return True if the stream has been started and will send any records that are given to it, even if it is
+     * currently waiting for the channel to reconnect.
+     */
+    private static boolean isStreaming(GrpcRecordStream<?, ?, ?> stream)
+    {
+        return stream != null && stream.isAccepting();
+    }
+
+    /**
+     * Connect to a gRPC server by establishing the {@link ManagedChannel}, and then kick off the appropriate streams.
+     * <p>
+     * Only a single connection attempt is made. Once connected, the channel is kept for the life of the connection and
+     * reconnects on its own, and each stream reopens itself with a backoff if it fails, so a dropped connection does
+     * not require building a new channel or performing the handshake again.
      *
-     * @param host               The Host Name or IP Address of the remote gRPC server.
-     * @param port               The Port Number of the gRPC server.
-     * @param deviceName         The name that represents this device to the gRPC server.
-     * @param reconnectOnFailure True if the a reconnection should be performed if the connection fails, false if
-     *                           only a single connection attempt should be made.
+     * @param host       The Host Name or IP Address of the remote gRPC server.
+     * @param port       The Port Number of the gRPC server.
+     * @param deviceName The name that represents this device to the gRPC server.
      */
-    private void connectToGrpcServer(String host, int port, String deviceName, boolean reconnectOnFailure,
+    private void connectToGrpcServer(String host, int port, String deviceName,
                                      boolean cellularStreamEnabled, boolean phoneStateStreamEnabled,
                                      boolean wifiStreamEnabled, boolean bluetoothStreamEnabled,
                                      boolean gnssStreamEnabled, boolean deviceStatusStreamEnabled)
@@ -508,6 +521,8 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
                     channel = AndroidChannelBuilder.forAddress(host, port)
                             .usePlaintext()
                             .context(applicationContext)
+                            .keepAliveTime(KEEPALIVE_TIME_SECONDS, TimeUnit.SECONDS)
+                            .keepAliveTimeout(KEEPALIVE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
                             .build();
 
                     if (!startConnection())
@@ -515,12 +530,7 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
                         final String errorMessage = "Unable to connect to the Network Survey Server";
                         Timber.w(errorMessage);
                         uiThreadHandler.post(() -> Toast.makeText(applicationContext, errorMessage, Toast.LENGTH_SHORT).show());
-                        final boolean attemptReconnection = !userCanceled && reconnectOnFailure;
-                        disconnectFromGrpcServer(!attemptReconnection);
-                        if (attemptReconnection)
-                        {
-                            uiThreadHandler.postDelayed(this::reconnectToGrpcServer, RECONNECTION_ATTEMPT_BACKOFF_TIME);
-                        }
+                        disconnectFromGrpcServer(true);
                         return;
                     }
 
@@ -529,70 +539,63 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
                     Timber.i(message);
                     uiThreadHandler.post(() -> Toast.makeText(applicationContext, message, Toast.LENGTH_SHORT).show());
 
+                    // The stubs wait for the channel to be ready so that a stream reopened during an outage waits for
+                    // the channel to reconnect rather than failing over and over
                     if (oldConnectionApproach)
                     {
                         // TODO Delete all this old approach code once we have a chance to update any older gPRC code
-                        oldDeviceStatusGrpcTask = new GrpcTask<>(this, oldDeviceStatusQueue,
-                                statusUpdateReplyStreamObserver -> NetworkSurveyStatusGrpc.newStub(channel).statusUpdate(statusUpdateReplyStreamObserver));
-                        oldDeviceStatusGrpcTask.executeOnExecutor(executorService);
-
-                        final com.craxiom.networksurvey.messaging.WirelessSurveyGrpc.WirelessSurveyStub wirelessSurveyStub = com.craxiom.networksurvey.messaging.WirelessSurveyGrpc.newStub(channel);
+                        // The older server only supports the cellular and device status streams
+                        if (cellularStreamEnabled)
+                        {
+                            final com.craxiom.networksurvey.messaging.WirelessSurveyGrpc.WirelessSurveyStub wirelessSurveyStub = com.craxiom.networksurvey.messaging.WirelessSurveyGrpc.newStub(channel).withWaitForReady();
 
-                        oldGsmRecordGrpcTask = new GrpcTask<>(this, oldGsmRecordQueue, wirelessSurveyStub::streamGsmSurvey);
-                        oldGsmRecordGrpcTask.executeOnExecutor(executorService);
+                            gsmRecordGrpcStream = startStream("legacy GSM", gsmRecordQueue, LegacyRecordConversion.gsmRecordConverter(), wirelessSurveyStub::streamGsmSurvey);
+                            cdmaRecordGrpcStream = startStream("legacy CDMA", cdmaRecordQueue, LegacyRecordConversion.cdmaRecordConverter(), wirelessSurveyStub::streamCdmaSurvey);
+                            umtsRecordGrpcStream = startStream("legacy UMTS", umtsRecordQueue, LegacyRecordConversion.umtsRecordConverter(), wirelessSurveyStub::streamUmtsSurvey);
+                            lteRecordGrpcStream = startStream("legacy LTE", lteRecordQueue, LegacyRecordConversion.lteRecordConverter(), wirelessSurveyStub::streamLteSurvey);
 
-                        oldCdmaRecordGrpcTask = new GrpcTask<>(this, oldCdmaRecordQueue, wirelessSurveyStub::streamCdmaSurvey);
-                        oldCdmaRecordGrpcTask.executeOnExecutor(executorService);
+                            networkSurveyService.registerCellularSurveyRecordListener(this);
+                        }
 
-                        oldUmtsRecordGrpcTask = new GrpcTask<>(this, oldUmtsRecordQueue, wirelessSurveyStub::streamUmtsSurvey);
-                        oldUmtsRecordGrpcTask.executeOnExecutor(executorService);
+                        if (deviceStatusStreamEnabled)
+                        {
+                            final NetworkSurveyStatusGrpc.NetworkSurveyStatusStub statusStub = NetworkSurveyStatusGrpc.newStub(channel).withWaitForReady();
+                            deviceStatusGrpcStream = startStream("legacy device status", deviceStatusQueue, LegacyRecordConversion.deviceStatusConverter(), statusStub::statusUpdate);
 
-                        oldLteRecordGrpcTask = new GrpcTask<>(this, oldLteRecordQueue, wirelessSurveyStub::streamLteSurvey);
-                        oldLteRecordGrpcTask.executeOnExecutor(executorService);
+                            networkSurveyService.registerDeviceStatusListener(this);
+                        }
                     } else
                     {
-                        final WirelessSurveyGrpc.WirelessSurveyStub wirelessSurveyStub = WirelessSurveyGrpc.newStub(channel);
+                        final WirelessSurveyGrpc.WirelessSurveyStub wirelessSurveyStub = WirelessSurveyGrpc.newStub(channel).withWaitForReady();
 
                         if (cellularStreamEnabled)
                         {
-                            gsmRecordGrpcTask = new GrpcTask<>(this, gsmRecordQueue, wirelessSurveyStub::streamGsmSurvey);
-                            gsmRecordGrpcTask.executeOnExecutor(executorService);
-
-                            cdmaRecordGrpcTask = new GrpcTask<>(this, cdmaRecordQueue, wirelessSurveyStub::streamCdmaSurvey);
-                            cdmaRecordGrpcTask.executeOnExecutor(executorService);
-
-                            umtsRecordGrpcTask = new GrpcTask<>(this, umtsRecordQueue, wirelessSurveyStub::streamUmtsSurvey);
-                            umtsRecordGrpcTask.executeOnExecutor(executorService);
-
-                            lteRecordGrpcTask = new GrpcTask<>(this, lteRecordQueue, wirelessSurveyStub::streamLteSurvey);
-                            lteRecordGrpcTask.executeOnExecutor(executorService);
-
-                            nrRecordGrpcTask = new GrpcTask<>(this, nrRecordQueue, wirelessSurveyStub::streamNrSurvey);
-                            nrRecordGrpcTask.executeOnExecutor(executorService);
+                            gsmRecordGrpcStream = startStream("GSM", gsmRecordQueue, TimestampedRecord::record, wirelessSurveyStub::streamGsmSurvey);
+                            cdmaRecordGrpcStream = startStream("CDMA", cdmaRecordQueue, TimestampedRecord::record, wirelessSurveyStub::streamCdmaSurvey);
+                            umtsRecordGrpcStream = startStream("UMTS", umtsRecordQueue, TimestampedRecord::record, wirelessSurveyStub::streamUmtsSurvey);
+                            lteRecordGrpcStream = startStream("LTE", lteRecordQueue, TimestampedRecord::record, wirelessSurveyStub::streamLteSurvey);
+                            nrRecordGrpcStream = startStream("NR", nrRecordQueue, wirelessSurveyStub::streamNrSurvey);
 
                             networkSurveyService.registerCellularSurveyRecordListener(this);
                         }
 
                         if (wifiStreamEnabled)
                         {
-                            wifiBeaconRecordGrpcTask = new GrpcTask<>(this, wifiBeaconRecordQueue, wirelessSurveyStub::streamWifiBeaconSurvey);
-                            wifiBeaconRecordGrpcTask.executeOnExecutor(executorService);
+                            wifiBeaconRecordGrpcStream = startStream("Wi-Fi beacon", wifiBeaconRecordQueue, wirelessSurveyStub::streamWifiBeaconSurvey);
 
                             networkSurveyService.registerWifiSurveyRecordListener(this);
                         }
 
                         if (bluetoothStreamEnabled)
                         {
-                            bluetoothRecordGrpcTask = new GrpcTask<>(this, bluetoothRecordQueue, wirelessSurveyStub::streamBluetoothSurvey);
-                            bluetoothRecordGrpcTask.executeOnExecutor(executorService);
+                            bluetoothRecordGrpcStream = startStream("Bluetooth", bluetoothRecordQueue, wirelessSurveyStub::streamBluetoothSurvey);
 
                             networkSurveyService.registerBluetoothSurveyRecordListener(this);
                         }
 
                         if (gnssStreamEnabled)
                         {
-                            gnssRecordGrpcTask = new GrpcTask<>(this, gnssRecordQueue, wirelessSurveyStub::streamGnssSurvey);
-                            gnssRecordGrpcTask.executeOnExecutor(executorService);
+                            gnssRecordGrpcStream = startStream("GNSS", gnssRecordQueue, wirelessSurveyStub::streamGnssSurvey);
 
                             networkSurveyService.registerGnssSurveyRecordListener(this);
                         }
@@ -601,47 +604,99 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
                         {
                             if (deviceStatusStreamEnabled)
                             {
-                                deviceStatusGrpcTask = new GrpcTask<>(this, deviceStatusQueue,
-                                        statusUpdateReplyStreamObserver -> DeviceStatusGrpc.newStub(channel).statusUpdate(statusUpdateReplyStreamObserver));
-                                deviceStatusGrpcTask.executeOnExecutor(executorService);
+                                final DeviceStatusGrpc.DeviceStatusStub deviceStatusStub = DeviceStatusGrpc.newStub(channel).withWaitForReady();
+                                deviceStatusGrpcStream = startStream("device status", deviceStatusQueue, deviceStatusStub::statusUpdate);
                             }
 
                             if (phoneStateStreamEnabled)
                             {
-                                phoneStateGrpcTask = new GrpcTask<>(this, phoneStateQueue, wirelessSurveyStub::streamPhoneState);
-                                phoneStateGrpcTask.executeOnExecutor(executorService);
+                                phoneStateGrpcStream = startStream("phone state", phoneStateQueue, wirelessSurveyStub::streamPhoneState);
                             }
 
                             networkSurveyService.registerDeviceStatusListener(this);
                         }
                     }
+
+                    watchChannelState(channel);
                 } catch (Throwable t)
                 {
                     Timber.e(t, "An exception occurred in the gRPC connection thread");
-
-                    final boolean attemptReconnect = !userCanceled && reconnectOnFailure;
-
-                    disconnectFromGrpcServer(!attemptReconnect);
-
-                    if (attemptReconnect)
-                    {
-                        uiThreadHandler.postDelayed(this::reconnectToGrpcServer, RECONNECTION_ATTEMPT_BACKOFF_TIME);
-                    }
+                    disconnectFromGrpcServer(true);
                 }
             }).start();
         } catch (Throwable e)
         {
             Timber.e(e, "An exception occurred when trying to connect to the remote gRPC server");
+            disconnectFromGrpcServer(true);
+        }
+    }
 
-            final boolean attemptReconnect = !userCanceled && reconnectOnFailure;
+    /**
+     * Creates and starts a stream that sends the records from the provided queue as they are.
+     */
+    private <MessageType, Reply> GrpcRecordStream<MessageType, MessageType, Reply> startStream(String name,
+                                                                                           ConcurrentLinkedQueue<MessageType> queue,
+                                                                                           Function<StreamObserver<Reply>, StreamObserver<MessageType>> asyncStubCall)
+    {
+        return startStream(name, queue, Function.identity(), asyncStubCall);
+    }
 
-            disconnectFromGrpcServer(!attemptReconnect);
+    /**
+     * Creates and starts a stream that converts each record from the provided queue as it is sent.
+     */
+    private <RecordType, MessageType, Reply> GrpcRecordStream<RecordType, MessageType, Reply> startStream(String name,
+                                                                                                      ConcurrentLinkedQueue<RecordType> queue,
+                                                                                                      Function<RecordType, MessageType> converter,
+                                                                                                      Function<StreamObserver<Reply>, StreamObserver<MessageType>> asyncStubCall)
+    {
+        final GrpcRecordStream<RecordType, MessageType, Reply> stream = new GrpcRecordStream<>(name, queue, converter,
+                asyncStubCall, executorService);
+        stream.start();
+        return stream;
+    }
 
-            if (attemptReconnect)
-            {
-                uiThreadHandler.postDelayed(this::reconnectToGrpcServer, RECONNECTION_ATTEMPT_BACKOFF_TIME);
-            }
+    /**
+     * Keeps the connection state in line with the health of the channel, so the UI shows that the connection is being
+     * reestablished while the channel is reconnecting (the streams keep queueing records in the meantime), and shows it
+     * as connected again once the channel is ready.
+     * <p>
+     * Only {@code getState(false)} is used so that checking the state never asks the channel to connect.
+     *
+     * @param watchedChannel The channel to watch. Watching stops once the channel is shut down or replaced.
+     */
+    private void watchChannelState(ManagedChannel watchedChannel)
+    {
+        if (userCanceled || watchedChannel != channel) return;
+
+        final ConnectivityState channelState = watchedChannel.getState(false);
+        switch (channelState)
+        {
+            case READY:
+                if (getConnectedState() == ConnectionState.CONNECTING)
+                {
+                    Timber.i("The gRPC channel is ready again");
+                    notifyConnectionStateChange(ConnectionState.CONNECTED);
+                }
+                break;
+
+            case CONNECTING:
+            case TRANSIENT_FAILURE:
+                if (getConnectedState() == ConnectionState.CONNECTED)
+                {
+                    Timber.w("The gRPC channel lost its connection (%s), waiting for it to reconnect", channelState);
+                    notifyConnectionStateChange(ConnectionState.CONNECTING);
+                }
+                break;
+
+            case SHUTDOWN:
+                return;
+
+            default:
+                // The channel goes idle when there are no active streams, which is not a connection problem
+                break;
         }
+
+        watchedChannel.notifyWhenStateChanged(channelState, () -> watchChannelState(watchedChannel));
     }
 
     /**
@@ -659,88 +714,37 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
         networkSurveyService.unregisterBluetoothSurveyRecordListener(this);
         networkSurveyService.unregisterGnssSurveyRecordListener(this);
 
-        if (oldDeviceStatusGrpcTask != null)
-        {
-            oldDeviceStatusGrpcTask.cancel(true);
-            oldDeviceStatusGrpcTask = null;
-        }
-        if (oldGsmRecordGrpcTask != null)
-        {
-            oldGsmRecordGrpcTask.cancel(true);
-            oldGsmRecordGrpcTask = null;
-        }
-        if (oldCdmaRecordGrpcTask != null)
-        {
-            oldCdmaRecordGrpcTask.cancel(true);
-            oldCdmaRecordGrpcTask = null;
-        }
-        if (oldUmtsRecordGrpcTask != null)
-        {
-            oldUmtsRecordGrpcTask.cancel(true);
-            oldUmtsRecordGrpcTask = null;
-        }
-        if (oldLteRecordGrpcTask != null)
-        {
-            oldLteRecordGrpcTask.cancel(true);
-            oldLteRecordGrpcTask = null;
-        }
-
-        if (deviceStatusGrpcTask != null)
-        {
-            deviceStatusGrpcTask.cancel(true);
-            deviceStatusGrpcTask = null;
-        }
-        if (phoneStateGrpcTask != null)
-        {
-            phoneStateGrpcTask.cancel(true);
-            phoneStateGrpcTask = null;
-        }
-        if (gsmRecordGrpcTask != null)
-        {
-            gsmRecordGrpcTask.cancel(true);
-            gsmRecordGrpcTask = null;
-        }
-        if (cdmaRecordGrpcTask != null)
-        {
-            cdmaRecordGrpcTask.cancel(true);
-            cdmaRecordGrpcTask = null;
-        }
-        if (umtsRecordGrpcTask != null)
-        {
-            umtsRecordGrpcTask.cancel(true);
-            umtsRecordGrpcTask = null;
-        }
-        if (lteRecordGrpcTask != null)
-        {
-            lteRecordGrpcTask.cancel(true);
-            lteRecordGrpcTask = null;
-        }
-        if (nrRecordGrpcTask != null)
-        {
-            nrRecordGrpcTask.cancel(true);
-            nrRecordGrpcTask = null;
-        }
-        if (wifiBeaconRecordGrpcTask != null)
-        {
-            wifiBeaconRecordGrpcTask.cancel(true);
-            wifiBeaconRecordGrpcTask = null;
-        }
-        if (bluetoothRecordGrpcTask != null)
-        {
-            bluetoothRecordGrpcTask.cancel(true);
-            bluetoothRecordGrpcTask = null;
-        }
-        if (gnssRecordGrpcTask != null)
-        {
-            gnssRecordGrpcTask.cancel(true);
-            gnssRecordGrpcTask = null;
-        }
+        stopStream(deviceStatusGrpcStream);
+        deviceStatusGrpcStream = null;
+        stopStream(phoneStateGrpcStream);
+        phoneStateGrpcStream = null;
+        stopStream(gsmRecordGrpcStream);
+        gsmRecordGrpcStream = null;
+        stopStream(cdmaRecordGrpcStream);
+        cdmaRecordGrpcStream = null;
+        stopStream(umtsRecordGrpcStream);
+        umtsRecordGrpcStream = null;
+        stopStream(lteRecordGrpcStream);
+        lteRecordGrpcStream = null;
+        stopStream(nrRecordGrpcStream);
+        nrRecordGrpcStream = null;
+        stopStream(wifiBeaconRecordGrpcStream);
+        wifiBeaconRecordGrpcStream = null;
+        stopStream(bluetoothRecordGrpcStream);
+        bluetoothRecordGrpcStream = null;
+        stopStream(gnssRecordGrpcStream);
+        gnssRecordGrpcStream = null;
 
         shutdownChannel(!stopService);
 
         if (stopService) stopService();
     }
 
+    private static void stopStream(GrpcRecordStream<?, ?, ?> stream)
+    {
+        if (stream != null) stream.stop();
+    }
+
     /**
      * Tries to perform a handshake with the gRPC Server. This should be done anytime we start a new connection with the
      * server. First, a connection is attempted using the newer connection approach. If the method is unimplemented
@@ -865,22 +869,6 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
         return notificationText;
     }
 
-    /**
-     * Used to reconnect to the gRPC server using the last known connection settings.
-     */
-    private void reconnectToGrpcServer()
-    {
-        if (host == null || portNumber == null)
-        {
-            Timber.e("Can't reconnect to the last gRPC server because the host or port is null");
-        }
-
-        Timber.i("Reconnecting to the gRPC server");
-
-        connectToGrpcServer(host, portNumber, deviceName, true, cellularStreamEnabled,
-                phoneStateStreamEnabled, wifiStreamEnabled, bluetoothStreamEnabled, gnssStreamEnabled, deviceStatusStreamEnabled);
-    }
-
     /**
      * Closes the gRPC managed channel, and handles any channel cleanup.
      *
@@ -963,144 +951,6 @@ public class GrpcConnectionService extends Service implements IDeviceStatusListe
         }
     }
 
-    /**
-     * A task that can be run for each RPC stream that needs to be opened.
-     *
-     * @param <MessageType> The type of message that will be streamed to the remote gRPC server.
-     * @param <Reply>       The reply type that will come back from gRPC server once the stream is complete.
-     */
-    @SuppressLint("StaticFieldLeak")
-    private class GrpcTask<MessageType, Reply> extends AsyncTask<Void, Void, Boolean>
-    {
-        private final WeakReference<GrpcConnectionService> serviceWeakReference;
-        private final ConcurrentLinkedQueue<MessageType> messageQueue;
-        private final Function<StreamObserver<Reply>, StreamObserver<MessageType>> asyncStubCall;
-
-        private Throwable failed;
-
-        private GrpcTask(GrpcConnectionService serviceWeakReference, ConcurrentLinkedQueue<MessageType> queue,
-                         Function<StreamObserver<Reply>, StreamObserver<MessageType>> asyncStubCall)
-        {
-            this.serviceWeakReference = new WeakReference<>(serviceWeakReference);
-            messageQueue = queue;
-            this.asyncStubCall = asyncStubCall;
-        }
-
-        @Override
-        protected Boolean doInBackground(Void... nothing)
-        {
-            try
-            {
-                final CountDownLatch finishLatch = new CountDownLatch(1);
-                final StreamObserver<Reply> responseObserver = new StreamObserver<Reply>()
-                {
-                    @Override
-                    public void onNext(Reply value)
-                    {
-
-                    }
-
-                    @Override
-                    public void onError(Throwable t)
-                    {
-                        failed = t;
-                        Timber.e(t, "An error occurred in a gRPC stream");
-                        finishLatch.countDown();
-                    }
-
-                    @Override
-                    public void onCompleted()
-                    {
-                        Timber.i("Completed a gRPC stream");
-                        finishLatch.countDown();
-                    }
-                };
-
-                final StreamObserver<MessageType> outgoingMessageStream = asyncStubCall.apply(responseObserver);
-
-                try
-                {
-                    while (finishLatch.getCount() != 0 && !isCancelled())
-                    {
-                        final GrpcConnectionService grpcConnectionService = serviceWeakReference.get();
-                        if (grpcConnectionService == null)
-                        {
-                            finishLatch.countDown();
-                            break;
-                        }
-
-                        final MessageType nextMessageToSend = messageQueue.poll();
-
-                        // I know Thread.sleep() is bad, but after working through a couple different solutions using a
-                        // scheduled executor service, I found that solution to be a bit more complicated than I wanted.
-                        // Eventually, we could get away from using an error in the gRPC stream to indicate that the
-                        // remote server is no longer reachable, but when I added a listener for state changes via
-                        // channel.notifyWhenStateChanged(), I seemed to have run into a bug because that call was
-                        // actually changing the channel connection state. Therefore, until we can reliable come up with
-                        // a way to know when the connection drops, this sleep seems like the best approach.
-                        if (nextMessageToSend == null)
-                        {
-                            Thread.sleep(QUEUE_PROCESSING_SLEEP_TIME);
-                            continue;
-                        }
-
-                        //Timber.v("Sending a message to the remote gRPC server: %s", nextMessageToSend);
-
-                        outgoingMessageStream.onNext(nextMessageToSend);
-                    }
-                } catch (InterruptedException ignore)
-                {
-                    Timber.i("The gRPC task was interrupted");
-                } catch (RuntimeException e)
-                {
-                    // Cancel RPC
-                    outgoingMessageStream.onError(e);
-                    throw e;
-                }
-
-                // Mark the end of the stream
-                outgoingMessageStream.onCompleted();
-
-                // Receiving happens asynchronously
-                if (!finishLatch.await(1, TimeUnit.MINUTES))
-                {
-                    throw new RuntimeException("Could not finish rpc within 1 minute, the server is likely down");
-                }
-
-                if (failed instanceof StatusRuntimeException)
-                {
-                    return ((StatusRuntimeException) failed).getStatus().getCode() == io.grpc.Status.Code.UNIMPLEMENTED;
-                }
-
-                return false;
-            } catch (Throwable e)
-            {
-                Timber.e(e, "The connection to the remote gRPC server closed with an exception");
-                return true;
-            }
-        }
-
-        /**
-         * @param unimplemented True if the remote procedure call (RPC) associated with this async task is unimplemented
-         *                      on the remote server. In that event, we don't want to attempt a reconnect.
-         */
-        @Override
-        protected void onPostExecute(Boolean unimplemented)
-        {
-            Timber.i("Completed a gRPC Task, userCanceled=%s, unimplemented=%s", userCanceled, unimplemented);
-
-            if (unimplemented) return;
-
-            GrpcConnectionService grpcConnectionService = serviceWeakReference.get();
-            if (grpcConnectionService != null)
-            {
-                grpcConnectionService.disconnectFromGrpcServer(userCanceled);
-
-                if (!userCanceled) grpcConnectionService.reconnectToGrpcServer();
-            }
-        }
-    }
-
     /**
      * A {@link ServiceConnection} implementation for binding to the {@link GrpcConnectionService}.
      */
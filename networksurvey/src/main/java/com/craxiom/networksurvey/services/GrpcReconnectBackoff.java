@@ -0,0 +1,100 @@
+package com.craxiom.networksurvey.services;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Computes how long to wait before reopening a gRPC stream that failed. The delay grows exponentially with each
+ * consecutive failure up to a maximum, and each delay is randomized by a jitter factor so that the streams that fail
+ * together when the connection drops (for example, when driving out of coverage) don't all retry at the same instant.
+ * <p>
+ * Call {@link #reset()} once a stream has been healthy again so that the next failure starts over at the initial delay.
+ * <p>
+ * This class has no Android dependencies so that it can be tested in a JVM test. It is not thread safe; each stream
+ * owns its own instance.
+ *
+ * @since 1.43
+ */
+public class GrpcReconnectBackoff
+{
+    static final long DEFAULT_INITIAL_DELAY_MS = 1_000L;
+    static final long DEFAULT_MAX_DELAY_MS = 60_000L;
+    static final double DEFAULT_MULTIPLIER = 2.0;
+    /**
+     * Each delay is randomly spread by this fraction in either direction, so a 10 second delay becomes 8 to 12 seconds.
+     */
+    static final double DEFAULT_JITTER = 0.2;
+
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+    private final double multiplier;
+    private final double jitter;
+    private final DoubleSupplier random;
+
+    private double nextDelayMs;
+    private int consecutiveFailures;
+
+    public GrpcReconnectBackoff()
+    {
+        this(DEFAULT_INITIAL_DELAY_MS, DEFAULT_MAX_DELAY_MS, DEFAULT_MULTIPLIER, DEFAULT_JITTER,
+                () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param initialDelayMs The delay before the first retry.
+     * @param maxDelayMs     The upper bound for the delay, before the jitter is applied.
+     * @param multiplier     How much the delay grows with each consecutive failure.
+     * @param jitter         The fraction (0 to 1) that each delay is randomly spread by.
+     * @param random         A source of random values in the range [0, 1).
+     */
+    GrpcReconnectBackoff(long initialDelayMs, long maxDelayMs, double multiplier, double jitter, DoubleSupplier random)
+    {
+        if (initialDelayMs <= 0 || maxDelayMs < initialDelayMs)
+        {
+            throw new IllegalArgumentException("The initial delay must be positive and no larger than the max delay");
+        }
+        if (multiplier < 1.0 || jitter < 0.0 || jitter >= 1.0)
+        {
+            throw new IllegalArgumentException("The multiplier must be at least 1 and the jitter must be in [0, 1)");
+        }
+
+        this.initialDelayMs = initialDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.random = random;
+        nextDelayMs = initialDelayMs;
+    }
+
+    /**
+     * Records a failure and returns how long to wait before the next attempt.
+     *
+     * @return The delay in milliseconds, which is always at least 1.
+     */
+    public long nextDelayMs()
+    {
+        final double baseDelayMs = nextDelayMs;
+        nextDelayMs = Math.min(nextDelayMs * multiplier, maxDelayMs);
+        consecutiveFailures++;
+
+        final double spread = baseDelayMs * jitter * (2 * random.getAsDouble() - 1);
+        return Math.max(1L, Math.round(baseDelayMs + spread));
+    }
+
+    /**
+     * Starts the delays over at the initial delay.
+     */
+    public void reset()
+    {
+        nextDelayMs = initialDelayMs;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * @return The number of failures since this backoff was created or last reset.
+     */
+    public int getConsecutiveFailures()
+    {
+        return consecutiveFailures;
+    }
+}
@@ -0,0 +1,288 @@
+package com.craxiom.networksurvey.services;
+
+import com.craxiom.networksurvey.metrics.PipelineMetrics;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import timber.log.Timber;
+
+/**
+ * A client streaming RPC to the remote gRPC server that sends the messages from a queue, and that reopens itself when
+ * it fails.
+ * <p>
+ * A failed stream is reopened on the same channel after a {@link GrpcReconnectBackoff} delay instead of tearing down
+ * the whole connection. The stubs are expected to be created with {@code withWaitForReady()}, so a stream that is
+ * reopened while the channel is still reconnecting waits for the channel instead of failing right away. Messages are
+ * only taken off of the queue once the call is ready to send them, which means the messages that were queued while the
+ * connection was down stay in the queue and are drained as soon as the stream is back. Any messages that were already
+ * handed to a call when it failed are lost since the RPCs don't acknowledge individual messages.
+ * <p>
+ * The queue is bounded by dropping the oldest messages so that a long outage can't use up all the memory.
+ * <p>
+ * Records are queued as they come from the survey service and only converted to the message type of the RPC when they
+ * are sent, so a stream to an older server doesn't spend time converting records that are dropped or never sent.
+ *
+ * @param <RecordType>  The type of record that is queued.
+ * @param <MessageType> The type of message that is streamed to the remote gRPC server.
+ * @param <Reply>       The reply type that comes back from the gRPC server once the stream is complete.
+ * @since 1.43
+ */
+class GrpcRecordStream<RecordType, MessageType, Reply>
+{
+    /**
+     * A stream that stays open for at least this long is considered healthy, so the backoff starts over for its next
+     * failure.
+     */
+    static final long HEALTHY_STREAM_MS = 30_000L;
+    static final int DEFAULT_MAX_QUEUED_RECORDS = 10_000;
+    private static final long DEFAULT_POLL_INTERVAL_MS = 1_000L;
+
+    private final String name;
+    private final ConcurrentLinkedQueue<RecordType> recordQueue;
+    private final Function<RecordType, MessageType> converter;
+    private final Function<StreamObserver<Reply>, StreamObserver<MessageType>> asyncStubCall;
+    private final ScheduledExecutorService executorService;
+    private final GrpcReconnectBackoff backoff;
+    private final int maxQueuedRecords;
+    private final long pollIntervalMs;
+
+    /**
+     * The size of the record queue, tracked separately because the size of a ConcurrentLinkedQueue is not constant
+     * time. It can briefly be off by the records that are being added or removed at the same time.
+     */
+    private final AtomicInteger queuedRecordCount = new AtomicInteger();
+    private final AtomicLong droppedRecordCount = new AtomicLong();
+    private final AtomicInteger openCount = new AtomicInteger();
+
+    private volatile boolean stopped = false;
+    private volatile boolean unimplemented = false;
+    private volatile ClientCallStreamObserver<MessageType> currentCall;
+    private Future<?> currentRun;
+
+    /**
+     * @param name          A name for the stream that is used in the logs.
+     * @param queue         The queue of records to send.
+     * @param converter     Converts each record to the message type of the RPC as it is sent. It is only called from
+     *                      one thread at a time.
+     * @param asyncStubCall The call on the async stub that opens the stream.
+     */
+    GrpcRecordStream(String name, ConcurrentLinkedQueue<RecordType> queue, Function<RecordType, MessageType> converter,
+                     Function<StreamObserver<Reply>, StreamObserver<MessageType>> asyncStubCall,
+                     ScheduledExecutorService executorService)
+    {
+        this(name, queue, converter, asyncStubCall, executorService, new GrpcReconnectBackoff(),
+                DEFAULT_MAX_QUEUED_RECORDS, DEFAULT_POLL_INTERVAL_MS);
+    }
+
+    GrpcRecordStream(String name, ConcurrentLinkedQueue<RecordType> queue, Function<RecordType, MessageType> converter,
+                     Function<StreamObserver<Reply>, StreamObserver<MessageType>> asyncStubCall,
+                     ScheduledExecutorService executorService, GrpcReconnectBackoff backoff, int maxQueuedRecords,
+                     long pollIntervalMs)
+    {
+        this.name = name;
+        recordQueue = queue;
+        this.converter = converter;
+        this.asyncStubCall = asyncStubCall;
+        this.executorService = executorService;
+        this.backoff = backoff;
+        this.maxQueuedRecords = maxQueuedRecords;
+        this.pollIntervalMs = pollIntervalMs;
+        queuedRecordCount.set(queue.size());
+    }
+
+    /**
+     * Opens the stream. The stream keeps sending messages, and reopening itself when it fails, until {@link #stop()} is
+     * called or the server reports that the RPC is not implemented.
+     */
+    synchronized void start()
+    {
+        if (stopped || currentRun != null) return;
+        currentRun = executorService.submit(this::runStream);
+    }
+
+    /**
+     * Closes the stream and stops it from being reopened. Any messages left in the queue are not sent.
+     */
+    synchronized void stop()
+    {
+        stopped = true;
+
+        // Interrupting the send loop ends the call gracefully on the stream's own thread
+        if (currentRun != null) currentRun.cancel(true);
+    }
+
+    /**
+     * @return True if messages added with {@link #enqueue(Object)} will be sent, even if the stream is currently
+     * waiting to be reopened. False once the stream has been stopped or the server does not implement it.
+     */
+    boolean isAccepting()
+    {
+        return !stopped && !unimplemented;
+    }
+
+    /**
+     * Adds a record to send on this stream. If the queue is full the oldest record is dropped to make room.
+     */
+    void enqueue(RecordType record)
+    {
+        if (!isAccepting()) return;
+
+        recordQueue.add(record);
+        if (queuedRecordCount.incrementAndGet() > maxQueuedRecords && recordQueue.poll() != null)
+        {
+            queuedRecordCount.decrementAndGet();
+            if (droppedRecordCount.getAndIncrement() % 1_000 == 0)
+            {
+                Timber.w("The %s gRPC queue is full, dropping the oldest messages (%d dropped so far)", name,
+                        droppedRecordCount.get());
+            }
+        }
+    }
+
+    /**
+     * @return The number of times the stream has been opened, including the first time.
+     */
+    int getOpenCount()
+    {
+        return openCount.get();
+    }
+
+    long getDroppedRecordCount()
+    {
+        return droppedRecordCount.get();
+    }
+
+    /**
+     * Opens the RPC and sends messages from the queue until the RPC fails or this stream is stopped. Runs on the
+     * executor service, and schedules itself again after a backoff if the RPC fails.
+     */
+    private void runStream()
+    {
+        if (stopped) return;
+
+        final long openedAtNanos = System.nanoTime();
+        final CountDownLatch finishLatch = new CountDownLatch(1);
+        final Throwable[] failure = new Throwable[1];
+        openCount.incrementAndGet();
+
+        StreamObserver<MessageType> outgoingMessageStream = null;
+        try
+        {
+            outgoingMessageStream = asyncStubCall.apply(new ClientResponseObserver<MessageType, Reply>()
+            {
+                @Override
+                public void beforeStart(ClientCallStreamObserver<MessageType> requestStream)
+                {
+                    currentCall = requestStream;
+                }
+
+                @Override
+                public void onNext(Reply value)
+                {
+                }
+
+                @Override
+                public void onError(Throwable t)
+                {
+                    failure[0] = t;
+                    finishLatch.countDown();
+                }
+
+                @Override
+                public void onCompleted()
+                {
+                    Timber.i("The server completed the %s gRPC stream", name);
+                    finishLatch.countDown();
+                }
+            });
+
+            // A call that is waiting for the channel to be ready is not ready to send, so the messages stay queued
+            // until the connection is back instead of being buffered by a call that might never start
+            while (finishLatch.getCount() != 0 && !stopped)
+            {
+                final RecordType nextRecordToSend = currentCall.isReady() ? recordQueue.poll() : null;
+                if (nextRecordToSend == null)
+                {
+                    //noinspection ResultOfMethodCallIgnored
+                    finishLatch.await(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+
+                queuedRecordCount.decrementAndGet();
+                outgoingMessageStream.onNext(converter.apply(nextRecordToSend));
+                PipelineMetrics.GRPC_MESSAGES_SENT.increment();
+            }
+        } catch (InterruptedException e)
+        {
+            if (!stopped) failure[0] = e;
+        } catch (Throwable t)
+        {
+            failure[0] = t;
+            if (currentCall != null) currentCall.cancel("The " + name + " stream failed", t);
+        } finally
+        {
+            currentCall = null;
+        }
+
+        if (stopped)
+        {
+            // Mark the end of the stream so the server sees a clean close
+            if (outgoingMessageStream != null && finishLatch.getCount() != 0) completeQuietly(outgoingMessageStream);
+            return;
+        }
+
+        onStreamClosed(failure[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAtNanos));
+    }
+
+    /**
+     * Schedules the stream to be reopened after the next backoff delay, unless the server does not implement the RPC.
+     *
+     * @param failure  The reason the stream closed, or null if the server completed it.
+     * @param uptimeMs How long the stream was open for.
+     */
+    private void onStreamClosed(Throwable failure, long uptimeMs)
+    {
+        final Status status = failure == null ? Status.OK : Status.fromThrowable(failure);
+        if (status.getCode() == Status.Code.UNIMPLEMENTED)
+        {
+            Timber.w("The remote gRPC server does not implement the %s stream, so it won't be reopened", name);
+            unimplemented = true;
+            recordQueue.clear();
+            queuedRecordCount.set(0);
+            return;
+        }
+
+        if (uptimeMs >= HEALTHY_STREAM_MS) backoff.reset();
+        final long delayMs = backoff.nextDelayMs();
+        Timber.w(failure, "The %s gRPC stream closed with %s after %d ms, reopening it in %d ms (failure %d in a row)",
+                name, status.getCode(), uptimeMs, delayMs, backoff.getConsecutiveFailures());
+
+        synchronized (this)
+        {
+            if (stopped || executorService.isShutdown()) return;
+            currentRun = executorService.schedule(this::runStream, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void completeQuietly(StreamObserver<MessageType> outgoingMessageStream)
+    {
+        try
+        {
+            outgoingMessageStream.onCompleted();
+        } catch (RuntimeException e)
+        {
+            Timber.w(e, "Could not complete the %s gRPC stream", name);
+        }
+    }
+}
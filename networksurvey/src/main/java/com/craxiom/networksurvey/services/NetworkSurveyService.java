@@ -23,7 +23,6 @@ import android.content.pm.ServiceInfo;
 import android.location.Location;
 import android.location.LocationListener;
 import android.location.LocationManager;
-import android.os.BatteryManager;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
@@ -31,6 +30,7 @@ import android.os.HandlerThread;
 import android.os.IBinder;
 import android.os.Looper;
 import android.os.PowerManager;
+import android.os.SystemClock;
 import android.provider.Settings;
 import android.telephony.SubscriptionInfo;
 
@@ -68,10 +68,13 @@ import com.craxiom.networksurvey.listeners.IUploadRecordCountListener;
 import com.craxiom.networksurvey.listeners.IWifiSurveyRecordListener;
 //import com.craxiom.networksurvey.logging.CellularAggregateLogger;
 import com.craxiom.networksurvey.logging.DeviceStatusCsvLogger;
+import com.craxiom.networksurvey.logging.ThroughputCsvLogger;
 import com.craxiom.networksurvey.logging.db.DbUploadStore;
+import com.craxiom.networksurvey.metrics.PipelineMetrics;
 import com.craxiom.networksurvey.model.BatteryPauseState;
 import com.craxiom.networksurvey.model.LogTypeState;
 import com.craxiom.networksurvey.model.SurveyTypes;
+import com.craxiom.networksurvey.model.ThroughputSample;
 import com.craxiom.networksurvey.model.UploadScanningResult;
 import com.craxiom.networksurvey.mqtt.MqttConnection;
 import com.craxiom.networksurvey.mqtt.MqttConnectionInfo;
@@ -86,7 +89,6 @@ import com.craxiom.networksurvey.util.NsUtils;
 import com.craxiom.networksurvey.util.PreferenceUtils;
 import com.google.gson.Gson;
 import com.google.protobuf.BoolValue;
-import com.google.protobuf.Int32Value;
 
 import java.time.ZonedDateTime;
 import java.util.LinkedHashSet;
@@ -121,6 +123,7 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
     public static final String ACTION_STOP_SURVEY = "com.craxiom.networksurvey.STOP_SURVEY";
 
     private static final String PROPERTY_BATTERY_PAUSE_STATE = "battery_pause_state";
+    private static final long ADAPTIVE_SCAN_TICK_MS = 30_000L;
 
     private final AtomicBoolean deviceStatusActive = new AtomicBoolean(false);
     private final ScheduledThreadPoolExecutor deviceStatusExecutor = new ScheduledThreadPoolExecutor(1);
@@ -148,6 +151,7 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
 //    private CellularAggregateLogger cellularAggregateLogger;
 
     private DeviceStatusCsvLogger deviceStatusCsvLogger;
+    private ThroughputCsvLogger throughputCsvLogger;
     private Looper serviceLooper;
     private Handler serviceHandler;
     private MqttConnection mqttConnection;
@@ -156,6 +160,22 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
 
     private BatteryMonitor batteryMonitor;
     private BatteryPauseState batteryPauseState;
+    private DeviceStateCache deviceStateCache;
+
+    private final AdaptiveScanScheduler adaptiveScanScheduler = new AdaptiveScanScheduler();
+    private final AdaptiveScanScheduler.IScheduleListener adaptiveScanListener = () -> serviceHandler.post(this::setScanRateValues);
+    private final BatteryMonitor.IBatteryStateListener adaptiveScanBatteryListener = adaptiveScanScheduler::onBatteryState;
+    private final LocationListener adaptiveScanLocationListener = this::onAdaptiveScanLocation;
+    private final Runnable adaptiveScanTick = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            adaptiveScanScheduler.onTick(SystemClock.elapsedRealtime());
+            serviceHandler.postDelayed(this, ADAPTIVE_SCAN_TICK_MS);
+        }
+    };
+    private Location lastAdaptiveScanLocation;
 
     private final Set<ILoggingChangeListener> loggingChangeListeners = new CopyOnWriteArraySet<>();
 
@@ -209,6 +229,7 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
 
         surveyRecordProcessor = new SurveyRecordProcessor(primaryLocationListener, deviceId, context, executorService);
         surveyRecordProcessor.setNetworkSurveyService(this);
+        throughputCsvLogger = new ThroughputCsvLogger(this, serviceLooper, deviceId, surveyRecordProcessor.getMissionId());
 
         dbUploadStore = new DbUploadStore(context);
         dbUploadStore.setUploadRecordCountListener(this);
@@ -218,6 +239,9 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
         bluetoothController = new BluetoothController(this, executorService, serviceLooper, serviceHandler, surveyRecordProcessor, uiThreadHandler);
         gnssController = new GnssController(this, executorService, serviceLooper, serviceHandler, surveyRecordProcessor);
         cellularController = new CellularController(this, executorService, serviceLooper, serviceHandler, surveyRecordProcessor);
+        refreshAdaptiveScanScheduler();
+        adaptiveScanScheduler.registerListener(adaptiveScanListener);
+        primaryLocationListener.registerListener(adaptiveScanLocationListener);
         setScanRateValues();
         readMdmOverridePreference();
         PreferenceUtils.populateRandomMqttClientIdIfMissing(context);
@@ -238,6 +262,10 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
 
         // Start battery monitoring
         batteryMonitor.startMonitoring();
+        batteryMonitor.registerStateListener(adaptiveScanBatteryListener);
+
+        deviceStateCache = new DeviceStateCache(Build.MODEL, NsUtils.getAppVersionName(this));
+        batteryMonitor.registerStateListener(deviceStateCache);
 
         // Register battery monitor if battery management is enabled
         if (PreferenceUtils.isBatteryManagementEnabled(context))
@@ -414,9 +442,15 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
         if (batteryMonitor != null)
         {
             batteryMonitor.unregister(this);
+            batteryMonitor.unregisterStateListener(adaptiveScanBatteryListener);
+            batteryMonitor.unregisterStateListener(deviceStateCache);
             batteryMonitor.stopMonitoring();
         }
 
+        adaptiveScanScheduler.unregisterListener(adaptiveScanListener);
+        primaryLocationListener.unregisterListener(adaptiveScanLocationListener);
+        serviceHandler.removeCallbacks(adaptiveScanTick);
+
         // Release wake lock if held
         if (wakeLock != null && wakeLockActive.getAndSet(false))
         {
@@ -461,8 +495,10 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
         wifiController.onDestroy();
         bluetoothController.onDestroy();
         gnssController.onDestroy();
+        throughputCsvLogger.onDestroy();
 
         surveyRecordProcessor.removeDbSink();
+        surveyRecordProcessor.onDestroy();
 
         surveyServiceBinder.onDestroy();
         surveyServiceBinder = null;
@@ -474,6 +510,9 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
     {
         if (key == null) return;
 
+        // Publish a new settings snapshot first so that everything below sees the new values
+        surveyRecordProcessor.refreshSettings();
+
         switch (key)
         {
             case NetworkSurveyConstants.PROPERTY_LOG_ROLLOVER_SIZE_MB:
@@ -483,6 +522,7 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
                 gnssController.onRolloverPreferenceChanged();
 
                 deviceStatusCsvLogger.onSharedPreferenceChanged();
+                throughputCsvLogger.onSharedPreferenceChanged();
                 break;
             case NetworkSurveyConstants.PROPERTY_CELLULAR_SCAN_INTERVAL_SECONDS:
             case NetworkSurveyConstants.PROPERTY_WIFI_SCAN_INTERVAL_SECONDS:
@@ -491,6 +531,9 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
             case NetworkSurveyConstants.PROPERTY_DEVICE_STATUS_SCAN_INTERVAL_SECONDS:
                 setScanRateValues();
                 break;
+            case NetworkSurveyConstants.PROPERTY_ADAPTIVE_SCAN_INTERVAL:
+                refreshAdaptiveScanScheduler();
+                break;
             case NetworkSurveyConstants.PROPERTY_MDM_OVERRIDE_KEY:
                 readMdmOverridePreference();
                 break;
@@ -786,6 +829,7 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
             if (!surveyRecordProcessor.isCellularBeingUsed())
             {
                 cellularController.stopCellularRecordScanning();
+                surveyRecordProcessor.flushCoverage();
             }
         }
 
@@ -834,6 +878,7 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
             if (!surveyRecordProcessor.isWifiBeingUsed())
             {
                 wifiController.stopWifiRecordScanning();
+                surveyRecordProcessor.flushCoverage();
             }
         }
 
@@ -1078,6 +1123,7 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
             if (!surveyRecordProcessor.isCellularBeingUsed())
             {
                 cellularController.stopCellularRecordScanning();
+                surveyRecordProcessor.flushCoverage();
             }
         }
     }
@@ -1202,6 +1248,39 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
         return result;
     }
 
+    /**
+     * Toggles logging of the drive test throughput samples to a CSV file.
+     *
+     * @param enable True if logging should be enabled, false if it should be turned off.
+     * @return The new state of logging. True if it is enabled, or false if it is disabled.
+     * @since 1.43
+     */
+    public boolean toggleThroughputLogging(boolean enable)
+    {
+        return throughputCsvLogger.enableLogging(enable);
+    }
+
+    /**
+     * Called by the speed test when a new throughput measurement is available during a drive test. The
+     * measurement is tagged with the latest location and serving cell and then written to the throughput log.
+     *
+     * @param testNumber     The drive test iteration the sample belongs to.
+     * @param phase          The stage of the speed test that the sample was taken during.
+     * @param throughputMbps The throughput over the sample window.
+     * @param latencyMs      The most recent latency measurement, or -1 if it is not known.
+     * @param networkType    The type of network the test is running over.
+     * @since 1.43
+     */
+    public void onThroughputSample(int testNumber, ThroughputSample.Phase phase, double throughputMbps,
+                                   long latencyMs, String networkType)
+    {
+        if (throughputCsvLogger == null) return;
+
+        final Location location = primaryLocationListener == null ? null : primaryLocationListener.getLatestLocation();
+        throughputCsvLogger.onThroughputSample(new ThroughputSample(System.currentTimeMillis(), testNumber, phase,
+                throughputMbps, latencyMs, networkType, location, surveyRecordProcessor.getLatestServingCell()));
+    }
+
     public UploadScanningResult toggleUploadRecordSaving(boolean enable)
     {
         //noinspection SynchronizeOnNonFinalField
@@ -1562,6 +1641,57 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
         updateLocationListener();
     }
 
+    /**
+     * @return The scheduler that adapts the scan intervals to the device motion and battery state.
+     * @since 1.43
+     */
+    public AdaptiveScanScheduler getAdaptiveScanScheduler()
+    {
+        return adaptiveScanScheduler;
+    }
+
+    /**
+     * Reads the adaptive scan interval preference and enables or disables the scheduler. If the scheduler
+     * changes state it notifies its listener, which re-applies the scan rates.
+     *
+     * @since 1.43
+     */
+    private void refreshAdaptiveScanScheduler()
+    {
+        final boolean enabled = PreferenceUtils.getAdaptiveScanIntervalPreference(getApplicationContext());
+
+        // The tick catches the location updates stopping, which would otherwise leave a stale motion state
+        serviceHandler.removeCallbacks(adaptiveScanTick);
+        if (enabled) serviceHandler.postDelayed(adaptiveScanTick, ADAPTIVE_SCAN_TICK_MS);
+
+        adaptiveScanScheduler.setEnabled(enabled);
+    }
+
+    /**
+     * Passes the speed from a new location to the adaptive scan scheduler. If the location does not
+     * include a speed, the speed is calculated from the distance to the previous location.
+     *
+     * @since 1.43
+     */
+    private void onAdaptiveScanLocation(Location location)
+    {
+        if (location == null || !adaptiveScanScheduler.isEnabled()) return;
+
+        final long nowMs = SystemClock.elapsedRealtime();
+        float speedMps = -1f;
+        if (location.hasSpeed())
+        {
+            speedMps = location.getSpeed();
+        } else if (lastAdaptiveScanLocation != null)
+        {
+            final long elapsedMs = (location.getElapsedRealtimeNanos() - lastAdaptiveScanLocation.getElapsedRealtimeNanos()) / 1_000_000L;
+            if (elapsedMs > 0) speedMps = location.distanceTo(lastAdaptiveScanLocation) * 1000f / elapsedMs;
+        }
+        lastAdaptiveScanLocation = location;
+
+        adaptiveScanScheduler.onSpeedSample(nowMs, speedMps);
+    }
+
     /**
      * Triggers a read of the mdm override preference and stores it in an instance variable.
      *
@@ -1902,6 +2032,12 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
                 }
 
                 surveyRecordProcessor.onDeviceStatus(generateDeviceStatus());
+
+                if (surveyRecordProcessor.getSettings().pipelineMetricsMessageEnabled)
+                {
+                    surveyRecordProcessor.onPipelineMetrics(PipelineMetrics.toMessage(PipelineMetrics.REGISTRY.snapshot(),
+                            deviceId, NsUtils.getRfc3339String(ZonedDateTime.now())));
+                }
             } catch (SecurityException e)
             {
                 Timber.e(e, "Could not get the required permissions to generate a device status message");
@@ -1980,18 +2116,8 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
             }
         }
 
-        final IntentFilter intentFilter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-        final Intent batteryStatus = registerReceiver(null, intentFilter);
-        if (batteryStatus != null)
-        {
-            int level = batteryStatus.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
-            int scale = batteryStatus.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
-            final float batteryPercent = (level / (float) scale) * 100;
-            dataBuilder.setBatteryLevelPercent(Int32Value.of((int) batteryPercent));
-        }
-
-        dataBuilder.setDeviceModel(Build.MODEL);
-        dataBuilder.setAppVersion(NsUtils.getAppVersionName(this));
+        // The battery level, device model, and app version come from the cache so that no system calls are needed
+        deviceStateCache.populate(dataBuilder);
 
         final DeviceStatus.Builder statusBuilder = DeviceStatus.newBuilder();
         statusBuilder.setMessageType(DeviceStatusMessageConstants.DEVICE_STATUS_MESSAGE_TYPE);
@@ -2194,6 +2320,7 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
         bluetoothController.stopAllLogging();
         gnssController.stopAllLogging();
         if (deviceStatusCsvLogger != null) deviceStatusCsvLogger.enableLogging(false);
+        if (throughputCsvLogger != null) throughputCsvLogger.enableLogging(false);
     }
 
     /**
@@ -2219,6 +2346,8 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
             @Override
             public void onReceive(Context context, Intent intent)
             {
+                surveyRecordProcessor.refreshSettings();
+                refreshAdaptiveScanScheduler();
                 setScanRateValues();
                 attemptMqttConnectWithMdmConfig(true);
 
@@ -2228,6 +2357,7 @@ public class NetworkSurveyService extends Service implements IConnectionStateLis
                 gnssController.onMdmPreferenceChanged();
 
                 deviceStatusCsvLogger.onMdmPreferenceChanged();
+                throughputCsvLogger.onMdmPreferenceChanged();
                 updateUploadAllowedForMdm();
             }
         };
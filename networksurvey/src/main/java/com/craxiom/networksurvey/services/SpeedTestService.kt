@@ -1,7 +1,10 @@
 package com.craxiom.networksurvey.service
 
 import android.app.*
+import android.content.ComponentName
+import android.content.Context
 import android.content.Intent
+import android.content.ServiceConnection
 import android.os.Binder
 import android.os.Build
 import android.os.IBinder
@@ -12,9 +15,13 @@ import com.craxiom.networksurvey.logging.db.SpeedTestBase
 import com.craxiom.networksurvey.logging.db.dao.SpeedTestResultDao
 import com.craxiom.networksurvey.model.SpeedTestEvent
 import com.craxiom.networksurvey.model.SpeedTestResult
+import com.craxiom.networksurvey.model.ThroughputSample
+import com.craxiom.networksurvey.services.NetworkSurveyService
 import com.craxiom.networksurvey.util.NetworkSpeedTester
+import com.craxiom.networksurvey.util.ThroughputSampler
 import kotlinx.coroutines.*
 import kotlinx.coroutines.flow.*
+import timber.log.Timber
 import java.util.UUID
 
 class SpeedTestService : Service() {
@@ -26,6 +33,37 @@ class SpeedTestService : Service() {
 
     fun isTesting(): Boolean = isTesting
 
+    // 路测模式
+    private var driveTestJob: Job? = null
+    private var surveyService: NetworkSurveyService? = null
+    private var surveyServiceBound = false
+
+    @Volatile
+    private var currentPhase = ThroughputSample.Phase.IDLE
+
+    @Volatile
+    private var currentTestNumber = 0
+
+    @Volatile
+    private var currentLatencyMs = -1L
+
+    fun isDriveTestActive(): Boolean = driveTestJob?.isActive == true
+
+    private val surveyServiceConnection = object : ServiceConnection {
+        override fun onServiceConnected(name: ComponentName?, binder: IBinder?) {
+            val serviceBinder = binder as NetworkSurveyService.SurveyServiceBinder
+            val service = serviceBinder.service as NetworkSurveyService
+            surveyService = service
+            if (isDriveTestActive()) service.toggleThroughputLogging(true)
+            Timber.d("SpeedTestService connected to NetworkSurveyService")
+        }
+
+        override fun onServiceDisconnected(name: ComponentName?) {
+            surveyService = null
+            Timber.d("SpeedTestService disconnected from NetworkSurveyService")
+        }
+    }
+
     private lateinit var dao: SpeedTestResultDao
 
     // 实时事件
@@ -78,49 +116,7 @@ class SpeedTestService : Service() {
 
         serviceScope.launch {
             try {
-                // 重置 UI
-                emitEvent(SpeedTestEvent.Latency(0))
-                emitEvent(SpeedTestEvent.Download(0.0))
-                emitEvent(SpeedTestEvent.Upload(0.0))
-
-                // 第一步：获取中国服务器列表
-                val servers = networkSpeedTester.getSpeedtestCNServers()
-                if (servers.isEmpty()) {
-                    emitEvent(SpeedTestEvent.Error("未找到可用测速服务器"))
-                    return@launch
-                }
-
-                // 第二步：选择最优服务器
-                val best = networkSpeedTester.selectBestServer(servers)
-                if (best == null) {
-                    emitEvent(SpeedTestEvent.Error("无法选择测速服务器"))
-                    return@launch
-                }
-
-                // 第三步：测试时延
-                val latency = networkSpeedTester.testLatency()
-                emitEvent(SpeedTestEvent.Latency(latency))
-
-                // 第四步：测试下载
-                val downloadSpeed = networkSpeedTester.testDownloadSpeed()
-                emitEvent(SpeedTestEvent.Download(downloadSpeed))
-
-                // 第五步：测试上传
-                val uploadSpeed = networkSpeedTester.testUploadSpeed()
-                emitEvent(SpeedTestEvent.Upload(uploadSpeed))
-
-                // 存储结果
-                val record = SpeedTestResult(
-                    id = UUID.randomUUID().toString(),
-                    timestamp = System.currentTimeMillis(),
-                    networkType = networkType,
-                    downloadSpeedMbps = downloadSpeed,
-                    uploadSpeedMbps = uploadSpeed,
-                    latencyMs = latency
-                )
-                dao.insertResult(record)
-                emitEvent(SpeedTestEvent.Completed(record))
-
+                runSpeedTestCycle(networkType)
             } catch (e: Exception) {
                 emitEvent(SpeedTestEvent.Error(e.message ?: "测速失败"))
             } finally {
@@ -130,7 +126,157 @@ class SpeedTestService : Service() {
         }
     }
 
+    /**
+     * 执行一次完整的 时延 → 下载 → 上传 测速并存储结果，失败时返回 null
+     */
+    private suspend fun runSpeedTestCycle(networkType: String): SpeedTestResult? {
+        // 重置 UI
+        emitEvent(SpeedTestEvent.Latency(0))
+        emitEvent(SpeedTestEvent.Download(0.0))
+        emitEvent(SpeedTestEvent.Upload(0.0))
+        currentPhase = ThroughputSample.Phase.LATENCY
+
+        // 第一步：获取中国服务器列表
+        val servers = networkSpeedTester.getSpeedtestCNServers()
+        if (servers.isEmpty()) {
+            emitEvent(SpeedTestEvent.Error("未找到可用测速服务器"))
+            return null
+        }
+
+        // 第二步：选择最优服务器
+        val best = networkSpeedTester.selectBestServer(servers)
+        if (best == null) {
+            emitEvent(SpeedTestEvent.Error("无法选择测速服务器"))
+            return null
+        }
+
+        // 第三步：测试时延
+        val latency = networkSpeedTester.testLatency()
+        currentLatencyMs = latency
+        emitEvent(SpeedTestEvent.Latency(latency))
+
+        // 第四步：测试下载
+        currentPhase = ThroughputSample.Phase.DOWNLOAD
+        val downloadSpeed = networkSpeedTester.testDownloadSpeed()
+        emitEvent(SpeedTestEvent.Download(downloadSpeed))
+
+        // 第五步：测试上传
+        currentPhase = ThroughputSample.Phase.UPLOAD
+        val uploadSpeed = networkSpeedTester.testUploadSpeed()
+        emitEvent(SpeedTestEvent.Upload(uploadSpeed))
+
+        // 存储结果
+        val record = SpeedTestResult(
+            id = UUID.randomUUID().toString(),
+            timestamp = System.currentTimeMillis(),
+            networkType = networkType,
+            downloadSpeedMbps = downloadSpeed,
+            uploadSpeedMbps = uploadSpeed,
+            latencyMs = latency
+        )
+        dao.insertResult(record)
+        emitEvent(SpeedTestEvent.Completed(record))
+        return record
+    }
+
+    /**
+     * 开始路测：按固定间隔循环测速，每秒采样一次吞吐量，并由 NetworkSurveyService
+     * 附加当前位置和服务小区后写入吞吐量 CSV 日志。
+     *
+     * @param networkType 测速所用的网络类型
+     * @param cycleIntervalMs 两次测速之间的间隔（毫秒）
+     */
+    fun startDriveTest(networkType: String, cycleIntervalMs: Long = DEFAULT_DRIVE_TEST_INTERVAL_MS) {
+        if (isTesting || isDriveTestActive()) return
+
+        isTesting = true
+        networkSpeedTester.resetCancellation()
+        startForeground(NOTIFICATION_ID, createNotification())
+        bindSurveyService()
+
+        currentTestNumber = 0
+        currentLatencyMs = -1L
+
+        driveTestJob = serviceScope.launch {
+            val sampler = launch { sampleThroughput(networkType) }
+            try {
+                while (isActive) {
+                    currentTestNumber++
+                    try {
+                        runSpeedTestCycle(networkType)
+                    } catch (e: CancellationException) {
+                        throw e
+                    } catch (e: Exception) {
+                        // 单次失败不终止路测
+                        emitEvent(SpeedTestEvent.Error(e.message ?: "测速失败"))
+                    } finally {
+                        // 等待下一次测速期间不再记录吞吐量
+                        currentPhase = ThroughputSample.Phase.IDLE
+                    }
+                    delay(cycleIntervalMs)
+                }
+            } finally {
+                sampler.cancel()
+            }
+        }
+    }
+
+    /**
+     * 停止路测并关闭吞吐量日志
+     */
+    fun stopDriveTest() {
+        val job = driveTestJob ?: return
+        driveTestJob = null
+        networkSpeedTester.cancelTest()
+        job.cancel()
+
+        surveyService?.toggleThroughputLogging(false)
+        unbindSurveyService()
+
+        isTesting = false
+        stopForeground(STOP_FOREGROUND_REMOVE)
+    }
+
+    /**
+     * 每秒采样一次吞吐量，并交给 NetworkSurveyService 记录；两次测速之间的空闲阶段不记录
+     */
+    private suspend fun sampleThroughput(networkType: String) = coroutineScope {
+        val sampler = ThroughputSampler(networkSpeedTester.getTransferredBytes(), System.currentTimeMillis())
+
+        while (isActive) {
+            delay(THROUGHPUT_SAMPLE_INTERVAL_MS)
+
+            val sample = sampler.sample(
+                networkSpeedTester.getTransferredBytes(), System.currentTimeMillis(), currentPhase
+            ) ?: continue
+            surveyService?.onThroughputSample(
+                currentTestNumber, sample.phase, sample.throughputMbps, currentLatencyMs, networkType
+            )
+        }
+    }
+
+    private fun bindSurveyService() {
+        val intent = Intent(applicationContext, NetworkSurveyService::class.java)
+        surveyServiceBound = applicationContext.bindService(intent, surveyServiceConnection, Context.BIND_AUTO_CREATE)
+        if (!surveyServiceBound) Timber.w("无法绑定 NetworkSurveyService，吞吐量采样将不会被记录")
+    }
+
+    private fun unbindSurveyService() {
+        if (!surveyServiceBound) return
+        surveyServiceBound = false
+        surveyService = null
+        try {
+            applicationContext.unbindService(surveyServiceConnection)
+        } catch (e: IllegalArgumentException) {
+            Timber.e(e, "Could not unbind the NetworkSurveyService because it is not bound.")
+        }
+    }
+
     fun cancelTest() {
+        if (isDriveTestActive()) {
+            stopDriveTest()
+            return
+        }
         if (isTesting) {
             networkSpeedTester.cancelTest()
             isTesting = false
@@ -172,12 +318,15 @@ class SpeedTestService : Service() {
 
     override fun onDestroy() {
         super.onDestroy()
+        stopDriveTest()
         serviceScope.cancel()
     }
 
     companion object {
         const val CHANNEL_ID = "SPEED_TEST_CHANNEL"
         const val NOTIFICATION_ID = 1001
+        const val DEFAULT_DRIVE_TEST_INTERVAL_MS = 10_000L
+        const val THROUGHPUT_SAMPLE_INTERVAL_MS = 1_000L
     }
 }
 
@@ -0,0 +1,580 @@
+package com.craxiom.networksurvey.services;
+
+import com.craxiom.messaging.CdmaRecord;
+import com.craxiom.messaging.CdmaRecordData;
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.GsmRecordData;
+import com.craxiom.messaging.LteBandwidth;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.NrRecordData;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.UmtsRecordData;
+import com.craxiom.messaging.WifiBeaconRecord;
+import com.craxiom.messaging.WifiBeaconRecordData;
+import com.craxiom.networksurvey.BuildConfig;
+import com.craxiom.networksurvey.constants.CdmaMessageConstants;
+import com.craxiom.networksurvey.constants.GsmMessageConstants;
+import com.craxiom.networksurvey.constants.LteMessageConstants;
+import com.craxiom.networksurvey.constants.NrMessageConstants;
+import com.craxiom.networksurvey.constants.UmtsMessageConstants;
+import com.craxiom.networksurvey.constants.WifiBeaconMessageConstants;
+import com.craxiom.networksurvey.util.RecordTimestamp;
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Int64Value;
+
+import timber.log.Timber;
+
+/**
+ * Builds the survey records from the values that the {@link SurveyRecordProcessor} has already pulled out of
+ * the Android {@code CellInfo} and {@code ScanResult} objects (extracted from the processor's
+ * {@code generate*SurveyRecord} methods).
+ * <p>
+ * Nothing here calls in to the Android framework, so the same code that runs during a survey can be measured
+ * in the JVM benchmarks. The caller is responsible for validating the required fields first, and for setting
+ * the location fields on the data builder that is passed in.
+ *
+ * @since 1.43
+ */
+public final class SurveyRecordBuilder
+{
+    /**
+     * The value to pass for an optional field that is not available.
+     */
+    public static final int UNSET = Integer.MAX_VALUE;
+
+    /**
+     * The value to pass for the SNR when it is not available, since {@link #UNSET} is a valid SNR.
+     */
+    public static final int UNSET_SNR = Integer.MIN_VALUE;
+
+    /**
+     * The value to pass for a 64-bit optional field that is not available (the same as Android's
+     * {@code CellInfo.UNAVAILABLE_LONG}).
+     */
+    public static final long UNSET_LONG = Long.MAX_VALUE;
+
+    private SurveyRecordBuilder()
+    {
+    }
+
+    /**
+     * Validates the required fields.
+     *
+     * @return True if the provided fields are all valid, false if one or more is invalid.
+     */
+    public static boolean validateGsmFields(int arfcn, int bsic, int signalStrength)
+    {
+        if (arfcn == Integer.MAX_VALUE || arfcn == -1)
+        {
+            Timber.v("The ARFCN is required to build a GSM Survey Record.");
+            return false;
+        }
+
+        if (bsic == Integer.MAX_VALUE || bsic == -1)
+        {
+            Timber.v("The BSIC is required to build a GSM Survey Record.");
+            return false;
+        }
+
+        if (signalStrength == Integer.MAX_VALUE)
+        {
+            Timber.v("The Signal Strength is required to build a GSM Survey Record.");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Validates the required fields.
+     *
+     * @return True if the provided fields are all valid, false if one or more is invalid.
+     */
+    public static boolean validateLteFields(int earfcn, int pci, int rsrp)
+    {
+        if (earfcn == Integer.MAX_VALUE || earfcn == -1)
+        {
+            Timber.v("The EARFCN is required to build an LTE Survey Record.");
+            return false;
+        }
+
+        if (pci == Integer.MAX_VALUE || pci == -1)
+        {
+            Timber.v("The PCI is required to build an LTE Survey Record.");
+            return false;
+        }
+
+        if (rsrp == Integer.MAX_VALUE)
+        {
+            Timber.v("The RSRP is required to build an LTE Survey Record.");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Validates the required CDMA fields.
+     *
+     * @return True if the provided fields are all valid, false if one or more is invalid.
+     */
+    public static boolean validateCdmaFields(int signalStrength, int ecio)
+    {
+        if (signalStrength == Integer.MAX_VALUE)
+        {
+            Timber.v("The Signal Strength is required to build a CDMA Survey Record.");
+            return false;
+        }
+
+        if (ecio == Integer.MAX_VALUE)
+        {
+            Timber.v("The Ec/Io is required to build a CDMA Survey Record.");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Validates the required fields.
+     *
+     * @return True if the provided fields are all valid, false if one or more is invalid.
+     */
+    public static boolean validateUmtsFields(int uarfcn, int psc)
+    {
+        if (uarfcn == Integer.MAX_VALUE || uarfcn == -1)
+        {
+            Timber.v("The UARFCN is required to build a UMTS Survey Record.");
+            return false;
+        }
+
+        if (psc == Integer.MAX_VALUE || psc == -1)
+        {
+            Timber.v("The PSC is required to build a UMTS Survey Record.");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Validates the required arguments per:
+     * <a href="https://messaging.networksurvey.app/#operation-publish-nr_message">NR Message Requirements</a>
+     *
+     * @return {@code true} if the provided fields are all valid, false if one or more is invalid.
+     */
+    public static boolean validateNrFields(int nrarfcn, int pci)
+    {
+        if (nrarfcn == UNSET)
+        {
+            Timber.v("NRARFCN is required to build an NR survey record");
+            return false;
+        }
+        if (pci == UNSET)
+        {
+            Timber.v("PCI is required to build an NR survey record");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Builds a GSM record. The ARFCN, BSIC and signal strength must have passed {@link #validateGsmFields}.
+     *
+     * @param dataBuilder The data builder, with the location fields already set.
+     * @param provider    The carrier name, or null if it is not known.
+     * @param slot        The subscription ID, or {@link #UNSET} if it is not a specific subscription.
+     * @return The survey record.
+     */
+    public static GsmRecord buildGsmRecord(GsmRecordData.Builder dataBuilder, String deviceId, String missionId,
+                                           RecordTimestamp timestamp, int recordNumber, int groupNumber,
+                                           boolean servingCell, CharSequence provider, int mcc, int mnc, int lac,
+                                           int cid, int arfcn, int bsic, int signalStrength, int timingAdvance,
+                                           int slot)
+    {
+        dataBuilder.setDeviceSerialNumber(deviceId);
+        dataBuilder.setDeviceTime(timestamp.rfc3339);
+        dataBuilder.setMissionId(missionId);
+        dataBuilder.setRecordNumber(recordNumber);
+        dataBuilder.setGroupNumber(groupNumber);
+        dataBuilder.setServingCell(BoolValue.newBuilder().setValue(servingCell).build());
+        if (provider != null) dataBuilder.setProvider(provider.toString());
+
+        // Even though the Android Javadocs indicate that an unset value is represented by Integer.MAX_VALUE, I found that a -1 is sometimes used for TA and CID.
+        // I also found that 0 is used as unset for MCC, MNC, LAC, ARFCN, and BSIC.
+
+        if (mcc != Integer.MAX_VALUE && mcc != 0)
+        {
+            dataBuilder.setMcc(Int32Value.newBuilder().setValue(mcc).build());
+        }
+        if (mnc != Integer.MAX_VALUE && mnc != 0)
+        {
+            dataBuilder.setMnc(Int32Value.newBuilder().setValue(mnc).build());
+        }
+        if (lac != Integer.MAX_VALUE && lac != 0)
+        {
+            dataBuilder.setLac(Int32Value.newBuilder().setValue(lac).build());
+        }
+        if (cid != Integer.MAX_VALUE && cid != -1)
+        {
+            dataBuilder.setCi(Int32Value.newBuilder().setValue(cid).build());
+        }
+        if (slot != UNSET)
+        {
+            dataBuilder.setSlot(Int32Value.newBuilder().setValue(slot).build());
+        }
+
+        dataBuilder.setArfcn(Int32Value.newBuilder().setValue(arfcn).build());
+        dataBuilder.setBsic(Int32Value.newBuilder().setValue(bsic).build());
+        dataBuilder.setSignalStrength(FloatValue.newBuilder().setValue(signalStrength).build());
+
+        if (timingAdvance != Integer.MAX_VALUE && timingAdvance != -1)
+        {
+            dataBuilder.setTa(Int32Value.newBuilder().setValue(timingAdvance).build());
+        }
+
+        final GsmRecord.Builder recordBuilder = GsmRecord.newBuilder();
+        recordBuilder.setMessageType(GsmMessageConstants.GSM_RECORD_MESSAGE_TYPE);
+        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
+        recordBuilder.setData(dataBuilder);
+
+        return recordBuilder.build();
+    }
+
+    /**
+     * Builds a CDMA record. The signal strength and Ec/Io must have passed {@link #validateCdmaFields}.
+     *
+     * @param dataBuilder The data builder, with the location fields already set.
+     * @param provider    The carrier name, or null if it is not known.
+     * @param ecio        The Ec/Io in dB*10, as Android reports it.
+     * @param slot        The subscription ID, or {@link #UNSET} if it is not a specific subscription.
+     * @return The survey record.
+     */
+    public static CdmaRecord buildCdmaRecord(CdmaRecordData.Builder dataBuilder, String deviceId, String missionId,
+                                             RecordTimestamp timestamp, int recordNumber, int groupNumber,
+                                             boolean servingCell, CharSequence provider, int sid, int nid, int bsid,
+                                             int signalStrength, int ecio, int slot)
+    {
+        dataBuilder.setDeviceSerialNumber(deviceId);
+        dataBuilder.setDeviceTime(timestamp.rfc3339);
+        dataBuilder.setMissionId(missionId);
+        dataBuilder.setRecordNumber(recordNumber);
+        dataBuilder.setGroupNumber(groupNumber);
+        dataBuilder.setServingCell(BoolValue.newBuilder().setValue(servingCell).build());
+        if (provider != null) dataBuilder.setProvider(provider.toString());
+
+        if (sid != Integer.MAX_VALUE)
+        {
+            dataBuilder.setSid(Int32Value.newBuilder().setValue(sid).build());
+        }
+        if (nid != Integer.MAX_VALUE)
+        {
+            dataBuilder.setNid(Int32Value.newBuilder().setValue(nid).build());
+        }
+        if (bsid != Integer.MAX_VALUE)
+        {
+            dataBuilder.setBsid(Int32Value.newBuilder().setValue(bsid).build());
+        }
+        if (slot != UNSET)
+        {
+            dataBuilder.setSlot(Int32Value.newBuilder().setValue(slot).build());
+        }
+
+        // The Android Javadocs indicate: "Get the CDMA Ec/Io value in dB*10". So we need to divide by 10.
+        dataBuilder.setSignalStrength(FloatValue.newBuilder().setValue(signalStrength).build());
+        dataBuilder.setEcio(FloatValue.newBuilder().setValue(ecio / 10.0f).build());
+
+        final CdmaRecord.Builder recordBuilder = CdmaRecord.newBuilder();
+        recordBuilder.setMessageType(CdmaMessageConstants.CDMA_RECORD_MESSAGE_TYPE);
+        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
+        recordBuilder.setData(dataBuilder);
+
+        return recordBuilder.build();
+    }
+
+    /**
+     * Builds a UMTS record. The UARFCN and PSC must have passed {@link #validateUmtsFields}.
+     *
+     * @param dataBuilder The data builder, with the location fields already set.
+     * @param provider    The carrier name, or null if it is not known.
+     * @param ecNo        The Ec/No, or {@link #UNSET} if it is not known.
+     * @param slot        The subscription ID, or {@link #UNSET} if it is not a specific subscription.
+     * @return The survey record.
+     */
+    public static UmtsRecord buildUmtsRecord(UmtsRecordData.Builder dataBuilder, String deviceId, String missionId,
+                                             RecordTimestamp timestamp, int recordNumber, int groupNumber,
+                                             boolean servingCell, CharSequence provider, int mcc, int mnc, int lac,
+                                             int cid, int uarfcn, int psc, int signalStrength, int rscp, int ecNo,
+                                             int slot)
+    {
+        dataBuilder.setDeviceSerialNumber(deviceId);
+        dataBuilder.setDeviceTime(timestamp.rfc3339);
+        dataBuilder.setMissionId(missionId);
+        dataBuilder.setRecordNumber(recordNumber);
+        dataBuilder.setGroupNumber(groupNumber);
+        dataBuilder.setServingCell(BoolValue.newBuilder().setValue(servingCell).build());
+        if (provider != null) dataBuilder.setProvider(provider.toString());
+
+        if (mcc != Integer.MAX_VALUE)
+        {
+            dataBuilder.setMcc(Int32Value.newBuilder().setValue(mcc).build());
+        }
+        if (mnc != Integer.MAX_VALUE)
+        {
+            dataBuilder.setMnc(Int32Value.newBuilder().setValue(mnc).build());
+        }
+        if (lac != Integer.MAX_VALUE)
+        {
+            dataBuilder.setLac(Int32Value.newBuilder().setValue(lac).build());
+        }
+        if (cid != Integer.MAX_VALUE)
+        {
+            dataBuilder.setCid(Int32Value.newBuilder().setValue(cid).build());
+        }
+        if (ecNo != UNSET)
+        {
+            dataBuilder.setEcno(FloatValue.newBuilder().setValue(ecNo).build());
+        }
+        if (signalStrength != Integer.MAX_VALUE)
+        {
+            dataBuilder.setSignalStrength(FloatValue.newBuilder().setValue(signalStrength).build());
+        }
+        if (rscp != Integer.MAX_VALUE)
+        {
+            dataBuilder.setRscp(FloatValue.newBuilder().setValue(rscp).build());
+        }
+        if (slot != UNSET)
+        {
+            dataBuilder.setSlot(Int32Value.newBuilder().setValue(slot).build());
+        }
+
+        dataBuilder.setUarfcn(Int32Value.newBuilder().setValue(uarfcn).build());
+        dataBuilder.setPsc(Int32Value.newBuilder().setValue(psc).build());
+
+        final UmtsRecord.Builder recordBuilder = UmtsRecord.newBuilder();
+        recordBuilder.setMessageType(UmtsMessageConstants.UMTS_RECORD_MESSAGE_TYPE);
+        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
+        recordBuilder.setData(dataBuilder);
+
+        return recordBuilder.build();
+    }
+
+    /**
+     * Builds an LTE record. The EARFCN, PCI and RSRP must have passed {@link #validateLteFields}.
+     *
+     * @param dataBuilder The data builder, with the location fields already set.
+     * @param provider    The carrier name, or null if it is not known.
+     * @param slot        The subscription ID, or {@link #UNSET} if it is not a specific subscription.
+     * @param snr         The SNR of the serving cell, or {@link #UNSET_SNR} for a neighbor cell or if it is not
+     *                    known.
+     * @param bandwidth   The bandwidth in kHz, or {@link #UNSET} if it is not known.
+     * @return The survey record.
+     */
+    public static LteRecord buildLteRecord(LteRecordData.Builder dataBuilder, String deviceId, String missionId,
+                                           RecordTimestamp timestamp, int recordNumber, int groupNumber,
+                                           boolean servingCell, CharSequence provider, int mcc, int mnc, int tac,
+                                           int ci, int earfcn, int pci, int rsrp, int rsrq, int timingAdvance,
+                                           int rssi, int cqi, int slot, int snr, int bandwidth)
+    {
+        dataBuilder.setDeviceSerialNumber(deviceId);
+        dataBuilder.setDeviceTime(timestamp.rfc3339);
+        dataBuilder.setMissionId(missionId);
+        dataBuilder.setRecordNumber(recordNumber);
+        dataBuilder.setGroupNumber(groupNumber);
+        dataBuilder.setServingCell(BoolValue.newBuilder().setValue(servingCell).build());
+        if (provider != null) dataBuilder.setProvider(provider.toString());
+
+        if (mcc != Integer.MAX_VALUE)
+        {
+            dataBuilder.setMcc(Int32Value.newBuilder().setValue(mcc).build());
+        }
+        if (mnc != Integer.MAX_VALUE)
+        {
+            dataBuilder.setMnc(Int32Value.newBuilder().setValue(mnc).build());
+        }
+        if (tac != Integer.MAX_VALUE)
+        {
+            dataBuilder.setTac(Int32Value.newBuilder().setValue(tac).build());
+        }
+        if (ci != Integer.MAX_VALUE)
+        {
+            dataBuilder.setEci(Int32Value.newBuilder().setValue(ci).build());
+        }
+
+        dataBuilder.setEarfcn(Int32Value.newBuilder().setValue(earfcn).build());
+        dataBuilder.setPci(Int32Value.newBuilder().setValue(pci).build());
+        dataBuilder.setRsrp(FloatValue.newBuilder().setValue(rsrp).build());
+
+        if (rsrq != Integer.MAX_VALUE)
+        {
+            dataBuilder.setRsrq(FloatValue.newBuilder().setValue(rsrq).build());
+        }
+        if (timingAdvance != Integer.MAX_VALUE)
+        {
+            dataBuilder.setTa(Int32Value.newBuilder().setValue(timingAdvance).build());
+        }
+        if (rssi != Integer.MAX_VALUE)
+        {
+            dataBuilder.setSignalStrength(FloatValue.newBuilder().setValue(rssi).build());
+        }
+
+        // A CQI of 0 is considered "out of range" per 3GPP TS 36.213, and Android will return 0 for
+        // neighbor cells.
+        if (cqi != Integer.MAX_VALUE && cqi != 0)
+        {
+            dataBuilder.setCqi(Int32Value.newBuilder().setValue(cqi).build());
+        }
+        if (slot != UNSET)
+        {
+            dataBuilder.setSlot(Int32Value.newBuilder().setValue(slot).build());
+        }
+        if (snr != UNSET_SNR)
+        {
+            dataBuilder.setSnr(FloatValue.newBuilder().setValue(snr).build());
+        }
+
+        final LteBandwidth lteBandwidth = switch (bandwidth)
+        {
+            case 1_400 -> LteBandwidth.MHZ_1_4;
+            case 3_000 -> LteBandwidth.MHZ_3;
+            case 5_000 -> LteBandwidth.MHZ_5;
+            case 10_000 -> LteBandwidth.MHZ_10;
+            case 15_000 -> LteBandwidth.MHZ_15;
+            case 20_000 -> LteBandwidth.MHZ_20;
+            default -> null;
+        };
+        if (lteBandwidth != null) dataBuilder.setLteBandwidth(lteBandwidth);
+
+        final LteRecord.Builder recordBuilder = LteRecord.newBuilder();
+        recordBuilder.setMessageType(LteMessageConstants.LTE_RECORD_MESSAGE_TYPE);
+        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
+        recordBuilder.setData(dataBuilder);
+
+        return recordBuilder.build();
+    }
+
+    /**
+     * Builds an NR record. The NRARFCN and PCI must have passed {@link #validateNrFields}. Every int value is
+     * {@link #UNSET} (the same as Android's {@code CellInfo.UNAVAILABLE}) when it is not known.
+     *
+     * @param dataBuilder         The data builder, with the location fields already set.
+     * @param provider            The carrier name, or null if it is not known.
+     * @param nci                 The NR cell identity, or {@link #UNSET_LONG} if it is not known.
+     * @param timingAdvanceMicros The timing advance in microseconds.
+     * @param slot                The subscription ID, or {@link #UNSET} if it is not a specific subscription.
+     * @return The survey record.
+     */
+    public static NrRecord buildNrRecord(NrRecordData.Builder dataBuilder, String deviceId, String missionId,
+                                         RecordTimestamp timestamp, int recordNumber, int groupNumber,
+                                         boolean servingCell, CharSequence provider, int mcc, int mnc, int tac,
+                                         long nci, int nrarfcn, int pci, int ssRsrp, int ssRsrq, int ssSinr,
+                                         int csiRsrp, int csiRsrq, int csiSinr, int timingAdvanceMicros, int slot)
+    {
+        dataBuilder.setDeviceSerialNumber(deviceId);
+        dataBuilder.setDeviceTime(timestamp.rfc3339);
+        dataBuilder.setMissionId(missionId);
+        dataBuilder.setRecordNumber(recordNumber);
+        dataBuilder.setGroupNumber(groupNumber);
+        dataBuilder.setServingCell(BoolValue.newBuilder().setValue(servingCell).build());
+        if (provider != null) dataBuilder.setProvider(provider.toString());
+
+        // vals from CellIdentity
+        if (mcc != UNSET)
+        {
+            dataBuilder.setMcc(Int32Value.newBuilder().setValue(mcc).build());
+        }
+        if (mnc != UNSET)
+        {
+            dataBuilder.setMnc(Int32Value.newBuilder().setValue(mnc).build());
+        }
+        if (tac != UNSET)
+        {
+            dataBuilder.setTac(Int32Value.newBuilder().setValue(tac).build());
+        }
+        if (nci != UNSET_LONG)
+        {
+            dataBuilder.setNci(Int64Value.newBuilder().setValue(nci).build());
+        }
+        if (nrarfcn != UNSET)
+        {
+            dataBuilder.setNarfcn(Int32Value.newBuilder().setValue(nrarfcn).build());
+        }
+        if (pci != UNSET)
+        {
+            dataBuilder.setPci(Int32Value.newBuilder().setValue(pci).build());
+        }
+
+        // vals from CellSignalStrength
+        if (ssRsrp != UNSET)
+        {
+            dataBuilder.setSsRsrp(FloatValue.newBuilder().setValue(ssRsrp).build());
+        }
+        if (ssRsrq != UNSET)
+        {
+            dataBuilder.setSsRsrq(FloatValue.newBuilder().setValue(ssRsrq).build());
+        }
+        if (ssSinr != UNSET)
+        {
+            dataBuilder.setSsSinr(FloatValue.newBuilder().setValue(ssSinr).build());
+        }
+        if (csiRsrp != UNSET)
+        {
+            dataBuilder.setCsiRsrp(FloatValue.newBuilder().setValue(csiRsrp).build());
+        }
+        if (csiRsrq != UNSET)
+        {
+            dataBuilder.setCsiRsrq(FloatValue.newBuilder().setValue(csiRsrq).build());
+        }
+        if (csiSinr != UNSET)
+        {
+            dataBuilder.setCsiSinr(FloatValue.newBuilder().setValue(csiSinr).build());
+        }
+        if (timingAdvanceMicros != UNSET)
+        {
+            dataBuilder.setTa(Int32Value.newBuilder().setValue(timingAdvanceMicros).build());
+        }
+        if (slot != UNSET)
+        {
+            dataBuilder.setSlot(Int32Value.newBuilder().setValue(slot).build());
+        }
+
+        final NrRecord.Builder recordBuilder = NrRecord.newBuilder();
+        recordBuilder.setMessageType(NrMessageConstants.NR_RECORD_MESSAGE_TYPE);
+        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
+        recordBuilder.setData(dataBuilder);
+
+        return recordBuilder.build();
+    }
+
+    /**
+     * Builds a Wi-Fi beacon record by setting the dynamic fields on a copy of the cached static fields for
+     * the AP.
+     *
+     * @param dataBuilder A builder from the {@link WifiStaticFieldsCache.StaticFields#template}, with the
+     *                    location fields already set.
+     * @return The survey record.
+     */
+    public static WifiBeaconRecord buildWifiBeaconRecord(WifiBeaconRecordData.Builder dataBuilder, String deviceId,
+                                                         String missionId, RecordTimestamp timestamp,
+                                                         int recordNumber, int signalStrength)
+    {
+        dataBuilder.setDeviceSerialNumber(deviceId);
+        dataBuilder.setDeviceTime(timestamp.rfc3339);
+        dataBuilder.setMissionId(missionId);
+        dataBuilder.setRecordNumber(recordNumber);
+
+        dataBuilder.setSignalStrength(FloatValue.newBuilder().setValue(signalStrength).build());
+
+        final WifiBeaconRecord.Builder recordBuilder = WifiBeaconRecord.newBuilder();
+        recordBuilder.setMessageType(WifiBeaconMessageConstants.WIFI_BEACON_RECORD_MESSAGE_TYPE);
+        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
+        recordBuilder.setData(dataBuilder);
+
+        return recordBuilder.build();
+    }
+}
@@ -9,7 +9,6 @@ import android.bluetooth.BluetoothClass;
 import android.bluetooth.BluetoothDevice;
 import android.bluetooth.le.ScanRecord;
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.location.GnssAutomaticGainControl;
 import android.location.GnssMeasurement;
@@ -21,7 +20,6 @@ import android.os.Build;
 import android.os.CancellationSignal;
 import android.os.ParcelUuid;
 import android.os.SystemClock;
-import android.preference.PreferenceManager;
 import android.telephony.CellIdentity;
 import android.telephony.CellIdentityCdma;
 import android.telephony.CellIdentityGsm;
@@ -48,6 +46,7 @@ import android.util.SparseArray;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.RequiresApi;
+import androidx.annotation.VisibleForTesting;
 import androidx.core.app.ActivityCompat;
 
 import com.craxiom.messaging.BluetoothRecord;
@@ -59,7 +58,6 @@ import com.craxiom.messaging.GnssRecord;
 import com.craxiom.messaging.GnssRecordData;
 import com.craxiom.messaging.GsmRecord;
 import com.craxiom.messaging.GsmRecordData;
-import com.craxiom.messaging.LteBandwidth;
 import com.craxiom.messaging.LteRecord;
 import com.craxiom.messaging.LteRecordData;
 import com.craxiom.messaging.NrRecord;
@@ -75,22 +73,15 @@ import com.craxiom.messaging.gnss.Constellation;
 import com.craxiom.messaging.phonestate.Domain;
 import com.craxiom.messaging.phonestate.NetworkType;
 import com.craxiom.messaging.phonestate.SimState;
-import com.craxiom.messaging.wifi.EncryptionType;
-import com.craxiom.messaging.wifi.Standard;
-import com.craxiom.messaging.wifi.WifiBandwidth;
 import com.craxiom.networksurvey.BuildConfig;
 import com.craxiom.networksurvey.GpsListener;
 import com.craxiom.networksurvey.NetworkSurveyActivity;
+import com.craxiom.networksurvey.cellconflict.CellConflictMonitor;
 import com.craxiom.networksurvey.constants.BluetoothMessageConstants;
-import com.craxiom.networksurvey.constants.CdmaMessageConstants;
 import com.craxiom.networksurvey.constants.DeviceStatusMessageConstants;
 import com.craxiom.networksurvey.constants.GnssMessageConstants;
-import com.craxiom.networksurvey.constants.GsmMessageConstants;
-import com.craxiom.networksurvey.constants.LteMessageConstants;
 import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
-import com.craxiom.networksurvey.constants.NrMessageConstants;
-import com.craxiom.networksurvey.constants.UmtsMessageConstants;
-import com.craxiom.networksurvey.constants.WifiBeaconMessageConstants;
+import com.craxiom.networksurvey.coverage.CoverageRecorder;
 import com.craxiom.networksurvey.data.SsidExclusionManager;
 import com.craxiom.networksurvey.listeners.IBluetoothSurveyRecordListener;
 import com.craxiom.networksurvey.listeners.ICdrEventListener;
@@ -99,12 +90,15 @@ import com.craxiom.networksurvey.listeners.IDeviceStatusListener;
 import com.craxiom.networksurvey.listeners.IGnssSurveyRecordListener;
 import com.craxiom.networksurvey.listeners.IWifiSurveyRecordListener;
 import com.craxiom.networksurvey.logging.db.DbUploadStore;
+import com.craxiom.networksurvey.metrics.PipelineMetrics;
 import com.craxiom.networksurvey.model.CdrEvent;
 import com.craxiom.networksurvey.model.CdrEventType;
 import com.craxiom.networksurvey.model.CellularProtocol;
 import com.craxiom.networksurvey.model.CellularRecordWrapper;
 import com.craxiom.networksurvey.model.ConstellationFreqKey;
 import com.craxiom.networksurvey.model.NrRecordWrapper;
+import com.craxiom.networksurvey.model.ServingCellSnapshot;
+import com.craxiom.networksurvey.model.SurveySettingsSnapshot;
 import com.craxiom.networksurvey.model.WifiRecordWrapper;
 import com.craxiom.networksurvey.services.controller.CellularController;
 import com.craxiom.networksurvey.ui.activesurvey.NewTowerNotificationHelper;
@@ -113,28 +107,31 @@ import com.craxiom.networksurvey.util.CellularUtils;
 import com.craxiom.networksurvey.util.FormatUtils;
 import com.craxiom.networksurvey.util.LocationUtils;
 import com.craxiom.networksurvey.util.MathUtils;
-import com.craxiom.networksurvey.util.NsUtils;
 import com.craxiom.networksurvey.util.ParserUtils;
 import com.craxiom.networksurvey.util.PreferenceUtils;
-import com.craxiom.networksurvey.util.WifiUtils;
+import com.craxiom.networksurvey.util.RecordTimestamp;
+import com.craxiom.networksurvey.wifichannel.WifiBssSample;
+import com.craxiom.networksurvey.wifichannel.WifiChannelAnalyzer;
+import com.craxiom.networksurvey.wifichannel.WifiChannelReport;
 import com.google.common.base.Strings;
 import com.google.protobuf.BoolValue;
 import com.google.protobuf.FloatValue;
 import com.google.protobuf.GeneratedMessage;
 import com.google.protobuf.Int32Value;
-import com.google.protobuf.Int64Value;
+import com.google.protobuf.Struct;
 import com.google.protobuf.UInt32Value;
 import com.google.protobuf.UInt64Value;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.Timer;
@@ -142,6 +139,7 @@ import java.util.TimerTask;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 import timber.log.Timber;
@@ -171,7 +169,6 @@ public class SurveyRecordProcessor
      */
     private static final long MAX_CELL_INFO_AGE_NS = 60_000_000_000L; // 60 seconds in nanoseconds
 
-    private final Object cellInfoProcessingLock = new Object();
     private final Object activityUpdateLock = new Object();
 
     private final GpsListener gpsListener;
@@ -191,11 +188,19 @@ public class SurveyRecordProcessor
     private final Context context;
     private NetworkSurveyService networkSurveyService;
     private final SsidExclusionManager ssidExclusionManager;
+    private final WifiStaticFieldsCache wifiStaticFieldsCache = new WifiStaticFieldsCache();
+    private final WifiChannelAnalyzer wifiChannelAnalyzer = new WifiChannelAnalyzer();
+    /**
+     * The last channel report that was logged, so only the scans that change a recommendation are logged. Only
+     * accessed from the executor that processes the Wi-Fi scans.
+     */
+    private WifiChannelReport loggedWifiChannelReport;
     private final TowerDetectionJavaWrapper towerDetectionWrapper;
-    private String lastServingCellKey = null;
-
-    private int recordNumber = 1;
-    private int groupNumber = 0; // This will be incremented to 1 the first time it is used.
+    private final CellConflictMonitor cellConflictMonitor;
+    private final CoverageRecorder coverageRecorder;
+    private final CellularProcessingLanes cellularLanes = new CellularProcessingLanes();
+    private final Map<String, LongSupplier> unchangedCellGauges = new LinkedHashMap<>();
+    private volatile SurveySettingsSnapshot settings;
 
     private int wifiRecordNumber = 1;
     private int bluetoothRecordNumber = 1;
@@ -220,6 +225,21 @@ public class SurveyRecordProcessor
      * @param context     The context that is used to get the app's default shared preferences.
      */
     SurveyRecordProcessor(GpsListener gpsListener, String deviceId, Context context, ExecutorService executorService)
+    {
+        this(gpsListener, deviceId, context, executorService, new SsidExclusionManager(context),
+                new TowerDetectionJavaWrapper(context), new CellConflictMonitor(context), new CoverageRecorder(context));
+    }
+
+    /**
+     * Creates a new processor with the provided collaborators, so that the tests can replace the ones that are backed
+     * by a database.
+     *
+     * @since 1.43
+     */
+    @VisibleForTesting
+    SurveyRecordProcessor(GpsListener gpsListener, String deviceId, Context context, ExecutorService executorService,
+                          SsidExclusionManager ssidExclusionManager, TowerDetectionJavaWrapper towerDetectionWrapper,
+                          CellConflictMonitor cellConflictMonitor, CoverageRecorder coverageRecorder)
     {
         this.gpsListener = gpsListener;
         this.deviceId = deviceId;
@@ -231,8 +251,67 @@ public class SurveyRecordProcessor
         gnssScanRateMs = PreferenceUtils.getScanRatePreferenceMs(NetworkSurveyConstants.PROPERTY_GNSS_SCAN_INTERVAL_SECONDS,
                 NetworkSurveyConstants.DEFAULT_GNSS_SCAN_INTERVAL_SECONDS, context);
 
-        ssidExclusionManager = new SsidExclusionManager(context);
-        towerDetectionWrapper = new TowerDetectionJavaWrapper(context);
+        this.ssidExclusionManager = ssidExclusionManager;
+        this.towerDetectionWrapper = towerDetectionWrapper;
+        this.cellConflictMonitor = cellConflictMonitor;
+        this.coverageRecorder = coverageRecorder;
+
+        refreshSettings();
+        ssidExclusionManager.setOnExclusionsChangedListener(this::refreshSettings);
+
+        registerUnchangedCellGauges();
+    }
+
+    /**
+     * Releases the resources held by this processor. Must be called when the survey service is destroyed.
+     *
+     * @since 1.43
+     */
+    public void onDestroy()
+    {
+        unchangedCellGauges.forEach(PipelineMetrics.REGISTRY::unregisterGauge);
+        unchangedCellGauges.clear();
+        coverageRecorder.shutdown();
+        cellConflictMonitor.shutdown();
+    }
+
+    /**
+     * Writes any pending coverage map updates to the database. Call this when the scans stop so that the updates are
+     * not held in memory until the next scan.
+     *
+     * @since 1.43
+     */
+    public void flushCoverage()
+    {
+        coverageRecorder.flush();
+    }
+
+    /**
+     * Rebuilds the settings snapshot from the current preferences, MDM restrictions and SSID exclusion
+     * list, and publishes it to the hot paths. This should be called any time one of those changes.
+     *
+     * @since 1.43
+     */
+    synchronized void refreshSettings()
+    {
+        final SurveySettingsSnapshot previous = settings;
+        settings = SurveySettingsSnapshot.create(context, ssidExclusionManager.getMatcher());
+        Timber.d("Published survey settings snapshot version %d", settings.version);
+
+        // The neighbor graphs would be stale by the time the detection is turned back on
+        if (previous != null && previous.cellConflictDetectionEnabled && !settings.cellConflictDetectionEnabled)
+        {
+            cellConflictMonitor.reset();
+        }
+    }
+
+    /**
+     * @return The most recently published settings snapshot.
+     * @since 1.43
+     */
+    public SurveySettingsSnapshot getSettings()
+    {
+        return settings;
     }
 
     /**
@@ -255,6 +334,59 @@ public class SurveyRecordProcessor
         return ssidExclusionManager;
     }
 
+    /**
+     * @return The mission ID that is set on all the records produced by this processor.
+     * @since 1.43
+     */
+    String getMissionId()
+    {
+        return missionId;
+    }
+
+    /**
+     * @return The identity and signal values of the serving cell from the most recent cellular scan,
+     * or null if a serving cell has not been seen yet.
+     * @since 1.43
+     */
+    public ServingCellSnapshot getLatestServingCell()
+    {
+        return cellularLanes.getLatestServingCell();
+    }
+
+    /**
+     * @param subscriptionId The subscription ID (aka SIM ID) to get the serving cell for.
+     * @return The identity and signal values of the serving cell from the most recent cellular scan
+     * for the subscription, or null if a serving cell has not been seen yet for the subscription.
+     * @since 1.43
+     */
+    public ServingCellSnapshot getLatestServingCell(int subscriptionId)
+    {
+        return cellularLanes.getLatestServingCell(subscriptionId);
+    }
+
+    /**
+     * Registers a gauge with the pipeline metrics for the number of cellular records that were sent to the record
+     * listeners, and the number that were suppressed because the cell had not changed, for each technology.
+     *
+     * @since 1.43
+     */
+    private void registerUnchangedCellGauges()
+    {
+        final UnchangedCellSuppressor.Counters counters = cellularLanes.getSuppressionCounters();
+        for (CellularProtocol protocol : CellularProtocol.values())
+        {
+            if (protocol == CellularProtocol.NONE) continue;
+
+            final String technology = protocol.name().toLowerCase(Locale.ROOT);
+            unchangedCellGauges.put(PipelineMetrics.UNCHANGED_CELL_EMITTED_PREFIX + technology,
+                    () -> counters.getEmittedCount(protocol));
+            unchangedCellGauges.put(PipelineMetrics.UNCHANGED_CELL_SUPPRESSED_PREFIX + technology,
+                    () -> counters.getSuppressedCount(protocol));
+        }
+
+        unchangedCellGauges.forEach(PipelineMetrics.REGISTRY::registerGauge);
+    }
+
     void registerCellularSurveyRecordListener(ICellularSurveyRecordListener surveyRecordListener)
     {
         cellularSurveyRecordListeners.add(surveyRecordListener);
@@ -492,39 +624,112 @@ public class SurveyRecordProcessor
                                  int subscriptionId, String networkOperatorName, SignalStrength signalStrength,
                                  String overrideNetworkType) throws SecurityException
     {
-        // synchronized to make sure that we are only processing one list of Cell Info objects at a time.
-        synchronized (cellInfoProcessingLock)
-        {
+        // Each subscription has its own lane so that we only process one list of Cell Info objects at a time per SIM,
+        // but the SIMs on a multi-SIM device don't have to wait on each other. The lane also assigns the group number
+        // so that all the records found in this scan iteration are grouped together.
+        cellularLanes.runInLane(subscriptionId, lane -> {
             try
             {
                 notifyNetworkTypeListeners(dataNetworkType, voiceNetworkType, subscriptionId, overrideNetworkType);
 
                 if (allCellInfo != null && !allCellInfo.isEmpty())
                 {
-                    groupNumber++; // Group all the records found in this scan iteration.
                     final List<CellularRecordWrapper> cellularRecords = new ArrayList<>(allCellInfo.size());
+                    // All the records in this scan share one timestamp so it is only formatted once
+                    final RecordTimestamp timestamp = RecordTimestamp.now();
+                    final SurveySettingsSnapshot currentSettings = settings;
+                    lane.getUnchangedCellSuppressor().startScan(currentSettings.suppressUnchangedCells,
+                            currentSettings.unchangedCellHeartbeatScans);
 
                     for (CellInfo cellInfo : allCellInfo)
                     {
-                        final CellularRecordWrapper cellularRecord = processCellInfo(cellInfo, subscriptionId, networkOperatorName, signalStrength);
+                        final CellularRecordWrapper cellularRecord = processCellInfo(cellInfo, lane, networkOperatorName, signalStrength, timestamp);
                         if (cellularRecord != null) cellularRecords.add(cellularRecord);
                     }
 
                     // processCellInfo notifies listeners of the individual records, but we also
                     // want to notify the batch listeners (eg. the UI) of the entire batch.
-                    notifyCellularListeners(cellularRecords, subscriptionId);
+                    notifyCellularListeners(cellularRecords, lane);
                 } else
                 {
-                    notifyCellularListeners(Collections.emptyList(), subscriptionId);
+                    notifyCellularListeners(Collections.emptyList(), lane);
                 }
             } catch (Exception e)
             {
                 Timber.e(e, "Unable to display and log Survey Record(s)");
-                notifyCellularListeners(Collections.emptyList(), subscriptionId);
+                notifyCellularListeners(Collections.emptyList(), lane);
             }
+        });
+    }
+
+    /**
+     * Sends a scan of cellular records that were already generated (e.g. from a recorded survey) through the same
+     * steps as the records generated in {@link #onCellInfoUpdate}: the unchanged cell suppression, the per record
+     * listeners, and then the batch listeners, the serving cell tracking, and the new tower and cell conflict checks.
+     * The records keep the record and group numbers they were recorded with.
+     *
+     * @param cellularRecords The records from a single scan.
+     * @param subscriptionId  The subscription ID (aka SIM ID) that the records were recorded on.
+     * @since 1.43
+     */
+    @VisibleForTesting
+    void onCellularRecords(List<CellularRecordWrapper> cellularRecords, int subscriptionId)
+    {
+        cellularLanes.runInLane(subscriptionId, lane -> {
+            final SurveySettingsSnapshot currentSettings = settings;
+            lane.getUnchangedCellSuppressor().startScan(currentSettings.suppressUnchangedCells,
+                    currentSettings.unchangedCellHeartbeatScans);
+
+            for (CellularRecordWrapper cellularRecord : cellularRecords)
+            {
+                if (shouldNotifyRecord(cellularRecord, lane)) notifyCellularRecordListeners(cellularRecord);
+            }
+
+            notifyCellularListeners(cellularRecords, lane);
+        });
+    }
+
+    /**
+     * Sends a scan of 802.11 beacon records that were already generated (e.g. from a recorded survey) to the Wi-Fi
+     * listeners, the same as the records generated from a Wi-Fi scan.
+     *
+     * @since 1.43
+     */
+    @VisibleForTesting
+    void onWifiBeaconRecords(List<WifiRecordWrapper> wifiBeaconRecords)
+    {
+        notifyWifiBeaconRecordListeners(wifiBeaconRecords);
+    }
+
+    /**
+     * Sends Bluetooth records that were already generated (e.g. from a recorded survey) to the Bluetooth listeners.
+     * A single record is sent the same way as a single scan result, and more than one as a batch.
+     *
+     * @since 1.43
+     */
+    @VisibleForTesting
+    void onBluetoothRecords(List<BluetoothRecord> bluetoothRecords)
+    {
+        if (bluetoothRecords.size() == 1)
+        {
+            notifyBluetoothRecordListeners(bluetoothRecords.get(0));
+        } else
+        {
+            notifyBluetoothRecordListeners(bluetoothRecords);
         }
     }
 
+    /**
+     * Sends a GNSS record that was already generated (e.g. from a recorded survey) to the GNSS listeners.
+     *
+     * @since 1.43
+     */
+    @VisibleForTesting
+    void onGnssRecord(GnssRecord gnssRecord)
+    {
+        notifyGnssRecordListeners(gnssRecord);
+    }
+
     /**
      * Notification for when a new set of Wi-Fi scan results are available to process.
      *
@@ -592,6 +797,17 @@ public class SurveyRecordProcessor
         execute(() -> notifyDeviceStatusListeners(deviceStatus));
     }
 
+    /**
+     * Notification for when the latest pipeline metrics message is available to process.
+     *
+     * @param pipelineMetrics The latest pipeline metrics message.
+     * @since 1.43
+     */
+    void onPipelineMetrics(Struct pipelineMetrics)
+    {
+        execute(() -> notifyPipelineMetricsListeners(pipelineMetrics));
+    }
+
     /**
      * Notification that the cellular service state has changed.
      *
@@ -715,8 +931,7 @@ public class SurveyRecordProcessor
                                                ServiceState serviceState, Consumer<PhoneStateData.Builder> networkRegistrationInfoFunction)
     {
         final PhoneStateData.Builder dataBuilder = PhoneStateData.newBuilder();
-        final ZonedDateTime deviceTime = ZonedDateTime.now();
-        final long elapsedTimeMillis = SystemClock.elapsedRealtime();
+        final RecordTimestamp timestamp = RecordTimestamp.now();
 
         if (gpsListener != null)
         {
@@ -730,7 +945,7 @@ public class SurveyRecordProcessor
 
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU)
                 {
-                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(elapsedTimeMillis);
+                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(timestamp.elapsedRealtimeMillis);
                     dataBuilder.setLocationAge((int) elapsedRealtimeAgeMillis);
                 }
 
@@ -746,7 +961,7 @@ public class SurveyRecordProcessor
         }
 
         dataBuilder.setDeviceSerialNumber(deviceId);
-        dataBuilder.setDeviceTime(NsUtils.getRfc3339String(deviceTime));
+        dataBuilder.setDeviceTime(timestamp.rfc3339);
 
         dataBuilder.setMissionId(missionId);
         dataBuilder.setRecordNumber(phoneStateRecordNumber++);
@@ -790,12 +1005,15 @@ public class SurveyRecordProcessor
      * Given a {@link CellInfo} record, convert it to the appropriate ProtoBuf defined message.  Then, notify any
      * listeners so it can be written to a log file and/or sent to any servers if those services are enabled.
      *
-     * @param cellInfo       The Cell Info object with the details.
-     * @param subscriptionId The subscription ID (aka SIM ID) associated with the cell info record.
+     * @param cellInfo  The Cell Info object with the details.
+     * @param lane      The processing lane for the subscription (aka SIM) associated with the cell info record.
+     * @param timestamp The clock snapshot for the scan that the cell info record is from.
      * @since 0.0.5
      */
-    private CellularRecordWrapper processCellInfo(CellInfo cellInfo, int subscriptionId, String networkOperatorName, SignalStrength signalStrength)
+    private CellularRecordWrapper processCellInfo(CellInfo cellInfo, CellularProcessingLanes.Lane lane, String networkOperatorName,
+                                                  SignalStrength signalStrength, RecordTimestamp timestamp)
     {
+        final int subscriptionId = lane.getSubscriptionId();
         // We only want to take the time to process a record if we are going to do something with it.  Currently, that
         // means logging, sending to a server, or updating the UI with the latest LTE information.
         if (!cellularSurveyRecordListeners.isEmpty())
@@ -810,47 +1028,49 @@ public class SurveyRecordProcessor
             }
 
             final String carrierName = getCarrierName(cellInfo, networkOperatorName);
-            final ZonedDateTime deviceTime = ZonedDateTime.now();
-            final long elapsedTimeMillis = SystemClock.elapsedRealtime();
 
             if (cellInfo instanceof CellInfoLte)
             {
-                final LteRecord lteSurveyRecord = generateLteSurveyRecord((CellInfoLte) cellInfo, subscriptionId, carrierName, signalStrength, deviceTime, elapsedTimeMillis);
+                final LteRecord lteSurveyRecord = generateLteSurveyRecord((CellInfoLte) cellInfo, lane, carrierName, signalStrength, timestamp);
                 if (lteSurveyRecord != null)
                 {
-                    notifyLteRecordListeners(lteSurveyRecord);
-                    return new CellularRecordWrapper(CellularProtocol.LTE, lteSurveyRecord);
+                    final CellularRecordWrapper recordWrapper = new CellularRecordWrapper(CellularProtocol.LTE, lteSurveyRecord, timestamp.epochMillis);
+                    if (shouldNotifyRecord(recordWrapper, lane)) notifyCellularRecordListeners(recordWrapper);
+                    return recordWrapper;
                 }
             } else if (cellInfo instanceof CellInfoGsm)
             {
-                final GsmRecord gsmRecord = generateGsmSurveyRecord((CellInfoGsm) cellInfo, subscriptionId, carrierName, deviceTime, elapsedTimeMillis);
+                final GsmRecord gsmRecord = generateGsmSurveyRecord((CellInfoGsm) cellInfo, lane, carrierName, timestamp);
                 if (gsmRecord != null)
                 {
-                    notifyGsmRecordListeners(gsmRecord);
-                    return new CellularRecordWrapper(CellularProtocol.GSM, gsmRecord);
+                    final CellularRecordWrapper recordWrapper = new CellularRecordWrapper(CellularProtocol.GSM, gsmRecord, timestamp.epochMillis);
+                    if (shouldNotifyRecord(recordWrapper, lane)) notifyCellularRecordListeners(recordWrapper);
+                    return recordWrapper;
                 }
             } else if (cellInfo instanceof CellInfoCdma)
             {
-                final CdmaRecord cdmaRecord = generateCdmaSurveyRecord((CellInfoCdma) cellInfo, subscriptionId, carrierName, deviceTime, elapsedTimeMillis);
+                final CdmaRecord cdmaRecord = generateCdmaSurveyRecord((CellInfoCdma) cellInfo, lane, carrierName, timestamp);
                 if (cdmaRecord != null)
                 {
-                    notifyCdmaRecordListeners(cdmaRecord);
-                    return new CellularRecordWrapper(CellularProtocol.CDMA, cdmaRecord);
+                    final CellularRecordWrapper recordWrapper = new CellularRecordWrapper(CellularProtocol.CDMA, cdmaRecord, timestamp.epochMillis);
+                    if (shouldNotifyRecord(recordWrapper, lane)) notifyCellularRecordListeners(recordWrapper);
+                    return recordWrapper;
                 }
             } else if (cellInfo instanceof CellInfoWcdma)
             {
-                final UmtsRecord umtsRecord = generateUmtsSurveyRecord((CellInfoWcdma) cellInfo, subscriptionId, carrierName, deviceTime, elapsedTimeMillis);
+                final UmtsRecord umtsRecord = generateUmtsSurveyRecord((CellInfoWcdma) cellInfo, lane, carrierName, timestamp);
                 if (umtsRecord != null)
                 {
-                    notifyUmtsRecordListeners(umtsRecord);
-                    return new CellularRecordWrapper(CellularProtocol.UMTS, umtsRecord);
+                    final CellularRecordWrapper recordWrapper = new CellularRecordWrapper(CellularProtocol.UMTS, umtsRecord, timestamp.epochMillis);
+                    if (shouldNotifyRecord(recordWrapper, lane)) notifyCellularRecordListeners(recordWrapper);
+                    return recordWrapper;
                 }
             } else if (android.os.Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && cellInfo instanceof CellInfoNr)
             {
-                final NrRecordWrapper nrRecordWrapper = generateNrSurveyRecord((CellInfoNr) cellInfo, subscriptionId, carrierName, deviceTime, elapsedTimeMillis);
+                final NrRecordWrapper nrRecordWrapper = generateNrSurveyRecord((CellInfoNr) cellInfo, lane, carrierName, timestamp);
                 if (nrRecordWrapper != null)
                 {
-                    notifyNrRecordListeners((NrRecord) nrRecordWrapper.cellularRecord);
+                    if (shouldNotifyRecord(nrRecordWrapper, lane)) notifyCellularRecordListeners(nrRecordWrapper);
                     return nrRecordWrapper;
                 }
             }
@@ -859,6 +1079,25 @@ public class SurveyRecordProcessor
         return null;
     }
 
+    /**
+     * Checks if the individual record listeners (e.g. the loggers and the MQTT and gRPC streams) should
+     * be notified of the record. If the unchanged cell suppression is enabled, a record for a cell that
+     * has not changed since it was last sent is only sent again once its heartbeat is due. The batch
+     * listeners are always notified of the full batch so the UI still shows every cell.
+     *
+     * @param cellularRecord The record to check.
+     * @param lane           The processing lane for the subscription the record is from.
+     * @return True if the listeners should be notified of the record.
+     * @since 1.43
+     */
+    private boolean shouldNotifyRecord(CellularRecordWrapper cellularRecord, CellularProcessingLanes.Lane lane)
+    {
+        final SurveySettingsSnapshot currentSettings = settings;
+        if (!currentSettings.suppressUnchangedCells) return true;
+
+        return lane.getUnchangedCellSuppressor().shouldEmit(cellularRecord, currentSettings.unchangedCellHeartbeatScans);
+    }
+
     /**
      * Tries to get the carrier name from the provided cellInfo object.  If the carrier name is not available from the
      * cellInfo object, then the provided network operator name is used.
@@ -891,12 +1130,49 @@ public class SurveyRecordProcessor
      */
     private void processAccessPoints(List<ScanResult> apScanResults)
     {
-        final ZonedDateTime deviceTime = ZonedDateTime.now();
-        final long elapsedTimeMillis = SystemClock.elapsedRealtime();
+        final RecordTimestamp timestamp = RecordTimestamp.now();
         final List<WifiRecordWrapper> wifiBeaconRecords = apScanResults.stream()
-                .map(apScanResult -> generateWiFiBeaconSurveyRecord(apScanResult, deviceTime, elapsedTimeMillis))
+                .map(apScanResult -> generateWiFiBeaconSurveyRecord(apScanResult, timestamp))
                 .collect(Collectors.toList());
         notifyWifiBeaconRecordListeners(wifiBeaconRecords);
+
+        analyzeWifiChannels(apScanResults);
+    }
+
+    /**
+     * Updates the channel congestion with the scan and sends the result to the Wi-Fi listeners. All the APs are
+     * counted, including the ones with excluded SSIDs, since they still use the channel.
+     *
+     * @param apScanResults The list of results coming from the Android wifi scanning API.
+     * @since 1.43
+     */
+    private void analyzeWifiChannels(List<ScanResult> apScanResults)
+    {
+        if (apScanResults == null || apScanResults.isEmpty()) return;
+
+        final List<WifiBssSample> samples = new ArrayList<>(apScanResults.size());
+        for (ScanResult apScanResult : apScanResults)
+        {
+            samples.add(WifiBssSample.fromScanResult(apScanResult));
+        }
+        final WifiChannelReport report = wifiChannelAnalyzer.onScan(samples, System.currentTimeMillis());
+        if (!report.hasSameRecommendations(loggedWifiChannelReport))
+        {
+            // Formatting the whole report on every scan is too much for the scan path, so only log the changes
+            loggedWifiChannelReport = report;
+            Timber.d("Wi-Fi channel congestion: %s", report);
+        }
+
+        for (IWifiSurveyRecordListener listener : wifiSurveyRecordListeners)
+        {
+            try
+            {
+                listener.onWifiChannelReport(report);
+            } catch (Exception e)
+            {
+                Timber.e(e, "Unable to notify a Wi-Fi Survey Record Listener of the channel report");
+            }
+        }
     }
 
     /**
@@ -908,7 +1184,7 @@ public class SurveyRecordProcessor
      */
     private void processBluetoothClassicResult(BluetoothDevice device, int rssi)
     {
-        BluetoothRecord bluetoothRecord = generateBluetoothSurveyRecord(null, device, rssi, UNSET_TX_POWER_LEVEL, ZonedDateTime.now(), SystemClock.elapsedRealtime());
+        BluetoothRecord bluetoothRecord = generateBluetoothSurveyRecord(null, device, rssi, UNSET_TX_POWER_LEVEL, RecordTimestamp.now());
         if (bluetoothRecord != null)
         {
             notifyBluetoothRecordListeners(bluetoothRecord);
@@ -923,7 +1199,7 @@ public class SurveyRecordProcessor
      */
     private void processBluetoothResult(android.bluetooth.le.ScanResult result)
     {
-        BluetoothRecord bluetoothRecord = generateBluetoothSurveyRecord(result, ZonedDateTime.now(), SystemClock.elapsedRealtime());
+        BluetoothRecord bluetoothRecord = generateBluetoothSurveyRecord(result, RecordTimestamp.now());
         if (bluetoothRecord != null)
         {
             notifyBluetoothRecordListeners(bluetoothRecord);
@@ -938,12 +1214,11 @@ public class SurveyRecordProcessor
      */
     private void processBluetoothResults(List<android.bluetooth.le.ScanResult> results)
     {
-        final ZonedDateTime deviceTime = ZonedDateTime.now();
-        final long elapsedTimeMillis = SystemClock.elapsedRealtime();
+        final RecordTimestamp timestamp = RecordTimestamp.now();
         final List<BluetoothRecord> bluetoothRecords = new ArrayList<>();
         for (android.bluetooth.le.ScanResult scanResult : results)
         {
-            BluetoothRecord bluetoothRecord = generateBluetoothSurveyRecord(scanResult, deviceTime, elapsedTimeMillis);
+            BluetoothRecord bluetoothRecord = generateBluetoothSurveyRecord(scanResult, timestamp);
             if (bluetoothRecord != null)
             {
                 bluetoothRecords.add(bluetoothRecord);
@@ -988,11 +1263,10 @@ public class SurveyRecordProcessor
 
         gnssGroupNumber++; // Group all the records found in this scan iteration.
 
-        final ZonedDateTime deviceTime = ZonedDateTime.now();
-        final long elapsedTimeMillis = SystemClock.elapsedRealtime();
+        final RecordTimestamp timestamp = RecordTimestamp.now();
         for (final GnssMeasurement gnssMeasurement : gnssMeasurements)
         {
-            final GnssRecord gnssRecord = generateGnssSurveyRecord(gnssMeasurement, agcMap, deviceTime, elapsedTimeMillis);
+            final GnssRecord gnssRecord = generateGnssSurveyRecord(gnssMeasurement, agcMap, timestamp);
             notifyGnssRecordListeners(gnssRecord);
         }
     }
@@ -1051,8 +1325,9 @@ public class SurveyRecordProcessor
      * @param cellInfoGsm The object that contains the GSM Cell info.  This can be a serving cell or a neighbor cell.
      * @return The survey record.
      */
-    private GsmRecord generateGsmSurveyRecord(CellInfoGsm cellInfoGsm, int subscriptionId, String carrierName, ZonedDateTime deviceTime, long elapsedTimeMillis)
+    private GsmRecord generateGsmSurveyRecord(CellInfoGsm cellInfoGsm, CellularProcessingLanes.Lane lane, String carrierName, RecordTimestamp timestamp)
     {
+        final int subscriptionId = lane.getSubscriptionId();
         final CellIdentityGsm cellIdentity = cellInfoGsm.getCellIdentity();
         final int mcc = cellIdentity.getMcc();
         final int mnc = cellIdentity.getMnc();
@@ -1075,7 +1350,7 @@ public class SurveyRecordProcessor
         final int timingAdvance = cellSignalStrength.getTimingAdvance();
 
         // Validate that the required fields are present before proceeding further
-        if (!validateGsmFields(arfcn, bsic, signalStrength)) return null;
+        if (!SurveyRecordBuilder.validateGsmFields(arfcn, bsic, signalStrength)) return null;
 
         final GsmRecordData.Builder dataBuilder = GsmRecordData.newBuilder();
 
@@ -1091,7 +1366,7 @@ public class SurveyRecordProcessor
 
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU)
                 {
-                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(elapsedTimeMillis);
+                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(timestamp.elapsedRealtimeMillis);
                     dataBuilder.setLocationAge((int) elapsedRealtimeAgeMillis);
                 }
 
@@ -1106,53 +1381,9 @@ public class SurveyRecordProcessor
             }
         }
 
-        dataBuilder.setDeviceSerialNumber(deviceId);
-        dataBuilder.setDeviceTime(NsUtils.getRfc3339String(deviceTime));
-        dataBuilder.setMissionId(missionId);
-        dataBuilder.setRecordNumber(recordNumber++);
-        dataBuilder.setGroupNumber(groupNumber);
-        dataBuilder.setServingCell(BoolValue.newBuilder().setValue(cellInfoGsm.isRegistered()).build());
-        if (provider != null) dataBuilder.setProvider(provider.toString());
-
-        // Even though the Android Javadocs indicate that an unset value is represented by Integer.MAX_VALUE, I found that a -1 is sometimes used for TA and CID.
-        // I also found that 0 is used as unset for MCC, MNC, LAC, ARFCN, and BSIC.
-
-        if (mcc != Integer.MAX_VALUE && mcc != 0)
-        {
-            dataBuilder.setMcc(Int32Value.newBuilder().setValue(mcc).build());
-        }
-        if (mnc != Integer.MAX_VALUE && mnc != 0)
-        {
-            dataBuilder.setMnc(Int32Value.newBuilder().setValue(mnc).build());
-        }
-        if (lac != Integer.MAX_VALUE && lac != 0)
-        {
-            dataBuilder.setLac(Int32Value.newBuilder().setValue(lac).build());
-        }
-        if (cid != Integer.MAX_VALUE && cid != -1)
-        {
-            dataBuilder.setCi(Int32Value.newBuilder().setValue(cid).build());
-        }
-        if (subscriptionId != SubscriptionManager.INVALID_SUBSCRIPTION_ID && subscriptionId != SubscriptionManager.DEFAULT_SUBSCRIPTION_ID)
-        {
-            dataBuilder.setSlot(Int32Value.newBuilder().setValue(subscriptionId).build());
-        }
-
-        dataBuilder.setArfcn(Int32Value.newBuilder().setValue(arfcn).build());
-        dataBuilder.setBsic(Int32Value.newBuilder().setValue(bsic).build());
-        dataBuilder.setSignalStrength(FloatValue.newBuilder().setValue(signalStrength).build());
-
-        if (timingAdvance != Integer.MAX_VALUE && timingAdvance != -1)
-        {
-            dataBuilder.setTa(Int32Value.newBuilder().setValue(timingAdvance).build());
-        }
-
-        final GsmRecord.Builder recordBuilder = GsmRecord.newBuilder();
-        recordBuilder.setMessageType(GsmMessageConstants.GSM_RECORD_MESSAGE_TYPE);
-        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
-        recordBuilder.setData(dataBuilder);
-
-        return recordBuilder.build();
+        return SurveyRecordBuilder.buildGsmRecord(dataBuilder, deviceId, missionId, timestamp,
+                lane.nextRecordNumber(), lane.getGroupNumber(), cellInfoGsm.isRegistered(), provider, mcc, mnc, lac,
+                cid, arfcn, bsic, signalStrength, timingAdvance, getSlot(subscriptionId));
     }
 
     /**
@@ -1161,8 +1392,9 @@ public class SurveyRecordProcessor
      * @param cellInfoCdma The object that contains the GSM Cell info.  This can be a serving cell or a neighbor cell.
      * @return The survey record.
      */
-    private CdmaRecord generateCdmaSurveyRecord(CellInfoCdma cellInfoCdma, int subscriptionId, String carrierName, ZonedDateTime deviceTime, long elapsedTimeMillis)
+    private CdmaRecord generateCdmaSurveyRecord(CellInfoCdma cellInfoCdma, CellularProcessingLanes.Lane lane, String carrierName, RecordTimestamp timestamp)
     {
+        final int subscriptionId = lane.getSubscriptionId();
         final CellIdentityCdma cellIdentity = cellInfoCdma.getCellIdentity();
         final int sid = cellIdentity.getSystemId();
         final int nid = cellIdentity.getNetworkId();
@@ -1182,10 +1414,7 @@ public class SurveyRecordProcessor
         final int ecio = cellSignalStrength.getCdmaEcio();
 
         // Validate that the required fields are present before proceeding further
-        if (!validateCdmaFields(signalStrength, ecio)) return null;
-
-        // Convert the Ec/Io to the actual value.  The Android Javadocs indicate:  "Get the CDMA Ec/Io value in dB*10".  So we need to divide by 10.
-        final float ecioFloat = ecio / 10.0f;
+        if (!SurveyRecordBuilder.validateCdmaFields(signalStrength, ecio)) return null;
 
         final CdmaRecordData.Builder dataBuilder = CdmaRecordData.newBuilder();
 
@@ -1201,7 +1430,7 @@ public class SurveyRecordProcessor
 
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU)
                 {
-                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(elapsedTimeMillis);
+                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(timestamp.elapsedRealtimeMillis);
                     dataBuilder.setLocationAge((int) elapsedRealtimeAgeMillis);
                 }
 
@@ -1216,40 +1445,9 @@ public class SurveyRecordProcessor
             }
         }
 
-        dataBuilder.setDeviceSerialNumber(deviceId);
-        dataBuilder.setDeviceTime(NsUtils.getRfc3339String(deviceTime));
-        dataBuilder.setMissionId(missionId);
-        dataBuilder.setRecordNumber(recordNumber++);
-        dataBuilder.setGroupNumber(groupNumber);
-        dataBuilder.setServingCell(BoolValue.newBuilder().setValue(cellInfoCdma.isRegistered()).build());
-        if (provider != null) dataBuilder.setProvider(provider.toString());
-
-        if (sid != Integer.MAX_VALUE)
-        {
-            dataBuilder.setSid(Int32Value.newBuilder().setValue(sid).build());
-        }
-        if (nid != Integer.MAX_VALUE)
-        {
-            dataBuilder.setNid(Int32Value.newBuilder().setValue(nid).build());
-        }
-        if (bsid != Integer.MAX_VALUE)
-        {
-            dataBuilder.setBsid(Int32Value.newBuilder().setValue(bsid).build());
-        }
-        if (subscriptionId != SubscriptionManager.INVALID_SUBSCRIPTION_ID && subscriptionId != SubscriptionManager.DEFAULT_SUBSCRIPTION_ID)
-        {
-            dataBuilder.setSlot(Int32Value.newBuilder().setValue(subscriptionId).build());
-        }
-
-        dataBuilder.setSignalStrength(FloatValue.newBuilder().setValue(signalStrength).build());
-        dataBuilder.setEcio(FloatValue.newBuilder().setValue(ecioFloat).build());
-
-        final CdmaRecord.Builder recordBuilder = CdmaRecord.newBuilder();
-        recordBuilder.setMessageType(CdmaMessageConstants.CDMA_RECORD_MESSAGE_TYPE);
-        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
-        recordBuilder.setData(dataBuilder);
-
-        return recordBuilder.build();
+        return SurveyRecordBuilder.buildCdmaRecord(dataBuilder, deviceId, missionId, timestamp,
+                lane.nextRecordNumber(), lane.getGroupNumber(), cellInfoCdma.isRegistered(), provider, sid, nid,
+                bsid, signalStrength, ecio, getSlot(subscriptionId));
     }
 
     /**
@@ -1258,8 +1456,9 @@ public class SurveyRecordProcessor
      * @param cellInfoWcdma The object that contains the UMTS Cell info.  This can be a serving cell, or a neighbor cell.
      * @return The survey record.
      */
-    private UmtsRecord generateUmtsSurveyRecord(CellInfoWcdma cellInfoWcdma, int subscriptionId, String carrierName, ZonedDateTime deviceTime, long elapsedTimeMillis)
+    private UmtsRecord generateUmtsSurveyRecord(CellInfoWcdma cellInfoWcdma, CellularProcessingLanes.Lane lane, String carrierName, RecordTimestamp timestamp)
     {
+        final int subscriptionId = lane.getSubscriptionId();
         final CellIdentityWcdma cellIdentity = cellInfoWcdma.getCellIdentity();
         final int mcc = cellIdentity.getMcc();
         final int mnc = cellIdentity.getMnc();
@@ -1283,7 +1482,7 @@ public class SurveyRecordProcessor
         final int rscp = ParserUtils.extractIntFromToString(cellSignalStrengthUmts.toString(), ParserUtils.RSCP_KEY);
 
         // Validate that the required fields are present before proceeding further
-        if (!validateUmtsFields(uarfcn, psc)) return null;
+        if (!SurveyRecordBuilder.validateUmtsFields(uarfcn, psc)) return null;
 
         final UmtsRecordData.Builder dataBuilder = UmtsRecordData.newBuilder();
 
@@ -1299,7 +1498,7 @@ public class SurveyRecordProcessor
 
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU)
                 {
-                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(elapsedTimeMillis);
+                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(timestamp.elapsedRealtimeMillis);
                     dataBuilder.setLocationAge((int) elapsedRealtimeAgeMillis);
                 }
 
@@ -1314,62 +1513,15 @@ public class SurveyRecordProcessor
             }
         }
 
-        dataBuilder.setDeviceSerialNumber(deviceId);
-        dataBuilder.setDeviceTime(NsUtils.getRfc3339String(deviceTime));
-        dataBuilder.setMissionId(missionId);
-        dataBuilder.setRecordNumber(recordNumber++);
-        dataBuilder.setGroupNumber(groupNumber);
-        dataBuilder.setServingCell(BoolValue.newBuilder().setValue(cellInfoWcdma.isRegistered()).build());
-        if (provider != null) dataBuilder.setProvider(provider.toString());
-
-        if (mcc != Integer.MAX_VALUE)
-        {
-            dataBuilder.setMcc(Int32Value.newBuilder().setValue(mcc).build());
-        }
-        if (mnc != Integer.MAX_VALUE)
-        {
-            dataBuilder.setMnc(Int32Value.newBuilder().setValue(mnc).build());
-        }
-        if (lac != Integer.MAX_VALUE)
-        {
-            dataBuilder.setLac(Int32Value.newBuilder().setValue(lac).build());
-        }
-        if (ci != Integer.MAX_VALUE)
-        {
-            dataBuilder.setCid(Int32Value.newBuilder().setValue(ci).build());
-        }
-
+        int ecNo = SurveyRecordBuilder.UNSET;
         if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.R)
         {
-            final int ecNo = cellSignalStrengthUmts.getEcNo();
-            if (ecNo != CellInfo.UNAVAILABLE)
-            {
-                dataBuilder.setEcno(FloatValue.newBuilder().setValue(ecNo).build());
-            }
-        }
-
-        if (signalStrength != Integer.MAX_VALUE)
-        {
-            dataBuilder.setSignalStrength(FloatValue.newBuilder().setValue(signalStrength).build());
-        }
-        if (rscp != Integer.MAX_VALUE)
-        {
-            dataBuilder.setRscp(FloatValue.newBuilder().setValue(rscp).build());
-        }
-        if (subscriptionId != SubscriptionManager.INVALID_SUBSCRIPTION_ID && subscriptionId != SubscriptionManager.DEFAULT_SUBSCRIPTION_ID)
-        {
-            dataBuilder.setSlot(Int32Value.newBuilder().setValue(subscriptionId).build());
+            ecNo = cellSignalStrengthUmts.getEcNo();
         }
 
-        dataBuilder.setUarfcn(Int32Value.newBuilder().setValue(uarfcn).build());
-        dataBuilder.setPsc(Int32Value.newBuilder().setValue(psc).build());
-
-        final UmtsRecord.Builder recordBuilder = UmtsRecord.newBuilder();
-        recordBuilder.setMessageType(UmtsMessageConstants.UMTS_RECORD_MESSAGE_TYPE);
-        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
-        recordBuilder.setData(dataBuilder);
-
-        return recordBuilder.build();
+        return SurveyRecordBuilder.buildUmtsRecord(dataBuilder, deviceId, missionId, timestamp,
+                lane.nextRecordNumber(), lane.getGroupNumber(), cellInfoWcdma.isRegistered(), provider, mcc, mnc, lac,
+                ci, uarfcn, psc, signalStrength, rscp, ecNo, getSlot(subscriptionId));
     }
 
     /**
@@ -1378,8 +1530,9 @@ public class SurveyRecordProcessor
      * @param cellInfoLte The object that contains the LTE Cell info.  This can be a serving cell, or a neighbor cell.
      * @return The survey record.
      */
-    private LteRecord generateLteSurveyRecord(CellInfoLte cellInfoLte, int subscriptionId, String carrierName, SignalStrength signalStrength, ZonedDateTime deviceTime, long elapsedTimeMillis)
+    private LteRecord generateLteSurveyRecord(CellInfoLte cellInfoLte, CellularProcessingLanes.Lane lane, String carrierName, SignalStrength signalStrength, RecordTimestamp timestamp)
     {
+        final int subscriptionId = lane.getSubscriptionId();
         final CellIdentityLte cellIdentity = cellInfoLte.getCellIdentity();
         final int mcc = cellIdentity.getMcc();
         final int mnc = cellIdentity.getMnc();
@@ -1410,7 +1563,7 @@ public class SurveyRecordProcessor
         }
 
         // Validate that the required fields are present before proceeding further
-        if (!validateLteFields(earfcn, pci, rsrp)) return null;
+        if (!SurveyRecordBuilder.validateLteFields(earfcn, pci, rsrp)) return null;
 
         final LteRecordData.Builder dataBuilder = LteRecordData.newBuilder();
 
@@ -1426,7 +1579,7 @@ public class SurveyRecordProcessor
 
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU)
                 {
-                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(elapsedTimeMillis);
+                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(timestamp.elapsedRealtimeMillis);
                     dataBuilder.setLocationAge((int) elapsedRealtimeAgeMillis);
                 }
 
@@ -1441,87 +1594,16 @@ public class SurveyRecordProcessor
             }
         }
 
-        dataBuilder.setDeviceSerialNumber(deviceId);
-        dataBuilder.setDeviceTime(NsUtils.getRfc3339String(deviceTime));
-        dataBuilder.setMissionId(missionId);
-        dataBuilder.setRecordNumber(recordNumber++);
-        dataBuilder.setGroupNumber(groupNumber);
-        dataBuilder.setServingCell(BoolValue.newBuilder().setValue(cellInfoLte.isRegistered()).build());
-        if (provider != null) dataBuilder.setProvider(provider.toString());
-
-        if (mcc != Integer.MAX_VALUE)
-        {
-            dataBuilder.setMcc(Int32Value.newBuilder().setValue(mcc).build());
-        }
-        if (mnc != Integer.MAX_VALUE)
-        {
-            dataBuilder.setMnc(Int32Value.newBuilder().setValue(mnc).build());
-        }
-        if (tac != Integer.MAX_VALUE)
-        {
-            dataBuilder.setTac(Int32Value.newBuilder().setValue(tac).build());
-        }
-        if (ci != Integer.MAX_VALUE)
-        {
-            dataBuilder.setEci(Int32Value.newBuilder().setValue(ci).build());
-        }
-
-        dataBuilder.setEarfcn(Int32Value.newBuilder().setValue(earfcn).build());
-        dataBuilder.setPci(Int32Value.newBuilder().setValue(pci).build());
-        dataBuilder.setRsrp(FloatValue.newBuilder().setValue(rsrp).build());
-
-        if (rsrq != Integer.MAX_VALUE)
-        {
-            dataBuilder.setRsrq(FloatValue.newBuilder().setValue(rsrq).build());
-        }
-        if (timingAdvance != Integer.MAX_VALUE)
-        {
-            dataBuilder.setTa(Int32Value.newBuilder().setValue(timingAdvance).build());
-        }
-        if (rssi != Integer.MAX_VALUE)
-        {
-            dataBuilder.setSignalStrength(FloatValue.newBuilder().setValue(rssi).build());
-        }
-
-        // A CQI of 0 is considered "out of range" per 3GPP TS 36.213, and Android will return 0 for
-        // neighbor cells.
-        if (cqi != Integer.MAX_VALUE && cqi != 0)
-        {
-            dataBuilder.setCqi(Int32Value.newBuilder().setValue(cqi).build());
-        }
-        if (subscriptionId != SubscriptionManager.INVALID_SUBSCRIPTION_ID && subscriptionId != SubscriptionManager.DEFAULT_SUBSCRIPTION_ID)
-        {
-            dataBuilder.setSlot(Int32Value.newBuilder().setValue(subscriptionId).build());
-        }
-
-        // The signalStrength object is only for the serving cell
-        if (cellInfoLte.isRegistered())
-        {
-            int signalStrengthSnr = getLteRssnr(signalStrength);
-            if (signalStrengthSnr != Integer.MIN_VALUE)
-            {
-                dataBuilder.setSnr(FloatValue.newBuilder().setValue(signalStrengthSnr).build());
-            }
-        }
-
         // I can't trust the rssnr value from the cellSignalStrengthLte object because it has always been 0 or 1.
         // Looking at the NetMonster Core source code, they indicate on certain devices the SNR value coming from
         // cellSignalStrengthLte is divided by 10, but the SignalStrength object has the correct value, so we will
-        // use that value instead.
-        /*int rssnr = cellSignalStrengthLte.getRssnr();
-        if (rssnr != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setSnr(FloatValue.newBuilder().setValue(rssnr).build());
-        }*/
-
-        setBandwidth(dataBuilder, cellIdentity);
+        // use that value instead. The signalStrength object is only for the serving cell.
+        final int snr = cellInfoLte.isRegistered() ? getLteRssnr(signalStrength) : SurveyRecordBuilder.UNSET_SNR;
 
-        final LteRecord.Builder recordBuilder = LteRecord.newBuilder();
-        recordBuilder.setMessageType(LteMessageConstants.LTE_RECORD_MESSAGE_TYPE);
-        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
-        recordBuilder.setData(dataBuilder);
-
-        return recordBuilder.build();
+        return SurveyRecordBuilder.buildLteRecord(dataBuilder, deviceId, missionId, timestamp,
+                lane.nextRecordNumber(), lane.getGroupNumber(), cellInfoLte.isRegistered(), provider, mcc, mnc, tac,
+                ci, earfcn, pci, rsrp, rsrq, timingAdvance, rssi, cqi, getSlot(subscriptionId), snr,
+                getBandwidth(cellIdentity));
     }
 
     private int getLteRssnr(SignalStrength signalStrengths)
@@ -1559,8 +1641,9 @@ public class SurveyRecordProcessor
      */
     @SuppressLint("Range")
     @RequiresApi(api = Build.VERSION_CODES.Q)
-    private NrRecordWrapper generateNrSurveyRecord(CellInfoNr cellInfoNr, int subscriptionId, String carrierName, ZonedDateTime deviceTime, long elapsedTimeMillis)
+    private NrRecordWrapper generateNrSurveyRecord(CellInfoNr cellInfoNr, CellularProcessingLanes.Lane lane, String carrierName, RecordTimestamp timestamp)
     {
+        final int subscriptionId = lane.getSubscriptionId();
         // safe to cast as per: https://developer.android.com/reference/android/telephony/CellInfoNr#getCellIdentity()
         final CellIdentityNr cellIdentity = (CellIdentityNr) cellInfoNr.getCellIdentity();
 
@@ -1600,7 +1683,7 @@ public class SurveyRecordProcessor
             timingAdvanceMicros = cellSignalStrength.getTimingAdvanceMicros();
         }
 
-        if (!validateNrFields(nrarfcn, pci)) return null;
+        if (!SurveyRecordBuilder.validateNrFields(nrarfcn, pci)) return null;
 
         final NrRecordData.Builder dataBuilder = NrRecordData.newBuilder();
 
@@ -1616,7 +1699,7 @@ public class SurveyRecordProcessor
 
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU)
                 {
-                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(elapsedTimeMillis);
+                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(timestamp.elapsedRealtimeMillis);
                     dataBuilder.setLocationAge((int) elapsedRealtimeAgeMillis);
                 }
 
@@ -1631,81 +1714,12 @@ public class SurveyRecordProcessor
             }
         }
 
-        dataBuilder.setDeviceSerialNumber(deviceId);
-        dataBuilder.setDeviceTime(NsUtils.getRfc3339String(deviceTime));
-        dataBuilder.setMissionId(missionId);
-        dataBuilder.setRecordNumber(recordNumber++);
-        dataBuilder.setGroupNumber(groupNumber);
-        dataBuilder.setServingCell(BoolValue.newBuilder().setValue(cellInfoNr.isRegistered()).build());
-        if (provider != null) dataBuilder.setProvider(provider.toString());
-
-        // vals from CellIdentity
-        if (mcc != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setMcc(Int32Value.newBuilder().setValue(mcc).build());
-        }
-        if (mnc != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setMnc(Int32Value.newBuilder().setValue(mnc).build());
-        }
-        if (tac != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setTac(Int32Value.newBuilder().setValue(tac).build());
-        }
-        if (nci != CellInfo.UNAVAILABLE_LONG)
-        {
-            dataBuilder.setNci(Int64Value.newBuilder().setValue(nci).build());
-        }
-        if (nrarfcn != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setNarfcn(Int32Value.newBuilder().setValue(nrarfcn).build());
-        }
-        if (pci != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setPci(Int32Value.newBuilder().setValue(pci).build());
-        }
+        final NrRecord record = SurveyRecordBuilder.buildNrRecord(dataBuilder, deviceId, missionId, timestamp,
+                lane.nextRecordNumber(), lane.getGroupNumber(), cellInfoNr.isRegistered(), provider, mcc, mnc, tac, nci,
+                nrarfcn, pci, ssRsrp, ssRsrq, ssSinr, csiRsrp, csiRsrq, csiSinr, timingAdvanceMicros,
+                getSlot(subscriptionId));
 
-        // vals from CellSignalStrength
-        if (ssRsrp != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setSsRsrp(FloatValue.newBuilder().setValue(ssRsrp).build());
-        }
-        if (ssRsrq != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setSsRsrq(FloatValue.newBuilder().setValue(ssRsrq).build());
-        }
-        if (ssSinr != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setSsSinr(FloatValue.newBuilder().setValue(ssSinr).build());
-        }
-        if (csiRsrp != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setCsiRsrp(FloatValue.newBuilder().setValue(csiRsrp).build());
-        }
-        if (csiRsrq != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setCsiRsrq(FloatValue.newBuilder().setValue(csiRsrq).build());
-        }
-        if (csiSinr != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setCsiSinr(FloatValue.newBuilder().setValue(csiSinr).build());
-        }
-        if (timingAdvanceMicros != CellInfo.UNAVAILABLE)
-        {
-            dataBuilder.setTa(Int32Value.newBuilder().setValue(timingAdvanceMicros).build());
-        }
-        if (subscriptionId != SubscriptionManager.INVALID_SUBSCRIPTION_ID && subscriptionId != SubscriptionManager.DEFAULT_SUBSCRIPTION_ID)
-        {
-            dataBuilder.setSlot(Int32Value.newBuilder().setValue(subscriptionId).build());
-        }
-
-        final NrRecord.Builder recordBuilder = NrRecord.newBuilder();
-
-        recordBuilder.setMessageType(NrMessageConstants.NR_RECORD_MESSAGE_TYPE);
-        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
-        recordBuilder.setData(dataBuilder);
-
-        return new NrRecordWrapper(recordBuilder.build(), bands);
+        return new NrRecordWrapper(record, bands, timestamp.epochMillis);
     }
 
     /**
@@ -1715,7 +1729,7 @@ public class SurveyRecordProcessor
      * @return The Wi-Fi record to send to any listeners.
      * @since 0.1.2
      */
-    private WifiRecordWrapper generateWiFiBeaconSurveyRecord(ScanResult apScanResult, ZonedDateTime deviceTime, long elapsedTimeMillis)
+    private WifiRecordWrapper generateWiFiBeaconSurveyRecord(ScanResult apScanResult, RecordTimestamp timestamp)
     {
         final String bssid = apScanResult.BSSID;
         final int signalStrength = apScanResult.level;
@@ -1723,7 +1737,15 @@ public class SurveyRecordProcessor
         // Validate that the required fields are present before proceeding further
         if (!validateWifiBeaconFields(bssid, signalStrength)) return null;
 
-        final WifiBeaconRecordData.Builder dataBuilder = WifiBeaconRecordData.newBuilder();
+        final String ssid = apScanResult.SSID;
+        final int wifiStandard = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? apScanResult.getWifiStandard() : ScanResult.WIFI_STANDARD_UNKNOWN;
+
+        // Start from the cached static fields for this AP so that only the dynamic fields need to be set
+        final WifiStaticFieldsCache.StaticFields staticFields = wifiStaticFieldsCache.get(bssid, ssid,
+                apScanResult.capabilities, apScanResult.frequency, apScanResult.channelWidth, wifiStandard,
+                apScanResult.isPasspointNetwork());
+        final WifiBeaconRecordData.Builder dataBuilder = staticFields.template.toBuilder();
 
         if (gpsListener != null)
         {
@@ -1737,7 +1759,7 @@ public class SurveyRecordProcessor
 
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU)
                 {
-                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(elapsedTimeMillis);
+                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(timestamp.elapsedRealtimeMillis);
                     dataBuilder.setLocationAge((int) elapsedRealtimeAgeMillis);
                 }
 
@@ -1752,62 +1774,14 @@ public class SurveyRecordProcessor
             }
         }
 
-        dataBuilder.setDeviceSerialNumber(deviceId);
-        dataBuilder.setDeviceTime(NsUtils.getRfc3339String(deviceTime));
-        dataBuilder.setMissionId(missionId);
-        dataBuilder.setRecordNumber(wifiRecordNumber++);
-
-        dataBuilder.setBssid(bssid);
-        dataBuilder.setSignalStrength(FloatValue.newBuilder().setValue(signalStrength).build());
-
-        final String ssid = apScanResult.SSID;
-        if (ssid != null) dataBuilder.setSsid(ssid);
-
-        final short channel = WifiBeaconMessageConstants.convertFrequencyToChannelNumber(apScanResult.frequency);
-        if (channel != -1)
-        {
-            dataBuilder.setChannel(Int32Value.newBuilder().setValue(channel).build());
-        }
-
-        final int frequency = apScanResult.frequency;
-        if (frequency != -1 && frequency != 0)
-        {
-            dataBuilder.setFrequencyMhz(Int32Value.newBuilder().setValue(frequency).build());
-        }
-
-        final String capabilities = apScanResult.capabilities;
-        if (capabilities != null && !capabilities.isEmpty())
-        {
-            final EncryptionType encryptionType = WifiUtils.getEncryptionType(capabilities);
-            if (encryptionType != EncryptionType.UNKNOWN)
-            {
-                dataBuilder.setEncryptionType(encryptionType);
-            }
-
-            dataBuilder.setWps(BoolValue.newBuilder().setValue(WifiUtils.supportsWps(capabilities)).build());
-        }
-
-        if (apScanResult.isPasspointNetwork())
-        {
-            dataBuilder.setPasspoint(BoolValue.newBuilder().setValue(true).build());
-        }
-
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R)
-        {
-            setWifiStandard(dataBuilder, apScanResult.getWifiStandard());
-        }
-
-        setWifiBandwidth(dataBuilder, apScanResult.channelWidth);
-
-        final WifiBeaconRecord.Builder recordBuilder = WifiBeaconRecord.newBuilder();
-        recordBuilder.setMessageType(WifiBeaconMessageConstants.WIFI_BEACON_RECORD_MESSAGE_TYPE);
-        recordBuilder.setVersion(BuildConfig.MESSAGING_API_VERSION);
-        recordBuilder.setData(dataBuilder);
+        final WifiBeaconRecord record = SurveyRecordBuilder.buildWifiBeaconRecord(dataBuilder, deviceId, missionId,
+                timestamp, wifiRecordNumber++, signalStrength);
 
         // Check if this SSID is in the exclusion list
-        final boolean isExcluded = ssidExclusionManager.isExcluded(ssid);
+        final boolean isExcluded = settings.ssidExclusionMatcher.matches(ssid);
 
-        return new WifiRecordWrapper(recordBuilder.build(), apScanResult.capabilities, isExcluded);
+        return new WifiRecordWrapper(record, staticFields.capabilities, isExcluded,
+                staticFields.centerChannel, timestamp.epochMillis);
     }
 
     /**
@@ -1817,9 +1791,9 @@ public class SurveyRecordProcessor
      * @return The Bluetooth record to send to any listeners.
      * @since 1.0.0
      */
-    private BluetoothRecord generateBluetoothSurveyRecord(android.bluetooth.le.ScanResult result, ZonedDateTime deviceTime, long elapsedTimeMillis)
+    private BluetoothRecord generateBluetoothSurveyRecord(android.bluetooth.le.ScanResult result, RecordTimestamp timestamp)
     {
-        return generateBluetoothSurveyRecord(result, result.getDevice(), result.getRssi(), result.getTxPower(), deviceTime, elapsedTimeMillis);
+        return generateBluetoothSurveyRecord(result, result.getDevice(), result.getRssi(), result.getTxPower(), timestamp);
     }
 
     /**
@@ -1829,7 +1803,7 @@ public class SurveyRecordProcessor
      * @return The Bluetooth record to send to any listeners.
      * @since 1.0.0
      */
-    private BluetoothRecord generateBluetoothSurveyRecord(android.bluetooth.le.ScanResult scanResult, BluetoothDevice device, int rssi, int txPowerLevel, ZonedDateTime deviceTime, long elapsedTimeMillis)
+    private BluetoothRecord generateBluetoothSurveyRecord(android.bluetooth.le.ScanResult scanResult, BluetoothDevice device, int rssi, int txPowerLevel, RecordTimestamp timestamp)
     {
         final String sourceAddress = device.getAddress();
 
@@ -1850,7 +1824,7 @@ public class SurveyRecordProcessor
 
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU)
                 {
-                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(elapsedTimeMillis);
+                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(timestamp.elapsedRealtimeMillis);
                     dataBuilder.setLocationAge((int) elapsedRealtimeAgeMillis);
                 }
 
@@ -1866,7 +1840,7 @@ public class SurveyRecordProcessor
         }
 
         dataBuilder.setDeviceSerialNumber(deviceId);
-        dataBuilder.setDeviceTime(NsUtils.getRfc3339String(deviceTime));
+        dataBuilder.setDeviceTime(timestamp.rfc3339);
         dataBuilder.setMissionId(missionId);
         dataBuilder.setRecordNumber(bluetoothRecordNumber++);
 
@@ -2038,7 +2012,7 @@ public class SurveyRecordProcessor
      * @return The GNSS record to send to any listeners.
      * @since 0.3.0
      */
-    private GnssRecord generateGnssSurveyRecord(GnssMeasurement gnss, Map<ConstellationFreqKey, Float> agcMap, ZonedDateTime deviceTime, long elapsedTimeMillis)
+    private GnssRecord generateGnssSurveyRecord(GnssMeasurement gnss, Map<ConstellationFreqKey, Float> agcMap, RecordTimestamp timestamp)
     {
         final GnssRecordData.Builder dataBuilder = GnssRecordData.newBuilder();
 
@@ -2067,7 +2041,7 @@ public class SurveyRecordProcessor
 
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU)
                 {
-                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(elapsedTimeMillis);
+                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(timestamp.elapsedRealtimeMillis);
                     dataBuilder.setLocationAge((int) elapsedRealtimeAgeMillis);
                 }
 
@@ -2083,7 +2057,7 @@ public class SurveyRecordProcessor
         }
 
         dataBuilder.setDeviceSerialNumber(deviceId);
-        dataBuilder.setDeviceTime(NsUtils.getRfc3339String(deviceTime));
+        dataBuilder.setDeviceTime(timestamp.rfc3339);
         dataBuilder.setMissionId(missionId);
         dataBuilder.setRecordNumber(gnssRecordNumber++);
         dataBuilder.setGroupNumber(gnssGroupNumber);
@@ -2130,8 +2104,7 @@ public class SurveyRecordProcessor
     private GnssRecord generateEmptyGnssSurveyRecord()
     {
         final GnssRecordData.Builder dataBuilder = GnssRecordData.newBuilder();
-        final ZonedDateTime deviceTime = ZonedDateTime.now();
-        final long elapseTimeMillis = SystemClock.elapsedRealtime();
+        final RecordTimestamp timestamp = RecordTimestamp.now();
 
         if (gpsListener != null)
         {
@@ -2158,7 +2131,7 @@ public class SurveyRecordProcessor
 
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU)
                 {
-                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(elapseTimeMillis);
+                    long elapsedRealtimeAgeMillis = lastKnownLocation.getElapsedRealtimeAgeMillis(timestamp.elapsedRealtimeMillis);
                     dataBuilder.setLocationAge((int) elapsedRealtimeAgeMillis);
                 }
 
@@ -2174,7 +2147,7 @@ public class SurveyRecordProcessor
         }
 
         dataBuilder.setDeviceSerialNumber(deviceId);
-        dataBuilder.setDeviceTime(NsUtils.getRfc3339String(deviceTime));
+        dataBuilder.setDeviceTime(timestamp.rfc3339);
         dataBuilder.setMissionId(missionId);
         dataBuilder.setRecordNumber(gnssRecordNumber++);
         dataBuilder.setGroupNumber(gnssGroupNumber);
@@ -2189,72 +2162,32 @@ public class SurveyRecordProcessor
     }
 
     /**
-     * Sets the LTE bandwidth on the record if it is valid, and if the current android version supports it.
-     *
-     * @param lteRecordBuilder The builder to set the bandwidth on.
-     * @param cellIdentity     The {@link CellIdentityLte} to pull the bandwidth from.
+     * @param cellIdentity The {@link CellIdentityLte} to pull the bandwidth from.
+     * @return The LTE bandwidth in kHz, or {@link SurveyRecordBuilder#UNSET} if the current android version
+     * does not support it.
      */
-    private void setBandwidth(LteRecordData.Builder lteRecordBuilder, CellIdentityLte cellIdentity)
+    private int getBandwidth(CellIdentityLte cellIdentity)
     {
         if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.P)
         {
-            final int bandwidth = cellIdentity.getBandwidth();
-            if (bandwidth != Integer.MAX_VALUE)
-            {
-                LteBandwidth lteBandwidth = switch (bandwidth)
-                {
-                    case 1_400 -> LteBandwidth.MHZ_1_4;
-                    case 3_000 -> LteBandwidth.MHZ_3;
-                    case 5_000 -> LteBandwidth.MHZ_5;
-                    case 10_000 -> LteBandwidth.MHZ_10;
-                    case 15_000 -> LteBandwidth.MHZ_15;
-                    case 20_000 -> LteBandwidth.MHZ_20;
-                    default -> null;
-                };
-
-                if (lteBandwidth != null) lteRecordBuilder.setLteBandwidth(lteBandwidth);
-            }
+            return cellIdentity.getBandwidth();
         }
-    }
 
-    /**
-     * Sets the Wi-Fi standard on the record if it is valid.
-     *
-     * @noinspection DuplicateBranchesInSwitch
-     */
-    private void setWifiStandard(WifiBeaconRecordData.Builder wifiBeaconBuilder, int androidWifiStandard)
-    {
-        Standard wifiStandard = switch (androidWifiStandard)
-        {
-            case ScanResult.WIFI_STANDARD_UNKNOWN, ScanResult.WIFI_STANDARD_LEGACY,
-                 ScanResult.WIFI_STANDARD_11AD -> Standard.UNKNOWN;
-            case ScanResult.WIFI_STANDARD_11N -> Standard.IEEE80211N;
-            case ScanResult.WIFI_STANDARD_11AC -> Standard.IEEE80211AC;
-            case ScanResult.WIFI_STANDARD_11AX -> Standard.IEEE80211AX;
-            case ScanResult.WIFI_STANDARD_11BE -> Standard.IEEE80211BE;
-            default -> Standard.UNKNOWN;
-        };
-
-        if (wifiStandard != Standard.UNKNOWN) wifiBeaconBuilder.setStandard(wifiStandard);
+        return SurveyRecordBuilder.UNSET;
     }
 
     /**
-     * Sets the Wi-Fi Bandwidth on the record.
+     * @return The slot to set on the cellular records, or {@link SurveyRecordBuilder#UNSET} if the
+     * subscription ID is not for a specific subscription.
      */
-    private void setWifiBandwidth(WifiBeaconRecordData.Builder wifiBeaconBuilder, int androidWifiBandwidth)
+    private static int getSlot(int subscriptionId)
     {
-        WifiBandwidth wifiBandwidth = switch (androidWifiBandwidth)
+        if (subscriptionId != SubscriptionManager.INVALID_SUBSCRIPTION_ID && subscriptionId != SubscriptionManager.DEFAULT_SUBSCRIPTION_ID)
         {
-            case ScanResult.CHANNEL_WIDTH_20MHZ -> WifiBandwidth.MHZ_20;
-            case ScanResult.CHANNEL_WIDTH_40MHZ -> WifiBandwidth.MHZ_40;
-            case ScanResult.CHANNEL_WIDTH_80MHZ -> WifiBandwidth.MHZ_80;
-            case ScanResult.CHANNEL_WIDTH_80MHZ_PLUS_MHZ -> WifiBandwidth.MHZ_80_PLUS;
-            case ScanResult.CHANNEL_WIDTH_160MHZ -> WifiBandwidth.MHZ_160;
-            case ScanResult.CHANNEL_WIDTH_320MHZ -> WifiBandwidth.MHZ_320;
-            default -> WifiBandwidth.UNKNOWN;
-        };
+            return subscriptionId;
+        }
 
-        if (wifiBandwidth != WifiBandwidth.UNKNOWN) wifiBeaconBuilder.setBandwidth(wifiBandwidth);
+        return SurveyRecordBuilder.UNSET;
     }
 
     /**
@@ -2353,130 +2286,6 @@ public class SurveyRecordProcessor
         return "";
     }
 
-    /**
-     * Validates the required fields.
-     *
-     * @return True if the provided fields are all valid, false if one or more is invalid.
-     */
-    private boolean validateGsmFields(int arfcn, int bsic, int signalStrength)
-    {
-        if (arfcn == Integer.MAX_VALUE || arfcn == -1)
-        {
-            Timber.v("The ARFCN is required to build a GSM Survey Record.");
-            return false;
-        }
-
-        if (bsic == Integer.MAX_VALUE || bsic == -1)
-        {
-            Timber.v("The BSIC is required to build a GSM Survey Record.");
-            return false;
-        }
-
-        if (signalStrength == Integer.MAX_VALUE)
-        {
-            Timber.v("The Signal Strength is required to build a GSM Survey Record.");
-            return false;
-        }
-
-        return true;
-    }
-
-    /**
-     * Validates the required CDMA fields.
-     *
-     * @return True if the provided fields are all valid, false if one or more is invalid.
-     */
-    private boolean validateCdmaFields(int signalStrength, int ecio)
-    {
-        if (signalStrength == Integer.MAX_VALUE)
-        {
-            Timber.v("The Signal Strength is required to build a CDMA Survey Record.");
-            return false;
-        }
-
-        if (ecio == Integer.MAX_VALUE)
-        {
-            Timber.v("The Ec/Io is required to build a CDMA Survey Record.");
-            return false;
-        }
-
-        return true;
-    }
-
-    /**
-     * Validates the required fields.
-     *
-     * @return True if the provided fields are all valid, false if one or more is invalid.
-     */
-    private boolean validateUmtsFields(int uarfcn, int psc)
-    {
-        if (uarfcn == Integer.MAX_VALUE || uarfcn == -1)
-        {
-            Timber.v("The UARFCN is required to build a UMTS Survey Record.");
-            return false;
-        }
-
-        if (psc == Integer.MAX_VALUE || psc == -1)
-        {
-            Timber.v("The PSC is required to build a UMTS Survey Record.");
-            return false;
-        }
-
-        return true;
-    }
-
-    /**
-     * Validates the required fields.
-     *
-     * @return True if the provided fields are all valid, false if one or more is invalid.
-     */
-    private boolean validateLteFields(int earfcn, int pci, int rsrp)
-    {
-        if (earfcn == Integer.MAX_VALUE || earfcn == -1)
-        {
-            Timber.v("The EARFCN is required to build an LTE Survey Record.");
-            return false;
-        }
-
-        if (pci == Integer.MAX_VALUE || pci == -1)
-        {
-            Timber.v("The PCI is required to build an LTE Survey Record.");
-            return false;
-        }
-
-        if (rsrp == Integer.MAX_VALUE)
-        {
-            Timber.v("The RSRP is required to build an LTE Survey Record.");
-            return false;
-        }
-
-        return true;
-    }
-
-    /**
-     * Validates the required arguments per:
-     * <a href="https://messaging.networksurvey.app/#operation-publish-nr_message">NR Message Requirements</a>
-     *
-     * @return {@code true} if the provided fields are all valid, false if one or more is invalid.
-     * @since 1.5.0
-     */
-    @RequiresApi(api = Build.VERSION_CODES.Q)
-    private boolean validateNrFields(int nrarfcn, int pci)
-    {
-        if (nrarfcn == CellInfo.UNAVAILABLE)
-        {
-            Timber.v("NRARFCN is required to build an NR survey record");
-            return false;
-        }
-        if (pci == CellInfo.UNAVAILABLE)
-        {
-            Timber.v("PCI is required to build an NR survey record");
-            return false;
-        }
-
-        return true;
-    }
-
     /**
      * Validates the required fields.
      *
@@ -2517,12 +2326,34 @@ public class SurveyRecordProcessor
         return true;
     }
 
+    /**
+     * Notify the per record listeners of a cellular record, using the method for its protocol.
+     *
+     * @param cellularRecord The record to send to the listeners.
+     * @since 1.43
+     */
+    private void notifyCellularRecordListeners(CellularRecordWrapper cellularRecord)
+    {
+        switch (cellularRecord.cellularProtocol)
+        {
+            case GSM -> notifyGsmRecordListeners((GsmRecord) cellularRecord.cellularRecord, cellularRecord.epochMillis);
+            case CDMA -> notifyCdmaRecordListeners((CdmaRecord) cellularRecord.cellularRecord, cellularRecord.epochMillis);
+            case UMTS -> notifyUmtsRecordListeners((UmtsRecord) cellularRecord.cellularRecord, cellularRecord.epochMillis);
+            case LTE -> notifyLteRecordListeners((LteRecord) cellularRecord.cellularRecord, cellularRecord.epochMillis);
+            case NR -> notifyNrRecordListeners((NrRecord) cellularRecord.cellularRecord, cellularRecord.epochMillis);
+            default ->
+            {
+            }
+        }
+    }
+
     /**
      * Notify all the listeners that we have a new GSM Record available.
      *
-     * @param gsmRecord The new GSM Survey Record to send to the listeners.
+     * @param gsmRecord   The new GSM Survey Record to send to the listeners.
+     * @param epochMillis The device time of the record as Unix Epoch millis.
      */
-    private void notifyGsmRecordListeners(GsmRecord gsmRecord)
+    private void notifyGsmRecordListeners(GsmRecord gsmRecord, long epochMillis)
     {
         if (gsmRecord == null) return;
 
@@ -2533,7 +2364,7 @@ public class SurveyRecordProcessor
         {
             try
             {
-                listener.onGsmSurveyRecord(gsmRecord);
+                listener.onGsmSurveyRecord(gsmRecord, epochMillis);
             } catch (Exception e)
             {
                 Timber.e(e, "Unable to notify a Cellular Survey Record Listener because of an exception");
@@ -2544,9 +2375,10 @@ public class SurveyRecordProcessor
     /**
      * Notify all the listeners that we have a new CDMA Record available.
      *
-     * @param cdmaRecord The new CDMA Survey Record to send to the listeners.
+     * @param cdmaRecord  The new CDMA Survey Record to send to the listeners.
+     * @param epochMillis The device time of the record as Unix Epoch millis.
      */
-    private void notifyCdmaRecordListeners(CdmaRecord cdmaRecord)
+    private void notifyCdmaRecordListeners(CdmaRecord cdmaRecord, long epochMillis)
     {
         if (cdmaRecord == null) return;
 
@@ -2557,7 +2389,7 @@ public class SurveyRecordProcessor
         {
             try
             {
-                listener.onCdmaSurveyRecord(cdmaRecord);
+                listener.onCdmaSurveyRecord(cdmaRecord, epochMillis);
             } catch (Exception e)
             {
                 Timber.e(e, "Unable to notify a Cellular Survey Record Listener because of an exception");
@@ -2568,9 +2400,10 @@ public class SurveyRecordProcessor
     /**
      * Notify all the listeners that we have a new UMTS Record available.
      *
-     * @param umtsRecord The new UMTS Survey Record to send to the listeners.
+     * @param umtsRecord  The new UMTS Survey Record to send to the listeners.
+     * @param epochMillis The device time of the record as Unix Epoch millis.
      */
-    private void notifyUmtsRecordListeners(UmtsRecord umtsRecord)
+    private void notifyUmtsRecordListeners(UmtsRecord umtsRecord, long epochMillis)
     {
         if (umtsRecord == null) return;
 
@@ -2581,7 +2414,7 @@ public class SurveyRecordProcessor
         {
             try
             {
-                listener.onUmtsSurveyRecord(umtsRecord);
+                listener.onUmtsSurveyRecord(umtsRecord, epochMillis);
             } catch (Exception e)
             {
                 Timber.e(e, "Unable to notify a Cellular Survey Record Listener because of an exception");
@@ -2592,9 +2425,10 @@ public class SurveyRecordProcessor
     /**
      * Notify all the listeners that we have a new LTE Record available.
      *
-     * @param lteRecord The new LTE Survey Record to send to the listeners.
+     * @param lteRecord   The new LTE Survey Record to send to the listeners.
+     * @param epochMillis The device time of the record as Unix Epoch millis.
      */
-    private void notifyLteRecordListeners(LteRecord lteRecord)
+    private void notifyLteRecordListeners(LteRecord lteRecord, long epochMillis)
     {
         if (lteRecord == null) return;
 
@@ -2605,7 +2439,7 @@ public class SurveyRecordProcessor
         {
             try
             {
-                listener.onLteSurveyRecord(lteRecord);
+                listener.onLteSurveyRecord(lteRecord, epochMillis);
             } catch (Exception e)
             {
                 Timber.e(e, "Unable to notify a Cellular Survey Record Listener because of an exception");
@@ -2616,10 +2450,11 @@ public class SurveyRecordProcessor
     /**
      * Notify {@link #cellularSurveyRecordListeners} of a new NR record
      *
-     * @param nrRecord The new NR Survey Record to send to the listeners
+     * @param nrRecord    The new NR Survey Record to send to the listeners
+     * @param epochMillis The device time of the record as Unix Epoch millis.
      * @since 1.5.0
      */
-    private void notifyNrRecordListeners(NrRecord nrRecord)
+    private void notifyNrRecordListeners(NrRecord nrRecord, long epochMillis)
     {
         if (nrRecord == null) return;
 
@@ -2629,7 +2464,7 @@ public class SurveyRecordProcessor
         cellularSurveyRecordListeners.forEach(l -> {
             try
             {
-                l.onNrSurveyRecord(nrRecord);
+                l.onNrSurveyRecord(nrRecord, epochMillis);
             } catch (Exception e)
             {
                 Timber.e(e, "Unable to notify a Cellular Survey Record Listener because of an exception");
@@ -2643,11 +2478,13 @@ public class SurveyRecordProcessor
      * generic messages and not a specific cellular protocol message.
      *
      * @param cellularRecords The batch of cellular records.
-     * @param subscriptionId  The subscription ID (aka SIM ID) that the records are associated with.
+     * @param lane            The processing lane for the subscription (aka SIM) that the records are associated with.
      * @since 1.6.0
      */
-    private void notifyCellularListeners(List<CellularRecordWrapper> cellularRecords, int subscriptionId)
+    private void notifyCellularListeners(List<CellularRecordWrapper> cellularRecords, CellularProcessingLanes.Lane lane)
     {
+        final int subscriptionId = lane.getSubscriptionId();
+
         // Increment session record count for each record
         if (networkSurveyService != null && cellularRecords != null)
         {
@@ -2676,8 +2513,63 @@ public class SurveyRecordProcessor
             }
         }
 
+        updateLatestServingCell(cellularRecords, lane);
+
+        // The coverage map and tower estimates are built from every scan, whether or not it is saved for upload
+        if (cellularRecords != null) coverageRecorder.onCellularBatch(cellularRecords, subscriptionId);
+
+        analyzeCellConflicts(cellularRecords, lane);
+
         // Check for new towers if the preference is enabled and upload scanning is active
-        checkForNewTowers(cellularRecords);
+        checkForNewTowers(cellularRecords, lane);
+    }
+
+    /**
+     * Caches a snapshot of the first serving cell in the batch so that other data sources (e.g.
+     * the drive test throughput samples) can be tagged with the current radio conditions.
+     *
+     * @param cellularRecords The batch of cellular records to pull the serving cell from.
+     * @param lane            The processing lane for the subscription that the records are associated with.
+     * @since 1.43
+     */
+    private void updateLatestServingCell(List<CellularRecordWrapper> cellularRecords, CellularProcessingLanes.Lane lane)
+    {
+        if (cellularRecords == null) return;
+
+        for (CellularRecordWrapper cellularRecord : cellularRecords)
+        {
+            if (CellularUtils.isServingCell(cellularRecord.cellularRecord))
+            {
+                ServingCellSnapshot snapshot = ServingCellSnapshot.fromRecord(cellularRecord, System.currentTimeMillis());
+                if (snapshot != null)
+                {
+                    lane.updateLatestServingCell(snapshot);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks for physical cell ID collisions, confusion, and mod 3 and mod 30 clashes between the serving cell and its
+     * neighbors, if the preference is enabled.
+     *
+     * @param cellularRecords The batch of cellular records to check.
+     * @param lane            The processing lane for the subscription that the records are associated with.
+     * @since 1.43
+     */
+    private void analyzeCellConflicts(List<CellularRecordWrapper> cellularRecords, CellularProcessingLanes.Lane lane)
+    {
+        if (cellularRecords == null || cellularRecords.isEmpty()) return;
+        if (!settings.cellConflictDetectionEnabled) return;
+
+        try
+        {
+            cellConflictMonitor.onCellularBatch(cellularRecords, lane.getSubscriptionId());
+        } catch (Exception e)
+        {
+            Timber.e(e, "Could not check the cellular batch for physical cell ID problems");
+        }
     }
 
     /**
@@ -2706,22 +2598,24 @@ public class SurveyRecordProcessor
      * Check if the serving cell is a new tower and show notification if enabled.
      *
      * @param cellularRecords The batch of cellular records to check
+     * @param lane            The processing lane for the subscription that the records are associated with
      * @since 1.15.0
      */
-    private void checkForNewTowers(List<CellularRecordWrapper> cellularRecords)
+    private void checkForNewTowers(List<CellularRecordWrapper> cellularRecords, CellularProcessingLanes.Lane lane)
     {
-        // Check if new tower alerts are enabled
-        SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(context);
-        boolean newTowerAlertsEnabled = prefs.getBoolean(NetworkSurveyConstants.PROPERTY_NEW_TOWER_ALERTS_ENABLED, false);
+        if (cellularRecords == null || cellularRecords.isEmpty()) return;
 
-        if (!newTowerAlertsEnabled || cellularRecords == null || cellularRecords.isEmpty())
+        // Check if new tower alerts are enabled
+        if (!settings.newTowerAlertsEnabled)
         {
+            PipelineMetrics.TOWER_CHECK_RECORDS_SKIPPED.add(cellularRecords.size());
             return;
         }
 
         // Check if upload scanning is active
         if (networkSurveyService == null || !networkSurveyService.isUploadScanningActive())
         {
+            PipelineMetrics.TOWER_CHECK_RECORDS_SKIPPED.add(cellularRecords.size());
             return;
         }
 
@@ -2730,19 +2624,22 @@ public class SurveyRecordProcessor
         {
             if (CellularUtils.isServingCell(cellularRecord.cellularRecord))
             {
-                checkServingCellForNewTower(cellularRecord);
-                break; // Only process the first serving cell
+                checkServingCellForNewTower(cellularRecord, lane);
+                return; // Only process the first serving cell
             }
         }
+
+        PipelineMetrics.TOWER_CHECK_NO_SERVING_CELL.increment();
     }
 
     /**
      * Check if the serving cell is a new tower and fire notification if needed.
      *
      * @param cellularRecord The serving cell record to check
+     * @param lane           The processing lane that holds the last serving cell for the subscription
      * @since 1.15.0
      */
-    private void checkServingCellForNewTower(CellularRecordWrapper cellularRecord)
+    private void checkServingCellForNewTower(CellularRecordWrapper cellularRecord, CellularProcessingLanes.Lane lane)
     {
         final CellularProtocol protocol = cellularRecord.cellularProtocol;
         final GeneratedMessage record = cellularRecord.cellularRecord;
@@ -2804,9 +2701,9 @@ public class SurveyRecordProcessor
         }
 
         // Check if this is a different cell than the last one
-        if (cellKey != null && !cellKey.equals(lastServingCellKey) && mcc > 0 && cellId > 0)
+        if (cellKey != null && mcc > 0 && cellId > 0 && lane.updateServingCellKey(cellKey))
         {
-            lastServingCellKey = cellKey;
+            PipelineMetrics.TOWER_CHECK_LOOKUPS.increment();
 
             // Check if this is a new tower using TowerDetectionManager
             final int finalMcc = mcc;
@@ -2831,6 +2728,9 @@ public class SurveyRecordProcessor
                         }
                     }
             );
+        } else if (mcc > 0 && cellId > 0)
+        {
+            PipelineMetrics.TOWER_CHECK_UNCHANGED_CELL.increment();
         }
     }
 
@@ -2890,6 +2790,8 @@ public class SurveyRecordProcessor
                 uploadDbSink.onWifiBeaconSurveyRecords(nonExcludedRecords);
             }
         }
+
+        coverageRecorder.onWifiBeaconRecords(nonExcludedRecords);
     }
 
     /**
@@ -3125,6 +3027,27 @@ public class SurveyRecordProcessor
         }
     }
 
+    /**
+     * Notify all the listeners that we have a new pipeline metrics message available.
+     *
+     * @param pipelineMetrics The new pipeline metrics message to send to the listeners.
+     * @since 1.43
+     */
+    private void notifyPipelineMetricsListeners(Struct pipelineMetrics)
+    {
+        if (pipelineMetrics == null) return;
+        for (IDeviceStatusListener listener : deviceStatusListeners)
+        {
+            try
+            {
+                listener.onPipelineMetrics(pipelineMetrics);
+            } catch (Exception e)
+            {
+                Timber.e(e, "Unable to notify a Device Status Listener of the pipeline metrics because of an exception");
+            }
+        }
+    }
+
     /**
      * Notify all the listeners that we have a new Phone State available.
      *
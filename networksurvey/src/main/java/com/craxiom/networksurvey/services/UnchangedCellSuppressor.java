@@ -0,0 +1,360 @@
+package com.craxiom.networksurvey.services;
+
+import com.craxiom.messaging.CdmaRecord;
+import com.craxiom.messaging.CdmaRecordData;
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.GsmRecordData;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.NrRecordData;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.UmtsRecordData;
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drops the cellular records for cells that have not changed since the previous scan so that they
+ * are not written to the log files or streamed to the servers over and over during a static survey.
+ * <p>
+ * Each cell is identified by its identity fields (e.g. the MCC, MNC, TAC, ECI, EARFCN, and PCI for
+ * LTE). The measurements (e.g. the RSRP and RSRQ) are quantized to whole dB so that small jitter is
+ * not seen as a change. A record is emitted if the cell is new, if any of the quantized measurements
+ * changed, or if the cell has not been emitted for the heartbeat number of scans so the sinks still
+ * get a periodic record for every cell that is in view.
+ * <p>
+ * One instance is used per subscription, and an instance is only accessed from the processing lane
+ * for that subscription, so this class is not thread safe. The {@link Counters} are shared between
+ * all the instances and are thread safe.
+ *
+ * @since 1.43
+ */
+public class UnchangedCellSuppressor
+{
+    private static final long MISSING = Long.MIN_VALUE;
+    private static final float MEASUREMENT_STEP_DB = 1f;
+    private static final int MAX_FIELDS = 8;
+
+    private final Map<Long, CellState> cells = new HashMap<>();
+    private final Counters counters;
+    private final long[] identity = new long[MAX_FIELDS];
+    private final long[] measurements = new long[MAX_FIELDS];
+    private long scanNumber;
+
+    private static final class CellState
+    {
+        final long[] identity;
+        long[] measurements;
+        long lastEmittedScan;
+        long lastSeenScan;
+
+        CellState(long[] identity)
+        {
+            this.identity = identity;
+        }
+    }
+
+    /**
+     * The number of records emitted and suppressed per technology.
+     */
+    public static class Counters
+    {
+        private final AtomicLongArray emitted = new AtomicLongArray(CellularProtocol.values().length);
+        private final AtomicLongArray suppressed = new AtomicLongArray(CellularProtocol.values().length);
+
+        public long getEmittedCount(CellularProtocol protocol)
+        {
+            return emitted.get(protocol.ordinal());
+        }
+
+        public long getSuppressedCount(CellularProtocol protocol)
+        {
+            return suppressed.get(protocol.ordinal());
+        }
+
+        public long getTotalSuppressedCount()
+        {
+            long total = 0;
+            for (int i = 0; i < suppressed.length(); i++)
+            {
+                total += suppressed.get(i);
+            }
+            return total;
+        }
+    }
+
+    public UnchangedCellSuppressor(Counters counters)
+    {
+        this.counters = counters;
+    }
+
+    /**
+     * Must be called once at the start of each scan, before any of the records from the scan are
+     * passed to {@link #shouldEmit(CellularRecordWrapper, int)}.
+     *
+     * @param enabled        True if the suppression is currently enabled. When it is disabled any state
+     *                       is cleared so that every cell is emitted the next time it is enabled.
+     * @param heartbeatScans A cell is emitted at least once every this many scans even if it has not changed.
+     */
+    public void startScan(boolean enabled, int heartbeatScans)
+    {
+        if (!enabled)
+        {
+            if (!cells.isEmpty()) cells.clear();
+            return;
+        }
+
+        scanNumber++;
+        if (heartbeatScans > 0 && scanNumber % heartbeatScans == 0) evictStaleCells(heartbeatScans);
+    }
+
+    /**
+     * Checks if the record should be sent to the sinks.
+     *
+     * @param record         The record for a single cell from the current scan.
+     * @param heartbeatScans A cell is emitted at least once every this many scans even if it has not changed.
+     * @return True if the record should be emitted, false if it should be suppressed.
+     */
+    public boolean shouldEmit(CellularRecordWrapper record, int heartbeatScans)
+    {
+        final int identityLength = getIdentity(record, identity);
+        if (identityLength == 0)
+        {
+            // Not a technology that we know how to compare, so always let it through
+            return true;
+        }
+
+        final int measurementLength = getMeasurements(record, measurements);
+        final long identityKey = getIdentityKey(identity, identityLength);
+
+        CellState state = cells.get(identityKey);
+        final boolean emit;
+        if (state == null || !matches(state.identity, identity, identityLength))
+        {
+            // The key is only a hash of the identity, so a different cell can end up with the same key. The
+            // entry is handed over to the new cell in that case, which can cause an extra record but never
+            // suppresses a record for a cell that was not actually seen before.
+            state = new CellState(Arrays.copyOf(identity, identityLength));
+            cells.put(identityKey, state);
+            emit = true;
+        } else
+        {
+            emit = !matches(state.measurements, measurements, measurementLength)
+                    || scanNumber - state.lastEmittedScan >= heartbeatScans;
+        }
+
+        state.lastSeenScan = scanNumber;
+        if (emit)
+        {
+            if (!matches(state.measurements, measurements, measurementLength))
+            {
+                state.measurements = Arrays.copyOf(measurements, measurementLength);
+            }
+            state.lastEmittedScan = scanNumber;
+            counters.emitted.incrementAndGet(record.cellularProtocol.ordinal());
+        } else
+        {
+            counters.suppressed.incrementAndGet(record.cellularProtocol.ordinal());
+        }
+
+        return emit;
+    }
+
+    /**
+     * @return The number of cells currently being tracked.
+     */
+    public int size()
+    {
+        return cells.size();
+    }
+
+    /**
+     * Removes the cells that have not been seen for a full heartbeat. If they come back they are
+     * treated as new cells, which would have been the case anyway because their heartbeat is due.
+     */
+    private void evictStaleCells(int heartbeatScans)
+    {
+        final Iterator<CellState> iterator = cells.values().iterator();
+        while (iterator.hasNext())
+        {
+            if (scanNumber - iterator.next().lastSeenScan > heartbeatScans) iterator.remove();
+        }
+    }
+
+    /**
+     * Copies the fields that identify the cell (including if it is the serving cell) into the array.
+     *
+     * @param record The cellular record.
+     * @param fields The array to fill in, which must hold at least {@link #MAX_FIELDS} values.
+     * @return The number of fields that were filled in, or 0 if the protocol is not supported.
+     */
+    static int getIdentity(CellularRecordWrapper record, long[] fields)
+    {
+        final CellularProtocol protocol = record.cellularProtocol;
+        int i = 0;
+        fields[i++] = protocol.ordinal();
+        switch (protocol)
+        {
+            case GSM:
+                final GsmRecordData gsm = ((GsmRecord) record.cellularRecord).getData();
+                fields[i++] = gsm.getServingCell().getValue() ? 1 : 0;
+                fields[i++] = value(gsm.hasMcc(), gsm.getMcc());
+                fields[i++] = value(gsm.hasMnc(), gsm.getMnc());
+                fields[i++] = value(gsm.hasLac(), gsm.getLac());
+                fields[i++] = value(gsm.hasCi(), gsm.getCi());
+                fields[i++] = value(gsm.hasArfcn(), gsm.getArfcn());
+                fields[i++] = value(gsm.hasBsic(), gsm.getBsic());
+                return i;
+
+            case CDMA:
+                final CdmaRecordData cdma = ((CdmaRecord) record.cellularRecord).getData();
+                fields[i++] = cdma.getServingCell().getValue() ? 1 : 0;
+                fields[i++] = value(cdma.hasSid(), cdma.getSid());
+                fields[i++] = value(cdma.hasNid(), cdma.getNid());
+                fields[i++] = value(cdma.hasBsid(), cdma.getBsid());
+                return i;
+
+            case UMTS:
+                final UmtsRecordData umts = ((UmtsRecord) record.cellularRecord).getData();
+                fields[i++] = umts.getServingCell().getValue() ? 1 : 0;
+                fields[i++] = value(umts.hasMcc(), umts.getMcc());
+                fields[i++] = value(umts.hasMnc(), umts.getMnc());
+                fields[i++] = value(umts.hasLac(), umts.getLac());
+                fields[i++] = value(umts.hasCid(), umts.getCid());
+                fields[i++] = value(umts.hasUarfcn(), umts.getUarfcn());
+                fields[i++] = value(umts.hasPsc(), umts.getPsc());
+                return i;
+
+            case LTE:
+                final LteRecordData lte = ((LteRecord) record.cellularRecord).getData();
+                fields[i++] = lte.getServingCell().getValue() ? 1 : 0;
+                fields[i++] = value(lte.hasMcc(), lte.getMcc());
+                fields[i++] = value(lte.hasMnc(), lte.getMnc());
+                fields[i++] = value(lte.hasTac(), lte.getTac());
+                fields[i++] = value(lte.hasEci(), lte.getEci());
+                fields[i++] = value(lte.hasEarfcn(), lte.getEarfcn());
+                fields[i++] = value(lte.hasPci(), lte.getPci());
+                return i;
+
+            case NR:
+                final NrRecordData nr = ((NrRecord) record.cellularRecord).getData();
+                fields[i++] = nr.getServingCell().getValue() ? 1 : 0;
+                fields[i++] = value(nr.hasMcc(), nr.getMcc());
+                fields[i++] = value(nr.hasMnc(), nr.getMnc());
+                fields[i++] = value(nr.hasTac(), nr.getTac());
+                fields[i++] = nr.hasNci() ? nr.getNci().getValue() : MISSING;
+                fields[i++] = value(nr.hasNarfcn(), nr.getNarfcn());
+                fields[i++] = value(nr.hasPci(), nr.getPci());
+                return i;
+
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Copies the quantized measurements of the cell into the array.
+     *
+     * @param record The cellular record.
+     * @param fields The array to fill in, which must hold at least {@link #MAX_FIELDS} values.
+     * @return The number of fields that were filled in.
+     */
+    static int getMeasurements(CellularRecordWrapper record, long[] fields)
+    {
+        int i = 0;
+        switch (record.cellularProtocol)
+        {
+            case GSM:
+                final GsmRecordData gsm = ((GsmRecord) record.cellularRecord).getData();
+                fields[i++] = quantize(gsm.hasSignalStrength(), gsm.getSignalStrength());
+                fields[i++] = value(gsm.hasTa(), gsm.getTa());
+                return i;
+
+            case CDMA:
+                final CdmaRecordData cdma = ((CdmaRecord) record.cellularRecord).getData();
+                fields[i++] = quantize(cdma.hasSignalStrength(), cdma.getSignalStrength());
+                fields[i++] = quantize(cdma.hasEcio(), cdma.getEcio());
+                return i;
+
+            case UMTS:
+                final UmtsRecordData umts = ((UmtsRecord) record.cellularRecord).getData();
+                fields[i++] = quantize(umts.hasSignalStrength(), umts.getSignalStrength());
+                fields[i++] = quantize(umts.hasRscp(), umts.getRscp());
+                fields[i++] = quantize(umts.hasEcno(), umts.getEcno());
+                return i;
+
+            case LTE:
+                final LteRecordData lte = ((LteRecord) record.cellularRecord).getData();
+                fields[i++] = quantize(lte.hasSignalStrength(), lte.getSignalStrength());
+                fields[i++] = quantize(lte.hasRsrp(), lte.getRsrp());
+                fields[i++] = quantize(lte.hasRsrq(), lte.getRsrq());
+                fields[i++] = quantize(lte.hasSnr(), lte.getSnr());
+                fields[i++] = value(lte.hasCqi(), lte.getCqi());
+                fields[i++] = value(lte.hasTa(), lte.getTa());
+                return i;
+
+            case NR:
+                final NrRecordData nr = ((NrRecord) record.cellularRecord).getData();
+                fields[i++] = quantize(nr.hasSsRsrp(), nr.getSsRsrp());
+                fields[i++] = quantize(nr.hasSsRsrq(), nr.getSsRsrq());
+                fields[i++] = quantize(nr.hasSsSinr(), nr.getSsSinr());
+                fields[i++] = quantize(nr.hasCsiRsrp(), nr.getCsiRsrp());
+                fields[i++] = quantize(nr.hasCsiRsrq(), nr.getCsiRsrq());
+                fields[i++] = quantize(nr.hasCsiSinr(), nr.getCsiSinr());
+                fields[i++] = value(nr.hasTa(), nr.getTa());
+                return i;
+
+            default:
+                return i;
+        }
+    }
+
+    private static long value(boolean has, Int32Value value)
+    {
+        return has ? value.getValue() : MISSING;
+    }
+
+    private static long quantize(boolean has, FloatValue value)
+    {
+        return has ? Math.round(value.getValue() / MEASUREMENT_STEP_DB) : MISSING;
+    }
+
+    /**
+     * @return The map key for the cell identity. Different cells can end up with the same key, so the
+     * identity fields are compared as well when an entry is found.
+     */
+    long getIdentityKey(long[] identity, int length)
+    {
+        long key = 0;
+        for (int i = 0; i < length; i++)
+        {
+            key = mix(key, identity[i]);
+        }
+        return key;
+    }
+
+    private static boolean matches(long[] saved, long[] current, int length)
+    {
+        if (saved == null || saved.length != length) return false;
+
+        for (int i = 0; i < length; i++)
+        {
+            if (saved[i] != current[i]) return false;
+        }
+        return true;
+    }
+
+    private static long mix(long hash, long value)
+    {
+        long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
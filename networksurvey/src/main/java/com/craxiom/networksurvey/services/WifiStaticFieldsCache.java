@@ -0,0 +1,235 @@
+package com.craxiom.networksurvey.services;
+
+import android.net.wifi.ScanResult;
+
+import com.craxiom.messaging.WifiBeaconRecordData;
+import com.craxiom.messaging.wifi.EncryptionType;
+import com.craxiom.messaging.wifi.Standard;
+import com.craxiom.messaging.wifi.WifiBandwidth;
+import com.craxiom.networksurvey.constants.WifiBeaconMessageConstants;
+import com.craxiom.networksurvey.util.WifiUtils;
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.Int32Value;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A per-BSSID cache of the parts of a Wi-Fi beacon record that don't change from scan to scan (the
+ * SSID, the values parsed from the capabilities string, the channel, standard, bandwidth, etc).
+ * <p>
+ * The same access points show up in every scan, so instead of re-parsing the capabilities string
+ * and rebuilding the static fields for hundreds of APs every few seconds, they are built once into a
+ * template record. Each scan then only needs to copy the template and fill in the dynamic fields
+ * (e.g. the signal strength, time, and location).
+ * <p>
+ * An entry is keyed by the BSSID and is only reused if the hash of the capabilities string and all
+ * the other inputs still match; otherwise it is rebuilt. The cache is bounded and evicts the least
+ * recently seen AP.
+ * <p>
+ * This class is thread safe.
+ *
+ * @since 1.43
+ */
+public class WifiStaticFieldsCache
+{
+    static final int MAX_ENTRIES = 2048;
+
+    private final Map<String, StaticFields> cache = new LinkedHashMap<>(256, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StaticFields> eldest)
+        {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * The static fields for a single AP.
+     */
+    public static class StaticFields
+    {
+        /**
+         * A partially built record that has all the static fields set.
+         */
+        public final WifiBeaconRecordData template;
+        /**
+         * The center channel for the AP's channel and bandwidth, or the channel if no conversion is needed.
+         */
+        public final int centerChannel;
+        /**
+         * The capabilities string from the first time the AP was seen. Reusing this instance lets the
+         * records for the same AP share one string instead of holding a copy per scan.
+         */
+        public final String capabilities;
+
+        private final String ssid;
+        private final int capabilitiesHash;
+        private final int frequency;
+        private final int channelWidth;
+        private final int wifiStandard;
+        private final boolean passpoint;
+
+        StaticFields(WifiBeaconRecordData template, int centerChannel, String ssid, String capabilities,
+                     int frequency, int channelWidth, int wifiStandard, boolean passpoint)
+        {
+            this.template = template;
+            this.centerChannel = centerChannel;
+            this.ssid = ssid;
+            this.capabilities = capabilities;
+            this.capabilitiesHash = capabilities == null ? 0 : capabilities.hashCode();
+            this.frequency = frequency;
+            this.channelWidth = channelWidth;
+            this.wifiStandard = wifiStandard;
+            this.passpoint = passpoint;
+        }
+
+        private boolean matches(String ssid, String capabilities, int frequency, int channelWidth,
+                                int wifiStandard, boolean passpoint)
+        {
+            return this.frequency == frequency
+                    && this.channelWidth == channelWidth
+                    && this.wifiStandard == wifiStandard
+                    && this.passpoint == passpoint
+                    && capabilitiesHash == (capabilities == null ? 0 : capabilities.hashCode())
+                    && Objects.equals(this.capabilities, capabilities)
+                    && Objects.equals(this.ssid, ssid);
+        }
+    }
+
+    /**
+     * Returns the static fields for the AP, building them only if the AP has not been seen before or
+     * if any of the static inputs changed since it was last seen.
+     *
+     * @param bssid        The BSSID of the AP.
+     * @param ssid         The SSID of the AP, can be null.
+     * @param capabilities The {@link ScanResult#capabilities} string, can be null.
+     * @param frequency    The primary frequency in MHz.
+     * @param channelWidth The {@link ScanResult#channelWidth} value.
+     * @param wifiStandard The {@link ScanResult#getWifiStandard()} value, or
+     *                     {@link ScanResult#WIFI_STANDARD_UNKNOWN} if it is not available.
+     * @param passpoint    True if the AP is a Passpoint network.
+     * @return The static fields for the AP.
+     */
+    public synchronized StaticFields get(String bssid, String ssid, String capabilities, int frequency,
+                                         int channelWidth, int wifiStandard, boolean passpoint)
+    {
+        StaticFields fields = cache.get(bssid);
+        if (fields != null && fields.matches(ssid, capabilities, frequency, channelWidth, wifiStandard, passpoint))
+        {
+            hitCount++;
+            return fields;
+        }
+
+        missCount++;
+        fields = build(bssid, ssid, capabilities, frequency, channelWidth, wifiStandard, passpoint);
+        cache.put(bssid, fields);
+        return fields;
+    }
+
+    public synchronized int size()
+    {
+        return cache.size();
+    }
+
+    public synchronized long getHitCount()
+    {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount()
+    {
+        return missCount;
+    }
+
+    public synchronized void clear()
+    {
+        cache.clear();
+    }
+
+    private static StaticFields build(String bssid, String ssid, String capabilities, int frequency,
+                                      int channelWidth, int wifiStandard, boolean passpoint)
+    {
+        final WifiBeaconRecordData.Builder dataBuilder = WifiBeaconRecordData.newBuilder();
+
+        dataBuilder.setBssid(bssid);
+        if (ssid != null) dataBuilder.setSsid(ssid);
+
+        final short channel = WifiBeaconMessageConstants.convertFrequencyToChannelNumber(frequency);
+        if (channel != -1)
+        {
+            dataBuilder.setChannel(Int32Value.newBuilder().setValue(channel).build());
+        }
+
+        if (frequency != -1 && frequency != 0)
+        {
+            dataBuilder.setFrequencyMhz(Int32Value.newBuilder().setValue(frequency).build());
+        }
+
+        if (capabilities != null && !capabilities.isEmpty())
+        {
+            final EncryptionType encryptionType = WifiUtils.getEncryptionType(capabilities);
+            if (encryptionType != EncryptionType.UNKNOWN)
+            {
+                dataBuilder.setEncryptionType(encryptionType);
+            }
+
+            dataBuilder.setWps(BoolValue.newBuilder().setValue(WifiUtils.supportsWps(capabilities)).build());
+        }
+
+        if (passpoint)
+        {
+            dataBuilder.setPasspoint(BoolValue.newBuilder().setValue(true).build());
+        }
+
+        final Standard standard = getStandard(wifiStandard);
+        if (standard != Standard.UNKNOWN) dataBuilder.setStandard(standard);
+
+        final WifiBandwidth bandwidth = getBandwidth(channelWidth);
+        if (bandwidth != WifiBandwidth.UNKNOWN) dataBuilder.setBandwidth(bandwidth);
+
+        final int centerChannel = channel == -1 ? -1 : WifiUtils.getCenterChannel(channel, bandwidth, frequency);
+
+        return new StaticFields(dataBuilder.build(), centerChannel, ssid, capabilities, frequency, channelWidth,
+                wifiStandard, passpoint);
+    }
+
+    /**
+     * @return The protobuf Wi-Fi standard for the Android Wi-Fi standard value.
+     * @noinspection DuplicateBranchesInSwitch
+     */
+    static Standard getStandard(int androidWifiStandard)
+    {
+        return switch (androidWifiStandard)
+        {
+            case ScanResult.WIFI_STANDARD_UNKNOWN, ScanResult.WIFI_STANDARD_LEGACY,
+                 ScanResult.WIFI_STANDARD_11AD -> Standard.UNKNOWN;
+            case ScanResult.WIFI_STANDARD_11N -> Standard.IEEE80211N;
+            case ScanResult.WIFI_STANDARD_11AC -> Standard.IEEE80211AC;
+            case ScanResult.WIFI_STANDARD_11AX -> Standard.IEEE80211AX;
+            case ScanResult.WIFI_STANDARD_11BE -> Standard.IEEE80211BE;
+            default -> Standard.UNKNOWN;
+        };
+    }
+
+    /**
+     * @return The protobuf Wi-Fi bandwidth for the Android channel width value.
+     */
+    static WifiBandwidth getBandwidth(int androidWifiBandwidth)
+    {
+        return switch (androidWifiBandwidth)
+        {
+            case ScanResult.CHANNEL_WIDTH_20MHZ -> WifiBandwidth.MHZ_20;
+            case ScanResult.CHANNEL_WIDTH_40MHZ -> WifiBandwidth.MHZ_40;
+            case ScanResult.CHANNEL_WIDTH_80MHZ -> WifiBandwidth.MHZ_80;
+            case ScanResult.CHANNEL_WIDTH_80MHZ_PLUS_MHZ -> WifiBandwidth.MHZ_80_PLUS;
+            case ScanResult.CHANNEL_WIDTH_160MHZ -> WifiBandwidth.MHZ_160;
+            case ScanResult.CHANNEL_WIDTH_320MHZ -> WifiBandwidth.MHZ_320;
+            default -> WifiBandwidth.UNKNOWN;
+        };
+    }
+}
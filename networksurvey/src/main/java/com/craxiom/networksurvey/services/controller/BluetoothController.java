@@ -17,6 +17,7 @@ import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.widget.Toast;
 
 import androidx.core.app.ActivityCompat;
@@ -26,15 +27,14 @@ import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
 import com.craxiom.networksurvey.logging.BluetoothCsvLogger;
 import com.craxiom.networksurvey.logging.BluetoothSurveyRecordLogger;
 import com.craxiom.networksurvey.model.LogTypeState;
+import com.craxiom.networksurvey.services.AdaptiveScanScheduler;
 import com.craxiom.networksurvey.services.NetworkSurveyService;
 import com.craxiom.networksurvey.services.SurveyRecordProcessor;
 import com.craxiom.networksurvey.util.PreferenceUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -74,19 +74,7 @@ public class BluetoothController extends AController
     private final ScheduledThreadPoolExecutor bluetoothScanExecutor = new ScheduledThreadPoolExecutor(1);
     private ScheduledFuture<?> bluetoothScanFuture;
     private volatile ScanPhase currentScanPhase = ScanPhase.IDLE;
-    private final Map<String, DeviceInfo> recentDevices = new HashMap<>();
-
-    private static class DeviceInfo
-    {
-        final long lastSeenTime;
-        final int lastRssi;
-
-        DeviceInfo(long lastSeenTime, int lastRssi)
-        {
-            this.lastSeenTime = lastSeenTime;
-            this.lastRssi = lastRssi;
-        }
-    }
+    private final BluetoothDeduplicator deduplicator = new BluetoothDeduplicator(DUPLICATE_WINDOW_MS, RSSI_CHANGE_THRESHOLD);
 
     private final Handler serviceHandler;
     private final SurveyRecordProcessor surveyRecordProcessor;
@@ -145,10 +133,7 @@ public class BluetoothController extends AController
             bluetoothScanCallback = null;
 
             // Clear recent devices to free memory
-            synchronized (recentDevices)
-            {
-                recentDevices.clear();
-            }
+            deduplicator.clear();
 
             super.onDestroy();
         }
@@ -205,14 +190,16 @@ public class BluetoothController extends AController
 
     /**
      * Called to indicate that the BT scan rate preference changed, which should trigger a
-     * re-read of the preference.
+     * re-read of the preference. This is also called when the {@link AdaptiveScanScheduler} changes
+     * state, since the preference value is adjusted for the current motion and battery state.
      */
     public void refreshScanRate()
     {
         if (surveyService == null) return;
 
-        bluetoothScanRateMs = PreferenceUtils.getScanRatePreferenceMs(NetworkSurveyConstants.PROPERTY_BLUETOOTH_SCAN_INTERVAL_SECONDS,
+        final int configuredScanRateMs = PreferenceUtils.getScanRatePreferenceMs(NetworkSurveyConstants.PROPERTY_BLUETOOTH_SCAN_INTERVAL_SECONDS,
                 NetworkSurveyConstants.DEFAULT_BLUETOOTH_SCAN_INTERVAL_SECONDS, surveyService.getApplicationContext());
+        bluetoothScanRateMs = surveyService.getAdaptiveScanScheduler().getIntervalMs(AdaptiveScanScheduler.Technology.BLUETOOTH, configuredScanRateMs);
     }
 
     /**
@@ -655,6 +642,16 @@ public class BluetoothController extends AController
         return isEnabled;
     }
 
+    /**
+     * @return The engine that filters out duplicate Bluetooth sightings. It can be used to change the
+     * duplicate rules or to read the logged and dropped counts.
+     * @since 1.43
+     */
+    public BluetoothDeduplicator getDeduplicator()
+    {
+        return deduplicator;
+    }
+
     /**
      * Determines if a device should be logged based on duplicate filtering.
      * A device is logged if:
@@ -665,45 +662,13 @@ public class BluetoothController extends AController
      * @param device The Bluetooth device
      * @param rssi   The current RSSI value
      * @return true if the device should be logged, false otherwise
+     * @see BluetoothDeduplicator
      */
     private boolean shouldLogDevice(BluetoothDevice device, int rssi)
     {
         if (device == null || device.getAddress() == null) return false;
 
-        String address = device.getAddress();
-        long currentTime = System.currentTimeMillis();
-
-        synchronized (recentDevices)
-        {
-            DeviceInfo oldInfo = recentDevices.get(address);
-
-            if (oldInfo == null)
-            {
-                // New device - log it
-                recentDevices.put(address, new DeviceInfo(currentTime, rssi));
-                return true;
-            }
-
-            // Check if enough time has passed or RSSI changed significantly
-            long timeSinceLastSeen = currentTime - oldInfo.lastSeenTime;
-            int rssiDiff = Math.abs(rssi - oldInfo.lastRssi);
-            boolean shouldLog = (timeSinceLastSeen > DUPLICATE_WINDOW_MS) ||
-                    (rssiDiff > RSSI_CHANGE_THRESHOLD);
-
-            if (shouldLog)
-            {
-                recentDevices.put(address, new DeviceInfo(currentTime, rssi));
-            }
-
-            // Clean up old entries to prevent memory growth
-            if (recentDevices.size() > 100)
-            {
-                recentDevices.entrySet().removeIf(entry ->
-                        currentTime - entry.getValue().lastSeenTime > DUPLICATE_WINDOW_MS * 2);
-            }
-
-            return shouldLog;
-        }
+        return deduplicator.shouldLog(device.getAddress(), rssi, SystemClock.elapsedRealtime());
     }
 
     /**
@@ -819,7 +784,9 @@ public class BluetoothController extends AController
             if (bluetoothLeScanner != null)
             {
                 bluetoothLeScanner.stopScan(bluetoothScanCallback);
-                Timber.d("Stopped BLE scanning");
+                Timber.d("Stopped BLE scanning; dedup tracking %d devices, logged=%d, dropped=%d, expired=%d",
+                        deduplicator.size(), deduplicator.getLoggedCount(), deduplicator.getDroppedCount(),
+                        deduplicator.getExpiredCount());
             }
         }
     }
@@ -0,0 +1,345 @@
+package com.craxiom.networksurvey.services.controller;
+
+import java.util.Arrays;
+
+/**
+ * Decides if a Bluetooth sighting should be logged or dropped as a duplicate of a recent sighting of
+ * the same device. A sighting is logged if:
+ * - It's a new device (or the device's previous entry has expired)
+ * - The device was last logged more than the duplicate window ago
+ * - Its RSSI changed by more than the RSSI change threshold since it was last logged
+ * <p>
+ * The devices are tracked in an open addressing hash table keyed by the 48-bit MAC address packed
+ * into a {@code long}, so recording a sighting does not allocate. Entries are expired with a time
+ * wheel: each entry is placed in the bucket for the tick it was logged in, and when the wheel comes
+ * back around to that bucket the entries in it are removed. This keeps the cleanup cost proportional
+ * to the number of expiring entries instead of scanning the whole table on every sighting.
+ * <p>
+ * Since an entry that is older than the duplicate window would be logged anyway, entries are expired
+ * once they are older than the window.
+ * <p>
+ * This class is thread safe.
+ *
+ * @since 1.43
+ */
+public class BluetoothDeduplicator
+{
+    private static final long EMPTY = -1L;
+    private static final int INITIAL_CAPACITY = 256; // Must be a power of 2
+    private static final int WHEEL_SLOTS = 16;
+
+    // The hash table, keys are the packed MAC addresses or EMPTY
+    private long[] keys;
+    private long[] lastLoggedTimes;
+    private int[] lastRssis;
+    private int size;
+
+    // The time wheel, each bucket holds the keys of the entries logged during that tick. A key can be
+    // stale if the entry was logged again later, in which case it is skipped when the bucket expires.
+    private final long[][] wheelKeys = new long[WHEEL_SLOTS + 1][];
+    private final int[] wheelSizes = new int[WHEEL_SLOTS + 1];
+    private long currentTick = Long.MIN_VALUE;
+
+    private long duplicateWindowMs;
+    private int rssiChangeThreshold;
+    private long tickMs;
+
+    private long loggedCount;
+    private long droppedCount;
+    private long expiredCount;
+
+    /**
+     * @param duplicateWindowMs   A device is logged again once this much time has passed since it was last logged.
+     * @param rssiChangeThreshold A device is logged again if the RSSI changed by more than this many dBm.
+     */
+    public BluetoothDeduplicator(long duplicateWindowMs, int rssiChangeThreshold)
+    {
+        for (int i = 0; i < wheelKeys.length; i++)
+        {
+            wheelKeys[i] = new long[16];
+        }
+        allocateTable(INITIAL_CAPACITY);
+        configure(duplicateWindowMs, rssiChangeThreshold);
+    }
+
+    /**
+     * Updates the rules used to determine if a sighting is a duplicate. Any devices that are being
+     * tracked are cleared, so the next sighting of each device will be logged.
+     */
+    public synchronized void configure(long duplicateWindowMs, int rssiChangeThreshold)
+    {
+        if (duplicateWindowMs <= 0) throw new IllegalArgumentException("The duplicate window must be positive");
+        if (rssiChangeThreshold < 0) throw new IllegalArgumentException("The RSSI change threshold can't be negative");
+
+        this.duplicateWindowMs = duplicateWindowMs;
+        this.rssiChangeThreshold = rssiChangeThreshold;
+        tickMs = (duplicateWindowMs + WHEEL_SLOTS - 1) / WHEEL_SLOTS;
+        clear();
+    }
+
+    /**
+     * Records a sighting of a device and returns if it should be logged.
+     *
+     * @param address The MAC address of the device in the form "AA:BB:CC:DD:EE:FF".
+     * @param rssi    The RSSI of the sighting.
+     * @param nowMs   The current time from a monotonic clock (e.g. {@code SystemClock.elapsedRealtime()}).
+     * @return True if the device should be logged, false if this sighting is a duplicate.
+     */
+    public boolean shouldLog(String address, int rssi, long nowMs)
+    {
+        final long mac = macToLong(address);
+        if (mac == EMPTY) return false;
+        return shouldLog(mac, rssi, nowMs);
+    }
+
+    /**
+     * Same as {@link #shouldLog(String, int, long)}, but takes the MAC address already packed into
+     * the lower 48 bits of a long.
+     */
+    public synchronized boolean shouldLog(long mac, int rssi, long nowMs)
+    {
+        advanceWheel(nowMs);
+
+        int slot = findSlot(mac);
+        if (keys[slot] != EMPTY)
+        {
+            final boolean shouldLog = nowMs - lastLoggedTimes[slot] > duplicateWindowMs
+                    || Math.abs(rssi - lastRssis[slot]) > rssiChangeThreshold;
+            if (!shouldLog)
+            {
+                droppedCount++;
+                return false;
+            }
+        } else
+        {
+            if ((size + 1) * 2 > keys.length)
+            {
+                resize(keys.length * 2);
+                slot = findSlot(mac);
+            }
+            keys[slot] = mac;
+            size++;
+        }
+
+        lastLoggedTimes[slot] = nowMs;
+        lastRssis[slot] = rssi;
+        addToWheel(mac, nowMs / tickMs);
+        loggedCount++;
+        return true;
+    }
+
+    /**
+     * Removes all the tracked devices. The counters are not reset.
+     */
+    public synchronized void clear()
+    {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        Arrays.fill(wheelSizes, 0);
+        currentTick = Long.MIN_VALUE;
+    }
+
+    /**
+     * @return The number of devices currently being tracked.
+     */
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return The number of sightings that were passed through to be logged.
+     */
+    public synchronized long getLoggedCount()
+    {
+        return loggedCount;
+    }
+
+    /**
+     * @return The number of sightings that were dropped as duplicates.
+     */
+    public synchronized long getDroppedCount()
+    {
+        return droppedCount;
+    }
+
+    /**
+     * @return The number of tracked devices that were removed because they expired.
+     */
+    public synchronized long getExpiredCount()
+    {
+        return expiredCount;
+    }
+
+    /**
+     * Packs a MAC address string of the form "AA:BB:CC:DD:EE:FF" (or with '-' separators) into the
+     * lower 48 bits of a long without allocating.
+     *
+     * @return The packed address, or -1 if the address is not valid.
+     */
+    public static long macToLong(String address)
+    {
+        if (address == null || address.length() != 17) return EMPTY;
+
+        long mac = 0;
+        for (int i = 0; i < 17; i++)
+        {
+            final char c = address.charAt(i);
+            if (i % 3 == 2)
+            {
+                if (c != ':' && c != '-') return EMPTY;
+                continue;
+            }
+
+            final int nibble = Character.digit(c, 16);
+            if (nibble < 0) return EMPTY;
+            mac = (mac << 4) | nibble;
+        }
+        return mac;
+    }
+
+    /**
+     * Moves the time wheel forward to the tick for the provided time, expiring the entries in each
+     * bucket that is passed over.
+     */
+    private void advanceWheel(long nowMs)
+    {
+        final long nowTick = nowMs / tickMs;
+        if (currentTick == Long.MIN_VALUE)
+        {
+            currentTick = nowTick;
+            return;
+        }
+        if (nowTick <= currentTick) return;
+
+        if (nowTick - currentTick > WHEEL_SLOTS)
+        {
+            // Everything in the wheel is older than the window
+            expiredCount += size;
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            Arrays.fill(wheelSizes, 0);
+            currentTick = nowTick;
+            return;
+        }
+
+        while (currentTick < nowTick)
+        {
+            currentTick++;
+            expireBucket(currentTick);
+        }
+    }
+
+    /**
+     * Expires the entries in the bucket that is about to be reused for the provided tick. The bucket
+     * holds the entries logged during {@code tick - WHEEL_SLOTS - 1}, which are all at least a full
+     * window old.
+     */
+    private void expireBucket(long tick)
+    {
+        final int bucket = bucketIndex(tick);
+        final long expiringTick = tick - wheelKeys.length;
+        final long[] bucketKeys = wheelKeys[bucket];
+        final int bucketSize = wheelSizes[bucket];
+        wheelSizes[bucket] = 0;
+
+        for (int i = 0; i < bucketSize; i++)
+        {
+            final int slot = findSlot(bucketKeys[i]);
+            // Skip the key if it was already removed or if the device was logged again since
+            if (keys[slot] == EMPTY || lastLoggedTimes[slot] / tickMs != expiringTick) continue;
+
+            removeSlot(slot);
+            expiredCount++;
+        }
+    }
+
+    private void addToWheel(long mac, long tick)
+    {
+        final int bucket = bucketIndex(tick);
+        long[] bucketKeys = wheelKeys[bucket];
+        if (wheelSizes[bucket] == bucketKeys.length)
+        {
+            bucketKeys = Arrays.copyOf(bucketKeys, bucketKeys.length * 2);
+            wheelKeys[bucket] = bucketKeys;
+        }
+        bucketKeys[wheelSizes[bucket]++] = mac;
+    }
+
+    private int bucketIndex(long tick)
+    {
+        return (int) Math.floorMod(tick, (long) wheelKeys.length);
+    }
+
+    /**
+     * @return The slot that contains the provided key, or the empty slot where it should be inserted.
+     */
+    private int findSlot(long mac)
+    {
+        final int mask = keys.length - 1;
+        int slot = hash(mac) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != mac)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the entry in the provided slot using backward shift deletion so that no tombstones
+     * are needed for the linear probing.
+     */
+    private void removeSlot(int slot)
+    {
+        final int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY)
+        {
+            final int home = hash(keys[next]) & mask;
+            // Move the entry into the hole if the hole is between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask))
+            {
+                keys[hole] = keys[next];
+                lastLoggedTimes[hole] = lastLoggedTimes[next];
+                lastRssis[hole] = lastRssis[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    private void resize(int newCapacity)
+    {
+        final long[] oldKeys = keys;
+        final long[] oldTimes = lastLoggedTimes;
+        final int[] oldRssis = lastRssis;
+
+        allocateTable(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] == EMPTY) continue;
+            final int slot = findSlot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            lastLoggedTimes[slot] = oldTimes[i];
+            lastRssis[slot] = oldRssis[i];
+        }
+    }
+
+    private void allocateTable(int capacity)
+    {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        lastLoggedTimes = new long[capacity];
+        lastRssis = new int[capacity];
+    }
+
+    private static int hash(long mac)
+    {
+        // The lower bits of a MAC are often sequential for a vendor, so mix all the bits together
+        long h = mac * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
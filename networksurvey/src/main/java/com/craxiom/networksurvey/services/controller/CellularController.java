@@ -44,6 +44,7 @@ import com.craxiom.networksurvey.logging.PhoneStateCsvLogger;
 import com.craxiom.networksurvey.logging.PhoneStateRecordLogger;
 import com.craxiom.networksurvey.logging.UmtsCsvLogger;
 import com.craxiom.networksurvey.model.LogTypeState;
+import com.craxiom.networksurvey.services.AdaptiveScanScheduler;
 import com.craxiom.networksurvey.services.NetworkSurveyService;
 import com.craxiom.networksurvey.services.SurveyRecordProcessor;
 import com.craxiom.networksurvey.util.CalculationUtils;
@@ -253,14 +254,16 @@ public class CellularController extends AController
 
     /**
      * Called to indicate that the cellular scan rate preference changed, which should trigger a
-     * re-read of the preference.
+     * re-read of the preference. This is also called when the {@link AdaptiveScanScheduler} changes
+     * state, since the preference value is adjusted for the current motion and battery state.
      */
     public void refreshScanRate()
     {
         if (surveyService == null) return;
 
-        cellularScanRateMs = PreferenceUtils.getScanRatePreferenceMs(NetworkSurveyConstants.PROPERTY_CELLULAR_SCAN_INTERVAL_SECONDS,
+        final int configuredScanRateMs = PreferenceUtils.getScanRatePreferenceMs(NetworkSurveyConstants.PROPERTY_CELLULAR_SCAN_INTERVAL_SECONDS,
                 NetworkSurveyConstants.DEFAULT_CELLULAR_SCAN_INTERVAL_SECONDS, surveyService.getApplicationContext());
+        cellularScanRateMs = surveyService.getAdaptiveScanScheduler().getIntervalMs(AdaptiveScanScheduler.Technology.CELLULAR, configuredScanRateMs);
     }
 
     /**
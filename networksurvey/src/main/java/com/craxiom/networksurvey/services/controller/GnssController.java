@@ -18,6 +18,7 @@ import com.craxiom.networksurvey.listeners.IGnssFailureListener;
 import com.craxiom.networksurvey.logging.GnssCsvLogger;
 import com.craxiom.networksurvey.logging.GnssRecordLogger;
 import com.craxiom.networksurvey.model.LogTypeState;
+import com.craxiom.networksurvey.services.AdaptiveScanScheduler;
 import com.craxiom.networksurvey.services.NetworkSurveyService;
 import com.craxiom.networksurvey.services.SurveyRecordProcessor;
 import com.craxiom.networksurvey.util.GpsTestUtil;
@@ -211,15 +212,17 @@ public class GnssController extends AController
 
     /**
      * Called to indicate that the GNSS scan rate preference changed, which should trigger a
-     * re-read of the preference.
+     * re-read of the preference. This is also called when the {@link AdaptiveScanScheduler} changes
+     * state, since the preference value is adjusted for the current motion and battery state.
      */
     public void refreshScanRate()
     {
         if (surveyService == null) return;
 
         final int oldScanRateMs = gnssScanRateMs;
-        gnssScanRateMs = PreferenceUtils.getScanRatePreferenceMs(NetworkSurveyConstants.PROPERTY_GNSS_SCAN_INTERVAL_SECONDS,
+        final int configuredScanRateMs = PreferenceUtils.getScanRatePreferenceMs(NetworkSurveyConstants.PROPERTY_GNSS_SCAN_INTERVAL_SECONDS,
                 NetworkSurveyConstants.DEFAULT_GNSS_SCAN_INTERVAL_SECONDS, surveyService.getApplicationContext());
+        gnssScanRateMs = surveyService.getAdaptiveScanScheduler().getIntervalMs(AdaptiveScanScheduler.Technology.GNSS, configuredScanRateMs);
         
         // If scanning is active and the rate has changed, restart scanning to apply the new rate
         if (gnssStarted.get() && oldScanRateMs != gnssScanRateMs)
@@ -21,6 +21,7 @@ import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
 import com.craxiom.networksurvey.logging.WifiCsvLogger;
 import com.craxiom.networksurvey.logging.WifiSurveyRecordLogger;
 import com.craxiom.networksurvey.model.LogTypeState;
+import com.craxiom.networksurvey.services.AdaptiveScanScheduler;
 import com.craxiom.networksurvey.services.NetworkSurveyService;
 import com.craxiom.networksurvey.services.SurveyRecordProcessor;
 import com.craxiom.networksurvey.util.PreferenceUtils;
@@ -138,15 +139,17 @@ public class WifiController extends AController
 
     /**
      * Called to indicate that the Wi-Fi scan rate preference changed, which should trigger a
-     * re-read of the preference.
+     * re-read of the preference. This is also called when the {@link AdaptiveScanScheduler} changes
+     * state, since the preference value is adjusted for the current motion and battery state.
      */
     public void refreshScanRate()
     {
         if (surveyService == null) return;
 
         final int oldScanRateMs = wifiScanRateMs;
-        wifiScanRateMs = PreferenceUtils.getScanRatePreferenceMs(NetworkSurveyConstants.PROPERTY_WIFI_SCAN_INTERVAL_SECONDS,
+        final int configuredScanRateMs = PreferenceUtils.getScanRatePreferenceMs(NetworkSurveyConstants.PROPERTY_WIFI_SCAN_INTERVAL_SECONDS,
                 NetworkSurveyConstants.DEFAULT_WIFI_SCAN_INTERVAL_SECONDS, surveyService.getApplicationContext());
+        wifiScanRateMs = surveyService.getAdaptiveScanScheduler().getIntervalMs(AdaptiveScanScheduler.Technology.WIFI, configuredScanRateMs);
         
         // If scanning is active and the rate has changed, restart scanning to apply the new rate
         if (wifiScanningActive.get() && oldScanRateMs != wifiScanRateMs)
@@ -0,0 +1,322 @@
+package com.craxiom.networksurvey.towerlocation;
+
+import java.util.List;
+
+/**
+ * Fits a tower location to the binned measurements of a cell using a log-distance path loss model:
+ * <pre>
+ *     signal = A - 10 * n * log10(distance)
+ * </pre>
+ * The location is found with Levenberg-Marquardt. For each candidate location the reference power (A) and the path loss
+ * exponent (n) have a closed form least squares fit, so only the two location parameters are searched; n is kept to a
+ * physically sensible range so that a poorly constrained fit can't run off to a far away tower with a huge exponent.
+ * Timing advance ranges, when there are any, are added as range residuals.
+ * <p>
+ * The uncertainty comes from the covariance of the fit, scaled by the residual error, and is the radius of a circle
+ * with about a 95% chance of containing the tower. A drive along a single straight road can't tell which side of the
+ * road the tower is on, so when another start ends in a minimum that fits about as well, the circle is grown to cover
+ * it, which gives a large uncertainty rather than a wrong but confident answer.
+ */
+final class PathLossSolver
+{
+    static final double SIGNAL_SIGMA_DB = 6;
+    static final double SHADOWING_DECORRELATION_METERS = 50;
+    static final double MIN_PATH_LOSS_EXPONENT = 2;
+    static final double MAX_PATH_LOSS_EXPONENT = 5;
+
+    private static final double MIN_DISTANCE_METERS = 10;
+    private static final int MAX_ITERATIONS = 50;
+    private static final double CONVERGED_STEP_METERS = 0.1;
+    private static final double JACOBIAN_STEP_METERS = 1;
+    private static final double MAX_DAMPING = 1e8;
+    // The radius of a 95% circle is sqrt(chi-squared(2 degrees of freedom, 0.95)) standard deviations
+    private static final double CONFIDENCE_SCALE = Math.sqrt(5.991);
+
+    private PathLossSolver()
+    {
+    }
+
+    static final class Solution
+    {
+        final double x;
+        final double y;
+        final double uncertaintyMeters;
+        final double pathLossExponent;
+        final double referencePowerDbm;
+
+        Solution(double x, double y, double uncertaintyMeters, double pathLossExponent, double referencePowerDbm)
+        {
+            this.x = x;
+            this.y = y;
+            this.uncertaintyMeters = uncertaintyMeters;
+            this.pathLossExponent = pathLossExponent;
+            this.referencePowerDbm = referencePowerDbm;
+        }
+    }
+
+    /**
+     * @param bins             The binned measurements, in meters east and north of the cell's origin.
+     * @param starts           The locations to start the search from, as {x, y} pairs. The search is run from each one
+     *                         and the best fit is kept, since the cost surface can have more than one minimum.
+     * @param rangeSigmaMeters The standard deviation of a timing advance range.
+     * @param binSizeMeters    The size of the bins, which sets how correlated the shadowing of neighboring bins is.
+     * @return The fit, or null if there are too few measurements or the fit is degenerate.
+     */
+    static Solution solve(List<TowerObservations.Bin> bins, List<double[]> starts, double rangeSigmaMeters,
+                          double binSizeMeters)
+    {
+        final int binCount = bins.size();
+        final double[] binX = new double[binCount];
+        final double[] binY = new double[binCount];
+        final double[] signal = new double[binCount];
+        final double[] range = new double[binCount];
+        int rangeCount = 0;
+        for (int i = 0; i < binCount; i++)
+        {
+            final TowerObservations.Bin bin = bins.get(i);
+            binX[i] = bin.x();
+            binY[i] = bin.y();
+            signal[i] = bin.signal();
+            range[i] = bin.range();
+            if (!Double.isNaN(range[i])) rangeCount++;
+        }
+
+        final Model model = new Model(binX, binY, signal, range, rangeCount, rangeSigmaMeters);
+        final int residualCount = binCount + rangeCount;
+        // Two location parameters, plus the reference power and the exponent
+        if (residualCount <= 4) return null;
+
+        final double[] residuals = new double[residualCount];
+        final double[] shifted = new double[residualCount];
+        final double[][] jacobian = new double[residualCount][2];
+
+        final double[][] fits = new double[starts.size()][];
+        double[] best = null;
+        for (int i = 0; i < fits.length; i++)
+        {
+            final double[] start = starts.get(i);
+            fits[i] = minimize(model, start[0], start[1], residuals, shifted, jacobian);
+            if (best == null || fits[i][2] < best[2]) best = fits[i];
+        }
+        if (best == null || !Double.isFinite(best[2])) return null;
+
+        final double x = best[0];
+        final double y = best[1];
+        final double cost = best[2];
+
+        // The covariance of the location is the inverse of J^T J, scaled by the residual variance when the fit is worse
+        // than the assumed measurement noise. The shadowing of neighboring bins is correlated, so there are fewer
+        // independent measurements than bins, which is accounted for by scaling up the covariance.
+        model.evaluate(x, y, residuals);
+        // An exponent at its limit means the signal alone can't say how far away the tower is (the fit would have
+        // moved the tower further if the exponent was allowed to follow), so the covariance would be overconfident
+        if (model.rangeCount == 0 && (model.pathLossExponent <= MIN_PATH_LOSS_EXPONENT
+                || model.pathLossExponent >= MAX_PATH_LOSS_EXPONENT))
+        {
+            return null;
+        }
+
+        computeJacobian(model, x, y, residuals, shifted, jacobian);
+        double a = 0;
+        double b = 0;
+        double d = 0;
+        for (int i = 0; i < residualCount; i++)
+        {
+            a += jacobian[i][0] * jacobian[i][0];
+            b += jacobian[i][0] * jacobian[i][1];
+            d += jacobian[i][1] * jacobian[i][1];
+        }
+        final double determinant = a * d - b * b;
+        if (!(determinant > 0)) return null;
+
+        final double scale = Math.max(1d, cost / (residualCount - 4))
+                * Math.max(1d, SHADOWING_DECORRELATION_METERS / binSizeMeters);
+        final double covarianceXx = d / determinant * scale;
+        final double covarianceYy = a / determinant * scale;
+        final double covarianceXy = -b / determinant * scale;
+        final double halfTrace = (covarianceXx + covarianceYy) / 2;
+        final double largestVariance = halfTrace + Math.sqrt(Math.pow((covarianceXx - covarianceYy) / 2, 2)
+                + covarianceXy * covarianceXy);
+        double uncertainty = CONFIDENCE_SCALE * Math.sqrt(largestVariance);
+        if (!Double.isFinite(uncertainty)) return null;
+
+        // Multipath makes the timing advance ranges long by an amount that does not average out over more measurements
+        if (model.rangeCount > 0) uncertainty = Math.hypot(uncertainty, rangeSigmaMeters);
+
+        // Another minimum that fits about as well (such as the mirror image across a straight road) is just as likely
+        // to be the tower, so the circle has to cover it too
+        double ambiguousUncertainty = uncertainty;
+        for (double[] fit : fits)
+        {
+            if ((fit[2] - cost) / scale < CONFIDENCE_SCALE * CONFIDENCE_SCALE)
+            {
+                ambiguousUncertainty = Math.max(ambiguousUncertainty,
+                        Math.hypot(fit[0] - x, fit[1] - y) + uncertainty);
+            }
+        }
+        uncertainty = ambiguousUncertainty;
+
+        return new Solution(x, y, uncertainty, model.pathLossExponent, model.referencePower);
+    }
+
+    /**
+     * Runs Levenberg-Marquardt from one starting location.
+     *
+     * @return The {x, y, cost} of the minimum that was found.
+     */
+    private static double[] minimize(Model model, double startX, double startY, double[] residuals,
+                                     double[] shifted, double[][] jacobian)
+    {
+        final int residualCount = residuals.length;
+        double x = startX;
+        double y = startY;
+        double cost = model.evaluate(x, y, residuals);
+        double damping = 1e-3;
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++)
+        {
+            computeJacobian(model, x, y, residuals, shifted, jacobian);
+
+            double a = 0;
+            double b = 0;
+            double d = 0;
+            double gx = 0;
+            double gy = 0;
+            for (int i = 0; i < residualCount; i++)
+            {
+                a += jacobian[i][0] * jacobian[i][0];
+                b += jacobian[i][0] * jacobian[i][1];
+                d += jacobian[i][1] * jacobian[i][1];
+                gx += jacobian[i][0] * residuals[i];
+                gy += jacobian[i][1] * residuals[i];
+            }
+
+            boolean improved = false;
+            double stepX = 0;
+            double stepY = 0;
+            while (damping <= MAX_DAMPING)
+            {
+                final double da = a * (1 + damping);
+                final double dd = d * (1 + damping);
+                final double determinant = da * dd - b * b;
+                if (determinant <= 0)
+                {
+                    damping *= 10;
+                    continue;
+                }
+                stepX = -(dd * gx - b * gy) / determinant;
+                stepY = -(da * gy - b * gx) / determinant;
+
+                final double newCost = model.evaluate(x + stepX, y + stepY, shifted);
+                if (newCost < cost)
+                {
+                    x += stepX;
+                    y += stepY;
+                    cost = newCost;
+                    System.arraycopy(shifted, 0, residuals, 0, residualCount);
+                    damping = Math.max(damping / 10, 1e-7);
+                    improved = true;
+                    break;
+                }
+                damping *= 10;
+            }
+
+            if (!improved || Math.hypot(stepX, stepY) < CONVERGED_STEP_METERS) break;
+        }
+
+        return new double[]{x, y, cost};
+    }
+
+    private static void computeJacobian(Model model, double x, double y, double[] residuals, double[] shifted,
+                                        double[][] jacobian)
+    {
+        model.evaluate(x + JACOBIAN_STEP_METERS, y, shifted);
+        for (int i = 0; i < residuals.length; i++)
+        {
+            jacobian[i][0] = (shifted[i] - residuals[i]) / JACOBIAN_STEP_METERS;
+        }
+        model.evaluate(x, y + JACOBIAN_STEP_METERS, shifted);
+        for (int i = 0; i < residuals.length; i++)
+        {
+            jacobian[i][1] = (shifted[i] - residuals[i]) / JACOBIAN_STEP_METERS;
+        }
+        // Leave the model fit at (x, y)
+        model.evaluate(x, y, shifted);
+    }
+
+    /**
+     * The residuals of the model for a candidate tower location. Evaluating a location also fits A and n for it.
+     */
+    private static final class Model
+    {
+        private final double[] binX;
+        private final double[] binY;
+        private final double[] signal;
+        private final double[] range;
+        private final int rangeCount;
+        private final double rangeSigmaMeters;
+        private final double[] logDistance;
+
+        double pathLossExponent;
+        double referencePower;
+
+        Model(double[] binX, double[] binY, double[] signal, double[] range, int rangeCount, double rangeSigmaMeters)
+        {
+            this.binX = binX;
+            this.binY = binY;
+            this.signal = signal;
+            this.range = range;
+            this.rangeCount = rangeCount;
+            this.rangeSigmaMeters = rangeSigmaMeters;
+            logDistance = new double[binX.length];
+        }
+
+        /**
+         * @return The sum of the squared residuals.
+         */
+        double evaluate(double x, double y, double[] residuals)
+        {
+            final int binCount = binX.length;
+            double sumU = 0;
+            double sumS = 0;
+            double sumUU = 0;
+            double sumUS = 0;
+            for (int i = 0; i < binCount; i++)
+            {
+                final double distance = Math.max(MIN_DISTANCE_METERS, Math.hypot(x - binX[i], y - binY[i]));
+                final double u = -10 * Math.log10(distance);
+                logDistance[i] = u;
+                sumU += u;
+                sumS += signal[i];
+                sumUU += u * u;
+                sumUS += u * signal[i];
+            }
+
+            final double denominator = binCount * sumUU - sumU * sumU;
+            double exponent = denominator > 1e-9 ? (binCount * sumUS - sumU * sumS) / denominator : 3;
+            exponent = Math.max(MIN_PATH_LOSS_EXPONENT, Math.min(MAX_PATH_LOSS_EXPONENT, exponent));
+            pathLossExponent = exponent;
+            referencePower = (sumS - exponent * sumU) / binCount;
+
+            double cost = 0;
+            int index = 0;
+            for (int i = 0; i < binCount; i++)
+            {
+                final double residual = (signal[i] - referencePower - exponent * logDistance[i]) / SIGNAL_SIGMA_DB;
+                residuals[index++] = residual;
+                cost += residual * residual;
+            }
+            if (rangeCount > 0)
+            {
+                for (int i = 0; i < binCount; i++)
+                {
+                    if (Double.isNaN(range[i])) continue;
+                    final double residual = (Math.hypot(x - binX[i], y - binY[i]) - range[i]) / rangeSigmaMeters;
+                    residuals[index++] = residual;
+                    cost += residual * residual;
+                }
+            }
+            return cost;
+        }
+    }
+}
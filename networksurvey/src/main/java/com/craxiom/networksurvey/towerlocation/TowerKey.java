@@ -0,0 +1,100 @@
+package com.craxiom.networksurvey.towerlocation;
+
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.GsmRecordData;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.NrRecordData;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.UmtsRecordData;
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+
+import java.util.Objects;
+
+/**
+ * Identifies one cell for the {@link TowerLocationEstimator}: the technology, the PLMN, the area (LAC or TAC), and the
+ * cell ID (CI, CID, ECI, or NCI).
+ *
+ * @since 1.43
+ */
+public final class TowerKey
+{
+    public final CellularProtocol protocol;
+    public final int mcc;
+    public final int mnc;
+    public final int area;
+    public final long cellId;
+
+    public TowerKey(CellularProtocol protocol, int mcc, int mnc, int area, long cellId)
+    {
+        this.protocol = protocol;
+        this.mcc = mcc;
+        this.mnc = mnc;
+        this.area = area;
+        this.cellId = cellId;
+    }
+
+    /**
+     * Gets the key for a cellular record that came from the survey record processor.
+     *
+     * @return The key, or null if the record is missing any of the identity fields (e.g. most neighbor records).
+     */
+    public static TowerKey fromRecord(CellularRecordWrapper record)
+    {
+        if (record == null || record.cellularRecord == null) return null;
+
+        switch (record.cellularProtocol)
+        {
+            case GSM:
+                final GsmRecordData gsmData = ((GsmRecord) record.cellularRecord).getData();
+                if (!gsmData.hasMcc() || !gsmData.hasMnc() || !gsmData.hasLac() || !gsmData.hasCi()) return null;
+                return new TowerKey(CellularProtocol.GSM, gsmData.getMcc().getValue(), gsmData.getMnc().getValue(),
+                        gsmData.getLac().getValue(), gsmData.getCi().getValue());
+
+            case UMTS:
+                final UmtsRecordData umtsData = ((UmtsRecord) record.cellularRecord).getData();
+                if (!umtsData.hasMcc() || !umtsData.hasMnc() || !umtsData.hasLac() || !umtsData.hasCid()) return null;
+                return new TowerKey(CellularProtocol.UMTS, umtsData.getMcc().getValue(), umtsData.getMnc().getValue(),
+                        umtsData.getLac().getValue(), umtsData.getCid().getValue());
+
+            case LTE:
+                final LteRecordData lteData = ((LteRecord) record.cellularRecord).getData();
+                if (!lteData.hasMcc() || !lteData.hasMnc() || !lteData.hasTac() || !lteData.hasEci()) return null;
+                return new TowerKey(CellularProtocol.LTE, lteData.getMcc().getValue(), lteData.getMnc().getValue(),
+                        lteData.getTac().getValue(), lteData.getEci().getValue());
+
+            case NR:
+                final NrRecordData nrData = ((NrRecord) record.cellularRecord).getData();
+                if (!nrData.hasMcc() || !nrData.hasMnc() || !nrData.hasTac() || !nrData.hasNci()) return null;
+                return new TowerKey(CellularProtocol.NR, nrData.getMcc().getValue(), nrData.getMnc().getValue(),
+                        nrData.getTac().getValue(), nrData.getNci().getValue());
+
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final TowerKey that = (TowerKey) o;
+        return mcc == that.mcc && mnc == that.mnc && area == that.area && cellId == that.cellId
+                && protocol == that.protocol;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(protocol, mcc, mnc, area, cellId);
+    }
+
+    @Override
+    public String toString()
+    {
+        return protocol + " " + mcc + "-" + mnc + "-" + area + "-" + cellId;
+    }
+}
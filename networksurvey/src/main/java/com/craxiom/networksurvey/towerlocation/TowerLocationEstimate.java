@@ -0,0 +1,71 @@
+package com.craxiom.networksurvey.towerlocation;
+
+/**
+ * An estimated tower location, computed from this device's own measurements of the cell.
+ *
+ * @since 1.43
+ */
+public final class TowerLocationEstimate
+{
+    /**
+     * How the location was estimated.
+     */
+    public enum Method
+    {
+        /**
+         * The signal weighted average of the measurement locations. It is always available, but it is pulled toward
+         * the roads that were driven.
+         */
+        WEIGHTED_CENTROID,
+
+        /**
+         * The location that best fits a log-distance path loss model (and the timing advance ranges when there are
+         * any) to the measurements.
+         */
+        PATH_LOSS
+    }
+
+    public final double latitude;
+    public final double longitude;
+
+    /**
+     * The radius around the location, in meters, that the tower is expected to be within (about 95% of the time).
+     */
+    public final double uncertaintyMeters;
+
+    public final Method method;
+
+    /**
+     * The number of measurements the estimate is based on.
+     */
+    public final long sampleCount;
+
+    /**
+     * The path loss exponent that was fit to the measurements, or NaN for a {@link Method#WEIGHTED_CENTROID} estimate.
+     */
+    public final double pathLossExponent;
+
+    TowerLocationEstimate(double latitude, double longitude, double uncertaintyMeters, Method method,
+                          long sampleCount, double pathLossExponent)
+    {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.uncertaintyMeters = uncertaintyMeters;
+        this.method = method;
+        this.sampleCount = sampleCount;
+        this.pathLossExponent = pathLossExponent;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TowerLocationEstimate{" +
+                "latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", uncertaintyMeters=" + uncertaintyMeters +
+                ", method=" + method +
+                ", sampleCount=" + sampleCount +
+                ", pathLossExponent=" + pathLossExponent +
+                '}';
+    }
+}
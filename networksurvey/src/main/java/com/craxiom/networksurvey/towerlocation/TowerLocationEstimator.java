@@ -0,0 +1,165 @@
+package com.craxiom.networksurvey.towerlocation;
+
+import com.craxiom.networksurvey.model.CellularProtocol;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estimates where a tower is from this device's own measurements of its cells, for the cells that are not in the
+ * OpenCelliD or BeaconDB tower data.
+ * <p>
+ * Each measurement (the device location, the signal strength, and the timing advance if there is one) is added to the
+ * observations of its cell as it is recorded. An estimate is only computed when it is asked for, and only again once
+ * the cell has new measurements, starting from the previous fit. Two estimates are computed:
+ * <ul>
+ *     <li>The signal weighted centroid of the measurement locations, which is always available.</li>
+ *     <li>A least squares fit of a log-distance path loss model (plus the timing advance ranges), which can place the
+ *     tower off of the driven roads once there are measurements from enough places.</li>
+ * </ul>
+ * Whichever has the smaller uncertainty radius is returned.
+ * <p>
+ * The observations are only kept in memory, for the most recently measured {@link #MAX_CELLS} cells. All the methods
+ * are thread safe, and an estimate is fit without holding the lock that the measurements are added under.
+ *
+ * @since 1.43
+ */
+public class TowerLocationEstimator
+{
+    static final double EARTH_RADIUS_METERS = 6_371_000d;
+
+    static final int MAX_CELLS = 2_000;
+    static final int MIN_PATH_LOSS_BINS = 8;
+    static final double MIN_UNCERTAINTY_METERS = 25;
+    static final double MAX_RANGE_METERS = 35_000;
+
+    // The one way distance of one timing advance step
+    static final double GSM_TIMING_ADVANCE_METERS = 553.85;
+    static final double LTE_TIMING_ADVANCE_METERS = 78.12;
+    // NR reports the timing advance in microseconds
+    static final double NR_TIMING_ADVANCE_METERS_PER_MICROSECOND = 149.9;
+
+    private static final TowerLocationEstimator INSTANCE = new TowerLocationEstimator();
+
+    private final Map<TowerKey, TowerObservations> cells = new LinkedHashMap<>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TowerKey, TowerObservations> eldest)
+        {
+            return size() > MAX_CELLS;
+        }
+    };
+
+    /**
+     * @return The estimator that the survey records are added to.
+     */
+    public static TowerLocationEstimator getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds a measurement of a cell.
+     *
+     * @param key           The cell that was measured.
+     * @param latitude      Where the device was.
+     * @param longitude     Where the device was.
+     * @param signalDbm     The signal strength of the cell (RSRP for LTE and NR, RSCP for UMTS, RSSI for GSM).
+     * @param timingAdvance The timing advance as reported in the survey record, or null if there isn't one.
+     */
+    public synchronized void addMeasurement(TowerKey key, double latitude, double longitude, float signalDbm,
+                                            Integer timingAdvance)
+    {
+        if (Float.isNaN(signalDbm) || (latitude == 0d && longitude == 0d)) return;
+
+        TowerObservations observations = cells.get(key);
+        if (observations == null)
+        {
+            observations = new TowerObservations(latitude, longitude, getRangeSigmaMeters(key.protocol));
+            cells.put(key, observations);
+        }
+        observations.add(latitude, longitude, signalDbm, toRangeMeters(key.protocol, timingAdvance));
+    }
+
+    /**
+     * The fit can take a few milliseconds, so it is done on a snapshot of the cell's observations without holding the
+     * lock, which keeps the survey records from waiting on the map to ask for an estimate.
+     *
+     * @return The estimated location of the cell's tower, or null if the cell has not been measured.
+     */
+    public TowerLocationEstimate getEstimate(TowerKey key)
+    {
+        final TowerObservations observations;
+        final TowerObservations.Snapshot snapshot;
+        synchronized (this)
+        {
+            observations = cells.get(key);
+            if (observations == null) return null;
+
+            final TowerLocationEstimate current = observations.getCurrentEstimate();
+            if (current != null) return current;
+            snapshot = observations.snapshot();
+        }
+
+        final TowerLocationEstimate estimate = snapshot.fit();
+
+        synchronized (this)
+        {
+            observations.update(snapshot);
+        }
+        return estimate;
+    }
+
+    /**
+     * @return The number of cells that have measurements.
+     */
+    public synchronized int getCellCount()
+    {
+        return cells.size();
+    }
+
+    public synchronized void clear()
+    {
+        cells.clear();
+    }
+
+    /**
+     * Converts a timing advance to the distance from the tower.
+     *
+     * @return The distance in meters, or NaN if the technology has no timing advance or the value is not valid.
+     */
+    static double toRangeMeters(CellularProtocol protocol, Integer timingAdvance)
+    {
+        if (timingAdvance == null || timingAdvance < 0) return Double.NaN;
+
+        switch (protocol)
+        {
+            case GSM:
+                return timingAdvance <= 219 ? (timingAdvance + 0.5) * GSM_TIMING_ADVANCE_METERS : Double.NaN;
+            case LTE:
+                return timingAdvance <= 1282 ? (timingAdvance + 0.5) * LTE_TIMING_ADVANCE_METERS : Double.NaN;
+            case NR:
+                return timingAdvance <= 1282 ? timingAdvance * NR_TIMING_ADVANCE_METERS_PER_MICROSECOND : Double.NaN;
+            default:
+                return Double.NaN;
+        }
+    }
+
+    /**
+     * @return The standard deviation of a timing advance range, which is dominated by the size of a step plus some
+     * multipath.
+     */
+    private static double getRangeSigmaMeters(CellularProtocol protocol)
+    {
+        switch (protocol)
+        {
+            case GSM:
+                return GSM_TIMING_ADVANCE_METERS / 2;
+            case LTE:
+                return LTE_TIMING_ADVANCE_METERS;
+            case NR:
+            default:
+                return NR_TIMING_ADVANCE_METERS_PER_MICROSECOND;
+        }
+    }
+}
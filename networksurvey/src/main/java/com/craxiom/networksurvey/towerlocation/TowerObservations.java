@@ -0,0 +1,348 @@
+package com.craxiom.networksurvey.towerlocation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The measurements of one cell, kept in a compact form that can be updated one measurement at a time.
+ * <p>
+ * The weighted centroid sums are exact over every measurement. For the path loss fit, the measurements are binned on
+ * a local grid (meters east and north of the first measurement) and each bin keeps the mean location, signal, and
+ * timing advance range. Nearby measurements have nearly the same shadowing, so a bin carries about as much information
+ * as all of the measurements in it. When there are too many bins the grid is made coarser, so the memory and the cost
+ * of a fit stay bounded no matter how long the cell is surveyed.
+ * <p>
+ * This class is not thread safe; the {@link TowerLocationEstimator} synchronizes access to it. The fit itself is done
+ * on a {@link Snapshot}, so the estimator does not have to hold its lock while the solver runs.
+ */
+final class TowerObservations
+{
+    static final int MAX_BINS = 256;
+    static final double INITIAL_BIN_SIZE_METERS = 20;
+
+    private static final int START_RING_POINTS = 8;
+    private static final double START_RING_MIN_RADIUS_METERS = 200;
+
+    private static final double METERS_PER_DEGREE_LATITUDE = TowerLocationEstimator.EARTH_RADIUS_METERS * Math.PI / 180d;
+
+    static final class Bin
+    {
+        double sumX;
+        double sumY;
+        double sumSignal;
+        int count;
+        double sumRange;
+        int rangeCount;
+
+        double x()
+        {
+            return sumX / count;
+        }
+
+        double y()
+        {
+            return sumY / count;
+        }
+
+        double signal()
+        {
+            return sumSignal / count;
+        }
+
+        /**
+         * @return The mean timing advance range, or NaN if none of the measurements had a timing advance.
+         */
+        double range()
+        {
+            return rangeCount == 0 ? Double.NaN : sumRange / rangeCount;
+        }
+
+        Bin copy()
+        {
+            final Bin copy = new Bin();
+            copy.merge(this);
+            return copy;
+        }
+
+        void merge(Bin other)
+        {
+            sumX += other.sumX;
+            sumY += other.sumY;
+            sumSignal += other.sumSignal;
+            count += other.count;
+            sumRange += other.sumRange;
+            rangeCount += other.rangeCount;
+        }
+    }
+
+    final double originLatitude;
+    final double originLongitude;
+    final double rangeSigmaMeters;
+    private final double metersPerDegreeLongitude;
+
+    private double binSizeMeters = INITIAL_BIN_SIZE_METERS;
+    private Map<Long, Bin> bins = new HashMap<>();
+
+    private long sampleCount;
+    private double weightSum;
+    private double weightedX;
+    private double weightedY;
+    private double weightedSquares;
+
+    // Incremented for each measurement, so an estimate can tell if it is out of date
+    private long version;
+    private long estimateVersion = -1;
+    private TowerLocationEstimate estimate;
+    private double[] lastSolution;
+
+    /**
+     * @param rangeSigmaMeters The standard deviation of a timing advance range for the cell's technology.
+     */
+    TowerObservations(double originLatitude, double originLongitude, double rangeSigmaMeters)
+    {
+        this.originLatitude = originLatitude;
+        this.originLongitude = originLongitude;
+        this.rangeSigmaMeters = rangeSigmaMeters;
+        metersPerDegreeLongitude = METERS_PER_DEGREE_LATITUDE * Math.cos(Math.toRadians(originLatitude));
+    }
+
+    /**
+     * @param rangeMeters The distance to the tower from the timing advance, or NaN if there is no timing advance.
+     */
+    void add(double latitude, double longitude, float signalDbm, double rangeMeters)
+    {
+        final double x = (longitude - originLongitude) * metersPerDegreeLongitude;
+        final double y = (latitude - originLatitude) * METERS_PER_DEGREE_LATITUDE;
+
+        // Weighted by the received power, so a measurement 10 dB stronger counts ten times as much
+        final double weight = Math.pow(10d, signalDbm / 10d);
+        sampleCount++;
+        weightSum += weight;
+        weightedX += weight * x;
+        weightedY += weight * y;
+        weightedSquares += weight * (x * x + y * y);
+
+        Bin bin = bins.get(binKey(x, y, binSizeMeters));
+        if (bin == null)
+        {
+            bin = new Bin();
+            bins.put(binKey(x, y, binSizeMeters), bin);
+        }
+        bin.sumX += x;
+        bin.sumY += y;
+        bin.sumSignal += signalDbm;
+        bin.count++;
+        if (!Double.isNaN(rangeMeters))
+        {
+            bin.sumRange += rangeMeters;
+            bin.rangeCount++;
+        }
+
+        while (bins.size() > MAX_BINS)
+        {
+            coarsen();
+        }
+        version++;
+    }
+
+    long getSampleCount()
+    {
+        return sampleCount;
+    }
+
+    int getBinCount()
+    {
+        return bins.size();
+    }
+
+    /**
+     * @return The estimate, which is only computed again if there are new measurements since the last call.
+     */
+    TowerLocationEstimate getEstimate()
+    {
+        final TowerLocationEstimate current = getCurrentEstimate();
+        if (current != null) return current;
+
+        final Snapshot snapshot = snapshot();
+        snapshot.fit();
+        update(snapshot);
+        return snapshot.estimate;
+    }
+
+    /**
+     * @return The last estimate if there have been no new measurements since it was computed, otherwise null.
+     */
+    TowerLocationEstimate getCurrentEstimate()
+    {
+        return estimateVersion == version ? estimate : null;
+    }
+
+    /**
+     * @return A copy of everything the fit needs, so the fit can be run while measurements are still being added.
+     */
+    Snapshot snapshot()
+    {
+        final List<Bin> binsCopy = new ArrayList<>(bins.size());
+        for (Bin bin : bins.values())
+        {
+            binsCopy.add(bin.copy());
+        }
+        return new Snapshot(this, binsCopy);
+    }
+
+    /**
+     * Keeps the result of a fit, unless a fit of a newer snapshot has already been kept.
+     */
+    void update(Snapshot snapshot)
+    {
+        if (snapshot.version <= estimateVersion || snapshot.estimate == null) return;
+
+        estimateVersion = snapshot.version;
+        estimate = snapshot.estimate;
+        if (snapshot.solution != null) lastSolution = snapshot.solution;
+    }
+
+    List<Bin> getBins()
+    {
+        return new ArrayList<>(bins.values());
+    }
+
+    /**
+     * Doubles the bin size, merging each group of four bins.
+     */
+    private void coarsen()
+    {
+        binSizeMeters *= 2;
+        final Map<Long, Bin> coarser = new HashMap<>();
+        for (Bin bin : bins.values())
+        {
+            final long key = binKey(bin.x(), bin.y(), binSizeMeters);
+            final Bin existing = coarser.get(key);
+            if (existing == null)
+            {
+                coarser.put(key, bin);
+            } else
+            {
+                existing.merge(bin);
+            }
+        }
+        bins = coarser;
+    }
+
+    private static long binKey(double x, double y, double binSizeMeters)
+    {
+        final long column = (long) Math.floor(x / binSizeMeters);
+        final long row = (long) Math.floor(y / binSizeMeters);
+        return (column << 32) ^ (row & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The measurements of a cell at one point in time. It does not share any mutable state with the observations, so
+     * {@link #fit()} can be called without any locks held.
+     */
+    static final class Snapshot
+    {
+        final long version;
+
+        private final double originLatitude;
+        private final double originLongitude;
+        private final double metersPerDegreeLongitude;
+        private final double rangeSigmaMeters;
+        private final double binSizeMeters;
+        private final List<Bin> bins;
+        private final long sampleCount;
+        private final double weightSum;
+        private final double weightedX;
+        private final double weightedY;
+        private final double weightedSquares;
+        private final double[] lastSolution;
+
+        private TowerLocationEstimate estimate;
+        private double[] solution;
+
+        private Snapshot(TowerObservations observations, List<Bin> bins)
+        {
+            version = observations.version;
+            originLatitude = observations.originLatitude;
+            originLongitude = observations.originLongitude;
+            metersPerDegreeLongitude = observations.metersPerDegreeLongitude;
+            rangeSigmaMeters = observations.rangeSigmaMeters;
+            binSizeMeters = observations.binSizeMeters;
+            this.bins = bins;
+            sampleCount = observations.sampleCount;
+            weightSum = observations.weightSum;
+            weightedX = observations.weightedX;
+            weightedY = observations.weightedY;
+            weightedSquares = observations.weightedSquares;
+            lastSolution = observations.lastSolution;
+        }
+
+        /**
+         * Computes the estimate of the cell's location from the snapshot.
+         *
+         * @return The estimate.
+         */
+        TowerLocationEstimate fit()
+        {
+            final double centroidX = weightedX / weightSum;
+            final double centroidY = weightedY / weightSum;
+            // The signal weighted RMS distance of the measurements from the centroid
+            final double spread = Math.sqrt(Math.max(0d,
+                    weightedSquares / weightSum - centroidX * centroidX - centroidY * centroidY));
+            // The centroid is pulled toward the driven roads, so the tower can be well outside of one spread from it
+            final double centroidUncertainty = Math.max(TowerLocationEstimator.MIN_UNCERTAINTY_METERS, 2 * spread);
+
+            estimate = toEstimate(centroidX, centroidY, centroidUncertainty,
+                    TowerLocationEstimate.Method.WEIGHTED_CENTROID, Double.NaN);
+
+            if (bins.size() >= TowerLocationEstimator.MIN_PATH_LOSS_BINS)
+            {
+                final PathLossSolver.Solution pathLoss = PathLossSolver.solve(bins,
+                        getStarts(centroidX, centroidY, spread), rangeSigmaMeters, binSizeMeters);
+                if (pathLoss != null && Math.hypot(pathLoss.x - centroidX, pathLoss.y - centroidY)
+                        <= TowerLocationEstimator.MAX_RANGE_METERS)
+                {
+                    solution = new double[]{pathLoss.x, pathLoss.y};
+                    final double uncertainty = Math.max(TowerLocationEstimator.MIN_UNCERTAINTY_METERS,
+                            pathLoss.uncertaintyMeters);
+                    if (uncertainty < centroidUncertainty)
+                    {
+                        estimate = toEstimate(pathLoss.x, pathLoss.y, uncertainty,
+                                TowerLocationEstimate.Method.PATH_LOSS, pathLoss.pathLossExponent);
+                    }
+                }
+            }
+
+            return estimate;
+        }
+
+        /**
+         * The fit is started from the last solution (which is usually close after a few more measurements), the
+         * centroid, and a ring around the centroid, since the tower is often off to one side of the driven roads.
+         */
+        private List<double[]> getStarts(double centroidX, double centroidY, double spread)
+        {
+            final List<double[]> starts = new ArrayList<>(START_RING_POINTS + 2);
+            if (lastSolution != null) starts.add(lastSolution);
+            starts.add(new double[]{centroidX, centroidY});
+
+            final double radius = Math.max(START_RING_MIN_RADIUS_METERS, spread);
+            for (int i = 0; i < START_RING_POINTS; i++)
+            {
+                final double angle = 2 * Math.PI * i / START_RING_POINTS;
+                starts.add(new double[]{centroidX + radius * Math.cos(angle), centroidY + radius * Math.sin(angle)});
+            }
+            return starts;
+        }
+
+        private TowerLocationEstimate toEstimate(double x, double y, double uncertainty,
+                                                 TowerLocationEstimate.Method method, double pathLossExponent)
+        {
+            return new TowerLocationEstimate(originLatitude + y / METERS_PER_DEGREE_LATITUDE,
+                    originLongitude + x / metersPerDegreeLongitude, uncertainty, method, sampleCount,
+                    pathLossExponent);
+        }
+    }
+}
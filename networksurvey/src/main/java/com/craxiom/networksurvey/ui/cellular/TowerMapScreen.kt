@@ -138,6 +138,13 @@ private fun getBeaconDbCoverageKey(context: MapContext): String {
     }
 }
 
+private fun getMeasuredCoverageKey(context: MapContext): String {
+    return when (context) {
+        MapContext.TOWER_MAP -> NetworkSurveyConstants.PROPERTY_SHOW_MEASURED_COVERAGE
+        MapContext.SURVEY_MONITOR -> NetworkSurveyConstants.PROPERTY_SURVEY_SHOW_MEASURED_COVERAGE
+    }
+}
+
 private fun getTowersLayerKey(context: MapContext): String {
     return when (context) {
         MapContext.TOWER_MAP -> NetworkSurveyConstants.PROPERTY_SHOW_TOWERS_LAYER
@@ -302,6 +309,10 @@ internal fun TowerMapScreen(
                     )
                     viewModel.setShowBeaconDbCoverage(showBeaconDb)
 
+                    viewModel.setShowMeasuredCoverage(
+                        preferences.getBoolean(getMeasuredCoverageKey(mapContext), false)
+                    )
+
                     val showTowers = initialShowTowers ?: preferences.getBoolean(
                         getTowersLayerKey(mapContext),
                         getDefaultShowTowers(mapContext)
@@ -427,14 +438,20 @@ internal fun TowerMapScreen(
                             )
                         }
 
-                        // Render serving cell lines first (continuous dashed line)
+                        // Render serving cell lines first (continuous dashed line). A line to a tower
+                        // location that was estimated from our own measurements is a different color
+                        // and dotted, so it isn't mistaken for a known tower location.
                         servingCellLines.forEach { lineData ->
                             LineString(
                                 state = rememberLineStringState(
                                     points = listOf(lineData.startPoint, lineData.endPoint),
-                                    color = colorResource(R.color.serving_cell_line),
+                                    color = if (lineData.estimated) {
+                                        colorResource(R.color.serving_cell_line_estimated)
+                                    } else {
+                                        colorResource(R.color.serving_cell_line)
+                                    },
                                     width = 3f,
-                                    dashArray = listOf(5f, 3f) // Dashed line
+                                    dashArray = if (lineData.estimated) listOf(1f, 2f) else listOf(5f, 3f)
                                 )
                             )
                         }
@@ -454,13 +471,18 @@ internal fun TowerMapScreen(
                         if (displayCoverage) {
                             val servingCellCoverage by viewModel.servingCellCoverage.collectAsStateWithLifecycle()
                             val (fillColor, strokeColor) = getCoverageCircleColors()
+                            val estimatedStrokeColor =
+                                colorResource(R.color.serving_cell_line_estimated)
                             servingCellCoverage.forEach { coverageData ->
+                                // An estimated location's circle is its uncertainty, not the cell's range
                                 Circle(
                                     state = rememberCircleState(
                                         center = coverageData.center,
                                         radiusMeters = coverageData.radiusMeters,
-                                        fillColor = fillColor,
-                                        strokeColor = strokeColor,
+                                        fillColor = if (coverageData.estimated) {
+                                            fillColor.copy(alpha = fillColor.alpha / 2)
+                                        } else fillColor,
+                                        strokeColor = if (coverageData.estimated) estimatedStrokeColor else strokeColor,
                                         strokeWidth = 2f
                                     )
                                 )
@@ -494,6 +516,17 @@ internal fun TowerMapScreen(
                         }
                         onDispose { }
                     }
+
+                    // Handle the measured coverage overlay, which shows the selected radio type
+                    val showMeasuredCoverage by viewModel.showMeasuredCoverage.collectAsStateWithLifecycle()
+                    DisposableEffect(showMeasuredCoverage, radio) {
+                        if (showMeasuredCoverage) {
+                            viewModel.addMeasuredCoverageLayer()
+                        } else {
+                            viewModel.removeMeasuredCoverageLayer()
+                        }
+                        onDispose { }
+                    }
                 }
 
                 TopAppBarOverlay(statusBarHeight)
@@ -722,12 +755,14 @@ internal fun TowerMapScreen(
         if (showLayersDialog) {
             val currentTileSource by viewModel.selectedMapTileSource.collectAsStateWithLifecycle()
             val showBeaconDbCoverage by viewModel.showBeaconDbCoverage.collectAsStateWithLifecycle()
+            val showMeasuredCoverage by viewModel.showMeasuredCoverage.collectAsStateWithLifecycle()
             val mapKeyLoadError by viewModel.mapKeyLoadError.collectAsState()
             val mapTilerKey by viewModel.mapTilerKey.collectAsState()
 
             MapLayersDialog(
                 currentTileSource = currentTileSource,
                 showBeaconDbCoverage = showBeaconDbCoverage,
+                showMeasuredCoverage = showMeasuredCoverage,
                 showTowersLayer = showTowersLayer,
                 onSetTileSource = { source ->
                     val previousSource = currentTileSource
@@ -758,6 +793,13 @@ internal fun TowerMapScreen(
                         putBoolean(getBeaconDbCoverageKey(mapContext), show)
                     }
                 },
+                onSetShowMeasuredCoverage = { show ->
+                    viewModel.setShowMeasuredCoverage(show)
+                    // Save preference
+                    preferences.edit {
+                        putBoolean(getMeasuredCoverageKey(mapContext), show)
+                    }
+                },
                 onSetShowTowersLayer = { show ->
                     viewModel.setShowTowersLayer(show)
                     // Save preference
@@ -1349,9 +1391,11 @@ private fun getCoverageCircleColors(): Pair<Color, Color> {
 fun MapLayersDialog(
     currentTileSource: MapTileSource,
     showBeaconDbCoverage: Boolean,
+    showMeasuredCoverage: Boolean,
     showTowersLayer: Boolean,
     onSetTileSource: (MapTileSource) -> Unit,
     onSetShowBeaconDbCoverage: (Boolean) -> Unit,
+    onSetShowMeasuredCoverage: (Boolean) -> Unit,
     onSetShowTowersLayer: (Boolean) -> Unit,
     onDismiss: () -> Unit
 ) {
@@ -1442,6 +1486,24 @@ fun MapLayersDialog(
                 Spacer(modifier = Modifier.width(8.dp))
                 Text(text = "BeaconDB Coverage")
             }
+
+            Row(
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .selectable(
+                        selected = showMeasuredCoverage,
+                        onClick = { onSetShowMeasuredCoverage(!showMeasuredCoverage) }
+                    )
+                    .padding(vertical = 4.dp),
+                verticalAlignment = Alignment.CenterVertically
+            ) {
+                Checkbox(
+                    checked = showMeasuredCoverage,
+                    onCheckedChange = onSetShowMeasuredCoverage
+                )
+                Spacer(modifier = Modifier.width(8.dp))
+                Text(text = "Measured Coverage")
+            }
         }
     }
 }
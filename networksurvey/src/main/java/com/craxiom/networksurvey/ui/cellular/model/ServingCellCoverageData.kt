@@ -4,9 +4,12 @@ import org.maplibre.android.geometry.LatLng
 
 /**
  * Data class representing coverage circle for a serving cell tower.
+ *
+ * @property estimated True if the tower location is an estimate, in which case the circle is its uncertainty
  */
 data class ServingCellCoverageData(
     val subscriptionId: Int,
     val center: LatLng,
-    val radiusMeters: Int
+    val radiusMeters: Int,
+    val estimated: Boolean = false
 )
\ No newline at end of file
@@ -9,10 +9,12 @@ import org.maplibre.android.geometry.LatLng
  * @property startPoint The user's current location
  * @property endPoint The serving cell tower location
  * @property distanceMeters The distance between start and end points in meters
+ * @property estimated True if the tower location is estimated from this device's own measurements
  */
 data class ServingCellLineData(
     val subscriptionId: Int,
     val startPoint: LatLng,
     val endPoint: LatLng,
-    val distanceMeters: Double
+    val distanceMeters: Double,
+    val estimated: Boolean = false
 )
\ No newline at end of file
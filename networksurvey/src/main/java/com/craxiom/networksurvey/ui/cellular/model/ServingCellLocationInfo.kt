@@ -4,5 +4,12 @@ import org.maplibre.android.geometry.LatLng
 
 /**
  * Simple wrapper data class to group together a serving cell location and the range of the cell tower.
+ *
+ * @property estimated True if the location was estimated from this device's own measurements because the tower is
+ * not in the tower data, in which case the range is the uncertainty of the estimate.
  */
-data class ServingCellLocationInfo(val location: LatLng, val range: Int = 0)
\ No newline at end of file
+data class ServingCellLocationInfo(
+    val location: LatLng,
+    val range: Int = 0,
+    val estimated: Boolean = false
+)
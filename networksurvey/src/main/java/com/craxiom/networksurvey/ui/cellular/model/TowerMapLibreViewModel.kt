@@ -7,17 +7,28 @@ import androidx.compose.foundation.layout.PaddingValues
 import androidx.compose.ui.unit.dp
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
+import com.craxiom.networksurvey.coverage.CoverageAggregator
+import com.craxiom.networksurvey.coverage.CoverageCellKey
+import com.craxiom.networksurvey.coverage.CoverageTechnology
+import com.craxiom.networksurvey.coverage.CoverageTileCache
+import com.craxiom.networksurvey.coverage.CoverageTiles
 import com.craxiom.networksurvey.data.api.Api
 import com.craxiom.networksurvey.data.api.Tower
 import com.craxiom.networksurvey.data.api.TowerResponse
 import com.craxiom.networksurvey.data.api.retrofit
 import com.craxiom.networksurvey.model.CellularProtocol
 import com.craxiom.networksurvey.model.CellularRecordWrapper
+import com.craxiom.networksurvey.listeners.ICoverageGridListener
 import com.craxiom.networksurvey.model.Plmn
+import com.craxiom.networksurvey.towerlocation.TowerKey
+import com.craxiom.networksurvey.towerlocation.TowerLocationEstimator
+import com.craxiom.networksurvey.ui.cellular.towermap.COVERAGE_SIGNAL_PROPERTY
+import com.craxiom.networksurvey.ui.cellular.towermap.CoverageTileProvider
 import com.craxiom.networksurvey.ui.cellular.towermap.TOWER_LAYER_KEY
 import com.craxiom.networksurvey.util.CellularUtils
 import com.craxiom.networksurvey.util.PreferenceUtils
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.update
@@ -32,8 +43,12 @@ import org.maplibre.android.geometry.LatLngBounds
 import org.maplibre.android.maps.MapLibreMap
 import org.maplibre.android.maps.MapView
 import org.maplibre.android.maps.Style
+import org.maplibre.android.style.expressions.Expression
 import org.maplibre.android.style.layers.FillLayer
+import org.maplibre.android.style.layers.Layer
 import org.maplibre.android.style.layers.PropertyFactory
+import org.maplibre.android.style.sources.CustomGeometrySource
+import org.maplibre.android.style.sources.CustomGeometrySourceOptions
 import org.maplibre.android.style.sources.VectorSource
 import retrofit2.Response
 import timber.log.Timber
@@ -54,6 +69,10 @@ private const val BEACONDB_STYLE_SOURCE_NAME = "beacondb-source"
 private const val BEACONDB_COVERAGE_COLOR = "#ff8000"
 private const val BEACONDB_COVERAGE_OPACITY = 0.4f
 
+private const val MEASURED_COVERAGE_SOURCE_ID = "measured-coverage-source"
+private const val MEASURED_COVERAGE_LAYER_ID = "measured-coverage-layer"
+private const val MEASURED_COVERAGE_OPACITY = 0.5f
+
 // Hysteresis constants for reducing tower queries
 private const val BOUNDS_CHANGE_THRESHOLD_PERCENT = 0.20 // 20% change required
 private const val ZOOM_CHANGE_THRESHOLD = 0.5 // Half zoom level change required
@@ -142,8 +161,44 @@ class TowerMapLibreViewModel : ViewModel() {
     // BeaconDB layer management
     private var beaconDbLayerIds: List<String> = emptyList()
 
+    private val _showMeasuredCoverage = MutableStateFlow(false)
+    val showMeasuredCoverage = _showMeasuredCoverage.asStateFlow()
+
+    // The measured coverage layer that is on the map, and the technology it shows
+    private var measuredCoverageSource: CustomGeometrySource? = null
+    @Volatile
+    private var measuredCoverageTechnology: CoverageTechnology? = null
+    private var coverageAggregator: CoverageAggregator? = null
+
+    // Redraws the measured coverage tiles where new measurements landed
+    private val coverageGridListener = object : ICoverageGridListener {
+        override fun onCoverageCellsUpdated(updatedCells: Set<CoverageCellKey>) {
+            val technology = measuredCoverageTechnology ?: return
+            val staleTiles = HashSet<Triple<Int, Int, Int>>()
+            updatedCells.forEach { key ->
+                if (key.technology == technology) {
+                    CoverageTiles.forEachTile(key) { zoom, x, y -> staleTiles.add(Triple(zoom, x, y)) }
+                }
+            }
+            if (staleTiles.isEmpty()) return
+
+            Handler(Looper.getMainLooper()).post {
+                measuredCoverageSource?.let { source ->
+                    staleTiles.forEach { (zoom, x, y) -> source.invalidateTile(zoom, x, y) }
+                }
+            }
+        }
+
+        override fun onCoverageCleared() {
+            Handler(Looper.getMainLooper()).post {
+                measuredCoverageSource?.invalidateRegion(LatLngBounds.world())
+            }
+        }
+    }
+
     // Serving cell locations with range info
     private val subIdToServingCellLocations = HashMap<Int, ServingCellLocationInfo>()
+    private var estimatedLocationsJob: Job? = null
 
     // Serving cell lines and coverage data ---------
     private val _servingCellLines = MutableStateFlow<List<ServingCellLineData>>(emptyList())
@@ -293,6 +348,10 @@ class TowerMapLibreViewModel : ViewModel() {
         _showBeaconDbCoverage.value = show
     }
 
+    fun setShowMeasuredCoverage(show: Boolean) {
+        _showMeasuredCoverage.value = show
+    }
+
     fun setShowTowersLayer(show: Boolean) {
         val wasHidden = !_showTowersLayer.value
         _showTowersLayer.value = show
@@ -354,35 +413,7 @@ class TowerMapLibreViewModel : ViewModel() {
                                         )
                                     }
 
-                                    // Add the layer below our custom layers but above base map tiles
-                                    // Look for our specific custom layers to insert before them
-                                    val existingLayers = style.layers
-                                    var insertBeforeLayerId: String? = null
-
-                                    // Look for our custom layer IDs first (tower symbols, serving cell lines/circles)
-                                    for (existingLayer in existingLayers) {
-                                        val layerId = existingLayer.id
-                                        // Check if this is one of our custom layers
-                                        if (layerId == TOWER_LAYER_KEY ||  // Tower symbols (exact match)
-                                            layerId.startsWith(SERVING_CELL_LINE_LAYER_PREFIX) ||  // Serving cell lines
-                                            layerId.startsWith(
-                                                SERVING_CELL_COVERAGE_FILL_LAYER_PREFIX
-                                            ) ||  // Coverage circle fills
-                                            layerId.startsWith(
-                                                SERVING_CELL_COVERAGE_OUTLINE_LAYER_PREFIX
-                                            )
-                                        ) {  // Coverage circle strokes
-                                            insertBeforeLayerId = layerId
-                                            break
-                                        }
-                                    }
-
-                                    if (insertBeforeLayerId != null) {
-                                        style.addLayerBelow(layer, insertBeforeLayerId)
-                                    } else {
-                                        // If no custom layers found, add at the end (above base tiles)
-                                        style.addLayer(layer)
-                                    }
+                                    addLayerBelowCustomLayers(style, layer)
                                 }
                             }
                             // Store layer IDs for removal
@@ -426,6 +457,124 @@ class TowerMapLibreViewModel : ViewModel() {
         }
     }
 
+    /**
+     * Adds the measured coverage layer, which draws the signal strength from this device's own
+     * surveys for the selected radio type. The tiles are drawn by a [CoverageTileProvider] off the
+     * main thread and are redrawn only where new measurements land.
+     */
+    fun addMeasuredCoverageLayer() {
+        val context = mapView?.context ?: return
+        mapLibreMap?.let { map ->
+            map.style?.let { style ->
+                try {
+                    removeMeasuredCoverageLayer()
+
+                    val technology = toCoverageTechnology(_selectedRadioType.value)
+                    if (technology == null) {
+                        Timber.d("No measured coverage for the ${_selectedRadioType.value} radio type")
+                        return
+                    }
+
+                    val aggregator = CoverageAggregator.getInstance(context)
+                    val source = CustomGeometrySource(
+                        MEASURED_COVERAGE_SOURCE_ID,
+                        CustomGeometrySourceOptions()
+                            .withMinZoom(CoverageTiles.MIN_ZOOM)
+                            .withMaxZoom(CoverageTiles.MAX_ZOOM),
+                        CoverageTileProvider(
+                            aggregator,
+                            CoverageTileCache.getInstance(context),
+                            technology
+                        )
+                    )
+                    style.addSource(source)
+
+                    val layer = FillLayer(MEASURED_COVERAGE_LAYER_ID, MEASURED_COVERAGE_SOURCE_ID)
+                        .withProperties(
+                            PropertyFactory.fillColor(
+                                Expression.interpolate(
+                                    Expression.linear(),
+                                    Expression.get(COVERAGE_SIGNAL_PROPERTY),
+                                    Expression.stop(-120, Expression.color(0xFFD7191C.toInt())),
+                                    Expression.stop(-105, Expression.color(0xFFFDAE61.toInt())),
+                                    Expression.stop(-95, Expression.color(0xFFFFFFBF.toInt())),
+                                    Expression.stop(-85, Expression.color(0xFFA6D96A.toInt())),
+                                    Expression.stop(-75, Expression.color(0xFF1A9641.toInt()))
+                                )
+                            ),
+                            PropertyFactory.fillOpacity(MEASURED_COVERAGE_OPACITY)
+                        )
+                    addLayerBelowCustomLayers(style, layer)
+
+                    measuredCoverageSource = source
+                    measuredCoverageTechnology = technology
+                    coverageAggregator = aggregator
+                    aggregator.addListener(coverageGridListener)
+                } catch (e: Exception) {
+                    Timber.e(e, "Error adding the measured coverage layer")
+                }
+            }
+        }
+    }
+
+    fun removeMeasuredCoverageLayer() {
+        coverageAggregator?.removeListener(coverageGridListener)
+        coverageAggregator = null
+        measuredCoverageTechnology = null
+        measuredCoverageSource = null
+
+        mapLibreMap?.style?.let { style ->
+            try {
+                style.getLayer(MEASURED_COVERAGE_LAYER_ID)?.let {
+                    style.removeLayer(MEASURED_COVERAGE_LAYER_ID)
+                }
+                style.getSource(MEASURED_COVERAGE_SOURCE_ID)?.let {
+                    style.removeSource(MEASURED_COVERAGE_SOURCE_ID)
+                }
+            } catch (e: Exception) {
+                Timber.e(e, "Error removing the measured coverage layer")
+            }
+        }
+    }
+
+    private fun toCoverageTechnology(radioType: String): CoverageTechnology? {
+        return when (radioType) {
+            CellularProtocol.GSM.name -> CoverageTechnology.GSM
+            CellularProtocol.UMTS.name -> CoverageTechnology.UMTS
+            CellularProtocol.LTE.name -> CoverageTechnology.LTE
+            CellularProtocol.NR.name -> CoverageTechnology.NR
+            else -> null
+        }
+    }
+
+    /**
+     * Adds an overlay layer below our custom layers (tower symbols, serving cell lines and
+     * circles) but above the base map tiles.
+     */
+    private fun addLayerBelowCustomLayers(style: Style, layer: Layer) {
+        // Look for our specific custom layers to insert before them
+        var insertBeforeLayerId: String? = null
+        for (existingLayer in style.layers) {
+            val layerId = existingLayer.id
+            // Check if this is one of our custom layers
+            if (layerId == TOWER_LAYER_KEY ||  // Tower symbols (exact match)
+                layerId.startsWith(SERVING_CELL_LINE_LAYER_PREFIX) ||  // Serving cell lines
+                layerId.startsWith(SERVING_CELL_COVERAGE_FILL_LAYER_PREFIX) ||  // Coverage circle fills
+                layerId.startsWith(SERVING_CELL_COVERAGE_OUTLINE_LAYER_PREFIX)  // Coverage circle strokes
+            ) {
+                insertBeforeLayerId = layerId
+                break
+            }
+        }
+
+        if (insertBeforeLayerId != null) {
+            style.addLayerBelow(layer, insertBeforeLayerId)
+        } else {
+            // If no custom layers found, add at the end (above base tiles)
+            style.addLayer(layer)
+        }
+    }
+
     private suspend fun fetchBeaconDbLayerIds(tileJsonUrl: String): List<String> {
         return withContext(Dispatchers.IO) {
             try {
@@ -859,7 +1008,8 @@ class TowerMapLibreViewModel : ViewModel() {
                         subscriptionId = subscriptionId,
                         startPoint = myLatLng,
                         endPoint = locationInfo.location,
-                        distanceMeters = haversineDistance(myLatLng, locationInfo.location)
+                        distanceMeters = haversineDistance(myLatLng, locationInfo.location),
+                        estimated = locationInfo.estimated
                     )
                 }
         } else {
@@ -869,7 +1019,8 @@ class TowerMapLibreViewModel : ViewModel() {
                     subscriptionId = subscriptionId,
                     startPoint = myLatLng,
                     endPoint = locationInfo.location,
-                    distanceMeters = haversineDistance(myLatLng, locationInfo.location)
+                    distanceMeters = haversineDistance(myLatLng, locationInfo.location),
+                    estimated = locationInfo.estimated
                 )
             }
         }
@@ -892,7 +1043,8 @@ class TowerMapLibreViewModel : ViewModel() {
                         ServingCellCoverageData(
                             subscriptionId = subscriptionId,
                             center = locationInfo.location,
-                            radiusMeters = locationInfo.range
+                            radiusMeters = locationInfo.range,
+                            estimated = locationInfo.estimated
                         )
                     } else null
                 }
@@ -903,7 +1055,8 @@ class TowerMapLibreViewModel : ViewModel() {
                     ServingCellCoverageData(
                         subscriptionId = subscriptionId,
                         center = locationInfo.location,
-                        radiusMeters = locationInfo.range
+                        radiusMeters = locationInfo.range,
+                        estimated = locationInfo.estimated
                     )
                 } else null
             }
@@ -937,6 +1090,45 @@ class TowerMapLibreViewModel : ViewModel() {
 
         updateServingCellLines()
         updateServingCellCoverage()
+
+        updateEstimatedServingCellLocations()
+    }
+
+    /**
+     * Places each serving cell that is not in the tower data where this device's own measurements
+     * put it. Fitting an estimate can take a few milliseconds, so it is done off the main thread.
+     */
+    private fun updateEstimatedServingCellLocations() {
+        estimatedLocationsJob?.cancel()
+
+        val missingCells = servingCells.value.values.mapNotNull { servingCellInfo ->
+            if (subIdToServingCellLocations.containsKey(servingCellInfo.subscriptionId)) return@mapNotNull null
+            TowerKey.fromRecord(servingCellInfo.servingCell)
+                ?.let { key -> servingCellInfo.subscriptionId to key }
+        }
+        if (missingCells.isEmpty()) return
+
+        estimatedLocationsJob = viewModelScope.launch {
+            val estimates = withContext(Dispatchers.Default) {
+                val estimator = TowerLocationEstimator.getInstance()
+                missingCells.mapNotNull { (subscriptionId, key) ->
+                    estimator.getEstimate(key)?.let { estimate -> subscriptionId to estimate }
+                }
+            }
+            if (estimates.isEmpty()) return@launch
+
+            estimates.forEach { (subscriptionId, estimate) ->
+                subIdToServingCellLocations.putIfAbsent(
+                    subscriptionId, ServingCellLocationInfo(
+                        location = LatLng(estimate.latitude, estimate.longitude),
+                        range = estimate.uncertaintyMeters.toInt(),
+                        estimated = true
+                    )
+                )
+            }
+            updateServingCellLines()
+            updateServingCellCoverage()
+        }
     }
 
     /**
@@ -1213,6 +1405,11 @@ class TowerMapLibreViewModel : ViewModel() {
 
         // Clear any stored layer IDs
         beaconDbLayerIds = emptyList()
+
+        // The aggregator outlives this view model, so stop listening to it
+        coverageAggregator?.removeListener(coverageGridListener)
+        coverageAggregator = null
+        measuredCoverageSource = null
     }
 }
 
@@ -0,0 +1,102 @@
+package com.craxiom.networksurvey.ui.cellular.towermap
+
+import com.craxiom.networksurvey.coverage.CoverageAggregator
+import com.craxiom.networksurvey.coverage.CoverageGrid
+import com.craxiom.networksurvey.coverage.CoverageStats
+import com.craxiom.networksurvey.coverage.CoverageTechnology
+import com.craxiom.networksurvey.coverage.CoverageTileCache
+import com.craxiom.networksurvey.coverage.CoverageTiles
+import org.maplibre.android.geometry.LatLngBounds
+import org.maplibre.android.style.sources.GeometryTileProvider
+import org.maplibre.geojson.Feature
+import org.maplibre.geojson.FeatureCollection
+import org.maplibre.geojson.Point
+import org.maplibre.geojson.Polygon
+import timber.log.Timber
+import kotlin.math.roundToInt
+
+internal const val COVERAGE_SIGNAL_PROPERTY = "signal"
+internal const val COVERAGE_COUNT_PROPERTY = "count"
+
+/**
+ * Draws the measured coverage tiles for the map from the [CoverageAggregator].
+ *
+ * MapLibre calls [getFeaturesForBounds] on its own worker threads, one tile at a time, so the
+ * grid query and the disk cache reads never run on the main thread. Each tile is a square per grid
+ * cell with the mean signal of all the PLMNs for the selected technology, and the number of
+ * measurements behind it. Tiles are read from the [CoverageTileCache] when they are there, and
+ * cached after they are drawn.
+ */
+class CoverageTileProvider(
+    private val aggregator: CoverageAggregator,
+    private val cache: CoverageTileCache,
+    private val technology: CoverageTechnology
+) : GeometryTileProvider {
+
+    override fun getFeaturesForBounds(bounds: LatLngBounds, zoom: Int): FeatureCollection {
+        val center = bounds.center
+        val x = CoverageTiles.tileX(center.longitude, zoom)
+        val y = CoverageTiles.tileY(center.latitude, zoom)
+
+        cache.read(technology, zoom, x, y)?.let { cached ->
+            try {
+                return FeatureCollection.fromJson(cached)
+            } catch (e: Exception) {
+                Timber.w(e, "Could not parse the cached coverage tile $zoom/$x/$y, drawing it again")
+            }
+        }
+
+        return try {
+            val generation = cache.generation
+            val tile = renderTile(zoom, x, y)
+            cache.write(technology, zoom, x, y, tile.toJson(), generation)
+            tile
+        } catch (e: Exception) {
+            Timber.e(e, "Could not draw the coverage tile $zoom/$x/$y")
+            FeatureCollection.fromFeatures(emptyList())
+        }
+    }
+
+    internal fun renderTile(zoom: Int, x: Int, y: Int): FeatureCollection {
+        val level = CoverageTiles.levelForZoom(zoom)
+        val cells = aggregator.query(
+            level,
+            CoverageTiles.tileNorth(y + 1, zoom),
+            CoverageTiles.tileWest(x, zoom),
+            CoverageTiles.tileNorth(y, zoom),
+            CoverageTiles.tileWest(x + 1, zoom),
+            technology
+        )
+
+        // Combine the PLMNs in each cell, keyed by the cell's column and row
+        val combined = HashMap<Long, CoverageStats>()
+        cells.forEach { cell ->
+            val cellId = (cell.key.cellX.toLong() shl 32) or cell.key.cellY.toLong()
+            combined.getOrPut(cellId) { CoverageStats() }.merge(cell.stats)
+        }
+
+        val features = ArrayList<Feature>(combined.size)
+        combined.forEach { (cellId, stats) ->
+            val cellX = (cellId ushr 32).toInt()
+            val cellY = cellId.toInt()
+            val west = CoverageGrid.cellWest(cellX, level)
+            val east = CoverageGrid.cellWest(cellX + 1, level)
+            val south = CoverageGrid.cellSouth(cellY, level)
+            val north = CoverageGrid.cellSouth(cellY + 1, level)
+
+            val ring = listOf(
+                Point.fromLngLat(west, south),
+                Point.fromLngLat(east, south),
+                Point.fromLngLat(east, north),
+                Point.fromLngLat(west, north),
+                Point.fromLngLat(west, south)
+            )
+            val feature = Feature.fromGeometry(Polygon.fromLngLats(listOf(ring)))
+            feature.addNumberProperty(COVERAGE_SIGNAL_PROPERTY, (stats.mean * 10).roundToInt() / 10.0)
+            feature.addNumberProperty(COVERAGE_COUNT_PROPERTY, stats.count)
+            features.add(feature)
+        }
+
+        return FeatureCollection.fromFeatures(features)
+    }
+}
@@ -0,0 +1,107 @@
+package com.craxiom.networksurvey.ui.cellular.towermap
+
+import com.craxiom.networksurvey.ui.cellular.model.TowerWrapper
+import org.maplibre.geojson.Feature
+import org.maplibre.geojson.Point
+
+internal const val TOWER_ID_PROPERTY = "towerId"
+internal const val SERVING_PROPERTY = "serving"
+
+/**
+ * Keeps the GeoJSON [Feature] for each tower on the map so that a refresh only builds features for
+ * the towers that were just added.
+ *
+ * The tower list changes a little at a time (a camera move fetches the towers for the new viewport
+ * and evicts the oldest ones), and the serving cell changes even more often. Previously every
+ * refresh built all the features again with their 17 properties, and rebuilt a `match` expression
+ * that contained every serving ID. Now a feature is built once per tower and reused until the
+ * tower leaves the map, and the serving state is a boolean property on the feature, so a serving
+ * cell change only rebuilds the features of the towers that started or stopped serving.
+ *
+ * The MapLibre Android GeoJSON source can only be replaced as a whole, so [update] still returns
+ * the full set of features when anything changed, but it returns null when nothing did so that the
+ * source does not have to be reloaded at all.
+ *
+ * This class is not thread safe; it is only used from the main thread by [TowerSymbolsNode].
+ */
+internal class TowerFeatureCache {
+
+    private class Entry(val feature: Feature, val serving: Boolean)
+
+    private var entries = HashMap<TowerWrapper, Entry>()
+    private var lastFeatureCount = 0
+
+    /**
+     * The total number of features that have been built, so that the cost of a refresh can be
+     * measured.
+     */
+    var featuresBuilt: Long = 0
+        private set
+
+    /**
+     * Updates the cache with the latest towers and serving cell IDs.
+     *
+     * @return The features for all the towers (in the same order as [towers]), or null if neither
+     * the towers nor their serving state changed since the last update.
+     */
+    fun update(towers: Collection<TowerWrapper>, servingIds: Set<String>): Array<Feature>? {
+        val nextEntries = HashMap<TowerWrapper, Entry>(maxOf(16, entries.size * 4 / 3 + 1))
+        val features = ArrayList<Feature>(towers.size)
+        var changed = towers.size != lastFeatureCount
+
+        for (towerWrapper in towers) {
+            val serving = towerWrapper.towerId in servingIds
+            var entry = nextEntries[towerWrapper] ?: entries[towerWrapper]
+            if (entry == null || entry.serving != serving) {
+                // A tower that starts or stops being the serving cell gets a new feature instead of
+                // changing the old one, since the map might still be reading the previous collection
+                // on its worker thread
+                entry = Entry(buildFeature(towerWrapper, serving), serving)
+                changed = true
+            }
+            nextEntries[towerWrapper] = entry
+            features.add(entry.feature)
+        }
+
+        // If no towers were added, the only way for the sizes to differ is if some were removed
+        if (nextEntries.size != entries.size) changed = true
+
+        entries = nextEntries
+        lastFeatureCount = features.size
+
+        return if (changed) features.toTypedArray() else null
+    }
+
+    /**
+     * Drops all the cached features, which forces the next [update] to return the features.
+     */
+    fun clear() {
+        entries = HashMap()
+        lastFeatureCount = 0
+    }
+
+    private fun buildFeature(towerWrapper: TowerWrapper, serving: Boolean): Feature {
+        featuresBuilt++
+
+        val tower = towerWrapper.tower
+        return Feature.fromGeometry(Point.fromLngLat(tower.lon, tower.lat)).apply {
+            addStringProperty(TOWER_ID_PROPERTY, towerWrapper.towerId)
+            addBooleanProperty(SERVING_PROPERTY, serving)
+            addStringProperty("radio", tower.radio)
+            addNumberProperty("mcc", tower.mcc)
+            addNumberProperty("mnc", tower.mnc)
+            addNumberProperty("area", tower.area)
+            addNumberProperty("cid", tower.cid)
+            addNumberProperty("unit", tower.unit)
+            addNumberProperty("range", tower.range)
+            addNumberProperty("samples", tower.samples)
+            addNumberProperty("averageSignal", tower.averageSignal)
+            addNumberProperty("changeable", tower.changeable)
+            addNumberProperty("createdAt", tower.createdAt)
+            addNumberProperty("updatedAt", tower.updatedAt)
+            addStringProperty("source", tower.source)
+            addNumberProperty("lat", tower.lat)
+            addNumberProperty("lon", tower.lon)
+        }
+    }
+}
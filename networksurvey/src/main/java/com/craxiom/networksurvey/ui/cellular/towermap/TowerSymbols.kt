@@ -7,20 +7,18 @@ import com.craxiom.networksurvey.ui.cellular.model.TowerWrapper
 import org.maplibre.android.maps.Style
 import org.maplibre.android.style.expressions.Expression.get
 import org.maplibre.android.style.expressions.Expression.literal
-import org.maplibre.android.style.expressions.Expression.match
+import org.maplibre.android.style.expressions.Expression.switchCase
+import org.maplibre.android.style.expressions.Expression.toBool
 import org.maplibre.android.style.layers.PropertyFactory.iconAllowOverlap
 import org.maplibre.android.style.layers.PropertyFactory.iconIgnorePlacement
 import org.maplibre.android.style.layers.PropertyFactory.iconImage
 import org.maplibre.android.style.layers.SymbolLayer
 import org.maplibre.android.style.sources.GeoJsonSource
-import org.maplibre.geojson.Feature
 import org.maplibre.geojson.FeatureCollection
-import org.maplibre.geojson.Point
 
 const val TOWER_LAYER_KEY = "tower-layer"
 const val KEY_SERVING_CELL_ICON = "tower-serving"
 const val KEY_TOWER_ICON = "tower"
-private const val TOWER_ID_PROPERTY = "towerId"
 
 internal class TowerSymbolsNode(
     private val style: Style,
@@ -33,13 +31,21 @@ internal class TowerSymbolsNode(
 ) : MapNode {
     private val source = GeoJsonSource(sourceId, FeatureCollection.fromFeatures(emptyArray()))
     private val layer = SymbolLayer(layerId, sourceId)
+    private val featureCache = TowerFeatureCache()
 
     init {
         style.addSource(source)
 
         style.addLayer(
             layer.withProperties(
-                iconImage(normalIcon),
+                // The serving flag is a feature property, so this expression never has to change
+                iconImage(
+                    switchCase(
+                        toBool(get(SERVING_PROPERTY)),
+                        literal(servingIcon),
+                        literal(normalIcon)
+                    )
+                ),
                 iconAllowOverlap(true),
                 iconIgnorePlacement(true)
             )
@@ -50,53 +56,16 @@ internal class TowerSymbolsNode(
     }
 
     /**
-     * Rebuild both the GeoJSON source and the data‐driven style expression
-     * every time towers or servingIds change.
+     * Updates the GeoJSON source with the latest towers and serving cell IDs. Only the features for
+     * newly added towers are built, and the source is left alone if nothing changed.
      */
     fun updateData(towers: List<TowerWrapper>, servingIds: Set<String>) {
-        // 1) rebuild the GeoJSON FeatureCollection
-        val features = towers.map { towerWrapper ->
-            val tower = towerWrapper.tower
-            Feature.fromGeometry(Point.fromLngLat(tower.lon, tower.lat)).apply {
-                addStringProperty(TOWER_ID_PROPERTY, towerWrapper.towerId)
-                addStringProperty("radio", tower.radio)
-                addNumberProperty("mcc", tower.mcc)
-                addNumberProperty("mnc", tower.mnc)
-                addNumberProperty("area", tower.area)
-                addNumberProperty("cid", tower.cid)
-                addNumberProperty("unit", tower.unit)
-                addNumberProperty("range", tower.range)
-                addNumberProperty("samples", tower.samples)
-                addNumberProperty("averageSignal", tower.averageSignal)
-                addNumberProperty("changeable", tower.changeable)
-                addNumberProperty("createdAt", tower.createdAt)
-                addNumberProperty("updatedAt", tower.updatedAt)
-                addStringProperty("source", tower.source)
-                addNumberProperty("lat", tower.lat)
-                addNumberProperty("lon", tower.lon)
-            }
-        }
-        source.setGeoJson(FeatureCollection.fromFeatures(features.toTypedArray()))
-
-        // 2) Recompute the “match” expressions so that any tower whose ID is in servingIds
-        //    gets the “serving” icon, otherwise all others get the “normal” value.
-        layer.setProperties(
-            iconImage(
-                match(
-                    get(TOWER_ID_PROPERTY),
-                    *servingIds.flatMap { id ->
-                        listOf(
-                            literal(id),          // match-value: a tower ID
-                            literal(servingIcon)  // output-value: “tower-serving”
-                        )
-                    }.toTypedArray(),
-                    literal(normalIcon)    // if no match => “tower”
-                )
-            ),
-        )
+        val features = featureCache.update(towers, servingIds) ?: return
+        source.setGeoJson(FeatureCollection.fromFeatures(features))
     }
 
     override fun onRemoved() {
+        featureCache.clear()
         try {
             style.removeLayer(layerId)
         } catch (_: Exception) {
@@ -0,0 +1,199 @@
+package com.craxiom.networksurvey.ui.diagnostics
+
+import androidx.compose.foundation.layout.Arrangement
+import androidx.compose.foundation.layout.Column
+import androidx.compose.foundation.layout.Row
+import androidx.compose.foundation.layout.Spacer
+import androidx.compose.foundation.layout.fillMaxSize
+import androidx.compose.foundation.layout.fillMaxWidth
+import androidx.compose.foundation.layout.height
+import androidx.compose.foundation.layout.padding
+import androidx.compose.foundation.lazy.LazyColumn
+import androidx.compose.foundation.lazy.items
+import androidx.compose.material.icons.Icons
+import androidx.compose.material.icons.filled.ArrowBack
+import androidx.compose.material.icons.filled.Refresh
+import androidx.compose.material3.Card
+import androidx.compose.material3.ExperimentalMaterial3Api
+import androidx.compose.material3.Icon
+import androidx.compose.material3.IconButton
+import androidx.compose.material3.MaterialTheme
+import androidx.compose.material3.Scaffold
+import androidx.compose.material3.Text
+import androidx.compose.material3.TopAppBar
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.getValue
+import androidx.compose.ui.Alignment
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.res.stringResource
+import androidx.compose.ui.text.font.FontFamily
+import androidx.compose.ui.text.font.FontWeight
+import androidx.compose.ui.unit.dp
+import androidx.lifecycle.compose.collectAsStateWithLifecycle
+import androidx.lifecycle.viewmodel.compose.viewModel
+import com.craxiom.networksurvey.R
+import com.craxiom.networksurvey.metrics.LatencyHistogram
+import com.craxiom.networksurvey.metrics.MetricsSnapshot
+import java.util.Locale
+
+/**
+ * Shows the live counters, queue depths, and latency histograms of the survey record pipeline.
+ */
+@Composable
+fun PipelineDiagnosticsScreen(
+    onNavigateUp: () -> Unit,
+    viewModel: PipelineDiagnosticsViewModel = viewModel()
+) {
+    val snapshot by viewModel.snapshot.collectAsStateWithLifecycle()
+
+    PipelineDiagnosticsContent(
+        snapshot = snapshot,
+        onNavigateUp = onNavigateUp,
+        onReset = viewModel::reset
+    )
+}
+
+@OptIn(ExperimentalMaterial3Api::class)
+@Composable
+private fun PipelineDiagnosticsContent(
+    snapshot: MetricsSnapshot?,
+    onNavigateUp: () -> Unit,
+    onReset: () -> Unit
+) {
+    Scaffold(
+        topBar = {
+            TopAppBar(
+                title = { Text(text = stringResource(R.string.pipeline_diagnostics_title)) },
+                navigationIcon = {
+                    IconButton(onClick = onNavigateUp) {
+                        Icon(
+                            imageVector = Icons.Default.ArrowBack,
+                            contentDescription = "Navigate back"
+                        )
+                    }
+                },
+                actions = {
+                    IconButton(onClick = onReset) {
+                        Icon(
+                            imageVector = Icons.Default.Refresh,
+                            contentDescription = stringResource(R.string.pipeline_diagnostics_reset)
+                        )
+                    }
+                }
+            )
+        }
+    ) { paddingValues ->
+        LazyColumn(
+            modifier = Modifier
+                .fillMaxSize()
+                .padding(paddingValues)
+                .padding(horizontal = 16.dp),
+            verticalArrangement = Arrangement.spacedBy(8.dp)
+        ) {
+            if (snapshot == null || (snapshot.counters.isEmpty() && snapshot.gauges.isEmpty()
+                        && snapshot.histograms.isEmpty())
+            ) {
+                item {
+                    Text(
+                        text = stringResource(R.string.pipeline_diagnostics_empty),
+                        style = MaterialTheme.typography.bodyMedium,
+                        modifier = Modifier.padding(vertical = 16.dp)
+                    )
+                }
+                return@LazyColumn
+            }
+
+            if (snapshot.gauges.isNotEmpty()) {
+                item { SectionHeader(stringResource(R.string.pipeline_diagnostics_gauges)) }
+                item { ValuesCard(snapshot.gauges) }
+            }
+
+            if (snapshot.histograms.isNotEmpty()) {
+                item { SectionHeader(stringResource(R.string.pipeline_diagnostics_histograms)) }
+                items(snapshot.histograms.entries.toList(), key = { it.key }) { entry ->
+                    HistogramCard(name = entry.key, histogram = entry.value)
+                }
+            }
+
+            if (snapshot.counters.isNotEmpty()) {
+                item { SectionHeader(stringResource(R.string.pipeline_diagnostics_counters)) }
+                item { ValuesCard(snapshot.counters) }
+            }
+
+            item {
+                Spacer(modifier = Modifier.height(16.dp))
+            }
+        }
+    }
+}
+
+@Composable
+private fun SectionHeader(title: String) {
+    Text(
+        text = title,
+        style = MaterialTheme.typography.titleMedium,
+        fontWeight = FontWeight.Bold,
+        color = MaterialTheme.colorScheme.primary,
+        modifier = Modifier.padding(top = 8.dp)
+    )
+}
+
+@Composable
+private fun ValuesCard(values: Map<String, Long>) {
+    Card(modifier = Modifier.fillMaxWidth()) {
+        Column(modifier = Modifier.padding(12.dp)) {
+            values.forEach { (name, value) ->
+                Row(
+                    modifier = Modifier.fillMaxWidth(),
+                    horizontalArrangement = Arrangement.SpaceBetween,
+                    verticalAlignment = Alignment.CenterVertically
+                ) {
+                    Text(text = name, style = MaterialTheme.typography.bodyMedium)
+                    Text(
+                        text = value.toString(),
+                        style = MaterialTheme.typography.bodyMedium,
+                        fontFamily = FontFamily.Monospace
+                    )
+                }
+            }
+        }
+    }
+}
+
+@Composable
+private fun HistogramCard(name: String, histogram: LatencyHistogram.Snapshot) {
+    Card(modifier = Modifier.fillMaxWidth()) {
+        Column(modifier = Modifier.padding(12.dp)) {
+            Text(
+                text = name,
+                style = MaterialTheme.typography.bodyLarge,
+                fontWeight = FontWeight.Medium
+            )
+            Text(
+                text = stringResource(
+                    R.string.pipeline_diagnostics_histogram_summary,
+                    histogram.count,
+                    formatNanos(histogram.meanNanos),
+                    formatNanos(histogram.p50Nanos),
+                    formatNanos(histogram.p90Nanos),
+                    formatNanos(histogram.p99Nanos),
+                    formatNanos(histogram.maxNanos)
+                ),
+                style = MaterialTheme.typography.bodySmall,
+                fontFamily = FontFamily.Monospace
+            )
+        }
+    }
+}
+
+/**
+ * Formats a duration with a unit that keeps the number short (e.g. 850 µs, 12.3 ms, 1.20 s).
+ */
+internal fun formatNanos(nanos: Long): String {
+    return when {
+        nanos < 1_000L -> "$nanos ns"
+        nanos < 1_000_000L -> String.format(Locale.US, "%.1f µs", nanos / 1_000.0)
+        nanos < 1_000_000_000L -> String.format(Locale.US, "%.1f ms", nanos / 1_000_000.0)
+        else -> String.format(Locale.US, "%.2f s", nanos / 1_000_000_000.0)
+    }
+}
@@ -0,0 +1,45 @@
+package com.craxiom.networksurvey.ui.diagnostics
+
+import androidx.lifecycle.ViewModel
+import androidx.lifecycle.viewModelScope
+import com.craxiom.networksurvey.metrics.MetricsRegistry
+import com.craxiom.networksurvey.metrics.MetricsSnapshot
+import com.craxiom.networksurvey.metrics.PipelineMetrics
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+
+private const val REFRESH_INTERVAL_MS = 1_000L
+
+/**
+ * ViewModel for the Pipeline Diagnostics screen. Takes a snapshot of the pipeline metrics once a
+ * second for as long as the screen is shown.
+ */
+class PipelineDiagnosticsViewModel(
+    private val registry: MetricsRegistry = PipelineMetrics.REGISTRY
+) : ViewModel() {
+
+    private val _snapshot = MutableStateFlow<MetricsSnapshot?>(null)
+    val snapshot: StateFlow<MetricsSnapshot?> = _snapshot.asStateFlow()
+
+    init {
+        viewModelScope.launch {
+            while (isActive) {
+                _snapshot.value = registry.snapshot()
+                delay(REFRESH_INTERVAL_MS)
+            }
+        }
+    }
+
+    /**
+     * Resets the counters and latency histograms so that the effect of a change can be seen from a
+     * clean slate. The gauges are left alone since they reflect the current state of the pipeline.
+     */
+    fun reset() {
+        registry.reset()
+        _snapshot.value = registry.snapshot()
+    }
+}
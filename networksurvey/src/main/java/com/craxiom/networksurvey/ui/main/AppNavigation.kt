@@ -37,6 +37,7 @@ import com.craxiom.networksurvey.fragments.WifiSpectrumFragment
 import com.craxiom.networksurvey.fragments.model.MqttConnectionSettings
 import com.craxiom.networksurvey.model.WifiNetwork
 import com.craxiom.networksurvey.ui.acknowledgments.AcknowledgmentsScreen
+import com.craxiom.networksurvey.ui.diagnostics.PipelineDiagnosticsScreen
 import com.craxiom.networksurvey.ui.activesurvey.SurveyMonitorScreen
 import com.craxiom.networksurvey.ui.cellular.CalculatorScreen
 import com.craxiom.networksurvey.ui.main.appbar.TitleBar
@@ -123,6 +124,12 @@ fun NavGraphBuilder.mainGraph(
             )
         }
 
+        composable(NavOption.PipelineDiagnostics.name) {
+            PipelineDiagnosticsScreen(
+                onNavigateUp = { mainNavController.navigateUp() }
+            )
+        }
+
         composable(NavOption.QrCodeScanner.name) {
             QrCodeScannerInCompose(mainNavController)
         }
@@ -194,6 +201,7 @@ enum class NavOption {
     SurveyMonitor,
     SsidExclusionList,
     Acknowledgments,
+    PipelineDiagnostics,
 
     SpeedTestHistory,
 
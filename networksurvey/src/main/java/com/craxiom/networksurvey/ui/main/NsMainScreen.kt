@@ -82,6 +82,15 @@ fun MainCompose(
         }
     }
 
+    LaunchedEffect(viewModel.navigateToPipelineDiagnostics) {
+        viewModel.navigateToPipelineDiagnostics.observe(lifecycleOwner) { shouldNavigate ->
+            if (shouldNavigate) {
+                mainNavController.navigate(NavOption.PipelineDiagnostics.name)
+                viewModel.resetPipelineDiagnosticsNavigationFlag()
+            }
+        }
+    }
+
     LaunchedEffect(viewModel.navigateToQrCodeScanner) {
         viewModel.navigateToQrCodeScanner.observe(lifecycleOwner) { shouldNavigate ->
             if (shouldNavigate) {
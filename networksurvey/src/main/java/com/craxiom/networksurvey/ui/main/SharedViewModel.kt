@@ -58,6 +58,9 @@ class SharedViewModel @Inject constructor(application: Application) :
     private val _navigateToAcknowledgments = MutableLiveData(false)
     val navigateToAcknowledgments: LiveData<Boolean> = _navigateToAcknowledgments
 
+    private val _navigateToPipelineDiagnostics = MutableLiveData(false)
+    val navigateToPipelineDiagnostics: LiveData<Boolean> = _navigateToPipelineDiagnostics
+
     private val _navigateToMqttConnection = MutableLiveData(false)
     val navigateToMqttConnection: LiveData<Boolean> = _navigateToMqttConnection
     private var _mqttConnectionSettings: MqttConnectionSettings? = null
@@ -86,6 +89,10 @@ class SharedViewModel @Inject constructor(application: Application) :
         _navigateToAcknowledgments.value = true
     }
 
+    fun triggerNavigationToPipelineDiagnostics() {
+        _navigateToPipelineDiagnostics.value = true
+    }
+
     fun triggerNavigationToQrCodeScanner(mqttConnectionSettings: MqttConnectionSettings) {
         _mqttConnectionSettings = mqttConnectionSettings
         _navigateToQrCodeScanner.value = true
@@ -151,6 +158,10 @@ class SharedViewModel @Inject constructor(application: Application) :
         _navigateToAcknowledgments.value = false
     }
 
+    fun resetPipelineDiagnosticsNavigationFlag() {
+        _navigateToPipelineDiagnostics.value = false
+    }
+
     fun resetNavigationFlag() {
         _navigateToQrCodeScanner.value = false
         _navigateToQrCodeShare.value = false
@@ -42,6 +42,11 @@ import com.craxiom.networksurvey.ui.wifi.model.WifiSpectrum5Group2ViewModel
 import com.craxiom.networksurvey.ui.wifi.model.WifiSpectrum5Group3ViewModel
 import com.craxiom.networksurvey.ui.wifi.model.WifiSpectrum6ViewModel
 import com.craxiom.networksurvey.ui.wifi.model.WifiSpectrumScreenViewModel
+import com.craxiom.networksurvey.wifichannel.WifiBand
+import com.craxiom.networksurvey.wifichannel.WifiChannelCongestion
+import com.craxiom.networksurvey.wifichannel.WifiChannelReport
+import java.util.Locale
+import kotlin.math.roundToInt
 
 /**
  * A Compose screen that shows the usage of the Wi-Fi spectrum.
@@ -57,6 +62,7 @@ internal fun WifiSpectrumScreen(
     wifiSpectrumFragment: WifiSpectrumFragment
 ) {
     val scanRate by screenViewModel.scanRate.collectAsStateWithLifecycle()
+    val channelReport by screenViewModel.channelReport.collectAsStateWithLifecycle()
 
     LazyColumn(
         state = rememberLazyListState(),
@@ -70,6 +76,7 @@ internal fun WifiSpectrumScreen(
             viewModel5GhzGroup3,
             viewModel6Ghz,
             scanRate,
+            channelReport,
             wifiSpectrumFragment
         )
     }
@@ -82,6 +89,7 @@ private fun LazyListScope.chartItems(
     viewModel5GhzGroup3: WifiSpectrum5Group3ViewModel,
     viewModel6Ghz: WifiSpectrum6ViewModel,
     scanRate: Int,
+    channelReport: WifiChannelReport?,
     wifiSpectrumFragment: WifiSpectrumFragment
 ) {
     item {
@@ -116,6 +124,10 @@ private fun LazyListScope.chartItems(
         }
     }
 
+    cardItem {
+        ChannelCongestion(channelReport)
+    }
+
     cardItem {
         Column(
             horizontalAlignment = Alignment.CenterHorizontally
@@ -213,6 +225,60 @@ private fun LazyListScope.chartItems(
     }
 }
 
+/**
+ * Shows the least congested channel in each band that was seen, and the most congested channels.
+ */
+@Composable
+private fun ChannelCongestion(report: WifiChannelReport?) {
+    Column(modifier = Modifier.fillMaxWidth()) {
+        Text(
+            text = "Channel Congestion",
+            style = MaterialTheme.typography.titleMedium
+        )
+
+        val bands = WifiBand.entries.filter { report != null && report.getRecommendedChannel(it) != -1 }
+        if (report == null || bands.isEmpty()) {
+            Text(
+                text = "Waiting for the next scan",
+                style = MaterialTheme.typography.bodyMedium
+            )
+            return@Column
+        }
+
+        bands.forEach { band ->
+            Row(verticalAlignment = Alignment.CenterVertically) {
+                Text(
+                    text = "${band.displayName}: ",
+                    style = MaterialTheme.typography.labelMedium
+                )
+                Text(
+                    text = "Use channel ${report.getRecommendedChannel(band)} (${report.getBssCount(band)} BSSs)",
+                    style = MaterialTheme.typography.titleSmall
+                )
+            }
+
+            val busiest = report.getChannels(band)
+                .filter { it.bssCount > 0 }
+                .sortedByDescending { it.score }
+                .take(BUSIEST_CHANNEL_COUNT)
+            if (busiest.isNotEmpty()) {
+                Text(
+                    text = "Busiest: " + busiest.joinToString { formatCongestion(it) },
+                    style = MaterialTheme.typography.bodySmall
+                )
+            }
+        }
+    }
+}
+
+private fun formatCongestion(congestion: WifiChannelCongestion): String {
+    val utilization = if (congestion.utilization.isNaN()) "" else {
+        ", ${(congestion.utilization * 100).roundToInt()}% busy"
+    }
+    val weightedBssCount = String.format(Locale.US, "%.1f", congestion.weightedBssCount)
+    return "${congestion.channel} ($weightedBssCount$utilization)"
+}
+
 private fun LazyListScope.cardItem(content: @Composable () -> Unit) {
     item {
         Card(shape = MaterialTheme.shapes.large, colors = CardDefaults.elevatedCardColors()) {
@@ -237,3 +303,4 @@ fun OpenSettingsBtn(fragment: WifiSpectrumFragment) {
 }
 
 private val padding = 16.dp
+private const val BUSIEST_CHANNEL_COUNT = 3
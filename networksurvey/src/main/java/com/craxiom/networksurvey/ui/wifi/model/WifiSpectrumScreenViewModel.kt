@@ -2,6 +2,7 @@ package com.craxiom.networksurvey.ui.wifi.model
 
 
 import androidx.lifecycle.ViewModel
+import com.craxiom.networksurvey.wifichannel.WifiChannelReport
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.asStateFlow
 
@@ -13,10 +14,20 @@ class WifiSpectrumScreenViewModel : ViewModel() {
     private val _scanRateSeconds = MutableStateFlow(-1)
     val scanRate = _scanRateSeconds.asStateFlow()
 
+    private val _channelReport = MutableStateFlow<WifiChannelReport?>(null)
+    val channelReport = _channelReport.asStateFlow()
+
     /**
      * Sets the scan rate in seconds.
      */
     fun setScanRateSeconds(scanRateSeconds: Int) {
         _scanRateSeconds.value = scanRateSeconds
     }
+
+    /**
+     * Sets the latest channel congestion report. This can be called from any thread.
+     */
+    fun setChannelReport(report: WifiChannelReport) {
+        _channelReport.value = report
+    }
 }
@@ -14,10 +14,17 @@ import com.craxiom.messaging.UmtsRecord;
 import com.craxiom.messaging.UmtsRecordData;
 import com.craxiom.networksurvey.messaging.Error;
 import com.craxiom.networksurvey.messaging.LteBandwidth;
+import com.craxiom.networksurvey.model.TimestampedRecord;
+
+import java.util.function.Function;
 
 /**
  * Utility methods to help with converting the newer survey record protobuf objects to the old format. This class should
  * only exist for a short amount of time while usages of the old protobuf records are removed from other code bases.
+ * <p>
+ * The gRPC streams to an older server convert each record right before it is sent, so they use the converters that
+ * reuse a builder rather than allocating a new builder for every record. The records are queued along with their epoch
+ * time, so the converters don't have to parse the device time string either.
  *
  * @since 0.2.0
  */
@@ -35,8 +42,24 @@ public final class LegacyRecordConversion
      * @return The old Device Status object format.
      */
     public static com.craxiom.networksurvey.messaging.DeviceStatus convertDeviceStatus(DeviceStatus deviceStatus)
+    {
+        return convertDeviceStatus(deviceStatus, com.craxiom.networksurvey.messaging.DeviceStatus.newBuilder());
+    }
+
+    /**
+     * @return A converter to the old Device Status object format that reuses a single builder, so it must only be used
+     * from one thread at a time.
+     * @since 1.43
+     */
+    public static Function<DeviceStatus, com.craxiom.networksurvey.messaging.DeviceStatus> deviceStatusConverter()
     {
         final com.craxiom.networksurvey.messaging.DeviceStatus.Builder builder = com.craxiom.networksurvey.messaging.DeviceStatus.newBuilder();
+        return deviceStatus -> convertDeviceStatus(deviceStatus, builder.clear());
+    }
+
+    private static com.craxiom.networksurvey.messaging.DeviceStatus convertDeviceStatus(DeviceStatus deviceStatus,
+                                                                                     com.craxiom.networksurvey.messaging.DeviceStatus.Builder builder)
+    {
         final DeviceStatusData data = deviceStatus.getData();
         builder.setDeviceSerialNumber(data.getDeviceSerialNumber());
         builder.setDeviceTime(getEpochFromRfc3339(data.getDeviceTime()));
@@ -64,11 +87,29 @@ public final class LegacyRecordConversion
      * @return The old GSM record object format.
      */
     public static com.craxiom.networksurvey.messaging.GsmRecord convertGsmRecord(GsmRecord gsmRecord)
+    {
+        return convertGsmRecord(gsmRecord, getEpochFromRfc3339(gsmRecord.getData().getDeviceTime()),
+                com.craxiom.networksurvey.messaging.GsmRecord.newBuilder());
+    }
+
+    /**
+     * @return A converter to the old GSM record format that reuses a single builder, so it must only be used
+     * from one thread at a time.
+     * @since 1.43
+     */
+    public static Function<TimestampedRecord<GsmRecord>, com.craxiom.networksurvey.messaging.GsmRecord> gsmRecordConverter()
     {
         final com.craxiom.networksurvey.messaging.GsmRecord.Builder builder = com.craxiom.networksurvey.messaging.GsmRecord.newBuilder();
+        return timestampedRecord -> convertGsmRecord(timestampedRecord.record(), timestampedRecord.epochMillis(),
+                builder.clear());
+    }
+
+    private static com.craxiom.networksurvey.messaging.GsmRecord convertGsmRecord(GsmRecord gsmRecord, long epochMillis,
+                                                                                  com.craxiom.networksurvey.messaging.GsmRecord.Builder builder)
+    {
         final GsmRecordData data = gsmRecord.getData();
         builder.setDeviceSerialNumber(data.getDeviceSerialNumber());
-        builder.setDeviceTime(getEpochFromRfc3339(data.getDeviceTime()));
+        builder.setDeviceTime(epochMillis);
         builder.setLatitude(data.getLatitude());
         builder.setLongitude(data.getLongitude());
         builder.setAltitude(data.getAltitude());
@@ -98,11 +139,29 @@ public final class LegacyRecordConversion
      * @return The old CDMA record object format.
      */
     public static com.craxiom.networksurvey.messaging.CdmaRecord convertCdmaRecord(CdmaRecord cdmaRecord)
+    {
+        return convertCdmaRecord(cdmaRecord, getEpochFromRfc3339(cdmaRecord.getData().getDeviceTime()),
+                com.craxiom.networksurvey.messaging.CdmaRecord.newBuilder());
+    }
+
+    /**
+     * @return A converter to the old CDMA record format that reuses a single builder, so it must only be used
+     * from one thread at a time.
+     * @since 1.43
+     */
+    public static Function<TimestampedRecord<CdmaRecord>, com.craxiom.networksurvey.messaging.CdmaRecord> cdmaRecordConverter()
     {
         final com.craxiom.networksurvey.messaging.CdmaRecord.Builder builder = com.craxiom.networksurvey.messaging.CdmaRecord.newBuilder();
+        return timestampedRecord -> convertCdmaRecord(timestampedRecord.record(), timestampedRecord.epochMillis(),
+                builder.clear());
+    }
+
+    private static com.craxiom.networksurvey.messaging.CdmaRecord convertCdmaRecord(CdmaRecord cdmaRecord, long epochMillis,
+                                                                                    com.craxiom.networksurvey.messaging.CdmaRecord.Builder builder)
+    {
         final CdmaRecordData data = cdmaRecord.getData();
         builder.setDeviceSerialNumber(data.getDeviceSerialNumber());
-        builder.setDeviceTime(getEpochFromRfc3339(data.getDeviceTime()));
+        builder.setDeviceTime(epochMillis);
         builder.setLatitude(data.getLatitude());
         builder.setLongitude(data.getLongitude());
         builder.setAltitude(data.getAltitude());
@@ -132,11 +191,29 @@ public final class LegacyRecordConversion
      * @return The old UMTS record object format.
      */
     public static com.craxiom.networksurvey.messaging.UmtsRecord convertUmtsRecord(UmtsRecord umtsRecord)
+    {
+        return convertUmtsRecord(umtsRecord, getEpochFromRfc3339(umtsRecord.getData().getDeviceTime()),
+                com.craxiom.networksurvey.messaging.UmtsRecord.newBuilder());
+    }
+
+    /**
+     * @return A converter to the old UMTS record format that reuses a single builder, so it must only be used
+     * from one thread at a time.
+     * @since 1.43
+     */
+    public static Function<TimestampedRecord<UmtsRecord>, com.craxiom.networksurvey.messaging.UmtsRecord> umtsRecordConverter()
     {
         final com.craxiom.networksurvey.messaging.UmtsRecord.Builder builder = com.craxiom.networksurvey.messaging.UmtsRecord.newBuilder();
+        return timestampedRecord -> convertUmtsRecord(timestampedRecord.record(), timestampedRecord.epochMillis(),
+                builder.clear());
+    }
+
+    private static com.craxiom.networksurvey.messaging.UmtsRecord convertUmtsRecord(UmtsRecord umtsRecord, long epochMillis,
+                                                                                    com.craxiom.networksurvey.messaging.UmtsRecord.Builder builder)
+    {
         final UmtsRecordData data = umtsRecord.getData();
         builder.setDeviceSerialNumber(data.getDeviceSerialNumber());
-        builder.setDeviceTime(getEpochFromRfc3339(data.getDeviceTime()));
+        builder.setDeviceTime(epochMillis);
         builder.setLatitude(data.getLatitude());
         builder.setLongitude(data.getLongitude());
         builder.setAltitude(data.getAltitude());
@@ -166,11 +243,29 @@ public final class LegacyRecordConversion
      * @return The old LTE record object format.
      */
     public static com.craxiom.networksurvey.messaging.LteRecord convertLteRecord(LteRecord lteRecord)
+    {
+        return convertLteRecord(lteRecord, getEpochFromRfc3339(lteRecord.getData().getDeviceTime()),
+                com.craxiom.networksurvey.messaging.LteRecord.newBuilder());
+    }
+
+    /**
+     * @return A converter to the old LTE record format that reuses a single builder, so it must only be used
+     * from one thread at a time.
+     * @since 1.43
+     */
+    public static Function<TimestampedRecord<LteRecord>, com.craxiom.networksurvey.messaging.LteRecord> lteRecordConverter()
     {
         final com.craxiom.networksurvey.messaging.LteRecord.Builder builder = com.craxiom.networksurvey.messaging.LteRecord.newBuilder();
+        return timestampedRecord -> convertLteRecord(timestampedRecord.record(), timestampedRecord.epochMillis(),
+                builder.clear());
+    }
+
+    private static com.craxiom.networksurvey.messaging.LteRecord convertLteRecord(LteRecord lteRecord, long epochMillis,
+                                                                                  com.craxiom.networksurvey.messaging.LteRecord.Builder builder)
+    {
         final LteRecordData data = lteRecord.getData();
         builder.setDeviceSerialNumber(data.getDeviceSerialNumber());
-        builder.setDeviceTime(getEpochFromRfc3339(data.getDeviceTime()));
+        builder.setDeviceTime(epochMillis);
         builder.setLatitude(data.getLatitude());
         builder.setLongitude(data.getLongitude());
         builder.setAltitude(data.getAltitude());
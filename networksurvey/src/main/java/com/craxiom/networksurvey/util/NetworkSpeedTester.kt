@@ -21,6 +21,7 @@ import java.net.Socket
 import java.net.URL
 import java.security.SecureRandom
 import java.security.cert.X509Certificate
+import java.util.concurrent.atomic.AtomicLong
 import javax.net.ssl.HostnameVerifier
 import javax.net.ssl.HttpsURLConnection
 import javax.net.ssl.SSLContext
@@ -42,6 +43,9 @@ class NetworkSpeedTester(private val context: Context) {
 
     private var bestServer: SpeedtestServer? = null
 
+    // 累计传输字节数，供路测模式按秒采样吞吐量
+    private val transferredBytes = AtomicLong(0)
+
     private val USER_AGENT =
         "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/114.0.0.0 Safari/537.36"
     private val SPEEDTEST_SERVER_LIST_URL = "https://www.speedtest.net/api/js/servers"
@@ -204,6 +208,7 @@ class NetworkSpeedTester(private val context: Context) {
                                     val bytesRead = input.read(buffer)
                                     if (bytesRead == -1) break
                                     totalBytes += bytesRead
+                                    transferredBytes.addAndGet(bytesRead.toLong())
                                 }
                             }
                         } finally {
@@ -261,6 +266,7 @@ class NetworkSpeedTester(private val context: Context) {
                                 out.write(randomData)
                                 out.flush()
                             }
+                            transferredBytes.addAndGet(chunkSize.toLong())
                             conn.inputStream.readBytes()
                         } finally {
                             conn.disconnect()
@@ -377,6 +383,18 @@ class NetworkSpeedTester(private val context: Context) {
         bestServer = null
     }
 
+    /**
+     * 清除取消标记，使取消后可以再次开始测速
+     */
+    fun resetCancellation() {
+        isCancelled = false
+    }
+
+    /**
+     * 自创建以来下载和上传的累计字节数
+     */
+    fun getTransferredBytes(): Long = transferredBytes.get()
+
     fun clearBestServer() {
         bestServer = null
     }
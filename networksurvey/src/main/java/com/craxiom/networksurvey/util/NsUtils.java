@@ -54,7 +54,7 @@ public class NsUtils
     {
         try
         {
-            return ZonedDateTime.parse(dateTimeString, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant().toEpochMilli();
+            return Rfc3339Formatter.parseEpochMillis(dateTimeString);
         } catch (Exception e)
         {
             Timber.e(e, "Could not convert the String date/time to Epoch");
@@ -280,6 +280,200 @@ public class PreferenceUtils
         return Integer.parseInt(NetworkSurveyConstants.DEFAULT_ROLLOVER_SIZE_MB);
     }
 
+    /**
+     * Gets the preference for adapting the scan intervals to the motion of the device and the battery state.
+     * <p>
+     * First, this method tries to pull the MDM provided value. If it is not set (either because the device is
+     * not under MDM control, or if that specific value is not set by the MDM administrator) then the value is pulled
+     * from the Android Shared Preferences (aka from the user settings). If it is not set there then the default value
+     * is used.
+     * <p>
+     * The only exception to this sequence is that if the user has toggled the MDM override switch in user settings,
+     * then the user preference value will be used instead of the MDM value.
+     *
+     * @param context The context to use when getting the Shared Preferences and Restriction Manager.
+     * @return True if the scan intervals should be adapted, false if the configured intervals should be used as is.
+     * @since 1.43
+     */
+    public static boolean getAdaptiveScanIntervalPreference(Context context)
+    {
+        final RestrictionsManager restrictionsManager = (RestrictionsManager) context.getSystemService(Context.RESTRICTIONS_SERVICE);
+
+        final boolean mdmOverride = PreferenceManager.getDefaultSharedPreferences(context).getBoolean(NetworkSurveyConstants.PROPERTY_MDM_OVERRIDE_KEY, false);
+
+        // First try to use the MDM provided value.
+        if (restrictionsManager != null && !mdmOverride)
+        {
+            final Bundle mdmProperties = restrictionsManager.getApplicationRestrictions();
+
+            if (mdmProperties.containsKey(NetworkSurveyConstants.PROPERTY_ADAPTIVE_SCAN_INTERVAL))
+            {
+                return mdmProperties.getBoolean(NetworkSurveyConstants.PROPERTY_ADAPTIVE_SCAN_INTERVAL);
+            }
+        }
+
+        final SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+
+        // Next, try to use the value from user preferences, with a default fallback
+        return preferences.getBoolean(NetworkSurveyConstants.PROPERTY_ADAPTIVE_SCAN_INTERVAL,
+                NetworkSurveyConstants.DEFAULT_ADAPTIVE_SCAN_INTERVAL);
+    }
+
+    /**
+     * Gets the preference for sending the periodic pipeline metrics message alongside the Device Status message.
+     * <p>
+     * The MDM value is used first, then the user preference, and then the default value, with the same MDM
+     * override exception as {@link #getAdaptiveScanIntervalPreference(Context)}.
+     *
+     * @param context The context to use when getting the Shared Preferences and Restriction Manager.
+     * @return True if the pipeline metrics message should be sent.
+     * @since 1.43
+     */
+    public static boolean getPipelineMetricsMessagePreference(Context context)
+    {
+        final RestrictionsManager restrictionsManager = (RestrictionsManager) context.getSystemService(Context.RESTRICTIONS_SERVICE);
+
+        final boolean mdmOverride = PreferenceManager.getDefaultSharedPreferences(context).getBoolean(NetworkSurveyConstants.PROPERTY_MDM_OVERRIDE_KEY, false);
+
+        // First try to use the MDM provided value.
+        if (restrictionsManager != null && !mdmOverride)
+        {
+            final Bundle mdmProperties = restrictionsManager.getApplicationRestrictions();
+
+            if (mdmProperties.containsKey(NetworkSurveyConstants.PROPERTY_PIPELINE_METRICS_MESSAGE))
+            {
+                return mdmProperties.getBoolean(NetworkSurveyConstants.PROPERTY_PIPELINE_METRICS_MESSAGE);
+            }
+        }
+
+        final SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+
+        // Next, try to use the value from user preferences, with a default fallback
+        return preferences.getBoolean(NetworkSurveyConstants.PROPERTY_PIPELINE_METRICS_MESSAGE,
+                NetworkSurveyConstants.DEFAULT_PIPELINE_METRICS_MESSAGE);
+    }
+
+    /**
+     * Gets the preference for looking for physical cell ID collisions, confusion, and mod 3 and mod 30 clashes in the
+     * cellular records.
+     * <p>
+     * The MDM value is used first, then the user preference, and then the default value, with the same MDM
+     * override exception as {@link #getAdaptiveScanIntervalPreference(Context)}.
+     *
+     * @param context The context to use when getting the Shared Preferences and Restriction Manager.
+     * @return True if the cellular records should be checked for physical cell ID problems.
+     * @since 1.43
+     */
+    public static boolean getCellConflictDetectionPreference(Context context)
+    {
+        final RestrictionsManager restrictionsManager = (RestrictionsManager) context.getSystemService(Context.RESTRICTIONS_SERVICE);
+
+        final boolean mdmOverride = PreferenceManager.getDefaultSharedPreferences(context).getBoolean(NetworkSurveyConstants.PROPERTY_MDM_OVERRIDE_KEY, false);
+
+        // First try to use the MDM provided value.
+        if (restrictionsManager != null && !mdmOverride)
+        {
+            final Bundle mdmProperties = restrictionsManager.getApplicationRestrictions();
+
+            if (mdmProperties.containsKey(NetworkSurveyConstants.PROPERTY_CELL_CONFLICT_DETECTION))
+            {
+                return mdmProperties.getBoolean(NetworkSurveyConstants.PROPERTY_CELL_CONFLICT_DETECTION);
+            }
+        }
+
+        final SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+
+        // Next, try to use the value from user preferences, with a default fallback
+        return preferences.getBoolean(NetworkSurveyConstants.PROPERTY_CELL_CONFLICT_DETECTION,
+                NetworkSurveyConstants.DEFAULT_CELL_CONFLICT_DETECTION);
+    }
+
+    /**
+     * Gets the preference for suppressing the cellular records of cells that have not changed since they
+     * were last logged or streamed.
+     * <p>
+     * First, this method tries to pull the MDM provided value. If it is not set (either because the device is
+     * not under MDM control, or if that specific value is not set by the MDM administrator) then the value is pulled
+     * from the Android Shared Preferences (aka from the user settings). If it is not set there then the default value
+     * is used.
+     * <p>
+     * The only exception to this sequence is that if the user has toggled the MDM override switch in user settings,
+     * then the user preference value will be used instead of the MDM value.
+     *
+     * @param context The context to use when getting the Shared Preferences and Restriction Manager.
+     * @return True if the records for unchanged cells should be suppressed.
+     * @since 1.43
+     */
+    public static boolean getSuppressUnchangedCellsPreference(Context context)
+    {
+        final RestrictionsManager restrictionsManager = (RestrictionsManager) context.getSystemService(Context.RESTRICTIONS_SERVICE);
+
+        final boolean mdmOverride = PreferenceManager.getDefaultSharedPreferences(context).getBoolean(NetworkSurveyConstants.PROPERTY_MDM_OVERRIDE_KEY, false);
+
+        // First try to use the MDM provided value.
+        if (restrictionsManager != null && !mdmOverride)
+        {
+            final Bundle mdmProperties = restrictionsManager.getApplicationRestrictions();
+
+            if (mdmProperties.containsKey(NetworkSurveyConstants.PROPERTY_SUPPRESS_UNCHANGED_CELLS))
+            {
+                return mdmProperties.getBoolean(NetworkSurveyConstants.PROPERTY_SUPPRESS_UNCHANGED_CELLS);
+            }
+        }
+
+        final SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+
+        // Next, try to use the value from user preferences, with a default fallback
+        return preferences.getBoolean(NetworkSurveyConstants.PROPERTY_SUPPRESS_UNCHANGED_CELLS,
+                NetworkSurveyConstants.DEFAULT_SUPPRESS_UNCHANGED_CELLS);
+    }
+
+    /**
+     * Gets the number of scans after which the record for an unchanged cell is sent again even though it
+     * has not changed. This is only used when the unchanged cell suppression is enabled.
+     * <p>
+     * The MDM value is used first, then the user preference, and then the default value, with the same MDM
+     * override exception as {@link #getSuppressUnchangedCellsPreference(Context)}.
+     *
+     * @param context The context to use when getting the Shared Preferences and Restriction Manager.
+     * @return The heartbeat interval in number of scans, which is always at least 1.
+     * @since 1.43
+     */
+    public static int getUnchangedCellHeartbeatScansPreference(Context context)
+    {
+        final RestrictionsManager restrictionsManager = (RestrictionsManager) context.getSystemService(Context.RESTRICTIONS_SERVICE);
+
+        final boolean mdmOverride = PreferenceManager.getDefaultSharedPreferences(context).getBoolean(NetworkSurveyConstants.PROPERTY_MDM_OVERRIDE_KEY, false);
+
+        // First try to use the MDM provided value.
+        if (restrictionsManager != null && !mdmOverride)
+        {
+            final Bundle mdmProperties = restrictionsManager.getApplicationRestrictions();
+
+            if (mdmProperties.containsKey(NetworkSurveyConstants.PROPERTY_UNCHANGED_CELL_HEARTBEAT_SCANS))
+            {
+                final int heartbeatScans = mdmProperties.getInt(NetworkSurveyConstants.PROPERTY_UNCHANGED_CELL_HEARTBEAT_SCANS);
+                if (heartbeatScans >= 1) return heartbeatScans;
+            }
+        }
+
+        final SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+
+        // Next, try to use the value from user preferences.
+        final String heartbeatPreferenceString = preferences.getString(NetworkSurveyConstants.PROPERTY_UNCHANGED_CELL_HEARTBEAT_SCANS,
+                String.valueOf(NetworkSurveyConstants.DEFAULT_UNCHANGED_CELL_HEARTBEAT_SCANS));
+        try
+        {
+            final int heartbeatScans = Integer.parseInt(heartbeatPreferenceString);
+            if (heartbeatScans >= 1) return heartbeatScans;
+        } catch (Exception e)
+        {
+            Timber.e(e, "Could not convert the unchanged cell heartbeat user preference (%s) to an int", heartbeatPreferenceString);
+        }
+
+        return NetworkSurveyConstants.DEFAULT_UNCHANGED_CELL_HEARTBEAT_SCANS;
+    }
+
     /**
      * Gets the log file type preference.
      * <p>
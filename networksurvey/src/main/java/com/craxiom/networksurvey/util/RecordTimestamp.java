@@ -0,0 +1,51 @@
+package com.craxiom.networksurvey.util;
+
+import android.os.SystemClock;
+
+import java.time.ZoneId;
+
+/**
+ * A snapshot of the clock that is taken once per scan batch and shared by all the records created
+ * from that batch. It holds both representations of the device time: the Unix Epoch millis and the
+ * RFC3339 string that is set on the protobuf records, so the string is only formatted once per batch.
+ * <p>
+ * The protobuf records only have room for the string, so the epoch millis are carried alongside the
+ * records instead (e.g. {@link com.craxiom.networksurvey.model.CellularRecordWrapper#epochMillis}),
+ * which lets the sinks (e.g. the GeoPackage loggers) use them without parsing the string back.
+ *
+ * @since 1.43
+ */
+public final class RecordTimestamp
+{
+    public final long epochMillis;
+    public final long elapsedRealtimeMillis;
+    public final String rfc3339;
+
+    private RecordTimestamp(long epochMillis, long elapsedRealtimeMillis, String rfc3339)
+    {
+        this.epochMillis = epochMillis;
+        this.elapsedRealtimeMillis = elapsedRealtimeMillis;
+        this.rfc3339 = rfc3339;
+    }
+
+    /**
+     * @return A snapshot of the current wall clock and {@link SystemClock#elapsedRealtime()}.
+     */
+    public static RecordTimestamp now()
+    {
+        return of(System.currentTimeMillis(), SystemClock.elapsedRealtime(), ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates a snapshot for the provided times.
+     *
+     * @param epochMillis           The Unix Epoch time in milliseconds.
+     * @param elapsedRealtimeMillis The monotonic time (e.g. {@link SystemClock#elapsedRealtime()}).
+     * @param zone                  The time zone to use for the RFC3339 string.
+     * @return The new snapshot.
+     */
+    public static RecordTimestamp of(long epochMillis, long elapsedRealtimeMillis, ZoneId zone)
+    {
+        return new RecordTimestamp(epochMillis, elapsedRealtimeMillis, Rfc3339Formatter.format(epochMillis, zone));
+    }
+}
@@ -0,0 +1,200 @@
+package com.craxiom.networksurvey.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formats and parses the {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} strings used for the device
+ * time in the survey records without going through {@link DateTimeFormatter} for every record.
+ * <p>
+ * The records are created many times per second, so most timestamps share the same date, time to the
+ * second, and offset. The formatted per-second prefix and the offset suffix are cached, so formatting
+ * only has to append the milliseconds, and parsing a string from the same second only has to read
+ * the milliseconds. Any time the second or zone changes the slow path is used to rebuild the cache.
+ * <p>
+ * The output matches {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} for a time with millisecond
+ * precision (e.g. "2020-08-19T18:13:22.548+00:00", "2020-08-19T18:13:22.5Z", "2020-08-19T18:13:22Z").
+ * <p>
+ * This class is thread safe.
+ *
+ * @since 1.43
+ */
+public final class Rfc3339Formatter
+{
+    // The length of "yyyy-MM-ddTHH:mm:ss" for a 4 digit year
+    private static final int SECOND_PREFIX_LENGTH = 19;
+
+    private static volatile FormatCache formatCache;
+    private static volatile ParseCache parseCache;
+
+    private Rfc3339Formatter()
+    {
+    }
+
+    /**
+     * The formatted pieces of a single second in a single zone.
+     */
+    private static final class FormatCache
+    {
+        final long epochSecond;
+        final ZoneId zone;
+        final String prefix;
+        final String offsetSuffix;
+
+        FormatCache(long epochSecond, ZoneId zone, String prefix, String offsetSuffix)
+        {
+            this.epochSecond = epochSecond;
+            this.zone = zone;
+            this.prefix = prefix;
+            this.offsetSuffix = offsetSuffix;
+        }
+    }
+
+    /**
+     * The last second that was parsed using the slow path.
+     */
+    private static final class ParseCache
+    {
+        final String prefix;
+        final String offsetSuffix;
+        final long epochSecond;
+
+        ParseCache(String prefix, String offsetSuffix, long epochSecond)
+        {
+            this.prefix = prefix;
+            this.offsetSuffix = offsetSuffix;
+            this.epochSecond = epochSecond;
+        }
+    }
+
+    /**
+     * Formats the provided time using the system default time zone.
+     *
+     * @param epochMillis The Unix Epoch time in milliseconds.
+     * @return The RFC3339 string in the {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} format.
+     */
+    public static String format(long epochMillis)
+    {
+        return format(epochMillis, ZoneId.systemDefault());
+    }
+
+    /**
+     * Formats the provided time in the provided time zone.
+     *
+     * @param epochMillis The Unix Epoch time in milliseconds.
+     * @param zone        The time zone to use for the local date/time and offset.
+     * @return The RFC3339 string in the {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} format.
+     */
+    public static String format(long epochMillis, ZoneId zone)
+    {
+        final long epochSecond = Math.floorDiv(epochMillis, 1000L);
+        final int millis = (int) Math.floorMod(epochMillis, 1000L);
+
+        FormatCache cache = formatCache;
+        if (cache == null || cache.epochSecond != epochSecond || !cache.zone.equals(zone))
+        {
+            cache = buildFormatCache(epochSecond, zone);
+            formatCache = cache;
+        }
+
+        final StringBuilder builder = new StringBuilder(cache.prefix.length() + 4 + cache.offsetSuffix.length());
+        builder.append(cache.prefix);
+        appendMillisFraction(builder, millis);
+        builder.append(cache.offsetSuffix);
+        return builder.toString();
+    }
+
+    /**
+     * Converts a {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} string to Unix Epoch time. If the
+     * string is from the same second and offset as the previously parsed string, only the fraction
+     * of the second is read; otherwise it is fully parsed.
+     *
+     * @param dateTimeString The date time string in {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} format.
+     * @return The Unix Epoch time in milliseconds.
+     * @throws java.time.format.DateTimeParseException If the string can't be parsed.
+     */
+    public static long parseEpochMillis(String dateTimeString)
+    {
+        final ParseCache cache = parseCache;
+        if (cache != null && dateTimeString.length() > SECOND_PREFIX_LENGTH
+                && dateTimeString.regionMatches(0, cache.prefix, 0, SECOND_PREFIX_LENGTH))
+        {
+            final int offsetStart = findOffsetStart(dateTimeString);
+            if (offsetStart != -1 && dateTimeString.regionMatches(offsetStart, cache.offsetSuffix, 0, cache.offsetSuffix.length())
+                    && dateTimeString.length() - offsetStart == cache.offsetSuffix.length())
+            {
+                return cache.epochSecond * 1000L + readFractionMillis(dateTimeString, offsetStart);
+            }
+        }
+
+        final ZonedDateTime dateTime = ZonedDateTime.parse(dateTimeString, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        final int offsetStart = findOffsetStart(dateTimeString);
+        if (offsetStart != -1)
+        {
+            parseCache = new ParseCache(dateTimeString.substring(0, SECOND_PREFIX_LENGTH),
+                    dateTimeString.substring(offsetStart), dateTime.toEpochSecond());
+        }
+        return dateTime.toInstant().toEpochMilli();
+    }
+
+    private static FormatCache buildFormatCache(long epochSecond, ZoneId zone)
+    {
+        final ZonedDateTime dateTime = ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone);
+        final String prefix = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime.toLocalDateTime());
+        final String full = DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime);
+        return new FormatCache(epochSecond, zone, prefix, full.substring(prefix.length()));
+    }
+
+    /**
+     * Appends the milliseconds the same way {@link DateTimeFormatter#ISO_LOCAL_TIME} prints the
+     * fraction: nothing for zero, otherwise a decimal point and the digits with any trailing zeros
+     * removed.
+     */
+    private static void appendMillisFraction(StringBuilder builder, int millis)
+    {
+        if (millis == 0) return;
+
+        builder.append('.');
+        builder.append((char) ('0' + millis / 100));
+        final int tens = millis / 10 % 10;
+        final int ones = millis % 10;
+        if (tens != 0 || ones != 0) builder.append((char) ('0' + tens));
+        if (ones != 0) builder.append((char) ('0' + ones));
+    }
+
+    /**
+     * @return The index where the offset starts for a string with a 4 digit year, or -1 if the
+     * year is not 4 digits or the fraction of the second is malformed. The returned index is not
+     * validated as an offset; the caller must compare it to a known good offset.
+     */
+    private static int findOffsetStart(String dateTimeString)
+    {
+        if (dateTimeString.length() <= SECOND_PREFIX_LENGTH || dateTimeString.charAt(4) != '-') return -1;
+        if (dateTimeString.charAt(SECOND_PREFIX_LENGTH) != '.') return SECOND_PREFIX_LENGTH;
+
+        int index = SECOND_PREFIX_LENGTH + 1;
+        while (index < dateTimeString.length())
+        {
+            final char c = dateTimeString.charAt(index);
+            if (c < '0' || c > '9') break;
+            index++;
+        }
+
+        final int digits = index - SECOND_PREFIX_LENGTH - 1;
+        return digits == 0 || digits > 9 ? -1 : index;
+    }
+
+    private static int readFractionMillis(String dateTimeString, int offsetStart)
+    {
+        int millis = 0;
+        for (int i = 0; i < 3; i++)
+        {
+            final int index = SECOND_PREFIX_LENGTH + 1 + i;
+            millis *= 10;
+            if (index < offsetStart) millis += dateTimeString.charAt(index) - '0';
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,48 @@
+package com.craxiom.networksurvey.util
+
+import com.craxiom.networksurvey.model.ThroughputSample
+
+/**
+ * 路测模式的吞吐量采样器：根据累计传输字节数的差值计算每个采样窗口的吞吐量，并标记窗口所属的测速阶段。
+ *
+ * 两次测速之间的空闲阶段（[ThroughputSample.Phase.IDLE]）不产生采样，但仍会推进字节数基线，
+ * 这样空闲期间的残余流量不会被计入下一次测速的第一个采样。
+ *
+ * 不依赖 Android，便于在 JVM 单元测试中验证。非线程安全，只应在采样协程中使用。
+ *
+ * @since 1.43
+ */
+class ThroughputSampler(initialBytes: Long, initialTimeMs: Long) {
+
+    /**
+     * 一个采样窗口的结果
+     */
+    data class Sample(val phase: ThroughputSample.Phase, val throughputMbps: Double)
+
+    private var lastBytes = initialBytes
+    private var lastTimeMs = initialTimeMs
+
+    /**
+     * 结束当前采样窗口并开始下一个。
+     *
+     * @param bytes 当前累计传输字节数
+     * @param nowMs 当前时间（毫秒）
+     * @param phase 窗口结束时所处的测速阶段
+     * @return 该窗口的采样；空闲阶段返回 null
+     */
+    fun sample(bytes: Long, nowMs: Long, phase: ThroughputSample.Phase): Sample? {
+        val durationSec = (nowMs - lastTimeMs) / 1000.0
+        val transferred = bytes - lastBytes
+        lastBytes = bytes
+        lastTimeMs = nowMs
+
+        return when (phase) {
+            ThroughputSample.Phase.IDLE -> null
+            ThroughputSample.Phase.LATENCY -> Sample(phase, 0.0)
+            else -> {
+                val mbps = if (durationSec > 0) (transferred * 8.0) / (1024 * 1024 * durationSec) else 0.0
+                Sample(phase, mbps)
+            }
+        }
+    }
+}
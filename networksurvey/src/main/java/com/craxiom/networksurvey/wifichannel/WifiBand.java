@@ -0,0 +1,93 @@
+package com.craxiom.networksurvey.wifichannel;
+
+/**
+ * The Wi-Fi bands that the {@link WifiChannelAnalyzer} tracks, with their 20 MHz channels and the channels that it can
+ * recommend.
+ *
+ * @since 1.43
+ */
+public enum WifiBand
+{
+    BAND_2_4_GHZ("2.4 GHz", 2407, range(1, 13, 1), new int[]{1, 6, 11}),
+
+    BAND_5_GHZ("5 GHz", 5000, concat(range(36, 64, 4), range(100, 144, 4), range(149, 177, 4)),
+            concat(range(36, 64, 4), range(100, 144, 4), range(149, 177, 4))),
+
+    /**
+     * Only the preferred scanning channels (every fourth channel starting at 5) are recommended, since clients only
+     * look for APs on those channels when they scan.
+     */
+    BAND_6_GHZ("6 GHz", 5950, range(1, 233, 4), range(5, 229, 16));
+
+    public final String displayName;
+    private final int baseFrequencyMhz;
+    private final int[] channels;
+    private final int[] candidateChannels;
+
+    WifiBand(String displayName, int baseFrequencyMhz, int[] channels, int[] candidateChannels)
+    {
+        this.displayName = displayName;
+        this.baseFrequencyMhz = baseFrequencyMhz;
+        this.channels = channels;
+        this.candidateChannels = candidateChannels;
+    }
+
+    /**
+     * @return The band for the frequency, or null if it is not in one of the tracked bands.
+     */
+    public static WifiBand fromFrequency(int frequencyMhz)
+    {
+        if (frequencyMhz >= 2400 && frequencyMhz < 2500) return BAND_2_4_GHZ;
+        if (frequencyMhz >= 5150 && frequencyMhz < 5925) return BAND_5_GHZ;
+        if (frequencyMhz >= 5925 && frequencyMhz <= 7125) return BAND_6_GHZ;
+        return null;
+    }
+
+    public int getFrequencyMhz(int channel)
+    {
+        return baseFrequencyMhz + 5 * channel;
+    }
+
+    /**
+     * @return The 20 MHz channels in the band, in increasing order. The returned array must not be modified.
+     */
+    int[] getChannels()
+    {
+        return channels;
+    }
+
+    /**
+     * @return The channels that an AP could be moved to. The returned array must not be modified.
+     */
+    int[] getCandidateChannels()
+    {
+        return candidateChannels;
+    }
+
+    private static int[] range(int first, int last, int step)
+    {
+        final int[] values = new int[(last - first) / step + 1];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = first + i * step;
+        }
+        return values;
+    }
+
+    private static int[] concat(int[]... arrays)
+    {
+        int length = 0;
+        for (int[] array : arrays)
+        {
+            length += array.length;
+        }
+        final int[] values = new int[length];
+        int offset = 0;
+        for (int[] array : arrays)
+        {
+            System.arraycopy(array, 0, values, offset, array.length);
+            offset += array.length;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,102 @@
+package com.craxiom.networksurvey.wifichannel;
+
+import android.net.wifi.ScanResult;
+import android.os.Build;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The parts of one access point from a Wi-Fi scan that the {@link WifiChannelAnalyzer} needs, so that the analyzer
+ * does not depend on the Android scan results.
+ *
+ * @since 1.43
+ */
+public final class WifiBssSample
+{
+    private static final int BSS_LOAD_ELEMENT_ID = 11;
+
+    /**
+     * The frequency of the AP's primary 20 MHz channel.
+     */
+    final int primaryFrequencyMhz;
+
+    /**
+     * The center frequency of the AP's whole channel, which is the same as the primary frequency for a 20 MHz channel.
+     */
+    final int centerFrequencyMhz;
+    final int widthMhz;
+    final int rssi;
+
+    /**
+     * The channel utilization from the AP's BSS Load element (0 to 255), or -1 if the AP did not send one.
+     */
+    final int channelUtilization;
+
+    /**
+     * The station count from the AP's BSS Load element, or -1 if the AP did not send one.
+     */
+    final int stationCount;
+
+    WifiBssSample(int primaryFrequencyMhz, int centerFrequencyMhz, int widthMhz, int rssi, int channelUtilization,
+                  int stationCount)
+    {
+        this.primaryFrequencyMhz = primaryFrequencyMhz;
+        this.centerFrequencyMhz = centerFrequencyMhz;
+        this.widthMhz = widthMhz;
+        this.rssi = rssi;
+        this.channelUtilization = channelUtilization;
+        this.stationCount = stationCount;
+    }
+
+    /**
+     * @return The sample for the scan result. For an 80+80 MHz AP only the first 80 MHz segment is used.
+     */
+    public static WifiBssSample fromScanResult(ScanResult scanResult)
+    {
+        final int widthMhz = switch (scanResult.channelWidth)
+        {
+            case ScanResult.CHANNEL_WIDTH_40MHZ -> 40;
+            case ScanResult.CHANNEL_WIDTH_80MHZ, ScanResult.CHANNEL_WIDTH_80MHZ_PLUS_MHZ -> 80;
+            case ScanResult.CHANNEL_WIDTH_160MHZ -> 160;
+            case ScanResult.CHANNEL_WIDTH_320MHZ -> 320;
+            default -> 20;
+        };
+        final int centerFrequencyMhz = widthMhz > 20 && scanResult.centerFreq0 > 0
+                ? scanResult.centerFreq0 : scanResult.frequency;
+
+        int bssLoad = -1;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R)
+        {
+            for (ScanResult.InformationElement element : scanResult.getInformationElements())
+            {
+                if (element.getId() == BSS_LOAD_ELEMENT_ID)
+                {
+                    bssLoad = parseBssLoad(element.getBytes());
+                    break;
+                }
+            }
+        }
+
+        return new WifiBssSample(scanResult.frequency, centerFrequencyMhz, widthMhz, scanResult.level,
+                bssLoad == -1 ? -1 : bssLoad & 0xFF, bssLoad == -1 ? -1 : bssLoad >>> 8);
+    }
+
+    /**
+     * Reads the body of a BSS Load element (IEEE 802.11 9.4.2.27): a two byte little endian station count, a one byte
+     * channel utilization, and a two byte available admission capacity.
+     *
+     * @return The station count shifted left 8 bits, or'd with the channel utilization, or -1 if the element is too
+     * short.
+     */
+    static int parseBssLoad(ByteBuffer bytes)
+    {
+        if (bytes == null || bytes.remaining() < 3) return -1;
+
+        final ByteBuffer buffer = bytes.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final int start = buffer.position();
+        final int stationCount = buffer.getShort(start) & 0xFFFF;
+        final int channelUtilization = buffer.get(start + 2) & 0xFF;
+        return (stationCount << 8) | channelUtilization;
+    }
+}
@@ -0,0 +1,275 @@
+package com.craxiom.networksurvey.wifichannel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Computes how congested each Wi-Fi channel is from the Wi-Fi scans, and which channel in each band is the least
+ * congested.
+ * <p>
+ * Each BSS in a scan is counted on every 20 MHz channel that its whole channel (all 40, 80, or 160 MHz of it)
+ * overlaps, weighted by the fraction of the channel that it overlaps and by its RSSI. A BSS at or above
+ * {@link #STRONG_RSSI} counts fully and one at or below {@link #WEAK_RSSI} does not count, since a weak BSS is rarely
+ * heard above the carrier sense threshold. In 2.4 GHz this also counts the partial overlap of the neighboring channels
+ * that are 5 MHz apart. When an AP sends a BSS Load element, its channel utilization (how busy the AP measured its
+ * primary channel to be) is added to that channel as well.
+ * <p>
+ * Each scan is only folded into an exponential moving average per channel, so a scan costs one pass over its own APs
+ * and the fixed channel table, and no history is kept or walked again. Channels that are not seen any more decay
+ * toward zero.
+ * <p>
+ * The recommended channel in each band is the candidate channel with the lowest score, which is the weighted BSS count
+ * plus {@link #UTILIZATION_WEIGHT} times the utilization. In 2.4 GHz only the non-overlapping channels 1, 6, and 11 are
+ * candidates, and in 6 GHz only the preferred scanning channels. A band is only reported once a BSS has been seen in it
+ * within the last {@link #BAND_TIMEOUT_MS}, since otherwise the device is probably not able to scan it.
+ * <p>
+ * This class is thread safe.
+ *
+ * @since 1.43
+ */
+public class WifiChannelAnalyzer
+{
+    static final double SMOOTHING = 0.3;
+    static final int STRONG_RSSI = -60;
+    static final int WEAK_RSSI = -90;
+
+    /**
+     * A fully utilized channel scores the same as this many strong BSSs.
+     */
+    static final double UTILIZATION_WEIGHT = 5d;
+    static final long UTILIZATION_TIMEOUT_MS = 2 * 60_000L;
+    static final long BAND_TIMEOUT_MS = 5 * 60_000L;
+
+    private static final int CHANNEL_WIDTH_MHZ = 20;
+
+    /**
+     * The running state of the channels in one band.
+     */
+    private static final class BandState
+    {
+        final WifiBand band;
+        final int[] channels;
+        final int[] frequencies;
+        final int[] candidateIndexes;
+
+        // The totals for the scan that is being added
+        final int[] scanCount;
+        final double[] scanWeighted;
+        final double[] scanUtilizationSum;
+        final int[] scanUtilizationReports;
+        final int[] scanStations;
+        int scanBssCount;
+
+        // The smoothed values
+        final double[] weighted;
+        final double[] utilization;
+        final long[] utilizationTimeMs;
+        boolean initialized;
+        long lastSeenMs;
+
+        BandState(WifiBand band)
+        {
+            this.band = band;
+            channels = band.getChannels();
+            frequencies = new int[channels.length];
+            for (int i = 0; i < channels.length; i++)
+            {
+                frequencies[i] = band.getFrequencyMhz(channels[i]);
+            }
+            final int[] candidates = band.getCandidateChannels();
+            candidateIndexes = new int[candidates.length];
+            for (int i = 0; i < candidates.length; i++)
+            {
+                candidateIndexes[i] = indexOf(candidates[i]);
+            }
+
+            scanCount = new int[channels.length];
+            scanWeighted = new double[channels.length];
+            scanUtilizationSum = new double[channels.length];
+            scanUtilizationReports = new int[channels.length];
+            scanStations = new int[channels.length];
+            weighted = new double[channels.length];
+            utilization = new double[channels.length];
+            utilizationTimeMs = new long[channels.length];
+            Arrays.fill(utilization, Double.NaN);
+        }
+
+        int indexOf(int channel)
+        {
+            for (int i = 0; i < channels.length; i++)
+            {
+                if (channels[i] == channel) return i;
+            }
+            return -1;
+        }
+
+        void startScan()
+        {
+            Arrays.fill(scanCount, 0);
+            Arrays.fill(scanWeighted, 0d);
+            Arrays.fill(scanUtilizationSum, 0d);
+            Arrays.fill(scanUtilizationReports, 0);
+            Arrays.fill(scanStations, -1);
+            scanBssCount = 0;
+        }
+
+        void add(WifiBssSample sample, long nowMs)
+        {
+            scanBssCount++;
+            lastSeenMs = nowMs;
+
+            final double rssiWeight = getRssiWeight(sample.rssi);
+            final int low = sample.centerFrequencyMhz - sample.widthMhz / 2;
+            final int high = sample.centerFrequencyMhz + sample.widthMhz / 2;
+            for (int i = 0; i < frequencies.length; i++)
+            {
+                final int channelLow = frequencies[i] - CHANNEL_WIDTH_MHZ / 2;
+                if (channelLow >= high) break;
+                final int overlap = Math.min(high, frequencies[i] + CHANNEL_WIDTH_MHZ / 2) - Math.max(low, channelLow);
+                if (overlap <= 0) continue;
+
+                scanCount[i]++;
+                scanWeighted[i] += rssiWeight * overlap / CHANNEL_WIDTH_MHZ;
+
+                if (frequencies[i] == sample.primaryFrequencyMhz)
+                {
+                    if (sample.channelUtilization >= 0)
+                    {
+                        scanUtilizationSum[i] += sample.channelUtilization / 255d;
+                        scanUtilizationReports[i]++;
+                    }
+                    if (sample.stationCount >= 0)
+                    {
+                        scanStations[i] = Math.max(scanStations[i], 0) + sample.stationCount;
+                    }
+                }
+            }
+        }
+
+        void finishScan(long nowMs)
+        {
+            if (!initialized)
+            {
+                // Nothing to smooth until the band has been seen
+                if (scanBssCount == 0) return;
+                initialized = true;
+                System.arraycopy(scanWeighted, 0, weighted, 0, weighted.length);
+            } else
+            {
+                for (int i = 0; i < weighted.length; i++)
+                {
+                    weighted[i] += SMOOTHING * (scanWeighted[i] - weighted[i]);
+                }
+            }
+
+            for (int i = 0; i < utilization.length; i++)
+            {
+                if (scanUtilizationReports[i] > 0)
+                {
+                    final double scanUtilization = scanUtilizationSum[i] / scanUtilizationReports[i];
+                    utilization[i] = Double.isNaN(utilization[i]) ? scanUtilization
+                            : utilization[i] + SMOOTHING * (scanUtilization - utilization[i]);
+                    utilizationTimeMs[i] = nowMs;
+                } else if (nowMs - utilizationTimeMs[i] > UTILIZATION_TIMEOUT_MS)
+                {
+                    utilization[i] = Double.NaN;
+                }
+            }
+        }
+
+        boolean isActive(long nowMs)
+        {
+            return initialized && nowMs - lastSeenMs <= BAND_TIMEOUT_MS;
+        }
+
+        double score(int index)
+        {
+            return Double.isNaN(utilization[index]) ? weighted[index]
+                    : weighted[index] + UTILIZATION_WEIGHT * utilization[index];
+        }
+
+        List<WifiChannelCongestion> toCongestion()
+        {
+            final List<WifiChannelCongestion> congestion = new ArrayList<>(channels.length);
+            for (int i = 0; i < channels.length; i++)
+            {
+                congestion.add(new WifiChannelCongestion(band, channels[i], scanCount[i], weighted[i],
+                        utilization[i], scanStations[i], score(i)));
+            }
+            return congestion;
+        }
+
+        int getRecommendedChannel()
+        {
+            int best = candidateIndexes[0];
+            for (int index : candidateIndexes)
+            {
+                if (score(index) < score(best)) best = index;
+            }
+            return channels[best];
+        }
+    }
+
+    private final EnumMap<WifiBand, BandState> bands = new EnumMap<>(WifiBand.class);
+
+    public WifiChannelAnalyzer()
+    {
+        for (WifiBand band : WifiBand.values())
+        {
+            bands.put(band, new BandState(band));
+        }
+    }
+
+    /**
+     * Adds a Wi-Fi scan.
+     *
+     * @param scan  All the APs from the scan.
+     * @param nowMs The time of the scan in milliseconds.
+     * @return The congestion of the channels in the bands that were seen recently.
+     */
+    public synchronized WifiChannelReport onScan(List<WifiBssSample> scan, long nowMs)
+    {
+        for (BandState state : bands.values())
+        {
+            state.startScan();
+        }
+
+        for (WifiBssSample sample : scan)
+        {
+            final WifiBand band = WifiBand.fromFrequency(sample.primaryFrequencyMhz);
+            if (band != null) bands.get(band).add(sample, nowMs);
+        }
+
+        final EnumMap<WifiBand, List<WifiChannelCongestion>> channels = new EnumMap<>(WifiBand.class);
+        final EnumMap<WifiBand, Integer> bssCounts = new EnumMap<>(WifiBand.class);
+        final EnumMap<WifiBand, Integer> recommendedChannels = new EnumMap<>(WifiBand.class);
+        for (BandState state : bands.values())
+        {
+            state.finishScan(nowMs);
+            if (!state.isActive(nowMs)) continue;
+
+            channels.put(state.band, state.toCongestion());
+            bssCounts.put(state.band, state.scanBssCount);
+            recommendedChannels.put(state.band, state.getRecommendedChannel());
+        }
+
+        return new WifiChannelReport(nowMs, channels, bssCounts, recommendedChannels);
+    }
+
+    public synchronized void clear()
+    {
+        bands.replaceAll((band, state) -> new BandState(band));
+    }
+
+    /**
+     * @return 1 for a BSS at or above {@link #STRONG_RSSI}, 0 at or below {@link #WEAK_RSSI}, and linear in between.
+     */
+    static double getRssiWeight(int rssi)
+    {
+        if (rssi >= STRONG_RSSI) return 1d;
+        if (rssi <= WEAK_RSSI) return 0d;
+        return (rssi - WEAK_RSSI) / (double) (STRONG_RSSI - WEAK_RSSI);
+    }
+}
@@ -0,0 +1,66 @@
+package com.craxiom.networksurvey.wifichannel;
+
+/**
+ * How congested one 20 MHz Wi-Fi channel is, as computed by the {@link WifiChannelAnalyzer}.
+ *
+ * @since 1.43
+ */
+public final class WifiChannelCongestion
+{
+    public final WifiBand band;
+    public final int channel;
+
+    /**
+     * The number of BSSs that overlap the channel in the latest scan, no matter how weak or how little they overlap.
+     */
+    public final int bssCount;
+
+    /**
+     * The smoothed number of overlapping BSSs, where each BSS is weighted by how strong it is and by how much of the
+     * channel it overlaps. A strong BSS that covers the whole channel counts as one.
+     */
+    public final double weightedBssCount;
+
+    /**
+     * The smoothed channel utilization (0 to 1) reported in the BSS Load element of the APs whose primary channel this
+     * is, or NaN if none of them reported it recently.
+     */
+    public final double utilization;
+
+    /**
+     * The total number of stations that the APs on this primary channel reported in the latest scan, or -1 if none of
+     * them reported it.
+     */
+    public final int stationCount;
+
+    /**
+     * The congestion score that the recommendation is based on; lower is better.
+     */
+    public final double score;
+
+    WifiChannelCongestion(WifiBand band, int channel, int bssCount, double weightedBssCount, double utilization,
+                          int stationCount, double score)
+    {
+        this.band = band;
+        this.channel = channel;
+        this.bssCount = bssCount;
+        this.weightedBssCount = weightedBssCount;
+        this.utilization = utilization;
+        this.stationCount = stationCount;
+        this.score = score;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "WifiChannelCongestion{" +
+                "band=" + band +
+                ", channel=" + channel +
+                ", bssCount=" + bssCount +
+                ", weightedBssCount=" + weightedBssCount +
+                ", utilization=" + utilization +
+                ", stationCount=" + stationCount +
+                ", score=" + score +
+                '}';
+    }
+}
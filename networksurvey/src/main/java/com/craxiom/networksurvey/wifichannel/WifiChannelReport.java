@@ -0,0 +1,96 @@
+package com.craxiom.networksurvey.wifichannel;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The congestion of every Wi-Fi channel after one scan, and the least congested channel in each band.
+ *
+ * @since 1.43
+ */
+public final class WifiChannelReport
+{
+    public final long timeMs;
+
+    private final Map<WifiBand, List<WifiChannelCongestion>> channels;
+    private final Map<WifiBand, Integer> bssCounts;
+    private final Map<WifiBand, Integer> recommendedChannels;
+
+    WifiChannelReport(long timeMs, EnumMap<WifiBand, List<WifiChannelCongestion>> channels,
+                      EnumMap<WifiBand, Integer> bssCounts, EnumMap<WifiBand, Integer> recommendedChannels)
+    {
+        this.timeMs = timeMs;
+        this.channels = channels;
+        this.bssCounts = bssCounts;
+        this.recommendedChannels = recommendedChannels;
+    }
+
+    /**
+     * @return The congestion of each 20 MHz channel in the band, in channel order, or an empty list if the band has
+     * not been seen recently.
+     */
+    public List<WifiChannelCongestion> getChannels(WifiBand band)
+    {
+        final List<WifiChannelCongestion> bandChannels = channels.get(band);
+        return bandChannels == null ? Collections.emptyList() : Collections.unmodifiableList(bandChannels);
+    }
+
+    /**
+     * @return The number of BSSs in the band in the latest scan.
+     */
+    public int getBssCount(WifiBand band)
+    {
+        final Integer count = bssCounts.get(band);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @return The least congested channel in the band, or -1 if the band has not been seen recently.
+     */
+    public int getRecommendedChannel(WifiBand band)
+    {
+        final Integer channel = recommendedChannels.get(band);
+        return channel == null ? -1 : channel;
+    }
+
+    /**
+     * @return The congestion of the channel, or null if the band has not been seen recently.
+     */
+    public WifiChannelCongestion getChannel(WifiBand band, int channel)
+    {
+        for (WifiChannelCongestion congestion : getChannels(band))
+        {
+            if (congestion.channel == channel) return congestion;
+        }
+        return null;
+    }
+
+    /**
+     * @return True if the other report recommends the same channel in every band, which is what changes the advice
+     * shown to the user.
+     */
+    public boolean hasSameRecommendations(WifiChannelReport other)
+    {
+        return other != null && recommendedChannels.equals(other.recommendedChannels);
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder builder = new StringBuilder("WifiChannelReport{");
+        boolean first = true;
+        for (Map.Entry<WifiBand, Integer> entry : recommendedChannels.entrySet())
+        {
+            if (!first) builder.append(", ");
+            first = false;
+            final WifiChannelCongestion recommended = getChannel(entry.getKey(), entry.getValue());
+            builder.append(String.format(Locale.US, "%s: %d BSSs, least congested channel %d (score %.1f)",
+                    entry.getKey().displayName, getBssCount(entry.getKey()), entry.getValue(),
+                    recommended == null ? Double.NaN : recommended.score));
+        }
+        return builder.append('}').toString();
+    }
+}
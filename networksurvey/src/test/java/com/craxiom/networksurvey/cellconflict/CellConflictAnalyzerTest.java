@@ -0,0 +1,228 @@
+package com.craxiom.networksurvey.cellconflict;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.towerlocation.TowerKey;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CellConflictAnalyzerTest
+{
+    private static final int SIM = 1;
+    private static final double LATITUDE = 38.9;
+    private static final double LONGITUDE = -77.0;
+    private static final int EARFCN = 5230;
+
+    private final CellConflictAnalyzer analyzer = new CellConflictAnalyzer();
+
+    private static TowerKey lteKey(long cellId)
+    {
+        return new TowerKey(CellularProtocol.LTE, 310, 260, 12_345, cellId);
+    }
+
+    private static CellObservation servingLte(TowerKey cell, int pci, float rsrp)
+    {
+        return new CellObservation(CellularProtocol.LTE, EARFCN, pci, cell, rsrp, true);
+    }
+
+    private static CellObservation neighborLte(int earfcn, int pci, float rsrp)
+    {
+        return new CellObservation(CellularProtocol.LTE, earfcn, pci, null, rsrp, false);
+    }
+
+    private List<CellConflictFinding> analyze(long nowMs, CellObservation... batch)
+    {
+        return analyzer.analyze(SIM, Arrays.asList(batch), LATITUDE, LONGITUDE, nowMs);
+    }
+
+    private static List<CellConflictType> types(List<CellConflictFinding> findings)
+    {
+        final List<CellConflictType> types = new ArrayList<>();
+        for (CellConflictFinding finding : findings)
+        {
+            types.add(finding.type);
+        }
+        return types;
+    }
+
+    @Test
+    public void testSameChannelPciCollision()
+    {
+        final List<CellConflictFinding> findings = analyze(1_000,
+                servingLte(lteKey(1), 100, -90f),
+                neighborLte(EARFCN, 100, -110f));
+
+        assertEquals(1, findings.size());
+        final CellConflictFinding finding = findings.get(0);
+        assertEquals(CellConflictType.COLLISION, finding.type);
+        assertEquals(100, finding.physicalCellId);
+        assertEquals(lteKey(1), finding.servingCell);
+        assertNull(finding.otherCell);
+        assertEquals(LATITUDE, finding.latitude, 0d);
+    }
+
+    @Test
+    public void testModClashesNeedStrongNeighbor()
+    {
+        // 130 % 30 == 100 % 30, and 103 % 3 == 100 % 3
+        final List<CellConflictFinding> findings = analyze(1_000,
+                servingLte(lteKey(1), 100, -90f),
+                neighborLte(EARFCN, 130, -93f),
+                neighborLte(EARFCN, 103, -95f),
+                neighborLte(EARFCN, 106, -97f), // More than the margin below the serving cell
+                neighborLte(EARFCN, 109, Float.NaN),
+                neighborLte(EARFCN, 101, -85f)); // A different PCI mod 3
+
+        // The mod 30 clash is not reported as a mod 3 clash as well
+        assertEquals(Arrays.asList(CellConflictType.MOD30, CellConflictType.MOD3), types(findings));
+        assertEquals(130, findings.get(0).otherPhysicalCellId);
+        assertEquals(103, findings.get(1).otherPhysicalCellId);
+    }
+
+    @Test
+    public void testNoClashOnOtherChannelsOrForUmts()
+    {
+        assertTrue(analyze(1_000,
+                servingLte(lteKey(1), 100, -90f),
+                neighborLte(EARFCN + 1, 100, -80f),
+                neighborLte(EARFCN + 1, 103, -80f)).isEmpty());
+
+        final TowerKey umtsCell = new TowerKey(CellularProtocol.UMTS, 310, 260, 1, 2);
+        final List<CellConflictFinding> findings = analyzer.analyze(2, Arrays.asList(
+                new CellObservation(CellularProtocol.UMTS, 4385, 33, umtsCell, -80f, true),
+                new CellObservation(CellularProtocol.UMTS, 4385, 36, null, -80f, false),
+                new CellObservation(CellularProtocol.UMTS, 4385, 33, null, -95f, false)), LATITUDE, LONGITUDE, 1_000);
+
+        assertEquals(Arrays.asList(CellConflictType.COLLISION), types(findings));
+    }
+
+    @Test
+    public void testConfusionLearnedFromHandovers()
+    {
+        long now = 1_000;
+        // Cell 1 sees a neighbor with PCI 7, and the device hands over to cell 2 which has PCI 7
+        assertTrue(analyze(now, servingLte(lteKey(1), 1, -90f), neighborLte(EARFCN, 7, -100f)).isEmpty());
+        now += 2_000;
+        assertTrue(analyze(now, servingLte(lteKey(2), 7, -90f)).isEmpty());
+
+        // Later, from cell 1 again, a handover to the neighbor with PCI 7 lands on cell 3 instead
+        now += 60_000;
+        assertTrue(analyze(now, servingLte(lteKey(1), 1, -90f), neighborLte(EARFCN, 7, -100f)).isEmpty());
+        now += 2_000;
+        final List<CellConflictFinding> findings = analyze(now, servingLte(lteKey(3), 7, -92f));
+
+        // Cells 2 and 3 have also both served the device in the same place, which is a collision too
+        assertEquals(Arrays.asList(CellConflictType.CONFUSION, CellConflictType.COLLISION), types(findings));
+        final CellConflictFinding finding = findings.get(0);
+        assertEquals(CellConflictType.CONFUSION, finding.type);
+        assertEquals(lteKey(1), finding.servingCell);
+        assertEquals(lteKey(3), finding.otherCell);
+        assertEquals(lteKey(2), finding.conflictingCell);
+    }
+
+    @Test
+    public void testNoConfusionAfterSlowServingChange()
+    {
+        long now = 1_000;
+        analyze(now, servingLte(lteKey(1), 1, -90f), neighborLte(EARFCN, 7, -100f));
+        analyze(now + 2_000, servingLte(lteKey(2), 7, -90f));
+
+        now += 60_000;
+        analyze(now, servingLte(lteKey(1), 1, -90f), neighborLte(EARFCN, 7, -100f));
+        // Too long after the last batch to be a handover from cell 1
+        now += CellConflictAnalyzer.HANDOVER_WINDOW_MS + 1;
+        assertFalse(types(analyze(now, servingLte(lteKey(3), 7, -92f))).contains(CellConflictType.CONFUSION));
+    }
+
+    @Test
+    public void testServingCollisionOnlyNearby()
+    {
+        assertTrue(analyzer.analyze(SIM, Arrays.asList(servingLte(lteKey(1), 50, -90f)), LATITUDE, LONGITUDE,
+                1_000).isEmpty());
+
+        // About 5 km north
+        assertTrue(analyzer.analyze(SIM, Arrays.asList(servingLte(lteKey(2), 50, -90f)), LATITUDE + 0.045,
+                LONGITUDE, 600_000).isEmpty());
+
+        // About 300 m north
+        final List<CellConflictFinding> findings = analyzer.analyze(SIM,
+                Arrays.asList(servingLte(lteKey(3), 50, -90f)), LATITUDE + 0.0027, LONGITUDE, 1_200_000);
+        assertEquals(1, findings.size());
+        assertEquals(CellConflictType.COLLISION, findings.get(0).type);
+        assertEquals(lteKey(3), findings.get(0).servingCell);
+        assertEquals(lteKey(1), findings.get(0).otherCell);
+    }
+
+    @Test
+    public void testUnknownLocationSkipsServingCollision()
+    {
+        analyzer.analyze(SIM, Arrays.asList(servingLte(lteKey(1), 50, -90f)), 0, 0, 1_000);
+        assertTrue(analyzer.analyze(SIM, Arrays.asList(servingLte(lteKey(2), 50, -90f)), 0, 0, 600_000).isEmpty());
+    }
+
+    @Test
+    public void testFindingsAreReportedOncePerInterval()
+    {
+        final CellObservation serving = servingLte(lteKey(1), 100, -90f);
+        final CellObservation neighbor = neighborLte(EARFCN, 100, -100f);
+
+        assertEquals(1, analyze(1_000, serving, neighbor).size());
+        assertTrue(analyze(2_000, serving, neighbor).isEmpty());
+        assertTrue(analyze(CellConflictAnalyzer.REPORT_INTERVAL_MS, serving, neighbor).isEmpty());
+        assertEquals(1, analyze(1_000 + CellConflictAnalyzer.REPORT_INTERVAL_MS, serving, neighbor).size());
+    }
+
+    @Test
+    public void testNeighborGraphSlidingWindow()
+    {
+        final TowerKey cell = lteKey(1);
+        analyze(1_000, servingLte(cell, 1, -90f), neighborLte(EARFCN, 7, -100f), neighborLte(EARFCN + 1, 8, -100f));
+        assertEquals(2, analyzer.getNeighborCount(cell));
+
+        analyze(1_000 + CellConflictAnalyzer.NEIGHBOR_WINDOW_MS / 2, servingLte(cell, 1, -90f),
+                neighborLte(EARFCN, 7, -100f));
+        analyze(2_000 + CellConflictAnalyzer.NEIGHBOR_WINDOW_MS, servingLte(cell, 1, -90f));
+        assertEquals(1, analyzer.getNeighborCount(cell));
+    }
+
+    @Test
+    public void testServingCellCountIsBounded()
+    {
+        for (int i = 0; i < CellConflictAnalyzer.MAX_SERVING_CELLS + 100; i++)
+        {
+            analyze(1_000 + i, servingLte(lteKey(i), i % 504, -90f), neighborLte(EARFCN, 7, -100f));
+        }
+        assertEquals(CellConflictAnalyzer.MAX_SERVING_CELLS, analyzer.getServingCellCount());
+        assertEquals(0, analyzer.getNeighborCount(lteKey(0)));
+    }
+
+    @Test
+    public void testKeepsUpWithLargeBatchRate()
+    {
+        final CellObservation[] batch = new CellObservation[10];
+        batch[0] = servingLte(lteKey(1), 100, -90f);
+        for (int i = 1; i < batch.length; i++)
+        {
+            batch[i] = neighborLte(EARFCN + (i % 2), 100 + i, -95f - i);
+        }
+        final List<CellObservation> records = Arrays.asList(batch);
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++)
+        {
+            analyzer.analyze(SIM, records, LATITUDE, LONGITUDE, 1_000 + i * 1_000L);
+        }
+        final long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // 100k batches is more than a day of scans at one per second
+        assertTrue("Took " + elapsedMs + " ms", elapsedMs < 5_000);
+    }
+}
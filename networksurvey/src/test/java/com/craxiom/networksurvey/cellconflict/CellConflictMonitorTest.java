@@ -0,0 +1,147 @@
+package com.craxiom.networksurvey.cellconflict;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.networksurvey.logging.db.dao.CellConflictDao;
+import com.craxiom.networksurvey.logging.db.model.CellConflictEntity;
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class CellConflictMonitorTest
+{
+    private static final int SIM = 1;
+    private static final int EARFCN = 5230;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final FakeCellConflictDao dao = new FakeCellConflictDao();
+    private final CellConflictMonitor monitor = new CellConflictMonitor(dao, executor);
+
+    @Test
+    public void findingsAreStoredBeforeTheMonitorShutsDown() throws Exception
+    {
+        monitor.onCellularBatch(Arrays.asList(lteRecord(true, 1, 100, -90f), lteRecord(false, null, 100, -110f)),
+                SIM);
+        monitor.onCellularBatch(Arrays.asList(lteRecord(true, 1, 100, -90f), lteRecord(false, null, 200, -110f)),
+                SIM);
+        shutdown();
+
+        assertEquals(1, dao.getConflictCount());
+        final CellConflictEntity entity = dao.getRecentConflicts(1).get(0);
+        assertEquals(CellConflictType.COLLISION.name(), entity.type);
+        assertEquals(CellularProtocol.LTE.name(), entity.protocol);
+        assertEquals(100, entity.physicalCellId);
+    }
+
+    @Test
+    public void onlyTheMostRecentFindingsAreKept() throws Exception
+    {
+        final List<CellConflictEntity> old = new ArrayList<>();
+        for (int i = 0; i < CellConflictMonitor.MAX_STORED_CONFLICTS; i++)
+        {
+            final CellConflictEntity entity = new CellConflictEntity();
+            entity.time = i;
+            old.add(entity);
+        }
+        dao.insertConflicts(old);
+
+        monitor.onCellularBatch(Arrays.asList(lteRecord(true, 1, 100, -90f), lteRecord(false, null, 100, -110f)),
+                SIM);
+        shutdown();
+
+        assertEquals(CellConflictMonitor.MAX_STORED_CONFLICTS, dao.getConflictCount());
+        assertEquals(CellConflictType.COLLISION.name(), dao.getRecentConflicts(1).get(0).type);
+        // The oldest one was deleted
+        assertEquals(1, dao.getRecentConflicts(CellConflictMonitor.MAX_STORED_CONFLICTS)
+                .get(CellConflictMonitor.MAX_STORED_CONFLICTS - 1).time);
+    }
+
+    private void shutdown() throws InterruptedException
+    {
+        monitor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private static CellularRecordWrapper lteRecord(boolean serving, Integer eci, int pci, float rsrp)
+    {
+        final LteRecordData.Builder data = LteRecordData.newBuilder()
+                .setLatitude(38.9)
+                .setLongitude(-77.0)
+                .setEarfcn(Int32Value.of(EARFCN))
+                .setPci(Int32Value.of(pci))
+                .setRsrp(FloatValue.of(rsrp))
+                .setServingCell(BoolValue.of(serving));
+        if (eci != null)
+        {
+            data.setMcc(Int32Value.of(310))
+                    .setMnc(Int32Value.of(260))
+                    .setTac(Int32Value.of(12_345))
+                    .setEci(Int32Value.of(eci));
+        }
+
+        return new CellularRecordWrapper(CellularProtocol.LTE, LteRecord.newBuilder().setData(data).build());
+    }
+
+    /**
+     * Keeps the findings in memory, with the same ordering and trimming as the SQL queries.
+     */
+    private static final class FakeCellConflictDao implements CellConflictDao
+    {
+        private final List<CellConflictEntity> conflicts = new ArrayList<>();
+        private long nextId = 1;
+
+        @Override
+        public synchronized void insertConflicts(List<CellConflictEntity> newConflicts)
+        {
+            for (CellConflictEntity conflict : newConflicts)
+            {
+                conflict.id = nextId++;
+                conflicts.add(conflict);
+            }
+        }
+
+        @Override
+        public synchronized List<CellConflictEntity> getRecentConflicts(int limit)
+        {
+            final List<CellConflictEntity> sorted = new ArrayList<>(conflicts);
+            sorted.sort(Comparator.comparingLong((CellConflictEntity conflict) -> conflict.time).reversed());
+            return new ArrayList<>(sorted.subList(0, Math.min(limit, sorted.size())));
+        }
+
+        @Override
+        public synchronized int getConflictCount()
+        {
+            return conflicts.size();
+        }
+
+        @Override
+        public synchronized void deleteAll()
+        {
+            conflicts.clear();
+        }
+
+        @Override
+        public synchronized int deleteAllButMostRecent(int maxCount)
+        {
+            final List<CellConflictEntity> kept = getRecentConflicts(maxCount);
+            final int deleted = conflicts.size() - kept.size();
+            conflicts.retainAll(kept);
+            return deleted;
+        }
+    }
+}
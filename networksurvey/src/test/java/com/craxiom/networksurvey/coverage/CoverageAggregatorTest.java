@@ -0,0 +1,363 @@
+package com.craxiom.networksurvey.coverage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.craxiom.networksurvey.listeners.ICoverageGridListener;
+import com.craxiom.networksurvey.logging.db.model.CoverageCellEntity;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class CoverageAggregatorTest
+{
+    private static final float DELTA = 0.001f;
+
+    // A 0.2 by 0.2 degree area (roughly 22 km by 18 km)
+    private static final double SOUTH = 35.70;
+    private static final double WEST = -78.80;
+    private static final double SIZE_DEGREES = 0.2;
+
+    private static final class Sample
+    {
+        final CoverageTechnology technology;
+        final int mnc;
+        final double latitude;
+        final double longitude;
+        final float signal;
+
+        Sample(CoverageTechnology technology, int mnc, double latitude, double longitude, float signal)
+        {
+            this.technology = technology;
+            this.mnc = mnc;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.signal = signal;
+        }
+    }
+
+    private static Sample randomSample(Random random)
+    {
+        final CoverageTechnology technology = random.nextBoolean() ? CoverageTechnology.LTE : CoverageTechnology.NR;
+        final int mnc = random.nextBoolean() ? 260 : 480;
+        return new Sample(technology, mnc,
+                SOUTH + random.nextDouble() * SIZE_DEGREES,
+                WEST + random.nextDouble() * SIZE_DEGREES,
+                -140 + random.nextInt(100) + random.nextFloat());
+    }
+
+    private static Map<CoverageCellKey, CoverageStats> bruteForce(List<Sample> samples)
+    {
+        final Map<CoverageCellKey, CoverageStats> expected = new HashMap<>();
+        for (Sample sample : samples)
+        {
+            for (int level : CoverageGrid.LEVELS)
+            {
+                expected.computeIfAbsent(new CoverageCellKey(level, CoverageGrid.cellX(sample.longitude, level),
+                                CoverageGrid.cellY(sample.latitude, level), sample.technology, 311, sample.mnc),
+                        key -> new CoverageStats()).add(sample.signal);
+            }
+        }
+        return expected;
+    }
+
+    private static Map<CoverageCellKey, CoverageStats> toMap(List<CoverageCell> cells)
+    {
+        final Map<CoverageCellKey, CoverageStats> map = new HashMap<>();
+        for (CoverageCell cell : cells)
+        {
+            map.put(cell.key, cell.stats);
+        }
+        return map;
+    }
+
+    private static void assertStatsEqual(CoverageCellKey key, CoverageStats expected, CoverageStats actual)
+    {
+        assertEquals(key.toString(), expected.getCount(), actual.getCount());
+        assertEquals(key.toString(), expected.getMean(), actual.getMean(), DELTA);
+        assertEquals(key.toString(), expected.getMin(), actual.getMin(), 0f);
+        assertEquals(key.toString(), expected.getMax(), actual.getMax(), 0f);
+    }
+
+    @Test
+    public void stats_mergeMatchesASinglePass()
+    {
+        final Random random = new Random(1);
+        final CoverageStats all = new CoverageStats();
+        final CoverageStats firstHalf = new CoverageStats();
+        final CoverageStats secondHalf = new CoverageStats();
+        for (int i = 0; i < 1_000; i++)
+        {
+            final float signal = -140 + random.nextFloat() * 100;
+            all.add(signal);
+            (i < 500 ? firstHalf : secondHalf).add(signal);
+        }
+
+        firstHalf.merge(secondHalf);
+        firstHalf.merge(new CoverageStats());
+
+        assertEquals(all.getCount(), firstHalf.getCount());
+        assertEquals(all.getMean(), firstHalf.getMean(), DELTA);
+        assertEquals(all.getMin(), firstHalf.getMin(), 0f);
+        assertEquals(all.getMax(), firstHalf.getMax(), 0f);
+    }
+
+    @Test
+    public void grid_cellsNestAcrossLevels()
+    {
+        final double latitude = 35.7796;
+        final double longitude = -78.6382;
+        for (int i = 1; i < CoverageGrid.LEVELS.length; i++)
+        {
+            final int coarse = CoverageGrid.LEVELS[i - 1];
+            final int fine = CoverageGrid.LEVELS[i];
+            final int shift = fine - coarse;
+
+            assertEquals(CoverageGrid.cellX(longitude, coarse), CoverageGrid.cellX(longitude, fine) >> shift);
+            assertEquals(CoverageGrid.cellY(latitude, coarse), CoverageGrid.cellY(latitude, fine) >> shift);
+        }
+
+        final int level = CoverageGrid.MAX_LEVEL;
+        final int cellX = CoverageGrid.cellX(longitude, level);
+        final int cellY = CoverageGrid.cellY(latitude, level);
+        assertTrue(CoverageGrid.cellWest(cellX, level) <= longitude);
+        assertTrue(CoverageGrid.cellWest(cellX + 1, level) > longitude);
+        assertTrue(CoverageGrid.cellSouth(cellY, level) <= latitude);
+        assertTrue(CoverageGrid.cellSouth(cellY + 1, level) > latitude);
+    }
+
+    @Test
+    public void grid_clampsTheEdgesOfTheWorld()
+    {
+        final int level = CoverageGrid.MAX_LEVEL;
+        assertEquals(0, CoverageGrid.cellX(-180, level));
+        assertEquals((1 << level) - 1, CoverageGrid.cellX(180, level));
+        assertEquals(0, CoverageGrid.cellY(-90, level));
+        assertEquals((1 << level) - 1, CoverageGrid.cellY(90, level));
+    }
+
+    @Test
+    public void grid_levelForSpanBoundsTheCellsAcross()
+    {
+        assertEquals(CoverageGrid.MAX_LEVEL, CoverageGrid.levelForSpan(0.01, 64));
+        assertEquals(CoverageGrid.MIN_LEVEL, CoverageGrid.levelForSpan(180, 64));
+
+        final double span = 0.5;
+        final int level = CoverageGrid.levelForSpan(span, 64);
+        assertTrue(span / CoverageGrid.cellWidthDegrees(level) <= 64);
+    }
+
+    @Test
+    public void flush_mergesIntoTheStoredGrid()
+    {
+        final FakeCoverageCellDao dao = new FakeCoverageCellDao();
+        final CoverageAggregator aggregator = new CoverageAggregator(dao);
+        final Random random = new Random(2);
+        final List<Sample> samples = new ArrayList<>();
+
+        // Flush a few times along the way so that the stored stats get merged with new ones
+        for (int i = 0; i < 20_000; i++)
+        {
+            final Sample sample = randomSample(random);
+            samples.add(sample);
+            aggregator.add(sample.technology, 311, sample.mnc, sample.latitude, sample.longitude, sample.signal);
+            if (i % 3_000 == 0) aggregator.flush();
+        }
+
+        // Leave the last updates pending so the query has to combine the two
+        final Map<CoverageCellKey, CoverageStats> expected = bruteForce(samples);
+        for (int level : CoverageGrid.LEVELS)
+        {
+            final Map<CoverageCellKey, CoverageStats> actual = toMap(aggregator.query(level,
+                    SOUTH, WEST, SOUTH + SIZE_DEGREES, WEST + SIZE_DEGREES, null));
+
+            int expectedAtLevel = 0;
+            for (Map.Entry<CoverageCellKey, CoverageStats> entry : expected.entrySet())
+            {
+                if (entry.getKey().level != level) continue;
+                expectedAtLevel++;
+                assertStatsEqual(entry.getKey(), entry.getValue(), actual.get(entry.getKey()));
+            }
+            assertEquals(expectedAtLevel, actual.size());
+        }
+
+        // Once everything is flushed, the stored grid alone matches
+        aggregator.flush();
+        assertEquals(expected.size(), dao.getCellCount());
+    }
+
+    @Test
+    public void query_filtersByTechnologyAndArea()
+    {
+        final CoverageAggregator aggregator = new CoverageAggregator(new FakeCoverageCellDao());
+        aggregator.add(CoverageTechnology.LTE, 311, 480, 35.78, -78.64, -90f);
+        aggregator.add(CoverageTechnology.NR, 311, 480, 35.78, -78.64, -100f);
+        aggregator.add(CoverageTechnology.LTE, 311, 480, 40.0, -75.0, -80f);
+        aggregator.flush();
+
+        final List<CoverageCell> lte = aggregator.query(CoverageGrid.MAX_LEVEL, 35.7, -78.7, 35.8, -78.6,
+                CoverageTechnology.LTE);
+
+        assertEquals(1, lte.size());
+        assertEquals(CoverageTechnology.LTE, lte.get(0).key.technology);
+        assertEquals(-90f, lte.get(0).stats.getMean(), DELTA);
+    }
+
+    @Test
+    public void flush_keepsTheUpdatesWhenTheWriteFails()
+    {
+        final FakeCoverageCellDao dao = new FakeCoverageCellDao()
+        {
+            boolean failNextMerge = true;
+
+            @Override
+            public void mergeCells(List<CoverageCellEntity> cells)
+            {
+                if (failNextMerge)
+                {
+                    failNextMerge = false;
+                    throw new IllegalStateException("The database is closed");
+                }
+                super.mergeCells(cells);
+            }
+        };
+        final CoverageAggregator aggregator = new CoverageAggregator(dao);
+        aggregator.add(CoverageTechnology.LTE, 311, 480, 35.78, -78.64, -90f);
+
+        assertEquals(0, aggregator.flush());
+
+        // Measurements added after the failed write are combined with the ones that were kept
+        aggregator.add(CoverageTechnology.LTE, 311, 480, 35.78, -78.64, -100f);
+        assertEquals(CoverageGrid.LEVELS.length, aggregator.flush());
+
+        final CoverageCellEntity stored = dao.getCell(CoverageGrid.MAX_LEVEL,
+                CoverageGrid.cellX(-78.64, CoverageGrid.MAX_LEVEL), CoverageGrid.cellY(35.78, CoverageGrid.MAX_LEVEL),
+                CoverageTechnology.LTE.name(), 311, 480);
+        assertEquals(2, stored.sampleCount);
+        assertEquals(-190.0, stored.signalSum, DELTA);
+    }
+
+    @Test
+    public void flush_tellsTheListenersWhichCellsChanged()
+    {
+        final List<Set<CoverageCellKey>> updates = new ArrayList<>();
+        final CoverageAggregator aggregator = new CoverageAggregator(new FakeCoverageCellDao());
+        aggregator.addListener(new ICoverageGridListener()
+        {
+            @Override
+            public void onCoverageCellsUpdated(Set<CoverageCellKey> updatedCells)
+            {
+                updates.add(updatedCells);
+            }
+
+            @Override
+            public void onCoverageCleared()
+            {
+                updates.add(null);
+            }
+        });
+
+        aggregator.add(CoverageTechnology.LTE, 311, 480, 35.78, -78.64, -90f);
+        aggregator.flush();
+        aggregator.flush();
+
+        assertEquals(1, updates.size());
+        assertEquals(CoverageGrid.LEVELS.length, updates.get(0).size());
+        assertTrue(updates.get(0).contains(new CoverageCellKey(CoverageGrid.MAX_LEVEL,
+                CoverageGrid.cellX(-78.64, CoverageGrid.MAX_LEVEL), CoverageGrid.cellY(35.78, CoverageGrid.MAX_LEVEL),
+                CoverageTechnology.LTE, 311, 480)));
+
+        aggregator.clear();
+        assertEquals(2, updates.size());
+        assertNull(updates.get(1));
+    }
+
+    @Test
+    public void add_ignoresMissingSignals()
+    {
+        final CoverageAggregator aggregator = new CoverageAggregator(new FakeCoverageCellDao());
+        aggregator.add(CoverageTechnology.LTE, 311, 480, 35.78, -78.64, Float.NaN);
+
+        assertFalse(aggregator.isFlushDue());
+        assertEquals(0, aggregator.flush());
+    }
+
+    @Test
+    public void isFlushDue_onceThePendingSeriesReachTheThreshold()
+    {
+        final CoverageAggregator aggregator = new CoverageAggregator(new FakeCoverageCellDao());
+        final int perSample = CoverageGrid.LEVELS.length;
+        int mnc = 0;
+        while ((mnc + 1) * perSample < CoverageAggregator.FLUSH_THRESHOLD_SERIES)
+        {
+            aggregator.add(CoverageTechnology.LTE, 311, mnc++, 35.78, -78.64, -90f);
+        }
+        assertFalse(aggregator.isFlushDue());
+
+        aggregator.add(CoverageTechnology.LTE, 311, mnc, 35.78, -78.64, -90f);
+        assertTrue(aggregator.isFlushDue());
+    }
+
+    @Test
+    public void millionRecords_viewportQueryIsFastAndExact()
+    {
+        final FakeCoverageCellDao dao = new FakeCoverageCellDao();
+        final CoverageAggregator aggregator = new CoverageAggregator(dao);
+        final Random random = new Random(3);
+
+        // Track the expected stats for one series in one level 16 cell in the middle of the area
+        final int level = 16;
+        final double centerLatitude = SOUTH + SIZE_DEGREES / 2;
+        final double centerLongitude = WEST + SIZE_DEGREES / 2;
+        final CoverageCellKey trackedKey = new CoverageCellKey(level, CoverageGrid.cellX(centerLongitude, level),
+                CoverageGrid.cellY(centerLatitude, level), CoverageTechnology.LTE, 311, 480);
+        final CoverageStats expected = new CoverageStats();
+
+        final int recordCount = 1_000_000;
+        for (int i = 0; i < recordCount; i++)
+        {
+            final Sample sample = randomSample(random);
+            aggregator.add(sample.technology, 311, sample.mnc, sample.latitude, sample.longitude, sample.signal);
+            if (aggregator.isFlushDue()) aggregator.flush();
+
+            if (sample.technology == CoverageTechnology.LTE && sample.mnc == 480
+                    && CoverageGrid.cellX(sample.longitude, level) == trackedKey.cellX
+                    && CoverageGrid.cellY(sample.latitude, level) == trackedKey.cellY)
+            {
+                expected.add(sample.signal);
+            }
+        }
+        aggregator.flush();
+
+        // Every record lands in exactly one cell per level
+        final List<CoverageCell> coarse = aggregator.query(CoverageGrid.MIN_LEVEL, SOUTH, WEST,
+                SOUTH + SIZE_DEGREES, WEST + SIZE_DEGREES, null);
+        long total = 0;
+        for (CoverageCell cell : coarse)
+        {
+            total += cell.stats.getCount();
+        }
+        assertEquals(recordCount, total);
+
+        // A viewport of about 2 km around the center of the area
+        final double halfSpan = 0.01;
+        final List<CoverageCell> viewport = aggregator.query(level, centerLatitude - halfSpan,
+                centerLongitude - halfSpan, centerLatitude + halfSpan, centerLongitude + halfSpan, null);
+
+        final Map<CoverageCellKey, CoverageStats> viewportCells = toMap(viewport);
+        assertStatsEqual(trackedKey, expected, viewportCells.get(trackedKey));
+
+        // The query only touches the cells in the viewport, not the records
+        final int cellsAcross = (int) Math.ceil(2 * halfSpan / CoverageGrid.cellWidthDegrees(level)) + 1;
+        final int cellsDown = (int) Math.ceil(2 * halfSpan / CoverageGrid.cellHeightDegrees(level)) + 1;
+        assertTrue(viewport.size() <= cellsAcross * cellsDown * 4);
+    }
+}
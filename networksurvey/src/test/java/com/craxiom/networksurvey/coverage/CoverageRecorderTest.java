@@ -0,0 +1,214 @@
+package com.craxiom.networksurvey.coverage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.craxiom.messaging.CdmaRecord;
+import com.craxiom.messaging.CdmaRecordData;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.WifiBeaconRecord;
+import com.craxiom.messaging.WifiBeaconRecordData;
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.craxiom.networksurvey.model.WifiRecordWrapper;
+import com.craxiom.networksurvey.towerlocation.TowerKey;
+import com.craxiom.networksurvey.towerlocation.TowerLocationEstimator;
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class CoverageRecorderTest
+{
+    private static final float DELTA = 0.001f;
+    private static final int SIM = 1;
+    private static final double LATITUDE = 35.78;
+    private static final double LONGITUDE = -78.64;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private FakeCoverageCellDao dao;
+    private CoverageAggregator aggregator;
+    private TowerLocationEstimator estimator;
+    private CoverageRecorder recorder;
+
+    @Before
+    public void setUp()
+    {
+        dao = new FakeCoverageCellDao();
+        aggregator = new CoverageAggregator(dao);
+        estimator = new TowerLocationEstimator();
+        recorder = new CoverageRecorder(aggregator, estimator, () -> true, executor);
+    }
+
+    @Test
+    public void cellularBatch_addsTheServingCellToTheGridAndEveryIdentifiedCellToTheEstimator() throws Exception
+    {
+        recorder.onCellularBatch(lteBatch(LATITUDE, LONGITUDE, 10), SIM);
+        shutdown();
+
+        final List<CoverageCell> cells = query(CoverageTechnology.LTE);
+        assertEquals(1, cells.size());
+        assertEquals(1, cells.get(0).stats.getCount());
+        assertEquals(-80f, cells.get(0).stats.getMean(), DELTA);
+        assertEquals(480, cells.get(0).key.mnc);
+
+        // The neighbor without an ECI can't be placed, but the one with an ECI can
+        assertEquals(2, estimator.getCellCount());
+        assertNotNull(estimator.getEstimate(new TowerKey(CellularProtocol.LTE, 311, 480, 1000, 1)));
+        assertNull(estimator.getEstimate(new TowerKey(CellularProtocol.LTE, 311, 480, 1000, 3)));
+    }
+
+    @Test
+    public void cellularBatch_isSkippedUntilTheDeviceMoves() throws Exception
+    {
+        recorder.onCellularBatch(lteBatch(LATITUDE, LONGITUDE, 10), SIM);
+        recorder.onCellularBatch(lteBatch(LATITUDE, LONGITUDE, 10), SIM);
+        // About 11 m away
+        recorder.onCellularBatch(lteBatch(LATITUDE + 0.0001, LONGITUDE, 10), SIM);
+        // About 111 m away
+        recorder.onCellularBatch(lteBatch(LATITUDE + 0.001, LONGITUDE, 10), SIM);
+        shutdown();
+
+        assertEquals(2, countSamples(query(CoverageTechnology.LTE)));
+    }
+
+    @Test
+    public void cellularBatch_withoutAGoodLocationIsSkipped() throws Exception
+    {
+        recorder.onCellularBatch(lteBatch(0d, 0d, 10), SIM);
+        recorder.onCellularBatch(lteBatch(LATITUDE, LONGITUDE, 0), SIM);
+        recorder.onCellularBatch(lteBatch(LATITUDE, LONGITUDE, 150), SIM);
+        shutdown();
+
+        assertTrue(query(CoverageTechnology.LTE).isEmpty());
+        assertEquals(0, estimator.getCellCount());
+    }
+
+    @Test
+    public void cellularBatch_startingWithACdmaRecordStillAddsTheOtherCells() throws Exception
+    {
+        final List<CellularRecordWrapper> batch = new ArrayList<>();
+        batch.add(cdmaRecord(LATITUDE, LONGITUDE));
+        batch.addAll(lteBatch(LATITUDE, LONGITUDE, 10));
+        recorder.onCellularBatch(batch, SIM);
+        shutdown();
+
+        assertEquals(1, query(CoverageTechnology.LTE).size());
+        assertEquals(2, estimator.getCellCount());
+    }
+
+    @Test
+    public void wifiScan_addsTheStrongestAccessPoint() throws Exception
+    {
+        final List<WifiRecordWrapper> scan = new ArrayList<>();
+        scan.add(wifiRecord(-75f));
+        scan.add(wifiRecord(-52f));
+        scan.add(wifiRecord(-88f));
+        recorder.onWifiBeaconRecords(scan);
+        shutdown();
+
+        final List<CoverageCell> cells = query(CoverageTechnology.WIFI);
+        assertEquals(1, cells.size());
+        assertEquals(-52f, cells.get(0).stats.getMax(), DELTA);
+        assertEquals(1, cells.get(0).stats.getCount());
+    }
+
+    @Test
+    public void shutdown_flushesThePendingUpdates() throws Exception
+    {
+        recorder.onCellularBatch(lteBatch(LATITUDE, LONGITUDE, 10), SIM);
+        shutdown();
+
+        assertEquals(1, dao.mergeCalls);
+    }
+
+    private void shutdown() throws InterruptedException
+    {
+        recorder.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private List<CoverageCell> query(CoverageTechnology technology)
+    {
+        return aggregator.query(CoverageGrid.MIN_LEVEL, LATITUDE - 1, LONGITUDE - 1, LATITUDE + 1, LONGITUDE + 1,
+                technology);
+    }
+
+    private static long countSamples(List<CoverageCell> cells)
+    {
+        long count = 0;
+        for (CoverageCell cell : cells)
+        {
+            count += cell.stats.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * A serving cell, a neighbor with a full identity, and a neighbor with only the PCI.
+     */
+    private static List<CellularRecordWrapper> lteBatch(double latitude, double longitude, int accuracy)
+    {
+        final List<CellularRecordWrapper> batch = new ArrayList<>();
+        batch.add(lteRecord(latitude, longitude, accuracy, true, 1, -80f));
+        batch.add(lteRecord(latitude, longitude, accuracy, false, 2, -95f));
+        batch.add(lteRecord(latitude, longitude, accuracy, false, null, -105f));
+        return batch;
+    }
+
+    private static CellularRecordWrapper lteRecord(double latitude, double longitude, int accuracy, boolean serving,
+                                                   Integer eci, float rsrp)
+    {
+        final LteRecordData.Builder data = LteRecordData.newBuilder()
+                .setLatitude(latitude)
+                .setLongitude(longitude)
+                .setAccuracy(accuracy)
+                .setMcc(Int32Value.of(311))
+                .setMnc(Int32Value.of(480))
+                .setTac(Int32Value.of(1000))
+                .setPci(Int32Value.of(eci == null ? 300 : eci))
+                .setRsrp(FloatValue.of(rsrp))
+                .setServingCell(BoolValue.of(serving));
+        if (eci != null) data.setEci(Int32Value.of(eci));
+
+        return new CellularRecordWrapper(CellularProtocol.LTE, LteRecord.newBuilder().setData(data).build());
+    }
+
+    private static CellularRecordWrapper cdmaRecord(double latitude, double longitude)
+    {
+        final CdmaRecord record = CdmaRecord.newBuilder()
+                .setData(CdmaRecordData.newBuilder()
+                        .setLatitude(latitude)
+                        .setLongitude(longitude)
+                        .setAccuracy(10)
+                        .setSignalStrength(FloatValue.of(-85f))
+                        .setServingCell(BoolValue.of(true))
+                        .build())
+                .build();
+        return new CellularRecordWrapper(CellularProtocol.CDMA, record);
+    }
+
+    private static WifiRecordWrapper wifiRecord(float signalStrength)
+    {
+        final WifiBeaconRecord record = WifiBeaconRecord.newBuilder()
+                .setData(WifiBeaconRecordData.newBuilder()
+                        .setLatitude(LATITUDE)
+                        .setLongitude(LONGITUDE)
+                        .setAccuracy(8)
+                        .setSignalStrength(FloatValue.of(signalStrength))
+                        .build())
+                .build();
+        return new WifiRecordWrapper(record, "", false, -1, 0L);
+    }
+}
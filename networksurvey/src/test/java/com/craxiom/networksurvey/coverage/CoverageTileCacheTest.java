@@ -0,0 +1,130 @@
+package com.craxiom.networksurvey.coverage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public class CoverageTileCacheTest
+{
+    private static final double LATITUDE = 35.7796;
+    private static final double LONGITUDE = -78.6382;
+    private static final String TILE = "{\"type\":\"FeatureCollection\",\"features\":[]}";
+
+    private File directory;
+    private CoverageTileCache cache;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory("coverage_tiles").toFile();
+        cache = new CoverageTileCache(directory);
+    }
+
+    @After
+    public void tearDown()
+    {
+        cache.onCoverageCleared();
+    }
+
+    private static CoverageCellKey cellAt(double latitude, double longitude, CoverageTechnology technology)
+    {
+        final int level = CoverageGrid.MAX_LEVEL;
+        return new CoverageCellKey(level, CoverageGrid.cellX(longitude, level), CoverageGrid.cellY(latitude, level),
+                technology, 311, 480);
+    }
+
+    private void writeTile(CoverageTechnology technology, int zoom, double latitude, double longitude)
+    {
+        assertTrue(cache.write(technology, zoom, CoverageTiles.tileX(longitude, zoom),
+                CoverageTiles.tileY(latitude, zoom), TILE, cache.getGeneration()));
+    }
+
+    private String readTile(CoverageTechnology technology, int zoom, double latitude, double longitude)
+    {
+        return cache.read(technology, zoom, CoverageTiles.tileX(longitude, zoom), CoverageTiles.tileY(latitude, zoom));
+    }
+
+    @Test
+    public void write_thenRead()
+    {
+        assertNull(readTile(CoverageTechnology.LTE, 14, LATITUDE, LONGITUDE));
+
+        writeTile(CoverageTechnology.LTE, 14, LATITUDE, LONGITUDE);
+
+        assertEquals(TILE, readTile(CoverageTechnology.LTE, 14, LATITUDE, LONGITUDE));
+        assertNull(readTile(CoverageTechnology.NR, 14, LATITUDE, LONGITUDE));
+    }
+
+    @Test
+    public void cellUpdate_onlyRemovesTheTilesThatShowTheCell()
+    {
+        // A second area about 50 km away
+        final double otherLatitude = LATITUDE + 0.5;
+        for (int zoom = CoverageTiles.MIN_ZOOM; zoom <= CoverageTiles.MAX_ZOOM; zoom++)
+        {
+            writeTile(CoverageTechnology.LTE, zoom, LATITUDE, LONGITUDE);
+            writeTile(CoverageTechnology.NR, zoom, LATITUDE, LONGITUDE);
+            writeTile(CoverageTechnology.LTE, zoom, otherLatitude, LONGITUDE);
+        }
+
+        // A measurement updates one cell on each level
+        final Set<CoverageCellKey> updated = new HashSet<>();
+        for (int level : CoverageGrid.LEVELS)
+        {
+            updated.add(new CoverageCellKey(level, CoverageGrid.cellX(LONGITUDE, level),
+                    CoverageGrid.cellY(LATITUDE, level), CoverageTechnology.LTE, 311, 480));
+        }
+        cache.onCoverageCellsUpdated(updated);
+
+        for (int zoom = CoverageTiles.MIN_ZOOM; zoom <= CoverageTiles.MAX_ZOOM; zoom++)
+        {
+            assertNull("Zoom " + zoom, readTile(CoverageTechnology.LTE, zoom, LATITUDE, LONGITUDE));
+            assertEquals("Zoom " + zoom, TILE, readTile(CoverageTechnology.NR, zoom, LATITUDE, LONGITUDE));
+
+            // At the low zooms the two areas share a tile
+            final boolean sameTile = CoverageTiles.tileY(LATITUDE, zoom) == CoverageTiles.tileY(otherLatitude, zoom);
+            assertEquals("Zoom " + zoom, sameTile ? null : TILE,
+                    readTile(CoverageTechnology.LTE, zoom, otherLatitude, LONGITUDE));
+        }
+    }
+
+    @Test
+    public void write_isSkippedWhenCellsChangedDuringTheRender()
+    {
+        final int zoom = 16;
+        final int x = CoverageTiles.tileX(LONGITUDE, zoom);
+        final int y = CoverageTiles.tileY(LATITUDE, zoom);
+
+        final long generation = cache.getGeneration();
+        cache.onCoverageCellsUpdated(Collections.singleton(cellAt(LATITUDE + 1, LONGITUDE, CoverageTechnology.LTE)));
+
+        assertFalse(cache.write(CoverageTechnology.LTE, zoom, x, y, TILE, generation));
+        assertNull(cache.read(CoverageTechnology.LTE, zoom, x, y));
+        assertTrue(cache.write(CoverageTechnology.LTE, zoom, x, y, TILE, cache.getGeneration()));
+    }
+
+    @Test
+    public void clear_removesEveryTile()
+    {
+        writeTile(CoverageTechnology.LTE, 12, LATITUDE, LONGITUDE);
+        writeTile(CoverageTechnology.WIFI, 18, LATITUDE, LONGITUDE);
+
+        cache.onCoverageCleared();
+
+        assertNull(readTile(CoverageTechnology.LTE, 12, LATITUDE, LONGITUDE));
+        assertNull(readTile(CoverageTechnology.WIFI, 18, LATITUDE, LONGITUDE));
+        assertFalse(directory.exists());
+    }
+}
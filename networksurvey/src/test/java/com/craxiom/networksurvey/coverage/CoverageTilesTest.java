@@ -0,0 +1,80 @@
+package com.craxiom.networksurvey.coverage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CoverageTilesTest
+{
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void tileEdges_matchTheSlippyMapScheme()
+    {
+        assertEquals(-180d, CoverageTiles.tileWest(0, 0), DELTA);
+        assertEquals(0d, CoverageTiles.tileWest(1, 1), DELTA);
+        assertEquals(85.0511287798, CoverageTiles.tileNorth(0, 0), 1e-6);
+        assertEquals(0d, CoverageTiles.tileNorth(1, 1), DELTA);
+
+        // Raleigh, NC at zoom 12
+        assertEquals(1153, CoverageTiles.tileX(-78.6382, 12));
+        assertEquals(1611, CoverageTiles.tileY(35.7796, 12));
+    }
+
+    @Test
+    public void tileXAndY_areClampedToTheWorld()
+    {
+        assertEquals(0, CoverageTiles.tileX(-180, 10));
+        assertEquals(1023, CoverageTiles.tileX(180, 10));
+        assertEquals(0, CoverageTiles.tileY(90, 10));
+        assertEquals(1023, CoverageTiles.tileY(-90, 10));
+    }
+
+    @Test
+    public void levelForZoom_keepsTheCellsPerTileBounded()
+    {
+        for (int zoom = CoverageTiles.MIN_ZOOM; zoom <= CoverageTiles.MAX_ZOOM; zoom++)
+        {
+            final int level = CoverageTiles.levelForZoom(zoom);
+            final double cellsAcross = (360d / (1L << zoom)) / CoverageGrid.cellWidthDegrees(level);
+            assertTrue("Zoom " + zoom, cellsAcross <= CoverageTiles.CELLS_ACROSS_TILE);
+        }
+        assertEquals(CoverageGrid.MIN_LEVEL, CoverageTiles.levelForZoom(CoverageTiles.MIN_ZOOM));
+        assertEquals(CoverageGrid.MAX_LEVEL, CoverageTiles.levelForZoom(CoverageTiles.MAX_ZOOM));
+    }
+
+    @Test
+    public void forEachTile_coversTheTileThatContainsTheCell()
+    {
+        final double latitude = 35.7796;
+        final double longitude = -78.6382;
+
+        for (int level : CoverageGrid.LEVELS)
+        {
+            final CoverageCellKey key = new CoverageCellKey(level, CoverageGrid.cellX(longitude, level),
+                    CoverageGrid.cellY(latitude, level), CoverageTechnology.LTE, 311, 480);
+            final List<int[]> tiles = new ArrayList<>();
+            CoverageTiles.forEachTile(key, (zoom, x, y) -> tiles.add(new int[]{zoom, x, y}));
+
+            boolean foundZoom = false;
+            for (int zoom = CoverageTiles.MIN_ZOOM; zoom <= CoverageTiles.MAX_ZOOM; zoom++)
+            {
+                final int expectedX = CoverageTiles.tileX(longitude, zoom);
+                final int expectedY = CoverageTiles.tileY(latitude, zoom);
+                boolean found = false;
+                for (int[] tile : tiles)
+                {
+                    assertEquals(level, CoverageTiles.levelForZoom(tile[0]));
+                    if (tile[0] == zoom && tile[1] == expectedX && tile[2] == expectedY) found = true;
+                }
+                assertEquals("Level " + level + " zoom " + zoom, CoverageTiles.levelForZoom(zoom) == level, found);
+                foundZoom |= found;
+            }
+            assertTrue("Level " + level, foundZoom);
+        }
+    }
+}
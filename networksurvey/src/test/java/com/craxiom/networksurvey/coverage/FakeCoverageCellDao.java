@@ -0,0 +1,108 @@
+package com.craxiom.networksurvey.coverage;
+
+import com.craxiom.networksurvey.logging.db.dao.CoverageCellDao;
+import com.craxiom.networksurvey.logging.db.model.CoverageCellEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * An in-memory stand in for the Room DAO. The rows are kept sorted by (level, cellX, cellY) like the primary key index
+ * so that the range query behaves like the SQL one.
+ */
+class FakeCoverageCellDao implements CoverageCellDao
+{
+    private final NavigableMap<Long, Map<String, CoverageCellEntity>> rows = new TreeMap<>();
+    int mergeCalls;
+
+    private static long indexKey(int level, int cellX, int cellY)
+    {
+        return ((long) level << 58) | ((long) cellX << 29) | cellY;
+    }
+
+    private static String seriesKey(String technology, int mcc, int mnc)
+    {
+        return technology + "/" + mcc + "/" + mnc;
+    }
+
+    @Override
+    public CoverageCellEntity getCell(int level, int cellX, int cellY, String technology, int mcc, int mnc)
+    {
+        final Map<String, CoverageCellEntity> series = rows.get(indexKey(level, cellX, cellY));
+        return series == null ? null : copy(series.get(seriesKey(technology, mcc, mnc)));
+    }
+
+    @Override
+    public List<CoverageCellEntity> getCells(int level, int minX, int maxX, int minY, int maxY)
+    {
+        final List<CoverageCellEntity> result = new ArrayList<>();
+        for (int cellX = minX; cellX <= maxX; cellX++)
+        {
+            for (Map<String, CoverageCellEntity> series :
+                    rows.subMap(indexKey(level, cellX, minY), true, indexKey(level, cellX, maxY), true).values())
+            {
+                for (CoverageCellEntity entity : series.values())
+                {
+                    result.add(copy(entity));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void insertCells(List<CoverageCellEntity> cells)
+    {
+        for (CoverageCellEntity cell : cells)
+        {
+            rows.computeIfAbsent(indexKey(cell.level, cell.cellX, cell.cellY), key -> new HashMap<>())
+                    .put(seriesKey(cell.technology, cell.mcc, cell.mnc), copy(cell));
+        }
+    }
+
+    @Override
+    public void mergeCells(List<CoverageCellEntity> deltas)
+    {
+        mergeCalls++;
+        CoverageCellDao.super.mergeCells(deltas);
+    }
+
+    @Override
+    public int getCellCount()
+    {
+        int count = 0;
+        for (Map<String, CoverageCellEntity> series : rows.values())
+        {
+            count += series.size();
+        }
+        return count;
+    }
+
+    @Override
+    public void deleteAll()
+    {
+        rows.clear();
+    }
+
+    private static CoverageCellEntity copy(CoverageCellEntity entity)
+    {
+        if (entity == null) return null;
+
+        final CoverageCellEntity copy = new CoverageCellEntity();
+        copy.level = entity.level;
+        copy.cellX = entity.cellX;
+        copy.cellY = entity.cellY;
+        copy.technology = entity.technology;
+        copy.mcc = entity.mcc;
+        copy.mnc = entity.mnc;
+        copy.sampleCount = entity.sampleCount;
+        copy.signalSum = entity.signalSum;
+        copy.minSignal = entity.minSignal;
+        copy.maxSignal = entity.maxSignal;
+        return copy;
+    }
+}
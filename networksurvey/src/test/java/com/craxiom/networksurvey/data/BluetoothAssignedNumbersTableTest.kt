@@ -0,0 +1,130 @@
+package com.craxiom.networksurvey.data
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.yaml.snakeyaml.LoaderOptions
+import org.yaml.snakeyaml.Yaml
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.nio.charset.StandardCharsets
+
+/**
+ * Unit tests for BluetoothAssignedNumbersTable, including checks that the tables generated by the
+ * build (the ones that ship in the APK) contain every entry from the SIG YAML files.
+ */
+class BluetoothAssignedNumbersTableTest {
+
+    @Test
+    fun get_returnsNameForEachKey() {
+        val table = BluetoothAssignedNumbersTable.wrap(
+            encode(
+                mapOf(0x004C to "Apple, Inc.", 0x0006 to "Microsoft", 0x0F52 to "Shenzhen Yunke")
+            )
+        )
+
+        assertEquals(3, table.size())
+        assertEquals("Microsoft", table[0x0006])
+        assertEquals("Apple, Inc.", table[0x004C])
+        assertEquals("Shenzhen Yunke", table[0x0F52])
+    }
+
+    @Test
+    fun get_missingKey_returnsNull() {
+        val table = BluetoothAssignedNumbersTable.wrap(
+            encode(mapOf(10 to "a", 20 to "b"))
+        )
+
+        assertNull(table[0])
+        assertNull(table[15])
+        assertNull(table[30])
+    }
+
+    @Test
+    fun get_emptyTable_returnsNull() {
+        val table = BluetoothAssignedNumbersTable.wrap(encode(emptyMap()))
+
+        assertEquals(0, table.size())
+        assertNull(table[0])
+    }
+
+    @Test
+    fun get_preservesMultiByteCharacters() {
+        val table = BluetoothAssignedNumbersTable.wrap(
+            encode(mapOf(1 to "Xi'an Fengyu", 2 to "深圳市", 3 to ""))
+        )
+
+        assertEquals("Xi'an Fengyu", table[1])
+        assertEquals("深圳市", table[2])
+        assertEquals("", table[3])
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun wrap_invalidMagic_throws() {
+        BluetoothAssignedNumbersTable.wrap(ByteArray(16))
+    }
+
+    @Test
+    fun generatedCompanyTable_containsEveryYamlEntry() {
+        assertGeneratedTableMatchesYaml("company_identifiers", "company_identifiers", "value")
+    }
+
+    @Test
+    fun generatedUuidTable_containsEveryYamlEntry() {
+        assertGeneratedTableMatchesYaml("member_uuids", "uuids", "uuid")
+    }
+
+    /**
+     * Decodes the table that `generateBluetoothLookupTables` wrote for the app assets and checks it
+     * against the YAML file it was generated from.
+     */
+    private fun assertGeneratedTableMatchesYaml(name: String, listKey: String, idKey: String) {
+        val tableFile = File("build/generated/assets/bluetooth/$name.bin")
+        assertTrue("Run generateBluetoothLookupTables to create $tableFile", tableFile.exists())
+
+        val expected = parseYaml(File("src/main/bluetooth/$name.yaml"), listKey, idKey)
+        val table = BluetoothAssignedNumbersTable.wrap(tableFile.readBytes())
+
+        assertTrue(expected.isNotEmpty())
+        assertEquals(expected.size, table.size())
+        expected.forEach { (id, entryName) -> assertEquals(entryName, table[id]) }
+    }
+
+    private fun parseYaml(yamlFile: File, listKey: String, idKey: String): Map<Int, String> {
+        val parsedRoot = yamlFile.inputStream().use {
+            Yaml(LoaderOptions()).load<Map<String, List<Map<String, Any>>>>(it)
+        }
+        return (parsedRoot[listKey] ?: emptyList()).mapNotNull { entry ->
+            val intId = entry[idKey] as? Int
+            val name = entry["name"] as? String
+            if (intId != null && name != null) intId to name else null
+        }.toMap()
+    }
+
+    /**
+     * Writes entries in the table format so the lookups can be tested on small, known tables.
+     */
+    private fun encode(entries: Map<Int, String>): ByteArray {
+        val sortedKeys = entries.keys.sorted()
+        val pool = ByteArrayOutputStream()
+        val offsets = IntArray(sortedKeys.size + 1)
+        sortedKeys.forEachIndexed { index, key ->
+            offsets[index] = pool.size()
+            pool.write(entries.getValue(key).toByteArray(StandardCharsets.UTF_8))
+        }
+        offsets[sortedKeys.size] = pool.size()
+
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { out ->
+            out.writeInt(BluetoothAssignedNumbersTable.MAGIC)
+            out.writeInt(BluetoothAssignedNumbersTable.VERSION)
+            out.writeInt(sortedKeys.size)
+            sortedKeys.forEach { out.writeInt(it) }
+            offsets.forEach { out.writeInt(it) }
+            pool.writeTo(out)
+        }
+        return bytes.toByteArray()
+    }
+}
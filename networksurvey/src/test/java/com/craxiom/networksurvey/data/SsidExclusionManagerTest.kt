@@ -155,6 +155,46 @@ class SsidExclusionManagerTest {
         assertFalse(result)
     }
 
+    @Test
+    fun `isExcluded_wildcardEntry_matchesPattern`() {
+        // Given an exclusion list with a wildcard entry
+        whenever(mockSharedPreferences.getStringSet(any(), any())).thenReturn(setOf("glob:Guest*"))
+
+        // Then any SSID matching the pattern should be excluded
+        assertTrue(ssidExclusionManager.isExcluded("Guest-5G"))
+        assertFalse(ssidExclusionManager.isExcluded("MyGuest"))
+    }
+
+    @Test
+    fun `isExcluded_savedEntryWithStar_matchesOnlyThatSsid`() {
+        // Given an entry saved before wildcards were supported whose SSID contains a '*'
+        whenever(mockSharedPreferences.getStringSet(any(), any())).thenReturn(setOf("Guest*"))
+
+        // Then only that exact SSID should be excluded
+        assertTrue(ssidExclusionManager.isExcluded("Guest*"))
+        assertFalse(ssidExclusionManager.isExcluded("Guest-5G"))
+    }
+
+    @Test
+    fun `isExcluded_afterRemove_usesUpdatedList`() {
+        // Given an exclusion list that has already been checked once
+        var currentSet = setOf("Network1", "Network2")
+        whenever(mockSharedPreferences.getStringSet(any(), any())).thenAnswer { currentSet }
+        whenever(mockEditor.putStringSet(any(), any())).thenAnswer { invocation ->
+            @Suppress("UNCHECKED_CAST")
+            currentSet = invocation.arguments[1] as Set<String>
+            mockEditor
+        }
+        assertTrue(ssidExclusionManager.isExcluded("Network1"))
+
+        // When the SSID is removed
+        ssidExclusionManager.removeExcludedSsid("Network1")
+
+        // Then the cached matcher should be rebuilt
+        assertFalse(ssidExclusionManager.isExcluded("Network1"))
+        assertTrue(ssidExclusionManager.isExcluded("Network2"))
+    }
+
     @Test
     fun `getExcludedSsids_returnsCurrentList`() {
         // Given an exclusion list
@@ -0,0 +1,80 @@
+package com.craxiom.networksurvey.data
+
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Unit tests for SsidMatcher.
+ */
+class SsidMatcherTest {
+
+    @Test
+    fun `matches_exactSsid`() {
+        val matcher = SsidMatcher.build(listOf("HomeNetwork", "Office"))
+
+        assertTrue(matcher.matches("HomeNetwork"))
+        assertTrue(matcher.matches("Office"))
+        assertFalse(matcher.matches("homenetwork"))
+        assertFalse(matcher.matches("Office2"))
+        assertFalse(matcher.matches(null))
+    }
+
+    @Test
+    fun `matches_starWildcard`() {
+        val matcher = SsidMatcher.build(listOf("glob:Guest*", "glob:*-IoT", "glob:Cafe*Free*"))
+
+        assertTrue(matcher.matches("Guest"))
+        assertTrue(matcher.matches("Guest-5G"))
+        assertTrue(matcher.matches("Lab-IoT"))
+        assertTrue(matcher.matches("Cafe Wifi Free 2"))
+        assertFalse(matcher.matches("MyGuest"))
+        assertFalse(matcher.matches("Lab-IoT2"))
+        assertFalse(matcher.matches("Cafe Wifi"))
+    }
+
+    @Test
+    fun `matches_questionMarkWildcard`() {
+        val matcher = SsidMatcher.build(listOf("glob:AP-??"))
+
+        assertTrue(matcher.matches("AP-01"))
+        assertFalse(matcher.matches("AP-1"))
+        assertFalse(matcher.matches("AP-001"))
+    }
+
+    @Test
+    fun `matches_entryWithoutGlobPrefix_matchesLiterally`() {
+        val matcher = SsidMatcher.build(listOf("Free*WiFi", "Who?"))
+
+        assertTrue(matcher.matches("Free*WiFi"))
+        assertTrue(matcher.matches("Who?"))
+        assertFalse(matcher.matches("Free Public WiFi"))
+        assertFalse(matcher.matches("Whoa"))
+    }
+
+    @Test
+    fun `matches_globPrefixIsNotPartOfThePattern`() {
+        val matcher = SsidMatcher.build(listOf("glob:Lab"))
+
+        assertTrue(matcher.matches("Lab"))
+        assertFalse(matcher.matches("glob:Lab"))
+    }
+
+    @Test
+    fun `matches_emptyMatcher_matchesNothing`() {
+        val matcher = SsidMatcher.build(emptyList())
+
+        assertTrue(matcher.isEmpty())
+        assertFalse(matcher.matches("AnyNetwork"))
+        assertFalse(matcher.matches(""))
+    }
+
+    @Test
+    fun `globMatches_edgeCases`() {
+        assertTrue(SsidMatcher.globMatches("*", ""))
+        assertTrue(SsidMatcher.globMatches("**", "abc"))
+        assertTrue(SsidMatcher.globMatches("a*b*c", "aXbYbZc"))
+        assertFalse(SsidMatcher.globMatches("a*b*c", "aXbYbZ"))
+        assertFalse(SsidMatcher.globMatches("?", ""))
+    }
+}
@@ -0,0 +1,61 @@
+package com.craxiom.networksurvey.fragments.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+public class NeighborCellTest
+{
+    private static LteNeighbor lte(int earfcn, int pci, int rsrp)
+    {
+        return new LteNeighbor.Builder().earfcn(earfcn).pci(pci).rsrp(rsrp).rsrq(-10).build();
+    }
+
+    @Test
+    public void testNeighborsWithTheSameSignalAreKept()
+    {
+        final SortedSet<LteNeighbor> neighbors = new TreeSet<>();
+        neighbors.add(lte(5230, 17, -95));
+        neighbors.add(lte(850, 302, -95));
+        neighbors.add(lte(5230, 4, -95));
+        neighbors.add(lte(5230, 17, -95));
+
+        assertEquals(3, neighbors.size());
+        assertArrayEquals(new Object[]{lte(850, 302, -95), lte(5230, 4, -95), lte(5230, 17, -95)},
+                neighbors.toArray());
+
+        final SortedSet<GsmNeighbor> gsmNeighbors = new TreeSet<>();
+        gsmNeighbors.add(new GsmNeighbor.Builder().arfcn(128).bsic(12).rssi(-80).build());
+        gsmNeighbors.add(new GsmNeighbor.Builder().arfcn(130).bsic(12).rssi(-80).build());
+        assertEquals(2, gsmNeighbors.size());
+    }
+
+    @Test
+    public void testStrongestNeighborIsFirst()
+    {
+        final SortedSet<NrNeighbor> neighbors = new TreeSet<>();
+        neighbors.add(new NrNeighbor.Builder().narfcn(632628).pci(1).build());
+        neighbors.add(new NrNeighbor.Builder().narfcn(632628).pci(2).ssRsrp(-110).build());
+        neighbors.add(new NrNeighbor.Builder().narfcn(632628).pci(3).ssRsrp(-90).build());
+
+        assertEquals(3, neighbors.first().pci);
+        assertEquals(1, neighbors.last().pci);
+    }
+
+    @Test
+    public void testCellKey()
+    {
+        // The key stays the same when the signal changes, so the row is rebound rather than replaced
+        assertEquals(lte(5230, 17, -95).getCellKey(), lte(5230, 17, -101).getCellKey());
+        assertNotEquals(lte(5230, 17, -95).getCellKey(), lte(5230, 18, -95).getCellKey());
+        assertNotEquals(lte(5230, 17, -95).getCellKey(), lte(17, 5230, -95).getCellKey());
+
+        final UmtsNeighbor unset = new UmtsNeighbor.Builder().rscp(-90).build();
+        assertNotEquals(unset.getCellKey(), new UmtsNeighbor.Builder().uarfcn(10700).rscp(-90).build().getCellKey());
+    }
+}
@@ -0,0 +1,156 @@
+package com.craxiom.networksurvey.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class RolloverSizeTrackerTest
+{
+    private static final int PAGE_SIZE = 4096;
+    private static final long ROLLOVER_SIZE_BYTES = 2L * 1_048_576;
+    private static final int ROW_COUNT = 100_000;
+
+    /**
+     * A stand in for the SQLite page accounting: the rows fill up the current page, and a new page is
+     * allocated when the next row does not fit.
+     */
+    private static final class SimulatedDatabase
+    {
+        private static final int INITIAL_PAGES = 24;
+
+        private long pageCount = INITIAL_PAGES;
+        private int bytesInLastPage = PAGE_SIZE;
+
+        void insert(int rowBytes)
+        {
+            if (bytesInLastPage + rowBytes > PAGE_SIZE)
+            {
+                pageCount++;
+                bytesInLastPage = 0;
+            }
+            bytesInLastPage += rowBytes;
+        }
+
+        long getSizeBytes()
+        {
+            return pageCount * PAGE_SIZE;
+        }
+    }
+
+    @Test
+    public void manyFiles_rolloverHappensAtTheThreshold()
+    {
+        final Random random = new Random(42);
+        final RolloverSizeTracker tracker = new RolloverSizeTracker(ROLLOVER_SIZE_BYTES);
+
+        SimulatedDatabase database = new SimulatedDatabase();
+        tracker.reset(database.getSizeBytes());
+
+        final List<Long> rolloverSizes = new ArrayList<>();
+        int prepareCount = 0;
+        boolean preparedForCurrentFile = false;
+
+        for (int i = 0; i < ROW_COUNT; i++)
+        {
+            // Survey records vary in size with the optional fields that are present
+            database.insert(180 + random.nextInt(80));
+            if (!tracker.onRowWritten()) continue;
+
+            final long sizeBytes = database.getSizeBytes();
+            final RolloverSizeTracker.Decision decision = tracker.onMeasured(sizeBytes);
+            if (decision == RolloverSizeTracker.Decision.PREPARE_NEXT)
+            {
+                assertFalse("The next file should only be prepared once per file", preparedForCurrentFile);
+                assertTrue(sizeBytes < ROLLOVER_SIZE_BYTES);
+                preparedForCurrentFile = true;
+                prepareCount++;
+            } else if (decision == RolloverSizeTracker.Decision.ROLLOVER)
+            {
+                assertTrue("The next file should be prepared before the rollover", preparedForCurrentFile);
+                rolloverSizes.add(sizeBytes);
+
+                database = new SimulatedDatabase();
+                tracker.reset(database.getSizeBytes());
+                preparedForCurrentFile = false;
+            }
+        }
+
+        final long measurements = tracker.getMeasurementCount();
+
+        // Roughly 22 MB of rows split into 2 MB files
+        assertTrue(rolloverSizes.size() >= 10);
+        assertEquals(rolloverSizes.size(), prepareCount);
+
+        // Each rollover happens as soon as the file crosses the threshold, which is within a page of it
+        for (long rolloverSize : rolloverSizes)
+        {
+            assertTrue(rolloverSize >= ROLLOVER_SIZE_BYTES);
+            assertTrue("Overshot the threshold by " + (rolloverSize - ROLLOVER_SIZE_BYTES),
+                    rolloverSize <= ROLLOVER_SIZE_BYTES + PAGE_SIZE);
+        }
+
+        // The size only has to be measured a small fraction of the time
+        assertTrue("Measured the size " + measurements + " times", measurements < ROW_COUNT / 100);
+    }
+
+    @Test
+    public void rolloverDisabled_neverMeasures()
+    {
+        final RolloverSizeTracker tracker = new RolloverSizeTracker(0);
+        tracker.reset(PAGE_SIZE);
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            assertFalse(tracker.onRowWritten());
+        }
+        assertEquals(10_000, tracker.getRowsInFile());
+        assertEquals(0, tracker.getMeasurementCount());
+    }
+
+    @Test
+    public void smallerThreshold_takesEffectOnTheNextRow()
+    {
+        final RolloverSizeTracker tracker = new RolloverSizeTracker(ROLLOVER_SIZE_BYTES);
+        tracker.reset(PAGE_SIZE);
+
+        for (int i = 0; i < RolloverSizeTracker.CALIBRATION_ROWS - 1; i++)
+        {
+            assertFalse(tracker.onRowWritten());
+        }
+        assertTrue(tracker.onRowWritten());
+        assertEquals(RolloverSizeTracker.Decision.CONTINUE, tracker.onMeasured(PAGE_SIZE * 6));
+
+        tracker.setRolloverSizeBytes(PAGE_SIZE * 5);
+        assertTrue(tracker.onRowWritten());
+        assertEquals(RolloverSizeTracker.Decision.ROLLOVER, tracker.onMeasured(PAGE_SIZE * 6));
+    }
+
+    @Test
+    public void newFile_usesTheRowSizeFromThePreviousFile()
+    {
+        final RolloverSizeTracker tracker = new RolloverSizeTracker(ROLLOVER_SIZE_BYTES);
+        tracker.reset(0);
+
+        for (int i = 0; i < RolloverSizeTracker.CALIBRATION_ROWS; i++)
+        {
+            tracker.onRowWritten();
+        }
+        tracker.onMeasured(RolloverSizeTracker.CALIBRATION_ROWS * 200L);
+
+        // Far from the threshold the next measurement is the maximum number of rows away, without
+        // having to calibrate again
+        tracker.reset(0);
+        int rows = 0;
+        while (!tracker.onRowWritten())
+        {
+            rows++;
+        }
+        assertEquals(RolloverSizeTracker.MAX_ROWS_BETWEEN_MEASUREMENTS - 1, rows);
+    }
+}
@@ -0,0 +1,130 @@
+package com.craxiom.networksurvey.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.location.Location;
+
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.UmtsRecordData;
+import com.craxiom.networksurvey.constants.csv.ThroughputCsvConstants;
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.craxiom.networksurvey.model.ServingCellSnapshot;
+import com.craxiom.networksurvey.model.ThroughputSample;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public class ThroughputCsvLoggerTest
+{
+    private static final List<String> HEADERS = Arrays.asList(ThroughputCsvConstants.DEVICE_TIME,
+            ThroughputCsvConstants.LATITUDE, ThroughputCsvConstants.LONGITUDE, ThroughputCsvConstants.ALTITUDE,
+            ThroughputCsvConstants.SPEED, ThroughputCsvConstants.ACCURACY, ThroughputCsvConstants.MISSION_ID,
+            ThroughputCsvConstants.RECORD_NUMBER, ThroughputCsvConstants.TEST_NUMBER, ThroughputCsvConstants.PHASE,
+            ThroughputCsvConstants.THROUGHPUT_MBPS, ThroughputCsvConstants.LATENCY_MS,
+            ThroughputCsvConstants.NETWORK_TYPE, ThroughputCsvConstants.SERVING_PROTOCOL, ThroughputCsvConstants.MCC,
+            ThroughputCsvConstants.MNC, ThroughputCsvConstants.AREA_CODE, ThroughputCsvConstants.CELL_ID,
+            ThroughputCsvConstants.PCI, ThroughputCsvConstants.ARFCN, ThroughputCsvConstants.RSRP,
+            ThroughputCsvConstants.RSRQ, ThroughputCsvConstants.SINR, ThroughputCsvConstants.ECNO,
+            ThroughputCsvConstants.SLOT, ThroughputCsvConstants.SERVING_CELL_AGE,
+            ThroughputCsvConstants.DEVICE_SERIAL_NUMBER, ThroughputCsvConstants.LOCATION_AGE);
+
+    private Locale defaultLocale;
+
+    @Before
+    public void setUp()
+    {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+    }
+
+    @After
+    public void tearDown()
+    {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void toCsvRow_writesTheSampleLocationAndServingCell()
+    {
+        final Location location = mock(Location.class);
+        when(location.getLatitude()).thenReturn(38.8951234567);
+        when(location.getLongitude()).thenReturn(-77.0364);
+        when(location.getAltitude()).thenReturn(102.123);
+        when(location.getAccuracy()).thenReturn(4.2f);
+        when(location.hasSpeed()).thenReturn(true);
+        when(location.getSpeed()).thenReturn(13.4f);
+
+        final ServingCellSnapshot cell = ServingCellSnapshot.fromRecord(new CellularRecordWrapper(
+                CellularProtocol.UMTS, UmtsRecord.newBuilder().setData(UmtsRecordData.newBuilder()
+                        .setMcc(Int32Value.of(310))
+                        .setMnc(Int32Value.of(410))
+                        .setLac(Int32Value.of(7))
+                        .setCid(Int32Value.of(123456))
+                        .setPsc(Int32Value.of(301))
+                        .setUarfcn(Int32Value.of(4385))
+                        .setRscp(FloatValue.of(-81f))
+                        .setEcno(FloatValue.of(-6.5f))
+                        .build()).build()), 10_000L);
+
+        final ThroughputSample sample = new ThroughputSample(12_500L, 3, ThroughputSample.Phase.DOWNLOAD, 42.126,
+                18, "4G", location, cell);
+        final String[] row = ThroughputCsvLogger.toCsvRow(sample, 17, "mission", "device", new CsvValueFormatter());
+
+        assertEquals(HEADERS.size(), row.length);
+        assertEquals(12_500L, OffsetDateTime.parse(column(row, ThroughputCsvConstants.DEVICE_TIME))
+                .toInstant().toEpochMilli());
+        assertEquals("38.895123", column(row, ThroughputCsvConstants.LATITUDE));
+        assertEquals("-77.036400", column(row, ThroughputCsvConstants.LONGITUDE));
+        assertEquals("102.13", column(row, ThroughputCsvConstants.ALTITUDE));
+        assertEquals("mission", column(row, ThroughputCsvConstants.MISSION_ID));
+        assertEquals("17", column(row, ThroughputCsvConstants.RECORD_NUMBER));
+        assertEquals("3", column(row, ThroughputCsvConstants.TEST_NUMBER));
+        assertEquals("DOWNLOAD", column(row, ThroughputCsvConstants.PHASE));
+        assertEquals("42.13", column(row, ThroughputCsvConstants.THROUGHPUT_MBPS));
+        assertEquals("18", column(row, ThroughputCsvConstants.LATENCY_MS));
+        assertEquals("4G", column(row, ThroughputCsvConstants.NETWORK_TYPE));
+        assertEquals("UMTS", column(row, ThroughputCsvConstants.SERVING_PROTOCOL));
+        assertEquals("123456", column(row, ThroughputCsvConstants.CELL_ID));
+        assertEquals("-81.0", column(row, ThroughputCsvConstants.RSRP));
+        assertEquals("2500", column(row, ThroughputCsvConstants.SERVING_CELL_AGE));
+        assertEquals("device", column(row, ThroughputCsvConstants.DEVICE_SERIAL_NUMBER));
+
+        // The UMTS Ec/No is not an SINR, so it must not end up in that column
+        assertEquals("", column(row, ThroughputCsvConstants.SINR));
+        assertEquals("-6.5", column(row, ThroughputCsvConstants.ECNO));
+    }
+
+    @Test
+    public void toCsvRow_leavesMissingValuesEmpty()
+    {
+        final ThroughputSample sample = new ThroughputSample(0L, 1, ThroughputSample.Phase.LATENCY, 0, -1,
+                null, null, null);
+        final String[] row = ThroughputCsvLogger.toCsvRow(sample, 1, "mission", "device", new CsvValueFormatter());
+
+        assertEquals(HEADERS.size(), row.length);
+        assertEquals("LATENCY", column(row, ThroughputCsvConstants.PHASE));
+        for (String header : new String[]{ThroughputCsvConstants.LATITUDE, ThroughputCsvConstants.SPEED,
+                ThroughputCsvConstants.LATENCY_MS, ThroughputCsvConstants.NETWORK_TYPE,
+                ThroughputCsvConstants.SERVING_PROTOCOL, ThroughputCsvConstants.RSRP, ThroughputCsvConstants.ECNO,
+                ThroughputCsvConstants.SERVING_CELL_AGE, ThroughputCsvConstants.LOCATION_AGE})
+        {
+            assertEquals(header, "", column(row, header));
+        }
+    }
+
+    private static String column(String[] row, String header)
+    {
+        return row[HEADERS.indexOf(header)];
+    }
+}
@@ -0,0 +1,122 @@
+package com.craxiom.networksurvey.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class LatencyHistogramTest
+{
+    @Test
+    public void bucketIndex_smallValuesGetTheirOwnBucket()
+    {
+        for (int value = 0; value < 16; value++)
+        {
+            assertEquals(value, LatencyHistogram.bucketIndex(value));
+            assertEquals(value, LatencyHistogram.highestEquivalentValue(value));
+        }
+    }
+
+    @Test
+    public void bucketIndex_bucketsAreContiguousAcrossTheFullRange()
+    {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT - 1; i++)
+        {
+            final long highest = LatencyHistogram.highestEquivalentValue(i);
+            assertEquals(i, LatencyHistogram.bucketIndex(highest));
+            assertEquals(i + 1, LatencyHistogram.bucketIndex(highest + 1));
+        }
+
+        final int lastBucket = LatencyHistogram.BUCKET_COUNT - 1;
+        assertEquals(lastBucket, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestEquivalentValue(lastBucket));
+    }
+
+    @Test
+    public void bucketIndex_relativeErrorIsAtMostOneSixteenth()
+    {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++)
+        {
+            final long value = 16 + (random.nextLong() >>> (2 + random.nextInt(58)));
+            final long highest = LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(value));
+
+            assertTrue(highest >= value);
+            assertTrue("Too much error for " + value, (highest - value) <= value / 16);
+        }
+    }
+
+    @Test
+    public void snapshot_reportsCountMeanMaxAndPercentiles()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++)
+        {
+            histogram.record(value);
+        }
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.count);
+        assertEquals(5050, snapshot.sumNanos);
+        assertEquals(50, snapshot.getMeanNanos());
+        assertEquals(100, snapshot.maxNanos);
+        assertTrue(snapshot.p50Nanos >= 50 && snapshot.p50Nanos <= 53);
+        assertTrue(snapshot.p90Nanos >= 90 && snapshot.p90Nanos <= 95);
+        assertTrue(snapshot.p99Nanos >= 99 && snapshot.p99Nanos <= 100);
+    }
+
+    @Test
+    public void snapshot_percentilesNeverExceedTheMax()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1_000_001, snapshot.maxNanos);
+        assertEquals(1_000_001, snapshot.p50Nanos);
+        assertEquals(1_000_001, snapshot.p99Nanos);
+    }
+
+    @Test
+    public void snapshot_emptyHistogramIsAllZeros()
+    {
+        final LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.count);
+        assertEquals(0, snapshot.getMeanNanos());
+        assertEquals(0, snapshot.maxNanos);
+        assertEquals(0, snapshot.p50Nanos);
+        assertEquals(0, snapshot.p99Nanos);
+    }
+
+    @Test
+    public void record_negativeValuesAreRecordedAsZero()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1, snapshot.count);
+        assertEquals(0, snapshot.sumNanos);
+        assertEquals(0, snapshot.maxNanos);
+    }
+
+    @Test
+    public void reset_clearsEverything()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(123_456);
+        histogram.reset();
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(0, snapshot.count);
+        assertEquals(0, snapshot.sumNanos);
+        assertEquals(0, snapshot.maxNanos);
+    }
+}
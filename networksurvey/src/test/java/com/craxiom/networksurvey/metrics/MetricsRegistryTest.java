@@ -0,0 +1,138 @@
+package com.craxiom.networksurvey.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+public class MetricsRegistryTest
+{
+    @Test
+    public void lookups_returnTheSameMetricForTheSameName()
+    {
+        final MetricsRegistry registry = new MetricsRegistry();
+
+        assertSame(registry.counter("a"), registry.counter("a"));
+        assertSame(registry.gauge("a"), registry.gauge("a"));
+        assertSame(registry.histogram("a"), registry.histogram("a"));
+    }
+
+    @Test
+    public void snapshot_includesAllMetricTypes()
+    {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("records").add(3);
+        registry.gauge("backlog").increment();
+        registry.histogram("write").record(1_000);
+        registry.registerGauge("queue", () -> 7);
+
+        final MetricsSnapshot snapshot = registry.snapshot();
+
+        assertEquals(Long.valueOf(3), snapshot.counters.get("records"));
+        assertEquals(Long.valueOf(1), snapshot.gauges.get("backlog"));
+        assertEquals(Long.valueOf(7), snapshot.gauges.get("queue"));
+        assertEquals(1, snapshot.histograms.get("write").count);
+    }
+
+    @Test
+    public void supplierGauge_isReadEachTimeASnapshotIsTaken()
+    {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final AtomicLong queueSize = new AtomicLong(2);
+        registry.registerGauge("queue", queueSize::get);
+
+        assertEquals(Long.valueOf(2), registry.snapshot().gauges.get("queue"));
+        queueSize.set(5);
+        assertEquals(Long.valueOf(5), registry.snapshot().gauges.get("queue"));
+    }
+
+    @Test
+    public void unregisterGauge_onlyRemovesTheSameSupplier()
+    {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final LongSupplier first = () -> 1;
+        final LongSupplier second = () -> 2;
+
+        registry.registerGauge("queue", first);
+        registry.registerGauge("queue", second);
+        registry.unregisterGauge("queue", first);
+        assertEquals(Long.valueOf(2), registry.snapshot().gauges.get("queue"));
+
+        registry.unregisterGauge("queue", second);
+        assertFalse(registry.snapshot().gauges.containsKey("queue"));
+    }
+
+    @Test
+    public void snapshot_skipsSupplierGaugesThatThrow()
+    {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.registerGauge("broken", () -> {
+            throw new IllegalStateException();
+        });
+        registry.counter("records").increment();
+
+        final MetricsSnapshot snapshot = registry.snapshot();
+
+        assertFalse(snapshot.gauges.containsKey("broken"));
+        assertEquals(Long.valueOf(1), snapshot.counters.get("records"));
+    }
+
+    @Test
+    public void reset_clearsCountersAndHistogramsButNotGauges()
+    {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("records").add(10);
+        registry.gauge("backlog").set(4);
+        registry.histogram("write").record(500);
+
+        registry.reset();
+        final MetricsSnapshot snapshot = registry.snapshot();
+
+        assertEquals(Long.valueOf(0), snapshot.counters.get("records"));
+        assertEquals(Long.valueOf(4), snapshot.gauges.get("backlog"));
+        assertEquals(0, snapshot.histograms.get("write").count);
+    }
+
+    @Test
+    public void concurrentUpdates_areNotLost() throws InterruptedException
+    {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final MetricCounter counter = registry.counter("records");
+        final MetricGauge gauge = registry.gauge("backlog");
+        final LatencyHistogram histogram = registry.histogram("write");
+
+        final int threadCount = 4;
+        final int iterations = 10_000;
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++)
+        {
+            final Thread thread = new Thread(() -> {
+                for (int i = 0; i < iterations; i++)
+                {
+                    counter.increment();
+                    gauge.increment();
+                    histogram.record(i);
+                    gauge.decrement();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        final MetricsSnapshot snapshot = registry.snapshot();
+        assertEquals(Long.valueOf(threadCount * iterations), snapshot.counters.get("records"));
+        assertEquals(Long.valueOf(0), snapshot.gauges.get("backlog"));
+        assertEquals(threadCount * iterations, snapshot.histograms.get("write").count);
+        assertEquals(iterations - 1, snapshot.histograms.get("write").maxNanos);
+    }
+}
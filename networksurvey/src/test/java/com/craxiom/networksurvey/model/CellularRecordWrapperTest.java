@@ -0,0 +1,41 @@
+package com.craxiom.networksurvey.model;
+
+import static org.junit.Assert.assertEquals;
+
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.GsmRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.NrRecordData;
+
+import org.junit.Test;
+
+public class CellularRecordWrapperTest
+{
+    @Test
+    public void epochMillis_keepsTheProvidedEpochTime()
+    {
+        final GsmRecord record = GsmRecord.newBuilder()
+                .setData(GsmRecordData.newBuilder().setDeviceTime("2020-08-19T18:13:22.548Z").build())
+                .build();
+
+        // The epoch time from the scan is carried as is, even if it doesn't match the string
+        assertEquals(42L, new CellularRecordWrapper(CellularProtocol.GSM, record, 42L).epochMillis);
+    }
+
+    @Test
+    public void epochMillis_parsedFromTheDeviceTimeWhenNotProvided()
+    {
+        final NrRecord record = NrRecord.newBuilder()
+                .setData(NrRecordData.newBuilder().setDeviceTime("2020-08-19T14:13:22.548-04:00").build())
+                .build();
+
+        assertEquals(1597860802548L, new CellularRecordWrapper(CellularProtocol.NR, record).epochMillis);
+        assertEquals(1597860802548L, new NrRecordWrapper(record, new int[0]).epochMillis);
+    }
+
+    @Test
+    public void epochMillis_zeroWhenThereIsNoDeviceTime()
+    {
+        assertEquals(0L, new CellularRecordWrapper(CellularProtocol.GSM, GsmRecord.getDefaultInstance()).epochMillis);
+    }
+}
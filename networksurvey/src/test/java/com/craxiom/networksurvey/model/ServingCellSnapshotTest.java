@@ -0,0 +1,109 @@
+package com.craxiom.networksurvey.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.craxiom.messaging.CdmaRecord;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.NrRecordData;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.UmtsRecordData;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Int64Value;
+
+import org.junit.Test;
+
+public class ServingCellSnapshotTest
+{
+    private static final float DELTA = 0.0001f;
+
+    @Test
+    public void fromRecord_lte_copiesIdentityAndSignal()
+    {
+        LteRecord record = LteRecord.newBuilder()
+                .setData(LteRecordData.newBuilder()
+                        .setMcc(Int32Value.of(311))
+                        .setMnc(Int32Value.of(480))
+                        .setTac(Int32Value.of(1234))
+                        .setEci(Int32Value.of(5678901))
+                        .setPci(Int32Value.of(42))
+                        .setEarfcn(Int32Value.of(5230))
+                        .setRsrp(FloatValue.of(-95f))
+                        .setRsrq(FloatValue.of(-11f))
+                        .build())
+                .build();
+
+        ServingCellSnapshot snapshot = ServingCellSnapshot.fromRecord(
+                new CellularRecordWrapper(CellularProtocol.LTE, record), 1000L);
+
+        assertNotNull(snapshot);
+        assertEquals(CellularProtocol.LTE, snapshot.protocol);
+        assertEquals(1000L, snapshot.timestampMs);
+        assertEquals(Integer.valueOf(311), snapshot.mcc);
+        assertEquals(Integer.valueOf(480), snapshot.mnc);
+        assertEquals(Integer.valueOf(1234), snapshot.area);
+        assertEquals(Long.valueOf(5678901), snapshot.cellId);
+        assertEquals(Integer.valueOf(42), snapshot.pci);
+        assertEquals(Integer.valueOf(5230), snapshot.arfcn);
+        assertEquals(-95f, snapshot.rsrp, DELTA);
+        assertEquals(-11f, snapshot.rsrq, DELTA);
+
+        // Fields that were not set on the record should not show up as zero
+        assertNull(snapshot.sinr);
+        assertNull(snapshot.slot);
+    }
+
+    @Test
+    public void fromRecord_nr_usesSsSignalValues()
+    {
+        NrRecord record = NrRecord.newBuilder()
+                .setData(NrRecordData.newBuilder()
+                        .setNci(Int64Value.of(68719476735L))
+                        .setSsRsrp(FloatValue.of(-88f))
+                        .setSsSinr(FloatValue.of(12.5f))
+                        .build())
+                .build();
+
+        ServingCellSnapshot snapshot = ServingCellSnapshot.fromRecord(
+                new CellularRecordWrapper(CellularProtocol.NR, record), 2000L);
+
+        assertNotNull(snapshot);
+        assertEquals(Long.valueOf(68719476735L), snapshot.cellId);
+        assertEquals(-88f, snapshot.rsrp, DELTA);
+        assertEquals(12.5f, snapshot.sinr, DELTA);
+        assertNull(snapshot.rsrq);
+    }
+
+    @Test
+    public void fromRecord_umts_keepsEcnoOutOfTheSinr()
+    {
+        UmtsRecord record = UmtsRecord.newBuilder()
+                .setData(UmtsRecordData.newBuilder()
+                        .setPsc(Int32Value.of(301))
+                        .setRscp(FloatValue.of(-81f))
+                        .setEcno(FloatValue.of(-6.5f))
+                        .build())
+                .build();
+
+        ServingCellSnapshot snapshot = ServingCellSnapshot.fromRecord(
+                new CellularRecordWrapper(CellularProtocol.UMTS, record), 3000L);
+
+        assertNotNull(snapshot);
+        assertEquals(Integer.valueOf(301), snapshot.pci);
+        assertEquals(-81f, snapshot.rsrp, DELTA);
+        assertEquals(-6.5f, snapshot.ecno, DELTA);
+        assertNull(snapshot.sinr);
+    }
+
+    @Test
+    public void fromRecord_unsupportedProtocol_returnsNull()
+    {
+        assertNull(ServingCellSnapshot.fromRecord(
+                new CellularRecordWrapper(CellularProtocol.CDMA, CdmaRecord.getDefaultInstance()), 0L));
+        assertNull(ServingCellSnapshot.fromRecord(null, 0L));
+    }
+}
@@ -0,0 +1,71 @@
+package com.craxiom.networksurvey.replay;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.Message;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reads the survey records from a capture file that was written by {@link ReplayCaptureWriter}.
+ *
+ * @since 1.43
+ */
+public class CaptureReplaySource implements IReplaySource
+{
+    private final InputStream inputStream;
+    private final CodedInputStream codedInput;
+    private long previousEpochMillis;
+
+    /**
+     * Reads and validates the capture file header.
+     *
+     * @param inputStream The stream to read the capture from. It is closed when this source is closed.
+     * @throws IOException If the header could not be read, or if the stream is not a supported capture.
+     */
+    public CaptureReplaySource(InputStream inputStream) throws IOException
+    {
+        this.inputStream = inputStream;
+        codedInput = CodedInputStream.newInstance(inputStream);
+
+        final byte[] magic = codedInput.readRawBytes(ReplayCaptureWriter.MAGIC.length);
+        if (!Arrays.equals(magic, ReplayCaptureWriter.MAGIC))
+        {
+            throw new IOException("Not a survey record capture file");
+        }
+
+        final int version = codedInput.readUInt32();
+        if (version != ReplayCaptureWriter.FORMAT_VERSION)
+        {
+            throw new IOException("Unsupported capture file version " + version);
+        }
+    }
+
+    @Override
+    public ReplayRecord next() throws IOException
+    {
+        if (codedInput.isAtEnd()) return null;
+
+        // The size limit applies to the total bytes read, so reset it for each record to support large captures
+        codedInput.resetSizeCounter();
+
+        final int ordinal = codedInput.readUInt32();
+        final ReplayRecordType type = ReplayRecordType.forOrdinal(ordinal);
+        if (type == null) throw new IOException("Unknown record type " + ordinal + " in the capture file");
+
+        final long epochMillis = previousEpochMillis + codedInput.readSInt64();
+        final Message record = codedInput.readMessage(type.defaultInstance.getParserForType(),
+                ExtensionRegistryLite.getEmptyRegistry());
+
+        previousEpochMillis = epochMillis;
+        return new ReplayRecord(type, epochMillis, record);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        inputStream.close();
+    }
+}
@@ -0,0 +1,247 @@
+package com.craxiom.networksurvey.replay;
+
+import com.craxiom.networksurvey.BuildConfig;
+import com.craxiom.networksurvey.util.Rfc3339Formatter;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads the survey records back out of a CSV survey log that was written by one of the CSV loggers
+ * (e.g. {@link com.craxiom.networksurvey.logging.LteCsvLogger}).
+ * <p>
+ * The CSV column names match the field names of the Network Survey Messaging API, so each column is
+ * mapped to the protobuf field with the same JSON name, and the records are rebuilt generically from the
+ * protobuf descriptors. Columns that don't have a matching field (e.g. the Wi-Fi columns that Network
+ * Survey does not support) are ignored, as are empty values.
+ * <p>
+ * The CSV files round some values (e.g. the location is trimmed to six decimal places), so the replayed
+ * records are as close to the original records as the CSV files allow.
+ *
+ * @since 1.43
+ */
+public class CsvReplaySource implements IReplaySource
+{
+    private static final char REPEATED_VALUE_SEPARATOR = ';';
+
+    private final ReplayRecordType type;
+    private final CSVParser parser;
+    private final Iterator<CSVRecord> iterator;
+    /**
+     * The protobuf field for each column, or null if the column does not have a matching field.
+     */
+    private final Descriptors.FieldDescriptor[] columnFields;
+    private final List<String> unmappedColumns = new ArrayList<>();
+    private long skippedRowCount;
+    private long skippedValueCount;
+
+    /**
+     * @param reader The reader for the CSV file. It is closed when this source is closed.
+     * @param type   The type of records in the CSV file (see {@link ReplayRecordType#forCsvFileName(String)}).
+     * @throws IOException If the CSV header can't be read.
+     */
+    public CsvReplaySource(Reader reader, ReplayRecordType type) throws IOException
+    {
+        this.type = type;
+
+        final CSVFormat csvFormat = CSVFormat.Builder.create()
+                .setCommentMarker('#')
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreEmptyLines(true)
+                .build();
+        parser = csvFormat.parse(reader);
+        iterator = parser.iterator();
+
+        final Descriptors.Descriptor dataDescriptor = type.dataField.getMessageType();
+        final List<String> headers = parser.getHeaderNames();
+        columnFields = new Descriptors.FieldDescriptor[headers.size()];
+        for (int i = 0; i < headers.size(); i++)
+        {
+            columnFields[i] = findField(dataDescriptor, headers.get(i));
+            if (columnFields[i] == null) unmappedColumns.add(headers.get(i));
+        }
+    }
+
+    @Override
+    public ReplayRecord next() throws IOException
+    {
+        try
+        {
+            while (iterator.hasNext())
+            {
+                final ReplayRecord record = toReplayRecord(iterator.next());
+                if (record != null) return record;
+                skippedRowCount++;
+            }
+        } catch (IllegalStateException e)
+        {
+            // Commons CSV wraps the IO exceptions from the iterator
+            throw new IOException("Could not read the next CSV record", e);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        parser.close();
+    }
+
+    /**
+     * @return The CSV columns that did not match any of the protobuf fields.
+     */
+    public List<String> getUnmappedColumns()
+    {
+        return Collections.unmodifiableList(unmappedColumns);
+    }
+
+    /**
+     * @return The number of rows that were skipped because they did not have a valid device time.
+     */
+    public long getSkippedRowCount()
+    {
+        return skippedRowCount;
+    }
+
+    /**
+     * @return The number of individual values that were skipped because they could not be parsed.
+     */
+    public long getSkippedValueCount()
+    {
+        return skippedValueCount;
+    }
+
+    private ReplayRecord toReplayRecord(CSVRecord csvRecord)
+    {
+        final Message.Builder recordBuilder = type.defaultInstance.newBuilderForType();
+        final Message.Builder dataBuilder = recordBuilder.newBuilderForField(type.dataField);
+
+        final int columnCount = Math.min(csvRecord.size(), columnFields.length);
+        for (int i = 0; i < columnCount; i++)
+        {
+            final Descriptors.FieldDescriptor field = columnFields[i];
+            final String value = csvRecord.get(i);
+            if (field == null || value.isEmpty()) continue;
+
+            try
+            {
+                setField(dataBuilder, field, value);
+            } catch (IllegalArgumentException e)
+            {
+                skippedValueCount++;
+            }
+        }
+
+        final String deviceTime = (String) dataBuilder.getField(type.deviceTimeField);
+        final long epochMillis;
+        try
+        {
+            epochMillis = Rfc3339Formatter.parseEpochMillis(deviceTime);
+        } catch (Exception e)
+        {
+            return null;
+        }
+
+        if (type.versionField != null) recordBuilder.setField(type.versionField, BuildConfig.MESSAGING_API_VERSION);
+        if (type.messageTypeField != null) recordBuilder.setField(type.messageTypeField, type.messageType);
+        recordBuilder.setField(type.dataField, dataBuilder.build());
+
+        return new ReplayRecord(type, epochMillis, recordBuilder.build());
+    }
+
+    private static Descriptors.FieldDescriptor findField(Descriptors.Descriptor descriptor, String columnName)
+    {
+        for (Descriptors.FieldDescriptor field : descriptor.getFields())
+        {
+            if (field.getJsonName().equals(columnName) || field.getName().equals(columnName)) return field;
+        }
+        return null;
+    }
+
+    /**
+     * Sets a field on the builder from its CSV string value. Repeated fields are written to the CSV files
+     * as a list of values separated by semicolons.
+     *
+     * @throws IllegalArgumentException If the value can't be parsed in to the field's type.
+     */
+    static void setField(Message.Builder builder, Descriptors.FieldDescriptor field, String value)
+    {
+        if (field.isRepeated())
+        {
+            int start = 0;
+            while (start <= value.length())
+            {
+                int end = value.indexOf(REPEATED_VALUE_SEPARATOR, start);
+                if (end == -1) end = value.length();
+                final String part = value.substring(start, end).trim();
+                if (!part.isEmpty()) builder.addRepeatedField(field, parseValue(builder, field, part));
+                start = end + 1;
+            }
+            return;
+        }
+
+        builder.setField(field, parseValue(builder, field, value));
+    }
+
+    private static Object parseValue(Message.Builder builder, Descriptors.FieldDescriptor field, String value)
+    {
+        switch (field.getJavaType())
+        {
+            case INT:
+                return (int) parseWholeNumber(value);
+            case LONG:
+                return parseWholeNumber(value);
+            case FLOAT:
+                return Float.parseFloat(value);
+            case DOUBLE:
+                return Double.parseDouble(value);
+            case BOOLEAN:
+                if ("true".equalsIgnoreCase(value)) return true;
+                if ("false".equalsIgnoreCase(value)) return false;
+                throw new IllegalArgumentException("Not a boolean: " + value);
+            case STRING:
+                return value;
+            case ENUM:
+                final Descriptors.EnumValueDescriptor enumValue = field.getEnumType().findValueByName(value);
+                if (enumValue == null) throw new IllegalArgumentException("Unknown " + field.getEnumType().getName() + ": " + value);
+                return enumValue;
+            case MESSAGE:
+                // The optional values are wrapper messages (e.g. google.protobuf.Int32Value) with a single value field
+                final Descriptors.FieldDescriptor wrappedField = field.getMessageType().findFieldByName("value");
+                if (wrappedField == null || field.getMessageType().getFields().size() != 1)
+                {
+                    throw new IllegalArgumentException("Can't set the " + field.getMessageType().getName() + " message from a CSV value");
+                }
+                final Message.Builder wrapperBuilder = builder.newBuilderForField(field);
+                wrapperBuilder.setField(wrappedField, parseValue(wrapperBuilder, wrappedField, value));
+                return wrapperBuilder.build();
+            default:
+                throw new IllegalArgumentException("Can't set a " + field.getJavaType() + " field from a CSV value");
+        }
+    }
+
+    /**
+     * Parses a whole number, allowing for a number that was written with a fraction (e.g. "12.0").
+     */
+    private static long parseWholeNumber(String value)
+    {
+        try
+        {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e)
+        {
+            return Math.round(Double.parseDouble(value));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.craxiom.networksurvey.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A source of survey records to replay, in the order they were recorded.
+ *
+ * @since 1.43
+ */
+public interface IReplaySource extends Closeable
+{
+    /**
+     * @return The next record, or null if there are no more records.
+     * @throws IOException If the records could not be read.
+     */
+    ReplayRecord next() throws IOException;
+}
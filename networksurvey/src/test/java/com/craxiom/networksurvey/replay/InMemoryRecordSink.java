@@ -0,0 +1,145 @@
+package com.craxiom.networksurvey.replay;
+
+import com.craxiom.messaging.BluetoothRecord;
+import com.craxiom.messaging.GnssRecord;
+import com.craxiom.networksurvey.listeners.IBluetoothSurveyRecordListener;
+import com.craxiom.networksurvey.listeners.ICellularSurveyRecordListener;
+import com.craxiom.networksurvey.listeners.IGnssSurveyRecordListener;
+import com.craxiom.networksurvey.listeners.IWifiSurveyRecordListener;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.craxiom.networksurvey.model.WifiRecordWrapper;
+import com.google.protobuf.Message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A survey record listener that keeps the records it receives in memory, for use as the sink of a
+ * {@link com.craxiom.networksurvey.services.SurveyReplayer} in tests.
+ * <p>
+ * The cellular records are taken from {@link #onCellularBatch(List, int)} only (and not from the per
+ * protocol methods) so that each record is counted once. For large replays the records can be counted
+ * without being kept, which avoids measuring the garbage collector instead of the listeners.
+ *
+ * @since 1.43
+ */
+public class InMemoryRecordSink implements ICellularSurveyRecordListener, IWifiSurveyRecordListener,
+        IBluetoothSurveyRecordListener, IGnssSurveyRecordListener
+{
+    private final boolean retainRecords;
+    private final List<Message> records = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLongArray recordCounts = new AtomicLongArray(ReplayRecordType.values().length);
+    private final AtomicLong serializedBytes = new AtomicLong();
+
+    /**
+     * Creates a sink that keeps all the records it receives.
+     */
+    public InMemoryRecordSink()
+    {
+        this(true);
+    }
+
+    /**
+     * @param retainRecords True to keep the records, false to only count them.
+     */
+    public InMemoryRecordSink(boolean retainRecords)
+    {
+        this.retainRecords = retainRecords;
+    }
+
+    @Override
+    public void onCellularBatch(List<CellularRecordWrapper> cellularGroup, int subscriptionId)
+    {
+        for (CellularRecordWrapper wrapper : cellularGroup)
+        {
+            accept(wrapper.cellularRecord);
+        }
+    }
+
+    @Override
+    public void onWifiBeaconSurveyRecords(List<WifiRecordWrapper> wifiBeaconRecords)
+    {
+        for (WifiRecordWrapper wrapper : wifiBeaconRecords)
+        {
+            accept(wrapper.getWifiBeaconRecord());
+        }
+    }
+
+    @Override
+    public void onBluetoothSurveyRecord(BluetoothRecord bluetoothRecord)
+    {
+        accept(bluetoothRecord);
+    }
+
+    @Override
+    public void onBluetoothSurveyRecords(List<BluetoothRecord> bluetoothRecords)
+    {
+        for (BluetoothRecord bluetoothRecord : bluetoothRecords)
+        {
+            accept(bluetoothRecord);
+        }
+    }
+
+    @Override
+    public void onGnssSurveyRecord(GnssRecord gnssRecord)
+    {
+        accept(gnssRecord);
+    }
+
+    /**
+     * @return A copy of the records received so far, in the order they were received. Empty if the sink
+     * does not retain records.
+     */
+    public List<Message> getRecords()
+    {
+        synchronized (records)
+        {
+            return new ArrayList<>(records);
+        }
+    }
+
+    public long getRecordCount(ReplayRecordType type)
+    {
+        return recordCounts.get(type.ordinal());
+    }
+
+    public long getTotalRecordCount()
+    {
+        long total = 0;
+        for (int i = 0; i < recordCounts.length(); i++)
+        {
+            total += recordCounts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @return The total serialized size of the records received so far, which is roughly the number of
+     * bytes the records would take up when streamed.
+     */
+    public long getSerializedBytes()
+    {
+        return serializedBytes.get();
+    }
+
+    public void clear()
+    {
+        records.clear();
+        for (int i = 0; i < recordCounts.length(); i++)
+        {
+            recordCounts.set(i, 0);
+        }
+        serializedBytes.set(0);
+    }
+
+    private void accept(Message record)
+    {
+        final ReplayRecordType type = ReplayRecordType.forRecord(record);
+        if (type != null) recordCounts.incrementAndGet(type.ordinal());
+        serializedBytes.addAndGet(record.getSerializedSize());
+        if (retainRecords) records.add(record);
+    }
+}
@@ -0,0 +1,92 @@
+package com.craxiom.networksurvey.replay;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges several replay sources in to a single source ordered by the time the records were recorded.
+ * <p>
+ * The survey logs are written with one file per record type (e.g. one LTE CSV file and one Wi-Fi CSV
+ * file), so this is used to interleave the files back in to the order the records were originally
+ * generated. Each source must already be in time order, which is the case for the survey logs. Records
+ * with the same time keep the order of the sources list.
+ *
+ * @since 1.43
+ */
+public class MergedReplaySource implements IReplaySource
+{
+    private final List<? extends IReplaySource> sources;
+    private final PriorityQueue<Head> heads;
+    private boolean primed;
+
+    /**
+     * @param sources The sources to merge. They are all closed when this source is closed.
+     */
+    public MergedReplaySource(List<? extends IReplaySource> sources)
+    {
+        this.sources = sources;
+        heads = new PriorityQueue<>(Math.max(1, sources.size()), Comparator
+                .comparingLong((Head head) -> head.record.getEpochMillis())
+                .thenComparingInt(head -> head.sourceIndex));
+    }
+
+    @Override
+    public ReplayRecord next() throws IOException
+    {
+        if (!primed)
+        {
+            primed = true;
+            for (int i = 0; i < sources.size(); i++)
+            {
+                final ReplayRecord record = sources.get(i).next();
+                if (record != null) heads.add(new Head(i, record));
+            }
+        }
+
+        final Head head = heads.poll();
+        if (head == null) return null;
+
+        final ReplayRecord record = head.record;
+        final ReplayRecord nextRecord = sources.get(head.sourceIndex).next();
+        if (nextRecord != null)
+        {
+            head.record = nextRecord;
+            heads.add(head);
+        }
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        IOException firstException = null;
+        for (IReplaySource source : sources)
+        {
+            try
+            {
+                source.close();
+            } catch (IOException e)
+            {
+                if (firstException == null) firstException = e;
+            }
+        }
+        if (firstException != null) throw firstException;
+    }
+
+    /**
+     * The next record of one of the sources.
+     */
+    private static final class Head
+    {
+        private final int sourceIndex;
+        private ReplayRecord record;
+
+        private Head(int sourceIndex, ReplayRecord record)
+        {
+            this.sourceIndex = sourceIndex;
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.craxiom.networksurvey.replay;
+
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes survey records to a compact capture file that can be replayed with {@link CaptureReplaySource}.
+ * <p>
+ * Unlike the CSV and GeoPackage survey logs, a capture file holds the exact protobuf records, and all the
+ * record types are interleaved in a single file in the order they were written. The file starts with the
+ * {@link #MAGIC} bytes and a format version, followed by one entry per record:
+ * <ul>
+ *     <li>The record type ({@link ReplayRecordType} ordinal) as a varint</li>
+ *     <li>The time since the previous record in milliseconds as a zig-zag encoded varint</li>
+ *     <li>The length delimited protobuf record</li>
+ * </ul>
+ *
+ * @since 1.43
+ */
+public class ReplayCaptureWriter implements Closeable
+{
+    static final byte[] MAGIC = {'N', 'S', 'R', 'C'};
+    static final int FORMAT_VERSION = 1;
+
+    private final OutputStream outputStream;
+    private final CodedOutputStream codedOutput;
+    private long previousEpochMillis;
+    private long recordCount;
+
+    /**
+     * Writes the capture file header to the output stream.
+     *
+     * @param outputStream The stream to write the capture to. It is closed when this writer is closed.
+     * @throws IOException If the header could not be written.
+     */
+    public ReplayCaptureWriter(OutputStream outputStream) throws IOException
+    {
+        this.outputStream = outputStream;
+        codedOutput = CodedOutputStream.newInstance(outputStream);
+        codedOutput.writeRawBytes(MAGIC);
+        codedOutput.writeUInt32NoTag(FORMAT_VERSION);
+    }
+
+    /**
+     * Appends a record to the capture.
+     *
+     * @throws IOException If the record could not be written.
+     */
+    public void write(ReplayRecord record) throws IOException
+    {
+        codedOutput.writeUInt32NoTag(record.getType().ordinal());
+        codedOutput.writeSInt64NoTag(record.getEpochMillis() - previousEpochMillis);
+        codedOutput.writeUInt32NoTag(record.getRecord().getSerializedSize());
+        record.getRecord().writeTo(codedOutput);
+
+        previousEpochMillis = record.getEpochMillis();
+        recordCount++;
+    }
+
+    /**
+     * @return The number of records written to the capture so far.
+     */
+    public long getRecordCount()
+    {
+        return recordCount;
+    }
+
+    public void flush() throws IOException
+    {
+        codedOutput.flush();
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            flush();
+        } finally
+        {
+            outputStream.close();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.craxiom.networksurvey.replay;
+
+import com.craxiom.networksurvey.util.Rfc3339Formatter;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Message;
+
+import java.util.Objects;
+
+/**
+ * A single survey record to replay, along with the time it was originally recorded.
+ *
+ * @since 1.43
+ */
+public final class ReplayRecord
+{
+    private final ReplayRecordType type;
+    private final long epochMillis;
+    private final Message record;
+
+    /**
+     * @param type        The type of the record.
+     * @param epochMillis The time the record was originally recorded.
+     * @param record      The protobuf survey record (e.g. an {@link com.craxiom.messaging.LteRecord}).
+     */
+    public ReplayRecord(ReplayRecordType type, long epochMillis, Message record)
+    {
+        this.type = Objects.requireNonNull(type);
+        this.epochMillis = epochMillis;
+        this.record = Objects.requireNonNull(record);
+    }
+
+    /**
+     * Creates a replay record using the device time of the record as the time it was recorded.
+     *
+     * @param record The protobuf survey record.
+     * @return The replay record.
+     * @throws IllegalArgumentException If the record is not one of the types that can be replayed, or if it
+     *                                  does not have a valid device time.
+     */
+    public static ReplayRecord of(Message record)
+    {
+        final ReplayRecordType type = ReplayRecordType.forRecord(record);
+        if (type == null)
+        {
+            throw new IllegalArgumentException("Can't replay a " + record.getDescriptorForType().getName());
+        }
+
+        final Message data = (Message) record.getField(type.dataField);
+        final String deviceTime = (String) data.getField(type.deviceTimeField);
+        try
+        {
+            return new ReplayRecord(type, Rfc3339Formatter.parseEpochMillis(deviceTime), record);
+        } catch (Exception e)
+        {
+            throw new IllegalArgumentException("The record has an invalid device time: " + deviceTime, e);
+        }
+    }
+
+    public ReplayRecordType getType()
+    {
+        return type;
+    }
+
+    public long getEpochMillis()
+    {
+        return epochMillis;
+    }
+
+    public Message getRecord()
+    {
+        return record;
+    }
+
+    /**
+     * @return The group number of the record, or -1 if the record type does not have group numbers.
+     */
+    public int getGroupNumber()
+    {
+        if (type.groupNumberField == null) return -1;
+
+        final Message data = (Message) record.getField(type.dataField);
+        return (Integer) data.getField(type.groupNumberField);
+    }
+
+    /**
+     * @return The subscription ID (aka SIM ID) that the record was recorded on, or 0 if the record does not
+     * have a slot.
+     */
+    public int getSubscriptionId()
+    {
+        if (type.slotField == null) return 0;
+
+        final Message data = (Message) record.getField(type.dataField);
+        if (!data.hasField(type.slotField)) return 0;
+        return ((Int32Value) data.getField(type.slotField)).getValue();
+    }
+}
@@ -0,0 +1,138 @@
+package com.craxiom.networksurvey.replay;
+
+import com.craxiom.messaging.BluetoothRecord;
+import com.craxiom.messaging.CdmaRecord;
+import com.craxiom.messaging.GnssRecord;
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.WifiBeaconRecord;
+import com.craxiom.networksurvey.constants.BluetoothMessageConstants;
+import com.craxiom.networksurvey.constants.CdmaMessageConstants;
+import com.craxiom.networksurvey.constants.GnssMessageConstants;
+import com.craxiom.networksurvey.constants.GsmMessageConstants;
+import com.craxiom.networksurvey.constants.LteMessageConstants;
+import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
+import com.craxiom.networksurvey.constants.NrMessageConstants;
+import com.craxiom.networksurvey.constants.UmtsMessageConstants;
+import com.craxiom.networksurvey.constants.WifiBeaconMessageConstants;
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
+
+/**
+ * The survey record types that can be replayed, along with what is needed to rebuild each record from
+ * its protobuf definition.
+ *
+ * @since 1.43
+ */
+public enum ReplayRecordType
+{
+    GSM(GsmRecord.getDefaultInstance(), GsmMessageConstants.GSM_RECORD_MESSAGE_TYPE,
+            NetworkSurveyConstants.GSM_FILE_NAME_PREFIX, CellularProtocol.GSM),
+    CDMA(CdmaRecord.getDefaultInstance(), CdmaMessageConstants.CDMA_RECORD_MESSAGE_TYPE,
+            NetworkSurveyConstants.CDMA_FILE_NAME_PREFIX, CellularProtocol.CDMA),
+    UMTS(UmtsRecord.getDefaultInstance(), UmtsMessageConstants.UMTS_RECORD_MESSAGE_TYPE,
+            NetworkSurveyConstants.UMTS_FILE_NAME_PREFIX, CellularProtocol.UMTS),
+    LTE(LteRecord.getDefaultInstance(), LteMessageConstants.LTE_RECORD_MESSAGE_TYPE,
+            NetworkSurveyConstants.LTE_FILE_NAME_PREFIX, CellularProtocol.LTE),
+    NR(NrRecord.getDefaultInstance(), NrMessageConstants.NR_RECORD_MESSAGE_TYPE,
+            NetworkSurveyConstants.NR_FILE_NAME_PREFIX, CellularProtocol.NR),
+    WIFI_BEACON(WifiBeaconRecord.getDefaultInstance(), WifiBeaconMessageConstants.WIFI_BEACON_RECORD_MESSAGE_TYPE,
+            NetworkSurveyConstants.WIFI_FILE_NAME_PREFIX, null),
+    BLUETOOTH(BluetoothRecord.getDefaultInstance(), BluetoothMessageConstants.BLUETOOTH_RECORD_MESSAGE_TYPE,
+            NetworkSurveyConstants.BLUETOOTH_FILE_NAME_PREFIX, null),
+    GNSS(GnssRecord.getDefaultInstance(), GnssMessageConstants.GNSS_RECORD_MESSAGE_TYPE,
+            NetworkSurveyConstants.GNSS_FILE_NAME_PREFIX, null);
+
+    private static final ReplayRecordType[] VALUES = values();
+
+    final Message defaultInstance;
+    final String messageType;
+    final String fileNamePrefix;
+    /**
+     * The cellular protocol for the cellular record types, or null for the other types.
+     */
+    final CellularProtocol cellularProtocol;
+
+    /**
+     * The fields that are common to all the survey records, looked up once from the protobuf descriptors.
+     */
+    final Descriptors.FieldDescriptor versionField;
+    final Descriptors.FieldDescriptor messageTypeField;
+    final Descriptors.FieldDescriptor dataField;
+    final Descriptors.FieldDescriptor deviceTimeField;
+    /**
+     * The group number field of the record data, or null if the record type does not have group numbers.
+     */
+    final Descriptors.FieldDescriptor groupNumberField;
+    /**
+     * The slot (subscription ID) field of the record data, or null if the record type does not have one.
+     */
+    final Descriptors.FieldDescriptor slotField;
+
+    ReplayRecordType(Message defaultInstance, String messageType, String fileNamePrefix, CellularProtocol cellularProtocol)
+    {
+        this.defaultInstance = defaultInstance;
+        this.messageType = messageType;
+        this.fileNamePrefix = fileNamePrefix;
+        this.cellularProtocol = cellularProtocol;
+
+        final Descriptors.Descriptor recordDescriptor = defaultInstance.getDescriptorForType();
+        versionField = recordDescriptor.findFieldByName("version");
+        messageTypeField = recordDescriptor.findFieldByName("message_type");
+        dataField = recordDescriptor.findFieldByName("data");
+        deviceTimeField = dataField.getMessageType().findFieldByName("device_time");
+        groupNumberField = dataField.getMessageType().findFieldByName("group_number");
+        slotField = dataField.getMessageType().findFieldByName("slot");
+    }
+
+    public boolean isCellular()
+    {
+        return cellularProtocol != null;
+    }
+
+    /**
+     * @return The cellular protocol for the cellular record types, or null for the other types.
+     */
+    public CellularProtocol getCellularProtocol()
+    {
+        return cellularProtocol;
+    }
+
+    /**
+     * @return The record type for the given record, or null if the record is not one of the types that
+     * can be replayed.
+     */
+    public static ReplayRecordType forRecord(Message record)
+    {
+        for (ReplayRecordType type : VALUES)
+        {
+            if (type.defaultInstance.getDescriptorForType() == record.getDescriptorForType()) return type;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the record type of a CSV survey log based on the file name prefix that the CSV loggers use
+     * (e.g. craxiom-lte-20240101-120000.csv).
+     *
+     * @param fileName The name of the CSV file (not the full path).
+     * @return The record type, or null if the file name does not match any of the record types.
+     */
+    public static ReplayRecordType forCsvFileName(String fileName)
+    {
+        for (ReplayRecordType type : VALUES)
+        {
+            if (fileName.startsWith(type.fileNamePrefix)) return type;
+        }
+        return null;
+    }
+
+    static ReplayRecordType forOrdinal(int ordinal)
+    {
+        if (ordinal < 0 || ordinal >= VALUES.length) return null;
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,125 @@
+package com.craxiom.networksurvey.replay;
+
+import static com.craxiom.networksurvey.replay.SampleSurveyRecords.START_MILLIS;
+import static com.craxiom.networksurvey.replay.SampleSurveyRecords.UTC;
+import static com.craxiom.networksurvey.replay.SampleSurveyRecords.gnssRecord;
+import static com.craxiom.networksurvey.replay.SampleSurveyRecords.lteRecord;
+import static com.craxiom.networksurvey.replay.SampleSurveyRecords.sampleSurvey;
+import static com.craxiom.networksurvey.replay.SampleSurveyRecords.writeCapture;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.craxiom.messaging.LteBandwidth;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.networksurvey.constants.LteMessageConstants;
+import com.craxiom.networksurvey.util.Rfc3339Formatter;
+import com.google.protobuf.Message;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReplaySourceTest
+{
+    @Test
+    public void capture_roundTripsTheRecordsAndTimes() throws IOException
+    {
+        final List<Message> records = sampleSurvey();
+
+        final byte[] capture = writeCapture(records);
+        try (CaptureReplaySource source = new CaptureReplaySource(new ByteArrayInputStream(capture)))
+        {
+            for (Message expected : records)
+            {
+                final ReplayRecord replayRecord = source.next();
+                assertEquals(expected, replayRecord.getRecord());
+                assertEquals(ReplayRecord.of(expected).getEpochMillis(), replayRecord.getEpochMillis());
+            }
+            assertNull(source.next());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void capture_rejectsOtherFiles() throws IOException
+    {
+        new CaptureReplaySource(new ByteArrayInputStream("craxiom,lte".getBytes()));
+    }
+
+    @Test
+    public void csv_rebuildsTheRecordsFromTheLoggerFormat() throws IOException
+    {
+        final String deviceTime = Rfc3339Formatter.format(START_MILLIS, UTC);
+        final String csv = "#CSV Version=0.4.0\n"
+                + "deviceTime,latitude,longitude,altitude,speed,accuracy,missionId,recordNumber,groupNumber,"
+                + "mcc,mnc,tac,eci,earfcn,pci,rsrp,rsrq,ta,servingCell,lteBandwidth,provider,signalStrength,cqi,slot,snr,"
+                + "deviceSerialNumber,locationAge,unknownColumn\n"
+                + deviceTime + ",38.123456,-77.654321,12.5,1.25,4.0,NS 1234,7,3,"
+                + "311,480,1000,123456,5230,17,-95.0,-11.5,3,true,MHZ_10,Verizon,-60.0,9,2,,"
+                + "1234,,something\n"
+                + "not a time,38.1,-77.6,,,,,8,4,311,480,,,,,,,,,,,,,,,,,\n";
+
+        try (CsvReplaySource source = new CsvReplaySource(new StringReader(csv), ReplayRecordType.forCsvFileName("craxiom-lte-20231114-221320.csv")))
+        {
+            final ReplayRecord replayRecord = source.next();
+            assertEquals(ReplayRecordType.LTE, replayRecord.getType());
+            assertEquals(START_MILLIS, replayRecord.getEpochMillis());
+            assertEquals(3, replayRecord.getGroupNumber());
+            assertEquals(2, replayRecord.getSubscriptionId());
+
+            final LteRecord record = (LteRecord) replayRecord.getRecord();
+            assertEquals(LteMessageConstants.LTE_RECORD_MESSAGE_TYPE, record.getMessageType());
+            final LteRecordData data = record.getData();
+            assertEquals(deviceTime, data.getDeviceTime());
+            assertEquals(38.123456, data.getLatitude(), 0.0);
+            assertEquals("NS 1234", data.getMissionId());
+            assertEquals(7, data.getRecordNumber());
+            assertEquals(311, data.getMcc().getValue());
+            assertEquals(123456, data.getEci().getValue());
+            assertEquals(-95.0f, data.getRsrp().getValue(), 0.0f);
+            assertTrue(data.getServingCell().getValue());
+            assertEquals(LteBandwidth.MHZ_10, data.getLteBandwidth());
+            assertEquals("Verizon", data.getProvider());
+            assertFalse(data.hasSnr());
+
+            assertTrue(source.getUnmappedColumns().contains("unknownColumn"));
+            assertFalse(source.getUnmappedColumns().contains("mcc"));
+
+            // The second row does not have a valid time so it is skipped
+            assertNull(source.next());
+            assertEquals(1, source.getSkippedRowCount());
+        }
+    }
+
+    @Test
+    public void merged_interleavesTheSourcesByTime() throws IOException
+    {
+        final byte[] lteCapture = writeCapture(List.of(lteRecord(START_MILLIS, 1, 1), lteRecord(START_MILLIS + 2_000, 2, 1)));
+        final byte[] gnssCapture = writeCapture(List.of(gnssRecord(START_MILLIS), gnssRecord(START_MILLIS + 1_000),
+                gnssRecord(START_MILLIS + 3_000)));
+
+        final List<ReplayRecordType> types = new ArrayList<>();
+        try (MergedReplaySource source = new MergedReplaySource(List.of(
+                new CaptureReplaySource(new ByteArrayInputStream(lteCapture)),
+                new CaptureReplaySource(new ByteArrayInputStream(gnssCapture)))))
+        {
+            ReplayRecord record;
+            long previousMillis = Long.MIN_VALUE;
+            while ((record = source.next()) != null)
+            {
+                assertTrue(record.getEpochMillis() >= previousMillis);
+                previousMillis = record.getEpochMillis();
+                types.add(record.getType());
+            }
+        }
+
+        assertEquals(List.of(ReplayRecordType.LTE, ReplayRecordType.GNSS, ReplayRecordType.GNSS, ReplayRecordType.LTE,
+                ReplayRecordType.GNSS), types);
+    }
+}
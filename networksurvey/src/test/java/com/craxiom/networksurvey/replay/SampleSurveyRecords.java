@@ -0,0 +1,130 @@
+package com.craxiom.networksurvey.replay;
+
+import static org.junit.Assert.assertEquals;
+
+import com.craxiom.messaging.BluetoothRecord;
+import com.craxiom.messaging.BluetoothRecordData;
+import com.craxiom.messaging.GnssRecord;
+import com.craxiom.messaging.GnssRecordData;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.WifiBeaconRecord;
+import com.craxiom.messaging.WifiBeaconRecordData;
+import com.craxiom.networksurvey.util.Rfc3339Formatter;
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Message;
+import com.google.protobuf.UInt32Value;
+import com.google.protobuf.UInt64Value;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the survey records and captures that the replay tests use.
+ */
+public final class SampleSurveyRecords
+{
+    public static final long START_MILLIS = 1_700_000_000_000L;
+    public static final ZoneId UTC = ZoneId.of("UTC");
+
+    private SampleSurveyRecords()
+    {
+    }
+
+    public static byte[] writeCapture(List<Message> records) throws IOException
+    {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ReplayCaptureWriter writer = new ReplayCaptureWriter(outputStream))
+        {
+            for (Message record : records)
+            {
+                writer.write(ReplayRecord.of(record));
+            }
+            assertEquals(records.size(), writer.getRecordCount());
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * @return A short survey with two LTE scans, a Wi-Fi scan, a Bluetooth record, and two GNSS records.
+     */
+    public static List<Message> sampleSurvey()
+    {
+        final List<Message> records = new ArrayList<>();
+        for (int cell = 0; cell < 3; cell++)
+        {
+            records.add(lteRecord(START_MILLIS, 1, cell));
+        }
+        records.add(gnssRecord(START_MILLIS + 100));
+        records.add(wifiRecord(START_MILLIS + 500, "00:11:22:33:44:55"));
+        records.add(wifiRecord(START_MILLIS + 500, "00:11:22:33:44:66"));
+        records.add(bluetoothRecord(START_MILLIS + 700));
+        for (int cell = 0; cell < 3; cell++)
+        {
+            records.add(lteRecord(START_MILLIS + 1_000, 2, cell));
+        }
+        records.add(gnssRecord(START_MILLIS + 1_100));
+        return records;
+    }
+
+    public static LteRecord lteRecord(long epochMillis, int groupNumber, int cell)
+    {
+        return LteRecord.newBuilder()
+                .setMessageType("LteRecord")
+                .setData(LteRecordData.newBuilder()
+                        .setDeviceSerialNumber("replay-test")
+                        .setDeviceTime(Rfc3339Formatter.format(epochMillis, UTC))
+                        .setLatitude(38.9)
+                        .setLongitude(-77.0)
+                        .setGroupNumber(groupNumber)
+                        .setMcc(Int32Value.of(311))
+                        .setMnc(Int32Value.of(480))
+                        .setEci(Int32Value.of(123_456 + cell))
+                        .setPci(Int32Value.of(100 + cell))
+                        .setRsrp(FloatValue.of(-90f - cell))
+                        .setServingCell(BoolValue.of(cell == 0))
+                        .setSlot(Int32Value.of(2))
+                        .build())
+                .build();
+    }
+
+    public static GnssRecord gnssRecord(long epochMillis)
+    {
+        return GnssRecord.newBuilder()
+                .setMessageType("GnssRecord")
+                .setData(GnssRecordData.newBuilder()
+                        .setDeviceTime(Rfc3339Formatter.format(epochMillis, UTC))
+                        .setSpaceVehicleId(UInt32Value.of(12))
+                        .setCarrierFreqHz(UInt64Value.of(1_575_420_030L))
+                        .build())
+                .build();
+    }
+
+    public static WifiBeaconRecord wifiRecord(long epochMillis, String bssid)
+    {
+        return WifiBeaconRecord.newBuilder()
+                .setMessageType("WifiBeaconRecord")
+                .setData(WifiBeaconRecordData.newBuilder()
+                        .setDeviceTime(Rfc3339Formatter.format(epochMillis, UTC))
+                        .setBssid(bssid)
+                        .setSignalStrength(FloatValue.of(-67f))
+                        .build())
+                .build();
+    }
+
+    public static BluetoothRecord bluetoothRecord(long epochMillis)
+    {
+        return BluetoothRecord.newBuilder()
+                .setMessageType("BluetoothRecord")
+                .setData(BluetoothRecordData.newBuilder()
+                        .setDeviceTime(Rfc3339Formatter.format(epochMillis, UTC))
+                        .setSourceAddress("AA:BB:CC:DD:EE:FF")
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,246 @@
+package com.craxiom.networksurvey.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.craxiom.networksurvey.services.AdaptiveScanScheduler.BatteryState;
+import com.craxiom.networksurvey.services.AdaptiveScanScheduler.MotionState;
+import com.craxiom.networksurvey.services.AdaptiveScanScheduler.Technology;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class AdaptiveScanSchedulerTest
+{
+    private static final int CELLULAR_CONFIGURED_MS = 5_000;
+    private static final int WIFI_CONFIGURED_MS = 10_000;
+    private static final int BLUETOOTH_CONFIGURED_MS = 30_000;
+
+    /**
+     * One segment of a recorded survey: the speed and battery state for a period of time.
+     */
+    private static final class TraceSegment
+    {
+        final String name;
+        final long durationMs;
+        final float speedMps;
+        final int batteryPercent;
+        final boolean charging;
+
+        TraceSegment(String name, long durationMs, float speedMps, int batteryPercent, boolean charging)
+        {
+            this.name = name;
+            this.durationMs = durationMs;
+            this.speedMps = speedMps;
+            this.batteryPercent = batteryPercent;
+            this.charging = charging;
+        }
+    }
+
+    /**
+     * A walk to the car, a drive, a long stop at a destination, and then a walk back on a low battery
+     * and finally plugged in to charge.
+     */
+    private static final List<TraceSegment> TRACE = List.of(
+            new TraceSegment("walk", 5 * 60_000L, 1.4f, 80, false),
+            new TraceSegment("drive", 10 * 60_000L, 15f, 78, false),
+            new TraceSegment("parked", 10 * 60_000L, 0f, 75, false),
+            new TraceSegment("low battery walk", 5 * 60_000L, 1.4f, 12, false),
+            new TraceSegment("charging walk", 5 * 60_000L, 1.4f, 12, true));
+
+    @Test
+    public void disabled_usesTheConfiguredInterval()
+    {
+        final AdaptiveScanScheduler scheduler = new AdaptiveScanScheduler();
+        scheduler.onSpeedSample(0, 30f);
+        scheduler.onBatteryState(5, false);
+
+        assertEquals(CELLULAR_CONFIGURED_MS, scheduler.getIntervalMs(Technology.CELLULAR, CELLULAR_CONFIGURED_MS));
+    }
+
+    @Test
+    public void replayTrace_scanDensityFollowsMotionAndBattery()
+    {
+        final AdaptiveScanScheduler scheduler = new AdaptiveScanScheduler();
+        scheduler.setEnabled(true);
+        final List<Integer> notifications = new ArrayList<>();
+        scheduler.registerListener(() -> notifications.add(1));
+
+        final Map<Technology, List<int[]>> scansBySegment = new EnumMap<>(Technology.class);
+        for (Technology technology : new Technology[]{Technology.CELLULAR, Technology.WIFI, Technology.BLUETOOTH})
+        {
+            scansBySegment.put(technology, new ArrayList<>());
+        }
+
+        long segmentStart = 0;
+        for (TraceSegment segment : TRACE)
+        {
+            scheduler.onBatteryState(segment.batteryPercent, segment.charging);
+
+            // Replay a location fix every half second and run each technology's scan loop against the scheduler
+            final long segmentEnd = segmentStart + segment.durationMs;
+            final Map<Technology, Long> nextScan = new EnumMap<>(Technology.class);
+            final Map<Technology, int[]> stats = new EnumMap<>(Technology.class);
+            for (Technology technology : scansBySegment.keySet())
+            {
+                nextScan.put(technology, segmentStart);
+                // {scan count, min interval, max interval}
+                stats.put(technology, new int[]{0, Integer.MAX_VALUE, 0});
+            }
+
+            for (long time = segmentStart; time < segmentEnd; time += 500)
+            {
+                scheduler.onSpeedSample(time, segment.speedMps);
+                for (Technology technology : scansBySegment.keySet())
+                {
+                    if (time < nextScan.get(technology)) continue;
+
+                    final int interval = scheduler.getIntervalMs(technology, configuredMs(technology));
+                    assertTrue(segment.name, interval >= Math.min(technology.minimumIntervalMs, configuredMs(technology)));
+                    assertTrue(segment.name, interval <= Math.max(technology.maximumIntervalMs, configuredMs(technology)));
+
+                    final int[] stat = stats.get(technology);
+                    stat[0]++;
+                    stat[1] = Math.min(stat[1], interval);
+                    stat[2] = Math.max(stat[2], interval);
+                    nextScan.put(technology, time + interval);
+                }
+            }
+
+            for (Technology technology : scansBySegment.keySet())
+            {
+                scansBySegment.get(technology).add(stats.get(technology));
+            }
+            segmentStart = segmentEnd;
+        }
+
+        final List<int[]> cellular = scansBySegment.get(Technology.CELLULAR);
+        // Walking uses the configured interval, driving doubles the rate
+        assertEquals(CELLULAR_CONFIGURED_MS, cellular.get(0)[1]);
+        assertEquals(CELLULAR_CONFIGURED_MS, cellular.get(0)[2]);
+        assertEquals(CELLULAR_CONFIGURED_MS / 2, cellular.get(1)[1]);
+        assertTrue(perMinute(cellular, 1) > 1.8 * perMinute(cellular, 0));
+
+        // When parked, the first minute is treated as a stop in traffic and then the scans stretch out
+        assertEquals(CELLULAR_CONFIGURED_MS * 4, cellular.get(2)[2]);
+        assertTrue(perMinute(cellular, 2) < 0.5 * perMinute(cellular, 0));
+
+        // A critical battery stretches out the scans unless the device is charging
+        assertEquals(CELLULAR_CONFIGURED_MS * 3, cellular.get(3)[2]);
+        assertEquals(CELLULAR_CONFIGURED_MS, cellular.get(4)[1]);
+        assertEquals(CELLULAR_CONFIGURED_MS, cellular.get(4)[2]);
+
+        // Bluetooth can't go below its minimum even while driving
+        final List<int[]> bluetooth = scansBySegment.get(Technology.BLUETOOTH);
+        assertEquals(Technology.BLUETOOTH.minimumIntervalMs, bluetooth.get(1)[1]);
+        // Wi-Fi is stretched by the same stationary factor when parked
+        final List<int[]> wifi = scansBySegment.get(Technology.WIFI);
+        assertEquals(WIFI_CONFIGURED_MS * 4, wifi.get(2)[2]);
+
+        // Only the state changes are notified, not every location fix: unknown -> walk, walk -> drive,
+        // drive -> stationary (after the dwell), normal -> critical battery, stationary -> walk, and
+        // critical -> normal battery once charging
+        assertEquals(6, notifications.size());
+    }
+
+    @Test
+    public void hysteresis_speedAroundTheThresholdDoesNotFlipTheState()
+    {
+        final AdaptiveScanScheduler scheduler = new AdaptiveScanScheduler();
+        scheduler.setEnabled(true);
+        final List<Integer> notifications = new ArrayList<>();
+        scheduler.registerListener(() -> notifications.add(1));
+
+        scheduler.onSpeedSample(0, 4f);
+        assertEquals(MotionState.DRIVING, scheduler.getMotionState());
+
+        // Slow traffic that hovers between the walking and driving thresholds stays driving
+        for (int i = 1; i <= 60; i++)
+        {
+            scheduler.onSpeedSample(i * 1_000L, i % 2 == 0 ? 2.2f : 3.4f);
+        }
+        assertEquals(MotionState.DRIVING, scheduler.getMotionState());
+
+        // A stop at a light keeps the driving state
+        for (int i = 61; i <= 90; i++)
+        {
+            scheduler.onSpeedSample(i * 1_000L, 0f);
+        }
+        assertEquals(MotionState.DRIVING, scheduler.getMotionState());
+        assertEquals(1, notifications.size());
+    }
+
+    @Test
+    public void locationTimeout_returnsToTheConfiguredInterval()
+    {
+        final AdaptiveScanScheduler scheduler = new AdaptiveScanScheduler();
+        scheduler.setEnabled(true);
+
+        scheduler.onSpeedSample(0, 20f);
+        assertEquals(CELLULAR_CONFIGURED_MS / 2, scheduler.getIntervalMs(Technology.CELLULAR, CELLULAR_CONFIGURED_MS));
+
+        scheduler.onTick(AdaptiveScanScheduler.LOCATION_TIMEOUT_MS - 1);
+        assertEquals(MotionState.DRIVING, scheduler.getMotionState());
+
+        scheduler.onTick(AdaptiveScanScheduler.LOCATION_TIMEOUT_MS);
+        assertEquals(MotionState.UNKNOWN, scheduler.getMotionState());
+        assertEquals(CELLULAR_CONFIGURED_MS, scheduler.getIntervalMs(Technology.CELLULAR, CELLULAR_CONFIGURED_MS));
+    }
+
+    @Test
+    public void batteryState_bands()
+    {
+        final AdaptiveScanScheduler scheduler = new AdaptiveScanScheduler();
+
+        scheduler.onBatteryState(-1, false);
+        assertEquals(BatteryState.NORMAL, scheduler.getBatteryState());
+        scheduler.onBatteryState(AdaptiveScanScheduler.LOW_BATTERY_PERCENT, false);
+        assertEquals(BatteryState.LOW, scheduler.getBatteryState());
+        scheduler.onBatteryState(AdaptiveScanScheduler.CRITICAL_BATTERY_PERCENT, false);
+        assertEquals(BatteryState.CRITICAL, scheduler.getBatteryState());
+        scheduler.onBatteryState(AdaptiveScanScheduler.CRITICAL_BATTERY_PERCENT, true);
+        assertEquals(BatteryState.NORMAL, scheduler.getBatteryState());
+    }
+
+    @Test
+    public void configuredIntervalOutsideTheBounds_isStillAllowed()
+    {
+        final AdaptiveScanScheduler scheduler = new AdaptiveScanScheduler();
+        scheduler.setEnabled(true);
+
+        // A user that configured a 10 second Bluetooth interval keeps it while walking
+        scheduler.onSpeedSample(0, 1.4f);
+        assertEquals(10_000, scheduler.getIntervalMs(Technology.BLUETOOTH, 10_000));
+
+        // A very long configured interval is not made even longer when parked
+        for (int i = 0; i <= 61; i++)
+        {
+            scheduler.onSpeedSample(1_000L + i * 1_000L, 0f);
+        }
+        assertEquals(MotionState.STATIONARY, scheduler.getMotionState());
+        assertEquals(300_000, scheduler.getIntervalMs(Technology.CELLULAR, 300_000));
+        assertEquals(Technology.CELLULAR.maximumIntervalMs, scheduler.getIntervalMs(Technology.CELLULAR, 20_000));
+    }
+
+    private static int configuredMs(Technology technology)
+    {
+        switch (technology)
+        {
+            case WIFI:
+                return WIFI_CONFIGURED_MS;
+            case BLUETOOTH:
+                return BLUETOOTH_CONFIGURED_MS;
+            default:
+                return CELLULAR_CONFIGURED_MS;
+        }
+    }
+
+    private static double perMinute(List<int[]> stats, int segment)
+    {
+        return stats.get(segment)[0] * 60_000.0 / TRACE.get(segment).durationMs;
+    }
+}
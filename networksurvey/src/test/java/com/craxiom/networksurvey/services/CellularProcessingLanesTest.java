@@ -0,0 +1,125 @@
+package com.craxiom.networksurvey.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.craxiom.networksurvey.model.ServingCellSnapshot;
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CellularProcessingLanesTest
+{
+    private static final int SIM_1 = 1;
+    private static final int SIM_2 = 2;
+
+    @Test
+    public void servingCellKey_isTrackedPerSubscription()
+    {
+        final CellularProcessingLanes lanes = new CellularProcessingLanes();
+        final List<Boolean> changes = new ArrayList<>();
+
+        // Alternating SIMs that each stay on the same cell should only report one change per SIM
+        for (int i = 0; i < 3; i++)
+        {
+            lanes.runInLane(SIM_1, lane -> changes.add(lane.updateServingCellKey("311-480-1-100")));
+            lanes.runInLane(SIM_2, lane -> changes.add(lane.updateServingCellKey("310-260-2-200")));
+        }
+
+        assertEquals(List.of(true, true, false, false, false, false), changes);
+    }
+
+    @Test
+    public void latestServingCell_isTrackedPerSubscriptionAndOverall()
+    {
+        final CellularProcessingLanes lanes = new CellularProcessingLanes();
+        assertNull(lanes.getLatestServingCell());
+        assertNull(lanes.getLatestServingCell(SIM_1));
+
+        final ServingCellSnapshot sim1Cell = ServingCellSnapshot.fromRecord(wrap(buildRecord(SIM_1, 0, 0, 0, 0)), 1000L);
+        final ServingCellSnapshot sim2Cell = ServingCellSnapshot.fromRecord(wrap(buildRecord(SIM_2, 0, 0, 0, 0)), 2000L);
+        assertNotNull(sim1Cell);
+        assertNotNull(sim2Cell);
+
+        lanes.runInLane(SIM_1, lane -> lane.updateLatestServingCell(sim1Cell));
+        lanes.runInLane(SIM_2, lane -> lane.updateLatestServingCell(sim2Cell));
+
+        assertSame(sim1Cell, lanes.getLatestServingCell(SIM_1));
+        assertSame(sim2Cell, lanes.getLatestServingCell(SIM_2));
+        assertSame(sim2Cell, lanes.getLatestServingCell());
+    }
+
+    @Test
+    public void runInLane_assignsANewGroupNumberToEachBatch()
+    {
+        final CellularProcessingLanes lanes = new CellularProcessingLanes();
+        final List<Integer> groups = new ArrayList<>();
+
+        lanes.runInLane(SIM_1, lane -> groups.add(lane.getGroupNumber()));
+        lanes.runInLane(SIM_2, lane -> groups.add(lane.getGroupNumber()));
+        lanes.runInLane(SIM_1, lane -> groups.add(lane.getGroupNumber()));
+
+        assertEquals(List.of(1, 2, 3), groups);
+    }
+
+    @Test
+    public void runInLane_onlyUsesAGroupNumberForBatchesWithRecords()
+    {
+        final CellularProcessingLanes lanes = new CellularProcessingLanes();
+        final List<Integer> groups = new ArrayList<>();
+
+        lanes.runInLane(SIM_1, lane -> groups.add(lane.getGroupNumber()));
+        // A batch without any valid records never asks for a group number
+        lanes.runInLane(SIM_1, lane -> {
+        });
+        try
+        {
+            lanes.runInLane(SIM_2, lane -> {
+                throw new IllegalStateException("The batch failed");
+            });
+        } catch (IllegalStateException ignore)
+        {
+        }
+        lanes.runInLane(SIM_2, lane -> {
+            // Every record in the batch gets the same group number
+            groups.add(lane.getGroupNumber());
+            groups.add(lane.getGroupNumber());
+        });
+
+        assertEquals(List.of(1, 2, 2), groups);
+    }
+
+    private static LteRecord buildRecord(int sim, int batch, int cell, int recordNumber, int groupNumber)
+    {
+        return LteRecord.newBuilder()
+                .setData(LteRecordData.newBuilder()
+                        .setRecordNumber(recordNumber)
+                        .setGroupNumber(groupNumber)
+                        .setSlot(Int32Value.of(sim))
+                        .setMcc(Int32Value.of(310 + sim))
+                        .setMnc(Int32Value.of(260))
+                        .setTac(Int32Value.of(1000 + sim))
+                        .setEci(Int32Value.of(sim * 100_000 + (batch / 10) * 100 + cell))
+                        .setPci(Int32Value.of(cell))
+                        .setRsrp(FloatValue.of(-80f - cell - batch % 7))
+                        .setServingCell(BoolValue.of(cell == 0))
+                        .build())
+                .build();
+    }
+
+    private static CellularRecordWrapper wrap(LteRecord record)
+    {
+        return new CellularRecordWrapper(CellularProtocol.LTE, record);
+    }
+}
@@ -0,0 +1,75 @@
+package com.craxiom.networksurvey.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import com.craxiom.messaging.DeviceStatusData;
+import com.google.protobuf.Int32Value;
+
+import org.junit.Test;
+
+public class DeviceStateCacheTest
+{
+    private static final String MODEL = "Pixel 8";
+    private static final String APP_VERSION = "1.43";
+
+    /**
+     * Builds the Device Status fields the way they were built before the cache, from the values in the sticky
+     * battery broadcast.
+     */
+    private static DeviceStatusData legacyData(int level, int scale)
+    {
+        final DeviceStatusData.Builder dataBuilder = DeviceStatusData.newBuilder()
+                .setDeviceSerialNumber("device");
+        final float batteryPercent = (level / (float) scale) * 100;
+        dataBuilder.setBatteryLevelPercent(Int32Value.of((int) batteryPercent));
+        dataBuilder.setDeviceModel(MODEL);
+        dataBuilder.setAppVersion(APP_VERSION);
+        return dataBuilder.build();
+    }
+
+    private static DeviceStatusData cachedData(DeviceStateCache cache)
+    {
+        final DeviceStatusData.Builder dataBuilder = DeviceStatusData.newBuilder()
+                .setDeviceSerialNumber("device");
+        cache.populate(dataBuilder);
+        return dataBuilder.build();
+    }
+
+    @Test
+    public void populate_matchesTheLegacyMessageForEveryBatteryLevel()
+    {
+        final int[] scales = {100, 255, 1000};
+        for (int scale : scales)
+        {
+            for (int level = 0; level <= scale; level++)
+            {
+                final DeviceStateCache cache = new DeviceStateCache(MODEL, APP_VERSION);
+                cache.onBatteryStateChanged(BatteryMonitor.toBatteryPercent(level, scale), false);
+
+                assertEquals("level " + level + " scale " + scale, legacyData(level, scale), cachedData(cache));
+            }
+        }
+    }
+
+    @Test
+    public void populate_leavesTheBatteryUnsetUntilItIsKnown()
+    {
+        final DeviceStatusData data = cachedData(new DeviceStateCache(MODEL, APP_VERSION));
+
+        assertFalse(data.hasBatteryLevelPercent());
+        assertEquals(MODEL, data.getDeviceModel());
+        assertEquals(APP_VERSION, data.getAppVersion());
+    }
+
+    @Test
+    public void populate_usesTheLatestBatteryLevel()
+    {
+        final DeviceStateCache cache = new DeviceStateCache(MODEL, APP_VERSION);
+        cache.onBatteryStateChanged(80, false);
+        cache.onBatteryStateChanged(79, true);
+
+        assertEquals(79, cachedData(cache).getBatteryLevelPercent().getValue());
+        assertEquals(79, cache.getBatteryLevelPercent());
+    }
+}
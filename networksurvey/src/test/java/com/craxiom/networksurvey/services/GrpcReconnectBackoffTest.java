@@ -0,0 +1,83 @@
+package com.craxiom.networksurvey.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class GrpcReconnectBackoffTest
+{
+    @Test
+    public void withoutJitter_delaysDoubleUpToTheMax()
+    {
+        final GrpcReconnectBackoff backoff = new GrpcReconnectBackoff(1_000, 10_000, 2.0, 0.0, () -> 0.5);
+
+        assertEquals(1_000, backoff.nextDelayMs());
+        assertEquals(2_000, backoff.nextDelayMs());
+        assertEquals(4_000, backoff.nextDelayMs());
+        assertEquals(8_000, backoff.nextDelayMs());
+        assertEquals(10_000, backoff.nextDelayMs());
+        assertEquals(10_000, backoff.nextDelayMs());
+        assertEquals(6, backoff.getConsecutiveFailures());
+    }
+
+    @Test
+    public void reset_startsOverAtTheInitialDelay()
+    {
+        final GrpcReconnectBackoff backoff = new GrpcReconnectBackoff(500, 60_000, 2.0, 0.0, () -> 0.5);
+        backoff.nextDelayMs();
+        backoff.nextDelayMs();
+        backoff.nextDelayMs();
+
+        backoff.reset();
+
+        assertEquals(0, backoff.getConsecutiveFailures());
+        assertEquals(500, backoff.nextDelayMs());
+        assertEquals(1_000, backoff.nextDelayMs());
+    }
+
+    @Test
+    public void jitter_staysWithinTheSpreadAroundTheBaseDelay()
+    {
+        final Random random = new Random(49);
+        final GrpcReconnectBackoff backoff = new GrpcReconnectBackoff(1_000, 60_000, 2.0, 0.2, random::nextDouble);
+
+        long baseDelayMs = 1_000;
+        for (int attempt = 0; attempt < 20; attempt++)
+        {
+            final long delayMs = backoff.nextDelayMs();
+            assertTrue("Attempt " + attempt + " delay " + delayMs, delayMs >= baseDelayMs * 0.8);
+            assertTrue("Attempt " + attempt + " delay " + delayMs, delayMs <= baseDelayMs * 1.2);
+            baseDelayMs = Math.min(baseDelayMs * 2, 60_000);
+        }
+    }
+
+    @Test
+    public void jitter_spreadsStreamsThatFailTogether()
+    {
+        // Ten streams that drop at the same time should not all come back at the same instant
+        final Random random = new Random(7);
+        final long[] firstDelays = new long[10];
+        for (int i = 0; i < firstDelays.length; i++)
+        {
+            firstDelays[i] = new GrpcReconnectBackoff(1_000, 60_000, 2.0, 0.2, random::nextDouble).nextDelayMs();
+        }
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long delay : firstDelays)
+        {
+            min = Math.min(min, delay);
+            max = Math.max(max, delay);
+        }
+        assertTrue("The delays were spread over " + (max - min) + " ms", max - min >= 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidJitter_throws()
+    {
+        new GrpcReconnectBackoff(1_000, 60_000, 2.0, 1.0, () -> 0.5);
+    }
+}
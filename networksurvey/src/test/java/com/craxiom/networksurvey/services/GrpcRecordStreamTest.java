@@ -0,0 +1,806 @@
+package com.craxiom.networksurvey.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.craxiom.messaging.CdmaRecord;
+import com.craxiom.messaging.CdmaRecordData;
+import com.craxiom.messaging.DeviceStatus;
+import com.craxiom.messaging.DeviceStatusData;
+import com.craxiom.messaging.GsmRecord;
+import com.craxiom.messaging.GsmRecordData;
+import com.craxiom.messaging.LteBandwidth;
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.UmtsRecord;
+import com.craxiom.messaging.UmtsRecordData;
+import com.craxiom.messaging.grpc.CdmaSurveyResponse;
+import com.craxiom.messaging.grpc.DeviceStatusGrpc;
+import com.craxiom.messaging.grpc.GsmSurveyResponse;
+import com.craxiom.messaging.grpc.LteSurveyResponse;
+import com.craxiom.messaging.grpc.NrSurveyResponse;
+import com.craxiom.messaging.grpc.StatusUpdateReply;
+import com.craxiom.messaging.grpc.UmtsSurveyResponse;
+import com.craxiom.messaging.grpc.WirelessSurveyGrpc;
+import com.craxiom.networksurvey.messaging.NetworkSurveyStatusGrpc;
+import com.craxiom.networksurvey.model.TimestampedRecord;
+import com.craxiom.networksurvey.util.LegacyRecordConversion;
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Runs {@link GrpcRecordStream} against an in-process gRPC server that fails streams, goes away, and comes back, the
+ * same way the remote server looks to the app when driving in and out of coverage.
+ */
+@SuppressWarnings("deprecation")
+public class GrpcRecordStreamTest
+{
+    private static final long TIMEOUT_MS = 30_000L;
+    private static final long POLL_INTERVAL_MS = 20L;
+
+    private final String serverName = InProcessServerBuilder.generateName();
+    private final FakeSurveyServer fakeServer = new FakeSurveyServer();
+    private final FakeDeviceStatusServer fakeDeviceStatusServer = new FakeDeviceStatusServer();
+    private final String legacyServerName = InProcessServerBuilder.generateName();
+    private final FakeLegacySurveyServer fakeLegacyServer = new FakeLegacySurveyServer();
+    private final FakeLegacyStatusServer fakeLegacyStatusServer = new FakeLegacyStatusServer();
+
+    private ScheduledExecutorService executorService;
+    private Server server;
+    private ManagedChannel channel;
+    private Server legacyServer;
+    private ManagedChannel legacyChannel;
+    private GrpcRecordStream<?, ?, ?> stream;
+    private GrpcRecordStream<?, ?, ?> legacyStream;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        executorService = Executors.newScheduledThreadPool(2);
+        server = startServer();
+        channel = InProcessChannelBuilder.forName(serverName).build();
+        legacyServer = InProcessServerBuilder.forName(legacyServerName).addService(fakeLegacyServer)
+                .addService(fakeLegacyStatusServer).build().start();
+        legacyChannel = InProcessChannelBuilder.forName(legacyServerName).build();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException
+    {
+        if (stream != null) stream.stop();
+        if (legacyStream != null) legacyStream.stop();
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        legacyChannel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        legacyServer.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void recordsQueuedWhileTheServerIsDown_areSentOnceItIsBack() throws Exception
+    {
+        final GrpcRecordStream<GsmRecord, GsmRecord, GsmSurveyResponse> gsmStream = newGsmStream(fastBackoff(null));
+        gsmStream.start();
+
+        enqueue(gsmStream, 0, 50);
+        awaitCondition("the first records to arrive", () -> fakeServer.received.size() == 50);
+
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        awaitCondition("the stream to be reopened", () -> gsmStream.getOpenCount() >= 2);
+
+        // The reopened stream waits for the channel, so these stay queued instead of being lost in a dead call
+        enqueue(gsmStream, 50, 150);
+        Thread.sleep(500);
+        assertEquals(50, fakeServer.received.size());
+        assertTrue(gsmStream.isAccepting());
+
+        server = startServer();
+        awaitCondition("the queued records to arrive", () -> fakeServer.received.size() == 150);
+
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 150; i++) expected.add(String.valueOf(i));
+        assertEquals(expected, fakeServer.receivedVersions());
+        assertEquals(0, gsmStream.getDroppedRecordCount());
+    }
+
+    @Test
+    public void failingStreams_areReopenedWithAGrowingBackoff() throws Exception
+    {
+        fakeServer.failAfterMessages = 5;
+        final List<Long> delays = Collections.synchronizedList(new ArrayList<>());
+        final GrpcRecordStream<GsmRecord, GsmRecord, GsmSurveyResponse> gsmStream = newGsmStream(fastBackoff(delays));
+        gsmStream.start();
+
+        // Keep records flowing so every reopened stream has something to send before the server fails it
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        int next = 0;
+        while (gsmStream.getOpenCount() < 6 && System.currentTimeMillis() < deadline)
+        {
+            enqueue(gsmStream, next, ++next);
+            Thread.sleep(2);
+        }
+
+        assertTrue("The stream was only opened " + gsmStream.getOpenCount() + " times", gsmStream.getOpenCount() >= 6);
+        assertTrue(fakeServer.streamsOpened.get() >= 5);
+        assertTrue(fakeServer.received.size() >= 25);
+        assertEquals(List.of(10L, 20L, 40L, 80L, 80L), new ArrayList<>(delays).subList(0, 5));
+        assertTrue(gsmStream.isAccepting());
+    }
+
+    @Test
+    public void unimplementedStream_isNotReopened() throws Exception
+    {
+        final ConcurrentLinkedQueue<NrRecord> queue = new ConcurrentLinkedQueue<>();
+        final WirelessSurveyGrpc.WirelessSurveyStub stub = WirelessSurveyGrpc.newStub(channel).withWaitForReady();
+        final GrpcRecordStream<NrRecord, NrRecord, NrSurveyResponse> nrStream = new GrpcRecordStream<>("NR",
+                queue, Function.identity(), stub::streamNrSurvey, executorService, fastBackoff(null), 100,
+                POLL_INTERVAL_MS);
+        stream = nrStream;
+        nrStream.start();
+        nrStream.enqueue(NrRecord.newBuilder().setVersion("0").build());
+
+        awaitCondition("the stream to give up", () -> !nrStream.isAccepting());
+        Thread.sleep(300);
+
+        assertEquals(1, nrStream.getOpenCount());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void stop_completesTheStreamAndStopsAcceptingRecords() throws Exception
+    {
+        final GrpcRecordStream<GsmRecord, GsmRecord, GsmSurveyResponse> gsmStream = newGsmStream(fastBackoff(null));
+        gsmStream.start();
+        enqueue(gsmStream, 0, 10);
+        awaitCondition("the records to arrive", () -> fakeServer.received.size() == 10);
+
+        gsmStream.stop();
+
+        awaitCondition("the server to see the stream complete", () -> fakeServer.streamsCompleted.get() == 1);
+        assertFalse(gsmStream.isAccepting());
+        enqueue(gsmStream, 10, 20);
+        Thread.sleep(300);
+        assertEquals(10, fakeServer.received.size());
+        assertEquals(1, gsmStream.getOpenCount());
+    }
+
+    @Test
+    public void fullQueue_dropsTheOldestRecords() throws Exception
+    {
+        final GrpcRecordStream<GsmRecord, GsmRecord, GsmSurveyResponse> gsmStream = newGsmStream(fastBackoff(null));
+
+        // Not started, so everything stays queued
+        enqueue(gsmStream, 0, 150);
+
+        assertEquals(50, gsmStream.getDroppedRecordCount());
+        gsmStream.start();
+        awaitCondition("the remaining records to arrive", () -> fakeServer.received.size() == 100);
+        assertEquals("50", fakeServer.receivedVersions().get(0));
+        assertEquals("149", fakeServer.receivedVersions().get(99));
+    }
+
+    @Test
+    public void legacyAndNewServers_receiveTheSameGsmData() throws Exception
+    {
+        final List<GsmRecord> records = createGsmRecords(60);
+        assertLegacyParity("GSM", records, newStub()::streamGsmSurvey, fakeServer.received,
+                timestamped(record -> record.getData().getDeviceTime()), LegacyRecordConversion.gsmRecordConverter(),
+                legacyStub()::streamGsmSurvey, fakeLegacyServer.gsmReceived, LegacyRecordConversion::convertGsmRecord);
+
+        for (int i = 0; i < records.size(); i++)
+        {
+            final GsmRecordData data = records.get(i).getData();
+            final com.craxiom.networksurvey.messaging.GsmRecord legacyRecord = fakeLegacyServer.gsmReceived.get(i);
+
+            assertEquals(data.getDeviceSerialNumber(), legacyRecord.getDeviceSerialNumber());
+            assertEquals(OffsetDateTime.parse(data.getDeviceTime()).toInstant().toEpochMilli(),
+                    legacyRecord.getDeviceTime());
+            assertEquals(data.getLatitude(), legacyRecord.getLatitude(), 0);
+            assertEquals(data.getLongitude(), legacyRecord.getLongitude(), 0);
+            assertEquals(data.getRecordNumber(), legacyRecord.getRecordNumber());
+            assertEquals(data.hasMcc(), legacyRecord.hasMcc());
+            assertEquals(data.getMcc(), legacyRecord.getMcc());
+            assertEquals(data.hasTa(), legacyRecord.hasTa());
+            assertEquals(data.getTa(), legacyRecord.getTa());
+            assertEquals(data.getArfcn(), legacyRecord.getArfcn());
+            assertEquals(data.getSignalStrength(), legacyRecord.getSignalStrength());
+            assertEquals(data.getProvider(), legacyRecord.getProvider());
+        }
+    }
+
+    @Test
+    public void legacyAndNewServers_receiveTheSameCdmaData() throws Exception
+    {
+        final List<CdmaRecord> records = createCdmaRecords(60);
+        assertLegacyParity("CDMA", records, newStub()::streamCdmaSurvey, fakeServer.cdmaReceived,
+                timestamped(record -> record.getData().getDeviceTime()), LegacyRecordConversion.cdmaRecordConverter(),
+                legacyStub()::streamCdmaSurvey, fakeLegacyServer.cdmaReceived, LegacyRecordConversion::convertCdmaRecord);
+
+        for (int i = 0; i < records.size(); i++)
+        {
+            final CdmaRecordData data = records.get(i).getData();
+            final com.craxiom.networksurvey.messaging.CdmaRecord legacyRecord = fakeLegacyServer.cdmaReceived.get(i);
+            assertEquals(data.hasSid(), legacyRecord.hasSid());
+            assertEquals(data.getBsid(), legacyRecord.getBsid());
+            assertEquals(data.getEcio(), legacyRecord.getEcio());
+        }
+    }
+
+    @Test
+    public void legacyAndNewServers_receiveTheSameUmtsData() throws Exception
+    {
+        final List<UmtsRecord> records = createUmtsRecords(60);
+        assertLegacyParity("UMTS", records, newStub()::streamUmtsSurvey, fakeServer.umtsReceived,
+                timestamped(record -> record.getData().getDeviceTime()), LegacyRecordConversion.umtsRecordConverter(),
+                legacyStub()::streamUmtsSurvey, fakeLegacyServer.umtsReceived, LegacyRecordConversion::convertUmtsRecord);
+
+        for (int i = 0; i < records.size(); i++)
+        {
+            final UmtsRecordData data = records.get(i).getData();
+            final com.craxiom.networksurvey.messaging.UmtsRecord legacyRecord = fakeLegacyServer.umtsReceived.get(i);
+            // The cell ID has a different name in the legacy record
+            assertEquals(data.hasCid(), legacyRecord.hasCi());
+            assertEquals(data.getCid(), legacyRecord.getCi());
+            assertEquals(data.getRscp(), legacyRecord.getRscp());
+        }
+    }
+
+    @Test
+    public void legacyAndNewServers_receiveTheSameLteData() throws Exception
+    {
+        final List<LteRecord> records = createLteRecords(60);
+        assertLegacyParity("LTE", records, newStub()::streamLteSurvey, fakeServer.lteReceived,
+                timestamped(record -> record.getData().getDeviceTime()), LegacyRecordConversion.lteRecordConverter(),
+                legacyStub()::streamLteSurvey, fakeLegacyServer.lteReceived, LegacyRecordConversion::convertLteRecord);
+
+        for (int i = 0; i < records.size(); i++)
+        {
+            final LteRecordData data = records.get(i).getData();
+            final com.craxiom.networksurvey.messaging.LteRecord legacyRecord = fakeLegacyServer.lteReceived.get(i);
+            // The cell ID has a different name in the legacy record
+            assertEquals(data.hasEci(), legacyRecord.hasCi());
+            assertEquals(data.getEci(), legacyRecord.getCi());
+            assertEquals(data.getLteBandwidth().getNumber(), legacyRecord.getLteBandwidth().getNumber());
+        }
+    }
+
+    @Test
+    public void legacyAndNewServers_receiveTheSameDeviceStatus() throws Exception
+    {
+        final List<DeviceStatus> statuses = createDeviceStatuses(60);
+        assertLegacyParity("device status", statuses,
+                DeviceStatusGrpc.newStub(channel).withWaitForReady()::statusUpdate,
+                fakeDeviceStatusServer.received, Function.identity(), LegacyRecordConversion.deviceStatusConverter(),
+                NetworkSurveyStatusGrpc.newStub(legacyChannel).withWaitForReady()::statusUpdate,
+                fakeLegacyStatusServer.received, LegacyRecordConversion::convertDeviceStatus);
+
+        for (int i = 0; i < statuses.size(); i++)
+        {
+            final DeviceStatusData data = statuses.get(i).getData();
+            final com.craxiom.networksurvey.messaging.DeviceStatus legacyStatus = fakeLegacyStatusServer.received.get(i);
+            assertEquals(OffsetDateTime.parse(data.getDeviceTime()).toInstant().toEpochMilli(),
+                    legacyStatus.getDeviceTime());
+            assertEquals(data.hasBatteryLevelPercent() ? data.getBatteryLevelPercent().getValue() : 0,
+                    legacyStatus.getBatteryLevelPercent());
+        }
+    }
+
+    /**
+     * Sends the same records to the new server as they are and to the legacy server through the legacy converter,
+     * then checks that the new server got the records unchanged and that the legacy server got the same messages as
+     * converting each record with a new builder. The legacy converter reuses its builder, so this also checks that
+     * nothing carries over from one record to the next.
+     */
+    private <R, Reply, Q, L, LegacyReply> void assertLegacyParity(String name, List<R> records,
+                                                                  Function<StreamObserver<Reply>, StreamObserver<R>> newCall,
+                                                                  List<R> newReceived, Function<R, Q> toQueued,
+                                                                  Function<Q, L> legacyConverter,
+                                                                  Function<StreamObserver<LegacyReply>, StreamObserver<L>> legacyCall,
+                                                                  List<L> legacyReceived, Function<R, L> convertRecord)
+            throws InterruptedException
+    {
+        final GrpcRecordStream<R, R, Reply> newStream = new GrpcRecordStream<>(name, new ConcurrentLinkedQueue<>(),
+                Function.identity(), newCall, executorService, fastBackoff(null), 100, POLL_INTERVAL_MS);
+        stream = newStream;
+        final GrpcRecordStream<Q, L, LegacyReply> oldStream = new GrpcRecordStream<>("legacy " + name,
+                new ConcurrentLinkedQueue<>(), legacyConverter, legacyCall, executorService, fastBackoff(null), 100,
+                POLL_INTERVAL_MS);
+        legacyStream = oldStream;
+
+        records.forEach(newStream::enqueue);
+        records.forEach(record -> oldStream.enqueue(toQueued.apply(record)));
+        newStream.start();
+        oldStream.start();
+        awaitCondition("both servers to receive the " + name + " records",
+                () -> newReceived.size() == records.size() && legacyReceived.size() == records.size());
+
+        assertEquals(records, new ArrayList<>(newReceived));
+        for (int i = 0; i < records.size(); i++)
+        {
+            assertEquals(convertRecord.apply(records.get(i)), legacyReceived.get(i));
+        }
+    }
+
+    /**
+     * @return A function that pairs a record with its device time, the same as the records are queued for a legacy
+     * server.
+     */
+    private static <R> Function<R, TimestampedRecord<R>> timestamped(Function<R, String> deviceTime)
+    {
+        return record -> new TimestampedRecord<>(record,
+                OffsetDateTime.parse(deviceTime.apply(record)).toInstant().toEpochMilli());
+    }
+
+    private WirelessSurveyGrpc.WirelessSurveyStub newStub()
+    {
+        return WirelessSurveyGrpc.newStub(channel).withWaitForReady();
+    }
+
+    private com.craxiom.networksurvey.messaging.WirelessSurveyGrpc.WirelessSurveyStub legacyStub()
+    {
+        return com.craxiom.networksurvey.messaging.WirelessSurveyGrpc.newStub(legacyChannel).withWaitForReady();
+    }
+
+    private Server startServer() throws IOException
+    {
+        return InProcessServerBuilder.forName(serverName).addService(fakeServer).addService(fakeDeviceStatusServer)
+                .build().start();
+    }
+
+    private GrpcRecordStream<GsmRecord, GsmRecord, GsmSurveyResponse> newGsmStream(GrpcReconnectBackoff backoff)
+    {
+        final WirelessSurveyGrpc.WirelessSurveyStub stub = WirelessSurveyGrpc.newStub(channel).withWaitForReady();
+        final GrpcRecordStream<GsmRecord, GsmRecord, GsmSurveyResponse> gsmStream = new GrpcRecordStream<>("GSM",
+                new ConcurrentLinkedQueue<>(), Function.identity(), stub::streamGsmSurvey, executorService, backoff,
+                100, POLL_INTERVAL_MS);
+        stream = gsmStream;
+        return gsmStream;
+    }
+
+    /**
+     * A backoff without jitter that starts at 10 ms and tops out at 80 ms, optionally recording each delay.
+     */
+    private static GrpcReconnectBackoff fastBackoff(List<Long> delays)
+    {
+        return new GrpcReconnectBackoff(10, 80, 2.0, 0.0, () -> 0.5)
+        {
+            @Override
+            public long nextDelayMs()
+            {
+                final long delayMs = super.nextDelayMs();
+                if (delays != null) delays.add(delayMs);
+                return delayMs;
+            }
+        };
+    }
+
+    private static void enqueue(GrpcRecordStream<GsmRecord, GsmRecord, GsmSurveyResponse> gsmStream, int from, int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            gsmStream.enqueue(GsmRecord.newBuilder().setVersion(String.valueOf(i)).build());
+        }
+    }
+
+    /**
+     * Creates GSM records where the optional fields come and go from one record to the next, like they do in a survey.
+     */
+    private static List<GsmRecord> createGsmRecords(int count)
+    {
+        final List<GsmRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            final GsmRecordData.Builder dataBuilder = GsmRecordData.newBuilder()
+                    .setDeviceSerialNumber("ns-test-device")
+                    .setDeviceName("Test Device")
+                    .setDeviceTime(deviceTime(i))
+                    .setLatitude(38.9 + i * 1e-4)
+                    .setLongitude(-77.0 - i * 1e-4)
+                    .setAltitude(100 + i)
+                    .setMissionId("mission")
+                    .setRecordNumber(i)
+                    .setGroupNumber(i / 4)
+                    .setArfcn(Int32Value.of(128 + i % 8))
+                    .setBsic(Int32Value.of(i % 64))
+                    .setSignalStrength(FloatValue.of(-70f - i % 30))
+                    .setServingCell(BoolValue.of(i % 4 == 0));
+            if (i % 2 == 0)
+            {
+                dataBuilder.setMcc(Int32Value.of(310))
+                        .setMnc(Int32Value.of(260))
+                        .setLac(Int32Value.of(1000 + i))
+                        .setCi(Int32Value.of(20_000 + i))
+                        .setTa(Int32Value.of(i % 5));
+            }
+            if (i % 3 == 0) dataBuilder.setProvider("Test Carrier");
+
+            records.add(GsmRecord.newBuilder()
+                    .setMessageType("GsmRecord")
+                    .setVersion("0.16.0")
+                    .setData(dataBuilder)
+                    .build());
+        }
+        return records;
+    }
+
+    /**
+     * Creates CDMA records where the optional fields come and go from one record to the next.
+     */
+    private static List<CdmaRecord> createCdmaRecords(int count)
+    {
+        final List<CdmaRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            final CdmaRecordData.Builder dataBuilder = CdmaRecordData.newBuilder()
+                    .setDeviceSerialNumber("ns-test-device")
+                    .setDeviceName("Test Device")
+                    .setDeviceTime(deviceTime(i))
+                    .setLatitude(38.9 + i * 1e-4)
+                    .setLongitude(-77.0 - i * 1e-4)
+                    .setAltitude(100 + i)
+                    .setMissionId("mission")
+                    .setRecordNumber(i)
+                    .setGroupNumber(i / 4)
+                    .setSignalStrength(FloatValue.of(-75f - i % 30))
+                    .setServingCell(BoolValue.of(i % 4 == 0));
+            if (i % 2 == 0)
+            {
+                dataBuilder.setSid(Int32Value.of(4_000 + i))
+                        .setNid(Int32Value.of(i % 16))
+                        .setBsid(Int32Value.of(9_000 + i));
+            }
+            if (i % 3 == 0) dataBuilder.setEcio(FloatValue.of(-5f - i % 10));
+            if (i % 5 == 0) dataBuilder.setProvider("Test Carrier");
+
+            records.add(CdmaRecord.newBuilder()
+                    .setMessageType("CdmaRecord")
+                    .setVersion("0.16.0")
+                    .setData(dataBuilder)
+                    .build());
+        }
+        return records;
+    }
+
+    /**
+     * Creates UMTS records where the optional fields come and go from one record to the next.
+     */
+    private static List<UmtsRecord> createUmtsRecords(int count)
+    {
+        final List<UmtsRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            final UmtsRecordData.Builder dataBuilder = UmtsRecordData.newBuilder()
+                    .setDeviceSerialNumber("ns-test-device")
+                    .setDeviceName("Test Device")
+                    .setDeviceTime(deviceTime(i))
+                    .setLatitude(38.9 + i * 1e-4)
+                    .setLongitude(-77.0 - i * 1e-4)
+                    .setAltitude(100 + i)
+                    .setMissionId("mission")
+                    .setRecordNumber(i)
+                    .setGroupNumber(i / 4)
+                    .setUarfcn(Int32Value.of(4_385 + i % 3))
+                    .setPsc(Int32Value.of(i % 512))
+                    .setServingCell(BoolValue.of(i % 4 == 0));
+            if (i % 2 == 0)
+            {
+                dataBuilder.setMcc(Int32Value.of(310))
+                        .setMnc(Int32Value.of(410))
+                        .setLac(Int32Value.of(2_000 + i))
+                        .setCid(Int32Value.of(30_000 + i));
+            }
+            if (i % 3 != 0) dataBuilder.setRscp(FloatValue.of(-85f - i % 25));
+            if (i % 5 == 0) dataBuilder.setSignalStrength(FloatValue.of(-60f - i % 20));
+            if (i % 3 == 0) dataBuilder.setProvider("Test Carrier");
+
+            records.add(UmtsRecord.newBuilder()
+                    .setMessageType("UmtsRecord")
+                    .setVersion("0.16.0")
+                    .setData(dataBuilder)
+                    .build());
+        }
+        return records;
+    }
+
+    /**
+     * Creates LTE records where the serving cells have the full identity and the neighbors only have the channel and
+     * PCI, like they do in a survey.
+     */
+    private static List<LteRecord> createLteRecords(int count)
+    {
+        final List<LteRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            final boolean servingCell = i % 4 == 0;
+            final LteRecordData.Builder dataBuilder = LteRecordData.newBuilder()
+                    .setDeviceSerialNumber("ns-test-device")
+                    .setDeviceName("Test Device")
+                    .setDeviceTime(deviceTime(i))
+                    .setLatitude(38.9 + i * 1e-4)
+                    .setLongitude(-77.0 - i * 1e-4)
+                    .setAltitude(100 + i)
+                    .setMissionId("mission")
+                    .setRecordNumber(i)
+                    .setGroupNumber(i / 4)
+                    .setEarfcn(Int32Value.of(new int[]{850, 2175, 5230, 66486}[i % 4]))
+                    .setPci(Int32Value.of(i % 504))
+                    .setRsrp(FloatValue.of(-80f - i % 40))
+                    .setServingCell(BoolValue.of(servingCell));
+            if (servingCell)
+            {
+                dataBuilder.setMcc(Int32Value.of(310))
+                        .setMnc(Int32Value.of(410))
+                        .setTac(Int32Value.of(12_000 + i))
+                        .setEci(Int32Value.of(100_000_000 + i))
+                        .setTa(Int32Value.of(i % 20))
+                        .setLteBandwidth(LteBandwidth.MHZ_10)
+                        .setProvider("Test Carrier");
+            }
+            if (i % 3 == 0) dataBuilder.setRsrq(FloatValue.of(-8f - i % 12));
+
+            records.add(LteRecord.newBuilder()
+                    .setMessageType("LteRecord")
+                    .setVersion("0.16.0")
+                    .setData(dataBuilder)
+                    .build());
+        }
+        return records;
+    }
+
+    /**
+     * Creates device status messages where the battery level is only known some of the time.
+     */
+    private static List<DeviceStatus> createDeviceStatuses(int count)
+    {
+        final List<DeviceStatus> statuses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            final DeviceStatusData.Builder dataBuilder = DeviceStatusData.newBuilder()
+                    .setDeviceSerialNumber("ns-test-device")
+                    .setDeviceName("Test Device")
+                    .setDeviceTime(deviceTime(i))
+                    .setLatitude(38.9 + i * 1e-4)
+                    .setLongitude(-77.0 - i * 1e-4)
+                    .setAltitude(100 + i);
+            if (i % 2 == 0) dataBuilder.setBatteryLevelPercent(Int32Value.of(100 - i));
+
+            statuses.add(DeviceStatus.newBuilder()
+                    .setMessageType("DeviceStatus")
+                    .setVersion("0.16.0")
+                    .setData(dataBuilder)
+                    .build());
+        }
+        return statuses;
+    }
+
+    private static String deviceTime(int i)
+    {
+        return String.format(Locale.US, "2024-05-01T12:%02d:%02d.%03d-04:00", i / 60, i % 60, i * 7);
+    }
+
+    private static void awaitCondition(String description, BooleanSupplier condition) throws InterruptedException
+    {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean())
+        {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("Timed out waiting for " + description);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Records the messages of one client stream, and replies once the client completes it.
+     */
+    private static <M, Reply> StreamObserver<M> recordInto(List<M> received, StreamObserver<Reply> responseObserver,
+                                                           Reply reply)
+    {
+        return new StreamObserver<>()
+        {
+            @Override
+            public void onNext(M message)
+            {
+                received.add(message);
+            }
+
+            @Override
+            public void onError(Throwable t)
+            {
+            }
+
+            @Override
+            public void onCompleted()
+            {
+                responseObserver.onNext(reply);
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    /**
+     * Records the GSM records it receives, and fails each GSM stream after a number of records when
+     * {@link #failAfterMessages} is set. The CDMA, UMTS, and LTE records are recorded as well, and the other RPCs are
+     * left unimplemented.
+     */
+    private static class FakeSurveyServer extends WirelessSurveyGrpc.WirelessSurveyImplBase
+    {
+        final List<GsmRecord> received = Collections.synchronizedList(new ArrayList<>());
+        final List<CdmaRecord> cdmaReceived = Collections.synchronizedList(new ArrayList<>());
+        final List<UmtsRecord> umtsReceived = Collections.synchronizedList(new ArrayList<>());
+        final List<LteRecord> lteReceived = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger streamsOpened = new AtomicInteger();
+        final AtomicInteger streamsCompleted = new AtomicInteger();
+        volatile int failAfterMessages = 0;
+
+        @Override
+        public StreamObserver<GsmRecord> streamGsmSurvey(StreamObserver<GsmSurveyResponse> responseObserver)
+        {
+            streamsOpened.incrementAndGet();
+            return new StreamObserver<>()
+            {
+                private int count;
+                private boolean failed;
+
+                @Override
+                public void onNext(GsmRecord record)
+                {
+                    if (failed) return;
+
+                    received.add(record);
+                    if (++count == failAfterMessages)
+                    {
+                        failed = true;
+                        responseObserver.onError(Status.INTERNAL.withDescription("Injected failure").asRuntimeException());
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t)
+                {
+                }
+
+                @Override
+                public void onCompleted()
+                {
+                    streamsCompleted.incrementAndGet();
+                    responseObserver.onNext(GsmSurveyResponse.getDefaultInstance());
+                    responseObserver.onCompleted();
+                }
+            };
+        }
+
+        @Override
+        public StreamObserver<CdmaRecord> streamCdmaSurvey(StreamObserver<CdmaSurveyResponse> responseObserver)
+        {
+            return recordInto(cdmaReceived, responseObserver, CdmaSurveyResponse.getDefaultInstance());
+        }
+
+        @Override
+        public StreamObserver<UmtsRecord> streamUmtsSurvey(StreamObserver<UmtsSurveyResponse> responseObserver)
+        {
+            return recordInto(umtsReceived, responseObserver, UmtsSurveyResponse.getDefaultInstance());
+        }
+
+        @Override
+        public StreamObserver<LteRecord> streamLteSurvey(StreamObserver<LteSurveyResponse> responseObserver)
+        {
+            return recordInto(lteReceived, responseObserver, LteSurveyResponse.getDefaultInstance());
+        }
+
+        List<String> receivedVersions()
+        {
+            synchronized (received)
+            {
+                final List<String> versions = new ArrayList<>(received.size());
+                for (GsmRecord record : received) versions.add(record.getVersion());
+                return versions;
+            }
+        }
+    }
+
+    /**
+     * Records the device status messages it receives.
+     */
+    private static class FakeDeviceStatusServer extends DeviceStatusGrpc.DeviceStatusImplBase
+    {
+        final List<DeviceStatus> received = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public StreamObserver<DeviceStatus> statusUpdate(StreamObserver<StatusUpdateReply> responseObserver)
+        {
+            return recordInto(received, responseObserver, StatusUpdateReply.getDefaultInstance());
+        }
+    }
+
+    /**
+     * Records the cellular records it receives in the legacy format, like an older server.
+     */
+    private static class FakeLegacySurveyServer
+            extends com.craxiom.networksurvey.messaging.WirelessSurveyGrpc.WirelessSurveyImplBase
+    {
+        final List<com.craxiom.networksurvey.messaging.GsmRecord> gsmReceived =
+                Collections.synchronizedList(new ArrayList<>());
+        final List<com.craxiom.networksurvey.messaging.CdmaRecord> cdmaReceived =
+                Collections.synchronizedList(new ArrayList<>());
+        final List<com.craxiom.networksurvey.messaging.UmtsRecord> umtsReceived =
+                Collections.synchronizedList(new ArrayList<>());
+        final List<com.craxiom.networksurvey.messaging.LteRecord> lteReceived =
+                Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public StreamObserver<com.craxiom.networksurvey.messaging.GsmRecord> streamGsmSurvey(
+                StreamObserver<com.craxiom.networksurvey.messaging.GsmSurveyResponse> responseObserver)
+        {
+            return recordInto(gsmReceived, responseObserver,
+                    com.craxiom.networksurvey.messaging.GsmSurveyResponse.getDefaultInstance());
+        }
+
+        @Override
+        public StreamObserver<com.craxiom.networksurvey.messaging.CdmaRecord> streamCdmaSurvey(
+                StreamObserver<com.craxiom.networksurvey.messaging.CdmaSurveyResponse> responseObserver)
+        {
+            return recordInto(cdmaReceived, responseObserver,
+                    com.craxiom.networksurvey.messaging.CdmaSurveyResponse.getDefaultInstance());
+        }
+
+        @Override
+        public StreamObserver<com.craxiom.networksurvey.messaging.UmtsRecord> streamUmtsSurvey(
+                StreamObserver<com.craxiom.networksurvey.messaging.UmtsSurveyResponse> responseObserver)
+        {
+            return recordInto(umtsReceived, responseObserver,
+                    com.craxiom.networksurvey.messaging.UmtsSurveyResponse.getDefaultInstance());
+        }
+
+        @Override
+        public StreamObserver<com.craxiom.networksurvey.messaging.LteRecord> streamLteSurvey(
+                StreamObserver<com.craxiom.networksurvey.messaging.LteSurveyResponse> responseObserver)
+        {
+            return recordInto(lteReceived, responseObserver,
+                    com.craxiom.networksurvey.messaging.LteSurveyResponse.getDefaultInstance());
+        }
+    }
+
+    /**
+     * Records the device status messages it receives in the legacy format, like an older server.
+     */
+    private static class FakeLegacyStatusServer extends NetworkSurveyStatusGrpc.NetworkSurveyStatusImplBase
+    {
+        final List<com.craxiom.networksurvey.messaging.DeviceStatus> received =
+                Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public StreamObserver<com.craxiom.networksurvey.messaging.DeviceStatus> statusUpdate(
+                StreamObserver<com.craxiom.networksurvey.messaging.StatusUpdateReply> responseObserver)
+        {
+            return recordInto(received, responseObserver,
+                    com.craxiom.networksurvey.messaging.StatusUpdateReply.getDefaultInstance());
+        }
+    }
+}
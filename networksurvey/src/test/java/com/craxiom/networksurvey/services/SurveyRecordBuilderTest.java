@@ -0,0 +1,155 @@
+package com.craxiom.networksurvey.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.craxiom.messaging.CdmaRecordData;
+import com.craxiom.messaging.GsmRecordData;
+import com.craxiom.messaging.LteBandwidth;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecordData;
+import com.craxiom.messaging.UmtsRecordData;
+import com.craxiom.networksurvey.util.RecordTimestamp;
+
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+
+public class SurveyRecordBuilderTest
+{
+    private static final long EPOCH_MILLIS = 1_700_000_000_000L;
+    private static final RecordTimestamp TIMESTAMP = RecordTimestamp.of(EPOCH_MILLIS, EPOCH_MILLIS, ZoneOffset.UTC);
+
+    @Test
+    public void lteRecord_setsTheAvailableFields()
+    {
+        final LteRecordData data = SurveyRecordBuilder.buildLteRecord(LteRecordData.newBuilder().setLatitude(1.5),
+                "device", "mission", TIMESTAMP, 7, 3, true, "Carrier", 311, 480, 1234, 5678, 5230, 42, -95, -10,
+                4, -70, 12, 2, 15, 10_000).getData();
+
+        assertEquals(1.5, data.getLatitude(), 0);
+        assertEquals(TIMESTAMP.rfc3339, data.getDeviceTime());
+        assertEquals(7, data.getRecordNumber());
+        assertEquals(3, data.getGroupNumber());
+        assertTrue(data.getServingCell().getValue());
+        assertEquals("Carrier", data.getProvider());
+        assertEquals(5678, data.getEci().getValue());
+        assertEquals(-95f, data.getRsrp().getValue(), 0);
+        assertEquals(12, data.getCqi().getValue());
+        assertEquals(2, data.getSlot().getValue());
+        assertEquals(15f, data.getSnr().getValue(), 0);
+        assertEquals(LteBandwidth.MHZ_10, data.getLteBandwidth());
+    }
+
+    @Test
+    public void lteRecord_leavesOutTheUnsetFields()
+    {
+        final int unset = SurveyRecordBuilder.UNSET;
+        final LteRecordData data = SurveyRecordBuilder.buildLteRecord(LteRecordData.newBuilder(), "device", "mission",
+                TIMESTAMP, 1, 1, false, null, unset, unset, unset, unset, 5230, 42, -95, unset, unset, unset, 0,
+                unset, SurveyRecordBuilder.UNSET_SNR, unset).getData();
+
+        assertFalse(data.hasMcc());
+        assertFalse(data.hasEci());
+        assertFalse(data.hasRsrq());
+        assertFalse(data.hasSignalStrength());
+        // A CQI of 0 is out of range
+        assertFalse(data.hasCqi());
+        assertFalse(data.hasSlot());
+        assertFalse(data.hasSnr());
+        assertEquals(LteBandwidth.UNKNOWN, data.getLteBandwidth());
+        assertEquals("", data.getProvider());
+    }
+
+    @Test
+    public void gsmRecord_treatsTheAlternateUnsetValuesAsUnset()
+    {
+        final GsmRecordData data = SurveyRecordBuilder.buildGsmRecord(GsmRecordData.newBuilder(), "device", "mission",
+                TIMESTAMP, 1, 1, true, "Carrier", 0, 0, 0, -1, 128, 5, -80, -1, 1).getData();
+
+        assertFalse(data.hasMcc());
+        assertFalse(data.hasMnc());
+        assertFalse(data.hasLac());
+        assertFalse(data.hasCi());
+        assertFalse(data.hasTa());
+        assertEquals(128, data.getArfcn().getValue());
+        assertEquals(1, data.getSlot().getValue());
+    }
+
+    @Test
+    public void cdmaRecord_convertsTheEcioFromTenthsOfADb()
+    {
+        final int unset = SurveyRecordBuilder.UNSET;
+        final CdmaRecordData data = SurveyRecordBuilder.buildCdmaRecord(CdmaRecordData.newBuilder(), "device",
+                "mission", TIMESTAMP, 1, 1, true, "Carrier", 4145, unset, 1234, -85, -75, unset).getData();
+
+        assertEquals(4145, data.getSid().getValue());
+        assertFalse(data.hasNid());
+        assertEquals(1234, data.getBsid().getValue());
+        assertEquals(-85f, data.getSignalStrength().getValue(), 0);
+        assertEquals(-7.5f, data.getEcio().getValue(), 0.0001f);
+        assertFalse(data.hasSlot());
+    }
+
+    @Test
+    public void umtsRecord_leavesOutTheUnsetFields()
+    {
+        final int unset = SurveyRecordBuilder.UNSET;
+        final UmtsRecordData data = SurveyRecordBuilder.buildUmtsRecord(UmtsRecordData.newBuilder(), "device",
+                "mission", TIMESTAMP, 2, 1, false, null, 310, 260, unset, unset, 10_700, 300, unset, -90, unset,
+                2).getData();
+
+        assertEquals(310, data.getMcc().getValue());
+        assertFalse(data.hasLac());
+        assertFalse(data.hasCid());
+        assertFalse(data.hasSignalStrength());
+        assertFalse(data.hasEcno());
+        assertEquals(-90f, data.getRscp().getValue(), 0);
+        assertEquals(10_700, data.getUarfcn().getValue());
+        assertEquals(300, data.getPsc().getValue());
+        assertEquals(2, data.getSlot().getValue());
+    }
+
+    @Test
+    public void nrRecord_setsTheAvailableFields()
+    {
+        final int unset = SurveyRecordBuilder.UNSET;
+        final NrRecordData data = SurveyRecordBuilder.buildNrRecord(NrRecordData.newBuilder(), "device", "mission",
+                TIMESTAMP, 3, 2, true, "Carrier", 311, 480, 1234, 68_719_476_735L, 627_264, 500, -95, -11, 12, unset,
+                unset, unset, 40, 1).getData();
+
+        assertEquals(68_719_476_735L, data.getNci().getValue());
+        assertEquals(627_264, data.getNarfcn().getValue());
+        assertEquals(500, data.getPci().getValue());
+        assertEquals(-95f, data.getSsRsrp().getValue(), 0);
+        assertFalse(data.hasCsiRsrp());
+        assertFalse(data.hasCsiSinr());
+        assertEquals(40, data.getTa().getValue());
+        assertEquals(1, data.getSlot().getValue());
+
+        final NrRecordData neighbor = SurveyRecordBuilder.buildNrRecord(NrRecordData.newBuilder(), "device",
+                "mission", TIMESTAMP, 4, 2, false, null, unset, unset, unset, SurveyRecordBuilder.UNSET_LONG, 627_264,
+                500, -105, unset, unset, unset, unset, unset, unset, unset).getData();
+        assertFalse(neighbor.hasMcc());
+        assertFalse(neighbor.hasNci());
+        assertFalse(neighbor.hasSsRsrq());
+        assertFalse(neighbor.hasTa());
+    }
+
+    @Test
+    public void validation_rejectsMissingRequiredFields()
+    {
+        assertTrue(SurveyRecordBuilder.validateLteFields(5230, 42, -95));
+        assertFalse(SurveyRecordBuilder.validateLteFields(-1, 42, -95));
+        assertFalse(SurveyRecordBuilder.validateLteFields(5230, Integer.MAX_VALUE, -95));
+        assertTrue(SurveyRecordBuilder.validateGsmFields(128, 5, -80));
+        assertFalse(SurveyRecordBuilder.validateGsmFields(128, 5, Integer.MAX_VALUE));
+        assertTrue(SurveyRecordBuilder.validateCdmaFields(-85, -75));
+        assertFalse(SurveyRecordBuilder.validateCdmaFields(-85, Integer.MAX_VALUE));
+        assertTrue(SurveyRecordBuilder.validateUmtsFields(10_700, 300));
+        assertFalse(SurveyRecordBuilder.validateUmtsFields(10_700, -1));
+        assertTrue(SurveyRecordBuilder.validateNrFields(627_264, 500));
+        assertFalse(SurveyRecordBuilder.validateNrFields(SurveyRecordBuilder.UNSET, 500));
+    }
+}
@@ -0,0 +1,351 @@
+package com.craxiom.networksurvey.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.telephony.CellIdentityLte;
+import android.telephony.CellInfo;
+import android.telephony.CellInfoLte;
+import android.telephony.CellSignalStrengthLte;
+
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.networksurvey.GpsListener;
+import com.craxiom.networksurvey.cellconflict.CellConflictMonitor;
+import com.craxiom.networksurvey.constants.NetworkSurveyConstants;
+import com.craxiom.networksurvey.coverage.CoverageRecorder;
+import com.craxiom.networksurvey.data.SsidExclusionManager;
+import com.craxiom.networksurvey.data.SsidMatcher;
+import com.craxiom.networksurvey.listeners.ICellularSurveyRecordListener;
+import com.craxiom.networksurvey.metrics.PipelineMetrics;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.craxiom.networksurvey.model.ServingCellSnapshot;
+import com.craxiom.networksurvey.ui.activesurvey.TowerDetectionJavaWrapper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the per-SIM lane dispatch of {@link SurveyRecordProcessor#onCellInfoUpdate}, using the real
+ * record generation for LTE cell info objects.
+ */
+public class SurveyRecordProcessorLanesTest
+{
+    private static final int SIM_1 = 1;
+    private static final int SIM_2 = 2;
+    private static final int BATCHES_PER_SIM = 40;
+    private static final int CELLS_PER_BATCH = 4;
+    private static final long LATCH_TIMEOUT_SECONDS = 10;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final CoverageRecorder coverageRecorder = mock(CoverageRecorder.class);
+    private final CellConflictMonitor cellConflictMonitor = mock(CellConflictMonitor.class);
+    private volatile boolean cellConflictDetection;
+    private MockedStatic<SystemClock> systemClock;
+    private SurveyRecordProcessor processor;
+
+    @Before
+    public void setUp()
+    {
+        // The preference lookups all fall back to their default values, except for the cell conflict detection
+        final SharedPreferences preferences = mock(SharedPreferences.class, invocation -> {
+            if (invocation.getArguments().length != 2) return null;
+            if (NetworkSurveyConstants.PROPERTY_CELL_CONFLICT_DETECTION.equals(invocation.getArgument(0)))
+            {
+                return cellConflictDetection;
+            }
+            return invocation.getArgument(1);
+        });
+        final Context context = mock(Context.class);
+        when(context.getSharedPreferences(anyString(), anyInt())).thenReturn(preferences);
+
+        final SsidExclusionManager ssidExclusionManager = mock(SsidExclusionManager.class);
+        when(ssidExclusionManager.getMatcher()).thenReturn(SsidMatcher.EMPTY);
+
+        processor = new SurveyRecordProcessor(mock(GpsListener.class), "test-device", context, executor,
+                ssidExclusionManager, mock(TowerDetectionJavaWrapper.class), cellConflictMonitor, coverageRecorder);
+
+        // The static mock only applies to this thread, so the worker threads open their own
+        systemClock = mockStatic(SystemClock.class);
+    }
+
+    @After
+    public void tearDown()
+    {
+        processor.onDestroy();
+        systemClock.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void onCellInfoUpdate_keepsTheBatchesOfEachSimInOrder() throws Exception
+    {
+        final Map<Integer, List<List<CellInfo>>> cellInfoBySim = new HashMap<>();
+        for (int sim : new int[]{SIM_1, SIM_2})
+        {
+            final List<List<CellInfo>> batches = new ArrayList<>(BATCHES_PER_SIM);
+            for (int batch = 0; batch < BATCHES_PER_SIM; batch++)
+            {
+                batches.add(createCellInfo(sim, batch));
+            }
+            cellInfoBySim.put(sim, batches);
+        }
+
+        final RecordingListener listener = new RecordingListener();
+        processor.registerCellularSurveyRecordListener(listener);
+
+        // Both SIMs deliver their batches at the same time, the same as on a dual SIM device
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int sim : new int[]{SIM_1, SIM_2})
+        {
+            futures.add(executor.submit(withSystemClock(() -> {
+                assertTrue(start.await(LATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                for (List<CellInfo> cellInfo : cellInfoBySim.get(sim))
+                {
+                    processor.onCellInfoUpdate(cellInfo, "LTE", "LTE", sim, "Carrier", null, null);
+                }
+                return null;
+            })));
+        }
+        start.countDown();
+        for (Future<?> future : futures)
+        {
+            future.get(LATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        final Set<Integer> recordNumbers = new HashSet<>();
+        final Map<Integer, Integer> simByGroup = new HashMap<>();
+        for (int sim : new int[]{SIM_1, SIM_2})
+        {
+            final List<List<CellularRecordWrapper>> batches = listener.batchesBySim.get(sim);
+            assertEquals(BATCHES_PER_SIM, batches.size());
+
+            int previousGroup = 0;
+            for (int batch = 0; batch < BATCHES_PER_SIM; batch++)
+            {
+                final List<CellularRecordWrapper> records = batches.get(batch);
+                assertEquals(CELLS_PER_BATCH, records.size());
+
+                final int group = ((LteRecord) records.get(0).cellularRecord).getData().getGroupNumber();
+                assertTrue("The group numbers of a SIM should increase with each batch", group > previousGroup);
+                previousGroup = group;
+                // A group number must only ever be used by a single SIM
+                assertNull(simByGroup.put(group, sim));
+
+                for (int cell = 0; cell < CELLS_PER_BATCH; cell++)
+                {
+                    final LteRecordData data = ((LteRecord) records.get(cell).cellularRecord).getData();
+                    assertEquals("The batches of a SIM should be processed in order", eci(sim, batch, cell),
+                            data.getEci().getValue());
+                    assertEquals(sim, data.getSlot().getValue());
+                    assertEquals(group, data.getGroupNumber());
+                    assertTrue(recordNumbers.add(data.getRecordNumber()));
+                }
+            }
+        }
+
+        // The record numbers are shared by the lanes, so there are no gaps or duplicates
+        assertEquals(2 * BATCHES_PER_SIM * CELLS_PER_BATCH, recordNumbers.size());
+        assertEquals(1, (int) Collections.min(recordNumbers));
+        assertEquals(recordNumbers.size(), (int) Collections.max(recordNumbers));
+    }
+
+    @Test
+    public void onCellInfoUpdate_aSimIsNotBlockedByAnotherSim() throws Exception
+    {
+        final CountDownLatch sim1InLane = new CountDownLatch(1);
+        final CountDownLatch releaseSim1 = new CountDownLatch(1);
+        final RecordingListener listener = new RecordingListener()
+        {
+            @Override
+            public void onCellularBatch(List<CellularRecordWrapper> cellularGroup, int subscriptionId)
+            {
+                super.onCellularBatch(cellularGroup, subscriptionId);
+                if (subscriptionId != SIM_1) return;
+
+                sim1InLane.countDown();
+                try
+                {
+                    releaseSim1.await(LATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        processor.registerCellularSurveyRecordListener(listener);
+
+        final Future<?> sim1 = executor.submit(withSystemClock(() -> {
+            processor.onCellInfoUpdate(createCellInfo(SIM_1, 0), "LTE", "LTE", SIM_1, "Carrier", null, null);
+            return null;
+        }));
+        assertTrue(sim1InLane.await(LATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // SIM 1 is still in the middle of its batch, but SIM 2 runs in its own lane
+        processor.onCellInfoUpdate(createCellInfo(SIM_2, 0), "LTE", "LTE", SIM_2, "Carrier", null, null);
+        assertEquals(1, listener.batchesBySim.get(SIM_2).size());
+        assertFalse(sim1.isDone());
+
+        releaseSim1.countDown();
+        sim1.get(LATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(1, listener.batchesBySim.get(SIM_1).size());
+    }
+
+    @Test
+    public void onCellInfoUpdate_tracksTheServingCellPerSim()
+    {
+        processor.onCellInfoUpdate(createCellInfo(SIM_1, 0), "LTE", "LTE", SIM_1, "Carrier", null, null);
+        processor.onCellInfoUpdate(createCellInfo(SIM_2, 0), "LTE", "LTE", SIM_2, "Carrier", null, null);
+        processor.onCellInfoUpdate(createCellInfo(SIM_1, 1), "LTE", "LTE", SIM_1, "Carrier", null, null);
+
+        final ServingCellSnapshot sim1Cell = processor.getLatestServingCell(SIM_1);
+        final ServingCellSnapshot sim2Cell = processor.getLatestServingCell(SIM_2);
+        assertNotNull(sim1Cell);
+        assertNotNull(sim2Cell);
+        assertEquals(eci(SIM_1, 1, 0), (long) sim1Cell.cellId);
+        assertEquals(eci(SIM_2, 0, 0), (long) sim2Cell.cellId);
+        assertSame(sim1Cell, processor.getLatestServingCell());
+    }
+
+    @Test
+    public void onCellInfoUpdate_feedsTheCoverageMapWithoutTheUploadStore()
+    {
+        assertFalse(processor.isDbSinkSet());
+
+        processor.onCellInfoUpdate(createCellInfo(SIM_1, 0), "LTE", "LTE", SIM_1, "Carrier", null, null);
+        processor.onCellInfoUpdate(createCellInfo(SIM_2, 0), "LTE", "LTE", SIM_2, "Carrier", null, null);
+
+        verify(coverageRecorder).onCellularBatch(anyList(), eq(SIM_1));
+        verify(coverageRecorder).onCellularBatch(anyList(), eq(SIM_2));
+
+        processor.onDestroy();
+        verify(coverageRecorder, times(1)).shutdown();
+    }
+
+    @Test
+    public void cellConflictDetection_isOffByDefaultAndResetWhenTurnedOff()
+    {
+        processor.onCellInfoUpdate(createCellInfo(SIM_1, 0), "LTE", "LTE", SIM_1, "Carrier", null, null);
+        verify(cellConflictMonitor, never()).onCellularBatch(anyList(), anyInt());
+
+        cellConflictDetection = true;
+        processor.refreshSettings();
+        processor.onCellInfoUpdate(createCellInfo(SIM_1, 1), "LTE", "LTE", SIM_1, "Carrier", null, null);
+        verify(cellConflictMonitor).onCellularBatch(anyList(), eq(SIM_1));
+        verify(cellConflictMonitor, never()).reset();
+
+        cellConflictDetection = false;
+        processor.refreshSettings();
+        verify(cellConflictMonitor, times(1)).reset();
+
+        processor.onDestroy();
+        verify(cellConflictMonitor, times(1)).shutdown();
+    }
+
+    @Test
+    public void unchangedCellCounters_areReportedAsPipelineGauges()
+    {
+        final String emitted = PipelineMetrics.UNCHANGED_CELL_EMITTED_PREFIX + "lte";
+        final String suppressed = PipelineMetrics.UNCHANGED_CELL_SUPPRESSED_PREFIX + "nr";
+        assertTrue(PipelineMetrics.REGISTRY.snapshot().gauges.containsKey(emitted));
+        assertTrue(PipelineMetrics.REGISTRY.snapshot().gauges.containsKey(suppressed));
+
+        processor.onDestroy();
+        assertFalse(PipelineMetrics.REGISTRY.snapshot().gauges.containsKey(emitted));
+        assertFalse(PipelineMetrics.REGISTRY.snapshot().gauges.containsKey(suppressed));
+    }
+
+    /**
+     * Wraps the task so that it runs with {@link SystemClock} mocked on the worker thread.
+     */
+    private static Callable<Void> withSystemClock(Callable<Void> task)
+    {
+        return () -> {
+            try (MockedStatic<SystemClock> ignored = mockStatic(SystemClock.class))
+            {
+                return task.call();
+            }
+        };
+    }
+
+    private static int eci(int sim, int batch, int cell)
+    {
+        return sim * 100_000 + batch * 10 + cell;
+    }
+
+    /**
+     * Creates the cell info objects for one scan, where the first cell is the serving cell.
+     */
+    private static List<CellInfo> createCellInfo(int sim, int batch)
+    {
+        final List<CellInfo> cellInfo = new ArrayList<>(CELLS_PER_BATCH);
+        for (int cell = 0; cell < CELLS_PER_BATCH; cell++)
+        {
+            final CellIdentityLte identity = mock(CellIdentityLte.class);
+            when(identity.getMcc()).thenReturn(310 + sim);
+            when(identity.getMnc()).thenReturn(260);
+            when(identity.getTac()).thenReturn(1000 + sim);
+            when(identity.getCi()).thenReturn(eci(sim, batch, cell));
+            when(identity.getEarfcn()).thenReturn(5230);
+            when(identity.getPci()).thenReturn(cell);
+
+            final CellSignalStrengthLte signalStrength = mock(CellSignalStrengthLte.class);
+            when(signalStrength.getRsrp()).thenReturn(-80 - cell);
+            when(signalStrength.getRsrq()).thenReturn(-10);
+
+            final CellInfoLte lte = mock(CellInfoLte.class);
+            when(lte.getCellIdentity()).thenReturn(identity);
+            when(lte.getCellSignalStrength()).thenReturn(signalStrength);
+            when(lte.isRegistered()).thenReturn(cell == 0);
+            cellInfo.add(lte);
+        }
+        return cellInfo;
+    }
+
+    private static class RecordingListener implements ICellularSurveyRecordListener
+    {
+        final Map<Integer, List<List<CellularRecordWrapper>>> batchesBySim = new ConcurrentHashMap<>();
+
+        @Override
+        public void onCellularBatch(List<CellularRecordWrapper> cellularGroup, int subscriptionId)
+        {
+            batchesBySim.computeIfAbsent(subscriptionId, sim -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(new ArrayList<>(cellularGroup));
+        }
+    }
+}
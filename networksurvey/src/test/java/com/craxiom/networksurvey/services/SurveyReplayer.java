@@ -0,0 +1,300 @@
+package com.craxiom.networksurvey.services;
+
+import com.craxiom.messaging.BluetoothRecord;
+import com.craxiom.messaging.GnssRecord;
+import com.craxiom.messaging.WifiBeaconRecord;
+import com.craxiom.networksurvey.listeners.IBluetoothSurveyRecordListener;
+import com.craxiom.networksurvey.listeners.ICellularSurveyRecordListener;
+import com.craxiom.networksurvey.listeners.IGnssSurveyRecordListener;
+import com.craxiom.networksurvey.listeners.IWifiSurveyRecordListener;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.craxiom.networksurvey.model.WifiRecordWrapper;
+import com.craxiom.networksurvey.replay.IReplaySource;
+import com.craxiom.networksurvey.replay.ReplayRecord;
+import com.craxiom.networksurvey.replay.ReplayRecordType;
+import com.google.protobuf.GeneratedMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays recorded survey records through a {@link SurveyRecordProcessor}, so that the loggers, the
+ * streaming components, and any in-memory sinks can be driven with a real survey log from a plain JVM
+ * unit test, without an Android device or the survey service.
+ * <p>
+ * The records are grouped into the same shape as the processor generates them: the records of one
+ * cellular scan (same time, group number, and SIM) are passed in as one scan, the Wi-Fi records of one
+ * scan as one list, the Bluetooth records of one scan as one list, and the GNSS records one at a time.
+ * From there the processor notifies its listeners the same way it does for a live survey, including the
+ * unchanged cell suppression and the batch listeners.
+ * <p>
+ * The replay can run in real time, at a multiple of real time, or as fast as possible (see
+ * {@link #setSpeedMultiplier(double)}). The time between records is taken from the time each record
+ * was originally recorded.
+ *
+ * @since 1.43
+ */
+public class SurveyReplayer
+{
+    /**
+     * The source of time for pacing the replay, so that tests can replay at real time without waiting.
+     */
+    public interface ReplayClock
+    {
+        long nanoTime();
+
+        void sleepNanos(long nanos) throws InterruptedException;
+    }
+
+    private static final ReplayClock SYSTEM_CLOCK = new ReplayClock()
+    {
+        @Override
+        public long nanoTime()
+        {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void sleepNanos(long nanos) throws InterruptedException
+        {
+            Thread.sleep(nanos / 1_000_000L, (int) (nanos % 1_000_000L));
+        }
+    };
+
+    private final SurveyRecordProcessor processor;
+    private final ReplayClock clock;
+    private volatile double speedMultiplier = 1.0;
+    private volatile boolean stopRequested;
+
+    public SurveyReplayer(SurveyRecordProcessor processor)
+    {
+        this(processor, SYSTEM_CLOCK);
+    }
+
+    public SurveyReplayer(SurveyRecordProcessor processor, ReplayClock clock)
+    {
+        this.processor = processor;
+        this.clock = clock;
+    }
+
+    /**
+     * Registers a listener with the processor for all the record types that it implements.
+     */
+    public void registerListener(Object listener)
+    {
+        if (listener instanceof ICellularSurveyRecordListener cellularListener)
+        {
+            processor.registerCellularSurveyRecordListener(cellularListener);
+        }
+        if (listener instanceof IWifiSurveyRecordListener wifiListener)
+        {
+            processor.registerWifiSurveyRecordListener(wifiListener);
+        }
+        if (listener instanceof IBluetoothSurveyRecordListener bluetoothListener)
+        {
+            processor.registerBluetoothSurveyRecordListener(bluetoothListener);
+        }
+        if (listener instanceof IGnssSurveyRecordListener gnssListener)
+        {
+            processor.registerGnssSurveyRecordListener(gnssListener);
+        }
+    }
+
+    /**
+     * Sets how fast the records are replayed relative to the time they were recorded.
+     *
+     * @param speedMultiplier 1.0 for real time, 10.0 for ten times faster than real time, etc. A value of
+     *                        zero or less, or infinity, replays the records as fast as possible.
+     */
+    public void setSpeedMultiplier(double speedMultiplier)
+    {
+        this.speedMultiplier = speedMultiplier;
+    }
+
+    public double getSpeedMultiplier()
+    {
+        return speedMultiplier;
+    }
+
+    /**
+     * Stops a replay that is in progress after the current batch of records has been notified. Can be
+     * called from any thread.
+     */
+    public void stop()
+    {
+        stopRequested = true;
+    }
+
+    /**
+     * Replays all the records from the source on the calling thread. The source is not closed.
+     *
+     * @param source The records to replay, in the order they were recorded.
+     * @return The statistics of the replay.
+     * @throws IOException          If the source could not be read.
+     * @throws InterruptedException If the thread is interrupted while waiting for the next record time.
+     */
+    public ReplayStats replay(IReplaySource source) throws IOException, InterruptedException
+    {
+        stopRequested = false;
+
+        final ReplayStats stats = new ReplayStats();
+        final List<ReplayRecord> batch = new ArrayList<>();
+        final long startNanos = clock.nanoTime();
+        long firstEpochMillis = Long.MIN_VALUE;
+
+        ReplayRecord record = source.next();
+        while (record != null && !stopRequested)
+        {
+            if (firstEpochMillis == Long.MIN_VALUE) firstEpochMillis = record.getEpochMillis();
+
+            batch.clear();
+            batch.add(record);
+            record = source.next();
+            while (record != null && isSameBatch(batch.get(0), record))
+            {
+                batch.add(record);
+                record = source.next();
+            }
+
+            waitForRecordTime(startNanos, batch.get(0).getEpochMillis() - firstEpochMillis);
+            notifyListeners(batch, stats);
+        }
+
+        stats.wallTimeNanos = clock.nanoTime() - startNanos;
+        return stats;
+    }
+
+    private static boolean isSameBatch(ReplayRecord first, ReplayRecord record)
+    {
+        if (first.getType() != record.getType() || first.getEpochMillis() != record.getEpochMillis()) return false;
+
+        // GNSS records are always notified one at a time
+        if (first.getType() == ReplayRecordType.GNSS) return false;
+
+        if (first.getType().isCellular())
+        {
+            return first.getGroupNumber() == record.getGroupNumber()
+                    && first.getSubscriptionId() == record.getSubscriptionId();
+        }
+
+        return true;
+    }
+
+    /**
+     * Waits until the scaled offset from the start of the replay has passed.
+     */
+    private void waitForRecordTime(long startNanos, long offsetMillis) throws InterruptedException
+    {
+        final double speed = speedMultiplier;
+        if (speed <= 0 || Double.isInfinite(speed) || Double.isNaN(speed)) return;
+
+        final long targetNanos = startNanos + (long) (offsetMillis * 1_000_000L / speed);
+        final long remainingNanos = targetNanos - clock.nanoTime();
+        if (remainingNanos > 0) clock.sleepNanos(remainingNanos);
+    }
+
+    private void notifyListeners(List<ReplayRecord> batch, ReplayStats stats)
+    {
+        final ReplayRecordType type = batch.get(0).getType();
+        stats.recordCounts[type.ordinal()] += batch.size();
+        stats.batchCount++;
+
+        switch (type)
+        {
+            case GSM, CDMA, UMTS, LTE, NR ->
+            {
+                final List<CellularRecordWrapper> cellularRecords = new ArrayList<>(batch.size());
+                for (ReplayRecord record : batch)
+                {
+                    cellularRecords.add(new CellularRecordWrapper(record.getType().getCellularProtocol(),
+                            (GeneratedMessage) record.getRecord(), record.getEpochMillis()));
+                }
+                processor.onCellularRecords(cellularRecords, batch.get(0).getSubscriptionId());
+            }
+            case WIFI_BEACON ->
+            {
+                // The capabilities string is not part of the record, so it can't be replayed
+                final List<WifiRecordWrapper> wifiBeaconRecords = new ArrayList<>(batch.size());
+                for (ReplayRecord record : batch)
+                {
+                    wifiBeaconRecords.add(new WifiRecordWrapper((WifiBeaconRecord) record.getRecord(), "", false, -1,
+                            record.getEpochMillis()));
+                }
+                processor.onWifiBeaconRecords(wifiBeaconRecords);
+            }
+            case BLUETOOTH ->
+            {
+                final List<BluetoothRecord> bluetoothRecords = new ArrayList<>(batch.size());
+                for (ReplayRecord record : batch)
+                {
+                    bluetoothRecords.add((BluetoothRecord) record.getRecord());
+                }
+                processor.onBluetoothRecords(bluetoothRecords);
+            }
+            case GNSS -> processor.onGnssRecord((GnssRecord) batch.get(0).getRecord());
+        }
+    }
+
+    /**
+     * The statistics of a single replay.
+     */
+    public static final class ReplayStats
+    {
+        private final long[] recordCounts = new long[ReplayRecordType.values().length];
+        private long batchCount;
+        private long wallTimeNanos;
+
+        public long getRecordCount(ReplayRecordType type)
+        {
+            return recordCounts[type.ordinal()];
+        }
+
+        public long getTotalRecordCount()
+        {
+            long total = 0;
+            for (long count : recordCounts)
+            {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * @return The number of listener notifications, where each cellular scan, Wi-Fi scan, etc. counts
+         * as one batch.
+         */
+        public long getBatchCount()
+        {
+            return batchCount;
+        }
+
+        public long getWallTimeNanos()
+        {
+            return wallTimeNanos;
+        }
+
+        public double getRecordsPerSecond()
+        {
+            if (wallTimeNanos <= 0) return 0;
+            return getTotalRecordCount() * 1_000_000_000.0 / wallTimeNanos;
+        }
+
+        @Override
+        public String toString()
+        {
+            final StringBuilder builder = new StringBuilder("ReplayStats{");
+            for (ReplayRecordType type : ReplayRecordType.values())
+            {
+                if (recordCounts[type.ordinal()] > 0)
+                {
+                    builder.append(type).append('=').append(recordCounts[type.ordinal()]).append(", ");
+                }
+            }
+            return builder.append("batches=").append(batchCount)
+                    .append(", wallTimeMs=").append(wallTimeNanos / 1_000_000L)
+                    .append(", recordsPerSecond=").append(Math.round(getRecordsPerSecond()))
+                    .append('}').toString();
+        }
+    }
+}
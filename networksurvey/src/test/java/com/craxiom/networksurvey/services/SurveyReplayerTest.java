@@ -0,0 +1,218 @@
+package com.craxiom.networksurvey.services;
+
+import static com.craxiom.networksurvey.replay.SampleSurveyRecords.START_MILLIS;
+import static com.craxiom.networksurvey.replay.SampleSurveyRecords.gnssRecord;
+import static com.craxiom.networksurvey.replay.SampleSurveyRecords.lteRecord;
+import static com.craxiom.networksurvey.replay.SampleSurveyRecords.sampleSurvey;
+import static com.craxiom.networksurvey.replay.SampleSurveyRecords.writeCapture;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.networksurvey.GpsListener;
+import com.craxiom.networksurvey.cellconflict.CellConflictMonitor;
+import com.craxiom.networksurvey.coverage.CoverageRecorder;
+import com.craxiom.networksurvey.data.SsidExclusionManager;
+import com.craxiom.networksurvey.data.SsidMatcher;
+import com.craxiom.networksurvey.listeners.ICellularSurveyRecordListener;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.craxiom.networksurvey.replay.CaptureReplaySource;
+import com.craxiom.networksurvey.replay.InMemoryRecordSink;
+import com.craxiom.networksurvey.replay.ReplayRecordType;
+import com.craxiom.networksurvey.ui.activesurvey.TowerDetectionJavaWrapper;
+import com.google.protobuf.Message;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class SurveyReplayerTest
+{
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private MockedStatic<SystemClock> systemClock;
+    private SurveyRecordProcessor processor;
+
+    @Before
+    public void setUp()
+    {
+        // The preference lookups all fall back to their default values
+        final SharedPreferences preferences = mock(SharedPreferences.class,
+                invocation -> invocation.getArguments().length == 2 ? invocation.getArgument(1) : null);
+        final Context context = mock(Context.class);
+        when(context.getSharedPreferences(anyString(), anyInt())).thenReturn(preferences);
+
+        final SsidExclusionManager ssidExclusionManager = mock(SsidExclusionManager.class);
+        when(ssidExclusionManager.getMatcher()).thenReturn(SsidMatcher.EMPTY);
+
+        processor = new SurveyRecordProcessor(mock(GpsListener.class), "test-device", context, executor,
+                ssidExclusionManager, mock(TowerDetectionJavaWrapper.class), mock(CellConflictMonitor.class),
+                mock(CoverageRecorder.class));
+        systemClock = mockStatic(SystemClock.class);
+    }
+
+    @After
+    public void tearDown()
+    {
+        processor.onDestroy();
+        systemClock.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void replay_notifiesTheRecordsInScanBatches() throws Exception
+    {
+        final InMemoryRecordSink sink = new InMemoryRecordSink();
+        final List<Integer> cellularBatchSizes = new ArrayList<>();
+        final int[] lteRecordCount = {0};
+
+        final SurveyReplayer replayer = new SurveyReplayer(processor);
+        replayer.setSpeedMultiplier(0);
+        replayer.registerListener(sink);
+        replayer.registerListener(new ICellularSurveyRecordListener()
+        {
+            @Override
+            public void onLteSurveyRecord(LteRecord lteRecord)
+            {
+                lteRecordCount[0]++;
+            }
+
+            @Override
+            public void onCellularBatch(List<CellularRecordWrapper> cellularGroup, int subscriptionId)
+            {
+                cellularBatchSizes.add(cellularGroup.size());
+                assertEquals(2, subscriptionId);
+            }
+        });
+
+        final List<Message> records = sampleSurvey();
+        final SurveyReplayer.ReplayStats stats;
+        try (CaptureReplaySource source = new CaptureReplaySource(new ByteArrayInputStream(writeCapture(records))))
+        {
+            stats = replayer.replay(source);
+        }
+
+        assertEquals(records, sink.getRecords());
+        assertEquals(6, lteRecordCount[0]);
+        assertEquals(List.of(3, 3), cellularBatchSizes);
+        assertEquals(6, stats.getRecordCount(ReplayRecordType.LTE));
+        assertEquals(2, stats.getRecordCount(ReplayRecordType.WIFI_BEACON));
+        assertEquals(1, stats.getRecordCount(ReplayRecordType.BLUETOOTH));
+        assertEquals(2, stats.getRecordCount(ReplayRecordType.GNSS));
+        // 2 LTE scans, 1 Wi-Fi scan, 1 Bluetooth record, and 2 GNSS records
+        assertEquals(6, stats.getBatchCount());
+
+        // The processor tracks the serving cell of the replayed scans the same as for a live survey
+        assertEquals(123_456L, (long) processor.getLatestServingCell(2).cellId);
+    }
+
+    @Test
+    public void replay_aListenerFailureDoesNotStopTheReplay() throws Exception
+    {
+        final InMemoryRecordSink sink = new InMemoryRecordSink();
+        final SurveyReplayer replayer = new SurveyReplayer(processor);
+        replayer.setSpeedMultiplier(0);
+        processor.registerGnssSurveyRecordListener(gnssRecord -> {
+            throw new IllegalStateException("Test failure");
+        });
+        replayer.registerListener(sink);
+
+        final List<Message> records = sampleSurvey();
+        try (CaptureReplaySource source = new CaptureReplaySource(new ByteArrayInputStream(writeCapture(records))))
+        {
+            replayer.replay(source);
+        }
+
+        assertEquals(2, sink.getRecordCount(ReplayRecordType.GNSS));
+        assertEquals(records.size(), sink.getTotalRecordCount());
+    }
+
+    @Test
+    public void replay_pacesTheRecordsAtTheSpeedMultiplier() throws Exception
+    {
+        final FakeClock clock = new FakeClock();
+        final List<Long> notifyTimesNanos = new ArrayList<>();
+
+        final SurveyReplayer replayer = new SurveyReplayer(processor, clock);
+        replayer.setSpeedMultiplier(4.0);
+        processor.registerGnssSurveyRecordListener(gnssRecord -> notifyTimesNanos.add(clock.nanos));
+
+        final List<Message> records = List.of(gnssRecord(START_MILLIS), gnssRecord(START_MILLIS + 1_000),
+                gnssRecord(START_MILLIS + 1_000), gnssRecord(START_MILLIS + 10_000));
+        try (CaptureReplaySource source = new CaptureReplaySource(new ByteArrayInputStream(writeCapture(records))))
+        {
+            final SurveyReplayer.ReplayStats stats = replayer.replay(source);
+            assertEquals(2_500_000_000L, stats.getWallTimeNanos());
+        }
+
+        assertEquals(List.of(0L, 250_000_000L, 250_000_000L, 2_500_000_000L), notifyTimesNanos);
+    }
+
+    @Test
+    public void replay_largeCaptureIsDeliveredOnce() throws Exception
+    {
+        final int scanCount = 5_000;
+        final List<Message> records = new ArrayList<>(scanCount * 4);
+        for (int scan = 0; scan < scanCount; scan++)
+        {
+            final long epochMillis = START_MILLIS + scan * 1_000L;
+            for (int cell = 0; cell < 3; cell++)
+            {
+                records.add(lteRecord(epochMillis, scan, cell));
+            }
+            records.add(gnssRecord(epochMillis));
+        }
+
+        final InMemoryRecordSink sink = new InMemoryRecordSink(false);
+        final SurveyReplayer replayer = new SurveyReplayer(processor);
+        replayer.setSpeedMultiplier(Double.POSITIVE_INFINITY);
+        replayer.registerListener(sink);
+
+        final SurveyReplayer.ReplayStats stats;
+        try (CaptureReplaySource source = new CaptureReplaySource(new ByteArrayInputStream(writeCapture(records))))
+        {
+            stats = replayer.replay(source);
+        }
+
+        assertEquals(records.size(), stats.getTotalRecordCount());
+        assertEquals(records.size(), sink.getTotalRecordCount());
+        assertEquals(scanCount * 3L, sink.getRecordCount(ReplayRecordType.LTE));
+        assertEquals(scanCount * 2L, stats.getBatchCount());
+        assertTrue(sink.getRecords().isEmpty());
+    }
+
+    /**
+     * A clock that only moves forward when the replayer sleeps.
+     */
+    private static final class FakeClock implements SurveyReplayer.ReplayClock
+    {
+        private long nanos;
+
+        @Override
+        public long nanoTime()
+        {
+            return nanos;
+        }
+
+        @Override
+        public void sleepNanos(long sleepNanos)
+        {
+            nanos += sleepNanos;
+        }
+    }
+}
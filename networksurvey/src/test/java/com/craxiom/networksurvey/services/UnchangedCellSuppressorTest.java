@@ -0,0 +1,206 @@
+package com.craxiom.networksurvey.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.craxiom.messaging.LteRecord;
+import com.craxiom.messaging.LteRecordData;
+import com.craxiom.messaging.NrRecord;
+import com.craxiom.messaging.NrRecordData;
+import com.craxiom.networksurvey.model.CellularProtocol;
+import com.craxiom.networksurvey.model.CellularRecordWrapper;
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Int64Value;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class UnchangedCellSuppressorTest
+{
+    private static final int HEARTBEAT = 4;
+
+    @Test
+    public void newCell_isEmitted()
+    {
+        final UnchangedCellSuppressor suppressor = new UnchangedCellSuppressor(new UnchangedCellSuppressor.Counters());
+        suppressor.startScan(true, HEARTBEAT);
+
+        assertTrue(suppressor.shouldEmit(lte(100, -90.0f), HEARTBEAT));
+        assertTrue(suppressor.shouldEmit(lte(101, -90.0f), HEARTBEAT));
+        assertEquals(2, suppressor.size());
+    }
+
+    @Test
+    public void unchangedCell_isSuppressedUntilTheHeartbeat()
+    {
+        final UnchangedCellSuppressor suppressor = new UnchangedCellSuppressor(new UnchangedCellSuppressor.Counters());
+
+        final StringBuilder emitted = new StringBuilder();
+        for (int scan = 0; scan < 9; scan++)
+        {
+            suppressor.startScan(true, HEARTBEAT);
+            emitted.append(suppressor.shouldEmit(lte(100, -90.0f), HEARTBEAT) ? 'E' : '-');
+        }
+
+        assertEquals("E---E---E", emitted.toString());
+    }
+
+    @Test
+    public void measurementJitter_belowOneDbIsSuppressed()
+    {
+        final UnchangedCellSuppressor suppressor = new UnchangedCellSuppressor(new UnchangedCellSuppressor.Counters());
+
+        suppressor.startScan(true, HEARTBEAT);
+        assertTrue(suppressor.shouldEmit(lte(100, -90.1f), HEARTBEAT));
+        suppressor.startScan(true, HEARTBEAT);
+        assertFalse(suppressor.shouldEmit(lte(100, -89.7f), HEARTBEAT));
+        suppressor.startScan(true, HEARTBEAT);
+        assertTrue(suppressor.shouldEmit(lte(100, -88.4f), HEARTBEAT));
+    }
+
+    @Test
+    public void servingCellChange_isEmitted()
+    {
+        final UnchangedCellSuppressor suppressor = new UnchangedCellSuppressor(new UnchangedCellSuppressor.Counters());
+
+        suppressor.startScan(true, HEARTBEAT);
+        assertTrue(suppressor.shouldEmit(lte(100, -90.0f, false), HEARTBEAT));
+        suppressor.startScan(true, HEARTBEAT);
+        assertTrue(suppressor.shouldEmit(lte(100, -90.0f, true), HEARTBEAT));
+    }
+
+    @Test
+    public void disabling_clearsTheState()
+    {
+        final UnchangedCellSuppressor suppressor = new UnchangedCellSuppressor(new UnchangedCellSuppressor.Counters());
+
+        suppressor.startScan(true, HEARTBEAT);
+        assertTrue(suppressor.shouldEmit(lte(100, -90.0f), HEARTBEAT));
+        suppressor.startScan(false, HEARTBEAT);
+        assertEquals(0, suppressor.size());
+
+        suppressor.startScan(true, HEARTBEAT);
+        assertTrue(suppressor.shouldEmit(lte(100, -90.0f), HEARTBEAT));
+    }
+
+    @Test
+    public void staleCells_areEvicted()
+    {
+        final UnchangedCellSuppressor suppressor = new UnchangedCellSuppressor(new UnchangedCellSuppressor.Counters());
+
+        suppressor.startScan(true, HEARTBEAT);
+        suppressor.shouldEmit(lte(100, -90.0f), HEARTBEAT);
+        suppressor.shouldEmit(lte(101, -90.0f), HEARTBEAT);
+
+        // Only cell 100 stays in view
+        for (int scan = 0; scan < 2 * HEARTBEAT; scan++)
+        {
+            suppressor.startScan(true, HEARTBEAT);
+            suppressor.shouldEmit(lte(100, -90.0f), HEARTBEAT);
+        }
+
+        assertEquals(1, suppressor.size());
+    }
+
+    @Test
+    public void counters_areTrackedPerTechnology()
+    {
+        final UnchangedCellSuppressor.Counters counters = new UnchangedCellSuppressor.Counters();
+        final UnchangedCellSuppressor sim1 = new UnchangedCellSuppressor(counters);
+        final UnchangedCellSuppressor sim2 = new UnchangedCellSuppressor(counters);
+
+        for (int scan = 0; scan < 3; scan++)
+        {
+            sim1.startScan(true, HEARTBEAT);
+            sim1.shouldEmit(lte(100, -90.0f), HEARTBEAT);
+            sim2.startScan(true, HEARTBEAT);
+            sim2.shouldEmit(nr(5_000_000_000L, -95.0f), HEARTBEAT);
+        }
+
+        assertEquals(1, counters.getEmittedCount(CellularProtocol.LTE));
+        assertEquals(2, counters.getSuppressedCount(CellularProtocol.LTE));
+        assertEquals(1, counters.getEmittedCount(CellularProtocol.NR));
+        assertEquals(2, counters.getSuppressedCount(CellularProtocol.NR));
+        assertEquals(0, counters.getSuppressedCount(CellularProtocol.GSM));
+        assertEquals(4, counters.getTotalSuppressedCount());
+    }
+
+    @Test
+    public void identity_ignoresTheMeasurements()
+    {
+        assertArrayEquals(identity(lte(100, -90.0f)), identity(lte(100, -70.0f)));
+        assertFalse(Arrays.equals(identity(lte(100, -90.0f)), identity(lte(101, -90.0f))));
+        assertFalse(Arrays.equals(identity(nr(5_000_000_000L, -90.0f)), identity(nr(5_000_000_001L, -90.0f))));
+    }
+
+    @Test
+    public void cellsWithTheSameKey_areNotMistakenForEachOther()
+    {
+        // Every cell ends up with the same key, the same as a hash collision between two cells
+        final UnchangedCellSuppressor suppressor = new UnchangedCellSuppressor(new UnchangedCellSuppressor.Counters())
+        {
+            @Override
+            long getIdentityKey(long[] identity, int length)
+            {
+                return 0;
+            }
+        };
+
+        suppressor.startScan(true, HEARTBEAT);
+        assertTrue(suppressor.shouldEmit(lte(100, -90.0f), HEARTBEAT));
+        assertTrue(suppressor.shouldEmit(lte(101, -90.0f), HEARTBEAT));
+        suppressor.startScan(true, HEARTBEAT);
+        assertTrue(suppressor.shouldEmit(lte(100, -90.0f), HEARTBEAT));
+        assertFalse(suppressor.shouldEmit(lte(100, -90.0f), HEARTBEAT));
+    }
+
+    private static long[] identity(CellularRecordWrapper record)
+    {
+        final long[] fields = new long[16];
+        return Arrays.copyOf(fields, UnchangedCellSuppressor.getIdentity(record, fields));
+    }
+
+    private static CellularRecordWrapper lte(int eci, float rsrp)
+    {
+        return lte(eci, rsrp, false);
+    }
+
+    private static CellularRecordWrapper lte(int eci, float rsrp, boolean servingCell)
+    {
+        final LteRecord record = LteRecord.newBuilder()
+                .setData(LteRecordData.newBuilder()
+                        .setMcc(Int32Value.of(311))
+                        .setMnc(Int32Value.of(480))
+                        .setTac(Int32Value.of(1000))
+                        .setEci(Int32Value.of(eci))
+                        .setEarfcn(Int32Value.of(5230))
+                        .setPci(Int32Value.of(eci % 504))
+                        .setRsrp(FloatValue.of(rsrp))
+                        .setRsrq(FloatValue.of(-10.0f))
+                        .setServingCell(BoolValue.of(servingCell))
+                        .build())
+                .build();
+        return new CellularRecordWrapper(CellularProtocol.LTE, record);
+    }
+
+    private static CellularRecordWrapper nr(long nci, float ssRsrp)
+    {
+        final NrRecord record = NrRecord.newBuilder()
+                .setData(NrRecordData.newBuilder()
+                        .setMcc(Int32Value.of(311))
+                        .setMnc(Int32Value.of(480))
+                        .setTac(Int32Value.of(2000))
+                        .setNci(Int64Value.of(nci))
+                        .setNarfcn(Int32Value.of(520110))
+                        .setPci(Int32Value.of(17))
+                        .setSsRsrp(FloatValue.of(ssRsrp))
+                        .build())
+                .build();
+        return new CellularRecordWrapper(CellularProtocol.NR, record);
+    }
+}
@@ -0,0 +1,126 @@
+package com.craxiom.networksurvey.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.net.wifi.ScanResult;
+
+import com.craxiom.messaging.WifiBeaconRecordData;
+import com.craxiom.messaging.wifi.EncryptionType;
+import com.craxiom.messaging.wifi.Standard;
+import com.craxiom.messaging.wifi.WifiBandwidth;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WifiStaticFieldsCacheTest
+{
+    private static final String BSSID = "AA:BB:CC:DD:EE:FF";
+    private static final String CAPABILITIES = "[WPA2-PSK-CCMP][RSN-PSK-CCMP][ESS][WPS]";
+
+    private WifiStaticFieldsCache cache;
+
+    @Before
+    public void setUp()
+    {
+        cache = new WifiStaticFieldsCache();
+    }
+
+    @Test
+    public void get_buildsStaticFields()
+    {
+        WifiStaticFieldsCache.StaticFields fields = cache.get(BSSID, "Home", CAPABILITIES, 5180,
+                ScanResult.CHANNEL_WIDTH_80MHZ, ScanResult.WIFI_STANDARD_11AC, false);
+
+        WifiBeaconRecordData template = fields.template;
+        assertEquals(BSSID, template.getBssid());
+        assertEquals("Home", template.getSsid());
+        assertEquals(36, template.getChannel().getValue());
+        assertEquals(5180, template.getFrequencyMhz().getValue());
+        assertEquals(EncryptionType.WPA2, template.getEncryptionType());
+        assertTrue(template.getWps().getValue());
+        assertFalse(template.hasPasspoint());
+        assertEquals(Standard.IEEE80211AC, template.getStandard());
+        assertEquals(WifiBandwidth.MHZ_80, template.getBandwidth());
+        assertEquals(42, fields.centerChannel);
+
+        // The dynamic fields are left for the caller to fill in
+        assertFalse(template.hasSignalStrength());
+        assertEquals("", template.getDeviceTime());
+    }
+
+    @Test
+    public void get_unchangedAp_reusesEntry()
+    {
+        WifiStaticFieldsCache.StaticFields first = cache.get(BSSID, "Home", CAPABILITIES, 2412,
+                ScanResult.CHANNEL_WIDTH_20MHZ, ScanResult.WIFI_STANDARD_11N, false);
+        // A new but equal string, like the one a new scan result would have
+        WifiStaticFieldsCache.StaticFields second = cache.get(BSSID, "Home", new String(CAPABILITIES), 2412,
+                ScanResult.CHANNEL_WIDTH_20MHZ, ScanResult.WIFI_STANDARD_11N, false);
+
+        assertSame(first, second);
+        assertSame(first.capabilities, second.capabilities);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void get_changedCapabilities_rebuildsEntry()
+    {
+        WifiStaticFieldsCache.StaticFields first = cache.get(BSSID, "Home", CAPABILITIES, 2412,
+                ScanResult.CHANNEL_WIDTH_20MHZ, ScanResult.WIFI_STANDARD_11N, false);
+        WifiStaticFieldsCache.StaticFields second = cache.get(BSSID, "Home", "[WEP][ESS]", 2412,
+                ScanResult.CHANNEL_WIDTH_20MHZ, ScanResult.WIFI_STANDARD_11N, false);
+
+        assertNotSame(first, second);
+        assertEquals(EncryptionType.WEP, second.template.getEncryptionType());
+        assertFalse(second.template.getWps().getValue());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void get_changedChannelOrSsid_rebuildsEntry()
+    {
+        WifiStaticFieldsCache.StaticFields first = cache.get(BSSID, "Home", CAPABILITIES, 2412,
+                ScanResult.CHANNEL_WIDTH_20MHZ, ScanResult.WIFI_STANDARD_11N, false);
+        WifiStaticFieldsCache.StaticFields moved = cache.get(BSSID, "Home", CAPABILITIES, 2437,
+                ScanResult.CHANNEL_WIDTH_20MHZ, ScanResult.WIFI_STANDARD_11N, false);
+        WifiStaticFieldsCache.StaticFields renamed = cache.get(BSSID, "Home2", CAPABILITIES, 2437,
+                ScanResult.CHANNEL_WIDTH_20MHZ, ScanResult.WIFI_STANDARD_11N, false);
+
+        assertNotSame(first, moved);
+        assertEquals(6, moved.template.getChannel().getValue());
+        assertNotSame(moved, renamed);
+        assertEquals("Home2", renamed.template.getSsid());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void get_nullSsidAndCapabilities_leavesFieldsUnset()
+    {
+        WifiStaticFieldsCache.StaticFields fields = cache.get(BSSID, null, null, 2412,
+                ScanResult.CHANNEL_WIDTH_20MHZ, ScanResult.WIFI_STANDARD_UNKNOWN, true);
+
+        assertEquals("", fields.template.getSsid());
+        assertFalse(fields.template.hasWps());
+        assertTrue(fields.template.getPasspoint().getValue());
+        assertEquals(Standard.UNKNOWN, fields.template.getStandard());
+        assertSame(fields, cache.get(BSSID, null, null, 2412,
+                ScanResult.CHANNEL_WIDTH_20MHZ, ScanResult.WIFI_STANDARD_UNKNOWN, true));
+    }
+
+    @Test
+    public void get_isBounded()
+    {
+        for (int i = 0; i < WifiStaticFieldsCache.MAX_ENTRIES + 100; i++)
+        {
+            cache.get("BSSID-" + i, "Net", CAPABILITIES, 2412, ScanResult.CHANNEL_WIDTH_20MHZ,
+                    ScanResult.WIFI_STANDARD_11N, false);
+        }
+
+        assertEquals(WifiStaticFieldsCache.MAX_ENTRIES, cache.size());
+    }
+}
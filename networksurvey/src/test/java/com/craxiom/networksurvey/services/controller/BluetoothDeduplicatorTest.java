@@ -0,0 +1,142 @@
+package com.craxiom.networksurvey.services.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BluetoothDeduplicatorTest
+{
+    private static final long WINDOW_MS = 30_000;
+    private static final int RSSI_THRESHOLD = 10;
+    private static final String MAC = "AA:BB:CC:DD:EE:FF";
+
+    private BluetoothDeduplicator deduplicator;
+
+    @Before
+    public void setUp()
+    {
+        deduplicator = new BluetoothDeduplicator(WINDOW_MS, RSSI_THRESHOLD);
+    }
+
+    @Test
+    public void macToLong_parsesAddress()
+    {
+        assertEquals(0xAABBCCDDEEFFL, BluetoothDeduplicator.macToLong(MAC));
+        assertEquals(0x0123456789ABL, BluetoothDeduplicator.macToLong("01-23-45-67-89-ab"));
+    }
+
+    @Test
+    public void macToLong_invalidAddress_returnsNegative()
+    {
+        assertEquals(-1L, BluetoothDeduplicator.macToLong(null));
+        assertEquals(-1L, BluetoothDeduplicator.macToLong("AA:BB:CC:DD:EE"));
+        assertEquals(-1L, BluetoothDeduplicator.macToLong("AA:BB:CC:DD:EE:GG"));
+        assertEquals(-1L, BluetoothDeduplicator.macToLong("AA.BB.CC.DD.EE.FF"));
+    }
+
+    @Test
+    public void shouldLog_newDevice_isLogged()
+    {
+        assertTrue(deduplicator.shouldLog(MAC, -60, 1000));
+        assertEquals(1, deduplicator.size());
+        assertEquals(1, deduplicator.getLoggedCount());
+    }
+
+    @Test
+    public void shouldLog_duplicateWithinWindow_isDropped()
+    {
+        assertTrue(deduplicator.shouldLog(MAC, -60, 1000));
+        assertFalse(deduplicator.shouldLog(MAC, -65, 2000));
+        assertFalse(deduplicator.shouldLog(MAC, -50, 1000 + WINDOW_MS));
+
+        assertEquals(1, deduplicator.getLoggedCount());
+        assertEquals(2, deduplicator.getDroppedCount());
+    }
+
+    @Test
+    public void shouldLog_afterWindow_isLogged()
+    {
+        assertTrue(deduplicator.shouldLog(MAC, -60, 1000));
+        assertTrue(deduplicator.shouldLog(MAC, -60, 1001 + WINDOW_MS));
+    }
+
+    @Test
+    public void shouldLog_largeRssiChange_isLogged()
+    {
+        assertTrue(deduplicator.shouldLog(MAC, -60, 1000));
+        assertFalse(deduplicator.shouldLog(MAC, -70, 2000));
+        assertTrue(deduplicator.shouldLog(MAC, -71, 3000));
+
+        // The RSSI is compared to the last logged value, not the last seen one
+        assertFalse(deduplicator.shouldLog(MAC, -62, 4000));
+    }
+
+    @Test
+    public void shouldLog_expiresOldDevicesWithoutLosingRecentOnes()
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            assertTrue(deduplicator.shouldLog(i, -60, 1000));
+        }
+        assertTrue(deduplicator.shouldLog(5000, -60, 1000 + WINDOW_MS / 2));
+        assertEquals(1001, deduplicator.size());
+
+        // Walk the clock forward so the wheel passes the first batch but not the last device
+        for (long time = 1000 + WINDOW_MS / 2; time <= 1000 + WINDOW_MS + 5000; time += 500)
+        {
+            deduplicator.shouldLog(5000, -60, time);
+        }
+
+        assertEquals(1, deduplicator.size());
+        assertEquals(1000, deduplicator.getExpiredCount());
+        assertFalse(deduplicator.shouldLog(5000, -60, 1000 + WINDOW_MS + 5000));
+    }
+
+    @Test
+    public void shouldLog_largeTimeJump_expiresEverything()
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            deduplicator.shouldLog(i, -60, 1000);
+        }
+
+        assertTrue(deduplicator.shouldLog(3, -60, 1000 + WINDOW_MS * 10));
+        assertEquals(1, deduplicator.size());
+        assertEquals(10, deduplicator.getExpiredCount());
+    }
+
+    @Test
+    public void shouldLog_matchesNaiveMapAcrossManyDevices()
+    {
+        final java.util.Map<Long, long[]> naive = new java.util.HashMap<>();
+        final java.util.Random random = new java.util.Random(42);
+
+        long time = 0;
+        for (int i = 0; i < 50_000; i++)
+        {
+            time += random.nextInt(50);
+            final long mac = random.nextInt(3000);
+            final int rssi = -40 - random.nextInt(60);
+
+            final long[] last = naive.get(mac);
+            final boolean expected = last == null || time - last[0] > WINDOW_MS || Math.abs(rssi - last[1]) > RSSI_THRESHOLD;
+            if (expected) naive.put(mac, new long[]{time, rssi});
+
+            assertEquals("Mismatch at sighting " + i, expected, deduplicator.shouldLog(mac, rssi, time));
+        }
+    }
+
+    @Test
+    public void configure_clearsTrackedDevices()
+    {
+        assertTrue(deduplicator.shouldLog(MAC, -60, 1000));
+        deduplicator.configure(5000, 3);
+
+        assertEquals(0, deduplicator.size());
+        assertTrue(deduplicator.shouldLog(MAC, -60, 2000));
+        assertTrue(deduplicator.shouldLog(MAC, -64, 3000));
+    }
+}
@@ -0,0 +1,138 @@
+package com.craxiom.networksurvey.towerlocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a drive around a tower with a known location, on a street grid, with the signal from a log-distance path
+ * loss model plus shadowing that is correlated along the drive (as it is in real surveys) and fast fading. The LTE
+ * timing advance includes the extra delay of multipath.
+ */
+final class SyntheticDriveTrace
+{
+    static final double ORIGIN_LATITUDE = 35.7796;
+    static final double ORIGIN_LONGITUDE = -78.6382;
+
+    private static final double METERS_PER_DEGREE_LATITUDE = TowerLocationEstimator.EARTH_RADIUS_METERS * Math.PI / 180d;
+    private static final double METERS_PER_DEGREE_LONGITUDE =
+            METERS_PER_DEGREE_LATITUDE * Math.cos(Math.toRadians(ORIGIN_LATITUDE));
+
+    private static final double BLOCK_METERS = 250;
+    private static final int GRID_BLOCKS = 12;
+    private static final double SAMPLE_SPACING_METERS = 10;
+    private static final double REFERENCE_POWER_DBM = -10;
+    private static final double PATH_LOSS_EXPONENT = 3.2;
+    private static final double SHADOWING_SIGMA_DB = 6;
+    private static final double SHADOWING_DECORRELATION_METERS = 50;
+    private static final double FADING_SIGMA_DB = 3;
+    // The timing advance is measured to the first path to arrive, which is delayed when the direct path is blocked
+    private static final double MULTIPATH_MEAN_METERS = 40;
+
+    static final class Sample
+    {
+        final double latitude;
+        final double longitude;
+        final float signalDbm;
+        final int lteTimingAdvance;
+
+        Sample(double latitude, double longitude, float signalDbm, int lteTimingAdvance)
+        {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.signalDbm = signalDbm;
+            this.lteTimingAdvance = lteTimingAdvance;
+        }
+    }
+
+    final double towerLatitude;
+    final double towerLongitude;
+    final List<Sample> samples = new ArrayList<>();
+
+    private final double towerX;
+    private final double towerY;
+
+    /**
+     * A random drive of the provided number of blocks on the street grid, with the tower somewhere inside the grid
+     * (but not on a street).
+     */
+    static SyntheticDriveTrace randomDrive(long seed, int blocks)
+    {
+        final Random random = new Random(seed);
+        final double towerX = (3 + random.nextInt(GRID_BLOCKS - 6) + 0.2 + 0.6 * random.nextDouble()) * BLOCK_METERS;
+        final double towerY = (3 + random.nextInt(GRID_BLOCKS - 6) + 0.2 + 0.6 * random.nextDouble()) * BLOCK_METERS;
+        final SyntheticDriveTrace trace = new SyntheticDriveTrace(towerX, towerY);
+
+        int column = GRID_BLOCKS / 2;
+        int row = GRID_BLOCKS / 2;
+        double shadowing = random.nextGaussian() * SHADOWING_SIGMA_DB;
+        for (int i = 0; i < blocks; i++)
+        {
+            int nextColumn;
+            int nextRow;
+            do
+            {
+                final int direction = random.nextInt(4);
+                nextColumn = column + (direction == 0 ? 1 : direction == 1 ? -1 : 0);
+                nextRow = row + (direction == 2 ? 1 : direction == 3 ? -1 : 0);
+            } while (nextColumn < 0 || nextColumn > GRID_BLOCKS || nextRow < 0 || nextRow > GRID_BLOCKS);
+
+            shadowing = trace.driveBlock(random, column * BLOCK_METERS, row * BLOCK_METERS,
+                    nextColumn * BLOCK_METERS, nextRow * BLOCK_METERS, shadowing);
+            column = nextColumn;
+            row = nextRow;
+        }
+        return trace;
+    }
+
+    /**
+     * A drive along one straight road that passes the tower at the provided distance.
+     */
+    static SyntheticDriveTrace straightRoad(long seed, double offsetMeters)
+    {
+        final Random random = new Random(seed);
+        final SyntheticDriveTrace trace = new SyntheticDriveTrace(1_500, offsetMeters);
+        trace.driveBlock(random, 0, 0, 3_000, 0, random.nextGaussian() * SHADOWING_SIGMA_DB);
+        return trace;
+    }
+
+    private SyntheticDriveTrace(double towerX, double towerY)
+    {
+        this.towerX = towerX;
+        this.towerY = towerY;
+        towerLatitude = ORIGIN_LATITUDE + towerY / METERS_PER_DEGREE_LATITUDE;
+        towerLongitude = ORIGIN_LONGITUDE + towerX / METERS_PER_DEGREE_LONGITUDE;
+    }
+
+    private double driveBlock(Random random, double fromX, double fromY, double toX, double toY, double shadowing)
+    {
+        final double correlation = Math.exp(-SAMPLE_SPACING_METERS / SHADOWING_DECORRELATION_METERS);
+        final int steps = (int) Math.round(Math.hypot(toX - fromX, toY - fromY) / SAMPLE_SPACING_METERS);
+        for (int step = 0; step < steps; step++)
+        {
+            final double x = fromX + (toX - fromX) * step / steps;
+            final double y = fromY + (toY - fromY) * step / steps;
+            shadowing = correlation * shadowing
+                    + Math.sqrt(1 - correlation * correlation) * SHADOWING_SIGMA_DB * random.nextGaussian();
+
+            final double distance = Math.max(1, Math.hypot(x - towerX, y - towerY));
+            final double signal = REFERENCE_POWER_DBM - 10 * PATH_LOSS_EXPONENT * Math.log10(distance)
+                    + shadowing + FADING_SIGMA_DB * random.nextGaussian();
+            samples.add(new Sample(ORIGIN_LATITUDE + y / METERS_PER_DEGREE_LATITUDE,
+                    ORIGIN_LONGITUDE + x / METERS_PER_DEGREE_LONGITUDE, (float) signal,
+                    (int) Math.floor((distance - MULTIPATH_MEAN_METERS * Math.log(1 - random.nextDouble()))
+                            / TowerLocationEstimator.LTE_TIMING_ADVANCE_METERS)));
+        }
+        return shadowing;
+    }
+
+    /**
+     * @return The distance in meters from the tower to the provided location.
+     */
+    double errorMeters(TowerLocationEstimate estimate)
+    {
+        final double x = (estimate.longitude - ORIGIN_LONGITUDE) * METERS_PER_DEGREE_LONGITUDE;
+        final double y = (estimate.latitude - ORIGIN_LATITUDE) * METERS_PER_DEGREE_LATITUDE;
+        return Math.hypot(x - towerX, y - towerY);
+    }
+}
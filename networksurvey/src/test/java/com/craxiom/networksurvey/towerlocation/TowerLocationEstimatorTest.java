@@ -0,0 +1,248 @@
+package com.craxiom.networksurvey.towerlocation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.craxiom.networksurvey.model.CellularProtocol;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class TowerLocationEstimatorTest
+{
+    private static final int DRIVE_COUNT = 20;
+
+    private static TowerKey lteKey(long cellId)
+    {
+        return new TowerKey(CellularProtocol.LTE, 310, 260, 12_345, cellId);
+    }
+
+    private static TowerLocationEstimate estimate(SyntheticDriveTrace trace, boolean useTimingAdvance)
+    {
+        final TowerLocationEstimator estimator = new TowerLocationEstimator();
+        final TowerKey key = lteKey(1);
+        for (SyntheticDriveTrace.Sample sample : trace.samples)
+        {
+            estimator.addMeasurement(key, sample.latitude, sample.longitude, sample.signalDbm,
+                    useTimingAdvance ? sample.lteTimingAdvance : null);
+        }
+        return estimator.getEstimate(key);
+    }
+
+    private static double median(double[] values)
+    {
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static TowerLocationEstimate weightedCentroid(SyntheticDriveTrace trace)
+    {
+        double weightSum = 0;
+        double latitudeSum = 0;
+        double longitudeSum = 0;
+        for (SyntheticDriveTrace.Sample sample : trace.samples)
+        {
+            final double weight = Math.pow(10d, sample.signalDbm / 10d);
+            weightSum += weight;
+            latitudeSum += weight * sample.latitude;
+            longitudeSum += weight * sample.longitude;
+        }
+        return new TowerLocationEstimate(latitudeSum / weightSum, longitudeSum / weightSum, 0,
+                TowerLocationEstimate.Method.WEIGHTED_CENTROID, trace.samples.size(), Double.NaN);
+    }
+
+    @Test
+    public void testPathLossFitOnLongDrives()
+    {
+        final double[] errors = new double[DRIVE_COUNT];
+        final double[] centroidErrors = new double[DRIVE_COUNT];
+        int pathLossCount = 0;
+        int withinUncertainty = 0;
+        for (int seed = 0; seed < DRIVE_COUNT; seed++)
+        {
+            final SyntheticDriveTrace trace = SyntheticDriveTrace.randomDrive(seed, 150);
+            final TowerLocationEstimate estimate = estimate(trace, false);
+            assertNotNull(estimate);
+            assertEquals(trace.samples.size(), estimate.sampleCount);
+
+            errors[seed] = trace.errorMeters(estimate);
+            if (errors[seed] <= estimate.uncertaintyMeters) withinUncertainty++;
+            if (estimate.method == TowerLocationEstimate.Method.PATH_LOSS) pathLossCount++;
+
+            centroidErrors[seed] = trace.errorMeters(weightedCentroid(trace));
+        }
+
+        assertTrue("Path loss fits: " + pathLossCount, pathLossCount >= DRIVE_COUNT * 3 / 4);
+        assertTrue("Median error: " + median(errors), median(errors) < 100);
+        assertTrue("Median centroid error: " + median(centroidErrors), median(errors) < median(centroidErrors) / 2);
+        assertTrue("Within uncertainty: " + withinUncertainty, withinUncertainty >= DRIVE_COUNT * 7 / 10);
+    }
+
+    @Test
+    public void testTimingAdvanceOnShortDrives()
+    {
+        final double[] errors = new double[DRIVE_COUNT];
+        final double[] signalOnlyErrors = new double[DRIVE_COUNT];
+        int withinUncertainty = 0;
+        for (int seed = 0; seed < DRIVE_COUNT; seed++)
+        {
+            final SyntheticDriveTrace trace = SyntheticDriveTrace.randomDrive(seed, 40);
+            final TowerLocationEstimate estimate = estimate(trace, true);
+            assertEquals(TowerLocationEstimate.Method.PATH_LOSS, estimate.method);
+
+            errors[seed] = trace.errorMeters(estimate);
+            if (errors[seed] <= estimate.uncertaintyMeters) withinUncertainty++;
+            signalOnlyErrors[seed] = trace.errorMeters(estimate(trace, false));
+        }
+
+        assertTrue("Median error: " + median(errors), median(errors) < 75);
+        assertTrue("Median signal only error: " + median(signalOnlyErrors),
+                median(errors) < median(signalOnlyErrors) / 4);
+        assertTrue("Within uncertainty: " + withinUncertainty, withinUncertainty >= DRIVE_COUNT * 9 / 10);
+    }
+
+    @Test
+    public void testStraightRoadIsUncertain()
+    {
+        // From one straight road the tower could be on either side of it, so the estimate must not claim to know which
+        for (int seed = 0; seed < 5; seed++)
+        {
+            final SyntheticDriveTrace trace = SyntheticDriveTrace.straightRoad(seed, 400);
+            final TowerLocationEstimate estimate = estimate(trace, false);
+            final double error = trace.errorMeters(estimate);
+            assertTrue("Error " + error + " uncertainty " + estimate.uncertaintyMeters,
+                    error <= estimate.uncertaintyMeters);
+        }
+    }
+
+    @Test
+    public void testBinsAreBounded()
+    {
+        final SyntheticDriveTrace trace = SyntheticDriveTrace.randomDrive(7, 600);
+        final TowerObservations observations = new TowerObservations(SyntheticDriveTrace.ORIGIN_LATITUDE,
+                SyntheticDriveTrace.ORIGIN_LONGITUDE, TowerLocationEstimator.LTE_TIMING_ADVANCE_METERS);
+        for (SyntheticDriveTrace.Sample sample : trace.samples)
+        {
+            observations.add(sample.latitude, sample.longitude, sample.signalDbm, Double.NaN);
+            assertTrue(observations.getBinCount() <= TowerObservations.MAX_BINS);
+        }
+
+        assertEquals(trace.samples.size(), observations.getSampleCount());
+        int binnedSamples = 0;
+        for (TowerObservations.Bin bin : observations.getBins())
+        {
+            binnedSamples += bin.count;
+        }
+        assertEquals(trace.samples.size(), binnedSamples);
+        assertTrue(trace.errorMeters(observations.getEstimate()) < 150);
+    }
+
+    @Test
+    public void testEstimateOnlyRecomputedAfterNewMeasurements()
+    {
+        final TowerLocationEstimator estimator = new TowerLocationEstimator();
+        final TowerKey key = lteKey(1);
+        final SyntheticDriveTrace trace = SyntheticDriveTrace.randomDrive(3, 20);
+        for (SyntheticDriveTrace.Sample sample : trace.samples)
+        {
+            estimator.addMeasurement(key, sample.latitude, sample.longitude, sample.signalDbm, sample.lteTimingAdvance);
+        }
+
+        final TowerLocationEstimate first = estimator.getEstimate(key);
+        assertSame(first, estimator.getEstimate(key));
+
+        final SyntheticDriveTrace.Sample last = trace.samples.get(trace.samples.size() - 1);
+        estimator.addMeasurement(key, last.latitude, last.longitude, last.signalDbm, last.lteTimingAdvance);
+        final TowerLocationEstimate second = estimator.getEstimate(key);
+        assertTrue(first != second);
+        assertEquals(first.sampleCount + 1, second.sampleCount);
+    }
+
+    @Test
+    public void testSnapshotIsNotChangedByLaterMeasurements()
+    {
+        final SyntheticDriveTrace trace = SyntheticDriveTrace.randomDrive(5, 40);
+        final TowerObservations observations = new TowerObservations(SyntheticDriveTrace.ORIGIN_LATITUDE,
+                SyntheticDriveTrace.ORIGIN_LONGITUDE, TowerLocationEstimator.LTE_TIMING_ADVANCE_METERS);
+        final int half = trace.samples.size() / 2;
+        for (SyntheticDriveTrace.Sample sample : trace.samples.subList(0, half))
+        {
+            observations.add(sample.latitude, sample.longitude, sample.signalDbm, Double.NaN);
+        }
+
+        final TowerObservations.Snapshot older = observations.snapshot();
+        for (SyntheticDriveTrace.Sample sample : trace.samples.subList(half, trace.samples.size()))
+        {
+            observations.add(sample.latitude, sample.longitude, sample.signalDbm, Double.NaN);
+        }
+        final TowerObservations.Snapshot newer = observations.snapshot();
+
+        assertEquals(half, older.fit().sampleCount);
+        assertEquals(trace.samples.size(), newer.fit().sampleCount);
+
+        // A fit that finishes after a fit of newer measurements is not kept
+        observations.update(newer);
+        observations.update(older);
+        assertEquals(trace.samples.size(), observations.getCurrentEstimate().sampleCount);
+    }
+
+    @Test
+    public void testInvalidMeasurementsIgnored()
+    {
+        final TowerLocationEstimator estimator = new TowerLocationEstimator();
+        final TowerKey key = lteKey(1);
+        estimator.addMeasurement(key, 35.78, -78.64, Float.NaN, null);
+        estimator.addMeasurement(key, 0, 0, -80f, null);
+        assertNull(estimator.getEstimate(key));
+        assertEquals(0, estimator.getCellCount());
+
+        estimator.addMeasurement(key, 35.78, -78.64, -80f, null);
+        final TowerLocationEstimate estimate = estimator.getEstimate(key);
+        assertEquals(TowerLocationEstimate.Method.WEIGHTED_CENTROID, estimate.method);
+        assertEquals(35.78, estimate.latitude, 1e-9);
+        assertEquals(-78.64, estimate.longitude, 1e-9);
+        assertEquals(TowerLocationEstimator.MIN_UNCERTAINTY_METERS, estimate.uncertaintyMeters, 1e-9);
+    }
+
+    @Test
+    public void testLeastRecentlyMeasuredCellEvicted()
+    {
+        final TowerLocationEstimator estimator = new TowerLocationEstimator();
+        for (int cellId = 0; cellId <= TowerLocationEstimator.MAX_CELLS; cellId++)
+        {
+            estimator.addMeasurement(lteKey(cellId), 35.78, -78.64, -80f, null);
+            // Keeps the first cell recently used so the second one is evicted instead
+            if (cellId == 1) estimator.addMeasurement(lteKey(0), 35.78, -78.64, -80f, null);
+        }
+
+        assertEquals(TowerLocationEstimator.MAX_CELLS, estimator.getCellCount());
+        assertNotNull(estimator.getEstimate(lteKey(0)));
+        assertNull(estimator.getEstimate(lteKey(1)));
+        assertNotNull(estimator.getEstimate(lteKey(TowerLocationEstimator.MAX_CELLS)));
+
+        estimator.clear();
+        assertEquals(0, estimator.getCellCount());
+    }
+
+    @Test
+    public void testTimingAdvanceToRange()
+    {
+        assertEquals(0.5 * TowerLocationEstimator.LTE_TIMING_ADVANCE_METERS,
+                TowerLocationEstimator.toRangeMeters(CellularProtocol.LTE, 0), 1e-9);
+        assertEquals(10.5 * TowerLocationEstimator.GSM_TIMING_ADVANCE_METERS,
+                TowerLocationEstimator.toRangeMeters(CellularProtocol.GSM, 10), 1e-9);
+        assertEquals(3 * TowerLocationEstimator.NR_TIMING_ADVANCE_METERS_PER_MICROSECOND,
+                TowerLocationEstimator.toRangeMeters(CellularProtocol.NR, 3), 1e-9);
+
+        assertTrue(Double.isNaN(TowerLocationEstimator.toRangeMeters(CellularProtocol.LTE, null)));
+        assertTrue(Double.isNaN(TowerLocationEstimator.toRangeMeters(CellularProtocol.LTE, -1)));
+        assertTrue(Double.isNaN(TowerLocationEstimator.toRangeMeters(CellularProtocol.LTE, 1283)));
+        assertTrue(Double.isNaN(TowerLocationEstimator.toRangeMeters(CellularProtocol.GSM, 220)));
+        assertTrue(Double.isNaN(TowerLocationEstimator.toRangeMeters(CellularProtocol.UMTS, 5)));
+    }
+}
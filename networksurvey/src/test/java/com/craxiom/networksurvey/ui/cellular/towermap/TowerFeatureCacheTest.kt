@@ -0,0 +1,150 @@
+package com.craxiom.networksurvey.ui.cellular.towermap
+
+import com.craxiom.networksurvey.data.api.Tower
+import com.craxiom.networksurvey.ui.cellular.model.TowerWrapper
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Unit tests for TowerFeatureCache.
+ */
+class TowerFeatureCacheTest {
+
+    private fun tower(cid: Long, samples: Int = 10): TowerWrapper {
+        return TowerWrapper(
+            Tower(
+                lat = 35.0 + cid * 0.0001,
+                lon = -80.0 - cid * 0.0001,
+                mcc = 311,
+                mnc = 480,
+                area = 1234,
+                cid = cid,
+                unit = (cid % 504).toInt(),
+                averageSignal = -95,
+                range = 1000,
+                samples = samples,
+                changeable = 1,
+                createdAt = 1_700_000_000L,
+                updatedAt = 1_700_000_000L,
+                radio = "LTE",
+                source = "OpenCelliD"
+            )
+        )
+    }
+
+    private fun towers(fromCid: Long, count: Int): List<TowerWrapper> {
+        return (fromCid until fromCid + count).map { tower(it) }
+    }
+
+    @Test
+    fun `update_viewportShiftOf5000Towers_onlyBuildsTheNewTowers`() {
+        val cache = TowerFeatureCache()
+        val initial = towers(0, 5_000)
+
+        val initialFeatures = cache.update(initial, emptySet())
+        assertNotNull(initialFeatures)
+        assertEquals(5_000, initialFeatures!!.size)
+        assertEquals(5_000L, cache.featuresBuilt)
+
+        // Pan the map: the oldest 1,000 towers are evicted and 1,000 new ones are fetched
+        val shifted = towers(1_000, 5_000)
+        val shiftedFeatures = cache.update(shifted, emptySet())
+
+        assertNotNull(shiftedFeatures)
+        assertEquals(5_000, shiftedFeatures!!.size)
+        assertEquals("Only the new towers should be built", 6_000L, cache.featuresBuilt)
+
+        // The towers that stayed on the map keep their features
+        assertSame(initialFeatures[1_000], shiftedFeatures[0])
+        assertEquals(
+            shifted.last().towerId,
+            shiftedFeatures.last().getStringProperty(TOWER_ID_PROPERTY)
+        )
+    }
+
+    @Test
+    fun `update_servingCellChange_onlyRebuildsTheAffectedTowers`() {
+        val cache = TowerFeatureCache()
+        val list = towers(0, 5_000)
+        cache.update(list, setOf(list[10].towerId))
+
+        val features = cache.update(list, setOf(list[20].towerId))
+
+        assertNotNull(features)
+        assertEquals(5_002L, cache.featuresBuilt)
+        assertFalse(features!![10].getBooleanProperty(SERVING_PROPERTY))
+        assertTrue(features[20].getBooleanProperty(SERVING_PROPERTY))
+        assertFalse(features[30].getBooleanProperty(SERVING_PROPERTY))
+    }
+
+    @Test
+    fun `update_nothingChanged_returnsNull`() {
+        val cache = TowerFeatureCache()
+        val list = towers(0, 100)
+        val servingIds = setOf(list[5].towerId)
+        cache.update(list, servingIds)
+
+        assertNull(cache.update(list, servingIds))
+        assertNull(cache.update(ArrayList(list), HashSet(servingIds)))
+        assertEquals(100L, cache.featuresBuilt)
+    }
+
+    @Test
+    fun `update_towerRemoved_returnsTheRemainingFeatures`() {
+        val cache = TowerFeatureCache()
+        val list = towers(0, 100)
+        cache.update(list, emptySet())
+
+        val features = cache.update(list.drop(1), emptySet())
+
+        assertNotNull(features)
+        assertEquals(99, features!!.size)
+        assertEquals(100L, cache.featuresBuilt)
+    }
+
+    @Test
+    fun `update_towerDataChanged_rebuildsThatTower`() {
+        val cache = TowerFeatureCache()
+        val list = towers(0, 10)
+        cache.update(list, emptySet())
+
+        val updated = list.toMutableList()
+        updated[3] = tower(3, samples = 99)
+        val features = cache.update(updated, emptySet())
+
+        assertNotNull(features)
+        assertEquals(11L, cache.featuresBuilt)
+        assertEquals(99, features!![3].getNumberProperty("samples").toInt())
+    }
+
+    @Test
+    fun `update_featuresKeepTheTowerProperties`() {
+        val cache = TowerFeatureCache()
+        val wrapper = tower(42)
+
+        val feature = cache.update(listOf(wrapper), setOf(wrapper.towerId))!![0]
+
+        assertEquals(wrapper.towerId, feature.getStringProperty(TOWER_ID_PROPERTY))
+        assertTrue(feature.getBooleanProperty(SERVING_PROPERTY))
+        assertEquals("LTE", feature.getStringProperty("radio"))
+        assertEquals(42L, feature.getNumberProperty("cid").toLong())
+        assertEquals(wrapper.tower.lat, feature.getNumberProperty("lat").toDouble(), 0.0)
+        assertEquals(wrapper.tower.lon, feature.getNumberProperty("lon").toDouble(), 0.0)
+    }
+
+    @Test
+    fun `clear_forcesTheNextUpdateToReturnFeatures`() {
+        val cache = TowerFeatureCache()
+        val list = towers(0, 10)
+        cache.update(list, emptySet())
+
+        cache.clear()
+
+        assertNotNull(cache.update(list, emptySet()))
+    }
+}
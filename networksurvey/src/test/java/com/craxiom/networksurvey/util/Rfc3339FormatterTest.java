@@ -0,0 +1,107 @@
+package com.craxiom.networksurvey.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+public class Rfc3339FormatterTest
+{
+    private static final ZoneId[] ZONES = {ZoneId.of("UTC"), ZoneId.of("America/New_York"),
+            ZoneId.of("Asia/Kolkata"), ZoneId.of("Australia/Lord_Howe"), ZoneId.of("America/St_Johns")};
+
+    @Test
+    public void format_matchesIsoOffsetDateTime()
+    {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++)
+        {
+            final ZoneId zone = ZONES[random.nextInt(ZONES.length)];
+            // Stay within a few days so that the per-second cache is exercised, not just rebuilt
+            long epochMillis = 1_600_000_000_000L + random.nextInt(3 * 24 * 60 * 60 * 1000);
+            if (i % 4 == 0) epochMillis -= epochMillis % 100;
+
+            assertEquals(isoFormat(epochMillis, zone), Rfc3339Formatter.format(epochMillis, zone));
+        }
+    }
+
+    @Test
+    public void format_trailingZerosInTheFractionAreDropped()
+    {
+        final ZoneId utc = ZoneId.of("UTC");
+        assertEquals("2020-08-19T18:13:22.548Z", Rfc3339Formatter.format(1597860802548L, utc));
+        assertEquals("2020-08-19T18:13:22.54Z", Rfc3339Formatter.format(1597860802540L, utc));
+        assertEquals("2020-08-19T18:13:22.5Z", Rfc3339Formatter.format(1597860802500L, utc));
+        assertEquals("2020-08-19T18:13:22.005Z", Rfc3339Formatter.format(1597860802005L, utc));
+        assertEquals("2020-08-19T18:13:22Z", Rfc3339Formatter.format(1597860802000L, utc));
+    }
+
+    @Test
+    public void format_acrossDaylightSavingTransition()
+    {
+        final ZoneId zone = ZoneId.of("America/New_York");
+        // 2021-03-14T01:59:59.999-05:00 is the last millisecond before the clocks jump forward
+        final long beforeTransition = 1615705199999L;
+
+        assertEquals("2021-03-14T01:59:59.999-05:00", Rfc3339Formatter.format(beforeTransition, zone));
+        assertEquals("2021-03-14T03:00:00-04:00", Rfc3339Formatter.format(beforeTransition + 1, zone));
+    }
+
+    @Test
+    public void parse_roundTripsFormattedStrings()
+    {
+        final Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++)
+        {
+            final ZoneId zone = ZONES[random.nextInt(ZONES.length)];
+            final long epochMillis = 1_600_000_000_000L + random.nextInt(60 * 60 * 1000);
+
+            // Parse twice so that both the slow path and the cached path are checked
+            final String formatted = Rfc3339Formatter.format(epochMillis, zone);
+            assertEquals(epochMillis, Rfc3339Formatter.parseEpochMillis(formatted));
+            assertEquals(epochMillis, Rfc3339Formatter.parseEpochMillis(formatted));
+        }
+    }
+
+    @Test
+    public void parse_moreThanMillisecondPrecision()
+    {
+        final String[] values = {"2020-08-19T18:13:22.548123+00:00", "2020-08-19T18:13:22.548123456Z",
+                "2020-08-19T18:13:22.1Z", "2020-08-19T18:13:22Z", "2020-08-19T18:13:22.9+05:30"};
+        for (String value : values)
+        {
+            final long expected = ZonedDateTime.parse(value, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant().toEpochMilli();
+            assertEquals(value, expected, Rfc3339Formatter.parseEpochMillis(value));
+            assertEquals(value, expected, Rfc3339Formatter.parseEpochMillis(value));
+        }
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void parse_invalidFractionAfterCachedSecond_throws()
+    {
+        Rfc3339Formatter.parseEpochMillis("2020-08-19T18:13:22.5+00:00");
+        Rfc3339Formatter.parseEpochMillis("2020-08-19T18:13:22.5x+00:00");
+    }
+
+    @Test
+    public void recordTimestamp_holdsTheEpochAndItsFormattedString()
+    {
+        final RecordTimestamp timestamp = RecordTimestamp.of(1597860802548L, 1234L, ZoneId.of("UTC"));
+
+        assertEquals(1597860802548L, timestamp.epochMillis);
+        assertEquals(1234L, timestamp.elapsedRealtimeMillis);
+        assertEquals("2020-08-19T18:13:22.548Z", timestamp.rfc3339);
+        assertEquals(timestamp.epochMillis, Rfc3339Formatter.parseEpochMillis(timestamp.rfc3339));
+    }
+
+    private static String isoFormat(long epochMillis, ZoneId zone)
+    {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone));
+    }
+}
@@ -0,0 +1,66 @@
+package com.craxiom.networksurvey.util
+
+import com.craxiom.networksurvey.model.ThroughputSample.Phase
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+/**
+ * Unit tests for the phase tagging and throughput math of ThroughputSampler.
+ */
+class ThroughputSamplerTest {
+
+    private val oneMegabit = 1024L * 1024 / 8
+
+    @Test
+    fun `sample_tagsEachWindowWithThePhaseItEndedIn`() {
+        val sampler = ThroughputSampler(0, 0)
+
+        assertEquals(Phase.LATENCY, sampler.sample(0, 1_000, Phase.LATENCY)!!.phase)
+        assertEquals(Phase.DOWNLOAD, sampler.sample(10 * oneMegabit, 2_000, Phase.DOWNLOAD)!!.phase)
+        assertEquals(Phase.UPLOAD, sampler.sample(15 * oneMegabit, 3_000, Phase.UPLOAD)!!.phase)
+    }
+
+    @Test
+    fun `sample_computesMbpsFromTheByteDelta`() {
+        val sampler = ThroughputSampler(0, 0)
+
+        assertEquals(8.0, sampler.sample(8 * oneMegabit, 1_000, Phase.DOWNLOAD)!!.throughputMbps, 1e-9)
+        // A two second window halves the rate
+        assertEquals(2.0, sampler.sample(12 * oneMegabit, 3_000, Phase.DOWNLOAD)!!.throughputMbps, 1e-9)
+    }
+
+    @Test
+    fun `sample_latencyPhaseReportsNoThroughput`() {
+        val sampler = ThroughputSampler(0, 0)
+
+        assertEquals(0.0, sampler.sample(oneMegabit, 1_000, Phase.LATENCY)!!.throughputMbps, 0.0)
+    }
+
+    @Test
+    fun `sample_idlePhaseIsNotSampled`() {
+        val sampler = ThroughputSampler(0, 0)
+        sampler.sample(4 * oneMegabit, 1_000, Phase.UPLOAD)
+
+        assertNull(sampler.sample(5 * oneMegabit, 2_000, Phase.IDLE))
+        assertNull(sampler.sample(6 * oneMegabit, 3_000, Phase.IDLE))
+    }
+
+    @Test
+    fun `sample_bytesFromTheIdleWaitAreNotCountedInTheNextTest`() {
+        val sampler = ThroughputSampler(0, 0)
+        sampler.sample(4 * oneMegabit, 1_000, Phase.UPLOAD)
+        sampler.sample(9 * oneMegabit, 2_000, Phase.IDLE)
+
+        val first = sampler.sample(10 * oneMegabit, 3_000, Phase.DOWNLOAD)!!
+
+        assertEquals(1.0, first.throughputMbps, 1e-9)
+    }
+
+    @Test
+    fun `sample_zeroLengthWindowReportsNoThroughput`() {
+        val sampler = ThroughputSampler(0, 1_000)
+
+        assertEquals(0.0, sampler.sample(oneMegabit, 1_000, Phase.DOWNLOAD)!!.throughputMbps, 0.0)
+    }
+}
@@ -0,0 +1,256 @@
+package com.craxiom.networksurvey.wifichannel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class WifiChannelAnalyzerTest
+{
+    private static final double DELTA = 1e-9;
+
+    private final WifiChannelAnalyzer analyzer = new WifiChannelAnalyzer();
+
+    private static WifiBssSample ap20(int frequencyMhz, int rssi)
+    {
+        return new WifiBssSample(frequencyMhz, frequencyMhz, 20, rssi, -1, -1);
+    }
+
+    private static WifiBssSample apWithLoad(int frequencyMhz, int rssi, int channelUtilization, int stationCount)
+    {
+        return new WifiBssSample(frequencyMhz, frequencyMhz, 20, rssi, channelUtilization, stationCount);
+    }
+
+    @Test
+    public void testPartialOverlapOn24Ghz()
+    {
+        final WifiChannelReport report = analyzer.onScan(Collections.singletonList(ap20(2437, -50)), 1_000);
+
+        final double[] expected = {0, 0, 0.25, 0.5, 0.75, 1, 0.75, 0.5, 0.25, 0, 0};
+        for (int channel = 1; channel <= 11; channel++)
+        {
+            assertEquals("Channel " + channel, expected[channel - 1],
+                    report.getChannel(WifiBand.BAND_2_4_GHZ, channel).weightedBssCount, DELTA);
+        }
+        assertEquals(1, report.getChannel(WifiBand.BAND_2_4_GHZ, 3).bssCount);
+        assertEquals(0, report.getChannel(WifiBand.BAND_2_4_GHZ, 2).bssCount);
+    }
+
+    @Test
+    public void testRssiWeight()
+    {
+        assertEquals(1d, WifiChannelAnalyzer.getRssiWeight(-40), DELTA);
+        assertEquals(1d, WifiChannelAnalyzer.getRssiWeight(WifiChannelAnalyzer.STRONG_RSSI), DELTA);
+        assertEquals(0.5d, WifiChannelAnalyzer.getRssiWeight(-75), DELTA);
+        assertEquals(0d, WifiChannelAnalyzer.getRssiWeight(WifiChannelAnalyzer.WEAK_RSSI), DELTA);
+        assertEquals(0d, WifiChannelAnalyzer.getRssiWeight(-100), DELTA);
+    }
+
+    @Test
+    public void testWideChannelCoversEachSubchannel()
+    {
+        final WifiChannelReport report = analyzer.onScan(
+                Collections.singletonList(new WifiBssSample(5180, 5210, 80, -75, -1, -1)), 1_000);
+
+        for (int channel : new int[]{36, 40, 44, 48})
+        {
+            final WifiChannelCongestion congestion = report.getChannel(WifiBand.BAND_5_GHZ, channel);
+            assertEquals(1, congestion.bssCount);
+            assertEquals(0.5, congestion.weightedBssCount, DELTA);
+        }
+        assertEquals(0, report.getChannel(WifiBand.BAND_5_GHZ, 52).bssCount);
+        assertEquals(52, report.getRecommendedChannel(WifiBand.BAND_5_GHZ));
+    }
+
+    @Test
+    public void testApartmentSnapshot()
+    {
+        final WifiChannelReport report = analyzer.onScan(WifiScanSnapshots.parse(WifiScanSnapshots.APARTMENT_2_4_GHZ),
+                1_000);
+
+        assertEquals(15, report.getBssCount(WifiBand.BAND_2_4_GHZ));
+        assertEquals(11, report.getRecommendedChannel(WifiBand.BAND_2_4_GHZ));
+
+        final WifiChannelCongestion channel6 = report.getChannel(WifiBand.BAND_2_4_GHZ, 6);
+        assertEquals((170 + 160) / 2d / 255d, channel6.utilization, DELTA);
+        assertEquals(13, channel6.stationCount);
+        // The six APs on channel 6, plus the AP on channel 3 and the 40 MHz AP that partly overlap it
+        assertEquals(8, channel6.bssCount);
+
+        final WifiChannelCongestion channel11 = report.getChannel(WifiBand.BAND_2_4_GHZ, 11);
+        assertEquals(16 / 30d + 7 / 30d, channel11.weightedBssCount, DELTA);
+        assertEquals(channel11.weightedBssCount + WifiChannelAnalyzer.UTILIZATION_WEIGHT * 60 / 255d,
+                channel11.score, DELTA);
+
+        // Only the 2.4 GHz band was seen
+        assertEquals(-1, report.getRecommendedChannel(WifiBand.BAND_5_GHZ));
+        assertTrue(report.getChannels(WifiBand.BAND_6_GHZ).isEmpty());
+    }
+
+    @Test
+    public void testUtilizationChangesRecommendation()
+    {
+        final List<WifiBssSample> scan = Arrays.asList(
+                apWithLoad(2412, -55, 250, 20),
+                ap20(2437, -55),
+                ap20(2437, -55),
+                apWithLoad(2462, -55, 128, 8));
+        final WifiChannelReport report = analyzer.onScan(scan, 1_000);
+
+        // Channels 1 and 11 each have one AP and channel 6 has two, but the APs on 1 and 11 report that they are busy
+        assertEquals(6, report.getRecommendedChannel(WifiBand.BAND_2_4_GHZ));
+        assertEquals(Double.NaN, report.getChannel(WifiBand.BAND_2_4_GHZ, 6).utilization, 0d);
+        assertEquals(-1, report.getChannel(WifiBand.BAND_2_4_GHZ, 6).stationCount);
+    }
+
+    @Test
+    public void testSameRecommendations()
+    {
+        final List<WifiBssSample> scan = Arrays.asList(ap20(2412, -55), ap20(2437, -55));
+        final WifiChannelReport first = analyzer.onScan(scan, 1_000);
+        final WifiChannelReport second = analyzer.onScan(scan, 2_000);
+
+        assertTrue(second.hasSameRecommendations(first));
+        assertFalse(second.hasSameRecommendations(null));
+
+        // Busy APs on channel 11 move the recommendation to channel 1 or 6 once the smoothing catches up
+        final List<WifiBssSample> busyScan = Arrays.asList(ap20(2412, -55), ap20(2437, -55),
+                apWithLoad(2462, -50, 255, 40), apWithLoad(2462, -50, 255, 40));
+        WifiChannelReport moved = null;
+        for (int i = 0; i < 10; i++)
+        {
+            moved = analyzer.onScan(busyScan, 3_000 + i * 1_000L);
+        }
+
+        assertEquals(11, first.getRecommendedChannel(WifiBand.BAND_2_4_GHZ));
+        assertNotNull(moved);
+        assertFalse(moved.hasSameRecommendations(first));
+    }
+
+    @Test
+    public void testOfficeSnapshot()
+    {
+        final WifiChannelReport report = analyzer.onScan(WifiScanSnapshots.parse(WifiScanSnapshots.OFFICE_5_AND_6_GHZ),
+                1_000);
+
+        assertEquals(5, report.getBssCount(WifiBand.BAND_5_GHZ));
+        assertEquals(1, report.getBssCount(WifiBand.BAND_6_GHZ));
+        assertEquals(52, report.getRecommendedChannel(WifiBand.BAND_5_GHZ));
+
+        // The two APs on channel 36 to 48 are both counted on each of those channels, but the utilization is only
+        // reported for the primary channel
+        final WifiChannelCongestion channel40 = report.getChannel(WifiBand.BAND_5_GHZ, 40);
+        assertEquals(2, channel40.bssCount);
+        assertEquals(Double.NaN, channel40.utilization, 0d);
+        assertEquals(90 / 255d, report.getChannel(WifiBand.BAND_5_GHZ, 36).utilization, DELTA);
+
+        // The 160 MHz AP covers channels 33 to 61, and only the preferred scanning channels are recommended
+        assertEquals(1, report.getChannel(WifiBand.BAND_6_GHZ, 33).bssCount);
+        assertEquals(1, report.getChannel(WifiBand.BAND_6_GHZ, 61).bssCount);
+        assertEquals(0, report.getChannel(WifiBand.BAND_6_GHZ, 65).bssCount);
+        assertEquals(5, report.getRecommendedChannel(WifiBand.BAND_6_GHZ));
+    }
+
+    @Test
+    public void testScansAreSmoothed()
+    {
+        analyzer.onScan(Collections.singletonList(ap20(2412, -50)), 1_000);
+        WifiChannelReport report = null;
+        for (int i = 1; i <= 3; i++)
+        {
+            report = analyzer.onScan(Collections.singletonList(ap20(2462, -50)), 1_000 + i * 10_000L);
+        }
+
+        final double decay = Math.pow(1 - WifiChannelAnalyzer.SMOOTHING, 3);
+        assertEquals(decay, report.getChannel(WifiBand.BAND_2_4_GHZ, 1).weightedBssCount, DELTA);
+        assertEquals(1 - decay, report.getChannel(WifiBand.BAND_2_4_GHZ, 11).weightedBssCount, DELTA);
+        // The counts are only from the latest scan
+        assertEquals(0, report.getChannel(WifiBand.BAND_2_4_GHZ, 1).bssCount);
+        assertEquals(1, report.getChannel(WifiBand.BAND_2_4_GHZ, 11).bssCount);
+    }
+
+    @Test
+    public void testUtilizationExpires()
+    {
+        analyzer.onScan(Collections.singletonList(apWithLoad(2437, -60, 255, 1)), 1_000);
+        WifiChannelReport report = analyzer.onScan(Collections.singletonList(ap20(2437, -60)),
+                1_000 + WifiChannelAnalyzer.UTILIZATION_TIMEOUT_MS);
+        assertEquals(1d, report.getChannel(WifiBand.BAND_2_4_GHZ, 6).utilization, DELTA);
+
+        report = analyzer.onScan(Collections.singletonList(ap20(2437, -60)),
+                2_000 + WifiChannelAnalyzer.UTILIZATION_TIMEOUT_MS);
+        assertEquals(Double.NaN, report.getChannel(WifiBand.BAND_2_4_GHZ, 6).utilization, 0d);
+    }
+
+    @Test
+    public void testBandTimesOut()
+    {
+        analyzer.onScan(WifiScanSnapshots.parse(WifiScanSnapshots.APARTMENT_2_4_GHZ), 1_000);
+
+        WifiChannelReport report = analyzer.onScan(Collections.emptyList(), 1_000 + WifiChannelAnalyzer.BAND_TIMEOUT_MS);
+        assertEquals(11, report.getRecommendedChannel(WifiBand.BAND_2_4_GHZ));
+        assertEquals(0, report.getBssCount(WifiBand.BAND_2_4_GHZ));
+
+        report = analyzer.onScan(Collections.emptyList(), 2_000 + WifiChannelAnalyzer.BAND_TIMEOUT_MS);
+        assertEquals(-1, report.getRecommendedChannel(WifiBand.BAND_2_4_GHZ));
+    }
+
+    @Test
+    public void testRecommendationIsStableWhenReplayingSnapshot()
+    {
+        final int[] rssiOffsets = {0, 3, -2, 5, -4, 1, -6, 2, 4, -3, 0, 6, -5, 2, -1, 3, -2, 1, 0, -4};
+        for (int i = 0; i < rssiOffsets.length; i++)
+        {
+            final List<WifiBssSample> scan = WifiScanSnapshots.parse(WifiScanSnapshots.APARTMENT_2_4_GHZ,
+                    rssiOffsets[i]);
+            final WifiChannelReport report = analyzer.onScan(scan, 1_000 + i * 5_000L);
+            assertEquals("Scan " + i, 11, report.getRecommendedChannel(WifiBand.BAND_2_4_GHZ));
+        }
+    }
+
+    @Test
+    public void testClear()
+    {
+        analyzer.onScan(Collections.singletonList(ap20(2412, -50)), 1_000);
+        analyzer.clear();
+
+        final WifiChannelReport report = analyzer.onScan(Collections.singletonList(ap20(2462, -50)), 2_000);
+        assertEquals(0d, report.getChannel(WifiBand.BAND_2_4_GHZ, 1).weightedBssCount, DELTA);
+    }
+
+    @Test
+    public void testParseBssLoad()
+    {
+        // 266 stations, 50% utilization, and the admission capacity
+        final ByteBuffer element = ByteBuffer.wrap(new byte[]{0x0A, 0x01, (byte) 0x80, 0x10, 0x00});
+        final int bssLoad = WifiBssSample.parseBssLoad(element);
+        assertEquals(266, bssLoad >>> 8);
+        assertEquals(128, bssLoad & 0xFF);
+        assertEquals(0, element.position());
+
+        final ByteBuffer offset = ByteBuffer.wrap(new byte[]{0x7F, 0x03, 0x00, (byte) 0xFF});
+        offset.position(1);
+        assertEquals((3 << 8) | 0xFF, WifiBssSample.parseBssLoad(offset));
+
+        assertEquals(-1, WifiBssSample.parseBssLoad(ByteBuffer.wrap(new byte[]{0x01, 0x00})));
+        assertEquals(-1, WifiBssSample.parseBssLoad(null));
+    }
+
+    @Test
+    public void testBandFromFrequency()
+    {
+        assertEquals(WifiBand.BAND_2_4_GHZ, WifiBand.fromFrequency(2484));
+        assertEquals(WifiBand.BAND_5_GHZ, WifiBand.fromFrequency(5825));
+        assertEquals(WifiBand.BAND_6_GHZ, WifiBand.fromFrequency(5955));
+        assertNotNull(WifiBand.fromFrequency(7115));
+        assertNull(WifiBand.fromFrequency(60_480));
+    }
+}
@@ -0,0 +1,72 @@
+package com.craxiom.networksurvey.wifichannel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wi-Fi scans recorded with Network Survey, reduced to the fields that the {@link WifiChannelAnalyzer} uses. Each row
+ * is the primary frequency, center frequency, and width in MHz, the RSSI, and the BSS Load channel utilization (0 to
+ * 255) and station count, which are -1 when the AP did not send a BSS Load element.
+ */
+final class WifiScanSnapshots
+{
+    /**
+     * An apartment building in the evening. Channels 1 and 6 are crowded and busy, there is a 40 MHz AP on channels 1
+     * to 5, and one AP is on the overlapping channel 3.
+     */
+    static final String[] APARTMENT_2_4_GHZ = {
+            "2412,2412,20,-48,140,6",
+            "2412,2412,20,-61,-1,-1",
+            "2412,2412,20,-70,-1,-1",
+            "2412,2412,20,-78,-1,-1",
+            "2412,2412,20,-85,-1,-1",
+            "2412,2422,40,-65,-1,-1",
+            "2422,2422,20,-77,-1,-1",
+            "2437,2437,20,-52,170,9",
+            "2437,2437,20,-58,160,4",
+            "2437,2437,20,-66,-1,-1",
+            "2437,2437,20,-72,-1,-1",
+            "2437,2437,20,-80,-1,-1",
+            "2437,2437,20,-88,-1,-1",
+            "2462,2462,20,-74,60,2",
+            "2462,2462,20,-83,-1,-1",
+    };
+
+    /**
+     * An office with an 80 MHz AP on channels 36 to 48, a 40 MHz AP on 100 and 104, an 80 MHz AP on 149 to 161, a
+     * 20 MHz AP on 165, and a 160 MHz 6 GHz AP on channels 33 to 61 with its primary channel on 37.
+     */
+    static final String[] OFFICE_5_AND_6_GHZ = {
+            "5180,5210,80,-45,90,14",
+            "5200,5210,80,-71,-1,-1",
+            "5500,5510,40,-68,-1,-1",
+            "5745,5775,80,-63,40,3",
+            "5825,5825,20,-80,-1,-1",
+            "6135,6185,160,-58,-1,-1",
+    };
+
+    private WifiScanSnapshots()
+    {
+    }
+
+    static List<WifiBssSample> parse(String[] rows)
+    {
+        return parse(rows, 0);
+    }
+
+    /**
+     * @param rssiOffset Added to every RSSI, to replay a snapshot with a little variation from scan to scan.
+     */
+    static List<WifiBssSample> parse(String[] rows, int rssiOffset)
+    {
+        final List<WifiBssSample> samples = new ArrayList<>(rows.length);
+        for (String row : rows)
+        {
+            final String[] fields = row.split(",");
+            samples.add(new WifiBssSample(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                    Integer.parseInt(fields[2]), Integer.parseInt(fields[3]) + rssiOffset,
+                    Integer.parseInt(fields[4]), Integer.parseInt(fields[5])));
+        }
+        return samples;
+    }
+}